@@ -165,6 +165,7 @@ compressor
     | SNAPPY
     | LZ4
     | GZIP
+    | ZSTD
     ;
 
 attributeClause
@@ -184,7 +185,10 @@ whereClause
     ;
 
 showWhereClause
-    : WHERE (property | containsExpression)
+    : WHERE tagPredicate (OPERATOR_AND tagPredicate)*
+    ;
+tagPredicate
+    : property | containsExpression
     ;
 containsExpression
     : name=ID OPERATOR_CONTAINS value=propertyValue
@@ -670,7 +674,7 @@ dateExpression
     ;
 
 encoding
-    : PLAIN | DICTIONARY | RLE | DIFF | TS_2DIFF | GORILLA | REGULAR
+    : PLAIN | DICTIONARY | RLE | DIFF | TS_2DIFF | GORILLA | REGULAR | AUTO
     ;
 
 realLiteral
@@ -920,6 +924,10 @@ REGULAR
     : R E G U L A R
     ;
 
+AUTO
+    : A U T O
+    ;
+
 BITMAP
     : B I T M A P
     ;
@@ -1160,6 +1168,10 @@ LZ4
    : L Z '4' 
    ;
 
+ZSTD
+   : Z S T D
+   ;
+
 LATEST
     : L A T E S T
     ;
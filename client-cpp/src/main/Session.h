@@ -93,7 +93,7 @@ namespace CompressionType{
 
     enum CompressionType
     {
-        UNCOMPRESSED, SNAPPY, GZIP, LZO, SDT, PAA, PLA, LZ4
+        UNCOMPRESSED, SNAPPY, GZIP, LZO, SDT, PAA, PLA, LZ4, ZSTD
     };
 }
 namespace TSDataType{
@@ -113,6 +113,7 @@ namespace TSEncoding {
         GORILLA_V1 = 6,
         REGULAR = 7,
         GORILLA = 8,
+        AUTO = 9,
     };
 }
 namespace TSStatusCode {
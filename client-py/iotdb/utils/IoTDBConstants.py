@@ -40,6 +40,7 @@ class TSEncoding(Enum):
     GORILLA_V1 = 6
     REGULAR = 7
     GORILLA = 8
+    AUTO = 9
 
 @unique
 class Compressor(Enum):
@@ -51,3 +52,4 @@ class Compressor(Enum):
     PAA = 5
     PLA = 6
     LZ4 = 7
+    ZSTD = 8
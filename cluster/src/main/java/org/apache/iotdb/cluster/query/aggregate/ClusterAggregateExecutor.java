@@ -58,6 +58,12 @@ public class ClusterAggregateExecutor extends AggregationExecutor {
     this.aggregator = new ClusterAggregator(metaMember);
   }
 
+  @Override
+  protected boolean canAggregateInParallel() {
+    // the series are aggregated by the data groups through ClusterAggregator
+    return false;
+  }
+
   @Override
   protected void aggregateOneSeries(
       Map.Entry<PartialPath, List<Integer>> pathToAggrIndexes,
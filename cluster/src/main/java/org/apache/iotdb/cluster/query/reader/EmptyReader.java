@@ -28,6 +28,7 @@ import org.apache.iotdb.db.query.reader.series.ManagedSeriesReader;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.utils.Pair;
 
@@ -140,6 +141,11 @@ public class EmptyReader extends BaseManagedSeriesReader
     return null;
   }
 
+  @Override
+  public ColumnBatch nextPageColumnBatch() {
+    return null;
+  }
+
   @Override
   public boolean isAscending() {
     return false;
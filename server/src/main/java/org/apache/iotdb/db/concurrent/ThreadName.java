@@ -35,6 +35,7 @@ public enum ThreadName {
   FLUSH_SERVICE("Flush"),
   FLUSH_SUB_TASK_SERVICE("Flush-SubTask"),
   COMPACTION_SERVICE("Compaction"),
+  COMPACTION_SUB_TASK_SERVICE("Compaction-SubTask"),
   WAL_DAEMON("WAL-Sync"),
   WAL_FORCE_DAEMON("WAL-Force"),
   INDEX_SERVICE("Index"),
@@ -42,6 +43,7 @@ public enum ThreadName {
   SYNC_SERVER("Sync"),
   SYNC_MONITOR("Sync-Monitor"),
   LOAD_TSFILE("Load-TsFile"),
+  MTREE_SNAPSHOT_LOADER("MTree-Snapshot-Loader"),
   TIME_COST_STATISTIC("TIME_COST_STATISTIC"),
   QUERY_SERVICE("Query"),
   WINDOW_EVALUATION_SERVICE("WindowEvaluationTaskPoolManager"),
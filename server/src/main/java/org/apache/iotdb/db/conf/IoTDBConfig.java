@@ -33,6 +33,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
 
+import io.netty.util.internal.PlatformDependent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -162,6 +163,18 @@ public class IoTDBConfig {
    */
   private long forceWalPeriodInMs = 100;
 
+  /**
+   * Whether an insertion returns only after its write ahead log is forced to disk. The logs of
+   * concurrent insertions are written and forced together by one flush.
+   */
+  private boolean enableWalGroupCommit = false;
+
+  /**
+   * How long a group commit waits for more logs before flushing them, in milliseconds. 0 means the
+   * logs put during the last flush are committed immediately.
+   */
+  private long walGroupCommitDelayInMs = 0;
+
   /**
    * The size of the log buffer in each log node (in bytes). Due to the double buffer mechanism, if
    * WAL is enabled and the size of the inserted plan is greater than one-half of this parameter,
@@ -251,6 +264,21 @@ public class IoTDBConfig {
   /** How many threads can concurrently query. When <= 0, use CPU core number. */
   private int concurrentQueryThread = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * How many series of an aggregation query can be aggregated concurrently in the query thread
+   * pool. It is also limited by concurrentQueryThread. When <= 1, the series are aggregated one by
+   * one in the thread of the query.
+   */
+  private int aggregationParallelism = 4;
+
+  /**
+   * When the files of a series in a raw data query lie in several time partitions, how many
+   * partitions after the one being returned are read ahead concurrently in the query thread pool.
+   * When they lie in one partition, the ranges between the start times of its sequence files are
+   * read ahead instead. When <= 0, the series is read by a single reader.
+   */
+  private int prefetchedTimePartitionNum = 2;
+
   /** How many threads can concurrently evaluate windows. When <= 0, use CPU core number. */
   private int concurrentWindowEvaluationThread = Runtime.getRuntime().availableProcessors();
 
@@ -527,12 +555,21 @@ public class IoTDBConfig {
   /** The limit of compaction merge can reach per second */
   private int mergeWriteThroughputMbPerSec = 8;
 
+  /** The limit of bytes merges and compactions can read per second, 0 for no limit */
+  private int mergeReadThroughputMbPerSec = 0;
+
   /**
    * How many thread will be set up to perform compaction, 10 by default. Set to 1 when less than or
    * equal to 0.
    */
   private int compactionThreadNum = 10;
 
+  /**
+   * How many sub-tasks a compaction task is split into to merge the chunks of devices in parallel,
+   * 4 by default. Set to 1 when less than or equal to 0.
+   */
+  private int compactionSubThreadNum = 4;
+
   /*
    * How many thread will be set up to perform continuous queries. When <= 0, use max(1, CPU core number / 2).
    */
@@ -602,6 +639,12 @@ public class IoTDBConfig {
   /** the default fill interval in LinearFill and PreviousFill, -1 means infinite past time */
   private int defaultFillInterval = -1;
 
+  /**
+   * Whether queries read sealed local TsFiles through memory mapping, so that chunks and metadata
+   * are not copied into the heap.
+   */
+  private boolean enableMmapTsFileRead = false;
+
   /**
    * default TTL for storage groups that are not set TTL by statements, in ms.
    *
@@ -613,6 +656,27 @@ public class IoTDBConfig {
   /** The default value of primitive array size in array pool */
   private int primitiveArraySize = 32;
 
+  /**
+   * Whether to keep the time and value arrays of numeric TVLists (INT32, INT64, FLOAT, DOUBLE) in
+   * pooled direct memory instead of the java heap. Remember to raise -XX:MaxDirectMemorySize
+   * accordingly.
+   */
+  private boolean enableOffHeapMemTable = false;
+
+  /**
+   * The direct memory for the arrays of off-heap TVLists, which are flushed and rejected at the
+   * flush and reject proportions of it like the heap memtables. The rest of the direct memory is
+   * left to the WAL buffers, the network and the memory-mapped reads. Unit: byte
+   */
+  private long offHeapMemTableSize = PlatformDependent.maxDirectMemory() / 2;
+
+  /**
+   * Whether insertions into one storage group run concurrently. If enabled, insertions share the
+   * storage group lock and are only serialized per device, while memtable switch, flush and close
+   * still take the storage group lock exclusively.
+   */
+  private boolean enableConcurrentInsert = false;
+
   /** whether enable data partition. If disabled, all data belongs to partition 0 */
   private boolean enablePartition = false;
 
@@ -628,12 +692,25 @@ public class IoTDBConfig {
    */
   private int mtreeSnapshotThresholdTime = 3600;
 
+  /**
+   * whether to evict the measurements of the least recently used devices to disk, when the memory
+   * for schema can not hold all timeseries, instead of refusing to create more
+   */
+  private boolean enableMTreeEviction = false;
+
   /**
    * Time range for partitioning data inside each storage group, the unit is second. Default time is
    * a week.
    */
   private long partitionInterval = 604800;
 
+  /**
+   * Interval of the pre-aggregated buckets (rollups) written beside the sequence TsFiles, the unit
+   * is second. Group by queries whose windows are aligned to the buckets read them instead of the
+   * data. When <= 0, no rollup is written.
+   */
+  private long rollupInterval = 0;
+
   /**
    * Level of TimeIndex, which records the start time and end time of TsFileResource. Currently,
    * DEVICE_TIME_INDEX and FILE_TIME_INDEX are supported, and could not be changed after first set.
@@ -764,6 +841,14 @@ public class IoTDBConfig {
     this.concurrentWritingTimePartition = concurrentWritingTimePartition;
   }
 
+  public boolean isEnableMmapTsFileRead() {
+    return enableMmapTsFileRead;
+  }
+
+  public void setEnableMmapTsFileRead(boolean enableMmapTsFileRead) {
+    this.enableMmapTsFileRead = enableMmapTsFileRead;
+  }
+
   public int getDefaultFillInterval() {
     return defaultFillInterval;
   }
@@ -788,6 +873,14 @@ public class IoTDBConfig {
     this.enableMTreeSnapshot = enableMTreeSnapshot;
   }
 
+  public boolean isEnableMTreeEviction() {
+    return enableMTreeEviction;
+  }
+
+  public void setEnableMTreeEviction(boolean enableMTreeEviction) {
+    this.enableMTreeEviction = enableMTreeEviction;
+  }
+
   public int getMtreeSnapshotInterval() {
     return mtreeSnapshotInterval;
   }
@@ -812,6 +905,14 @@ public class IoTDBConfig {
     this.partitionInterval = partitionInterval;
   }
 
+  public long getRollupInterval() {
+    return rollupInterval;
+  }
+
+  public void setRollupInterval(long rollupInterval) {
+    this.rollupInterval = rollupInterval;
+  }
+
   public TimeIndexLevel getTimeIndexLevel() {
     return timeIndexLevel;
   }
@@ -988,6 +1089,22 @@ public class IoTDBConfig {
     this.flushWalThreshold = flushWalThreshold;
   }
 
+  public boolean isEnableWalGroupCommit() {
+    return enableWalGroupCommit;
+  }
+
+  public void setEnableWalGroupCommit(boolean enableWalGroupCommit) {
+    this.enableWalGroupCommit = enableWalGroupCommit;
+  }
+
+  public long getWalGroupCommitDelayInMs() {
+    return walGroupCommitDelayInMs;
+  }
+
+  public void setWalGroupCommitDelayInMs(long walGroupCommitDelayInMs) {
+    this.walGroupCommitDelayInMs = walGroupCommitDelayInMs;
+  }
+
   public long getForceWalPeriodInMs() {
     return forceWalPeriodInMs;
   }
@@ -1104,10 +1221,26 @@ public class IoTDBConfig {
     return concurrentQueryThread;
   }
 
-  void setConcurrentQueryThread(int concurrentQueryThread) {
+  public void setConcurrentQueryThread(int concurrentQueryThread) {
     this.concurrentQueryThread = concurrentQueryThread;
   }
 
+  public int getAggregationParallelism() {
+    return aggregationParallelism;
+  }
+
+  public void setAggregationParallelism(int aggregationParallelism) {
+    this.aggregationParallelism = aggregationParallelism;
+  }
+
+  public int getPrefetchedTimePartitionNum() {
+    return prefetchedTimePartitionNum;
+  }
+
+  public void setPrefetchedTimePartitionNum(int prefetchedTimePartitionNum) {
+    this.prefetchedTimePartitionNum = prefetchedTimePartitionNum;
+  }
+
   public int getConcurrentWindowEvaluationThread() {
     return concurrentWindowEvaluationThread;
   }
@@ -1452,6 +1585,14 @@ public class IoTDBConfig {
     this.compactionThreadNum = compactionThreadNum;
   }
 
+  public int getCompactionSubThreadNum() {
+    return compactionSubThreadNum;
+  }
+
+  public void setCompactionSubThreadNum(int compactionSubThreadNum) {
+    this.compactionSubThreadNum = compactionSubThreadNum;
+  }
+
   public int getContinuousQueryThreadNum() {
     return continuousQueryThreadNum;
   }
@@ -1484,6 +1625,14 @@ public class IoTDBConfig {
     this.mergeWriteThroughputMbPerSec = mergeWriteThroughputMbPerSec;
   }
 
+  public int getMergeReadThroughputMbPerSec() {
+    return mergeReadThroughputMbPerSec;
+  }
+
+  public void setMergeReadThroughputMbPerSec(int mergeReadThroughputMbPerSec) {
+    this.mergeReadThroughputMbPerSec = mergeReadThroughputMbPerSec;
+  }
+
   public boolean isEnableMemControl() {
     return enableMemControl;
   }
@@ -2058,6 +2207,30 @@ public class IoTDBConfig {
     this.primitiveArraySize = primitiveArraySize;
   }
 
+  public boolean isEnableOffHeapMemTable() {
+    return enableOffHeapMemTable;
+  }
+
+  public void setEnableOffHeapMemTable(boolean enableOffHeapMemTable) {
+    this.enableOffHeapMemTable = enableOffHeapMemTable;
+  }
+
+  public long getOffHeapMemTableSize() {
+    return offHeapMemTableSize;
+  }
+
+  public void setOffHeapMemTableSize(long offHeapMemTableSize) {
+    this.offHeapMemTableSize = offHeapMemTableSize;
+  }
+
+  public boolean isEnableConcurrentInsert() {
+    return enableConcurrentInsert;
+  }
+
+  public void setEnableConcurrentInsert(boolean enableConcurrentInsert) {
+    this.enableConcurrentInsert = enableConcurrentInsert;
+  }
+
   public String getOpenIdProviderUrl() {
     return openIdProviderUrl;
   }
@@ -29,6 +29,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
 
 import com.google.common.net.InetAddresses;
+import io.netty.util.internal.PlatformDependent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -424,6 +425,17 @@ public class IoTDBDescriptor {
         conf.setConcurrentQueryThread(Runtime.getRuntime().availableProcessors());
       }
 
+      conf.setAggregationParallelism(
+          Integer.parseInt(
+              properties.getProperty(
+                  "aggregation_parallelism", Integer.toString(conf.getAggregationParallelism()))));
+
+      conf.setPrefetchedTimePartitionNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "prefetched_time_partition_num",
+                  Integer.toString(conf.getPrefetchedTimePartitionNum()))));
+
       conf.setmManagerCacheSize(
           Integer.parseInt(
               properties
@@ -494,6 +506,10 @@ public class IoTDBDescriptor {
           Integer.parseInt(
               properties.getProperty(
                   "compaction_thread_num", Integer.toString(conf.getCompactionThreadNum()))));
+      conf.setCompactionSubThreadNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "compaction_subthread_num", Integer.toString(conf.getCompactionSubThreadNum()))));
 
       conf.setMergeWriteThroughputMbPerSec(
           Integer.parseInt(
@@ -501,6 +517,12 @@ public class IoTDBDescriptor {
                   "merge_write_throughput_mb_per_sec",
                   Integer.toString(conf.getMergeWriteThroughputMbPerSec()))));
 
+      conf.setMergeReadThroughputMbPerSec(
+          Integer.parseInt(
+              properties.getProperty(
+                  "merge_read_throughput_mb_per_sec",
+                  Integer.toString(conf.getMergeReadThroughputMbPerSec()))));
+
       conf.setEnablePartialInsert(
           Boolean.parseBoolean(
               properties.getProperty(
@@ -510,6 +532,10 @@ public class IoTDBDescriptor {
           Boolean.parseBoolean(
               properties.getProperty(
                   "enable_mtree_snapshot", Boolean.toString(conf.isEnableMTreeSnapshot()))));
+      conf.setEnableMTreeEviction(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_mtree_eviction", Boolean.toString(conf.isEnableMTreeEviction()))));
       conf.setMtreeSnapshotInterval(
           Integer.parseInt(
               properties.getProperty(
@@ -613,6 +639,11 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "default_fill_interval", String.valueOf(conf.getDefaultFillInterval()))));
 
+      conf.setEnableMmapTsFileRead(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_mmap_tsfile_read", Boolean.toString(conf.isEnableMmapTsFileRead()))));
+
       conf.setTagAttributeTotalSize(
           Integer.parseInt(
               properties.getProperty(
@@ -622,6 +653,30 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "primitive_array_size", String.valueOf(conf.getPrimitiveArraySize())))));
 
+      conf.setEnableOffHeapMemTable(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_off_heap_memtable", Boolean.toString(conf.isEnableOffHeapMemTable()))));
+
+      long offHeapMemTableSize =
+          Long.parseLong(
+              properties.getProperty(
+                  "off_heap_memtable_size", Long.toString(conf.getOffHeapMemTableSize())));
+      if (offHeapMemTableSize > PlatformDependent.maxDirectMemory()) {
+        logger.warn(
+            "off_heap_memtable_size {} is larger than the max direct memory {}, use {} instead",
+            offHeapMemTableSize,
+            PlatformDependent.maxDirectMemory(),
+            conf.getOffHeapMemTableSize());
+      } else if (offHeapMemTableSize > 0) {
+        conf.setOffHeapMemTableSize(offHeapMemTableSize);
+      }
+
+      conf.setEnableConcurrentInsert(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_concurrent_insert", Boolean.toString(conf.isEnableConcurrentInsert()))));
+
       conf.setThriftMaxFrameSize(
           Integer.parseInt(
               properties.getProperty(
@@ -709,6 +764,10 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "partition_interval", String.valueOf(conf.getPartitionInterval()))));
 
+      conf.setRollupInterval(
+          Long.parseLong(
+              properties.getProperty("rollup_interval", String.valueOf(conf.getRollupInterval()))));
+
       conf.setAdminName(properties.getProperty("admin_name", conf.getAdminName()));
 
       conf.setAdminPassword(properties.getProperty("admin_password", conf.getAdminPassword()));
@@ -817,6 +876,16 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "force_wal_period_in_ms", Long.toString(conf.getForceWalPeriodInMs()))));
 
+    conf.setEnableWalGroupCommit(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_wal_group_commit", Boolean.toString(conf.isEnableWalGroupCommit()))));
+
+    conf.setWalGroupCommitDelayInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "wal_group_commit_delay_in_ms", Long.toString(conf.getWalGroupCommitDelayInMs()))));
+
     conf.setEnableDiscardOutOfOrderData(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -970,12 +1039,32 @@ public class IoTDBDescriptor {
         .setValueEncoder(
             properties.getProperty(
                 "value_encoder", TSFileDescriptor.getInstance().getConfig().getValueEncoder()));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setAutoEncodingPreference(
+            properties.getProperty(
+                "auto_encoding_preference",
+                TSFileDescriptor.getInstance().getConfig().getAutoEncodingPreference()));
     TSFileDescriptor.getInstance()
         .getConfig()
         .setCompressor(
             properties.getProperty(
                 "compressor",
                 TSFileDescriptor.getInstance().getConfig().getCompressor().toString()));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setZstdCompressionLevel(
+            Integer.parseInt(
+                properties.getProperty(
+                    "zstd_compression_level",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance().getConfig().getZstdCompressionLevel()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setZstdDictionaryPath(
+            properties.getProperty(
+                "zstd_dictionary_path",
+                TSFileDescriptor.getInstance().getConfig().getZstdDictionaryPath()));
     TSFileDescriptor.getInstance()
         .getConfig()
         .setMaxDegreeOfIndexNode(
@@ -1060,6 +1149,12 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "merge_write_throughput_mb_per_sec",
                   Integer.toString(conf.getMergeWriteThroughputMbPerSec()))));
+      // update merge_read_throughput_mb_per_sec
+      conf.setMergeReadThroughputMbPerSec(
+          Integer.parseInt(
+              properties.getProperty(
+                  "merge_read_throughput_mb_per_sec",
+                  Integer.toString(conf.getMergeReadThroughputMbPerSec()))));
     } catch (Exception e) {
       throw new QueryProcessException(String.format("Fail to reload configuration because %s", e));
     }
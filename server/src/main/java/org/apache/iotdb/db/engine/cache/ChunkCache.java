@@ -125,10 +125,18 @@ public class ChunkCache {
   }
 
   public Chunk get(ChunkMetadata chunkMetaData, boolean debug) throws IOException {
-    if (!CACHE_ENABLE) {
-      TsFileSequenceReader reader =
-          FileReaderManager.getInstance()
-              .get(chunkMetaData.getFilePath(), chunkMetaData.isClosed());
+    TsFileSequenceReader reader = null;
+    if (CACHE_ENABLE && config.isEnableMmapTsFileRead() && chunkMetaData.isClosed()) {
+      reader = FileReaderManager.getInstance().get(chunkMetaData.getFilePath(), true);
+    }
+    // the chunks of a memory-mapped file are views of the mapping, they are not cached, as they
+    // take no heap and must not be used after the reader is closed and the mapping is unmapped
+    if (!CACHE_ENABLE || (reader != null && reader.isMemoryMapped())) {
+      if (reader == null) {
+        reader =
+            FileReaderManager.getInstance()
+                .get(chunkMetaData.getFilePath(), chunkMetaData.isClosed());
+      }
       Chunk chunk = reader.readMemChunk(chunkMetaData);
       return new Chunk(
           chunk.getHeader(),
@@ -41,12 +41,16 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import static org.apache.iotdb.db.engine.compaction.utils.CompactionLogger.COMPACTION_LOG_NAME;
 
-/** CompactionMergeTaskPoolManager provides a ThreadPool to queue and run all compaction tasks. */
+/**
+ * CompactionMergeTaskPoolManager provides a ThreadPool to queue and run all compaction tasks, and
+ * another one to run the sub-tasks that a compaction task is split into.
+ */
 public class CompactionMergeTaskPoolManager implements IService {
 
   private static final Logger logger =
@@ -54,6 +58,7 @@ public class CompactionMergeTaskPoolManager implements IService {
   private static final CompactionMergeTaskPoolManager INSTANCE =
       new CompactionMergeTaskPoolManager();
   private ExecutorService pool;
+  private ExecutorService subTaskPool;
   private Map<String, Set<Future<Void>>> storageGroupTasks = new ConcurrentHashMap<>();
 
   public static CompactionMergeTaskPoolManager getInstance() {
@@ -63,10 +68,14 @@ public class CompactionMergeTaskPoolManager implements IService {
   @Override
   public void start() {
     if (pool == null) {
+      int threadNum = IoTDBDescriptor.getInstance().getConfig().getCompactionThreadNum();
       this.pool =
           IoTDBThreadPoolFactory.newScheduledThreadPool(
-              IoTDBDescriptor.getInstance().getConfig().getCompactionThreadNum(),
-              ThreadName.COMPACTION_SERVICE.getName());
+              threadNum, ThreadName.COMPACTION_SERVICE.getName());
+      this.subTaskPool =
+          IoTDBThreadPoolFactory.newFixedThreadPool(
+              Math.max(threadNum, 1) * getSubThreadNum(),
+              ThreadName.COMPACTION_SUB_TASK_SERVICE.getName());
     }
     logger.info("Compaction task manager started.");
   }
@@ -75,6 +84,7 @@ public class CompactionMergeTaskPoolManager implements IService {
   public void stop() {
     if (pool != null) {
       pool.shutdownNow();
+      subTaskPool.shutdownNow();
       logger.info("Waiting for task pool to shut down");
       waitTermination();
       storageGroupTasks.clear();
@@ -85,6 +95,7 @@ public class CompactionMergeTaskPoolManager implements IService {
   public void waitAndStop(long milliseconds) {
     if (pool != null) {
       awaitTermination(pool, milliseconds);
+      awaitTermination(subTaskPool, milliseconds);
       logger.info("Waiting for task pool to shut down");
       waitTermination();
       storageGroupTasks.clear();
@@ -121,7 +132,7 @@ public class CompactionMergeTaskPoolManager implements IService {
 
   private void waitTermination() {
     long startTime = System.currentTimeMillis();
-    while (!pool.isTerminated()) {
+    while (!pool.isTerminated() || !subTaskPool.isTerminated()) {
       int timeMillis = 0;
       try {
         Thread.sleep(200);
@@ -139,6 +150,7 @@ public class CompactionMergeTaskPoolManager implements IService {
       }
     }
     pool = null;
+    subTaskPool = null;
     storageGroupTasks.clear();
     logger.info("CompactionManager stopped");
   }
@@ -169,6 +181,29 @@ public class CompactionMergeTaskPoolManager implements IService {
     }
   }
 
+  /** @return how many sub-tasks of a compaction task can run in parallel */
+  public static int getSubThreadNum() {
+    return Math.max(IoTDBDescriptor.getInstance().getConfig().getCompactionSubThreadNum(), 1);
+  }
+
+  /**
+   * Submit a sub-task of a compaction task. The sub-task runs in the calling thread if the pool is
+   * not started, e.g., when a compaction is recovered or tested without the service.
+   */
+  public <T> Future<T> submitSubTask(Callable<T> subTask) {
+    ExecutorService currentSubTaskPool = subTaskPool;
+    if (currentSubTaskPool != null && !currentSubTaskPool.isShutdown()) {
+      try {
+        return currentSubTaskPool.submit(subTask);
+      } catch (RejectedExecutionException e) {
+        logger.warn("Compaction sub-task pool is shut down, run the sub-task directly");
+      }
+    }
+    FutureTask<T> future = new FutureTask<>(subTask);
+    future.run();
+    return future;
+  }
+
   /**
    * Abort all compactions of a storage group. The caller must acquire the write lock of the
    * corresponding storage group.
@@ -33,8 +33,11 @@ import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor.CloseCompactionMergeCallBack;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceIndex;
 import org.apache.iotdb.db.exception.MergeException;
+import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -79,6 +82,11 @@ public abstract class TsFileManagement {
   private final int maxOpenFileNumInEachUnseqCompaction =
       IoTDBDescriptor.getInstance().getConfig().getMaxOpenFileNumInEachUnseqCompaction();
 
+  /** the files indexed by the time ranges of their devices, updated with the file lists */
+  private final TsFileResourceIndex sequenceFileIndex = new TsFileResourceIndex();
+
+  private final TsFileResourceIndex unsequenceFileIndex = new TsFileResourceIndex();
+
   public TsFileManagement(String storageGroupName, String storageGroupDir) {
     this.storageGroupName = storageGroupName;
     this.storageGroupDir = storageGroupDir;
@@ -95,6 +103,25 @@ public abstract class TsFileManagement {
   @Deprecated
   public abstract List<TsFileResource> getTsFileList(boolean sequence);
 
+  /**
+   * @return the files that may hold data of the device in the time range of the filter, see {@link
+   *     TsFileResourceIndex#getOverlappedResources(String, Filter)}
+   */
+  public List<TsFileResource> getOverlappedTsFileList(
+      boolean sequence, String deviceId, Filter timeFilter) {
+    readLock();
+    try {
+      return getFileIndex(sequence).getOverlappedResources(deviceId, timeFilter);
+    } finally {
+      readUnLock();
+    }
+  }
+
+  /** the index should be changed along with the file list, under the write lock */
+  protected TsFileResourceIndex getFileIndex(boolean sequence) {
+    return sequence ? sequenceFileIndex : unsequenceFileIndex;
+  }
+
   /** get the TsFile list in sequence by time partition */
   public abstract List<TsFileResource> getTsFileListByTimePartition(
       boolean sequence, long timePartition);
@@ -334,9 +361,13 @@ public abstract class TsFileManagement {
     seqFile.writeUnlock();
   }
 
-  private void removeUnseqFiles(List<TsFileResource> unseqFiles) {
+  private void removeUnseqFiles(List<TsFileResource> seqFiles, List<TsFileResource> unseqFiles) {
     writeLock();
     try {
+      // the seq files hold the data of the unseq files from now on
+      for (TsFileResource seqFile : seqFiles) {
+        sequenceFileIndex.update(seqFile);
+      }
       removeAll(unseqFiles, false);
       // clean cache
       if (IoTDBDescriptor.getInstance().getConfig().isMetaDataCacheEnable()) {
@@ -350,6 +381,8 @@ public abstract class TsFileManagement {
     for (TsFileResource unseqFile : unseqFiles) {
       unseqFile.writeLock();
       try {
+        // release the file, which may be memory-mapped, before it is deleted
+        closeFileReader(unseqFile);
         unseqFile.remove();
       } finally {
         unseqFile.writeUnlock();
@@ -357,6 +390,14 @@ public abstract class TsFileManagement {
     }
   }
 
+  private void closeFileReader(TsFileResource tsFileResource) {
+    try {
+      FileReaderManager.getInstance().closeFileAndRemoveReader(tsFileResource.getTsFilePath());
+    } catch (IOException e) {
+      logger.error("{} cannot close the reader of {}", storageGroupName, tsFileResource, e);
+    }
+  }
+
   @SuppressWarnings("squid:S1141")
   private void updateMergeModification(TsFileResource seqFile) {
     try {
@@ -406,7 +447,7 @@ public abstract class TsFileManagement {
       logger.info("{} a merge task abnormally ends", storageGroupName);
       return;
     }
-    removeUnseqFiles(unseqFiles);
+    removeUnseqFiles(seqFiles, unseqFiles);
 
     for (int i = 0; i < seqFiles.size(); i++) {
       TsFileResource seqFile = seqFiles.get(i);
@@ -132,6 +132,7 @@ public class LevelCompactionTsFileManagement extends TsFileManagement {
   private void deleteLevelFilesInList(
       long timePartitionId, Collection<TsFileResource> mergeTsFiles, int level, boolean sequence) {
     logger.debug("{} [compaction] merge starts to delete file list", storageGroupName);
+    getFileIndex(sequence).removeAll(mergeTsFiles);
     if (sequence) {
       if (sequenceTsFileResources.containsKey(timePartitionId)) {
         if (sequenceTsFileResources.get(timePartitionId).size() > level) {
@@ -220,6 +221,7 @@ public class LevelCompactionTsFileManagement extends TsFileManagement {
   public void remove(TsFileResource tsFileResource, boolean sequence) {
     writeLock();
     try {
+      getFileIndex(sequence).remove(tsFileResource);
       if (sequence) {
         for (SortedSet<TsFileResource> sequenceTsFileResource :
             sequenceTsFileResources.get(tsFileResource.getTimePartition())) {
@@ -240,6 +242,7 @@ public class LevelCompactionTsFileManagement extends TsFileManagement {
   public void removeAll(List<TsFileResource> tsFileResourceList, boolean sequence) {
     writeLock();
     try {
+      getFileIndex(sequence).removeAll(tsFileResourceList);
       if (sequence) {
         for (List<SortedSet<TsFileResource>> partitionSequenceTsFileResource :
             sequenceTsFileResources.values()) {
@@ -266,6 +269,7 @@ public class LevelCompactionTsFileManagement extends TsFileManagement {
     try {
       long timePartitionId = tsFileResource.getTimePartition();
       int level = getMergeLevel(tsFileResource.getTsFile());
+      getFileIndex(sequence).add(tsFileResource);
       if (sequence) {
         if (level <= seqLevelNum - 1) {
           // current file has normal level
@@ -354,6 +358,8 @@ public class LevelCompactionTsFileManagement extends TsFileManagement {
     try {
       sequenceTsFileResources.clear();
       unSequenceTsFileResources.clear();
+      getFileIndex(true).clear();
+      getFileIndex(false).clear();
     } finally {
       writeUnlock();
     }
@@ -507,6 +513,7 @@ public class LevelCompactionTsFileManagement extends TsFileManagement {
                     String.format("%s [Compaction] abort", storageGroupName));
               }
               int targetLevel = getMergeLevel(targetResource.getTsFile());
+              getFileIndex(isSeq).add(targetResource);
               if (isSeq) {
                 sequenceTsFileResources.get(timePartition).get(targetLevel).add(targetResource);
                 sequenceRecoverTsFileResources.clear();
@@ -702,6 +709,7 @@ public class LevelCompactionTsFileManagement extends TsFileManagement {
                     String.format("%s [Compaction] abort", storageGroupName));
               }
 
+              getFileIndex(sequence).add(newResource);
               if (sequence) {
                 sequenceTsFileResources.get(timePartition).get(i + 1).add(newResource);
               } else {
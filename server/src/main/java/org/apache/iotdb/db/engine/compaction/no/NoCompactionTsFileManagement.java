@@ -98,6 +98,7 @@ public class NoCompactionTsFileManagement extends TsFileManagement {
   public void remove(TsFileResource tsFileResource, boolean sequence) {
     writeLock();
     try {
+      getFileIndex(sequence).remove(tsFileResource);
       if (sequence) {
         TreeSet<TsFileResource> sequenceFileTreeSet =
             sequenceFileTreeSetMap.get(tsFileResource.getTimePartition());
@@ -116,6 +117,7 @@ public class NoCompactionTsFileManagement extends TsFileManagement {
   public void removeAll(List<TsFileResource> tsFileResourceList, boolean sequence) {
     writeLock();
     try {
+      getFileIndex(sequence).removeAll(tsFileResourceList);
       if (tsFileResourceList.size() > 0) {
         tsFileResourceList.sort((o1, o2) -> (int) (o1.getTimePartition() - o2.getTimePartition()));
         if (sequence) {
@@ -162,6 +164,7 @@ public class NoCompactionTsFileManagement extends TsFileManagement {
     writeLock();
     try {
       long timePartitionId = tsFileResource.getTimePartition();
+      getFileIndex(sequence).add(tsFileResource);
       if (sequence) {
         sequenceFileTreeSetMap
             .computeIfAbsent(timePartitionId, this::newSequenceTsFileResources)
@@ -217,6 +220,8 @@ public class NoCompactionTsFileManagement extends TsFileManagement {
     try {
       sequenceFileTreeSetMap.clear();
       unSequenceFileListMap.clear();
+      getFileIndex(true).clear();
+      getFileIndex(false).clear();
     } finally {
       writeUnlock();
     }
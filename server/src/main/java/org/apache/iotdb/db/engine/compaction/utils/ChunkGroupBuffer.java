@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.compaction.utils;
+
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The chunks of some sensors of a device merged by a compaction sub-task. The sub-tasks of a
+ * compaction run in parallel, and their buffers are written into the target file one by one in the
+ * order of the devices, so the target file is still written sequentially by a single thread.
+ */
+public class ChunkGroupBuffer {
+
+  private final String device;
+  /** the merged chunks in the order they are written */
+  private final List<ChunkWrite> chunkWrites = new ArrayList<>();
+
+  private long startTime = Long.MAX_VALUE;
+  private long endTime = Long.MIN_VALUE;
+  private long pointNum = 0;
+
+  public ChunkGroupBuffer(String device) {
+    this.device = device;
+  }
+
+  public String getDevice() {
+    return device;
+  }
+
+  public long getPointNum() {
+    return pointNum;
+  }
+
+  public void writeChunk(Chunk chunk, ChunkMetadata chunkMetadata) {
+    chunkWrites.add(writer -> writer.writeChunk(chunk, chunkMetadata));
+    updateTime(chunkMetadata.getStartTime(), chunkMetadata.getEndTime());
+    pointNum += chunkMetadata.getNumOfPoints();
+  }
+
+  /** @param chunkWriter a chunk writer that no more point will be written into */
+  public void writeChunkWriter(
+      IChunkWriter chunkWriter, long startTime, long endTime, long pointNum) {
+    chunkWrites.add(chunkWriter::writeToFileWriter);
+    if (pointNum > 0) {
+      updateTime(startTime, endTime);
+      this.pointNum += pointNum;
+    }
+  }
+
+  private void updateTime(long startTime, long endTime) {
+    this.startTime = Math.min(this.startTime, startTime);
+    this.endTime = Math.max(this.endTime, endTime);
+  }
+
+  /** Write the buffered chunks into the chunk group of the device opened in the target file. */
+  public void writeTo(TsFileIOWriter writer, TsFileResource targetResource) throws IOException {
+    for (ChunkWrite chunkWrite : chunkWrites) {
+      chunkWrite.writeTo(writer);
+    }
+    chunkWrites.clear();
+    if (startTime <= endTime) {
+      targetResource.updateStartTime(device, startTime);
+      targetResource.updateEndTime(device, endTime);
+    }
+  }
+
+  @FunctionalInterface
+  private interface ChunkWrite {
+
+    void writeTo(TsFileIOWriter writer) throws IOException;
+  }
+}
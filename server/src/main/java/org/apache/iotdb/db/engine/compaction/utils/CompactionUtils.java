@@ -20,37 +20,58 @@
 package org.apache.iotdb.db.engine.compaction.utils;
 
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.CompactionMergeTaskPoolManager;
 import org.apache.iotdb.db.engine.compaction.TsFileManagement;
 import org.apache.iotdb.db.engine.merge.manage.MergeManager;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metrics.source.CompactionSource;
+import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.reader.BatchDataIterator;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderByTimestamp;
+import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
 import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.writer.RestorableTsFileIOWriter;
 
 import com.google.common.util.concurrent.RateLimiter;
-import org.apache.commons.collections4.keyvalue.DefaultMapEntry;
+import com.google.common.util.concurrent.Uninterruptibles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -60,6 +81,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static org.apache.iotdb.db.utils.MergeUtils.writeTVPair;
 import static org.apache.iotdb.db.utils.QueryUtils.modifyChunkMetaData;
@@ -81,7 +106,7 @@ public class CompactionUtils {
       TsFileSequenceReader reader = entry.getKey();
       List<ChunkMetadata> chunkMetadataList = entry.getValue();
       for (ChunkMetadata chunkMetadata : chunkMetadataList) {
-        Chunk chunk = reader.readMemChunk(chunkMetadata);
+        Chunk chunk = MergeManager.readMergeChunk(reader, chunkMetadata);
         if (newChunkMetadata == null) {
           newChunkMetadata = chunkMetadata;
           newChunk = chunk;
@@ -108,7 +133,8 @@ public class CompactionUtils {
       modifyChunkMetaDataWithCache(
           reader, chunkMetadataList, modificationCache, seriesPath, modifications);
       for (ChunkMetadata chunkMetadata : chunkMetadataList) {
-        IChunkReader chunkReader = new ChunkReaderByTimestamp(reader.readMemChunk(chunkMetadata));
+        IChunkReader chunkReader =
+            new ChunkReaderByTimestamp(MergeManager.readMergeChunk(reader, chunkMetadata));
         while (chunkReader.hasNextSatisfiedPage()) {
           IPointReader iPointReader = new BatchDataIterator(chunkReader.nextPageData());
           while (iPointReader.hasNextTimeValuePair()) {
@@ -125,11 +151,9 @@ public class CompactionUtils {
    * them to the new file directly.
    */
   public static void writeByAppendChunkMerge(
-      String device,
       RateLimiter compactionWriteRateLimiter,
       Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry,
-      TsFileResource targetResource,
-      RestorableTsFileIOWriter writer)
+      ChunkGroupBuffer chunkGroupBuffer)
       throws IOException {
     Map<TsFileSequenceReader, List<ChunkMetadata>> readerListMap = entry.getValue();
     for (Entry<TsFileSequenceReader, List<ChunkMetadata>> readerListEntry :
@@ -138,23 +162,19 @@ public class CompactionUtils {
       List<ChunkMetadata> chunkMetadataList = readerListEntry.getValue();
       // read chunk and write it to new file directly
       for (ChunkMetadata chunkMetadata : chunkMetadataList) {
-        Chunk chunk = reader.readMemChunk(chunkMetadata);
+        Chunk chunk = MergeManager.readMergeChunk(reader, chunkMetadata);
         MergeManager.mergeRateLimiterAcquire(
             compactionWriteRateLimiter,
             (long) chunk.getHeader().getDataSize() + chunk.getData().position());
-        writer.writeChunk(chunk, chunkMetadata);
-        targetResource.updateStartTime(device, chunkMetadata.getStartTime());
-        targetResource.updateEndTime(device, chunkMetadata.getEndTime());
+        chunkGroupBuffer.writeChunk(chunk, chunkMetadata);
       }
     }
   }
 
   public static void writeByAppendPageMerge(
-      String device,
       RateLimiter compactionWriteRateLimiter,
       Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry,
-      TsFileResource targetResource,
-      RestorableTsFileIOWriter writer)
+      ChunkGroupBuffer chunkGroupBuffer)
       throws IOException {
     Pair<ChunkMetadata, Chunk> chunkPair = readByAppendPageMerge(entry.getValue());
     ChunkMetadata newChunkMetadata = chunkPair.left;
@@ -164,22 +184,19 @@ public class CompactionUtils {
       MergeManager.mergeRateLimiterAcquire(
           compactionWriteRateLimiter,
           (long) newChunk.getHeader().getDataSize() + newChunk.getData().position());
-      writer.writeChunk(newChunk, newChunkMetadata);
-      targetResource.updateStartTime(device, newChunkMetadata.getStartTime());
-      targetResource.updateEndTime(device, newChunkMetadata.getEndTime());
+      chunkGroupBuffer.writeChunk(newChunk, newChunkMetadata);
     }
   }
 
   public static void writeByDeserializePageMerge(
-      String device,
       RateLimiter compactionRateLimiter,
       Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry,
-      TsFileResource targetResource,
-      RestorableTsFileIOWriter writer,
+      ChunkGroupBuffer chunkGroupBuffer,
       Map<String, List<Modification>> modificationCache,
       List<Modification> modifications)
       throws IOException, IllegalPathException {
-    Map<Long, TimeValuePair> timeValuePairMap = new TreeMap<>();
+    String device = chunkGroupBuffer.getDevice();
+    TreeMap<Long, TimeValuePair> timeValuePairMap = new TreeMap<>();
     Map<TsFileSequenceReader, List<ChunkMetadata>> readerChunkMetadataMap = entry.getValue();
     readByDeserializePageMerge(
         readerChunkMetadataMap,
@@ -209,12 +226,103 @@ public class CompactionUtils {
     }
     for (TimeValuePair timeValuePair : timeValuePairMap.values()) {
       writeTVPair(timeValuePair, chunkWriter);
-      targetResource.updateStartTime(device, timeValuePair.getTimestamp());
-      targetResource.updateEndTime(device, timeValuePair.getTimestamp());
     }
     // wait for limit write
     MergeManager.mergeRateLimiterAcquire(compactionRateLimiter, chunkWriter.getCurrentChunkSize());
-    chunkWriter.writeToFileWriter(writer);
+    if (timeValuePairMap.isEmpty()) {
+      chunkGroupBuffer.writeChunkWriter(chunkWriter, Long.MAX_VALUE, Long.MIN_VALUE, 0);
+    } else {
+      chunkGroupBuffer.writeChunkWriter(
+          chunkWriter,
+          timeValuePairMap.firstKey(),
+          timeValuePairMap.lastKey(),
+          timeValuePairMap.size());
+    }
+  }
+
+  /**
+   * Merge the chunks of a sensor page by page. A page that is large enough and does not overlap any
+   * other page is copied without being decompressed, and only the other pages are decoded and
+   * written again, so that the chunks that overlap in a few pages are not decoded entirely.
+   */
+  public static void writeByPageMerge(
+      RateLimiter compactionRateLimiter,
+      Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry,
+      ChunkGroupBuffer chunkGroupBuffer,
+      Map<String, List<Modification>> modificationCache,
+      List<Modification> modifications)
+      throws IOException, IllegalPathException {
+    String device = chunkGroupBuffer.getDevice();
+    PartialPath seriesPath = new PartialPath(device, entry.getKey());
+    List<PageEntry> pages = new ArrayList<>();
+    for (Entry<TsFileSequenceReader, List<ChunkMetadata>> readerEntry :
+        entry.getValue().entrySet()) {
+      TsFileSequenceReader reader = readerEntry.getKey();
+      List<ChunkMetadata> chunkMetadataList = readerEntry.getValue();
+      modifyChunkMetaDataWithCache(
+          reader, chunkMetadataList, modificationCache, seriesPath, modifications);
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        PageEntry.splitPages(MergeManager.readMergeChunk(reader, chunkMetadata), pages);
+      }
+    }
+    if (pages.isEmpty()) {
+      return;
+    }
+    IMeasurementSchema schema;
+    try {
+      schema = IoTDB.metaManager.getSeriesSchema(new PartialPath(device), entry.getKey());
+    } catch (MetadataException e) {
+      // this may caused in IT by restart
+      logger.error("{} get schema {} error, skip this sensor", device, entry.getKey(), e);
+      return;
+    }
+    ChunkWriterImpl chunkWriter = new ChunkWriterImpl(schema, true);
+    long pagePointNumThreshold =
+        IoTDBDescriptor.getInstance().getConfig().getMergePagePointNumberThreshold();
+    long startTime = Long.MAX_VALUE;
+    long endTime = Long.MIN_VALUE;
+    long pointNum = 0;
+
+    pages.sort(Comparator.comparingLong(PageEntry::getStartTime));
+    int groupStart = 0;
+    while (groupStart < pages.size()) {
+      // the pages overlapping each other directly or indirectly are merged together
+      int groupEnd = groupStart + 1;
+      long groupEndTime = pages.get(groupStart).getEndTime();
+      while (groupEnd < pages.size() && pages.get(groupEnd).getStartTime() <= groupEndTime) {
+        groupEndTime = Math.max(groupEndTime, pages.get(groupEnd).getEndTime());
+        groupEnd++;
+      }
+
+      PageEntry firstPage = pages.get(groupStart);
+      if (groupEnd == groupStart + 1 && firstPage.canBeCopied(schema, pagePointNumThreshold)) {
+        chunkWriter.writeCompressedPage(firstPage.pageHeader, firstPage.pageData);
+        startTime = Math.min(startTime, firstPage.getStartTime());
+        endTime = Math.max(endTime, firstPage.getEndTime());
+        pointNum += firstPage.pageHeader.getNumOfValues();
+      } else {
+        List<PageEntry> group = new ArrayList<>(pages.subList(groupStart, groupEnd));
+        // the points of the pages written later overwrite those of the earlier ones
+        group.sort(Comparator.comparingInt(page -> page.writtenOrder));
+        TreeMap<Long, TimeValuePair> timeValuePairMap = new TreeMap<>();
+        for (PageEntry page : group) {
+          page.readTimeValuePairs(timeValuePairMap);
+        }
+        for (TimeValuePair timeValuePair : timeValuePairMap.values()) {
+          writeTVPair(timeValuePair, chunkWriter);
+        }
+        if (!timeValuePairMap.isEmpty()) {
+          startTime = Math.min(startTime, timeValuePairMap.firstKey());
+          endTime = Math.max(endTime, timeValuePairMap.lastKey());
+          pointNum += timeValuePairMap.size();
+        }
+      }
+      groupStart = groupEnd;
+    }
+    chunkWriter.sealCurrentPage();
+    // wait for limit write
+    MergeManager.mergeRateLimiterAcquire(compactionRateLimiter, chunkWriter.getCurrentChunkSize());
+    chunkGroupBuffer.writeChunkWriter(chunkWriter, startTime, endTime, pointNum);
   }
 
   private static Set<String> getTsFileDevicesSet(
@@ -244,6 +352,11 @@ public class CompactionUtils {
   }
 
   /**
+   * Merge the source files into the target file. The chunks of each batch of sensors of a device
+   * are merged by a sub-task, and the sub-tasks run in parallel in {@link
+   * CompactionMergeTaskPoolManager}. Their results are written into the target file in the order
+   * they are submitted, so a device is still written as one chunk group.
+   *
    * @param targetResource the target resource to be merged to
    * @param tsFileResources the source resource to be merged
    * @param storageGroup the storage group name
@@ -261,18 +374,24 @@ public class CompactionUtils {
       List<Modification> modifications)
       throws IOException, IllegalPathException {
     Map<String, TsFileSequenceReader> tsFileSequenceReaderMap = new HashMap<>();
+    Deque<Future<ChunkGroupBuffer>> subTasks = new ArrayDeque<>();
     try {
       RestorableTsFileIOWriter writer = new RestorableTsFileIOWriter(targetResource.getTsFile());
-      Map<String, List<Modification>> modificationCache = new HashMap<>();
+      // the sub-tasks share the cache and the used modifications
+      Map<String, List<Modification>> modificationCache = new ConcurrentHashMap<>();
+      List<Modification> usedModifications = Collections.synchronizedList(modifications);
       RateLimiter compactionWriteRateLimiter =
           MergeManager.getINSTANCE().getMergeWriteRateLimiter();
+      // at most so many merged batches are kept in memory waiting to be written
+      int maxSubTaskNum = 2 * CompactionMergeTaskPoolManager.getSubThreadNum();
+      ChunkGroupWriter chunkGroupWriter =
+          new ChunkGroupWriter(writer, targetResource, compactionLogger);
       Set<String> tsFileDevicesMap =
           getTsFileDevicesSet(tsFileResources, tsFileSequenceReaderMap, storageGroup);
       for (String device : tsFileDevicesMap) {
         if (devices.contains(device)) {
           continue;
         }
-        writer.startChunkGroup(device);
         Map<TsFileSequenceReader, Map<String, List<ChunkMetadata>>> chunkMetadataListCacheForMerge =
             new TreeMap<>(
                 (o1, o2) ->
@@ -329,6 +448,8 @@ public class CompactionUtils {
             lastSensor = Collections.max(allSensors);
           }
 
+          Map<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> sensorChunkMetadataMap =
+              new TreeMap<>();
           for (String sensor : allSensors) {
             if (sensor.compareTo(lastSensor) <= 0) {
               Map<TsFileSequenceReader, List<ChunkMetadata>> readerChunkMetadataListMap =
@@ -347,80 +468,34 @@ public class CompactionUtils {
                   sensorChunkMetadataListMap.remove(sensor);
                 }
               }
-              Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>>
-                  sensorReaderChunkMetadataListEntry =
-                      new DefaultMapEntry<>(sensor, readerChunkMetadataListMap);
-              if (!sequence) {
-                writeByDeserializePageMerge(
-                    device,
-                    compactionWriteRateLimiter,
-                    sensorReaderChunkMetadataListEntry,
-                    targetResource,
-                    writer,
-                    modificationCache,
-                    modifications);
-              } else {
-                boolean isChunkEnoughLarge = true;
-                boolean isPageEnoughLarge = true;
-                for (List<ChunkMetadata> chunkMetadatas : readerChunkMetadataListMap.values()) {
-                  for (ChunkMetadata chunkMetadata : chunkMetadatas) {
-                    if (chunkMetadata.getNumOfPoints()
-                        < IoTDBDescriptor.getInstance()
-                            .getConfig()
-                            .getMergePagePointNumberThreshold()) {
-                      isPageEnoughLarge = false;
-                    }
-                    if (chunkMetadata.getNumOfPoints()
-                        < IoTDBDescriptor.getInstance()
-                            .getConfig()
-                            .getMergeChunkPointNumberThreshold()) {
-                      isChunkEnoughLarge = false;
-                    }
-                  }
-                }
-                // if a chunk is large enough, it's page must be large enough too
-                if (isChunkEnoughLarge) {
-                  logger.debug(
-                      "{} [Compaction] chunk enough large, use append chunk merge", storageGroup);
-                  // append page in chunks, so we do not have to deserialize a chunk
-                  writeByAppendChunkMerge(
-                      device,
-                      compactionWriteRateLimiter,
-                      sensorReaderChunkMetadataListEntry,
-                      targetResource,
-                      writer);
-                } else if (isPageEnoughLarge) {
-                  logger.debug(
-                      "{} [Compaction] page enough large, use append page merge", storageGroup);
-                  // append page in chunks, so we do not have to deserialize a chunk
-                  writeByAppendPageMerge(
-                      device,
-                      compactionWriteRateLimiter,
-                      sensorReaderChunkMetadataListEntry,
-                      targetResource,
-                      writer);
-                } else {
-                  logger.debug(
-                      "{} [Compaction] page too small, use deserialize page merge", storageGroup);
-                  // we have to deserialize chunks to merge pages
-                  writeByDeserializePageMerge(
-                      device,
-                      compactionWriteRateLimiter,
-                      sensorReaderChunkMetadataListEntry,
-                      targetResource,
-                      writer,
-                      modificationCache,
-                      modifications);
-                }
-              }
+              sensorChunkMetadataMap.put(sensor, readerChunkMetadataListMap);
             }
           }
-        }
-        writer.endChunkGroup();
-        if (compactionLogger != null) {
-          compactionLogger.logDevice(device, writer.getPos());
+          if (sensorChunkMetadataMap.isEmpty()) {
+            continue;
+          }
+
+          subTasks.add(
+              CompactionMergeTaskPoolManager.getInstance()
+                  .submitSubTask(
+                      () ->
+                          mergeSensors(
+                              device,
+                              sensorChunkMetadataMap,
+                              sequence,
+                              storageGroup,
+                              compactionWriteRateLimiter,
+                              modificationCache,
+                              usedModifications)));
+          while (subTasks.size() >= maxSubTaskNum) {
+            chunkGroupWriter.write(pollSubTaskResult(subTasks));
+          }
         }
       }
+      while (!subTasks.isEmpty()) {
+        chunkGroupWriter.write(pollSubTaskResult(subTasks));
+      }
+      chunkGroupWriter.finish();
 
       for (TsFileResource tsFileResource : tsFileResources) {
         targetResource.updatePlanIndexes(tsFileResource);
@@ -428,14 +503,157 @@ public class CompactionUtils {
       targetResource.serialize();
       writer.endFile();
       targetResource.close();
+      if (sequence) {
+        writeRollup(targetResource, tsFileResources);
+      }
+      chunkGroupWriter.logThroughput(storageGroup);
 
     } finally {
+      // the results of the sub-tasks left by a failure are discarded, but the sub-tasks must end
+      // before their readers are closed. They are not cancelled, as a running sub-task would keep
+      // reading, and interrupting it would close the file channel shared by other readers
+      waitSubTasks(subTasks);
       for (TsFileSequenceReader reader : tsFileSequenceReaderMap.values()) {
         reader.close();
       }
     }
   }
 
+  /** Merge the chunks of some sensors of a device, which is run as a sub-task of a compaction. */
+  private static ChunkGroupBuffer mergeSensors(
+      String device,
+      Map<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> sensorChunkMetadataMap,
+      boolean sequence,
+      String storageGroup,
+      RateLimiter compactionWriteRateLimiter,
+      Map<String, List<Modification>> modificationCache,
+      List<Modification> modifications)
+      throws IOException, IllegalPathException {
+    ChunkGroupBuffer chunkGroupBuffer = new ChunkGroupBuffer(device);
+    for (Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>>
+        sensorReaderChunkMetadataListEntry : sensorChunkMetadataMap.entrySet()) {
+      Map<TsFileSequenceReader, List<ChunkMetadata>> readerChunkMetadataListMap =
+          sensorReaderChunkMetadataListEntry.getValue();
+      if (!sequence) {
+        writeByPageMerge(
+            compactionWriteRateLimiter,
+            sensorReaderChunkMetadataListEntry,
+            chunkGroupBuffer,
+            modificationCache,
+            modifications);
+      } else {
+        boolean isChunkEnoughLarge = true;
+        boolean isPageEnoughLarge = true;
+        for (List<ChunkMetadata> chunkMetadatas : readerChunkMetadataListMap.values()) {
+          for (ChunkMetadata chunkMetadata : chunkMetadatas) {
+            if (chunkMetadata.getNumOfPoints()
+                < IoTDBDescriptor.getInstance().getConfig().getMergePagePointNumberThreshold()) {
+              isPageEnoughLarge = false;
+            }
+            if (chunkMetadata.getNumOfPoints()
+                < IoTDBDescriptor.getInstance().getConfig().getMergeChunkPointNumberThreshold()) {
+              isChunkEnoughLarge = false;
+            }
+          }
+        }
+        // if a chunk is large enough, it's page must be large enough too
+        if (isChunkEnoughLarge) {
+          logger.debug("{} [Compaction] chunk enough large, use append chunk merge", storageGroup);
+          // append page in chunks, so we do not have to deserialize a chunk
+          writeByAppendChunkMerge(
+              compactionWriteRateLimiter, sensorReaderChunkMetadataListEntry, chunkGroupBuffer);
+        } else if (isPageEnoughLarge) {
+          logger.debug("{} [Compaction] page enough large, use append page merge", storageGroup);
+          // append page in chunks, so we do not have to deserialize a chunk
+          writeByAppendPageMerge(
+              compactionWriteRateLimiter, sensorReaderChunkMetadataListEntry, chunkGroupBuffer);
+        } else {
+          logger.debug("{} [Compaction] page too small, use page merge", storageGroup);
+          // only the small pages are deserialized and merged
+          writeByPageMerge(
+              compactionWriteRateLimiter,
+              sensorReaderChunkMetadataListEntry,
+              chunkGroupBuffer,
+              modificationCache,
+              modifications);
+        }
+      }
+    }
+    return chunkGroupBuffer;
+  }
+
+  /** Wait until all the given sub-tasks end, ignoring their results and failures. */
+  private static void waitSubTasks(Collection<Future<ChunkGroupBuffer>> subTasks) {
+    for (Future<ChunkGroupBuffer> subTask : subTasks) {
+      try {
+        Uninterruptibles.getUninterruptibly(subTask);
+      } catch (ExecutionException | CancellationException e) {
+        logger.debug("Discard a failed compaction sub-task", e);
+      }
+    }
+  }
+
+  /**
+   * Wait for the result of the first sub-task and remove it. It is removed only after ending, so
+   * that it is still waited for if the compaction is interrupted.
+   */
+  private static ChunkGroupBuffer pollSubTaskResult(Deque<Future<ChunkGroupBuffer>> subTasks)
+      throws IOException, IllegalPathException {
+    ChunkGroupBuffer result = getSubTaskResult(subTasks.peek());
+    subTasks.poll();
+    return result;
+  }
+
+  private static ChunkGroupBuffer getSubTaskResult(Future<ChunkGroupBuffer> subTask)
+      throws IOException, IllegalPathException {
+    try {
+      return subTask.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Compaction is interrupted", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof IllegalPathException) {
+        throw (IllegalPathException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  /**
+   * Write the rollups of the target file. They are merged from those of the source files if all of
+   * them have rollups and no deletion, otherwise they are computed by reading the target file.
+   */
+  private static void writeRollup(
+      TsFileResource targetResource, List<TsFileResource> tsFileResources) {
+    long interval = TsFileRollup.getConfiguredInterval();
+    if (interval <= 0) {
+      return;
+    }
+    File targetFile = targetResource.getTsFile();
+    try {
+      TsFileRollup rollup = new TsFileRollup(interval);
+      for (TsFileResource tsFileResource : tsFileResources) {
+        TsFileRollup sourceRollup =
+            tsFileResource.getModFile().exists()
+                ? null
+                : TsFileRollup.deserialize(tsFileResource.getTsFile());
+        if (sourceRollup == null || sourceRollup.getInterval() != interval) {
+          rollup = TsFileRollup.generate(targetFile, interval);
+          break;
+        }
+        rollup.merge(sourceRollup);
+      }
+      rollup.serialize(targetFile);
+    } catch (IOException e) {
+      // the rollups only speed up queries, so the compaction goes on without them
+      logger.error("Cannot write the rollups of {}", targetFile, e);
+      TsFileRollup.remove(targetFile);
+    }
+  }
+
   private static TsFileSequenceReader buildReaderFromTsFileResource(
       TsFileResource levelResource,
       Map<String, TsFileSequenceReader> tsFileSequenceReaderMap,
@@ -445,7 +663,8 @@ public class CompactionUtils {
         path -> {
           try {
             if (levelResource.getTsFile().exists()) {
-              return new TsFileSequenceReader(path);
+              // the files to compact are sealed, so they may be memory-mapped
+              return FileReaderManager.openClosedFileReader(path);
             } else {
               logger.info("{} tsfile does not exist", path);
               return null;
@@ -482,4 +701,166 @@ public class CompactionUtils {
     }
     modifyChunkMetaData(chunkMetadataList, seriesModifications);
   }
+
+  /** A page of a chunk to be merged, whose data is still compressed. */
+  private static class PageEntry {
+
+    private final ChunkHeader chunkHeader;
+    private final PageHeader pageHeader;
+    private final ByteBuffer pageData;
+    private final List<TimeRange> deleteIntervalList;
+    private final int writtenOrder;
+
+    private PageEntry(
+        ChunkHeader chunkHeader,
+        PageHeader pageHeader,
+        ByteBuffer pageData,
+        List<TimeRange> deleteIntervalList,
+        int writtenOrder) {
+      this.chunkHeader = chunkHeader;
+      this.pageHeader = pageHeader;
+      this.pageData = pageData;
+      this.deleteIntervalList = deleteIntervalList;
+      this.writtenOrder = writtenOrder;
+    }
+
+    private static void splitPages(Chunk chunk, List<PageEntry> pages) {
+      ChunkHeader chunkHeader = chunk.getHeader();
+      ByteBuffer chunkData = chunk.getData().duplicate();
+      while (chunkData.hasRemaining()) {
+        PageHeader pageHeader;
+        if (((byte) (chunkHeader.getChunkType() & 0x3F)) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER) {
+          pageHeader = PageHeader.deserializeFrom(chunkData, chunk.getChunkStatistic());
+        } else {
+          pageHeader = PageHeader.deserializeFrom(chunkData, chunkHeader.getDataType());
+        }
+        ByteBuffer pageData = chunkData.slice();
+        pageData.limit(pageHeader.getCompressedSize());
+        chunkData.position(chunkData.position() + pageHeader.getCompressedSize());
+        pages.add(
+            new PageEntry(
+                chunkHeader, pageHeader, pageData, chunk.getDeleteIntervalList(), pages.size()));
+      }
+    }
+
+    private long getStartTime() {
+      return pageHeader.getStartTime();
+    }
+
+    private long getEndTime() {
+      return pageHeader.getEndTime();
+    }
+
+    /** @return whether the page can be copied into a chunk of the schema as it is */
+    private boolean canBeCopied(IMeasurementSchema schema, long pagePointNumThreshold) {
+      if (pageHeader.getNumOfValues() < pagePointNumThreshold
+          || chunkHeader.getCompressionType() != schema.getCompressor()
+          || chunkHeader.getEncodingType() != schema.getEncodingType()) {
+        return false;
+      }
+      if (deleteIntervalList != null) {
+        TimeRange pageRange = new TimeRange(getStartTime(), getEndTime());
+        for (TimeRange deleteInterval : deleteIntervalList) {
+          if (deleteInterval.overlaps(pageRange)) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    private void readTimeValuePairs(Map<Long, TimeValuePair> timeValuePairMap) throws IOException {
+      byte[] compressedPageData = new byte[pageData.remaining()];
+      pageData.duplicate().get(compressedPageData);
+      byte[] uncompressedPageData = compressedPageData;
+      if (chunkHeader.getCompressionType() != CompressionType.UNCOMPRESSED) {
+        uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
+        IUnCompressor.getUnCompressor(chunkHeader.getCompressionType())
+            .uncompress(compressedPageData, 0, compressedPageData.length, uncompressedPageData, 0);
+      }
+      Decoder timeDecoder =
+          Decoder.getDecoderByType(
+              TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
+              TSDataType.INT64);
+      PageReader pageReader =
+          new PageReader(
+              pageHeader,
+              ByteBuffer.wrap(uncompressedPageData),
+              chunkHeader.getDataType(),
+              Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType()),
+              timeDecoder,
+              null);
+      pageReader.setDeleteIntervalList(deleteIntervalList);
+      IPointReader pointReader = new BatchDataIterator(pageReader.getAllSatisfiedPageData());
+      while (pointReader.hasNextTimeValuePair()) {
+        TimeValuePair timeValuePair = pointReader.nextTimeValuePair();
+        timeValuePairMap.put(timeValuePair.getTimestamp(), timeValuePair);
+      }
+    }
+  }
+
+  /**
+   * Writes the chunks merged by the sub-tasks into the target file in the order the sub-tasks are
+   * submitted. The buffers of a device are consecutive, so they are written into one chunk group.
+   */
+  private static class ChunkGroupWriter {
+
+    private final RestorableTsFileIOWriter writer;
+    private final TsFileResource targetResource;
+    private final CompactionLogger compactionLogger;
+
+    private final long startTime = System.currentTimeMillis();
+    private String currentDevice;
+    private long pointNum = 0;
+    private long byteNum = 0;
+
+    private ChunkGroupWriter(
+        RestorableTsFileIOWriter writer,
+        TsFileResource targetResource,
+        CompactionLogger compactionLogger) {
+      this.writer = writer;
+      this.targetResource = targetResource;
+      this.compactionLogger = compactionLogger;
+    }
+
+    private void write(ChunkGroupBuffer chunkGroupBuffer) throws IOException {
+      if (!chunkGroupBuffer.getDevice().equals(currentDevice)) {
+        finish();
+        writer.startChunkGroup(chunkGroupBuffer.getDevice());
+        currentDevice = chunkGroupBuffer.getDevice();
+      }
+      long startPos = writer.getPos();
+      chunkGroupBuffer.writeTo(writer, targetResource);
+      long writtenBytes = writer.getPos() - startPos;
+      pointNum += chunkGroupBuffer.getPointNum();
+      byteNum += writtenBytes;
+      CompactionSource.markWritten(chunkGroupBuffer.getPointNum(), writtenBytes);
+    }
+
+    /** end the chunk group of the current device */
+    private void finish() throws IOException {
+      if (currentDevice == null) {
+        return;
+      }
+      writer.endChunkGroup();
+      if (compactionLogger != null) {
+        compactionLogger.logDevice(currentDevice, writer.getPos());
+      }
+      currentDevice = null;
+    }
+
+    private void logThroughput(String storageGroup) {
+      long timeCost = Math.max(System.currentTimeMillis() - startTime, 1);
+      logger.info(
+          "{} [Compaction] {} points and {} bytes are written into {} in {} ms, {} points/s, "
+              + "{} bytes/s",
+          storageGroup,
+          pointNum,
+          byteNum,
+          targetResource.getTsFile().getName(),
+          timeCost,
+          pointNum * 1000 / timeCost,
+          byteNum * 1000 / timeCost);
+    }
+  }
 }
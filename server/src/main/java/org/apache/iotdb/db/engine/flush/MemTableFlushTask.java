@@ -19,15 +19,19 @@
 package org.apache.iotdb.db.engine.flush;
 
 import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.flush.pool.FlushSubTaskPoolManager;
 import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.memtable.IWritableMemChunk;
+import org.apache.iotdb.db.engine.rollup.SeriesRollup;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.exception.runtime.FlushRunTimeException;
 import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.db.utils.datastructure.VectorTVList;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
 import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
@@ -73,6 +77,9 @@ public class MemTableFlushTask {
   private volatile long memSerializeTime = 0L;
   private volatile long ioTime = 0L;
 
+  /** the rollups of the flushed series, null if they are not needed */
+  private final TsFileRollup rollup;
+
   /**
    * @param memTable the memTable to flush
    * @param writer the writer where memTable will be flushed to (current tsfile writer or vm writer)
@@ -80,9 +87,22 @@ public class MemTableFlushTask {
    */
   public MemTableFlushTask(
       IMemTable memTable, RestorableTsFileIOWriter writer, String storageGroup) {
+    this(memTable, writer, storageGroup, 0);
+  }
+
+  /**
+   * @param rollupInterval when > 0, the rollups of the flushed series are also computed with the
+   *     interval, see {@link #getRollup()}
+   */
+  public MemTableFlushTask(
+      IMemTable memTable,
+      RestorableTsFileIOWriter writer,
+      String storageGroup,
+      long rollupInterval) {
     this.memTable = memTable;
     this.writer = writer;
     this.storageGroup = storageGroup;
+    this.rollup = rollupInterval > 0 ? new TsFileRollup(rollupInterval) : null;
     this.encodingTaskFuture = SUB_TASK_POOL_MANAGER.submit(encodingTask);
     this.ioTaskFuture = SUB_TASK_POOL_MANAGER.submit(ioTask);
     LOGGER.debug(
@@ -165,9 +185,60 @@ public class MemTableFlushTask {
         System.currentTimeMillis() - start);
   }
 
+  /** @return the rollups of the flushed series, or null if they are not computed */
+  public TsFileRollup getRollup() {
+    return rollup;
+  }
+
   /** encoding task (second task of pipeline) */
   private Runnable encodingTask =
       new Runnable() {
+        private String currentDevice;
+
+        /** update the rollup of the series with the points that are written by writeOneSeries */
+        private void updateRollup(TVList tvPairs, IMeasurementSchema schema) {
+          TSDataType dataType = schema.getType();
+          // the points dropped by SDT are unknown here, so such series have no rollup
+          if (dataType == TSDataType.VECTOR
+              || (schema.getProps() != null
+                  && IoTDBConstant.SDT.equals(
+                      schema.getProps().getOrDefault(IoTDBConstant.LOSS, "")))) {
+            return;
+          }
+          SeriesRollup seriesRollup =
+              rollup.getOrCreateSeriesRollup(currentDevice, schema.getMeasurementId(), dataType);
+          for (int sortedRowIndex = 0; sortedRowIndex < tvPairs.size(); sortedRowIndex++) {
+            long time = tvPairs.getTime(sortedRowIndex);
+            // skip duplicated data
+            if (sortedRowIndex + 1 < tvPairs.size()
+                && time == tvPairs.getTime(sortedRowIndex + 1)) {
+              continue;
+            }
+            Statistics bucket = seriesRollup.getBucket(time);
+            switch (dataType) {
+              case BOOLEAN:
+                bucket.update(time, tvPairs.getBoolean(sortedRowIndex));
+                break;
+              case INT32:
+                bucket.update(time, tvPairs.getInt(sortedRowIndex));
+                break;
+              case INT64:
+                bucket.update(time, tvPairs.getLong(sortedRowIndex));
+                break;
+              case FLOAT:
+                bucket.update(time, tvPairs.getFloat(sortedRowIndex));
+                break;
+              case DOUBLE:
+                bucket.update(time, tvPairs.getDouble(sortedRowIndex));
+                break;
+              case TEXT:
+              default:
+                bucket.update(time, tvPairs.getBinary(sortedRowIndex));
+                break;
+            }
+          }
+        }
+
         private void writeOneSeries(
             TVList tvPairs, IChunkWriter seriesWriterImpl, TSDataType dataType) {
           List<Integer> timeDuplicatedVectorRowIndexList = null;
@@ -299,6 +370,9 @@ public class MemTableFlushTask {
               break;
             }
             if (task instanceof StartFlushGroupIOTask || task instanceof EndChunkGroupIoTask) {
+              if (task instanceof StartFlushGroupIOTask) {
+                currentDevice = ((StartFlushGroupIOTask) task).deviceId;
+              }
               try {
                 ioTaskQueue.put(task);
               } catch (
@@ -325,6 +399,9 @@ public class MemTableFlushTask {
                 seriesWriter = new ChunkWriterImpl(encodingMessage.right);
               }
               writeOneSeries(encodingMessage.left, seriesWriter, encodingMessage.right.getType());
+              if (rollup != null) {
+                updateRollup(encodingMessage.left, encodingMessage.right);
+              }
               seriesWriter.sealCurrentPage();
               seriesWriter.clearPageWriter();
               try {
@@ -65,7 +65,9 @@ public abstract class AbstractPoolManager {
   }
 
   public int getWaitingTasksNumber() {
-    return ((ThreadPoolExecutor) pool).getQueue().size();
+    // the number is also read by merges, which may run when the pool is stopped
+    ExecutorService currentPool = pool;
+    return currentPool == null ? 0 : ((ThreadPoolExecutor) currentPool).getQueue().size();
   }
 
   public int getTotalTasks() {
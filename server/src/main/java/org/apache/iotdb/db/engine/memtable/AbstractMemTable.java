@@ -24,10 +24,12 @@ import org.apache.iotdb.db.exception.WriteProcessException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.MetaUtils;
 import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metadata.mnode.MNode;
 import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
 import org.apache.iotdb.db.rescon.TVListAllocator;
+import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -38,11 +40,14 @@ import org.apache.iotdb.tsfile.write.schema.VectorMeasurementSchema;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class AbstractMemTable implements IMemTable {
 
@@ -56,25 +61,31 @@ public abstract class AbstractMemTable implements IMemTable {
   private int avgSeriesPointNumThreshold =
       IoTDBDescriptor.getInstance().getConfig().getAvgSeriesPointNumberThreshold();
   /** memory size of data points, including TEXT values */
-  private long memSize = 0;
+  private final AtomicLong memSize = new AtomicLong();
   /**
    * memory usage of all TVLists memory usage regardless of whether these TVLists are full,
    * including TEXT values
    */
-  private long tvListRamCost = 0;
+  private final AtomicLong tvListRamCost = new AtomicLong();
+  /** memory usage of the direct arrays of off-heap TVLists, which is not in tvListRamCost */
+  private final AtomicLong offHeapTVListRamCost = new AtomicLong();
 
-  private int seriesNumber = 0;
+  private final AtomicInteger seriesNumber = new AtomicInteger();
 
-  private long totalPointsNum = 0;
+  private final AtomicLong totalPointsNum = new AtomicLong();
 
-  private long totalPointsNumThreshold = 0;
+  private final AtomicLong totalPointsNumThreshold = new AtomicLong();
 
   private long maxPlanIndex = Long.MIN_VALUE;
 
   private long minPlanIndex = Long.MAX_VALUE;
 
+  /** the devices written in this memtable, which are kept in memory until it is released */
+  private final Set<MNode> pinnedDevices = ConcurrentHashMap.newKeySet();
+
   public AbstractMemTable() {
-    this.memTableMap = new HashMap<>();
+    // devices may be inserted concurrently if enable_concurrent_insert is set
+    this.memTableMap = new ConcurrentHashMap<>();
   }
 
   public AbstractMemTable(Map<String, Map<String, IWritableMemChunk>> memTableMap) {
@@ -104,13 +115,13 @@ public abstract class AbstractMemTable implements IMemTable {
    */
   private IWritableMemChunk createIfNotExistAndGet(String deviceId, IMeasurementSchema schema) {
     Map<String, IWritableMemChunk> memSeries =
-        memTableMap.computeIfAbsent(deviceId, k -> new HashMap<>());
+        memTableMap.computeIfAbsent(deviceId, k -> new ConcurrentHashMap<>());
 
     return memSeries.computeIfAbsent(
         schema.getMeasurementId(),
         k -> {
-          seriesNumber++;
-          totalPointsNumThreshold += avgSeriesPointNumThreshold;
+          seriesNumber.incrementAndGet();
+          totalPointsNumThreshold.addAndGet(avgSeriesPointNumThreshold);
           return genMemSeries(schema);
         });
   }
@@ -123,6 +134,7 @@ public abstract class AbstractMemTable implements IMemTable {
     Object[] values = insertRowPlan.getValues();
 
     MeasurementMNode[] measurementMNodes = insertRowPlan.getMeasurementMNodes();
+    pinDevice(measurementMNodes);
     int columnIndex = 0;
     if (insertRowPlan.isAligned()) {
       MeasurementMNode measurementMNode = measurementMNodes[0];
@@ -134,11 +146,11 @@ public abstract class AbstractMemTable implements IMemTable {
           vectorValue[j] = values[columnIndex];
           columnIndex++;
         }
-        memSize +=
+        memSize.addAndGet(
             MemUtils.getVectorRecordSize(
                 measurementMNode.getSchema().getValueTSDataTypeList(),
                 vectorValue,
-                disableMemControl);
+                disableMemControl));
         write(
             insertRowPlan.getPrefixPath().getFullPath(),
             measurementMNode.getSchema(),
@@ -151,9 +163,9 @@ public abstract class AbstractMemTable implements IMemTable {
           columnIndex++;
           continue;
         }
-        memSize +=
+        memSize.addAndGet(
             MemUtils.getRecordSize(
-                measurementMNode.getSchema().getType(), values[columnIndex], disableMemControl);
+                measurementMNode.getSchema().getType(), values[columnIndex], disableMemControl));
 
         write(
             insertRowPlan.getPrefixPath().getFullPath(),
@@ -164,25 +176,42 @@ public abstract class AbstractMemTable implements IMemTable {
       }
     }
 
-    totalPointsNum +=
-        insertRowPlan.getMeasurements().length - insertRowPlan.getFailedMeasurementNumber();
+    totalPointsNum.addAndGet(
+        insertRowPlan.getMeasurements().length - insertRowPlan.getFailedMeasurementNumber());
   }
 
   @Override
   public void insertTablet(InsertTabletPlan insertTabletPlan, int start, int end)
       throws WriteProcessException {
     updatePlanIndexes(insertTabletPlan.getIndex());
+    pinDevice(insertTabletPlan.getMeasurementMNodes());
     try {
       write(insertTabletPlan, start, end);
-      memSize += MemUtils.getRecordSize(insertTabletPlan, start, end, disableMemControl);
-      totalPointsNum +=
+      memSize.addAndGet(MemUtils.getRecordSize(insertTabletPlan, start, end, disableMemControl));
+      totalPointsNum.addAndGet(
           (insertTabletPlan.getDataTypes().length - insertTabletPlan.getFailedMeasurementNumber())
-              * (end - start);
+              * (end - start));
     } catch (RuntimeException e) {
       throw new WriteProcessException(e);
     }
   }
 
+  /** pin the device of the measurements when it is written in this memtable for the first time */
+  private void pinDevice(MeasurementMNode[] measurementMNodes) {
+    if (!IoTDB.metaManager.isMTreeEvictionEnabled()) {
+      return;
+    }
+    for (MeasurementMNode measurementMNode : measurementMNodes) {
+      if (measurementMNode != null) {
+        MNode deviceMNode = measurementMNode.getParent();
+        if (pinnedDevices.add(deviceMNode)) {
+          IoTDB.metaManager.pinDeviceNode(deviceMNode);
+        }
+        return;
+      }
+    }
+  }
+
   @Override
   public void write(
       String deviceId, IMeasurementSchema schema, long insertTime, Object objectValue) {
@@ -253,12 +282,12 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public int getSeriesNumber() {
-    return seriesNumber;
+    return seriesNumber.get();
   }
 
   @Override
   public long getTotalPointsNum() {
-    return totalPointsNum;
+    return totalPointsNum.get();
   }
 
   @Override
@@ -274,25 +303,26 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public long memSize() {
-    return memSize;
+    return memSize.get();
   }
 
   @Override
   public boolean reachTotalPointNumThreshold() {
-    if (totalPointsNum == 0) {
+    if (totalPointsNum.get() == 0) {
       return false;
     }
-    return totalPointsNum >= totalPointsNumThreshold;
+    return totalPointsNum.get() >= totalPointsNumThreshold.get();
   }
 
   @Override
   public void clear() {
     memTableMap.clear();
-    memSize = 0;
-    seriesNumber = 0;
-    totalPointsNum = 0;
-    totalPointsNumThreshold = 0;
-    tvListRamCost = 0;
+    memSize.set(0);
+    seriesNumber.set(0);
+    totalPointsNum.set(0);
+    totalPointsNumThreshold.set(0);
+    tvListRamCost.set(0);
+    offHeapTVListRamCost.set(0);
     maxPlanIndex = 0;
   }
 
@@ -345,7 +375,8 @@ public abstract class AbstractMemTable implements IMemTable {
           chunkCopy,
           partialVectorSchema.getProps(),
           curSize,
-          deletionList);
+          deletionList,
+          memChunk.getStatisticsForQuery());
     }
   }
 
@@ -369,7 +400,7 @@ public abstract class AbstractMemTable implements IMemTable {
           iter.remove();
         }
         int deletedPointsNumber = chunk.delete(startTimestamp, endTimestamp);
-        totalPointsNum -= deletedPointsNumber;
+        totalPointsNum.addAndGet(-deletedPointsNumber);
       }
       // for vector type
       else if (schema.getType() == TSDataType.VECTOR) {
@@ -379,7 +410,7 @@ public abstract class AbstractMemTable implements IMemTable {
             iter.remove();
           }
           int deletedPointsNumber = chunk.delete(startTimestamp, endTimestamp);
-          totalPointsNum -= deletedPointsNumber;
+          totalPointsNum.addAndGet(-deletedPointsNumber);
         }
       }
     }
@@ -387,17 +418,27 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public void addTVListRamCost(long cost) {
-    this.tvListRamCost += cost;
+    this.tvListRamCost.addAndGet(cost);
   }
 
   @Override
   public long getTVListsRamCost() {
-    return tvListRamCost;
+    return tvListRamCost.get();
+  }
+
+  @Override
+  public void addOffHeapTVListRamCost(long cost) {
+    this.offHeapTVListRamCost.addAndGet(cost);
+  }
+
+  @Override
+  public long getOffHeapTVListsRamCost() {
+    return offHeapTVListRamCost.get();
   }
 
   @Override
   public void addTextDataSize(long testDataSize) {
-    this.memSize += testDataSize;
+    this.memSize.addAndGet(testDataSize);
   }
 
   @Override
@@ -417,9 +458,15 @@ public abstract class AbstractMemTable implements IMemTable {
         TVList list = subEntry.getValue().getTVList();
         if (list.getReferenceCount() == 0) {
           TVListAllocator.getInstance().release(list);
+        } else {
+          list.discardArrays();
         }
       }
     }
+    for (MNode deviceMNode : pinnedDevices) {
+      IoTDB.metaManager.unpinDeviceNode(deviceMNode);
+    }
+    pinnedDevices.clear();
   }
 
   @Override
@@ -432,7 +479,7 @@ public abstract class AbstractMemTable implements IMemTable {
     return minPlanIndex;
   }
 
-  void updatePlanIndexes(long index) {
+  synchronized void updatePlanIndexes(long index) {
     maxPlanIndex = Math.max(index, maxPlanIndex);
     minPlanIndex = Math.min(index, minPlanIndex);
   }
@@ -60,6 +60,12 @@ public interface IMemTable {
   /** only used when mem control enabled */
   long getTVListsRamCost();
 
+  /** only used when mem control enabled */
+  void addOffHeapTVListRamCost(long cost);
+
+  /** only used when mem control enabled */
+  long getOffHeapTVListsRamCost();
+
   /**
    * only used when mem control enabled
    *
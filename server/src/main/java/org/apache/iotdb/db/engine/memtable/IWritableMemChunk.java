@@ -20,6 +20,7 @@ package org.apache.iotdb.db.engine.memtable;
 
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
@@ -100,6 +101,16 @@ public interface IWritableMemChunk {
    */
   TVList getSortedTvListForFlush();
 
+  /**
+   * served for query requests, to get the statistics of the chunk without iterating the points.
+   *
+   * @return a copy of the statistics of all the points in the chunk, or null if they are not
+   *     maintained or can not describe the chunk exactly
+   */
+  default Statistics getStatisticsForQuery() {
+    return null;
+  }
+
   default TVList getTVList() {
     return null;
   }
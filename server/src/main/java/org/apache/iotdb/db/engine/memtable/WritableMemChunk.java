@@ -21,6 +21,7 @@ package org.apache.iotdb.db.engine.memtable;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
@@ -33,9 +34,20 @@ public class WritableMemChunk implements IWritableMemChunk {
   private TVList list;
   private static final String UNSUPPORTED_TYPE = "Unsupported data type:";
 
+  /**
+   * statistics of the points in the list, updated on insertion so that queries of the unsealed data
+   * need not iterate the list to get them. It is null if it can not describe the list exactly,
+   * i.e., once a point is put out of time order, which may overwrite an earlier point, or points
+   * are deleted. It is not maintained for vectors.
+   */
+  private Statistics statistics;
+
   public WritableMemChunk(IMeasurementSchema schema, TVList list) {
     this.schema = schema;
     this.list = list;
+    if (schema.getType() != TSDataType.VECTOR) {
+      this.statistics = Statistics.getStatsByType(schema.getType());
+    }
   }
 
   @Override
@@ -107,31 +119,49 @@ public class WritableMemChunk implements IWritableMemChunk {
   @Override
   public void putLong(long t, long v) {
     list.putLong(t, v);
+    if (isInTimeOrder(t)) {
+      statistics.update(t, v);
+    }
   }
 
   @Override
   public void putInt(long t, int v) {
     list.putInt(t, v);
+    if (isInTimeOrder(t)) {
+      statistics.update(t, v);
+    }
   }
 
   @Override
   public void putFloat(long t, float v) {
     list.putFloat(t, v);
+    if (isInTimeOrder(t)) {
+      statistics.update(t, v);
+    }
   }
 
   @Override
   public void putDouble(long t, double v) {
     list.putDouble(t, v);
+    if (isInTimeOrder(t)) {
+      statistics.update(t, v);
+    }
   }
 
   @Override
   public void putBinary(long t, Binary v) {
     list.putBinary(t, v);
+    if (isInTimeOrder(t)) {
+      statistics.update(t, v);
+    }
   }
 
   @Override
   public void putBoolean(long t, boolean v) {
     list.putBoolean(t, v);
+    if (isInTimeOrder(t)) {
+      statistics.update(t, v);
+    }
   }
 
   @Override
@@ -142,31 +172,49 @@ public class WritableMemChunk implements IWritableMemChunk {
   @Override
   public void putLongs(long[] t, BitMap bitMap, long[] v, int start, int end) {
     list.putLongs(t, v, start, end);
+    for (int i = start; i < end && isInTimeOrder(t[i]); i++) {
+      statistics.update(t[i], v[i]);
+    }
   }
 
   @Override
   public void putInts(long[] t, BitMap bitMap, int[] v, int start, int end) {
     list.putInts(t, v, start, end);
+    for (int i = start; i < end && isInTimeOrder(t[i]); i++) {
+      statistics.update(t[i], v[i]);
+    }
   }
 
   @Override
   public void putFloats(long[] t, BitMap bitMap, float[] v, int start, int end) {
     list.putFloats(t, v, start, end);
+    for (int i = start; i < end && isInTimeOrder(t[i]); i++) {
+      statistics.update(t[i], v[i]);
+    }
   }
 
   @Override
   public void putDoubles(long[] t, BitMap bitMap, double[] v, int start, int end) {
     list.putDoubles(t, v, start, end);
+    for (int i = start; i < end && isInTimeOrder(t[i]); i++) {
+      statistics.update(t[i], v[i]);
+    }
   }
 
   @Override
   public void putBinaries(long[] t, BitMap bitMap, Binary[] v, int start, int end) {
     list.putBinaries(t, v, start, end);
+    for (int i = start; i < end && isInTimeOrder(t[i]); i++) {
+      statistics.update(t[i], v[i]);
+    }
   }
 
   @Override
   public void putBooleans(long[] t, BitMap bitMap, boolean[] v, int start, int end) {
     list.putBooleans(t, v, start, end);
+    for (int i = start; i < end && isInTimeOrder(t[i]); i++) {
+      statistics.update(t[i], v[i]);
+    }
   }
 
   @Override
@@ -194,9 +242,9 @@ public class WritableMemChunk implements IWritableMemChunk {
   }
 
   private void sortTVList() {
-    // check reference count
+    // the queries holding the list keep reading it, the points are moved in its lazy clone
     if ((list.getReferenceCount() > 0 && !list.isSorted())) {
-      list = list.clone();
+      list = list.lazyClone();
     }
 
     if (!list.isSorted()) {
@@ -204,6 +252,29 @@ public class WritableMemChunk implements IWritableMemChunk {
     }
   }
 
+  /**
+   * Check whether a point of the given time keeps the statistics exact, i.e., it is after all the
+   * points put before, and drop the statistics if not.
+   */
+  private boolean isInTimeOrder(long time) {
+    if (statistics != null && statistics.getCount() > 0 && time <= statistics.getEndTime()) {
+      statistics = null;
+    }
+    return statistics != null;
+  }
+
+  @Override
+  public synchronized Statistics getStatisticsForQuery() {
+    if (statistics == null) {
+      return null;
+    }
+    Statistics copy = Statistics.getStatsByType(statistics.getType());
+    if (statistics.getCount() > 0) {
+      copy.mergeStatistics(statistics);
+    }
+    return copy;
+  }
+
   @Override
   public synchronized TVList getSortedTvListForFlush() {
     sortTVList();
@@ -232,7 +303,11 @@ public class WritableMemChunk implements IWritableMemChunk {
 
   @Override
   public int delete(long lowerBound, long upperBound) {
-    return list.delete(lowerBound, upperBound);
+    int deletedNumber = list.delete(lowerBound, upperBound);
+    if (deletedNumber > 0) {
+      statistics = null;
+    }
+    return deletedNumber;
   }
 
   // TODO: THIS METHOLD IS FOR DELETING ONE COLUMN OF A VECTOR
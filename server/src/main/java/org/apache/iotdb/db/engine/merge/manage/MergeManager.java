@@ -23,17 +23,23 @@ import org.apache.iotdb.db.concurrent.ThreadName;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.flush.FlushManager;
 import org.apache.iotdb.db.engine.merge.task.MergeMultiChunkTask.MergeChunkHeapTask;
 import org.apache.iotdb.db.engine.merge.task.MergeTask;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.service.IService;
 import org.apache.iotdb.db.service.JMXService;
 import org.apache.iotdb.db.service.ServiceType;
+import org.apache.iotdb.db.utils.MergeUtils;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 
 import com.google.common.util.concurrent.RateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -51,10 +57,18 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
 
 /**
  * MergeManager provides a ThreadPool to queue and run all merge tasks to restrain the total
  * resources occupied by merge and manages a Timer to periodically issue a global merge.
+ *
+ * <p>It also provides the rate limiters shared by all merges and compactions, which limit the bytes
+ * they read and write per second so that they do not take all the disk bandwidth from flushes and
+ * queries. While flush tasks are pending, the configured rates are divided by (1 + the number of
+ * pending flush tasks), at most by {@link #MAX_SLOW_DOWN}, but never below {@link
+ * #MIN_SLOWED_DOWN_MB_PER_SEC}, so that a merge still progresses under a long flush backlog.
  */
 public class MergeManager implements IService, MergeManagerMBean {
 
@@ -64,6 +78,18 @@ public class MergeManager implements IService, MergeManagerMBean {
       String.format(
           "%s:%s=%s", IoTDBConstant.IOTDB_PACKAGE, IoTDBConstant.JMX_TYPE, getID().getJmxName());
   private final RateLimiter mergeWriteRateLimiter = RateLimiter.create(Double.MAX_VALUE);
+  private final RateLimiter mergeReadRateLimiter = RateLimiter.create(Double.MAX_VALUE);
+
+  /** the rates are adjusted to the configuration and the flush backlog at most once a second */
+  private static final long RATE_UPDATE_INTERVAL_MS = 1000;
+  /** the rates are lowered at most to 1/MAX_SLOW_DOWN of the configured ones */
+  private static final int MAX_SLOW_DOWN = 8;
+  /** a rate is never lowered below this one, or below the configured one if it is smaller */
+  private static final double MIN_SLOWED_DOWN_MB_PER_SEC = 1;
+
+  private volatile long lastRateUpdateTime = 0;
+  /** the total time merges and compactions have been blocked by the rate limiters */
+  private final AtomicLong throttledTimeNanos = new AtomicLong();
 
   private AtomicInteger threadCnt = new AtomicInteger();
   private ThreadPoolExecutor mergeTaskPool;
@@ -77,32 +103,124 @@ public class MergeManager implements IService, MergeManagerMBean {
   private MergeManager() {}
 
   public RateLimiter getMergeWriteRateLimiter() {
-    setWriteMergeRate(IoTDBDescriptor.getInstance().getConfig().getMergeWriteThroughputMbPerSec());
+    updateMergeRates();
     return mergeWriteRateLimiter;
   }
 
+  public RateLimiter getMergeReadRateLimiter() {
+    updateMergeRates();
+    return mergeReadRateLimiter;
+  }
+
   /** wait by throughoutMbPerSec limit to avoid continuous Write Or Read */
   public static void mergeRateLimiterAcquire(RateLimiter limiter, long bytesLength) {
+    INSTANCE.updateMergeRates();
+    double throttledSeconds = 0;
     while (bytesLength >= Integer.MAX_VALUE) {
-      limiter.acquire(Integer.MAX_VALUE);
+      throttledSeconds += limiter.acquire(Integer.MAX_VALUE);
       bytesLength -= Integer.MAX_VALUE;
     }
     if (bytesLength > 0) {
-      limiter.acquire((int) bytesLength);
+      throttledSeconds += limiter.acquire((int) bytesLength);
+    }
+    if (throttledSeconds > 0) {
+      INSTANCE.throttledTimeNanos.addAndGet((long) (throttledSeconds * 1_000_000_000L));
+    }
+  }
+
+  /** wait until the bytes can be written by a merge or a compaction */
+  public static void mergeWriteRateLimiterAcquire(long bytesLength) {
+    mergeRateLimiterAcquire(INSTANCE.getMergeWriteRateLimiter(), bytesLength);
+  }
+
+  /** Read a chunk for a merge or a compaction, the read bytes are limited by the read limiter. */
+  public static Chunk readMergeChunk(TsFileSequenceReader reader, ChunkMetadata chunkMetadata)
+      throws IOException {
+    Chunk chunk = reader.readMemChunk(chunkMetadata);
+    mergeReadRateLimiterAcquire(chunk);
+    return chunk;
+  }
+
+  /**
+   * Limit the read bytes of a chunk which is read by the caller. As the call may wait, it should
+   * not be made while holding the lock of a reader shared by other sub-tasks or queries.
+   */
+  public static void mergeReadRateLimiterAcquire(Chunk chunk) {
+    mergeRateLimiterAcquire(INSTANCE.mergeReadRateLimiter, MergeUtils.getChunkSize(chunk));
+  }
+
+  private void updateMergeRates() {
+    updateMergeRates(
+        System.currentTimeMillis(), () -> FlushManager.getInstance().getNumberOfPendingTasks());
+  }
+
+  /**
+   * Update the rates like {@link #updateMergeRates(int)} if they are not updated within
+   * RATE_UPDATE_INTERVAL_MS before currentTime, or the clock has been set back since then.
+   *
+   * @param pendingFlushTaskNum only called if the rates are updated
+   */
+  public void updateMergeRates(long currentTime, IntSupplier pendingFlushTaskNum) {
+    long lastTime = lastRateUpdateTime;
+    if (currentTime >= lastTime && currentTime - lastTime < RATE_UPDATE_INTERVAL_MS) {
+      return;
     }
+    lastRateUpdateTime = currentTime;
+    updateMergeRates(pendingFlushTaskNum.getAsInt());
   }
 
-  private void setWriteMergeRate(final double throughoutMbPerSec) {
-    double throughout = throughoutMbPerSec * 1024.0 * 1024.0;
+  /** set the rates to the configured ones, lowered by the number of pending flush tasks */
+  public void updateMergeRates(int pendingFlushTaskNum) {
+    // each pending flush task lowers the rates, so that the flushes catch up sooner
+    int slowDown = Math.min(pendingFlushTaskNum + 1, MAX_SLOW_DOWN);
+    setMergeRate(
+        mergeWriteRateLimiter,
+        IoTDBDescriptor.getInstance().getConfig().getMergeWriteThroughputMbPerSec(),
+        slowDown);
+    setMergeRate(
+        mergeReadRateLimiter,
+        IoTDBDescriptor.getInstance().getConfig().getMergeReadThroughputMbPerSec(),
+        slowDown);
+  }
+
+  private static void setMergeRate(
+      RateLimiter limiter, final double throughoutMbPerSec, int slowDown) {
+    double throughout;
     // if throughout = 0, disable rate limiting
-    if (throughout == 0) {
+    if (throughoutMbPerSec <= 0) {
       throughout = Double.MAX_VALUE;
+    } else {
+      double slowedDownMbPerSec =
+          Math.max(
+              throughoutMbPerSec / slowDown,
+              Math.min(throughoutMbPerSec, MIN_SLOWED_DOWN_MB_PER_SEC));
+      throughout = slowedDownMbPerSec * 1024.0 * 1024.0;
     }
-    if (mergeWriteRateLimiter.getRate() != throughout) {
-      mergeWriteRateLimiter.setRate(throughout);
+    if (limiter.getRate() != throughout) {
+      limiter.setRate(throughout);
     }
   }
 
+  @Override
+  public double getMergeWriteRateMbPerSec() {
+    return getRateMbPerSec(mergeWriteRateLimiter);
+  }
+
+  @Override
+  public double getMergeReadRateMbPerSec() {
+    return getRateMbPerSec(mergeReadRateLimiter);
+  }
+
+  private static double getRateMbPerSec(RateLimiter limiter) {
+    double rate = limiter.getRate();
+    return rate == Double.MAX_VALUE ? 0 : rate / 1024.0 / 1024.0;
+  }
+
+  @Override
+  public long getMergeThrottledTimeMs() {
+    return TimeUnit.NANOSECONDS.toMillis(throttledTimeNanos.get());
+  }
+
   public static MergeManager getINSTANCE() {
     return INSTANCE;
   }
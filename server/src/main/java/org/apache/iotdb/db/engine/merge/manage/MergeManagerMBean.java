@@ -23,4 +23,13 @@ public interface MergeManagerMBean {
   void printMergeStatus();
 
   void abortMerge(String storageGroup);
+
+  /** @return the current write rate limit of merges and compactions, 0 for no limit */
+  double getMergeWriteRateMbPerSec();
+
+  /** @return the current read rate limit of merges and compactions, 0 for no limit */
+  double getMergeReadRateMbPerSec();
+
+  /** @return the total time merges and compactions have been blocked by the rate limits */
+  long getMergeThrottledTimeMs();
 }
@@ -23,11 +23,14 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.engine.merge.manage.MergeContext;
+import org.apache.iotdb.db.engine.merge.manage.MergeManager;
 import org.apache.iotdb.db.engine.merge.manage.MergeResource;
 import org.apache.iotdb.db.engine.merge.recover.MergeLogger;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.utils.MergeUtils;
 import org.apache.iotdb.tsfile.exception.write.TsFileNotCompleteException;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
@@ -211,6 +214,8 @@ public class MergeFileTask {
       if (!newFileWriter.getFile().delete()) {
         logger.warn("Delete file {} failed", newFileWriter.getFile());
       }
+      // the rollups no longer match the merged data
+      TsFileRollup.remove(seqFile.getTsFile());
       // change tsFile name
       File nextMergeVersionFile = modifyTsFileNameUnseqMergCnt(seqFile.getTsFile());
       fsFactory.moveFile(seqFile.getTsFile(), nextMergeVersionFile);
@@ -300,7 +305,8 @@ public class MergeFileTask {
       throws IOException {
     fileWriter.startChunkGroup(device);
     for (ChunkMetadata chunkMetaData : chunkMetadataList) {
-      Chunk chunk = reader.readMemChunk(chunkMetaData);
+      Chunk chunk = MergeManager.readMergeChunk(reader, chunkMetaData);
+      MergeManager.mergeWriteRateLimiterAcquire(MergeUtils.getChunkSize(chunk));
       fileWriter.writeChunk(chunk, chunkMetaData);
       context.incTotalPointWritten(chunkMetaData.getNumOfPoints());
     }
@@ -364,6 +370,7 @@ public class MergeFileTask {
       if (!seqFile.getTsFile().delete()) {
         logger.warn("Delete file {} failed", seqFile.getTsFile());
       }
+      TsFileRollup.remove(seqFile.getTsFile());
       File nextMergeVersionFile = modifyTsFileNameUnseqMergCnt(seqFile.getTsFile());
       fsFactory.moveFile(fileWriter.getFile(), nextMergeVersionFile);
       fsFactory.moveFile(
@@ -395,7 +402,8 @@ public class MergeFileTask {
       for (; chunkIdx < chunkMetadataList.size(); chunkIdx++) {
         ChunkMetadata metaData = chunkMetadataList.get(chunkIdx);
         if (metaData.getStartTime() == startTime) {
-          Chunk chunk = reader.readMemChunk(metaData);
+          Chunk chunk = MergeManager.readMergeChunk(reader, metaData);
+          MergeManager.mergeWriteRateLimiterAcquire(MergeUtils.getChunkSize(chunk));
           fileWriter.writeChunk(chunk, metaData);
           maxVersion = metaData.getVersion() > maxVersion ? metaData.getVersion() : maxVersion;
           context.incTotalPointWritten(metaData.getNumOfPoints());
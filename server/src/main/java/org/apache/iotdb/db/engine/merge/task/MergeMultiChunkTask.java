@@ -491,6 +491,7 @@ public class MergeMultiChunkTask {
         && !chunkTooSmall
         && !chunkOverflowed
         && !chunkModified) {
+      MergeManager.mergeWriteRateLimiterAcquire(MergeUtils.getChunkSize(chunk));
       synchronized (mergeFileWriter) {
         mergeFileWriter.writeChunk(chunk, currMeta);
       }
@@ -516,6 +517,7 @@ public class MergeMultiChunkTask {
     if (minChunkPointNum > 0 && unclosedChunkPoint >= minChunkPointNum
         || unclosedChunkPoint > 0 && minChunkPointNum < 0) {
       // the new chunk's size is large enough and it should be flushed
+      MergeManager.mergeWriteRateLimiterAcquire(chunkWriter.getCurrentChunkSize());
       synchronized (mergeFileWriter) {
         chunkWriter.writeToFileWriter(mergeFileWriter);
       }
@@ -653,6 +655,8 @@ public class MergeMultiChunkTask {
           synchronized (reader) {
             chunk = reader.readMemChunk(currMeta);
           }
+          // throttle after releasing the reader, which other sub-tasks may be waiting for
+          MergeManager.mergeReadRateLimiterAcquire(chunk);
           ptWrittens[pathIdx] =
               mergeChunkV2(
                   currMeta,
@@ -681,6 +685,7 @@ public class MergeMultiChunkTask {
         }
         // the last merged chunk may still be smaller than the threshold, flush it anyway
         if (ptWrittens[pathIdx] > 0) {
+          MergeManager.mergeWriteRateLimiterAcquire(chunkWriter.getCurrentChunkSize());
           synchronized (mergeFileWriter) {
             chunkWriter.writeToFileWriter(mergeFileWriter);
           }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.modification;
+
+import org.apache.iotdb.db.utils.TestOnly;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Collections;
+
+/**
+ * This class caches the indexed modifications of the mods files read by queries, so that the
+ * queries on a TsFile do not read and parse its mods file again until the file is appended. The
+ * caching strategy is LRU and the weight of a file is the number of its modifications.
+ *
+ * <p>An entry is invalidated when its file is written by {@link ModificationFile}, and an entry
+ * whose file length has changed in any other way is also read again.
+ */
+public class ModificationCache {
+
+  /** a modification takes about 200 bytes, so the cache takes at most about 40MB */
+  private static final long MAX_CACHED_MODIFICATION_NUM = 200_000L;
+
+  private static final ModificationIndex EMPTY_INDEX =
+      new ModificationIndex(Collections.emptyList(), 0);
+
+  /** path of a mods file -> its indexed modifications */
+  private final Cache<String, ModificationIndex> lruCache;
+
+  private ModificationCache() {
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHED_MODIFICATION_NUM)
+            .weigher((String path, ModificationIndex index) -> Math.max(index.size(), 1))
+            .build();
+  }
+
+  public static ModificationCache getInstance() {
+    return ModificationCacheHolder.INSTANCE;
+  }
+
+  /** @return the indexed modifications in the mods file */
+  public ModificationIndex get(ModificationFile modFile) {
+    String filePath = modFile.getFilePath();
+    // the length is got before the modifications are read, so an append in between is not missed
+    long fileLength = FSFactoryProducer.getFSFactory().getFile(filePath).length();
+    if (fileLength == 0) {
+      return EMPTY_INDEX;
+    }
+    ModificationIndex index = lruCache.getIfPresent(filePath);
+    if (index == null || index.getFileLength() != fileLength) {
+      index = new ModificationIndex(ModificationFile.readModifications(filePath), fileLength);
+      lruCache.put(filePath, index);
+    }
+    return index;
+  }
+
+  public void remove(String modFilePath) {
+    lruCache.invalidate(modFilePath);
+  }
+
+  @TestOnly
+  public void clear() {
+    lruCache.invalidateAll();
+  }
+
+  /** singleton pattern. */
+  private static class ModificationCacheHolder {
+
+    private static final ModificationCache INSTANCE = new ModificationCache();
+  }
+}
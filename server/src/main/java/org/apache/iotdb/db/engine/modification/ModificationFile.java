@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.engine.modification;
 
+import org.apache.iotdb.db.engine.modification.io.LocalBinaryModificationAccessor;
 import org.apache.iotdb.db.engine.modification.io.LocalTextModificationAccessor;
 import org.apache.iotdb.db.engine.modification.io.ModificationReader;
 import org.apache.iotdb.db.engine.modification.io.ModificationWriter;
@@ -41,6 +42,10 @@ import java.util.Random;
 /**
  * ModificationFile stores the Modifications of a TsFile or unseq file in another file in the same
  * directory. Methods in this class are highly synchronized for concurrency safety.
+ *
+ * <p>New files are written by {@link LocalBinaryModificationAccessor}, and the files written in
+ * text format by earlier versions are still read and appended by {@link
+ * LocalTextModificationAccessor}.
  */
 public class ModificationFile implements AutoCloseable {
 
@@ -59,10 +64,29 @@ public class ModificationFile implements AutoCloseable {
    * @param filePath the path of the storage file.
    */
   public ModificationFile(String filePath) {
-    LocalTextModificationAccessor accessor = new LocalTextModificationAccessor(filePath);
-    this.writer = accessor;
-    this.reader = accessor;
     this.filePath = filePath;
+    initAccessor();
+  }
+
+  private void initAccessor() {
+    if (LocalBinaryModificationAccessor.isTextFormat(filePath)) {
+      LocalTextModificationAccessor accessor = new LocalTextModificationAccessor(filePath);
+      this.writer = accessor;
+      this.reader = accessor;
+    } else {
+      LocalBinaryModificationAccessor accessor = new LocalBinaryModificationAccessor(filePath);
+      this.writer = accessor;
+      this.reader = accessor;
+    }
+  }
+
+  /** Read the modifications in a mods file of either format without keeping them. */
+  static Collection<Modification> readModifications(String filePath) {
+    ModificationReader modificationReader =
+        LocalBinaryModificationAccessor.isTextFormat(filePath)
+            ? new LocalTextModificationAccessor(filePath)
+            : new LocalBinaryModificationAccessor(filePath);
+    return modificationReader.read();
   }
 
   private void init() {
@@ -91,6 +115,7 @@ public class ModificationFile implements AutoCloseable {
       if (!modifications.isEmpty()) {
         writer.abort();
         modifications.remove(modifications.size() - 1);
+        ModificationCache.getInstance().remove(filePath);
       }
     }
   }
@@ -107,6 +132,7 @@ public class ModificationFile implements AutoCloseable {
       checkInit();
       writer.write(mod);
       modifications.add(mod);
+      ModificationCache.getInstance().remove(filePath);
     }
   }
 
@@ -131,8 +157,13 @@ public class ModificationFile implements AutoCloseable {
   }
 
   public void remove() throws IOException {
-    close();
-    FSFactoryProducer.getFSFactory().getFile(filePath).delete();
+    synchronized (this) {
+      close();
+      FSFactoryProducer.getFSFactory().getFile(filePath).delete();
+      ModificationCache.getInstance().remove(filePath);
+      // the file written afterwards is a new one
+      initAccessor();
+    }
   }
 
   public boolean exists() {
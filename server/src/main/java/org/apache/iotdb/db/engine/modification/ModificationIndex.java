@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.modification;
+
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.metadata.PartialPath;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The modifications of a mods file indexed by a prefix tree of their paths, so that the
+ * modifications of a series are found by walking down the nodes of the series instead of matching
+ * the series with every modification of the file. An index is immutable, a mods file that has been
+ * appended is indexed again.
+ */
+public class ModificationIndex {
+
+  /** the length of the mods file when it is read */
+  private final long fileLength;
+
+  private final Modification[] modifications;
+  private final IndexNode root = new IndexNode();
+
+  public ModificationIndex(Collection<Modification> modifications, long fileLength) {
+    this.fileLength = fileLength;
+    this.modifications = modifications.toArray(new Modification[0]);
+    for (int i = 0; i < this.modifications.length; i++) {
+      IndexNode node = root;
+      for (String pathNode : this.modifications[i].getPath().getNodes()) {
+        node = node.children.computeIfAbsent(pathNode, k -> new IndexNode());
+      }
+      node.modificationIndexes.add(i);
+    }
+  }
+
+  public long getFileLength() {
+    return fileLength;
+  }
+
+  public int size() {
+    return modifications.length;
+  }
+
+  /**
+   * @return the modifications whose paths match the series as {@link PartialPath#matchFullPath}
+   *     does, in the order they are written
+   */
+  public List<Modification> getModifications(PartialPath seriesPath) {
+    List<Integer> indexes = new ArrayList<>();
+    collect(root, seriesPath.getNodes(), 0, indexes);
+    if (indexes.size() > 1) {
+      Collections.sort(indexes);
+    }
+    List<Modification> result = new ArrayList<>(indexes.size());
+    for (int index : indexes) {
+      result.add(modifications[index]);
+    }
+    return result;
+  }
+
+  /** a modification of a path deletes the series under the path */
+  private void collect(IndexNode node, String[] nodes, int depth, List<Integer> indexes) {
+    indexes.addAll(node.modificationIndexes);
+    if (depth == nodes.length) {
+      return;
+    }
+    IndexNode child = node.children.get(nodes[depth]);
+    if (child != null) {
+      collect(child, nodes, depth + 1, indexes);
+    }
+    if (!IoTDBConstant.PATH_WILDCARD.equals(nodes[depth])) {
+      IndexNode wildcardChild = node.children.get(IoTDBConstant.PATH_WILDCARD);
+      if (wildcardChild != null) {
+        collect(wildcardChild, nodes, depth + 1, indexes);
+      }
+    }
+  }
+
+  private static class IndexNode {
+
+    private final Map<String, IndexNode> children = new HashMap<>();
+    /** positions of the modifications whose paths end at this node */
+    private final List<Integer> modificationIndexes = new ArrayList<>(1);
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.modification.io;
+
+import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * LocalBinaryModificationAccessor uses a file on local file system to store the modifications in
+ * binary format, and writes modifications by appending to the tail of the file. The paths are
+ * stored as their nodes, so reading the file needs neither splitting lines nor parsing paths.
+ *
+ * <p>The file starts with a magic string and a format version, followed by records of [record
+ * length (int), type (byte), body]. A record that is not completely written, e.g., when the system
+ * crashes, is ignored by reads and truncated before the next append.
+ */
+public class LocalBinaryModificationAccessor
+    implements ModificationReader, ModificationWriter, AutoCloseable {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(LocalBinaryModificationAccessor.class);
+
+  /** a text file starts with the name of a modification type, so it never starts with 0 */
+  private static final byte[] MAGIC_BYTES = {0, 'M', 'O', 'D', 'S'};
+
+  private static final byte FORMAT_VERSION = 1;
+  private static final int HEADER_LENGTH = MAGIC_BYTES.length + 1;
+
+  private static final byte DELETION = 0;
+  private static final byte ABORT = 1;
+
+  private String filePath;
+  private OutputStream outputStream;
+
+  /** the length of the file and of its complete records at the last read */
+  private long readFileLength = -1;
+
+  private long validLength = -1;
+
+  /**
+   * Construct a LocalBinaryModificationAccessor using a file specified by filePath.
+   *
+   * @param filePath the path of the file that is used for storing modifications.
+   */
+  public LocalBinaryModificationAccessor(String filePath) {
+    this.filePath = filePath;
+  }
+
+  /** @return whether the file exists and is written by {@link LocalTextModificationAccessor} */
+  public static boolean isTextFormat(String filePath) {
+    File file = new File(filePath);
+    if (!file.exists() || file.length() == 0) {
+      return false;
+    }
+    try (InputStream inputStream = new FileInputStream(file)) {
+      return inputStream.read() != MAGIC_BYTES[0];
+    } catch (IOException e) {
+      logger.error("Cannot read the format of {}, regard it as a text file", filePath, e);
+      return true;
+    }
+  }
+
+  @Override
+  public Collection<Modification> read() {
+    List<Modification> modificationList = new ArrayList<>();
+    File file = new File(filePath);
+    if (!file.exists()) {
+      logger.debug("No modification has been written to this file");
+      readFileLength = 0;
+      validLength = 0;
+      return modificationList;
+    }
+
+    ByteBuffer buffer;
+    try {
+      buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+    } catch (IOException e) {
+      logger.error("An error occurred when reading modifications of {}", filePath, e);
+      return modificationList;
+    }
+    readFileLength = buffer.limit();
+    validLength = 0;
+    if (!checkHeader(buffer)) {
+      return modificationList;
+    }
+    while (buffer.remaining() >= Integer.BYTES) {
+      int recordLength = buffer.getInt();
+      if (recordLength <= 0 || recordLength > buffer.remaining()) {
+        buffer.position(buffer.position() - Integer.BYTES);
+        break;
+      }
+      ByteBuffer record = buffer.slice();
+      record.limit(recordLength);
+      buffer.position(buffer.position() + recordLength);
+      try {
+        decodeRecord(record, modificationList);
+      } catch (IOException | BufferUnderflowException | NegativeArraySizeException e) {
+        logger.error("An error occurred when decoding a modification of {}, skip it", filePath, e);
+      }
+    }
+    validLength = buffer.position();
+    if (validLength < readFileLength) {
+      logger.warn(
+          "The last {} bytes of {} are not a complete modification and ignored",
+          readFileLength - validLength,
+          filePath);
+    }
+    return modificationList;
+  }
+
+  private boolean checkHeader(ByteBuffer buffer) {
+    if (buffer.remaining() < HEADER_LENGTH) {
+      return false;
+    }
+    for (byte magicByte : MAGIC_BYTES) {
+      if (buffer.get() != magicByte) {
+        logger.error("{} is not a binary modification file", filePath);
+        return false;
+      }
+    }
+    byte version = buffer.get();
+    if (version != FORMAT_VERSION) {
+      logger.error("Unsupported version {} of modification file {}", version, filePath);
+      return false;
+    }
+    return true;
+  }
+
+  private static void decodeRecord(ByteBuffer record, List<Modification> modificationList)
+      throws IOException {
+    byte type = record.get();
+    switch (type) {
+      case DELETION:
+        modificationList.add(decodeDeletion(record));
+        break;
+      case ABORT:
+        if (!modificationList.isEmpty()) {
+          modificationList.remove(modificationList.size() - 1);
+        }
+        break;
+      default:
+        throw new IOException("Unknown modification type: " + type);
+    }
+  }
+
+  private static Deletion decodeDeletion(ByteBuffer record) {
+    String[] nodes = new String[record.getInt()];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = ReadWriteIOUtils.readString(record);
+    }
+    long fileOffset = record.getLong();
+    long startTime = record.getLong();
+    long endTime = record.getLong();
+    return new Deletion(new PartialPath(nodes), fileOffset, startTime, endTime);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (outputStream != null) {
+      outputStream.close();
+      outputStream = null;
+    }
+  }
+
+  @Override
+  public void abort() throws IOException {
+    PublicBAOS record = new PublicBAOS();
+    ReadWriteIOUtils.write(ABORT, record);
+    writeRecord(record);
+  }
+
+  @Override
+  public void write(Modification mod) throws IOException {
+    if (!(mod instanceof Deletion)) {
+      throw new IOException("Unknown modification type: " + mod.getType());
+    }
+    Deletion deletion = (Deletion) mod;
+    PublicBAOS record = new PublicBAOS();
+    ReadWriteIOUtils.write(DELETION, record);
+    String[] nodes = deletion.getPath().getNodes();
+    ReadWriteIOUtils.write(nodes.length, record);
+    for (String node : nodes) {
+      ReadWriteIOUtils.write(node, record);
+    }
+    ReadWriteIOUtils.write(deletion.getFileOffset(), record);
+    ReadWriteIOUtils.write(deletion.getStartTime(), record);
+    ReadWriteIOUtils.write(deletion.getEndTime(), record);
+    writeRecord(record);
+  }
+
+  private void writeRecord(PublicBAOS record) throws IOException {
+    if (outputStream == null) {
+      openOutputStream();
+    }
+    ReadWriteIOUtils.write(record.size(), outputStream);
+    outputStream.write(record.getBuf(), 0, record.size());
+    outputStream.flush();
+  }
+
+  private void openOutputStream() throws IOException {
+    File file = new File(filePath);
+    long fileLength = file.length();
+    if (fileLength < HEADER_LENGTH) {
+      outputStream = new BufferedOutputStream(new FileOutputStream(file));
+      outputStream.write(MAGIC_BYTES);
+      outputStream.write(FORMAT_VERSION);
+      return;
+    }
+    if (fileLength == readFileLength && validLength >= HEADER_LENGTH && validLength < fileLength) {
+      // drop the incomplete record, otherwise the records appended after it cannot be read
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+        channel.truncate(validLength);
+      }
+    }
+    outputStream = new BufferedOutputStream(new FileOutputStream(file, true));
+  }
+}
@@ -74,7 +74,8 @@ public class ReadOnlyMemChunk {
       TVList tvList,
       Map<String, String> props,
       int size,
-      List<TimeRange> deletionList)
+      List<TimeRange> deletionList,
+      Statistics runningStatistics)
       throws IOException, QueryProcessException {
     this.measurementUid = measurementUid;
     this.dataType = dataType;
@@ -102,13 +103,24 @@ public class ReadOnlyMemChunk {
 
     this.chunkPointReader =
         tvList.getIterator(floatPrecision, encoding, chunkDataSize, deletionList);
-    initChunkMeta();
+    initChunkMeta(runningStatistics);
   }
 
-  private void initChunkMeta() throws IOException, QueryProcessException {
-    Statistics statsByType = Statistics.getStatsByType(dataType);
+  /**
+   * @param runningStatistics statistics of all the points in the chunk maintained on insertion, it
+   *     is used instead of iterating the points if neither deletions nor float rounding change the
+   *     points, may be null
+   */
+  private void initChunkMeta(Statistics runningStatistics)
+      throws IOException, QueryProcessException {
+    boolean useRunningStatistics =
+        runningStatistics != null
+            && (deletionList == null || deletionList.isEmpty())
+            && !isValueRounded();
+    Statistics statsByType =
+        useRunningStatistics ? runningStatistics : Statistics.getStatsByType(dataType);
     IChunkMetadata metaData = new ChunkMetadata(measurementUid, dataType, 0, statsByType);
-    if (!isEmpty()) {
+    if (!useRunningStatistics && !isEmpty()) {
       IPointReader iterator =
           chunkData.getIterator(floatPrecision, encoding, chunkDataSize, deletionList);
       while (iterator.hasNextTimeValuePair()) {
@@ -143,6 +155,12 @@ public class ReadOnlyMemChunk {
     cachedMetaData = metaData;
   }
 
+  /** float values are rounded by the iterator if they will be encoded with a precision */
+  private boolean isValueRounded() {
+    return (dataType == TSDataType.FLOAT || dataType == TSDataType.DOUBLE)
+        && (encoding == TSEncoding.RLE || encoding == TSEncoding.TS_2DIFF);
+  }
+
   /**
    * The constructor for VECTOR type.
    *
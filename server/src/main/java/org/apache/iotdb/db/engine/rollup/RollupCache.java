@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.db.utils.TestOnly;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * This class caches the rollups of the sealed TsFiles read by queries. The caching strategy is LRU
+ * and the weight of a file is the number of its buckets.
+ */
+public class RollupCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(RollupCache.class);
+
+  /** a bucket takes about 100 bytes, so the cache takes at most about 20MB */
+  private static final long MAX_CACHED_BUCKET_NUM = 200_000L;
+
+  /** absolute path of a TsFile -> its rollups, or empty if it has none */
+  private final Cache<String, Optional<TsFileRollup>> lruCache;
+
+  private RollupCache() {
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHED_BUCKET_NUM)
+            .weigher(
+                (String path, Optional<TsFileRollup> rollup) ->
+                    rollup.map(r -> Math.max(r.getBucketNum(), 1)).orElse(1))
+            .build();
+  }
+
+  public static RollupCache getInstance() {
+    return RollupCacheHolder.INSTANCE;
+  }
+
+  /** @return the rollup of the series in the sealed TsFile, or null if it has none */
+  public SeriesRollup get(File tsFile, String device, String measurement) {
+    Optional<TsFileRollup> rollup = lruCache.get(tsFile.getAbsolutePath(), k -> load(tsFile));
+    return rollup == null || !rollup.isPresent()
+        ? null
+        : rollup.get().getSeriesRollup(device, measurement);
+  }
+
+  private static Optional<TsFileRollup> load(File tsFile) {
+    try {
+      return Optional.ofNullable(TsFileRollup.deserialize(tsFile));
+    } catch (IOException e) {
+      // the rollups are only an optimization, the query can still read the data
+      logger.error("Cannot read the rollups of {}", tsFile, e);
+      return Optional.empty();
+    }
+  }
+
+  public void remove(File tsFile) {
+    lruCache.invalidate(tsFile.getAbsolutePath());
+  }
+
+  @TestOnly
+  public void clear() {
+    lruCache.invalidateAll();
+  }
+
+  /** singleton pattern. */
+  private static class RollupCacheHolder {
+
+    private static final RollupCache INSTANCE = new RollupCache();
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The rollup of a series in a TsFile: the statistics (count, sum, min, max, first and last) of its
+ * points in each bucket [k * interval, (k + 1) * interval) that has points. The points must be put
+ * in time order, as the first and last values of a Statistics are updated in that order.
+ */
+public class SeriesRollup {
+
+  private final TSDataType dataType;
+  private final long interval;
+
+  /** start time of a bucket -> statistics of the points in the bucket */
+  private final TreeMap<Long, Statistics> buckets = new TreeMap<>();
+
+  // the points of a series come in time order, so they mostly fall into the last bucket
+  private long lastBucketStart = Long.MIN_VALUE;
+  private Statistics lastBucket;
+
+  public SeriesRollup(TSDataType dataType, long interval) {
+    this.dataType = dataType;
+    this.interval = interval;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public long getInterval() {
+    return interval;
+  }
+
+  public int getBucketNum() {
+    return buckets.size();
+  }
+
+  /** @return the statistics of the bucket of the time, to be updated with the point of the time */
+  public Statistics getBucket(long time) {
+    long bucketStart = getBucketStart(time);
+    if (lastBucket == null || bucketStart != lastBucketStart) {
+      lastBucketStart = bucketStart;
+      lastBucket = buckets.computeIfAbsent(bucketStart, k -> Statistics.getStatsByType(dataType));
+    }
+    return lastBucket;
+  }
+
+  /** @return whether the time is the start of a bucket */
+  public boolean isAligned(long time) {
+    return Math.floorMod(time, interval) == 0;
+  }
+
+  private long getBucketStart(long time) {
+    return time - Math.floorMod(time, interval);
+  }
+
+  /**
+   * @return the statistics of the buckets in [startTime, endTime), in ascending or descending order
+   *     of time. The caller should make sure both times are aligned to the buckets.
+   */
+  public Collection<Statistics> getBuckets(long startTime, long endTime, boolean ascending) {
+    NavigableMap<Long, Statistics> subMap = buckets.subMap(startTime, true, endTime, false);
+    return ascending ? subMap.values() : subMap.descendingMap().values();
+  }
+
+  /** Merge the buckets of another rollup of the same series whose points do not overlap these. */
+  public void merge(SeriesRollup other) {
+    for (Map.Entry<Long, Statistics> entry : other.buckets.entrySet()) {
+      Statistics bucket = buckets.get(entry.getKey());
+      if (bucket == null) {
+        bucket = Statistics.getStatsByType(dataType);
+        buckets.put(entry.getKey(), bucket);
+      }
+      bucket.mergeStatistics(entry.getValue());
+    }
+    lastBucket = null;
+  }
+
+  public void serialize(OutputStream outputStream) throws IOException {
+    ReadWriteIOUtils.write(dataType, outputStream);
+    ReadWriteIOUtils.write(buckets.size(), outputStream);
+    for (Map.Entry<Long, Statistics> entry : buckets.entrySet()) {
+      ReadWriteIOUtils.write(entry.getKey(), outputStream);
+      entry.getValue().serialize(outputStream);
+    }
+  }
+
+  public static SeriesRollup deserialize(InputStream inputStream, long interval)
+      throws IOException {
+    TSDataType dataType = ReadWriteIOUtils.readDataType(inputStream);
+    SeriesRollup rollup = new SeriesRollup(dataType, interval);
+    int bucketNum = ReadWriteIOUtils.readInt(inputStream);
+    for (int i = 0; i < bucketNum; i++) {
+      long bucketStart = ReadWriteIOUtils.readLong(inputStream);
+      rollup.buckets.put(bucketStart, Statistics.deserialize(inputStream, dataType));
+    }
+    return rollup;
+  }
+}
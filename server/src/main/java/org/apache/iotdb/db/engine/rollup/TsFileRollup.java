@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.fileSystem.fsFactory.FSFactory;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The rollups of the series in a sequence TsFile, persisted in the companion file "{tsfile}.rollup"
+ * when the TsFile is sealed by a flush or written by a compaction. A rollup file records the length
+ * of its TsFile, so it is ignored once the TsFile is rewritten.
+ *
+ * <p>Only sequence files have rollups: the chunks of a series in a sequence file never overlap, so
+ * the buckets can be updated in time order without deduplication.
+ */
+public class TsFileRollup {
+
+  private static final Logger logger = LoggerFactory.getLogger(TsFileRollup.class);
+  private static final FSFactory fsFactory = FSFactoryProducer.getFSFactory();
+
+  public static final String ROLLUP_SUFFIX = ".rollup";
+  private static final String TEMP_SUFFIX = ".temp";
+
+  private final long interval;
+
+  /** device -> measurement -> rollup of the series */
+  private final Map<String, Map<String, SeriesRollup>> deviceRollups = new HashMap<>();
+
+  public TsFileRollup(long interval) {
+    this.interval = interval;
+  }
+
+  /** @return the rollup interval in the time precision of the system, or 0 if it is disabled */
+  public static long getConfiguredInterval() {
+    long intervalInSecond = IoTDBDescriptor.getInstance().getConfig().getRollupInterval();
+    return intervalInSecond > 0
+        ? StorageEngine.convertMilliWithPrecision(intervalInSecond * 1000L)
+        : 0;
+  }
+
+  public long getInterval() {
+    return interval;
+  }
+
+  public synchronized SeriesRollup getOrCreateSeriesRollup(
+      String device, String measurement, TSDataType dataType) {
+    return deviceRollups
+        .computeIfAbsent(device, k -> new HashMap<>())
+        .computeIfAbsent(measurement, k -> new SeriesRollup(dataType, interval));
+  }
+
+  /** @return the rollup of the series, or null if the series has no rollup in the file */
+  public synchronized SeriesRollup getSeriesRollup(String device, String measurement) {
+    Map<String, SeriesRollup> measurementRollups = deviceRollups.get(device);
+    return measurementRollups == null ? null : measurementRollups.get(measurement);
+  }
+
+  public synchronized int getBucketNum() {
+    int bucketNum = 0;
+    for (Map<String, SeriesRollup> measurementRollups : deviceRollups.values()) {
+      for (SeriesRollup seriesRollup : measurementRollups.values()) {
+        bucketNum += seriesRollup.getBucketNum();
+      }
+    }
+    return bucketNum;
+  }
+
+  /** Merge the rollups of another part of the file, or of a file before this one. */
+  public synchronized void merge(TsFileRollup other) {
+    for (Map.Entry<String, Map<String, SeriesRollup>> deviceEntry :
+        other.deviceRollups.entrySet()) {
+      for (Map.Entry<String, SeriesRollup> entry : deviceEntry.getValue().entrySet()) {
+        SeriesRollup seriesRollup = entry.getValue();
+        getOrCreateSeriesRollup(deviceEntry.getKey(), entry.getKey(), seriesRollup.getDataType())
+            .merge(seriesRollup);
+      }
+    }
+  }
+
+  /** Write the rollups beside the sealed TsFile. */
+  public synchronized void serialize(File tsFile) throws IOException {
+    File tempFile = fsFactory.getFile(tsFile.getPath() + ROLLUP_SUFFIX + TEMP_SUFFIX);
+    try (OutputStream outputStream = fsFactory.getBufferedOutputStream(tempFile.getPath())) {
+      ReadWriteIOUtils.write(tsFile.length(), outputStream);
+      ReadWriteIOUtils.write(interval, outputStream);
+      ReadWriteIOUtils.write(deviceRollups.size(), outputStream);
+      for (Map.Entry<String, Map<String, SeriesRollup>> deviceEntry : deviceRollups.entrySet()) {
+        ReadWriteIOUtils.write(deviceEntry.getKey(), outputStream);
+        ReadWriteIOUtils.write(deviceEntry.getValue().size(), outputStream);
+        for (Map.Entry<String, SeriesRollup> entry : deviceEntry.getValue().entrySet()) {
+          ReadWriteIOUtils.write(entry.getKey(), outputStream);
+          entry.getValue().serialize(outputStream);
+        }
+      }
+    }
+    File rollupFile = getRollupFile(tsFile);
+    fsFactory.deleteIfExists(rollupFile);
+    fsFactory.moveFile(tempFile, rollupFile);
+  }
+
+  /**
+   * @return the rollups of the TsFile, or null if it has no rollup file or the TsFile has been
+   *     rewritten since the rollups were written
+   */
+  public static TsFileRollup deserialize(File tsFile) throws IOException {
+    File rollupFile = getRollupFile(tsFile);
+    if (!rollupFile.exists()) {
+      return null;
+    }
+    try (InputStream inputStream = fsFactory.getBufferedInputStream(rollupFile.getPath())) {
+      long tsFileLength = ReadWriteIOUtils.readLong(inputStream);
+      if (tsFileLength != tsFile.length()) {
+        logger.warn("Ignore the rollups of {} as the file has been rewritten", tsFile);
+        return null;
+      }
+      TsFileRollup rollup = new TsFileRollup(ReadWriteIOUtils.readLong(inputStream));
+      int deviceNum = ReadWriteIOUtils.readInt(inputStream);
+      for (int i = 0; i < deviceNum; i++) {
+        String device = ReadWriteIOUtils.readString(inputStream);
+        int measurementNum = ReadWriteIOUtils.readInt(inputStream);
+        Map<String, SeriesRollup> measurementRollups = new HashMap<>(measurementNum);
+        for (int j = 0; j < measurementNum; j++) {
+          String measurement = ReadWriteIOUtils.readString(inputStream);
+          measurementRollups.put(
+              measurement, SeriesRollup.deserialize(inputStream, rollup.interval));
+        }
+        rollup.deviceRollups.put(device, measurementRollups);
+      }
+      return rollup;
+    }
+  }
+
+  /**
+   * Compute the rollups by reading all the points of a sealed sequence TsFile, which is needed when
+   * the rollups of the source files cannot simply be merged, e.g., some points are deleted.
+   */
+  public static TsFileRollup generate(File tsFile, long interval) throws IOException {
+    TsFileRollup rollup = new TsFileRollup(interval);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFile.getPath())) {
+      for (String device : reader.getAllDevices()) {
+        for (Map.Entry<String, List<ChunkMetadata>> entry :
+            reader.readChunkMetadataInDevice(device).entrySet()) {
+          if (entry.getValue().isEmpty() || isVector(entry.getValue().get(0))) {
+            continue;
+          }
+          SeriesRollup seriesRollup =
+              rollup.getOrCreateSeriesRollup(
+                  device, entry.getKey(), entry.getValue().get(0).getDataType());
+          // the chunks of a series in a sequence file are in time order
+          for (ChunkMetadata chunkMetadata : entry.getValue()) {
+            ChunkReader chunkReader = new ChunkReader(reader.readMemChunk(chunkMetadata), null);
+            while (chunkReader.hasNextSatisfiedPage()) {
+              update(seriesRollup, chunkReader.nextPageData());
+            }
+          }
+        }
+      }
+    }
+    return rollup;
+  }
+
+  private static boolean isVector(ChunkMetadata chunkMetadata) {
+    return chunkMetadata.getDataType() == TSDataType.VECTOR
+        || chunkMetadata.isTimeColumn()
+        || chunkMetadata.isValueColumn();
+  }
+
+  private static void update(SeriesRollup seriesRollup, BatchData batchData) {
+    while (batchData.hasCurrent()) {
+      long time = batchData.currentTime();
+      switch (seriesRollup.getDataType()) {
+        case BOOLEAN:
+          seriesRollup.getBucket(time).update(time, batchData.getBoolean());
+          break;
+        case INT32:
+          seriesRollup.getBucket(time).update(time, batchData.getInt());
+          break;
+        case INT64:
+          seriesRollup.getBucket(time).update(time, batchData.getLong());
+          break;
+        case FLOAT:
+          seriesRollup.getBucket(time).update(time, batchData.getFloat());
+          break;
+        case DOUBLE:
+          seriesRollup.getBucket(time).update(time, batchData.getDouble());
+          break;
+        case TEXT:
+        default:
+          seriesRollup.getBucket(time).update(time, batchData.getBinary());
+          break;
+      }
+      batchData.next();
+    }
+  }
+
+  public static File getRollupFile(File tsFile) {
+    return fsFactory.getFile(tsFile.getPath() + ROLLUP_SUFFIX);
+  }
+
+  /** Remove the rollup file of the TsFile physically, if any. */
+  public static void remove(File tsFile) {
+    try {
+      fsFactory.deleteIfExists(getRollupFile(tsFile));
+    } catch (IOException e) {
+      logger.error("Rollup file of {} cannot be deleted: {}", tsFile, e.getMessage());
+    }
+    RollupCache.getInstance().remove(tsFile);
+  }
+}
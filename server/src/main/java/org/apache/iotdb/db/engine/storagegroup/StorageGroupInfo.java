@@ -42,12 +42,17 @@ public class StorageGroupInfo {
    */
   private AtomicLong memoryCost;
 
+  /** The memory cost of the direct arrays of off-heap TVLists, which is not in memoryCost */
+  private AtomicLong offHeapMemoryCost = new AtomicLong();
+
   /** The threshold of reporting it's size to SystemInfo */
   private long storageGroupSizeReportThreshold =
       IoTDBDescriptor.getInstance().getConfig().getStorageGroupSizeReportThreshold();
 
   private AtomicLong lastReportedSize = new AtomicLong();
 
+  private AtomicLong lastReportedOffHeapSize = new AtomicLong();
+
   /** A set of all unclosed TsFileProcessors in this SG */
   private List<TsFileProcessor> reportedTsps = new CopyOnWriteArrayList<>();
 
@@ -77,18 +82,36 @@ public class StorageGroupInfo {
     return memoryCost.get();
   }
 
+  public void addStorageGroupOffHeapMemCost(long cost) {
+    offHeapMemoryCost.getAndAdd(cost);
+  }
+
+  public void releaseStorageGroupOffHeapMemCost(long cost) {
+    offHeapMemoryCost.getAndAdd(-cost);
+  }
+
+  public long getOffHeapMemCost() {
+    return offHeapMemoryCost.get();
+  }
+
   public List<TsFileProcessor> getAllReportedTsp() {
     return reportedTsps;
   }
 
   public boolean needToReportToSystem() {
-    return memoryCost.get() - lastReportedSize.get() > storageGroupSizeReportThreshold;
+    return memoryCost.get() - lastReportedSize.get() > storageGroupSizeReportThreshold
+        || offHeapMemoryCost.get() - lastReportedOffHeapSize.get()
+            > storageGroupSizeReportThreshold;
   }
 
   public void setLastReportedSize(long size) {
     lastReportedSize.set(size);
   }
 
+  public void setLastReportedOffHeapSize(long size) {
+    lastReportedOffHeapSize.set(size);
+  }
+
   /**
    * When a TsFileProcessor is closing, remove it from reportedTsps, and report to systemInfo to
    * update SG cost.
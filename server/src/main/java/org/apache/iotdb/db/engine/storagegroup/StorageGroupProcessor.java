@@ -63,11 +63,13 @@ import org.apache.iotdb.db.qp.physical.crud.InsertRowsOfOneDevicePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.QueryFileManager;
+import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.utils.CopyOnReadLinkedList;
 import org.apache.iotdb.db.utils.MmapUtil;
 import org.apache.iotdb.db.utils.TestOnly;
 import org.apache.iotdb.db.utils.UpgradeUtils;
+import org.apache.iotdb.db.writelog.node.WriteLogNode;
 import org.apache.iotdb.db.writelog.recover.TsFileRecoverPerformer;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
@@ -103,7 +105,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
@@ -163,6 +166,15 @@ public class StorageGroupProcessor {
    * partitionLatestFlushedTimeForEachDevice)
    */
   private final ReadWriteLock insertLock = new ReentrantReadWriteLock();
+  /**
+   * whether insertions only take the read lock of insertLock, flushes and closes triggered by them
+   * are deferred to tasks holding the write lock
+   */
+  private final boolean enableConcurrentInsert = config.isEnableConcurrentInsert();
+  /** processors whose flush has been deferred by concurrent insertions */
+  private final Set<TsFileProcessor> pendingFlushTsFileProcessors = ConcurrentHashMap.newKeySet();
+  /** serialize the creation of TsFileProcessors by concurrent insertions */
+  private final Object tsFileProcessorCreationLock = new Object();
   /** closeStorageGroupCondition is used to wait for all currently closing TsFiles to be done. */
   private final Object closeStorageGroupCondition = new Object();
   /**
@@ -170,9 +182,11 @@ public class StorageGroupProcessor {
    */
   private final ReadWriteLock closeQueryLock = new ReentrantReadWriteLock();
   /** time partition id in the storage group -> tsFileProcessor for this time partition */
-  private final TreeMap<Long, TsFileProcessor> workSequenceTsFileProcessors = new TreeMap<>();
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workSequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
   /** time partition id in the storage group -> tsFileProcessor for this time partition */
-  private final TreeMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors = new TreeMap<>();
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
   /** compactionMergeWorking is used to wait for last compaction to be done. */
   private volatile boolean compactionMergeWorking = false;
   // upgrading sequence TsFile resource list
@@ -196,7 +210,7 @@ public class StorageGroupProcessor {
    * changes upon timestamps of each device, and is used to update partitionLatestFlushedTimeForEachDevice
    * when a flush is issued.
    */
-  private Map<Long, Map<String, Long>> latestTimeForEachDevice = new HashMap<>();
+  private Map<Long, Map<String, Long>> latestTimeForEachDevice = new ConcurrentHashMap<>();
   /**
    * time partition id -> map, which contains device -> largest timestamp of the latest memtable to
    * be submitted to asyncTryToFlush partitionLatestFlushedTimeForEachDevice determines whether a
@@ -204,7 +218,8 @@ public class StorageGroupProcessor {
    * with timestamp less than or equals to the device's latestFlushedTime should go into an
    * unsequential file.
    */
-  private Map<Long, Map<String, Long>> partitionLatestFlushedTimeForEachDevice = new HashMap<>();
+  private Map<Long, Map<String, Long>> partitionLatestFlushedTimeForEachDevice =
+      new ConcurrentHashMap<>();
 
   /** used to record the latest flush time while upgrading and inserting */
   private Map<Long, Map<String, Long>> newlyFlushedPartitionLatestFlushedTimeForEachDevice =
@@ -215,7 +230,7 @@ public class StorageGroupProcessor {
    * latestFlushedTime of devices and will be updated along with
    * partitionLatestFlushedTimeForEachDevice
    */
-  private Map<String, Long> globalLatestFlushedTimeForEachDevice = new HashMap<>();
+  private Map<String, Long> globalLatestFlushedTimeForEachDevice = new ConcurrentHashMap<>();
 
   /** virtual storage group id */
   private String virtualStorageGroupId;
@@ -530,10 +545,10 @@ public class StorageGroupProcessor {
         endTimeMap.put(deviceId, endTime);
       }
       latestTimeForEachDevice
-          .computeIfAbsent(timePartitionId, l -> new HashMap<>())
+          .computeIfAbsent(timePartitionId, l -> new ConcurrentHashMap<>())
           .putAll(endTimeMap);
       partitionLatestFlushedTimeForEachDevice
-          .computeIfAbsent(timePartitionId, id -> new HashMap<>())
+          .computeIfAbsent(timePartitionId, id -> new ConcurrentHashMap<>())
           .putAll(endTimeMap);
       globalLatestFlushedTimeForEachDevice.putAll(endTimeMap);
     }
@@ -601,7 +616,7 @@ public class StorageGroupProcessor {
         long endTime = resource.getEndTime(deviceId);
         long endTimePartitionId = StorageEngine.getTimePartition(endTime);
         latestTimeForEachDevice
-            .computeIfAbsent(endTimePartitionId, l -> new HashMap<>())
+            .computeIfAbsent(endTimePartitionId, l -> new ConcurrentHashMap<>())
             .put(deviceId, endTime);
         globalLatestFlushedTimeForEachDevice.put(deviceId, endTime);
 
@@ -609,7 +624,7 @@ public class StorageGroupProcessor {
         long partitionId = StorageEngine.getTimePartition(resource.getStartTime(deviceId));
         while (partitionId <= endTimePartitionId) {
           partitionLatestFlushedTimeForEachDevice
-              .computeIfAbsent(partitionId, l -> new HashMap<>())
+              .computeIfAbsent(partitionId, l -> new ConcurrentHashMap<>())
               .put(deviceId, endTime);
           if (!timePartitionIdVersionControllerMap.containsKey(partitionId)) {
             File directory =
@@ -835,13 +850,14 @@ public class StorageGroupProcessor {
     if (!isAlive(insertRowPlan.getTime())) {
       throw new OutOfTTLException(insertRowPlan.getTime(), (System.currentTimeMillis() - dataTTL));
     }
-    writeLock("InsertRow");
+    Map<WriteLogNode, Long> walCommits = new HashMap<>();
+    lockForInsert("InsertRow");
     try {
       // init map
       long timePartitionId = StorageEngine.getTimePartition(insertRowPlan.getTime());
 
       partitionLatestFlushedTimeForEachDevice.computeIfAbsent(
-          timePartitionId, id -> new HashMap<>());
+          timePartitionId, id -> new ConcurrentHashMap<>());
 
       boolean isSequence =
           insertRowPlan.getTime()
@@ -855,17 +871,18 @@ public class StorageGroupProcessor {
         return;
       }
 
-      latestTimeForEachDevice.computeIfAbsent(timePartitionId, l -> new HashMap<>());
+      latestTimeForEachDevice.computeIfAbsent(timePartitionId, l -> new ConcurrentHashMap<>());
 
       // fire trigger before insertion
       TriggerEngine.fire(TriggerEvent.BEFORE_INSERT, insertRowPlan);
       // insert to sequence or unSequence file
-      insertToTsFileProcessor(insertRowPlan, isSequence, timePartitionId);
+      insertToTsFileProcessor(insertRowPlan, isSequence, timePartitionId, walCommits);
       // fire trigger after insertion
       TriggerEngine.fire(TriggerEvent.AFTER_INSERT, insertRowPlan);
     } finally {
-      writeUnlock();
+      unlockForInsert();
     }
+    waitForWalCommits(walCommits);
   }
 
   /**
@@ -877,11 +894,12 @@ public class StorageGroupProcessor {
   public void insertTablet(InsertTabletPlan insertTabletPlan)
       throws BatchProcessException, TriggerExecutionException {
 
-    writeLock("insertTablet");
+    TSStatus[] results = new TSStatus[insertTabletPlan.getRowCount()];
+    Arrays.fill(results, RpcUtils.SUCCESS_STATUS);
+    boolean noFailure = true;
+    Map<WriteLogNode, Long> walCommits = new HashMap<>();
+    lockForInsert("insertTablet");
     try {
-      TSStatus[] results = new TSStatus[insertTabletPlan.getRowCount()];
-      Arrays.fill(results, RpcUtils.SUCCESS_STATUS);
-      boolean noFailure = true;
 
       /*
        * assume that batch has been sorted by client
@@ -918,7 +936,7 @@ public class StorageGroupProcessor {
       // init map
       long lastFlushTime =
           partitionLatestFlushedTimeForEachDevice
-              .computeIfAbsent(beforeTimePartition, id -> new HashMap<>())
+              .computeIfAbsent(beforeTimePartition, id -> new ConcurrentHashMap<>())
               .computeIfAbsent(
                   insertTabletPlan.getPrefixPath().getFullPath(), id -> Long.MIN_VALUE);
       // if is sequence
@@ -933,7 +951,13 @@ public class StorageGroupProcessor {
               || !IoTDBDescriptor.getInstance().getConfig().isEnableDiscardOutOfOrderData()) {
             noFailure =
                 insertTabletToTsFileProcessor(
-                        insertTabletPlan, before, loc, isSequence, results, beforeTimePartition)
+                        insertTabletPlan,
+                        before,
+                        loc,
+                        isSequence,
+                        results,
+                        beforeTimePartition,
+                        walCommits)
                     && noFailure;
           }
           // re initialize
@@ -941,7 +965,7 @@ public class StorageGroupProcessor {
           beforeTimePartition = curTimePartition;
           lastFlushTime =
               partitionLatestFlushedTimeForEachDevice
-                  .computeIfAbsent(beforeTimePartition, id -> new HashMap<>())
+                  .computeIfAbsent(beforeTimePartition, id -> new ConcurrentHashMap<>())
                   .computeIfAbsent(
                       insertTabletPlan.getPrefixPath().getFullPath(), id -> Long.MIN_VALUE);
           isSequence = false;
@@ -954,7 +978,13 @@ public class StorageGroupProcessor {
             if (!IoTDBDescriptor.getInstance().getConfig().isEnableDiscardOutOfOrderData()) {
               noFailure =
                   insertTabletToTsFileProcessor(
-                          insertTabletPlan, before, loc, false, results, beforeTimePartition)
+                          insertTabletPlan,
+                          before,
+                          loc,
+                          false,
+                          results,
+                          beforeTimePartition,
+                          walCommits)
                       && noFailure;
             }
             before = loc;
@@ -970,7 +1000,13 @@ public class StorageGroupProcessor {
               || !IoTDBDescriptor.getInstance().getConfig().isEnableDiscardOutOfOrderData())) {
         noFailure =
             insertTabletToTsFileProcessor(
-                    insertTabletPlan, before, loc, isSequence, results, beforeTimePartition)
+                    insertTabletPlan,
+                    before,
+                    loc,
+                    isSequence,
+                    results,
+                    beforeTimePartition,
+                    walCommits)
                 && noFailure;
       }
       long globalLatestFlushedTime =
@@ -978,14 +1014,25 @@ public class StorageGroupProcessor {
               insertTabletPlan.getPrefixPath().getFullPath(), Long.MIN_VALUE);
       tryToUpdateBatchInsertLastCache(insertTabletPlan, globalLatestFlushedTime);
 
-      if (!noFailure) {
-        throw new BatchProcessException(results);
+      if (noFailure) {
+        // fire trigger after insertion
+        TriggerEngine.fire(TriggerEvent.AFTER_INSERT, insertTabletPlan, firePosition);
       }
-
-      // fire trigger after insertion
-      TriggerEngine.fire(TriggerEvent.AFTER_INSERT, insertTabletPlan, firePosition);
     } finally {
-      writeUnlock();
+      unlockForInsert();
+    }
+    try {
+      waitForWalCommits(walCommits);
+    } catch (WriteProcessException e) {
+      for (int i = 0; i < results.length; i++) {
+        if (results[i] == RpcUtils.SUCCESS_STATUS) {
+          results[i] = RpcUtils.getStatus(TSStatusCode.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+      }
+      noFailure = false;
+    }
+    if (!noFailure) {
+      throw new BatchProcessException(results);
     }
   }
 
@@ -1004,6 +1051,7 @@ public class StorageGroupProcessor {
    * @param end end index of rows to be inserted in insertTabletPlan
    * @param results result array
    * @param timePartitionId time partition id
+   * @param walCommits the WAL sequence numbers to wait for after the insert lock is released
    * @return false if any failure occurs when inserting the tablet, true otherwise
    */
   private boolean insertTabletToTsFileProcessor(
@@ -1012,7 +1060,8 @@ public class StorageGroupProcessor {
       int end,
       boolean sequence,
       TSStatus[] results,
-      long timePartitionId) {
+      long timePartitionId,
+      Map<WriteLogNode, Long> walCommits) {
     // return when start >= end
     if (start >= end) {
       return true;
@@ -1030,7 +1079,8 @@ public class StorageGroupProcessor {
     }
 
     try {
-      tsFileProcessor.insertTablet(insertTabletPlan, start, end, results);
+      long logSeq = tsFileProcessor.insertTablet(insertTabletPlan, start, end, results);
+      addWalCommit(walCommits, tsFileProcessor, logSeq);
     } catch (WriteProcessRejectException e) {
       logger.warn("insert to TsFileProcessor rejected, {}", e.getMessage());
       return false;
@@ -1039,23 +1089,18 @@ public class StorageGroupProcessor {
       return false;
     }
 
-    latestTimeForEachDevice.computeIfAbsent(timePartitionId, t -> new HashMap<>());
     // try to update the latest time of the device of this tsRecord
-    if (sequence
-        && latestTimeForEachDevice
-                .get(timePartitionId)
-                .getOrDefault(insertTabletPlan.getPrefixPath().getFullPath(), Long.MIN_VALUE)
-            < insertTabletPlan.getTimes()[end - 1]) {
+    if (sequence) {
       latestTimeForEachDevice
-          .get(timePartitionId)
-          .put(
-              insertTabletPlan.getPrefixPath().getFullPath(), insertTabletPlan.getTimes()[end - 1]);
+          .computeIfAbsent(timePartitionId, t -> new ConcurrentHashMap<>())
+          .merge(
+              insertTabletPlan.getPrefixPath().getFullPath(),
+              insertTabletPlan.getTimes()[end - 1],
+              Math::max);
     }
 
     // check memtable size and may async try to flush the work memtable
-    if (tsFileProcessor.shouldFlush()) {
-      fileFlushPolicy.apply(this, tsFileProcessor, sequence);
-    }
+    flushIfNeeded(tsFileProcessor, sequence);
     return true;
   }
 
@@ -1095,24 +1140,23 @@ public class StorageGroupProcessor {
   }
 
   private void insertToTsFileProcessor(
-      InsertRowPlan insertRowPlan, boolean sequence, long timePartitionId)
+      InsertRowPlan insertRowPlan,
+      boolean sequence,
+      long timePartitionId,
+      Map<WriteLogNode, Long> walCommits)
       throws WriteProcessException {
     TsFileProcessor tsFileProcessor = getOrCreateTsFileProcessor(timePartitionId, sequence);
     if (tsFileProcessor == null) {
       return;
     }
 
-    tsFileProcessor.insert(insertRowPlan);
+    long logSeq = tsFileProcessor.insert(insertRowPlan);
+    addWalCommit(walCommits, tsFileProcessor, logSeq);
 
     // try to update the latest time of the device of this tsRecord
-    if (latestTimeForEachDevice
-            .get(timePartitionId)
-            .getOrDefault(insertRowPlan.getPrefixPath().getFullPath(), Long.MIN_VALUE)
-        < insertRowPlan.getTime()) {
-      latestTimeForEachDevice
-          .get(timePartitionId)
-          .put(insertRowPlan.getPrefixPath().getFullPath(), insertRowPlan.getTime());
-    }
+    latestTimeForEachDevice
+        .get(timePartitionId)
+        .merge(insertRowPlan.getPrefixPath().getFullPath(), insertRowPlan.getTime(), Math::max);
 
     long globalLatestFlushTime =
         globalLatestFlushedTimeForEachDevice.getOrDefault(
@@ -1121,8 +1165,46 @@ public class StorageGroupProcessor {
     tryToUpdateInsertLastCache(insertRowPlan, globalLatestFlushTime);
 
     // check memtable size and may asyncTryToFlush the work memtable
-    if (tsFileProcessor.shouldFlush()) {
+    flushIfNeeded(tsFileProcessor, sequence);
+  }
+
+  private void addWalCommit(
+      Map<WriteLogNode, Long> walCommits, TsFileProcessor tsFileProcessor, long logSeq) {
+    if (logSeq > 0) {
+      walCommits.merge(tsFileProcessor.getLogNode(), logSeq, Math::max);
+    }
+  }
+
+  /**
+   * Wait until the WAL of the insertions is forced to disk by the group commit. This is called
+   * after the insert lock is released, so that the other insertions and the flushes are not blocked
+   * during the fsync.
+   */
+  private void waitForWalCommits(Map<WriteLogNode, Long> walCommits) throws WriteProcessException {
+    for (Entry<WriteLogNode, Long> walCommit : walCommits.entrySet()) {
+      try {
+        walCommit.getKey().waitForCommit(walCommit.getValue());
+      } catch (IOException e) {
+        throw new WriteProcessException(
+            String.format("%s: write WAL failed", logicalStorageGroupName), e);
+      }
+    }
+  }
+
+  /**
+   * Apply the flush policy if the work memtable of the processor should be flushed. A concurrent
+   * insertion only holds the read lock and other insertions may be writing into the same memtable,
+   * so the flush is deferred to {@link #submitAFlushTaskWhenShouldFlush(TsFileProcessor)}, which
+   * takes the write lock.
+   */
+  private void flushIfNeeded(TsFileProcessor tsFileProcessor, boolean sequence) {
+    if (!tsFileProcessor.shouldFlush()) {
+      return;
+    }
+    if (!enableConcurrentInsert) {
       fileFlushPolicy.apply(this, tsFileProcessor, sequence);
+    } else if (pendingFlushTsFileProcessors.add(tsFileProcessor)) {
+      SystemInfo.getInstance().submitExclusiveTask(tsFileProcessor::submitAFlushTask);
     }
   }
 
@@ -1166,6 +1248,7 @@ public class StorageGroupProcessor {
   public void submitAFlushTaskWhenShouldFlush(TsFileProcessor tsFileProcessor) {
     writeLock("submitAFlushTaskWhenShouldFlush");
     try {
+      pendingFlushTsFileProcessors.remove(tsFileProcessor);
       // check memtable size and may asyncTryToFlush the work memtable
       if (tsFileProcessor.shouldFlush()) {
         fileFlushPolicy.apply(this, tsFileProcessor, tsFileProcessor.isSequence());
@@ -1206,35 +1289,70 @@ public class StorageGroupProcessor {
    * @param sequence whether is sequence or not
    */
   private TsFileProcessor getOrCreateTsFileProcessorIntern(
-      long timeRangeId, TreeMap<Long, TsFileProcessor> tsFileProcessorTreeMap, boolean sequence)
+      long timeRangeId,
+      ConcurrentSkipListMap<Long, TsFileProcessor> tsFileProcessorTreeMap,
+      boolean sequence)
       throws IOException, DiskSpaceInsufficientException {
 
     TsFileProcessor res = tsFileProcessorTreeMap.get(timeRangeId);
+    if (null != res) {
+      return res;
+    }
+
+    // concurrent insertions may try to create the processor of the same partition
+    synchronized (tsFileProcessorCreationLock) {
+      res = tsFileProcessorTreeMap.get(timeRangeId);
+      if (null == res) {
+        // we have to remove oldest processor to control the num of the memtables
+        // TODO: use a method to control the number of memtables
+        if (tsFileProcessorTreeMap.size()
+            >= IoTDBDescriptor.getInstance().getConfig().getConcurrentWritingTimePartition()) {
+          Map.Entry<Long, TsFileProcessor> processorEntry = tsFileProcessorTreeMap.firstEntry();
+          logger.info(
+              "will close a {} TsFile because too many active partitions ({} > {}) in the storage group {},",
+              sequence,
+              tsFileProcessorTreeMap.size(),
+              IoTDBDescriptor.getInstance().getConfig().getConcurrentWritingTimePartition(),
+              logicalStorageGroupName);
+          closeOldestTsFileProcessor(sequence, processorEntry.getValue());
+        }
 
-    if (null == res) {
-      // we have to remove oldest processor to control the num of the memtables
-      // TODO: use a method to control the number of memtables
-      if (tsFileProcessorTreeMap.size()
-          >= IoTDBDescriptor.getInstance().getConfig().getConcurrentWritingTimePartition()) {
-        Map.Entry<Long, TsFileProcessor> processorEntry = tsFileProcessorTreeMap.firstEntry();
-        logger.info(
-            "will close a {} TsFile because too many active partitions ({} > {}) in the storage group {},",
-            sequence,
-            tsFileProcessorTreeMap.size(),
-            IoTDBDescriptor.getInstance().getConfig().getConcurrentWritingTimePartition(),
-            logicalStorageGroupName);
-        asyncCloseOneTsFileProcessor(sequence, processorEntry.getValue());
+        // build new processor
+        res = newTsFileProcessor(sequence, timeRangeId);
+        tsFileProcessorTreeMap.put(timeRangeId, res);
+        tsFileManagement.add(res.getTsFileResource(), sequence);
       }
-
-      // build new processor
-      res = newTsFileProcessor(sequence, timeRangeId);
-      tsFileProcessorTreeMap.put(timeRangeId, res);
-      tsFileManagement.add(res.getTsFileResource(), sequence);
     }
 
     return res;
   }
 
+  /**
+   * Close the processor of the oldest partition. Other concurrent insertions may still be writing
+   * into it, so in that mode it is closed later by a task holding the write lock.
+   */
+  private void closeOldestTsFileProcessor(boolean sequence, TsFileProcessor tsFileProcessor) {
+    if (!enableConcurrentInsert) {
+      asyncCloseOneTsFileProcessor(sequence, tsFileProcessor);
+      return;
+    }
+    SystemInfo.getInstance()
+        .submitExclusiveTask(
+            () -> {
+              writeLock("closeOldestTsFileProcessor");
+              try {
+                Map<Long, TsFileProcessor> workProcessors =
+                    sequence ? workSequenceTsFileProcessors : workUnsequenceTsFileProcessors;
+                // the processor may have been closed by others in the meantime
+                if (workProcessors.get(tsFileProcessor.getTimeRangeId()) == tsFileProcessor) {
+                  asyncCloseOneTsFileProcessor(sequence, tsFileProcessor);
+                }
+              } finally {
+                writeUnlock();
+              }
+            });
+  }
+
   private TsFileProcessor newTsFileProcessor(boolean sequence, long timePartitionId)
       throws IOException, DiskSpaceInsufficientException {
     DirectoryManager directoryManager = DirectoryManager.getInstance();
@@ -1642,7 +1760,7 @@ public class StorageGroupProcessor {
     try {
       List<TsFileResource> seqResources =
           getFileResourceListForQuery(
-              tsFileManagement.getTsFileList(true),
+              tsFileManagement.getOverlappedTsFileList(true, fullPath.getDevice(), timeFilter),
               upgradeSeqFileList,
               fullPath,
               context,
@@ -1650,7 +1768,7 @@ public class StorageGroupProcessor {
               true);
       List<TsFileResource> unseqResources =
           getFileResourceListForQuery(
-              tsFileManagement.getTsFileList(false),
+              tsFileManagement.getOverlappedTsFileList(false, fullPath.getDevice(), timeFilter),
               upgradeUnseqFileList,
               fullPath,
               context,
@@ -1686,6 +1804,44 @@ public class StorageGroupProcessor {
     insertLock.readLock().unlock();
   }
 
+  /**
+   * Lock for an insertion. If enable_concurrent_insert is set, insertions share the read lock and
+   * are serialized per device in TsFileProcessor, otherwise they take the write lock.
+   */
+  private void lockForInsert(String holder) {
+    if (enableConcurrentInsert) {
+      insertLock.readLock().lock();
+    } else {
+      writeLock(holder);
+    }
+  }
+
+  private void unlockForInsert() {
+    if (enableConcurrentInsert) {
+      insertLock.readLock().unlock();
+      waitIfRejected();
+    } else {
+      writeUnlock();
+    }
+  }
+
+  /**
+   * A concurrent insertion does not block in TsFileProcessor when the system rejects writes, as it
+   * would hold the read lock needed by the flushes that release memory. It waits here, after the
+   * lock is released. The insertion has been applied, so a timeout is only logged, and the next
+   * insertion is rejected by StorageEngine.
+   */
+  private void waitIfRejected() {
+    if (!enableMemControl || !SystemInfo.getInstance().isRejected()) {
+      return;
+    }
+    try {
+      StorageEngine.blockInsertionIfReject(null);
+    } catch (WriteProcessRejectException e) {
+      logger.warn("{}: {}", logicalStorageGroupName, e.getMessage());
+    }
+  }
+
   /** lock the write lock of the insert lock */
   public void writeLock(String holder) {
     insertLock.writeLock().lock();
@@ -1699,7 +1855,8 @@ public class StorageGroupProcessor {
   }
 
   /**
-   * @param tsFileResources includes sealed and unsealed tsfile resources
+   * @param tsFileResources includes sealed and unsealed tsfile resources, usually only those that
+   *     may overlap the filter according to the index of tsFileManagement
    * @return fill unsealed tsfile resources with memory data and ChunkMetadataList of data in disk
    */
   private List<TsFileResource> getFileResourceListForQuery(
@@ -1965,7 +2122,7 @@ public class StorageGroupProcessor {
 
     for (Entry<String, Long> entry : curPartitionDeviceLatestTime.entrySet()) {
       partitionLatestFlushedTimeForEachDevice
-          .computeIfAbsent(processor.getTimeRangeId(), id -> new HashMap<>())
+          .computeIfAbsent(processor.getTimeRangeId(), id -> new ConcurrentHashMap<>())
           .put(entry.getKey(), entry.getValue());
       updateNewlyFlushedPartitionLatestFlushedTimeForEachDevice(
           processor.getTimeRangeId(), entry.getKey(), entry.getValue());
@@ -2002,10 +2159,10 @@ public class StorageGroupProcessor {
       entry.setValue(latestFlushTime);
 
       partitionLatestFlushedTimeForEachDevice
-          .computeIfAbsent(partitionId, id -> new HashMap<>())
+          .computeIfAbsent(partitionId, id -> new ConcurrentHashMap<>())
           .put(entry.getKey(), entry.getValue());
       newlyFlushedPartitionLatestFlushedTimeForEachDevice
-          .computeIfAbsent(partitionId, id -> new HashMap<>())
+          .computeIfAbsent(partitionId, id -> new ConcurrentHashMap<>())
           .put(entry.getKey(), entry.getValue());
       if (globalLatestFlushedTimeForEachDevice.getOrDefault(entry.getKey(), Long.MIN_VALUE)
           < entry.getValue()) {
@@ -2019,7 +2176,7 @@ public class StorageGroupProcessor {
   public void updateNewlyFlushedPartitionLatestFlushedTimeForEachDevice(
       long partitionId, String deviceId, long time) {
     newlyFlushedPartitionLatestFlushedTimeForEachDevice
-        .computeIfAbsent(partitionId, id -> new HashMap<>())
+        .computeIfAbsent(partitionId, id -> new ConcurrentHashMap<>())
         .compute(deviceId, (k, v) -> v == null ? time : Math.max(v, time));
   }
 
@@ -2145,7 +2302,7 @@ public class StorageGroupProcessor {
           long endTime = endTimeMap.getValue();
           if (latestFlushTimeForPartition.getOrDefault(device, Long.MIN_VALUE) < endTime) {
             partitionLatestFlushedTimeForEachDevice
-                .computeIfAbsent(timePartitionId, id -> new HashMap<>())
+                .computeIfAbsent(timePartitionId, id -> new ConcurrentHashMap<>())
                 .put(device, endTime);
           }
         }
@@ -2602,7 +2759,7 @@ public class StorageGroupProcessor {
       long endTime = newTsFileResource.getEndTime(device);
       long timePartitionId = StorageEngine.getTimePartition(endTime);
       if (!latestTimeForEachDevice
-              .computeIfAbsent(timePartitionId, id -> new HashMap<>())
+              .computeIfAbsent(timePartitionId, id -> new ConcurrentHashMap<>())
               .containsKey(device)
           || latestTimeForEachDevice.get(timePartitionId).get(device) < endTime) {
         latestTimeForEachDevice.get(timePartitionId).put(device, endTime);
@@ -2613,7 +2770,7 @@ public class StorageGroupProcessor {
 
       if (latestFlushTimeForPartition.getOrDefault(device, Long.MIN_VALUE) < endTime) {
         partitionLatestFlushedTimeForEachDevice
-            .computeIfAbsent(timePartitionId, id -> new HashMap<>())
+            .computeIfAbsent(timePartitionId, id -> new ConcurrentHashMap<>())
             .put(device, endTime);
       }
       if (globalLatestFlushedTimeForEachDevice.getOrDefault(device, Long.MIN_VALUE) < endTime) {
@@ -3030,7 +3187,8 @@ public class StorageGroupProcessor {
    */
   public void insert(InsertRowsOfOneDevicePlan insertRowsOfOneDevicePlan)
       throws WriteProcessException, TriggerExecutionException {
-    writeLock("InsertRowsOfOneDevice");
+    Map<WriteLogNode, Long> walCommits = new HashMap<>();
+    lockForInsert("InsertRowsOfOneDevice");
     try {
       boolean isSequence = false;
       InsertRowPlan[] rowPlans = insertRowsOfOneDevicePlan.getRowPlans();
@@ -3046,7 +3204,7 @@ public class StorageGroupProcessor {
         long timePartitionId = StorageEngine.getTimePartition(plan.getTime());
 
         partitionLatestFlushedTimeForEachDevice.computeIfAbsent(
-            timePartitionId, id -> new HashMap<>());
+            timePartitionId, id -> new ConcurrentHashMap<>());
         // as the plans have been ordered, and we have get the write lock,
         // So, if a plan is sequenced, then all the rest plans are sequenced.
         //
@@ -3057,23 +3215,25 @@ public class StorageGroupProcessor {
                       .get(timePartitionId)
                       .getOrDefault(plan.getPrefixPath().getFullPath(), Long.MIN_VALUE);
         }
-        // is unsequence and user set config to discard out of order data
+        // is unsequence and user set config to discard out of order data, the rows already
+        // inserted must still wait for their WAL below
         if (!isSequence
             && IoTDBDescriptor.getInstance().getConfig().isEnableDiscardOutOfOrderData()) {
-          return;
+          break;
         }
-        latestTimeForEachDevice.computeIfAbsent(timePartitionId, l -> new HashMap<>());
+        latestTimeForEachDevice.computeIfAbsent(timePartitionId, l -> new ConcurrentHashMap<>());
 
         // fire trigger before insertion
         TriggerEngine.fire(TriggerEvent.BEFORE_INSERT, plan);
         // insert to sequence or unSequence file
-        insertToTsFileProcessor(plan, isSequence, timePartitionId);
+        insertToTsFileProcessor(plan, isSequence, timePartitionId, walCommits);
         // fire trigger before insertion
         TriggerEngine.fire(TriggerEvent.AFTER_INSERT, plan);
       }
     } finally {
-      writeUnlock();
+      unlockForInsert();
     }
+    waitForWalCommits(walCommits);
   }
 
   @TestOnly
@@ -34,6 +34,7 @@ import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor.UpdateEndTimeCallBack;
 import org.apache.iotdb.db.exception.TsFileProcessorException;
 import org.apache.iotdb.db.exception.WriteProcessException;
@@ -78,7 +79,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @SuppressWarnings("java:S1135") // ignore todos
@@ -96,6 +99,22 @@ public class TsFileProcessor {
   /** whether it's enable mem control */
   private final boolean enableMemControl = config.isEnableMemControl();
 
+  /** whether insertions of different devices may run concurrently in this processor */
+  private final boolean enableConcurrentInsert = config.isEnableConcurrentInsert();
+
+  /** number of the striped device locks used by concurrent insertions */
+  private static final int DEVICE_LOCK_STRIPES = 64;
+
+  /**
+   * striped device locks, used only if concurrent insert is enabled. An insertion holds the lock of
+   * its device while it writes the memtable and WAL, and a query holds it while taking the snapshot
+   * of the working memtable. Memtable switch is excluded by the storage group lock.
+   */
+  private final Lock[] deviceLocks;
+
+  /** guard the lazy creation of the working memtable and WAL node by concurrent insertions */
+  private final Object lazyInitLock = new Object();
+
   /** storage group info for mem control */
   private StorageGroupInfo storageGroupInfo;
   /** tsfile processor info for mem control */
@@ -129,13 +148,13 @@ public class TsFileProcessor {
   private volatile boolean shouldClose;
 
   /** working memtable */
-  private IMemTable workMemTable;
+  private volatile IMemTable workMemTable;
 
   /** this callback is called before the workMemtable is added into the flushingMemTables. */
   private final UpdateEndTimeCallBack updateLatestFlushTimeCallback;
 
   /** Wal log node */
-  private WriteLogNode logNode;
+  private volatile WriteLogNode logNode;
 
   /** whether it's a sequence file or not */
   private final boolean sequence;
@@ -143,6 +162,13 @@ public class TsFileProcessor {
   /** total memtable size for mem control */
   private long totalMemTableSize;
 
+  /**
+   * the rollups of the flushed memtables, written beside the file when it is sealed. It is null if
+   * rollups are disabled, the file is unsequence, or the file is recovered, as the rollups of the
+   * flushed data before a restart are unknown.
+   */
+  private TsFileRollup rollup;
+
   private static final String FLUSH_QUERY_WRITE_LOCKED = "{}: {} get flushQueryLock write lock";
   private static final String FLUSH_QUERY_WRITE_RELEASE =
       "{}: {} get flushQueryLock write lock released";
@@ -168,7 +194,10 @@ public class TsFileProcessor {
     this.writer = new RestorableTsFileIOWriter(tsfile);
     this.updateLatestFlushTimeCallback = updateLatestFlushTimeCallback;
     this.sequence = sequence;
+    long rollupInterval = TsFileRollup.getConfiguredInterval();
+    this.rollup = sequence && rollupInterval > 0 ? new TsFileRollup(rollupInterval) : null;
     logger.info("create a new tsfile processor {}", tsfile.getAbsolutePath());
+    this.deviceLocks = createDeviceLocks();
     flushListeners.add(new WALFlushListener(this));
     closeFileListeners.add(closeTsFileCallback);
   }
@@ -189,35 +218,74 @@ public class TsFileProcessor {
     this.updateLatestFlushTimeCallback = updateLatestFlushTimeCallback;
     this.sequence = sequence;
     logger.info("reopen a tsfile processor {}", tsFileResource.getTsFile());
+    this.deviceLocks = createDeviceLocks();
     flushListeners.add(new WALFlushListener(this));
     closeFileListeners.add(closeUnsealedTsFileProcessor);
   }
 
+  private Lock[] createDeviceLocks() {
+    if (!enableConcurrentInsert) {
+      return new Lock[0];
+    }
+    Lock[] locks = new Lock[DEVICE_LOCK_STRIPES];
+    for (int i = 0; i < locks.length; i++) {
+      locks[i] = new ReentrantLock();
+    }
+    return locks;
+  }
+
+  private Lock getDeviceLock(String deviceId) {
+    return deviceLocks[(deviceId.hashCode() & Integer.MAX_VALUE) % deviceLocks.length];
+  }
+
+  private void createWorkMemTableIfAbsent() throws WriteProcessException {
+    if (workMemTable != null) {
+      return;
+    }
+    synchronized (lazyInitLock) {
+      if (workMemTable == null) {
+        if (enableMemControl) {
+          workMemTable = new PrimitiveMemTable(enableMemControl);
+          MemTableManager.getInstance().addMemtableNumber();
+        } else {
+          workMemTable = MemTableManager.getInstance().getAvailableMemTable(storageGroupName);
+        }
+      }
+    }
+  }
+
   /**
    * insert data in an InsertRowPlan into the workingMemtable.
    *
    * @param insertRowPlan physical plan of insertion
+   * @return the sequence number of the WAL of the insertion, which the caller waits for with {@link
+   *     WriteLogNode#waitForCommit(long)} after releasing its locks
    */
-  public void insert(InsertRowPlan insertRowPlan) throws WriteProcessException {
-
-    if (workMemTable == null) {
-      if (enableMemControl) {
-        workMemTable = new PrimitiveMemTable(enableMemControl);
-        MemTableManager.getInstance().addMemtableNumber();
-      } else {
-        workMemTable = MemTableManager.getInstance().getAvailableMemTable(storageGroupName);
-      }
+  public long insert(InsertRowPlan insertRowPlan) throws WriteProcessException {
+    createWorkMemTableIfAbsent();
+    if (!enableConcurrentInsert) {
+      return insertIntoWorkMemTable(insertRowPlan);
+    }
+    Lock deviceLock = getDeviceLock(insertRowPlan.getPrefixPath().getFullPath());
+    deviceLock.lock();
+    try {
+      return insertIntoWorkMemTable(insertRowPlan);
+    } finally {
+      deviceLock.unlock();
     }
+  }
 
+  private long insertIntoWorkMemTable(InsertRowPlan insertRowPlan) throws WriteProcessException {
     if (enableMemControl) {
       checkMemCostAndAddToTspInfo(insertRowPlan);
     }
 
     workMemTable.insert(insertRowPlan);
 
+    long logSeq = 0;
     if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
       try {
-        getLogNode().write(insertRowPlan);
+        logSeq = getLogNode().append(insertRowPlan);
       } catch (Exception e) {
         throw new WriteProcessException(
             String.format(
@@ -228,15 +296,12 @@ public class TsFileProcessor {
     }
 
     // update start time of this memtable
-    tsFileResource.updateStartTime(
-        insertRowPlan.getPrefixPath().getFullPath(), insertRowPlan.getTime());
-    // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
-    // for unsequence tsfile, we have to update the endTime for each insertion.
-    if (!sequence) {
-      tsFileResource.updateEndTime(
-          insertRowPlan.getPrefixPath().getFullPath(), insertRowPlan.getTime());
-    }
-    tsFileResource.updatePlanIndexes(insertRowPlan.getIndex());
+    updateTsFileResource(
+        insertRowPlan.getPrefixPath().getFullPath(),
+        insertRowPlan.getTime(),
+        insertRowPlan.getTime(),
+        insertRowPlan.getIndex());
+    return logSeq;
   }
 
   /**
@@ -247,20 +312,28 @@ public class TsFileProcessor {
    * @param start start index of rows to be inserted in insertTabletPlan
    * @param end end index of rows to be inserted in insertTabletPlan
    * @param results result array
+   * @return the sequence number of the WAL of the insertion, which the caller waits for with {@link
+   *     WriteLogNode#waitForCommit(long)} after releasing its locks
    */
-  public void insertTablet(
+  public long insertTablet(
       InsertTabletPlan insertTabletPlan, int start, int end, TSStatus[] results)
       throws WriteProcessException {
-
-    if (workMemTable == null) {
-      if (enableMemControl) {
-        workMemTable = new PrimitiveMemTable(enableMemControl);
-        MemTableManager.getInstance().addMemtableNumber();
-      } else {
-        workMemTable = MemTableManager.getInstance().getAvailableMemTable(storageGroupName);
-      }
+    createWorkMemTableIfAbsent();
+    if (!enableConcurrentInsert) {
+      return insertTabletIntoWorkMemTable(insertTabletPlan, start, end, results);
     }
+    Lock deviceLock = getDeviceLock(insertTabletPlan.getPrefixPath().getFullPath());
+    deviceLock.lock();
+    try {
+      return insertTabletIntoWorkMemTable(insertTabletPlan, start, end, results);
+    } finally {
+      deviceLock.unlock();
+    }
+  }
 
+  private long insertTabletIntoWorkMemTable(
+      InsertTabletPlan insertTabletPlan, int start, int end, TSStatus[] results)
+      throws WriteProcessException {
     try {
       if (enableMemControl) {
         checkMemCostAndAddToTspInfo(insertTabletPlan, start, end);
@@ -271,12 +344,13 @@ public class TsFileProcessor {
       }
       throw new WriteProcessException(e);
     }
+    long logSeq = 0;
     try {
       workMemTable.insertTablet(insertTabletPlan, start, end);
       if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
         insertTabletPlan.setStart(start);
         insertTabletPlan.setEnd(end);
-        getLogNode().write(insertTabletPlan);
+        logSeq = getLogNode().append(insertTabletPlan);
       }
     } catch (Exception e) {
       for (int i = start; i < end; i++) {
@@ -287,25 +361,32 @@ public class TsFileProcessor {
     for (int i = start; i < end; i++) {
       results[i] = RpcUtils.SUCCESS_STATUS;
     }
-    tsFileResource.updateStartTime(
-        insertTabletPlan.getPrefixPath().getFullPath(), insertTabletPlan.getTimes()[start]);
+    updateTsFileResource(
+        insertTabletPlan.getPrefixPath().getFullPath(),
+        insertTabletPlan.getTimes()[start],
+        insertTabletPlan.getTimes()[end - 1],
+        insertTabletPlan.getIndex());
+    return logSeq;
+  }
 
-    // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
-    // for unsequence tsfile, we have to update the endTime for each insertion.
-    if (!sequence) {
-      tsFileResource.updateEndTime(
-          insertTabletPlan.getPrefixPath().getFullPath(), insertTabletPlan.getTimes()[end - 1]);
+  private void updateTsFileResource(String deviceId, long startTime, long endTime, long planIndex) {
+    // the time index is shared by all devices, so concurrent insertions have to be serialized here
+    synchronized (tsFileResource) {
+      tsFileResource.updateStartTime(deviceId, startTime);
+      // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
+      // for unsequence tsfile, we have to update the endTime for each insertion.
+      if (!sequence) {
+        tsFileResource.updateEndTime(deviceId, endTime);
+      }
+      tsFileResource.updatePlanIndexes(planIndex);
     }
-    tsFileResource.updatePlanIndexes(insertTabletPlan.getIndex());
   }
 
   @SuppressWarnings("squid:S3776") // high Cognitive Complexity
   private void checkMemCostAndAddToTspInfo(InsertRowPlan insertRowPlan)
       throws WriteProcessException {
     // memory of increased PrimitiveArray and TEXT values, e.g., add a long[128], add 128*8
-    long memTableIncrement = 0L;
-    long textDataIncrement = 0L;
-    long chunkMetadataIncrement = 0L;
+    long[] memIncrements = new long[4]; // memTable, text, chunk metadata, off-heap memTable
     String deviceId = insertRowPlan.getPrefixPath().getFullPath();
     int columnIndex = 0;
     for (int i = 0; i < insertRowPlan.getMeasurementMNodes().length; i++) {
@@ -319,34 +400,32 @@ public class TsFileProcessor {
         // ChunkMetadataIncrement
         IMeasurementSchema schema = insertRowPlan.getMeasurementMNodes()[i].getSchema();
         if (schema.getType() == TSDataType.VECTOR) {
-          chunkMetadataIncrement +=
+          memIncrements[2] +=
               schema.getValueTSDataTypeList().size()
                   * ChunkMetadata.calculateRamSize(
                       schema.getValueMeasurementIdList().get(0),
                       schema.getValueTSDataTypeList().get(0));
-          memTableIncrement += TVList.vectorTvListArrayMemSize(schema.getValueTSDataTypeList());
+          memIncrements[0] += TVList.vectorTvListArrayMemSize(schema.getValueTSDataTypeList());
         } else {
-          chunkMetadataIncrement +=
+          memIncrements[2] +=
               ChunkMetadata.calculateRamSize(
                   insertRowPlan.getMeasurements()[i], insertRowPlan.getDataTypes()[columnIndex]);
-          memTableIncrement += TVList.tvListArrayMemSize(insertRowPlan.getDataTypes()[columnIndex]);
+          addArrayMemCost(insertRowPlan.getDataTypes()[columnIndex], 1, memIncrements);
         }
       } else {
         // here currentChunkPointNum >= 1
         int currentChunkPointNum =
             workMemTable.getCurrentChunkPointNum(deviceId, insertRowPlan.getMeasurements()[i]);
-        memTableIncrement +=
-            (currentChunkPointNum % PrimitiveArrayManager.ARRAY_SIZE) == 0
-                ? TVList.tvListArrayMemSize(insertRowPlan.getDataTypes()[columnIndex])
-                : 0;
+        if ((currentChunkPointNum % PrimitiveArrayManager.ARRAY_SIZE) == 0) {
+          addArrayMemCost(insertRowPlan.getDataTypes()[columnIndex], 1, memIncrements);
+        }
       }
       // TEXT data mem size
       if (insertRowPlan.getDataTypes()[columnIndex] == TSDataType.TEXT) {
-        textDataIncrement +=
-            MemUtils.getBinarySize((Binary) insertRowPlan.getValues()[columnIndex]);
+        memIncrements[1] += MemUtils.getBinarySize((Binary) insertRowPlan.getValues()[columnIndex]);
       }
     }
-    updateMemoryInfo(memTableIncrement, chunkMetadataIncrement, textDataIncrement);
+    updateMemoryInfo(memIncrements);
   }
 
   private void checkMemCostAndAddToTspInfo(InsertTabletPlan insertTabletPlan, int start, int end)
@@ -354,7 +433,7 @@ public class TsFileProcessor {
     if (start >= end) {
       return;
     }
-    long[] memIncrements = new long[3]; // memTable, text, chunk metadata
+    long[] memIncrements = new long[4]; // memTable, text, chunk metadata, off-heap memTable
 
     String deviceId = insertTabletPlan.getPrefixPath().getFullPath();
 
@@ -384,10 +463,7 @@ public class TsFileProcessor {
         updateMemCost(dataType, measurement, deviceId, start, end, memIncrements, column);
       }
     }
-    long memTableIncrement = memIncrements[0];
-    long textDataIncrement = memIncrements[1];
-    long chunkMetadataIncrement = memIncrements[2];
-    updateMemoryInfo(memTableIncrement, chunkMetadataIncrement, textDataIncrement);
+    updateMemoryInfo(memIncrements);
   }
 
   private void updateMemCost(
@@ -398,26 +474,23 @@ public class TsFileProcessor {
       int end,
       long[] memIncrements,
       Object column) {
-    // memIncrements = [memTable, text, chunk metadata] respectively
+    // memIncrements = [memTable, text, chunk metadata, off-heap memTable] respectively
 
     if (workMemTable.checkIfChunkDoesNotExist(deviceId, measurement)) {
       // ChunkMetadataIncrement
       memIncrements[2] += ChunkMetadata.calculateRamSize(measurement, dataType);
-      memIncrements[0] +=
-          ((end - start) / PrimitiveArrayManager.ARRAY_SIZE + 1)
-              * TVList.tvListArrayMemSize(dataType);
+      addArrayMemCost(
+          dataType, (end - start) / PrimitiveArrayManager.ARRAY_SIZE + 1, memIncrements);
     } else {
       int currentChunkPointNum = workMemTable.getCurrentChunkPointNum(deviceId, measurement);
       if (currentChunkPointNum % PrimitiveArrayManager.ARRAY_SIZE == 0) {
-        memIncrements[0] +=
-            ((end - start) / PrimitiveArrayManager.ARRAY_SIZE + 1)
-                * TVList.tvListArrayMemSize(dataType);
+        addArrayMemCost(
+            dataType, (end - start) / PrimitiveArrayManager.ARRAY_SIZE + 1, memIncrements);
       } else {
         int acquireArray =
             (end - start - 1 + (currentChunkPointNum % PrimitiveArrayManager.ARRAY_SIZE))
                 / PrimitiveArrayManager.ARRAY_SIZE;
-        memIncrements[0] +=
-            acquireArray == 0 ? 0 : acquireArray * TVList.tvListArrayMemSize(dataType);
+        addArrayMemCost(dataType, acquireArray, memIncrements);
       }
     }
     // TEXT data size
@@ -434,7 +507,7 @@ public class TsFileProcessor {
       int end,
       long[] memIncrements,
       Object[] columns) {
-    // memIncrements = [memTable, text, chunk metadata] respectively
+    // memIncrements = [memTable, text, chunk metadata, off-heap memTable] respectively
 
     List<String> measurementIds = vectorSchema.getValueMeasurementIdList();
     List<TSDataType> dataTypes = vectorSchema.getValueTSDataTypeList();
@@ -470,25 +543,48 @@ public class TsFileProcessor {
     }
   }
 
-  private void updateMemoryInfo(
-      long memTableIncrement, long chunkMetadataIncrement, long textDataIncrement)
-      throws WriteProcessException {
-    memTableIncrement += textDataIncrement;
+  /**
+   * Add the cost of the new arrays of a TVList, which is an off-heap cost if the arrays are kept in
+   * direct memory.
+   */
+  private static void addArrayMemCost(TSDataType dataType, long arrayNum, long[] memIncrements) {
+    if (arrayNum == 0) {
+      return;
+    }
+    if (TVList.isOffHeapList(dataType)) {
+      memIncrements[3] += arrayNum * TVList.tvListArrayMemSize(dataType);
+    } else {
+      memIncrements[0] += arrayNum * TVList.tvListArrayMemSize(dataType);
+    }
+  }
+
+  /** @param memIncrements memTable, text, chunk metadata and off-heap memTable increments */
+  private void updateMemoryInfo(long[] memIncrements) throws WriteProcessException {
+    long textDataIncrement = memIncrements[1];
+    long memTableIncrement = memIncrements[0] + textDataIncrement;
+    long chunkMetadataIncrement = memIncrements[2];
+    long offHeapMemTableIncrement = memIncrements[3];
     storageGroupInfo.addStorageGroupMemCost(memTableIncrement);
+    storageGroupInfo.addStorageGroupOffHeapMemCost(offHeapMemTableIncrement);
     tsFileProcessorInfo.addTSPMemCost(chunkMetadataIncrement);
     if (storageGroupInfo.needToReportToSystem()) {
       try {
-        if (!SystemInfo.getInstance().reportStorageGroupStatus(storageGroupInfo, this)) {
+        // a concurrent insertion holds the read lock of the storage group, which the flushes that
+        // would end the rejection need, so it waits after releasing the lock instead
+        if (!SystemInfo.getInstance().reportStorageGroupStatus(storageGroupInfo, this)
+            && !enableConcurrentInsert) {
           StorageEngine.blockInsertionIfReject(this);
         }
       } catch (WriteProcessRejectException e) {
         storageGroupInfo.releaseStorageGroupMemCost(memTableIncrement);
+        storageGroupInfo.releaseStorageGroupOffHeapMemCost(offHeapMemTableIncrement);
         tsFileProcessorInfo.releaseTSPMemCost(chunkMetadataIncrement);
         SystemInfo.getInstance().resetStorageGroupStatus(storageGroupInfo);
         throw e;
       }
     }
     workMemTable.addTVListRamCost(memTableIncrement);
+    workMemTable.addOffHeapTVListRamCost(offHeapMemTableIncrement);
     workMemTable.addTextDataSize(textDataIncrement);
   }
 
@@ -785,7 +881,9 @@ public class TsFileProcessor {
     }
 
     if (enableMemControl) {
-      SystemInfo.getInstance().addFlushingMemTableCost(tobeFlushed.getTVListsRamCost());
+      SystemInfo.getInstance()
+          .addFlushingMemTableCost(
+              tobeFlushed.getTVListsRamCost(), tobeFlushed.getOffHeapTVListsRamCost());
     }
     flushingMemTables.addLast(tobeFlushed);
     if (logger.isDebugEnabled()) {
@@ -832,6 +930,7 @@ public class TsFileProcessor {
       if (enableMemControl) {
         // reset the mem cost in StorageGroupProcessorInfo
         storageGroupInfo.releaseStorageGroupMemCost(memTable.getTVListsRamCost());
+        storageGroupInfo.releaseStorageGroupOffHeapMemCost(memTable.getOffHeapTVListsRamCost());
         if (logger.isDebugEnabled()) {
           logger.debug(
               "[mem control] {}: {} flush finished, try to reset system memcost, "
@@ -842,7 +941,9 @@ public class TsFileProcessor {
         }
         // report to System
         SystemInfo.getInstance().resetStorageGroupStatus(storageGroupInfo);
-        SystemInfo.getInstance().resetFlushingMemTableCost(memTable.getTVListsRamCost());
+        SystemInfo.getInstance()
+            .resetFlushingMemTableCost(
+                memTable.getTVListsRamCost(), memTable.getOffHeapTVListsRamCost());
       }
       if (logger.isDebugEnabled()) {
         logger.debug(
@@ -876,8 +977,15 @@ public class TsFileProcessor {
       try {
         writer.mark();
         MemTableFlushTask flushTask =
-            new MemTableFlushTask(memTableToFlush, writer, storageGroupName);
+            new MemTableFlushTask(
+                memTableToFlush,
+                writer,
+                storageGroupName,
+                rollup == null ? 0 : rollup.getInterval());
         flushTask.syncFlushMemTable();
+        if (rollup != null) {
+          rollup.merge(flushTask.getRollup());
+        }
       } catch (Exception e) {
         if (writer == null) {
           logger.info(
@@ -1039,6 +1147,20 @@ public class TsFileProcessor {
     }
   }
 
+  /** write the rollups beside the sealed file, a failure only costs the queries some speed */
+  private void writeRollup() {
+    if (rollup == null) {
+      return;
+    }
+    try {
+      rollup.serialize(tsFileResource.getTsFile());
+    } catch (IOException e) {
+      logger.error("{}: cannot write the rollups of {}", storageGroupName, tsFileResource, e);
+      TsFileRollup.remove(tsFileResource.getTsFile());
+    }
+    rollup = null;
+  }
+
   /** end file and write some meta */
   private void endFile() throws IOException, TsFileProcessorException {
     logger.info("Start to end file {}", tsFileResource);
@@ -1046,6 +1168,7 @@ public class TsFileProcessor {
     tsFileResource.serialize();
     writer.endFile();
     logger.info("Ended file {}", tsFileResource);
+    writeRollup();
 
     // remove this processor from Closing list in StorageGroupProcessor,
     // mark the TsFileResource closed, no need writer anymore
@@ -1086,11 +1209,15 @@ public class TsFileProcessor {
    */
   public WriteLogNode getLogNode() {
     if (logNode == null) {
-      logNode =
-          MultiFileLogNodeManager.getInstance()
-              .getNode(
-                  storageGroupName + "-" + tsFileResource.getTsFile().getName(),
-                  storageGroupInfo.getWalSupplier());
+      synchronized (lazyInitLock) {
+        if (logNode == null) {
+          logNode =
+              MultiFileLogNodeManager.getInstance()
+                  .getNode(
+                      storageGroupName + "-" + tsFileResource.getTsFile().getName(),
+                      storageGroupInfo.getWalSupplier());
+        }
+      }
     }
     return logNode;
   }
@@ -1200,9 +1327,7 @@ public class TsFileProcessor {
         }
       }
       if (workMemTable != null) {
-        ReadOnlyMemChunk memChunk =
-            workMemTable.query(
-                deviceId, measurementId, schema, context.getQueryTimeLowerBound(), null);
+        ReadOnlyMemChunk memChunk = queryWorkMemTable(deviceId, measurementId, schema, context);
         if (memChunk != null) {
           readOnlyMemChunks.add(memChunk);
         }
@@ -1266,6 +1391,24 @@ public class TsFileProcessor {
     }
   }
 
+  private ReadOnlyMemChunk queryWorkMemTable(
+      String deviceId, String measurementId, IMeasurementSchema schema, QueryContext context)
+      throws IOException, QueryProcessException, MetadataException {
+    if (!enableConcurrentInsert) {
+      return workMemTable.query(
+          deviceId, measurementId, schema, context.getQueryTimeLowerBound(), null);
+    }
+    // the snapshot must not be taken while an insertion of the device is half done
+    Lock deviceLock = getDeviceLock(deviceId);
+    deviceLock.lock();
+    try {
+      return workMemTable.query(
+          deviceId, measurementId, schema, context.getQueryTimeLowerBound(), null);
+    } finally {
+      deviceLock.unlock();
+    }
+  }
+
   public long getTimeRangeId() {
     return timeRangeId;
   }
@@ -1299,6 +1442,10 @@ public class TsFileProcessor {
     return workMemTable != null ? workMemTable.getTVListsRamCost() : 0;
   }
 
+  public long getWorkMemTableOffHeapRamCost() {
+    return workMemTable != null ? workMemTable.getOffHeapTVListsRamCost() : 0;
+  }
+
   public boolean isSequence() {
     return sequence;
   }
@@ -33,19 +33,19 @@ public class TsFileProcessorInfo {
   }
 
   /** called in each insert */
-  public void addTSPMemCost(long cost) {
+  public synchronized void addTSPMemCost(long cost) {
     memCost += cost;
     storageGroupInfo.addStorageGroupMemCost(cost);
   }
 
   /** called when meet exception */
-  public void releaseTSPMemCost(long cost) {
+  public synchronized void releaseTSPMemCost(long cost) {
     storageGroupInfo.releaseStorageGroupMemCost(cost);
     memCost -= cost;
   }
 
   /** called when closing TSP */
-  public void clear() {
+  public synchronized void clear() {
     storageGroupInfo.releaseStorageGroupMemCost(memCost);
     memCost = 0L;
   }
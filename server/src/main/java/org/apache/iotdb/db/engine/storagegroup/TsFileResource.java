@@ -22,6 +22,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor.UpgradeTsFileResourceCallBack;
 import org.apache.iotdb.db.engine.storagegroup.timeindex.DeviceTimeIndex;
 import org.apache.iotdb.db.engine.storagegroup.timeindex.ITimeIndex;
@@ -544,7 +545,7 @@ public class TsFileResource {
     modFile = null;
   }
 
-  /** Remove the data file, its resource file, and its modification file physically. */
+  /** Remove the data file, its resource file, modification file and rollup file physically. */
   public void remove() {
     try {
       fsFactory.deleteIfExists(file);
@@ -557,6 +558,7 @@ public class TsFileResource {
     } catch (IOException e) {
       logger.error("ModificationFile {} cannot be deleted: {}", file, e.getMessage());
     }
+    TsFileRollup.remove(file);
   }
 
   public void removeResourceFile() {
@@ -578,6 +580,12 @@ public class TsFileResource {
           originModFile,
           fsFactory.getFile(targetDir, file.getName() + ModificationFile.FILE_SUFFIX));
     }
+    File originRollupFile = TsFileRollup.getRollupFile(file);
+    if (originRollupFile.exists()) {
+      fsFactory.moveFile(
+          originRollupFile,
+          fsFactory.getFile(targetDir, file.getName() + TsFileRollup.ROLLUP_SUFFIX));
+    }
   }
 
   @Override
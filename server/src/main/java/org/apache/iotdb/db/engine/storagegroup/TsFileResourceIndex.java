@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of the sequence or unsequence TsFileResources of a storage group by the time ranges of
+ * their devices, so that a query finds the files that may hold data of a device in a time range in
+ * O(log n + k) instead of checking every file.
+ *
+ * <p>The time ranges of a sealed file do not change unless the file is rewritten in place by a
+ * merge, which calls {@link #update(TsFileResource)}, so the sealed files are indexed by an
+ * interval tree of each device. The unsealed files, at most a few of each time partition, are kept
+ * aside and move into the trees at the first query after they are sealed.
+ *
+ * <p>The resources are identified by reference, as the file of a resource may be renamed.
+ */
+public class TsFileResourceIndex {
+
+  private static final Comparator<TsFileResource> VERSION_ORDER =
+      Comparator.comparingLong(TsFileResource::getVersion);
+
+  /** device -> time ranges of the device in the sealed files */
+  private final Map<String, DeviceIntervals> deviceIntervalsMap = new HashMap<>();
+
+  /** sealed resource -> devices that it is indexed under */
+  private final Map<TsFileResource, String[]> sealedResources = new IdentityHashMap<>();
+
+  private final List<TsFileResource> unsealedResources = new ArrayList<>();
+
+  public synchronized void add(TsFileResource resource) {
+    if (sealedResources.containsKey(resource) || containsUnsealed(resource)) {
+      return;
+    }
+    if (resource.isClosed()) {
+      addSealed(resource);
+    } else {
+      unsealedResources.add(resource);
+    }
+  }
+
+  public synchronized void addAll(Collection<TsFileResource> resources) {
+    for (TsFileResource resource : resources) {
+      add(resource);
+    }
+  }
+
+  public synchronized void remove(TsFileResource resource) {
+    String[] devices = sealedResources.remove(resource);
+    if (devices == null) {
+      unsealedResources.removeIf(unsealed -> unsealed == resource);
+      return;
+    }
+    for (String device : devices) {
+      DeviceIntervals deviceIntervals = deviceIntervalsMap.get(device);
+      if (deviceIntervals != null && deviceIntervals.remove(resource)) {
+        deviceIntervalsMap.remove(device);
+      }
+    }
+  }
+
+  public synchronized void removeAll(Collection<TsFileResource> resources) {
+    for (TsFileResource resource : resources) {
+      remove(resource);
+    }
+  }
+
+  /** Index the time ranges of the resource again, after its file is rewritten in place. */
+  public synchronized void update(TsFileResource resource) {
+    remove(resource);
+    add(resource);
+  }
+
+  public synchronized void clear() {
+    deviceIntervalsMap.clear();
+    sealedResources.clear();
+    unsealedResources.clear();
+  }
+
+  public synchronized int size() {
+    return sealedResources.size() + unsealedResources.size();
+  }
+
+  /**
+   * @return the sealed files whose time range of the device overlaps the time range of the filter,
+   *     and all unsealed files, in the order of their start times of the device. Each of them still
+   *     needs to be checked by {@link TsFileResource#isSatisfied}.
+   */
+  public synchronized List<TsFileResource> getOverlappedResources(
+      String deviceId, Filter timeFilter) {
+    moveSealedResources();
+    TimeRange timeRange = timeFilter == null ? null : TimeFilter.getTimeRange(timeFilter);
+    long minTime = timeRange == null ? Long.MIN_VALUE : timeRange.getMin();
+    long maxTime = timeRange == null ? Long.MAX_VALUE : timeRange.getMax();
+
+    List<TsFileResource> result = new ArrayList<>();
+    DeviceIntervals deviceIntervals = deviceIntervalsMap.get(deviceId);
+    if (deviceIntervals != null) {
+      deviceIntervals.search(minTime, maxTime, result);
+    }
+    if (!unsealedResources.isEmpty()) {
+      result.addAll(unsealedResources);
+      result.sort(
+          Comparator.<TsFileResource>comparingLong(resource -> resource.getStartTime(deviceId))
+              .thenComparing(VERSION_ORDER));
+    }
+    return result;
+  }
+
+  /** move the unsealed files that have been sealed into the trees */
+  private void moveSealedResources() {
+    Iterator<TsFileResource> iterator = unsealedResources.iterator();
+    while (iterator.hasNext()) {
+      TsFileResource resource = iterator.next();
+      if (resource.isClosed()) {
+        iterator.remove();
+        addSealed(resource);
+      }
+    }
+  }
+
+  private boolean containsUnsealed(TsFileResource resource) {
+    for (TsFileResource unsealed : unsealedResources) {
+      if (unsealed == resource) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void addSealed(TsFileResource resource) {
+    // a merge may add devices to the resource, so they are copied to be removed precisely
+    String[] devices = resource.getDevices().toArray(new String[0]);
+    for (String device : devices) {
+      deviceIntervalsMap
+          .computeIfAbsent(device, k -> new DeviceIntervals())
+          .add(resource, resource.getStartTime(device), resource.getEndTime(device));
+    }
+    sealedResources.put(resource, devices);
+  }
+
+  /**
+   * The time ranges of a device in the sealed files, as an interval tree laid out in an array
+   * sorted by the start times: the root of a subarray is its middle element, and maxEndTimes keeps
+   * the max end time of the subtree of each element. The tree is rebuilt by the first search after
+   * a change, so that a flush or a compaction costs no more than appending to a list.
+   */
+  private static class DeviceIntervals {
+
+    private final List<Interval> intervals = new ArrayList<>();
+    /** removed resources whose intervals are dropped by the next rebuild */
+    private final Set<TsFileResource> removedResources =
+        Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private long[] maxEndTimes;
+    private boolean built = false;
+
+    private void add(TsFileResource resource, long startTime, long endTime) {
+      if (removedResources.remove(resource)) {
+        intervals.removeIf(interval -> interval.resource == resource);
+      }
+      intervals.add(new Interval(resource, startTime, endTime));
+      built = false;
+    }
+
+    /** @return whether no interval is left */
+    private boolean remove(TsFileResource resource) {
+      removedResources.add(resource);
+      built = false;
+      return intervals.size() == removedResources.size();
+    }
+
+    private void search(long minTime, long maxTime, List<TsFileResource> result) {
+      if (!built) {
+        if (!removedResources.isEmpty()) {
+          intervals.removeIf(interval -> removedResources.contains(interval.resource));
+          removedResources.clear();
+        }
+        intervals.sort(
+            Comparator.<Interval>comparingLong(interval -> interval.startTime)
+                .thenComparing(interval -> interval.resource, VERSION_ORDER));
+        maxEndTimes = new long[intervals.size()];
+        build(0, intervals.size() - 1);
+        built = true;
+      }
+      search(0, intervals.size() - 1, minTime, maxTime, result);
+    }
+
+    /** @return the max end time of the subarray */
+    private long build(int from, int to) {
+      if (from > to) {
+        return Long.MIN_VALUE;
+      }
+      int mid = (from + to) >>> 1;
+      long maxEndTime =
+          Math.max(intervals.get(mid).endTime, Math.max(build(from, mid - 1), build(mid + 1, to)));
+      maxEndTimes[mid] = maxEndTime;
+      return maxEndTime;
+    }
+
+    /** collect the intervals of the subarray that overlap [minTime, maxTime] in order */
+    private void search(int from, int to, long minTime, long maxTime, List<TsFileResource> result) {
+      if (from > to) {
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      if (maxEndTimes[mid] < minTime) {
+        return;
+      }
+      search(from, mid - 1, minTime, maxTime, result);
+      Interval interval = intervals.get(mid);
+      if (interval.startTime > maxTime) {
+        // so are the intervals after it
+        return;
+      }
+      if (interval.endTime >= minTime) {
+        result.add(interval.resource);
+      }
+      search(mid + 1, to, minTime, maxTime, result);
+    }
+  }
+
+  private static class Interval {
+
+    private final TsFileResource resource;
+    private final long startTime;
+    private final long endTime;
+
+    private Interval(TsFileResource resource, long startTime, long endTime) {
+      this.resource = resource;
+      this.startTime = startTime;
+      this.endTime = endTime;
+    }
+  }
+}
@@ -41,8 +41,11 @@ import org.apache.iotdb.db.metadata.logfile.MLogReader;
 import org.apache.iotdb.db.metadata.logfile.MLogWriter;
 import org.apache.iotdb.db.metadata.logfile.TagLogFile;
 import org.apache.iotdb.db.metadata.mnode.MNode;
+import org.apache.iotdb.db.metadata.mnode.MNodeDiskStore;
 import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
 import org.apache.iotdb.db.metadata.mnode.StorageGroupMNode;
+import org.apache.iotdb.db.metadata.tag.TagFilter;
+import org.apache.iotdb.db.metadata.tag.TagInvertedIndex;
 import org.apache.iotdb.db.metadata.template.Template;
 import org.apache.iotdb.db.monitor.MonitorConstants;
 import org.apache.iotdb.db.qp.constant.SQLConstant;
@@ -69,6 +72,7 @@ import org.apache.iotdb.db.qp.physical.sys.ShowTimeSeriesPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.dataset.ShowDevicesResult;
 import org.apache.iotdb.db.query.dataset.ShowTimeSeriesResult;
+import org.apache.iotdb.db.rescon.CachedSchemaPool;
 import org.apache.iotdb.db.rescon.MemTableManager;
 import org.apache.iotdb.db.utils.RandomDeleteCache;
 import org.apache.iotdb.db.utils.SchemaUtils;
@@ -108,7 +112,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -127,12 +130,6 @@ import static org.apache.iotdb.tsfile.common.constant.TsFileConstant.PATH_SEPARA
 public class MManager {
 
   public static final String TIME_SERIES_TREE_HEADER = "===  Timeseries Tree  ===\n\n";
-  private static final String TAG_FORMAT = "tag key is %s, tag value is %s, tlog offset is %d";
-  private static final String DEBUG_MSG = "%s : TimeSeries %s is removed from tag inverted index, ";
-  private static final String DEBUG_MSG_1 =
-      "%s: TimeSeries %s's tag info has been removed from tag inverted index ";
-  private static final String PREVIOUS_CONDITION =
-      "before deleting it, tag key is %s, tag value is %s, tlog offset is %d, contains key %b";
 
   private static final Logger logger = LoggerFactory.getLogger(MManager.class);
 
@@ -148,11 +145,13 @@ public class MManager {
   private MTree mtree;
   private MLogWriter logWriter;
   private TagLogFile tagLogFile;
+  // keeps the measurements of the least recently used devices on disk, null if not enabled
+  private MNodeDiskStore diskStore;
   private boolean isRecovering;
   // device -> DeviceMNode
   private RandomDeleteCache<PartialPath, Pair<MNode, Template>> mNodeCache;
-  // tag key -> tag value -> LeafMNode
-  private Map<String, Map<String, Set<MeasurementMNode>>> tagIndex = new ConcurrentHashMap<>();
+  // tag key -> tag value -> ids of the timeseries, see getTagSeriesId()
+  private TagInvertedIndex tagIndex;
 
   private AtomicLong totalSeriesNumber = new AtomicLong();
   private boolean initialized;
@@ -240,10 +239,22 @@ public class MManager {
     logFile = SystemFileFactory.INSTANCE.getFile(logFilePath);
 
     try {
+      if (config.isEnableMTreeEviction()) {
+        diskStore =
+            new MNodeDiskStore(
+                config.getSchemaDir() + File.separator + MetadataConstant.MTREE_EVICTED,
+                MTREE_SIZE_THRESHOLD / ESTIMATED_SERIES_SIZE);
+      }
       tagLogFile = new TagLogFile(config.getSchemaDir(), MetadataConstant.TAG_LOG);
+      tagIndex = new TagInvertedIndex(config.getSchemaDir());
 
       isRecovering = true;
+      long time = System.currentTimeMillis();
       int lineNumber = initFromLog(logFile);
+      logger.info("spend {} ms to recover MTree", System.currentTimeMillis() - time);
+      if (!tagIndex.isRecovered()) {
+        rebuildTagIndex();
+      }
 
       logWriter = new MLogWriter(config.getSchemaDir(), MetadataConstant.METADATA_LOG);
       logWriter.setLogNum(lineNumber);
@@ -270,8 +281,11 @@ public class MManager {
       mtree = new MTree();
     } else {
       mtree = MTree.deserializeFrom(mtreeSnapshot);
-      logger.debug(
+      logger.info(
           "spend {} ms to deserialize mtree from snapshot", System.currentTimeMillis() - time);
+      if (diskStore != null) {
+        diskStore.touchSubtree(mtree.getRoot());
+      }
     }
 
     time = System.currentTimeMillis();
@@ -281,8 +295,8 @@ public class MManager {
       try (MLogReader mLogReader =
           new MLogReader(config.getSchemaDir(), MetadataConstant.METADATA_LOG); ) {
         idx = applyMlog(mLogReader);
-        logger.debug(
-            "spend {} ms to deserialize mtree from mlog.bin", System.currentTimeMillis() - time);
+        logger.info(
+            "spend {} ms to apply {} plans of mlog.bin", System.currentTimeMillis() - time, idx);
         return idx;
       } catch (Exception e) {
         throw new IOException("Failed to parser mlog.bin for err:" + e);
@@ -292,6 +306,36 @@ public class MManager {
     }
   }
 
+  /** Rebuild the tag index from the tags of all the timeseries, if it is not persisted yet. */
+  private void rebuildTagIndex() throws IOException {
+    long time = System.currentTimeMillis();
+    Deque<MNode> nodes = new ArrayDeque<>();
+    nodes.push(mtree.getRoot());
+    while (!nodes.isEmpty()) {
+      for (MNode child : nodes.pop().getChildren().values()) {
+        if (!(child instanceof MeasurementMNode)) {
+          nodes.push(child);
+        } else if (((MeasurementMNode) child).getOffset() >= 0) {
+          MeasurementMNode leafMNode = (MeasurementMNode) child;
+          tagIndex.addTagsWithoutLog(
+              getTagSeriesId(leafMNode.getOffset()),
+              leafMNode.getFullPath(),
+              tagLogFile.readTag(config.getTagAttributeTotalSize(), leafMNode.getOffset()));
+        }
+      }
+    }
+    tagIndex.checkpoint();
+    logger.info("spend {} ms to rebuild the tag index", System.currentTimeMillis() - time);
+  }
+
+  /**
+   * Series are identified in the tag index by the number of their records in the tag log, which is
+   * assigned once a series has any tag or attribute and never changes.
+   */
+  private static int getTagSeriesId(long tagOffset) {
+    return (int) (tagOffset / config.getTagAttributeTotalSize());
+  }
+
   private int applyMlog(MLogReader mLogReader) {
     int idx = 0;
 
@@ -319,7 +363,7 @@ public class MManager {
       templateMap.clear();
       this.mtree = new MTree();
       this.mNodeCache.clear();
-      this.tagIndex.clear();
+      CachedSchemaPool.getInstance().clear();
       this.totalSeriesNumber.set(0);
       this.templateMap.clear();
       if (logWriter != null) {
@@ -330,6 +374,14 @@ public class MManager {
         tagLogFile.close();
         tagLogFile = null;
       }
+      if (tagIndex != null) {
+        tagIndex.close();
+        tagIndex = null;
+      }
+      if (diskStore != null) {
+        diskStore.close();
+        diskStore = null;
+      }
       initialized = false;
       if (config.isEnableMTreeSnapshot() && timedCreateMTreeSnapshotThread != null) {
         timedCreateMTreeSnapshotThread.shutdownNow();
@@ -450,23 +502,11 @@ public class MManager {
               plan.getProps(),
               plan.getAlias());
 
-      // update tag index
-      if (plan.getTags() != null) {
-        // tag key, tag value
-        for (Entry<String, String> entry : plan.getTags().entrySet()) {
-          if (entry.getKey() == null || entry.getValue() == null) {
-            continue;
-          }
-          tagIndex
-              .computeIfAbsent(entry.getKey(), k -> new ConcurrentHashMap<>())
-              .computeIfAbsent(entry.getValue(), v -> new CopyOnWriteArraySet<>())
-              .add(leafMNode);
-        }
-      }
-
       // update statistics and schemaDataTypeNumMap
       totalSeriesNumber.addAndGet(1);
-      if (totalSeriesNumber.get() * ESTIMATED_SERIES_SIZE >= MTREE_SIZE_THRESHOLD) {
+      if (diskStore != null) {
+        diskStore.touch(leafMNode.getParent());
+      } else if (totalSeriesNumber.get() * ESTIMATED_SERIES_SIZE >= MTREE_SIZE_THRESHOLD) {
         logger.warn("Current series number {} is too large...", totalSeriesNumber);
         allowToCreateNewSeries = false;
       }
@@ -480,6 +520,11 @@ public class MManager {
         }
         plan.setTagOffset(offset);
         logWriter.createTimeseries(plan);
+        // update tag index after the mlog, so that a crash leaves no series only in the index. It
+        // is recovered by itself
+        if (offset >= 0) {
+          tagIndex.addTags(getTagSeriesId(offset), leafMNode.getFullPath(), plan.getTags());
+        }
       }
       leafMNode.setOffset(offset);
 
@@ -547,6 +592,12 @@ public class MManager {
 
       for (int i = 0; i < measurements.size(); i++) {
         SchemaUtils.checkDataTypeWithEncoding(dataTypes.get(i), encodings.get(i));
+        if (encodings.get(i) == TSEncoding.AUTO) {
+          // the columns of aligned timeseries are written by value chunk writers
+          throw new MetadataException(
+              String.format("encoding AUTO does not support aligned timeseries %s", prefixPath),
+              true);
+        }
       }
 
       ensureStorageGroup(prefixPath);
@@ -557,7 +608,8 @@ public class MManager {
 
       // update statistics and schemaDataTypeNumMap
       totalSeriesNumber.addAndGet(measurements.size());
-      if (totalSeriesNumber.get() * ESTIMATED_SERIES_SIZE >= MTREE_SIZE_THRESHOLD) {
+      if (diskStore == null
+          && totalSeriesNumber.get() * ESTIMATED_SERIES_SIZE >= MTREE_SIZE_THRESHOLD) {
         logger.warn("Current series number {} is too large...", totalSeriesNumber);
         allowToCreateNewSeries = false;
       }
@@ -634,45 +686,20 @@ public class MManager {
   }
 
   /** remove the node from the tag inverted index */
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   private void removeFromTagInvertedIndex(MeasurementMNode node) throws IOException {
-    if (node.getOffset() < 0) {
+    // the tag index is recovered by itself
+    if (node.getOffset() < 0 || isRecovering) {
       return;
     }
     Map<String, String> tagMap =
         tagLogFile.readTag(config.getTagAttributeTotalSize(), node.getOffset());
-    if (tagMap != null) {
-      for (Entry<String, String> entry : tagMap.entrySet()) {
-        if (tagIndex.containsKey(entry.getKey())
-            && tagIndex.get(entry.getKey()).containsKey(entry.getValue())) {
-          if (logger.isDebugEnabled()) {
-            logger.debug(
-                String.format(
-                    String.format(DEBUG_MSG, "Delete" + TAG_FORMAT, node.getFullPath()),
-                    entry.getKey(),
-                    entry.getValue(),
-                    node.getOffset()));
-          }
-          tagIndex.get(entry.getKey()).get(entry.getValue()).remove(node);
-          if (tagIndex.get(entry.getKey()).get(entry.getValue()).isEmpty()) {
-            tagIndex.get(entry.getKey()).remove(entry.getValue());
-            if (tagIndex.get(entry.getKey()).isEmpty()) {
-              tagIndex.remove(entry.getKey());
-            }
-          }
-        } else {
-          if (logger.isDebugEnabled()) {
-            logger.debug(
-                String.format(
-                    String.format(DEBUG_MSG_1, "Delete" + PREVIOUS_CONDITION, node.getFullPath()),
-                    entry.getKey(),
-                    entry.getValue(),
-                    node.getOffset(),
-                    tagIndex.containsKey(entry.getKey())));
-          }
-        }
-      }
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          "Delete: TimeSeries {} with tags {} is removed from tag inverted index",
+          node.getFullPath(),
+          tagMap);
     }
+    tagIndex.removeSeries(getTagSeriesId(node.getOffset()), tagMap);
   }
 
   /**
@@ -699,6 +726,9 @@ public class MManager {
 
     // TODO: delete the path node and all its ancestors
     mNodeCache.clear();
+    if (diskStore != null) {
+      diskStore.touch(pair.right.getParent());
+    }
     totalSeriesNumber.addAndGet(-timeseriesNum);
     if (!allowToCreateNewSeries
         && totalSeriesNumber.get() * ESTIMATED_SERIES_SIZE < MTREE_SIZE_THRESHOLD) {
@@ -749,6 +779,9 @@ public class MManager {
         for (MeasurementMNode leafMNode : leafMNodes) {
           removeFromTagInvertedIndex(leafMNode);
         }
+        if (diskStore != null) {
+          diskStore.remove(storageGroup);
+        }
 
         // drop triggers with no exceptions
         TriggerEngine.drop(leafMNodes);
@@ -932,111 +965,111 @@ public class MManager {
     return mtree.getNodesCountInGivenLevel(prefixPath, level);
   }
 
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   private List<ShowTimeSeriesResult> showTimeseriesWithIndex(
       ShowTimeSeriesPlan plan, QueryContext context) throws MetadataException {
-    if (!tagIndex.containsKey(plan.getKey())) {
-      throw new MetadataException("The key " + plan.getKey() + " is not a tag.", true);
-    }
-    Map<String, Set<MeasurementMNode>> value2Node = tagIndex.get(plan.getKey());
-    if (value2Node.isEmpty()) {
-      throw new MetadataException("The key " + plan.getKey() + " is not a tag.");
+    for (TagFilter filter : plan.getTagFilters()) {
+      if (!tagIndex.containsKey(filter.getKey())) {
+        throw new MetadataException("The key " + filter.getKey() + " is not a tag.", true);
+      }
     }
 
+    String[] prefixNodes = plan.getPath().getNodes();
     List<MeasurementMNode> allMatchedNodes = new ArrayList<>();
-    if (plan.isContains()) {
-      for (Entry<String, Set<MeasurementMNode>> entry : value2Node.entrySet()) {
-        if (entry.getKey() == null || entry.getValue() == null) {
-          continue;
-        }
-        String tagValue = entry.getKey();
-        if (tagValue.contains(plan.getValue())) {
-          allMatchedNodes.addAll(entry.getValue());
-        }
-      }
-    } else {
-      for (Entry<String, Set<MeasurementMNode>> entry : value2Node.entrySet()) {
-        if (entry.getKey() == null || entry.getValue() == null) {
-          continue;
-        }
-        String tagValue = entry.getKey();
-        if (plan.getValue().equals(tagValue)) {
-          allMatchedNodes.addAll(entry.getValue());
-        }
-      }
-    }
+    tagIndex.query(
+        plan.getTagFilters(),
+        (seriesId, fullPath) -> {
+          MeasurementMNode leaf = getTaggedMeasurementMNode(seriesId, fullPath, prefixNodes);
+          if (leaf != null) {
+            allMatchedNodes.add(leaf);
+          }
+          return true;
+        });
 
     // if ordered by heat, we sort all the timeseries by the descending order of the last insert
     // timestamp
+    Comparator<MeasurementMNode> comparator;
+    List<StorageGroupProcessor> list = null;
     if (plan.isOrderByHeat()) {
-      List<StorageGroupProcessor> list;
       try {
         list =
             StorageEngine.getInstance()
                 .mergeLock(allMatchedNodes.stream().map(MNode::getPartialPath).collect(toList()));
-        try {
-          allMatchedNodes =
-              allMatchedNodes.stream()
-                  .sorted(
-                      Comparator.comparingLong(
-                              (MeasurementMNode mNode) -> MTree.getLastTimeStamp(mNode, context))
-                          .reversed()
-                          .thenComparing(MNode::getFullPath))
-                  .collect(toList());
-        } finally {
-          StorageEngine.getInstance().mergeUnLock(list);
-        }
       } catch (StorageEngineException e) {
         throw new MetadataException(e);
       }
+      comparator =
+          Comparator.comparingLong(
+                  (MeasurementMNode mNode) -> MTree.getLastTimeStamp(mNode, context))
+              .reversed()
+              .thenComparing(MNode::getFullPath);
     } else {
-      // otherwise, we just sort them by the alphabetical order
-      allMatchedNodes =
+      // otherwise, we just sort them by the alphabetical order, as the index visits them in the
+      // order they got their tags
+      comparator = Comparator.comparing(MNode::getFullPath);
+    }
+    int limit = plan.getLimit();
+    List<MeasurementMNode> pageNodes;
+    try {
+      pageNodes =
           allMatchedNodes.stream()
-              .sorted(Comparator.comparing(MNode::getFullPath))
+              .sorted(comparator)
+              .skip(plan.getOffset())
+              .limit(limit == 0 ? Long.MAX_VALUE : limit)
               .collect(toList());
+    } finally {
+      if (list != null) {
+        StorageEngine.getInstance().mergeUnLock(list);
+      }
     }
 
     List<ShowTimeSeriesResult> res = new LinkedList<>();
-    String[] prefixNodes = plan.getPath().getNodes();
-    int curOffset = -1;
-    int count = 0;
-    int limit = plan.getLimit();
-    int offset = plan.getOffset();
-    for (MeasurementMNode leaf : allMatchedNodes) {
-      if (match(leaf.getPartialPath(), prefixNodes)) {
-        if (limit != 0 || offset != 0) {
-          curOffset++;
-          if (curOffset < offset || count == limit) {
-            continue;
-          }
-        }
-        try {
-          Pair<Map<String, String>, Map<String, String>> tagAndAttributePair =
-              tagLogFile.read(config.getTagAttributeTotalSize(), leaf.getOffset());
-          IMeasurementSchema measurementSchema = leaf.getSchema();
-          res.add(
-              new ShowTimeSeriesResult(
-                  leaf.getFullPath(),
-                  leaf.getAlias(),
-                  getStorageGroupPath(leaf.getPartialPath()).getFullPath(),
-                  measurementSchema.getType(),
-                  measurementSchema.getEncodingType(),
-                  measurementSchema.getCompressor(),
-                  tagAndAttributePair.left,
-                  tagAndAttributePair.right));
-          if (limit != 0) {
-            count++;
-          }
-        } catch (IOException e) {
-          throw new MetadataException(
-              "Something went wrong while deserialize tag info of " + leaf.getFullPath(), e);
-        }
+    for (MeasurementMNode leaf : pageNodes) {
+      try {
+        Pair<Map<String, String>, Map<String, String>> tagAndAttributePair =
+            tagLogFile.read(config.getTagAttributeTotalSize(), leaf.getOffset());
+        IMeasurementSchema measurementSchema = leaf.getSchema();
+        res.add(
+            new ShowTimeSeriesResult(
+                leaf.getFullPath(),
+                leaf.getAlias(),
+                getStorageGroupPath(leaf.getPartialPath()).getFullPath(),
+                measurementSchema.getType(),
+                measurementSchema.getEncodingType(),
+                measurementSchema.getCompressor(),
+                tagAndAttributePair.left,
+                tagAndAttributePair.right));
+      } catch (IOException e) {
+        throw new MetadataException(
+            "Something went wrong while deserialize tag info of " + leaf.getFullPath(), e);
       }
     }
     return res;
   }
 
+  /**
+   * @return the timeseries of an id in the tag index if it is under the prefix, or null if it is
+   *     not, or if it was deleted right before a crash but still in the index
+   */
+  private MeasurementMNode getTaggedMeasurementMNode(
+      int seriesId, String fullPath, String[] prefixNodes) throws MetadataException {
+    PartialPath path = new PartialPath(fullPath);
+    if (!match(path, prefixNodes)) {
+      return null;
+    }
+    MNode node;
+    try {
+      node = mtree.getNodeByPath(path);
+    } catch (MetadataException e) {
+      return null;
+    }
+    if (!(node instanceof MeasurementMNode)
+        || ((MeasurementMNode) node).getOffset() < 0
+        || getTagSeriesId(((MeasurementMNode) node).getOffset()) != seriesId) {
+      return null;
+    }
+    return (MeasurementMNode) node;
+  }
+
   /** whether the full path has the prefixNodes */
   private boolean match(PartialPath fullPath, String[] prefixNodes) {
     String[] nodes = fullPath.getNodes();
@@ -1054,7 +1087,7 @@ public class MManager {
   public List<ShowTimeSeriesResult> showTimeseries(ShowTimeSeriesPlan plan, QueryContext context)
       throws MetadataException {
     // show timeseries with index
-    if (plan.getKey() != null && plan.getValue() != null) {
+    if (!plan.getTagFilters().isEmpty()) {
       return showTimeseriesWithIndex(plan, context);
     } else {
       return showTimeseriesWithoutIndex(plan, context);
@@ -1513,65 +1546,27 @@ public class MManager {
       logWriter.changeOffset(fullPath, offset);
       leafMNode.setOffset(offset);
       // update inverted Index map
-      if (tagsMap != null) {
-        for (Entry<String, String> entry : tagsMap.entrySet()) {
-          tagIndex
-              .computeIfAbsent(entry.getKey(), k -> new ConcurrentHashMap<>())
-              .computeIfAbsent(entry.getValue(), v -> new CopyOnWriteArraySet<>())
-              .add(leafMNode);
-        }
-      }
+      tagIndex.addTags(getTagSeriesId(offset), leafMNode.getFullPath(), tagsMap);
       return;
     }
 
     Pair<Map<String, String>, Map<String, String>> pair =
         tagLogFile.read(config.getTagAttributeTotalSize(), leafMNode.getOffset());
 
+    Map<String, String> removedTags = new HashMap<>();
+    Map<String, String> addedTags = new HashMap<>();
     if (tagsMap != null) {
       for (Entry<String, String> entry : tagsMap.entrySet()) {
         String key = entry.getKey();
         String value = entry.getValue();
-        String beforeValue = pair.left.get(key);
-        pair.left.put(key, value);
-        // if the key has existed and the value is not equal to the new one
-        // we should remove before key-value from inverted index map
-        if (beforeValue != null && !beforeValue.equals(value)) {
-
-          if (tagIndex.containsKey(key) && tagIndex.get(key).containsKey(beforeValue)) {
-            if (logger.isDebugEnabled()) {
-              logger.debug(
-                  String.format(
-                      String.format(DEBUG_MSG, "Upsert" + TAG_FORMAT, leafMNode.getFullPath()),
-                      key,
-                      beforeValue,
-                      leafMNode.getOffset()));
-            }
-
-            tagIndex.get(key).get(beforeValue).remove(leafMNode);
-            if (tagIndex.get(key).get(beforeValue).isEmpty()) {
-              tagIndex.get(key).remove(beforeValue);
-            }
-          } else {
-            if (logger.isDebugEnabled()) {
-              logger.debug(
-                  String.format(
-                      String.format(
-                          DEBUG_MSG_1, "Upsert" + PREVIOUS_CONDITION, leafMNode.getFullPath()),
-                      key,
-                      beforeValue,
-                      leafMNode.getOffset(),
-                      tagIndex.containsKey(key)));
-            }
-          }
-        }
-
+        String beforeValue = pair.left.put(key, value);
         // if the key doesn't exist or the value is not equal to the new one
-        // we should add a new key-value to inverted index map
+        // we should replace the before key-value with the new one in inverted index map
         if (beforeValue == null || !beforeValue.equals(value)) {
-          tagIndex
-              .computeIfAbsent(key, k -> new ConcurrentHashMap<>())
-              .computeIfAbsent(value, v -> new CopyOnWriteArraySet<>())
-              .add(leafMNode);
+          if (beforeValue != null) {
+            removedTags.put(key, beforeValue);
+          }
+          addedTags.put(key, value);
         }
       }
     }
@@ -1582,6 +1577,10 @@ public class MManager {
 
     // persist the change to disk
     tagLogFile.write(pair.left, pair.right, leafMNode.getOffset());
+
+    int seriesId = getTagSeriesId(leafMNode.getOffset());
+    tagIndex.removeTags(seriesId, removedTags);
+    tagIndex.addTags(seriesId, leafMNode.getFullPath(), addedTags);
   }
 
   /**
@@ -1641,12 +1640,7 @@ public class MManager {
       logWriter.changeOffset(fullPath, offset);
       leafMNode.setOffset(offset);
       // update inverted Index map
-      for (Entry<String, String> entry : tagsMap.entrySet()) {
-        tagIndex
-            .computeIfAbsent(entry.getKey(), k -> new ConcurrentHashMap<>())
-            .computeIfAbsent(entry.getValue(), v -> new CopyOnWriteArraySet<>())
-            .add(leafMNode);
-      }
+      tagIndex.addTags(getTagSeriesId(offset), leafMNode.getFullPath(), tagsMap);
       return;
     }
 
@@ -1667,12 +1661,7 @@ public class MManager {
     tagLogFile.write(pair.left, pair.right, leafMNode.getOffset());
 
     // update tag inverted map
-    tagsMap.forEach(
-        (key, value) ->
-            tagIndex
-                .computeIfAbsent(key, k -> new ConcurrentHashMap<>())
-                .computeIfAbsent(value, v -> new CopyOnWriteArraySet<>())
-                .add(leafMNode));
+    tagIndex.addTags(getTagSeriesId(leafMNode.getOffset()), leafMNode.getFullPath(), tagsMap);
   }
 
   /**
@@ -1714,45 +1703,14 @@ public class MManager {
     // persist the change to disk
     tagLogFile.write(pair.left, pair.right, leafMNode.getOffset());
 
-    Map<String, Set<MeasurementMNode>> tagVal2LeafMNodeSet;
-    Set<MeasurementMNode> MMNodes;
-    for (Entry<String, String> entry : deleteTag.entrySet()) {
-      String key = entry.getKey();
-      String value = entry.getValue();
-      // change the tag inverted index map
-      tagVal2LeafMNodeSet = tagIndex.get(key);
-      if (tagVal2LeafMNodeSet != null) {
-        MMNodes = tagVal2LeafMNodeSet.get(value);
-        if (MMNodes != null) {
-          if (logger.isDebugEnabled()) {
-            logger.debug(
-                String.format(
-                    String.format(DEBUG_MSG, "Drop" + TAG_FORMAT, leafMNode.getFullPath()),
-                    entry.getKey(),
-                    entry.getValue(),
-                    leafMNode.getOffset()));
-          }
-
-          MMNodes.remove(leafMNode);
-          if (MMNodes.isEmpty()) {
-            tagVal2LeafMNodeSet.remove(value);
-            if (tagVal2LeafMNodeSet.isEmpty()) {
-              tagIndex.remove(key);
-            }
-          }
-        }
-      } else {
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              String.format(
-                  String.format(DEBUG_MSG_1, "Drop" + PREVIOUS_CONDITION, leafMNode.getFullPath()),
-                  key,
-                  value,
-                  leafMNode.getOffset(),
-                  tagIndex.containsKey(key)));
-        }
-      }
+    // change the tag inverted index map
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          "Drop: TimeSeries {} with tags {} is removed from tag inverted index",
+          leafMNode.getFullPath(),
+          deleteTag);
     }
+    tagIndex.removeTags(getTagSeriesId(leafMNode.getOffset()), deleteTag);
   }
 
   /**
@@ -1801,39 +1759,10 @@ public class MManager {
     // persist the change to disk
     tagLogFile.write(pair.left, pair.right, leafMNode.getOffset());
 
-    for (Entry<String, String> entry : oldTagValue.entrySet()) {
-      String key = entry.getKey();
-      String beforeValue = entry.getValue();
-      String currentValue = newTagValue.get(key);
-      // change the tag inverted index map
-      if (tagIndex.containsKey(key) && tagIndex.get(key).containsKey(beforeValue)) {
-
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              String.format(
-                  String.format(DEBUG_MSG, "Set" + TAG_FORMAT, leafMNode.getFullPath()),
-                  entry.getKey(),
-                  beforeValue,
-                  leafMNode.getOffset()));
-        }
-
-        tagIndex.get(key).get(beforeValue).remove(leafMNode);
-      } else {
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              String.format(
-                  String.format(DEBUG_MSG_1, "Set" + PREVIOUS_CONDITION, leafMNode.getFullPath()),
-                  key,
-                  beforeValue,
-                  leafMNode.getOffset(),
-                  tagIndex.containsKey(key)));
-        }
-      }
-      tagIndex
-          .computeIfAbsent(key, k -> new ConcurrentHashMap<>())
-          .computeIfAbsent(currentValue, k -> new CopyOnWriteArraySet<>())
-          .add(leafMNode);
-    }
+    // change the tag inverted index map
+    int seriesId = getTagSeriesId(leafMNode.getOffset());
+    tagIndex.removeTags(seriesId, oldTagValue);
+    tagIndex.addTags(seriesId, leafMNode.getFullPath(), newTagValue);
   }
 
   /**
@@ -1875,35 +1804,9 @@ public class MManager {
       // persist the change to disk
       tagLogFile.write(pair.left, pair.right, leafMNode.getOffset());
       // change the tag inverted index map
-      if (tagIndex.containsKey(oldKey) && tagIndex.get(oldKey).containsKey(value)) {
-
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              String.format(
-                  String.format(DEBUG_MSG, "Rename" + TAG_FORMAT, leafMNode.getFullPath()),
-                  oldKey,
-                  value,
-                  leafMNode.getOffset()));
-        }
-
-        tagIndex.get(oldKey).get(value).remove(leafMNode);
-
-      } else {
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              String.format(
-                  String.format(
-                      DEBUG_MSG_1, "Rename" + PREVIOUS_CONDITION, leafMNode.getFullPath()),
-                  oldKey,
-                  value,
-                  leafMNode.getOffset(),
-                  tagIndex.containsKey(oldKey)));
-        }
-      }
-      tagIndex
-          .computeIfAbsent(newKey, k -> new ConcurrentHashMap<>())
-          .computeIfAbsent(value, k -> new CopyOnWriteArraySet<>())
-          .add(leafMNode);
+      int seriesId = getTagSeriesId(leafMNode.getOffset());
+      tagIndex.removeTags(seriesId, Collections.singletonMap(oldKey, value));
+      tagIndex.addTags(seriesId, leafMNode.getFullPath(), Collections.singletonMap(newKey, value));
     } else if (pair.right.containsKey(oldKey)) {
       // check attribute map
       pair.right.put(newKey, pair.right.remove(oldKey));
@@ -2464,4 +2367,24 @@ public class MManager {
   public long getTotalSeriesNumber() {
     return totalSeriesNumber.get();
   }
+
+  public boolean isMTreeEvictionEnabled() {
+    return diskStore != null;
+  }
+
+  /**
+   * Keep the measurements of the device in memory until it is unpinned, as the working memtables
+   * keep the devices written in them. It does nothing if MTree eviction is not enabled.
+   */
+  public void pinDeviceNode(MNode deviceNode) {
+    if (diskStore != null) {
+      diskStore.pin(deviceNode);
+    }
+  }
+
+  public void unpinDeviceNode(MNode deviceNode) {
+    if (diskStore != null) {
+      diskStore.unpin(deviceNode);
+    }
+  }
 }
@@ -32,7 +32,8 @@ import org.apache.iotdb.db.exception.metadata.StorageGroupAlreadySetException;
 import org.apache.iotdb.db.exception.metadata.StorageGroupNotSetException;
 import org.apache.iotdb.db.metadata.MManager.StorageGroupFilter;
 import org.apache.iotdb.db.metadata.logfile.MLogReader;
-import org.apache.iotdb.db.metadata.logfile.MLogWriter;
+import org.apache.iotdb.db.metadata.logfile.MTreeSnapshotReader;
+import org.apache.iotdb.db.metadata.logfile.MTreeSnapshotWriter;
 import org.apache.iotdb.db.metadata.mnode.MNode;
 import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
 import org.apache.iotdb.db.metadata.mnode.StorageGroupMNode;
@@ -80,7 +81,6 @@ import java.util.Map.Entry;
 import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -114,6 +114,10 @@ public class MTree implements Serializable {
     this.root = root;
   }
 
+  MNode getRoot() {
+    return root;
+  }
+
   static long getLastTimeStamp(MeasurementMNode node, QueryContext queryContext) {
     TimeValuePair last = node.getCachedLast();
     if (last != null) {
@@ -1724,12 +1728,27 @@ public class MTree implements Serializable {
   }
 
   public void serializeTo(String snapshotPath) throws IOException {
-    try (MLogWriter mLogWriter = new MLogWriter(snapshotPath)) {
-      root.serializeTo(mLogWriter);
+    try (MTreeSnapshotWriter snapshotWriter = new MTreeSnapshotWriter(snapshotPath)) {
+      snapshotWriter.write(root);
     }
   }
 
+  /**
+   * Load the MTree from a snapshot written by {@link #serializeTo(String)}, or from a snapshot of
+   * MLog plans written by the versions before.
+   */
   public static MTree deserializeFrom(File mtreeSnapshot) {
+    try {
+      if (MTreeSnapshotReader.isCompactSnapshot(mtreeSnapshot)) {
+        return new MTree(
+            new MTreeSnapshotReader(mtreeSnapshot)
+                .read(Runtime.getRuntime().availableProcessors()));
+      }
+    } catch (IOException e) {
+      logger.warn("Failed to deserialize from {}. Use a new MTree.", mtreeSnapshot.getPath(), e);
+      return new MTree();
+    }
+
     try (MLogReader mLogReader = new MLogReader(mtreeSnapshot)) {
       return deserializeFromReader(mLogReader);
     } catch (IOException e) {
@@ -1766,20 +1785,15 @@ public class MTree implements Serializable {
           childrenSize = ((MNodePlan) plan).getChildSize();
         }
 
-        if (childrenSize != 0) {
-          ConcurrentHashMap<String, MNode> childrenMap = new ConcurrentHashMap<>();
-          for (int i = 0; i < childrenSize; i++) {
-            MNode child = nodeStack.removeFirst();
-            child.setParent(node);
-            childrenMap.put(child.getName(), child);
-            if (child instanceof MeasurementMNode) {
-              String alias = ((MeasurementMNode) child).getAlias();
-              if (alias != null) {
-                node.addAlias(alias, child);
-              }
+        for (int i = 0; i < childrenSize; i++) {
+          MNode child = nodeStack.removeFirst();
+          node.addChild(child.getName(), child);
+          if (child instanceof MeasurementMNode) {
+            String alias = ((MeasurementMNode) child).getAlias();
+            if (alias != null) {
+              node.addAlias(alias, child);
             }
           }
-          node.setChildren(childrenMap);
         }
         nodeStack.push(node);
       } catch (Exception e) {
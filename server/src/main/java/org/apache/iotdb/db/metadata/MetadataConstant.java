@@ -32,6 +32,9 @@ public class MetadataConstant {
   public static final String METADATA_TXT_LOG = "mlog.txt";
   public static final String METADATA_LOG = "mlog.bin";
   public static final String TAG_LOG = "tlog.txt";
+  public static final String TAG_INDEX = "tindex.bin";
+  public static final String TAG_INDEX_TMP = "tindex.bin.tmp";
+  public static final String TAG_INDEX_LOG = "tindex.log";
   public static final String MTREE_PREFIX = "mtree";
   public static final String MTREE_TXT_SNAPSHOT =
       MTREE_PREFIX + IoTDBConstant.FILE_NAME_SEPARATOR + MTREE_VERSION + ".snapshot";
@@ -39,6 +42,8 @@ public class MetadataConstant {
       MTREE_PREFIX + IoTDBConstant.FILE_NAME_SEPARATOR + MTREE_VERSION + ".snapshot.bin";
   public static final String MTREE_SNAPSHOT_TMP =
       MTREE_PREFIX + IoTDBConstant.FILE_NAME_SEPARATOR + MTREE_VERSION + ".snapshot.bin.tmp";
+  public static final String MTREE_EVICTED =
+      MTREE_PREFIX + IoTDBConstant.FILE_NAME_SEPARATOR + MTREE_VERSION + ".evicted.bin";
 
   public static final short MNODE_TYPE = 0;
   public static final short STORAGE_GROUP_MNODE_TYPE = 1;
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.logfile;
+
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.metadata.MetadataConstant;
+import org.apache.iotdb.db.metadata.mnode.MNode;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.db.metadata.mnode.StorageGroupMNode;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.VectorMeasurementSchema;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * Reads the MTree from a snapshot written by {@link MTreeSnapshotWriter}. Each section is read with
+ * one positioned read, and the sections of the storage groups are loaded in parallel.
+ */
+public class MTreeSnapshotReader {
+
+  private final File snapshot;
+
+  public MTreeSnapshotReader(File snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  /** @return whether the file is written by {@link MTreeSnapshotWriter} */
+  public static boolean isCompactSnapshot(File file) throws IOException {
+    if (file.length() < MTreeSnapshotWriter.MAGIC.length) {
+      return false;
+    }
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer magic = ByteBuffer.allocate(MTreeSnapshotWriter.MAGIC.length);
+      readFully(channel, magic, 0);
+      return Arrays.equals(magic.array(), MTreeSnapshotWriter.MAGIC);
+    }
+  }
+
+  /**
+   * @param threadNum the number of threads loading the sections of storage groups
+   * @return the root of the MTree
+   */
+  public MNode read(int threadNum) throws IOException {
+    try (FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+      long position = MTreeSnapshotWriter.MAGIC.length;
+      ByteBuffer upperSection = readSection(channel, position);
+      position += Integer.BYTES * 2 + upperSection.remaining();
+      List<StorageGroupMNode> storageGroups = new ArrayList<>();
+      MNode root = parseSection(upperSection, null, storageGroups).get(0);
+
+      ExecutorService pool =
+          IoTDBThreadPoolFactory.newFixedThreadPool(
+              threadNum, ThreadName.MTREE_SNAPSHOT_LOADER.getName());
+      try {
+        List<Future<Void>> futures = new ArrayList<>();
+        long fileSize = channel.size();
+        while (position < fileSize) {
+          long sectionPosition = position;
+          futures.add(
+              pool.submit(
+                  () -> {
+                    parseSection(readSection(channel, sectionPosition), storageGroups, null);
+                    return null;
+                  }));
+          ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+          readFully(channel, length, position);
+          position += Integer.BYTES * 2 + length.getInt(0);
+        }
+        for (Future<Void> future : futures) {
+          future.get();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted when loading " + snapshot, e);
+      } catch (ExecutionException e) {
+        throw new IOException("Cannot load " + snapshot, e.getCause());
+      } finally {
+        pool.shutdownNow();
+      }
+      return root;
+    }
+  }
+
+  /** @return the body of the section at the position, after checking its CRC */
+  private ByteBuffer readSection(FileChannel channel, long position) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(Integer.BYTES * 2);
+    readFully(channel, header, position);
+    header.flip();
+    int length = header.getInt();
+    int crc = header.getInt();
+    if (length < 0 || position + header.capacity() + length > channel.size()) {
+      throw new IOException(
+          String.format("Section of length %d at %d is beyond %s", length, position, snapshot));
+    }
+    ByteBuffer body = ByteBuffer.allocate(length);
+    readFully(channel, body, position + header.capacity());
+    body.flip();
+    CRC32 crc32 = new CRC32();
+    crc32.update(body.array(), 0, length);
+    if ((int) crc32.getValue() != crc) {
+      throw new IOException(String.format("Section at %d of %s is corrupted", position, snapshot));
+    }
+    return body;
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of file");
+      }
+    }
+  }
+
+  /**
+   * @param storageGroups the storage groups which the subtrees of the section are added to, or null
+   *     for the first section
+   * @param foundStorageGroups the storage groups found in the first section are added to it
+   * @return the subtrees
+   */
+  private List<MNode> parseSection(
+      ByteBuffer body,
+      List<StorageGroupMNode> storageGroups,
+      List<StorageGroupMNode> foundStorageGroups) {
+    int storageGroupIndex = ReadWriteForEncodingUtils.readUnsignedVarInt(body);
+    String[] strings = new String[ReadWriteForEncodingUtils.readUnsignedVarInt(body)];
+    for (int i = 0; i < strings.length; i++) {
+      int length = ReadWriteForEncodingUtils.readUnsignedVarInt(body);
+      strings[i] = new String(body.array(), body.position(), length, StandardCharsets.UTF_8);
+      body.position(body.position() + length);
+    }
+
+    MNode parent = storageGroups == null ? null : storageGroups.get(storageGroupIndex - 1);
+    int subtreeNum = ReadWriteForEncodingUtils.readUnsignedVarInt(body);
+    List<MNode> subtrees = new ArrayList<>(subtreeNum);
+    for (int i = 0; i < subtreeNum; i++) {
+      subtrees.add(readNode(body, strings, parent, foundStorageGroups));
+    }
+    if (parent != null) {
+      addChildren(parent, subtrees);
+    }
+    return subtrees;
+  }
+
+  private MNode readNode(
+      ByteBuffer body, String[] strings, MNode parent, List<StorageGroupMNode> storageGroups) {
+    byte type = body.get();
+    String name = strings[ReadWriteForEncodingUtils.readUnsignedVarInt(body)];
+    int childNum = ReadWriteForEncodingUtils.readUnsignedVarInt(body);
+    MNode node;
+    if (type == MetadataConstant.STORAGE_GROUP_MNODE_TYPE) {
+      node = new StorageGroupMNode(parent, name, body.getLong());
+      if (storageGroups != null) {
+        storageGroups.add((StorageGroupMNode) node);
+      }
+    } else if (type == MetadataConstant.MEASUREMENT_MNODE_TYPE) {
+      int aliasId = ReadWriteForEncodingUtils.readUnsignedVarInt(body);
+      long offset = body.getLong();
+      MeasurementMNode measurement =
+          new MeasurementMNode(
+              parent, name, readSchema(body, strings), aliasId == 0 ? null : strings[aliasId - 1]);
+      measurement.setOffset(offset);
+      node = measurement;
+    } else {
+      node = new MNode(parent, name);
+    }
+
+    if (childNum > 0) {
+      List<MNode> children = new ArrayList<>(childNum);
+      for (int i = 0; i < childNum; i++) {
+        children.add(readNode(body, strings, node, storageGroups));
+      }
+      addChildren(node, children);
+    }
+    return node;
+  }
+
+  private static void addChildren(MNode node, List<MNode> children) {
+    node.addChildren(children);
+    for (MNode child : children) {
+      if (child instanceof MeasurementMNode && ((MeasurementMNode) child).getAlias() != null) {
+        node.addAlias(((MeasurementMNode) child).getAlias(), child);
+      }
+    }
+  }
+
+  private static IMeasurementSchema readSchema(ByteBuffer body, String[] strings) {
+    if (body.get() == MTreeSnapshotWriter.VECTOR_MEASUREMENT_SCHEMA) {
+      return VectorMeasurementSchema.deserializeFrom(body);
+    }
+    String measurementId = strings[ReadWriteForEncodingUtils.readUnsignedVarInt(body)];
+    byte type = body.get();
+    byte encoding = body.get();
+    byte compressor = body.get();
+    int propNum = ReadWriteForEncodingUtils.readUnsignedVarInt(body) - 1;
+    Map<String, String> props = null;
+    if (propNum >= 0) {
+      props = new HashMap<>(propNum * 2);
+      for (int i = 0; i < propNum; i++) {
+        props.put(
+            strings[ReadWriteForEncodingUtils.readUnsignedVarInt(body)],
+            strings[ReadWriteForEncodingUtils.readUnsignedVarInt(body)]);
+      }
+    }
+    return new MeasurementSchema(measurementId, type, encoding, compressor, props);
+  }
+}
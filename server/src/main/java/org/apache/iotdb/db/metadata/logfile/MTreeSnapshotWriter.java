@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.logfile;
+
+import org.apache.iotdb.db.metadata.MetadataConstant;
+import org.apache.iotdb.db.metadata.mnode.MNode;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.db.metadata.mnode.StorageGroupMNode;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Writes the MTree to a compact binary snapshot, which is read by {@link MTreeSnapshotReader}.
+ *
+ * <p>The snapshot starts with {@link #MAGIC}, which is followed by sections. The first section
+ * holds the nodes from the root down to the storage groups, and each of the others holds some
+ * subtrees under one storage group, so that the sections can be loaded in parallel. A section is:
+ *
+ * <pre>
+ * int bodyLength, int crc32 of body,
+ * body: varint (storage group index + 1, 0 for the first section),
+ *       varint stringNum, stringNum * (varint length, UTF-8 bytes),
+ *       varint subtreeNum, the nodes of the subtrees in pre-order
+ * </pre>
+ *
+ * A node is a byte of its type, the varint id of its name in the strings of the section and the
+ * varint number of its children, followed by the TTL of a storage group, or the alias id + 1 (0 if
+ * absent), tag offset and schema of a measurement. The names repeated in a section, such as the
+ * measurements of devices, are written only once.
+ */
+public class MTreeSnapshotWriter implements AutoCloseable {
+
+  static final byte[] MAGIC = "MTREE-S2".getBytes(StandardCharsets.UTF_8);
+
+  static final byte MEASUREMENT_SCHEMA = 0;
+  static final byte VECTOR_MEASUREMENT_SCHEMA = 1;
+
+  /** a section is closed once it has so many nodes, unless it has only one subtree */
+  private static final int SECTION_NODE_NUM = 1 << 16;
+
+  private final DataOutputStream outputStream;
+
+  private final Map<String, Integer> stringIds = new HashMap<>();
+  private final PublicBAOS stringBuffer = new PublicBAOS();
+  private final PublicBAOS nodeBuffer = new PublicBAOS();
+  private int subtreeNum = 0;
+  private int nodeNum = 0;
+
+  public MTreeSnapshotWriter(String snapshotPath) throws IOException {
+    outputStream =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(snapshotPath)));
+  }
+
+  public void write(MNode root) throws IOException {
+    outputStream.write(MAGIC);
+    List<StorageGroupMNode> storageGroups = new ArrayList<>();
+    writeUpperNode(root, storageGroups);
+    subtreeNum = 1;
+    flushSection(0);
+
+    for (int i = 0; i < storageGroups.size(); i++) {
+      for (MNode child : childrenOf(storageGroups.get(i))) {
+        writeNode(child);
+        subtreeNum++;
+        if (nodeNum >= SECTION_NODE_NUM) {
+          flushSection(i + 1);
+        }
+      }
+      if (subtreeNum > 0) {
+        flushSection(i + 1);
+      }
+    }
+    outputStream.flush();
+  }
+
+  /** write the nodes above the storage groups, leaving the children of storage groups out */
+  private void writeUpperNode(MNode node, List<StorageGroupMNode> storageGroups)
+      throws IOException {
+    if (node instanceof StorageGroupMNode) {
+      writeNodeHeader(node, 0);
+      storageGroups.add((StorageGroupMNode) node);
+      return;
+    }
+    List<MNode> children = childrenOf(node);
+    writeNodeHeader(node, children.size());
+    for (MNode child : children) {
+      writeUpperNode(child, storageGroups);
+    }
+  }
+
+  private void writeNode(MNode node) throws IOException {
+    List<MNode> children = childrenOf(node);
+    writeNodeHeader(node, children.size());
+    for (MNode child : children) {
+      writeNode(child);
+    }
+  }
+
+  /** the children copied, as they may be modified when they are written */
+  private static List<MNode> childrenOf(MNode node) {
+    return new ArrayList<>(node.getChildren().values());
+  }
+
+  private void writeNodeHeader(MNode node, int childNum) throws IOException {
+    nodeNum++;
+    if (node instanceof StorageGroupMNode) {
+      nodeBuffer.write(MetadataConstant.STORAGE_GROUP_MNODE_TYPE);
+    } else if (node instanceof MeasurementMNode) {
+      nodeBuffer.write(MetadataConstant.MEASUREMENT_MNODE_TYPE);
+    } else {
+      nodeBuffer.write(MetadataConstant.MNODE_TYPE);
+    }
+    writeString(node.getName());
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(childNum, nodeBuffer);
+
+    if (node instanceof StorageGroupMNode) {
+      ReadWriteIOUtils.write(((StorageGroupMNode) node).getDataTTL(), nodeBuffer);
+    } else if (node instanceof MeasurementMNode) {
+      MeasurementMNode measurement = (MeasurementMNode) node;
+      String alias = measurement.getAlias();
+      if (alias == null) {
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(0, nodeBuffer);
+      } else {
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(getStringId(alias) + 1, nodeBuffer);
+      }
+      ReadWriteIOUtils.write(measurement.getOffset(), nodeBuffer);
+      writeSchema(measurement.getSchema());
+    }
+  }
+
+  private void writeSchema(IMeasurementSchema schema) throws IOException {
+    if (!(schema instanceof MeasurementSchema)) {
+      nodeBuffer.write(VECTOR_MEASUREMENT_SCHEMA);
+      schema.serializeTo(nodeBuffer);
+      return;
+    }
+    nodeBuffer.write(MEASUREMENT_SCHEMA);
+    writeString(schema.getMeasurementId());
+    nodeBuffer.write(schema.getType().serialize());
+    nodeBuffer.write(schema.getEncodingType().serialize());
+    nodeBuffer.write(schema.getCompressor().serialize());
+    Map<String, String> props = schema.getProps();
+    // 0 for null props, to tell them from empty props
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(props == null ? 0 : props.size() + 1, nodeBuffer);
+    if (props != null) {
+      for (Map.Entry<String, String> entry : props.entrySet()) {
+        writeString(entry.getKey());
+        writeString(entry.getValue());
+      }
+    }
+  }
+
+  private void writeString(String string) {
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(getStringId(string), nodeBuffer);
+  }
+
+  private int getStringId(String string) {
+    Integer id = stringIds.get(string);
+    if (id == null) {
+      id = stringIds.size();
+      stringIds.put(string, id);
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(bytes.length, stringBuffer);
+      stringBuffer.write(bytes, 0, bytes.length);
+    }
+    return id;
+  }
+
+  private void flushSection(int storageGroupIndex) throws IOException {
+    PublicBAOS head = new PublicBAOS();
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(storageGroupIndex, head);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(stringIds.size(), head);
+    PublicBAOS middle = new PublicBAOS();
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(subtreeNum, middle);
+
+    CRC32 crc32 = new CRC32();
+    crc32.update(head.getBuf(), 0, head.size());
+    crc32.update(stringBuffer.getBuf(), 0, stringBuffer.size());
+    crc32.update(middle.getBuf(), 0, middle.size());
+    crc32.update(nodeBuffer.getBuf(), 0, nodeBuffer.size());
+    outputStream.writeInt(head.size() + stringBuffer.size() + middle.size() + nodeBuffer.size());
+    outputStream.writeInt((int) crc32.getValue());
+    head.writeTo(outputStream);
+    stringBuffer.writeTo(outputStream);
+    middle.writeTo(outputStream);
+    nodeBuffer.writeTo(outputStream);
+
+    stringIds.clear();
+    stringBuffer.reset();
+    nodeBuffer.reset();
+    subtreeNum = 0;
+    nodeNum = 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    outputStream.close();
+  }
+}
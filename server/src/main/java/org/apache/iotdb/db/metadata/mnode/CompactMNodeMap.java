@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.mnode;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A thread-safe map from names to MNodes for nodes of small fan-out, which takes a few bytes per
+ * entry instead of a ConcurrentHashMap node. The names and nodes are kept alternately in one array
+ * ordered by the hash codes of the names, and a name is found by binary search over the hash codes
+ * cached in the strings.
+ *
+ * <p>Readers are not blocked: every modification copies the array and publishes the copy, which is
+ * never changed afterwards. Modifications are synchronized, so they should be rare, as adding and
+ * deleting timeseries are. A map that grows to {@link #MAX_SIZE} should be replaced by a
+ * ConcurrentHashMap, see {@link MNode}.
+ */
+public class CompactMNodeMap extends AbstractMap<String, MNode> {
+
+  /** the max number of entries, beyond which a ConcurrentHashMap is smaller and faster */
+  public static final int MAX_SIZE = 64;
+
+  private static final Object[] EMPTY = new Object[0];
+
+  /** name0, node0, name1, node1, ..., ordered by the hash codes of the names */
+  private volatile Object[] entries = EMPTY;
+
+  public boolean isFull() {
+    return entries.length >= MAX_SIZE * 2;
+  }
+
+  @Override
+  public int size() {
+    return entries.length >> 1;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return entries.length == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String && indexOf(entries, (String) key) >= 0;
+  }
+
+  @Override
+  public MNode get(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+    Object[] snapshot = entries;
+    int index = indexOf(snapshot, (String) key);
+    return index >= 0 ? (MNode) snapshot[index + 1] : null;
+  }
+
+  @Override
+  public synchronized MNode put(String key, MNode value) {
+    Object[] snapshot = entries;
+    int index = indexOf(snapshot, key);
+    if (index >= 0) {
+      MNode oldValue = (MNode) snapshot[index + 1];
+      Object[] newEntries = snapshot.clone();
+      newEntries[index + 1] = value;
+      entries = newEntries;
+      return oldValue;
+    }
+    insert(snapshot, -index - 1, key, value);
+    return null;
+  }
+
+  @Override
+  public synchronized MNode putIfAbsent(String key, MNode value) {
+    Object[] snapshot = entries;
+    int index = indexOf(snapshot, key);
+    if (index >= 0) {
+      return (MNode) snapshot[index + 1];
+    }
+    insert(snapshot, -index - 1, key, value);
+    return null;
+  }
+
+  /** put all the entries with one copy of the array, instead of one copy per entry */
+  @Override
+  public synchronized void putAll(Map<? extends String, ? extends MNode> m) {
+    Map<String, MNode> merged = new HashMap<>(size() + m.size());
+    Object[] snapshot = entries;
+    for (int i = 0; i < snapshot.length; i += 2) {
+      merged.put((String) snapshot[i], (MNode) snapshot[i + 1]);
+    }
+    merged.putAll(m);
+    String[] names = merged.keySet().toArray(new String[0]);
+    Arrays.sort(names, Comparator.comparingInt(String::hashCode));
+    Object[] newEntries = new Object[names.length * 2];
+    for (int i = 0; i < names.length; i++) {
+      newEntries[i * 2] = names[i];
+      newEntries[i * 2 + 1] = merged.get(names[i]);
+    }
+    entries = newEntries.length == 0 ? EMPTY : newEntries;
+  }
+
+  @Override
+  public synchronized MNode remove(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+    Object[] snapshot = entries;
+    int index = indexOf(snapshot, (String) key);
+    if (index < 0) {
+      return null;
+    }
+    Object[] newEntries = new Object[snapshot.length - 2];
+    System.arraycopy(snapshot, 0, newEntries, 0, index);
+    System.arraycopy(snapshot, index + 2, newEntries, index, snapshot.length - index - 2);
+    entries = newEntries.length == 0 ? EMPTY : newEntries;
+    return (MNode) snapshot[index + 1];
+  }
+
+  @Override
+  public synchronized void clear() {
+    entries = EMPTY;
+  }
+
+  private void insert(Object[] snapshot, int index, String key, MNode value) {
+    Object[] newEntries = Arrays.copyOf(snapshot, snapshot.length + 2);
+    System.arraycopy(snapshot, index, newEntries, index + 2, snapshot.length - index);
+    newEntries[index] = key;
+    newEntries[index + 1] = value;
+    entries = newEntries;
+  }
+
+  /**
+   * @return the index of the name in snapshot, or (-(insertion index) - 1) if the name is absent,
+   *     the indexes are of the names, which are even
+   */
+  private static int indexOf(Object[] snapshot, String key) {
+    int hash = key.hashCode();
+    int lo = 0;
+    int hi = snapshot.length >> 1;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (snapshot[mid << 1].hashCode() < hash) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    // the names of the same hash code are adjacent
+    int index = lo << 1;
+    for (; index < snapshot.length && snapshot[index].hashCode() == hash; index += 2) {
+      if (key.equals(snapshot[index])) {
+        return index;
+      }
+    }
+    return -index - 1;
+  }
+
+  @Override
+  public Set<Entry<String, MNode>> entrySet() {
+    return new AbstractSet<Entry<String, MNode>>() {
+      @Override
+      public Iterator<Entry<String, MNode>> iterator() {
+        return new EntryIterator<Entry<String, MNode>>(entries) {
+          @Override
+          Entry<String, MNode> get(Object[] snapshot, int index) {
+            return new SimpleImmutableEntry<>(
+                (String) snapshot[index], (MNode) snapshot[index + 1]);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return CompactMNodeMap.this.size();
+      }
+    };
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return new AbstractSet<String>() {
+      @Override
+      public Iterator<String> iterator() {
+        return new EntryIterator<String>(entries) {
+          @Override
+          String get(Object[] snapshot, int index) {
+            return (String) snapshot[index];
+          }
+        };
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return containsKey(o);
+      }
+
+      @Override
+      public int size() {
+        return CompactMNodeMap.this.size();
+      }
+    };
+  }
+
+  @Override
+  public Collection<MNode> values() {
+    return new AbstractCollection<MNode>() {
+      @Override
+      public Iterator<MNode> iterator() {
+        return new EntryIterator<MNode>(entries) {
+          @Override
+          MNode get(Object[] snapshot, int index) {
+            return (MNode) snapshot[index + 1];
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return CompactMNodeMap.this.size();
+      }
+    };
+  }
+
+  /**
+   * Iterates the entries of a snapshot, so the iteration is not affected by concurrent
+   * modifications, like the weakly consistent iterators of ConcurrentHashMap. Removing by the
+   * iterator is supported.
+   */
+  private abstract class EntryIterator<T> implements Iterator<T> {
+
+    private final Object[] snapshot;
+
+    private int index = 0;
+
+    EntryIterator(Object[] snapshot) {
+      this.snapshot = snapshot;
+    }
+
+    abstract T get(Object[] snapshot, int index);
+
+    @Override
+    public boolean hasNext() {
+      return index < snapshot.length;
+    }
+
+    @Override
+    public T next() {
+      if (index >= snapshot.length) {
+        throw new NoSuchElementException();
+      }
+      T next = get(snapshot, index);
+      index += 2;
+      return next;
+    }
+
+    @Override
+    public void remove() {
+      if (index == 0) {
+        throw new IllegalStateException();
+      }
+      CompactMNodeMap.this.remove(snapshot[index - 2]);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.mnode;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The children of an MNode which are evicted to a {@link MNodeDiskStore}. It takes the place of the
+ * children map of the MNode, and any access to it loads the children back into the MNode first, so
+ * that the callers of {@link MNode#getChildren()} and {@link MNode#getChild(String)} do not see the
+ * eviction.
+ *
+ * <p>The accesses may evict other MNodes, so they should not be made while synchronized on an
+ * MNode. MNode itself calls {@link #restore()} instead when it is synchronized.
+ */
+class EvictedChildren extends AbstractMap<String, MNode> {
+
+  private final MNodeDiskStore store;
+  private final MNode owner;
+
+  /** position of the record in the file of the store, which is changed by its compaction */
+  volatile long offset;
+
+  final int length;
+
+  EvictedChildren(MNodeDiskStore store, MNode owner, long offset, int length) {
+    this.store = store;
+    this.owner = owner;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /** load the children back into the owner, without evicting others */
+  Map<String, MNode> restore() {
+    return store.restore(owner);
+  }
+
+  /** load the children back into the owner, and evict others if there are many */
+  Map<String, MNode> load() {
+    Map<String, MNode> children = restore();
+    store.evictIfNeeded();
+    return children;
+  }
+
+  @Override
+  public int size() {
+    return load().size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return load().isEmpty();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return load().containsKey(key);
+  }
+
+  @Override
+  public MNode get(Object key) {
+    return load().get(key);
+  }
+
+  @Override
+  public MNode put(String key, MNode value) {
+    return load().put(key, value);
+  }
+
+  @Override
+  public MNode putIfAbsent(String key, MNode value) {
+    return load().putIfAbsent(key, value);
+  }
+
+  @Override
+  public MNode remove(Object key) {
+    return load().remove(key);
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return load().keySet();
+  }
+
+  @Override
+  public Collection<MNode> values() {
+    return load().values();
+  }
+
+  @Override
+  public Set<Entry<String, MNode>> entrySet() {
+    return load().entrySet();
+  }
+}
@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -56,18 +57,20 @@ public class MNode implements Serializable {
   protected String fullPath;
 
   /**
-   * use in Measurement Node so it's protected suppress warnings reason: volatile for double
-   * synchronized check
+   * use in Measurement Node so it's protected suppress warnings reason: volatile for the maps
+   * replaced while synchronized on this node
    *
-   * <p>This will be a ConcurrentHashMap instance
+   * <p>This will be a CompactMNodeMap instance, or a ConcurrentHashMap instance once it has more
+   * than {@link CompactMNodeMap#MAX_SIZE} children. It is null if there is no child, and an
+   * EvictedChildren instance if the children are evicted to an {@link MNodeDiskStore}.
    */
   @SuppressWarnings("squid:S3077")
   protected transient volatile Map<String, MNode> children = null;
 
   /**
-   * suppress warnings reason: volatile for double synchronized check
+   * suppress warnings reason: volatile for the maps replaced while synchronized on this node
    *
-   * <p>This will be a ConcurrentHashMap instance
+   * <p>Like children, it is only created for the node having aliases.
    */
   @SuppressWarnings("squid:S3077")
   private transient volatile Map<String, MNode> aliasChildren = null;
@@ -100,16 +103,62 @@ public class MNode implements Serializable {
      * measurementNode's children should be null to save memory
      * add child method will only be called when writing MTree, which is not a frequent operation
      */
-    if (children == null) {
-      // double check, children is volatile
-      synchronized (this) {
-        if (children == null) {
-          children = new ConcurrentHashMap<>();
+    child.parent = this;
+    synchronized (this) {
+      children = putIfAbsent(residentChildren(), name, child);
+    }
+  }
+
+  /** get the children, loading them back if they are evicted to an {@link MNodeDiskStore} */
+  Map<String, MNode> residentChildren() {
+    Map<String, MNode> map = children;
+    return map instanceof EvictedChildren ? ((EvictedChildren) map).restore() : map;
+  }
+
+  /**
+   * Add the children at once, replacing the children of the same names. It is much faster than
+   * adding them one by one when there are many, e.g. when the MTree is loaded from snapshot.
+   */
+  public void addChildren(List<MNode> newChildren) {
+    Map<String, MNode> newChildMap = new HashMap<>(newChildren.size() * 2);
+    for (MNode child : newChildren) {
+      child.parent = this;
+      newChildMap.put(child.getName(), child);
+    }
+    synchronized (this) {
+      Map<String, MNode> map = residentChildren();
+      int size = (map == null ? 0 : map.size()) + newChildMap.size();
+      if (size > CompactMNodeMap.MAX_SIZE && !(map instanceof ConcurrentHashMap)) {
+        Map<String, MNode> concurrentMap = new ConcurrentHashMap<>(size);
+        if (map != null) {
+          concurrentMap.putAll(map);
         }
+        map = concurrentMap;
+      } else if (map == null) {
+        map = new CompactMNodeMap();
       }
+      map.putAll(newChildMap);
+      children = map;
     }
-    child.parent = this;
-    children.putIfAbsent(name, child);
+  }
+
+  /**
+   * Put the node into the map if the name is absent. The map is created if it is null, and replaced
+   * by a ConcurrentHashMap if it is a full CompactMNodeMap. Should be called while synchronized on
+   * this node.
+   *
+   * @return the map holding the name
+   */
+  static Map<String, MNode> putIfAbsent(Map<String, MNode> map, String name, MNode node) {
+    if (map == null) {
+      map = new CompactMNodeMap();
+    } else if (map instanceof CompactMNodeMap
+        && ((CompactMNodeMap) map).isFull()
+        && !map.containsKey(name)) {
+      map = new ConcurrentHashMap<>(map);
+    }
+    map.putIfAbsent(name, node);
+    return map;
   }
 
   /**
@@ -124,33 +173,22 @@ public class MNode implements Serializable {
    * @return return the MNode already added
    */
   MNode addChild(MNode child) {
-    /* use cpu time to exchange memory
-     * measurementNode's children should be null to save memory
-     * add child method will only be called when writing MTree, which is not a frequent operation
-     */
-    if (children == null) {
-      // double check, children is volatile
-      synchronized (this) {
-        if (children == null) {
-          children = new ConcurrentHashMap<>();
-        }
-      }
-    }
-
-    child.parent = this;
-    children.putIfAbsent(child.getName(), child);
+    addChild(child.getName(), child);
     return child;
   }
 
   /** delete a child */
-  public void deleteChild(String name) {
-    if (children != null) {
-      children.remove(name);
+  public synchronized void deleteChild(String name) {
+    Map<String, MNode> map = residentChildren();
+    if (map != null) {
+      map.remove(name);
     }
   }
 
   /** delete the alias of a child */
-  public void deleteAliasChild(String alias) {
+  public synchronized void deleteAliasChild(String alias) {
+    // the aliases are evicted with the children
+    residentChildren();
     if (aliasChildren != null) {
       aliasChildren.remove(alias);
     }
@@ -210,17 +248,10 @@ public class MNode implements Serializable {
   }
 
   /** add an alias */
-  public boolean addAlias(String alias, MNode child) {
-    if (aliasChildren == null) {
-      // double check, alias children volatile
-      synchronized (this) {
-        if (aliasChildren == null) {
-          aliasChildren = new ConcurrentHashMap<>();
-        }
-      }
-    }
-
-    return aliasChildren.computeIfAbsent(alias, aliasName -> child) == child;
+  public synchronized boolean addAlias(String alias, MNode child) {
+    residentChildren();
+    aliasChildren = putIfAbsent(aliasChildren, alias, child);
+    return aliasChildren.get(alias) == child;
   }
 
   /** get full path */
@@ -284,6 +315,11 @@ public class MNode implements Serializable {
   }
 
   public Map<String, MNode> getAliasChildren() {
+    Map<String, MNode> map = children;
+    if (map instanceof EvictedChildren) {
+      // the aliases are loaded with the children
+      ((EvictedChildren) map).load();
+    }
     if (aliasChildren == null) {
       return Collections.emptyMap();
     }
@@ -294,7 +330,7 @@ public class MNode implements Serializable {
     this.children = children;
   }
 
-  private void setAliasChildren(Map<String, MNode> aliasChildren) {
+  void setAliasChildren(Map<String, MNode> aliasChildren) {
     this.aliasChildren = aliasChildren;
   }
 
@@ -334,15 +370,17 @@ public class MNode implements Serializable {
     }
 
     // newChildNode builds parent-child relationship
-    Map<String, MNode> grandChildren = oldChildNode.getChildren();
+    Map<String, MNode> grandChildren = oldChildNode.residentChildren();
     newChildNode.setChildren(grandChildren);
-    grandChildren.forEach(
-        (grandChildName, grandChildNode) -> grandChildNode.setParent(newChildNode));
+    oldChildNode
+        .getChildren()
+        .forEach((grandChildName, grandChildNode) -> grandChildNode.setParent(newChildNode));
 
-    Map<String, MNode> grandAliasChildren = oldChildNode.getAliasChildren();
+    Map<String, MNode> grandAliasChildren = oldChildNode.aliasChildren;
     newChildNode.setAliasChildren(grandAliasChildren);
-    grandAliasChildren.forEach(
-        (grandAliasChildName, grandAliasChild) -> grandAliasChild.setParent(newChildNode));
+    oldChildNode
+        .getAliasChildren()
+        .forEach((grandAliasChildName, grandAliasChild) -> grandAliasChild.setParent(newChildNode));
 
     newChildNode.setParent(this);
 
@@ -0,0 +1,416 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.mnode;
+
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the MTree partially resident in memory by evicting the measurement children of the least
+ * recently used devices to a file, and loading them back when the devices are accessed again.
+ *
+ * <p>Storage groups and internal nodes are always resident, as they are few. A device is evicted
+ * with all its measurements, which makes one record of the file: the measurements of a device are
+ * mostly used together, and a record of a device is read with one positioned read. The records are
+ * appended, and the file is compacted once most of it is taken by the records loaded back.
+ *
+ * <p>The devices are tracked after {@link #touch(MNode)}, which should be called when measurements
+ * are added to or deleted from them. A device is not evicted when:
+ *
+ * <ul>
+ *   <li>it is pinned, as the devices written in the working memtables are, see {@link #pin(MNode)}
+ *   <li>some of its children are not plain measurements, e.g. devices or aligned timeseries
+ *   <li>some of its measurements have triggers, tags or attributes, which are referred to by others
+ * </ul>
+ *
+ * <p>The last caches of the evicted measurements are dropped. The MNodes of the measurements are
+ * recreated on loading, so they should not be held for long by others.
+ *
+ * <p>Locks are taken in the order: this store, an MNode, {@link #fileLock}.
+ */
+public class MNodeDiskStore implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(MNodeDiskStore.class);
+
+  private static final long DEFAULT_MIN_COMPACTION_GARBAGE_SIZE = 16L * 1024 * 1024;
+
+  private final File file;
+
+  private final long maxResidentMeasurementNum;
+
+  /** the file is not compacted before it has so many bytes of loaded or deleted records */
+  private final long minCompactionGarbageSize;
+
+  /** guards the reads and writes of the file and the offsets of the records */
+  private final Object fileLock = new Object();
+
+  private FileChannel channel;
+
+  /** total size of the records loaded back or deleted */
+  private final AtomicLong garbageSize = new AtomicLong();
+
+  /** resident device -> number of its children when it is touched, from the least recent one */
+  private final Map<MNode, Integer> residentDevices = new LinkedHashMap<>();
+
+  private long residentMeasurementNum = 0;
+
+  private final Map<MNode, Integer> pinnedDevices = new IdentityHashMap<>();
+
+  private final Set<MNode> evictedDevices = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  /**
+   * devices loaded back, which are moved to residentDevices by the next eviction, as they are
+   * loaded while synchronized on them and this store can not be locked then
+   */
+  private final Queue<MNode> loadedDevices = new ConcurrentLinkedQueue<>();
+
+  /**
+   * @param filePath the file of the evicted MNodes, which is truncated, as the MTree is rebuilt
+   *     from the mlog and snapshot after restarting
+   * @param maxResidentMeasurementNum devices are evicted once their measurements exceed it
+   */
+  public MNodeDiskStore(String filePath, long maxResidentMeasurementNum) throws IOException {
+    this(filePath, maxResidentMeasurementNum, DEFAULT_MIN_COMPACTION_GARBAGE_SIZE);
+  }
+
+  MNodeDiskStore(String filePath, long maxResidentMeasurementNum, long minCompactionGarbageSize)
+      throws IOException {
+    this.file = new File(filePath);
+    this.maxResidentMeasurementNum = maxResidentMeasurementNum;
+    this.minCompactionGarbageSize = minCompactionGarbageSize;
+    this.channel = openChannel(file);
+  }
+
+  private static FileChannel openChannel(File file) throws IOException {
+    FileChannel fileChannel = new RandomAccessFile(file, "rw").getChannel();
+    fileChannel.truncate(0);
+    return fileChannel;
+  }
+
+  /** record the current number of children of the device, and evict devices if there are many */
+  public void touch(MNode device) {
+    synchronized (this) {
+      drainLoadedDevices();
+      updateResidentDevice(device);
+    }
+    evictIfNeeded();
+  }
+
+  /** touch all devices in the subtree, which is built without touching them, e.g. from snapshot */
+  public void touchSubtree(MNode node) {
+    synchronized (this) {
+      drainLoadedDevices();
+      List<MNode> nodes = new ArrayList<>();
+      nodes.add(node);
+      while (!nodes.isEmpty()) {
+        MNode cur = nodes.remove(nodes.size() - 1);
+        for (MNode child : cur.getChildren().values()) {
+          if (!(child instanceof MeasurementMNode)) {
+            nodes.add(child);
+          }
+        }
+        updateResidentDevice(cur);
+      }
+    }
+    evictIfNeeded();
+  }
+
+  private void updateResidentDevice(MNode device) {
+    if (device.getClass() != MNode.class || device.children instanceof EvictedChildren) {
+      return;
+    }
+    Integer oldNum = residentDevices.remove(device);
+    if (oldNum != null) {
+      residentMeasurementNum -= oldNum;
+    }
+    int newNum = device.getChildren().size();
+    if (newNum > 0) {
+      residentDevices.put(device, newNum);
+      residentMeasurementNum += newNum;
+    }
+  }
+
+  private void drainLoadedDevices() {
+    MNode device;
+    while ((device = loadedDevices.poll()) != null) {
+      evictedDevices.remove(device);
+      updateResidentDevice(device);
+    }
+  }
+
+  /** keep the device resident until it is unpinned as many times */
+  public synchronized void pin(MNode device) {
+    pinnedDevices.merge(device, 1, Integer::sum);
+  }
+
+  public synchronized void unpin(MNode device) {
+    pinnedDevices.computeIfPresent(device, (k, v) -> v == 1 ? null : v - 1);
+  }
+
+  /** forget the devices under the path, which are deleted from the MTree */
+  public synchronized void remove(PartialPath path) {
+    drainLoadedDevices();
+    String prefix = path.getFullPath();
+    Iterator<Entry<MNode, Integer>> residentIterator = residentDevices.entrySet().iterator();
+    while (residentIterator.hasNext()) {
+      Entry<MNode, Integer> entry = residentIterator.next();
+      if (isUnder(entry.getKey(), prefix)) {
+        residentMeasurementNum -= entry.getValue();
+        residentIterator.remove();
+      }
+    }
+    Iterator<MNode> evictedIterator = evictedDevices.iterator();
+    while (evictedIterator.hasNext()) {
+      MNode device = evictedIterator.next();
+      Map<String, MNode> children = device.children;
+      if (isUnder(device, prefix) && children instanceof EvictedChildren) {
+        garbageSize.addAndGet(((EvictedChildren) children).length);
+        evictedIterator.remove();
+      }
+    }
+  }
+
+  private static boolean isUnder(MNode node, String prefix) {
+    String fullPath = node.getFullPath();
+    return fullPath.startsWith(prefix)
+        && (fullPath.length() == prefix.length() || fullPath.charAt(prefix.length()) == '.');
+  }
+
+  /** evict the least recently used devices until their measurements are no more than the limit */
+  public synchronized void evictIfNeeded() {
+    drainLoadedDevices();
+    Iterator<Entry<MNode, Integer>> iterator = residentDevices.entrySet().iterator();
+    // the most recent device is kept, even if it alone exceeds the limit
+    while (residentMeasurementNum > maxResidentMeasurementNum && residentDevices.size() > 1) {
+      Entry<MNode, Integer> entry = iterator.next();
+      MNode device = entry.getKey();
+      if (pinnedDevices.containsKey(device)) {
+        if (!iterator.hasNext()) {
+          break;
+        }
+        continue;
+      }
+      // the devices that can not be evicted are touched again if they change
+      iterator.remove();
+      residentMeasurementNum -= entry.getValue();
+      try {
+        if (evict(device)) {
+          evictedDevices.add(device);
+        }
+      } catch (IOException e) {
+        logger.error("Cannot evict the MNodes of {}", device.getFullPath(), e);
+        return;
+      }
+      if (!iterator.hasNext()) {
+        break;
+      }
+    }
+    compactIfNeeded();
+  }
+
+  private boolean evict(MNode device) throws IOException {
+    synchronized (device) {
+      Map<String, MNode> children = device.children;
+      // the aliases refer to the children, so they need no check
+      if (children == null || children instanceof EvictedChildren || !isEvictable(children)) {
+        return false;
+      }
+      PublicBAOS record = new PublicBAOS();
+      ReadWriteIOUtils.write(children.size(), record);
+      for (MNode child : children.values()) {
+        MeasurementMNode measurement = (MeasurementMNode) child;
+        ReadWriteIOUtils.write(measurement.getName(), record);
+        ReadWriteIOUtils.write(measurement.getAlias(), record);
+        measurement.getSchema().serializeTo(record);
+      }
+      long offset;
+      synchronized (fileLock) {
+        offset = channel.size();
+        channel.write(ByteBuffer.wrap(record.getBuf(), 0, record.size()), offset);
+      }
+      device.setAliasChildren(null);
+      device.children = new EvictedChildren(this, device, offset, record.size());
+      return true;
+    }
+  }
+
+  private static boolean isEvictable(Map<String, MNode> children) {
+    for (MNode child : children.values()) {
+      if (child.getClass() != MeasurementMNode.class || child.children != null) {
+        return false;
+      }
+      MeasurementMNode measurement = (MeasurementMNode) child;
+      if (!(measurement.getSchema() instanceof MeasurementSchema)
+          || measurement.getTriggerExecutor() != null
+          || measurement.getOffset() >= 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Load the evicted children of the device back if they are not loaded yet.
+   *
+   * @return the resident children of the device
+   */
+  Map<String, MNode> restore(MNode device) {
+    synchronized (device) {
+      Map<String, MNode> children = device.children;
+      if (!(children instanceof EvictedChildren)) {
+        return children;
+      }
+      EvictedChildren evictedChildren = (EvictedChildren) children;
+      ByteBuffer record = ByteBuffer.allocate(evictedChildren.length);
+      try {
+        synchronized (fileLock) {
+          long offset = evictedChildren.offset;
+          while (record.hasRemaining()) {
+            if (channel.read(record, offset + record.position()) < 0) {
+              throw new IOException("Unexpected end of " + file);
+            }
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(
+            "Cannot load the evicted MNodes of " + device.getFullPath(), e);
+      }
+      record.flip();
+
+      int size = ReadWriteIOUtils.readInt(record);
+      Map<String, MNode> aliasChildren = null;
+      children = null;
+      for (int i = 0; i < size; i++) {
+        String name = ReadWriteIOUtils.readString(record);
+        String alias = ReadWriteIOUtils.readString(record);
+        MeasurementMNode measurement =
+            new MeasurementMNode(device, name, MeasurementSchema.deserializeFrom(record), alias);
+        children = MNode.putIfAbsent(children, measurement.getName(), measurement);
+        if (alias != null) {
+          aliasChildren = MNode.putIfAbsent(aliasChildren, alias, measurement);
+        }
+      }
+      // the aliases are published first, as readers look up the children first
+      device.setAliasChildren(aliasChildren);
+      device.children = children;
+      garbageSize.addAndGet(evictedChildren.length);
+      loadedDevices.add(device);
+      return children;
+    }
+  }
+
+  /** rewrite the records of the evicted devices once the garbage takes most of the file */
+  private void compactIfNeeded() {
+    long garbage = garbageSize.get();
+    synchronized (fileLock) {
+      File tmpFile = new File(file.getPath() + ".tmp");
+      Map<EvictedChildren, Long> newOffsets = new IdentityHashMap<>();
+      try {
+        if (garbage < minCompactionGarbageSize || garbage * 2 < channel.size()) {
+          return;
+        }
+        try (FileChannel newChannel = openChannel(tmpFile)) {
+          for (MNode device : evictedDevices) {
+            Map<String, MNode> children = device.children;
+            if (children instanceof EvictedChildren) {
+              EvictedChildren evictedChildren = (EvictedChildren) children;
+              newOffsets.put(evictedChildren, newChannel.position());
+              long position = evictedChildren.offset;
+              long end = position + evictedChildren.length;
+              while (position < end) {
+                position += channel.transferTo(position, end - position, newChannel);
+              }
+            }
+          }
+          newChannel.force(true);
+        }
+      } catch (IOException e) {
+        logger.error("Cannot compact {}, it is left as it is", file, e);
+        return;
+      }
+
+      try {
+        channel.close();
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        channel = new RandomAccessFile(file, "rw").getChannel();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot replace " + file + " by its compacted copy", e);
+      }
+      for (Entry<EvictedChildren, Long> entry : newOffsets.entrySet()) {
+        entry.getKey().offset = entry.getValue();
+      }
+      garbageSize.addAndGet(-garbage);
+    }
+  }
+
+  public synchronized long getResidentMeasurementNum() {
+    return residentMeasurementNum;
+  }
+
+  public synchronized int getEvictedDeviceNum() {
+    drainLoadedDevices();
+    return evictedDevices.size();
+  }
+
+  long getFileSize() throws IOException {
+    synchronized (fileLock) {
+      return channel.size();
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    residentDevices.clear();
+    residentMeasurementNum = 0;
+    pinnedDevices.clear();
+    evictedDevices.clear();
+    loadedDevices.clear();
+    synchronized (fileLock) {
+      channel.close();
+      Files.deleteIfExists(file.toPath());
+    }
+  }
+}
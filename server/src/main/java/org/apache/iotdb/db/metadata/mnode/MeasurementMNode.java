@@ -21,6 +21,7 @@ package org.apache.iotdb.db.metadata.mnode;
 import org.apache.iotdb.db.engine.trigger.executor.TriggerExecutor;
 import org.apache.iotdb.db.metadata.logfile.MLogWriter;
 import org.apache.iotdb.db.qp.physical.sys.MeasurementMNodePlan;
+import org.apache.iotdb.db.rescon.CachedSchemaPool;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
@@ -37,7 +38,10 @@ public class MeasurementMNode extends MNode {
 
   private static final long serialVersionUID = -1199657856921206435L;
 
-  /** measurement's Schema for one timeseries represented by current leaf node */
+  /**
+   * measurement's Schema for one timeseries represented by current leaf node, shared with the
+   * timeseries of the same schema in other devices by {@link CachedSchemaPool}
+   */
   private IMeasurementSchema schema;
 
   /** alias name of this measurement */
@@ -61,15 +65,17 @@ public class MeasurementMNode extends MNode {
       TSEncoding encoding,
       CompressionType type,
       Map<String, String> props) {
-    super(parent, measurementName);
-    this.schema = new MeasurementSchema(measurementName, dataType, encoding, type, props);
-    this.alias = alias;
+    this(
+        parent,
+        measurementName,
+        new MeasurementSchema(measurementName, dataType, encoding, type, props),
+        alias);
   }
 
   public MeasurementMNode(
       MNode parent, String measurementName, IMeasurementSchema schema, String alias) {
     super(parent, measurementName);
-    this.schema = schema;
+    setSchema(schema);
     this.alias = alias;
   }
 
@@ -139,7 +145,15 @@ public class MeasurementMNode extends MNode {
   }
 
   public void setSchema(IMeasurementSchema schema) {
-    this.schema = schema;
+    if (schema == null) {
+      this.schema = null;
+      return;
+    }
+    this.schema = CachedSchemaPool.getInstance().intern(schema);
+    // share the name of the schema, which is the same for the measurements in all the devices
+    if (this.schema.getMeasurementId().equals(name)) {
+      name = this.schema.getMeasurementId();
+    }
   }
 
   public void setTriggerExecutor(TriggerExecutor triggerExecutor) {
@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.tag;
+
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A sorted set of series ids, compressed in blocks of about {@link #BLOCK_SIZE} ids. A block keeps
+ * its first and last id and the gaps between its ids as unsigned varints, so that the ids of series
+ * created one after another cost about one byte each, and iterators skip the blocks before a target
+ * without decoding them.
+ *
+ * <p>Ids are mostly added in ascending order, which appends to the last block. Other changes decode
+ * and re-encode only the block containing the id. This class is not thread-safe.
+ */
+public class PostingList {
+
+  static final int BLOCK_SIZE = 128;
+
+  private Block[] blocks = new Block[1];
+  private int blockNum;
+  private int size;
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** @return true if the id was not in this list */
+  public boolean add(int id) {
+    if (blockNum == 0 || id > blocks[blockNum - 1].lastId) {
+      if (blockNum == 0 || blocks[blockNum - 1].count >= BLOCK_SIZE) {
+        if (blockNum > 0) {
+          blocks[blockNum - 1].trim();
+        }
+        insertBlock(blockNum, new Block(id));
+      } else {
+        blocks[blockNum - 1].append(id);
+      }
+      size++;
+      return true;
+    }
+
+    int blockIndex = findBlock(id);
+    int[] ids = blocks[blockIndex].decode();
+    int pos = Arrays.binarySearch(ids, id);
+    if (pos >= 0) {
+      return false;
+    }
+    pos = -pos - 1;
+    int[] newIds = new int[ids.length + 1];
+    System.arraycopy(ids, 0, newIds, 0, pos);
+    newIds[pos] = id;
+    System.arraycopy(ids, pos, newIds, pos + 1, ids.length - pos);
+    if (newIds.length > 2 * BLOCK_SIZE) {
+      int half = newIds.length / 2;
+      blocks[blockIndex] = Block.encode(newIds, 0, half);
+      insertBlock(blockIndex + 1, Block.encode(newIds, half, newIds.length));
+    } else {
+      blocks[blockIndex] = Block.encode(newIds, 0, newIds.length);
+    }
+    size++;
+    return true;
+  }
+
+  /** @return true if the id was in this list */
+  public boolean remove(int id) {
+    if (blockNum == 0 || id > blocks[blockNum - 1].lastId) {
+      return false;
+    }
+    int blockIndex = findBlock(id);
+    Block block = blocks[blockIndex];
+    if (id < block.firstId) {
+      return false;
+    }
+    int[] ids = block.decode();
+    int pos = Arrays.binarySearch(ids, id);
+    if (pos < 0) {
+      return false;
+    }
+    if (ids.length == 1) {
+      System.arraycopy(blocks, blockIndex + 1, blocks, blockIndex, blockNum - blockIndex - 1);
+      blocks[--blockNum] = null;
+    } else {
+      int[] newIds = new int[ids.length - 1];
+      System.arraycopy(ids, 0, newIds, 0, pos);
+      System.arraycopy(ids, pos + 1, newIds, pos, newIds.length - pos);
+      blocks[blockIndex] = Block.encode(newIds, 0, newIds.length);
+    }
+    size--;
+    return true;
+  }
+
+  public boolean contains(int id) {
+    if (blockNum == 0 || id > blocks[blockNum - 1].lastId) {
+      return false;
+    }
+    Block block = blocks[findBlock(id)];
+    return id >= block.firstId && Arrays.binarySearch(block.decode(), id) >= 0;
+  }
+
+  public SeriesIdIterator iterator() {
+    return new PostingIterator();
+  }
+
+  /** @return the index of the first block whose last id is not smaller than the id */
+  private int findBlock(int id) {
+    return findBlock(id, 0);
+  }
+
+  private int findBlock(int id, int fromIndex) {
+    int low = fromIndex;
+    int high = blockNum - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (blocks[mid].lastId < id) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private void insertBlock(int index, Block block) {
+    if (blockNum == blocks.length) {
+      blocks = Arrays.copyOf(blocks, blockNum * 2);
+    }
+    System.arraycopy(blocks, index, blocks, index + 1, blockNum - index);
+    blocks[index] = block;
+    blockNum++;
+  }
+
+  /** Write the ids as the number of ids and the gaps between them. */
+  public void serializeTo(OutputStream outputStream) throws IOException {
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(size, outputStream);
+    int previous = 0;
+    for (int i = 0; i < blockNum; i++) {
+      for (int id : blocks[i].decode()) {
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(id - previous, outputStream);
+        previous = id;
+      }
+    }
+  }
+
+  public static PostingList deserializeFrom(InputStream inputStream) throws IOException {
+    PostingList postingList = new PostingList();
+    int size = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+    int id = 0;
+    for (int i = 0; i < size; i++) {
+      id += ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+      postingList.add(id);
+    }
+    return postingList;
+  }
+
+  private static class Block {
+
+    private int firstId;
+    private int lastId;
+    private int count;
+    // the gaps between the ids after the first one
+    private byte[] data;
+    private int length;
+
+    private Block(int firstId) {
+      this.firstId = firstId;
+      this.lastId = firstId;
+      this.count = 1;
+      this.data = new byte[16];
+    }
+
+    private Block(int firstId, int lastId, int count, byte[] data) {
+      this.firstId = firstId;
+      this.lastId = lastId;
+      this.count = count;
+      this.data = data;
+      this.length = data.length;
+    }
+
+    private static Block encode(int[] ids, int from, int to) {
+      int length = 0;
+      for (int i = from + 1; i < to; i++) {
+        length += ReadWriteForEncodingUtils.uVarIntSize(ids[i] - ids[i - 1]);
+      }
+      byte[] data = new byte[length];
+      int pos = 0;
+      for (int i = from + 1; i < to; i++) {
+        pos = writeVarInt(ids[i] - ids[i - 1], data, pos);
+      }
+      return new Block(ids[from], ids[to - 1], to - from, data);
+    }
+
+    private void append(int id) {
+      if (data.length - length < 5) {
+        data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+      }
+      length = writeVarInt(id - lastId, data, length);
+      lastId = id;
+      count++;
+    }
+
+    private void trim() {
+      if (data.length > length) {
+        data = Arrays.copyOf(data, length);
+      }
+    }
+
+    private int[] decode() {
+      int[] ids = new int[count];
+      ids[0] = firstId;
+      int pos = 0;
+      for (int i = 1; i < count; i++) {
+        int gap = 0;
+        int shift = 0;
+        byte b;
+        do {
+          b = data[pos++];
+          gap |= (b & 0x7F) << shift;
+          shift += 7;
+        } while (b < 0);
+        ids[i] = ids[i - 1] + gap;
+      }
+      return ids;
+    }
+
+    private static int writeVarInt(int value, byte[] data, int pos) {
+      while ((value & ~0x7F) != 0) {
+        data[pos++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      data[pos++] = (byte) value;
+      return pos;
+    }
+  }
+
+  private class PostingIterator implements SeriesIdIterator {
+
+    private int blockIndex = -1;
+    private Block block;
+    private int pos;
+    // the number of ids after the current one in the current block
+    private int remaining;
+    private int current = -1;
+
+    @Override
+    public int next() {
+      if (remaining > 0) {
+        int gap = 0;
+        int shift = 0;
+        byte b;
+        do {
+          b = block.data[pos++];
+          gap |= (b & 0x7F) << shift;
+          shift += 7;
+        } while (b < 0);
+        remaining--;
+        current += gap;
+        return current;
+      }
+      return moveToBlock(blockIndex + 1);
+    }
+
+    @Override
+    public int advance(int target) {
+      if (current >= target) {
+        return current;
+      }
+      if (block == null || block.lastId < target) {
+        int from = blockIndex + 1;
+        if (from >= blockNum || blocks[blockNum - 1].lastId < target) {
+          return moveToBlock(blockNum);
+        }
+        moveToBlock(findBlock(target, from));
+      }
+      while (current < target) {
+        next();
+      }
+      return current;
+    }
+
+    private int moveToBlock(int index) {
+      blockIndex = index;
+      if (index >= blockNum) {
+        block = null;
+        remaining = 0;
+        current = NO_MORE_IDS;
+        return current;
+      }
+      block = blocks[index];
+      pos = 0;
+      remaining = block.count - 1;
+      current = block.firstId;
+      return current;
+    }
+
+    @Override
+    public long cost() {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.tag;
+
+/** Iterates series ids in ascending order. */
+public interface SeriesIdIterator {
+
+  /** Returned when the iterator is exhausted. */
+  int NO_MORE_IDS = Integer.MAX_VALUE;
+
+  /** @return the next id, or {@link #NO_MORE_IDS} if there is none */
+  int next();
+
+  /**
+   * Skip to the first id not smaller than the target, which is cheaper than calling {@link #next()}
+   * repeatedly.
+   *
+   * @return the current id if it is not smaller than the target, otherwise the first such id after
+   *     it, or {@link #NO_MORE_IDS} if there is none
+   */
+  int advance(int target);
+
+  /** @return the number of ids at most this iterator returns, used to order intersections */
+  long cost();
+}
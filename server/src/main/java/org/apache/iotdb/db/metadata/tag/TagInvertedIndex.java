@@ -0,0 +1,624 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.tag;
+
+import org.apache.iotdb.db.engine.fileSystem.SystemFileFactory;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.MetadataConstant;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The inverted index from tag key and value to the ids of the series having the tag, kept as
+ * compressed {@link PostingList}s together with the full path of every indexed series.
+ *
+ * <p>The index is persisted as a checkpoint and a log of the changes after it, both in the schema
+ * folder. Every change is appended to the log before it is applied, and the log is merged into a
+ * new checkpoint once it holds more changes than the index holds postings, so recovering the index
+ * costs about as much as reading it once, instead of reading the tags of every series.
+ *
+ * <p>A series id is supplied by the caller and must be stable for the lifetime of the series.
+ */
+public class TagInvertedIndex implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(TagInvertedIndex.class);
+
+  private static final byte[] MAGIC = "TINDEX-1".getBytes(TSFileConfig.STRING_CHARSET);
+
+  private static final byte ADD_TAGS = 0;
+  private static final byte REMOVE_TAGS = 1;
+  private static final byte REMOVE_SERIES = 2;
+
+  private static final int MIN_CHECKPOINT_OPERATION_NUM = 100_000;
+
+  private final File checkpointFile;
+  private final File checkpointTmpFile;
+  private final File logFile;
+  private FileChannel logChannel;
+  private int loggedOperationNum;
+  private final boolean recovered;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  // tag key -> tag value -> ids of the series having the tag
+  private final Map<String, Map<String, PostingList>> index = new HashMap<>();
+  // series id -> full path of the series, null if the series is not indexed
+  private String[] seriesPaths = new String[16];
+  private long postingNum;
+
+  /** Visits the series matching a query. */
+  @FunctionalInterface
+  public interface SeriesVisitor {
+
+    /** @return false to stop the query */
+    boolean visit(int seriesId, String fullPath) throws MetadataException;
+  }
+
+  public TagInvertedIndex(String schemaDir) throws IOException {
+    checkpointFile =
+        SystemFileFactory.INSTANCE.getFile(schemaDir + File.separator + MetadataConstant.TAG_INDEX);
+    checkpointTmpFile =
+        SystemFileFactory.INSTANCE.getFile(
+            schemaDir + File.separator + MetadataConstant.TAG_INDEX_TMP);
+    logFile =
+        SystemFileFactory.INSTANCE.getFile(
+            schemaDir + File.separator + MetadataConstant.TAG_INDEX_LOG);
+    Files.deleteIfExists(checkpointTmpFile.toPath());
+
+    long logLength = 0;
+    boolean isRecovered = false;
+    if (checkpointFile.exists() || logFile.exists()) {
+      try {
+        if (checkpointFile.exists()) {
+          readCheckpoint();
+        }
+        if (logFile.exists()) {
+          logLength = replayLog();
+        }
+        isRecovered = true;
+      } catch (IOException e) {
+        logger.warn("Cannot recover the tag index in {}, it should be rebuilt", schemaDir, e);
+        index.clear();
+        seriesPaths = new String[16];
+        postingNum = 0;
+        loggedOperationNum = 0;
+        logLength = 0;
+      }
+    }
+    recovered = isRecovered;
+
+    logChannel =
+        FileChannel.open(
+            logFile.toPath(),
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.DSYNC);
+    // drop the incomplete record written before a crash, or the whole log if it is not used
+    logChannel.truncate(logLength);
+    logChannel.position(logLength);
+  }
+
+  /**
+   * @return false if the index is new or could not be recovered, in which case the caller should
+   *     rebuild it and make a {@link #checkpoint()}
+   */
+  public boolean isRecovered() {
+    return recovered;
+  }
+
+  public void addTags(int seriesId, String fullPath, Map<String, String> tags) throws IOException {
+    if (tags == null || tags.isEmpty()) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      writeLog(ADD_TAGS, seriesId, fullPath, tags);
+      applyAddTags(seriesId, fullPath, tags);
+      checkpointIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Add the tags without logging them, only used to rebuild the index before a checkpoint. */
+  public void addTagsWithoutLog(int seriesId, String fullPath, Map<String, String> tags) {
+    if (tags == null || tags.isEmpty()) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      applyAddTags(seriesId, fullPath, tags);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void removeTags(int seriesId, Map<String, String> tags) throws IOException {
+    if (tags == null || tags.isEmpty()) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      writeLog(REMOVE_TAGS, seriesId, null, tags);
+      applyRemoveTags(seriesId, tags);
+      checkpointIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Remove the tags and the path of a deleted series. */
+  public void removeSeries(int seriesId, Map<String, String> tags) throws IOException {
+    lock.writeLock().lock();
+    try {
+      writeLog(REMOVE_SERIES, seriesId, null, tags);
+      applyRemoveTags(seriesId, tags);
+      if (seriesId < seriesPaths.length) {
+        seriesPaths[seriesId] = null;
+      }
+      checkpointIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public boolean containsKey(String key) {
+    lock.readLock().lock();
+    try {
+      return index.containsKey(key);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Visit the series matching all the filters in ascending order of their ids. The posting lists of
+   * the filters are intersected from the shortest one, skipping the ids that cannot match, and the
+   * matched series are produced one by one, so a page of the result is found without collecting all
+   * the matches.
+   *
+   * <p>The index is read-locked during the query, so the visitor should not change it.
+   */
+  public void query(List<TagFilter> filters, SeriesVisitor visitor) throws MetadataException {
+    lock.readLock().lock();
+    try {
+      List<SeriesIdIterator> iterators = new ArrayList<>(filters.size());
+      for (TagFilter filter : filters) {
+        SeriesIdIterator iterator = getIterator(filter);
+        if (iterator == null) {
+          return;
+        }
+        iterators.add(iterator);
+      }
+      SeriesIdIterator iterator =
+          iterators.size() == 1 ? iterators.get(0) : new IntersectionIterator(iterators);
+      for (int id = iterator.next(); id != SeriesIdIterator.NO_MORE_IDS; id = iterator.next()) {
+        String fullPath = id < seriesPaths.length ? seriesPaths[id] : null;
+        if (fullPath != null && !visitor.visit(id, fullPath)) {
+          return;
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** @return the ids of the series matching the filter, or null if there is none */
+  private SeriesIdIterator getIterator(TagFilter filter) {
+    Map<String, PostingList> value2Ids = index.get(filter.getKey());
+    if (value2Ids == null || filter.getValue() == null) {
+      return null;
+    }
+    if (!filter.isContains()) {
+      PostingList ids = value2Ids.get(filter.getValue());
+      return ids == null ? null : ids.iterator();
+    }
+    List<SeriesIdIterator> iterators = new ArrayList<>();
+    for (Entry<String, PostingList> entry : value2Ids.entrySet()) {
+      if (filter.matches(entry.getKey())) {
+        iterators.add(entry.getValue().iterator());
+      }
+    }
+    if (iterators.isEmpty()) {
+      return null;
+    }
+    return iterators.size() == 1 ? iterators.get(0) : new UnionIterator(iterators);
+  }
+
+  private void applyAddTags(int seriesId, String fullPath, Map<String, String> tags) {
+    if (seriesId >= seriesPaths.length) {
+      seriesPaths = Arrays.copyOf(seriesPaths, Math.max(seriesId + 1, seriesPaths.length * 2));
+    }
+    seriesPaths[seriesId] = fullPath;
+    for (Entry<String, String> entry : tags.entrySet()) {
+      if (entry.getKey() == null || entry.getValue() == null) {
+        continue;
+      }
+      if (index
+          .computeIfAbsent(entry.getKey(), k -> new HashMap<>())
+          .computeIfAbsent(entry.getValue(), v -> new PostingList())
+          .add(seriesId)) {
+        postingNum++;
+      }
+    }
+  }
+
+  private void applyRemoveTags(int seriesId, Map<String, String> tags) {
+    for (Entry<String, String> entry : tags.entrySet()) {
+      Map<String, PostingList> value2Ids = index.get(entry.getKey());
+      if (value2Ids == null) {
+        continue;
+      }
+      PostingList ids = value2Ids.get(entry.getValue());
+      if (ids != null && ids.remove(seriesId)) {
+        postingNum--;
+        if (ids.isEmpty()) {
+          value2Ids.remove(entry.getValue());
+          if (value2Ids.isEmpty()) {
+            index.remove(entry.getKey());
+          }
+        }
+      }
+    }
+  }
+
+  private void writeLog(byte type, int seriesId, String fullPath, Map<String, String> tags)
+      throws IOException {
+    PublicBAOS body = new PublicBAOS();
+    // reserve the length of the record
+    ReadWriteIOUtils.write(0, body);
+    body.write(type);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(seriesId, body);
+    if (type == ADD_TAGS) {
+      ReadWriteIOUtils.writeVar(fullPath, body);
+    }
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(tags.size(), body);
+    for (Entry<String, String> entry : tags.entrySet()) {
+      ReadWriteIOUtils.writeVar(entry.getKey(), body);
+      ReadWriteIOUtils.writeVar(entry.getValue(), body);
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(body.getBuf(), 0, body.size());
+    buffer.putInt(0, body.size() - Integer.BYTES);
+    long position = logChannel.position();
+    try {
+      while (buffer.hasRemaining()) {
+        logChannel.write(buffer);
+      }
+    } catch (IOException e) {
+      // do not leave an incomplete record before the following ones
+      logChannel.truncate(position);
+      throw e;
+    }
+    loggedOperationNum++;
+  }
+
+  /** @return the length of the complete records in the log */
+  private long replayLog() throws IOException {
+    long fileLength = logFile.length();
+    long length = 0;
+    try (DataInputStream inputStream =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(logFile)))) {
+      while (true) {
+        int recordLength;
+        byte[] record;
+        try {
+          recordLength = inputStream.readInt();
+          if (recordLength < 0 || recordLength > fileLength - length - Integer.BYTES) {
+            break;
+          }
+          record = new byte[recordLength];
+          inputStream.readFully(record);
+        } catch (EOFException e) {
+          break;
+        }
+        try {
+          applyLog(ByteBuffer.wrap(record));
+        } catch (BufferUnderflowException e) {
+          throw new IOException("Malformed record in the tag index log", e);
+        }
+        loggedOperationNum++;
+        length += Integer.BYTES + recordLength;
+      }
+    }
+    return length;
+  }
+
+  private void applyLog(ByteBuffer buffer) {
+    byte type = buffer.get();
+    int seriesId = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    String fullPath = type == ADD_TAGS ? ReadWriteIOUtils.readVarIntString(buffer) : null;
+    int tagNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    Map<String, String> tags = new HashMap<>();
+    for (int i = 0; i < tagNum; i++) {
+      tags.put(
+          ReadWriteIOUtils.readVarIntString(buffer), ReadWriteIOUtils.readVarIntString(buffer));
+    }
+    if (type == ADD_TAGS) {
+      applyAddTags(seriesId, fullPath, tags);
+    } else {
+      applyRemoveTags(seriesId, tags);
+      if (type == REMOVE_SERIES && seriesId < seriesPaths.length) {
+        seriesPaths[seriesId] = null;
+      }
+    }
+  }
+
+  private void checkpointIfNeeded() throws IOException {
+    if (loggedOperationNum >= MIN_CHECKPOINT_OPERATION_NUM && loggedOperationNum >= postingNum) {
+      writeCheckpoint();
+    }
+  }
+
+  /** Write the whole index as a new checkpoint and clear the log. */
+  public void checkpoint() throws IOException {
+    lock.writeLock().lock();
+    try {
+      writeCheckpoint();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void writeCheckpoint() throws IOException {
+    long time = System.currentTimeMillis();
+    CRC32 crc32 = new CRC32();
+    try (FileOutputStream fileOutputStream = new FileOutputStream(checkpointTmpFile)) {
+      DataOutputStream outputStream =
+          new DataOutputStream(
+              new CheckedOutputStream(new BufferedOutputStream(fileOutputStream), crc32));
+      outputStream.write(MAGIC);
+      int seriesNum = 0;
+      for (String fullPath : seriesPaths) {
+        if (fullPath != null) {
+          seriesNum++;
+        }
+      }
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(seriesNum, outputStream);
+      for (int i = 0; i < seriesPaths.length; i++) {
+        if (seriesPaths[i] != null) {
+          ReadWriteForEncodingUtils.writeUnsignedVarInt(i, outputStream);
+          ReadWriteIOUtils.writeVar(seriesPaths[i], outputStream);
+        }
+      }
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(index.size(), outputStream);
+      for (Entry<String, Map<String, PostingList>> keyEntry : index.entrySet()) {
+        ReadWriteIOUtils.writeVar(keyEntry.getKey(), outputStream);
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(keyEntry.getValue().size(), outputStream);
+        for (Entry<String, PostingList> valueEntry : keyEntry.getValue().entrySet()) {
+          ReadWriteIOUtils.writeVar(valueEntry.getKey(), outputStream);
+          valueEntry.getValue().serializeTo(outputStream);
+        }
+      }
+      // the checksum is not a part of itself
+      long checksum = crc32.getValue();
+      outputStream.writeLong(checksum);
+      outputStream.flush();
+      fileOutputStream.getFD().sync();
+    }
+    Files.move(
+        checkpointTmpFile.toPath(),
+        checkpointFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    logChannel.truncate(0);
+    logChannel.position(0);
+    loggedOperationNum = 0;
+    logger.info(
+        "Write a checkpoint of the tag index with {} postings, spend {} ms",
+        postingNum,
+        System.currentTimeMillis() - time);
+  }
+
+  private void readCheckpoint() throws IOException {
+    CRC32 crc32 = new CRC32();
+    try (DataInputStream inputStream =
+        new DataInputStream(
+            new CheckedInputStream(
+                new BufferedInputStream(new FileInputStream(checkpointFile)), crc32))) {
+      byte[] magic = new byte[MAGIC.length];
+      inputStream.readFully(magic);
+      if (!Arrays.equals(magic, MAGIC)) {
+        throw new IOException("Not a tag index checkpoint: " + checkpointFile);
+      }
+      int seriesNum = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+      for (int i = 0; i < seriesNum; i++) {
+        int seriesId = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+        if (seriesId >= seriesPaths.length) {
+          seriesPaths = Arrays.copyOf(seriesPaths, Math.max(seriesId + 1, seriesPaths.length * 2));
+        }
+        seriesPaths[seriesId] = readString(inputStream);
+      }
+      int keyNum = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+      for (int i = 0; i < keyNum; i++) {
+        String key = readString(inputStream);
+        int valueNum = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+        Map<String, PostingList> value2Ids = new HashMap<>(valueNum * 4 / 3 + 1);
+        for (int j = 0; j < valueNum; j++) {
+          String value = readString(inputStream);
+          PostingList ids = PostingList.deserializeFrom(inputStream);
+          value2Ids.put(value, ids);
+          postingNum += ids.size();
+        }
+        index.put(key, value2Ids);
+      }
+      long checksum = crc32.getValue();
+      if (inputStream.readLong() != checksum) {
+        throw new IOException("The checksum of the tag index checkpoint does not match");
+      }
+    }
+  }
+
+  private static String readString(InputStream inputStream) throws IOException {
+    int length = ReadWriteForEncodingUtils.readVarInt(inputStream);
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    new DataInputStream(inputStream).readFully(bytes);
+    return new String(bytes, TSFileConfig.STRING_CHARSET);
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.writeLock().lock();
+    try {
+      if (logChannel == null) {
+        return;
+      }
+      if (loggedOperationNum > 0) {
+        writeCheckpoint();
+      }
+      logChannel.close();
+      logChannel = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Iterates the ids in any of the iterators. */
+  private static class UnionIterator implements SeriesIdIterator {
+
+    private final PriorityQueue<SubIterator> queue;
+    private final long cost;
+    private int current = -1;
+
+    private UnionIterator(List<SeriesIdIterator> iterators) {
+      queue = new PriorityQueue<>(iterators.size(), Comparator.comparingInt(s -> s.current));
+      long totalCost = 0;
+      for (SeriesIdIterator iterator : iterators) {
+        queue.add(new SubIterator(iterator));
+        totalCost += iterator.cost();
+      }
+      cost = totalCost;
+    }
+
+    @Override
+    public int next() {
+      return advance(current + 1);
+    }
+
+    @Override
+    public int advance(int target) {
+      if (current >= target) {
+        return current;
+      }
+      while (!queue.isEmpty() && queue.peek().current < target) {
+        SubIterator sub = queue.poll();
+        sub.current = sub.iterator.advance(target);
+        if (sub.current != NO_MORE_IDS) {
+          queue.add(sub);
+        }
+      }
+      current = queue.isEmpty() ? NO_MORE_IDS : queue.peek().current;
+      return current;
+    }
+
+    @Override
+    public long cost() {
+      return cost;
+    }
+
+    private static class SubIterator {
+
+      private final SeriesIdIterator iterator;
+      private int current = -1;
+
+      private SubIterator(SeriesIdIterator iterator) {
+        this.iterator = iterator;
+      }
+    }
+  }
+
+  /** Iterates the ids in all the iterators, leaping every iterator to the largest current id. */
+  private static class IntersectionIterator implements SeriesIdIterator {
+
+    private final SeriesIdIterator[] iterators;
+    private int current = -1;
+
+    private IntersectionIterator(List<SeriesIdIterator> iterators) {
+      this.iterators = iterators.toArray(new SeriesIdIterator[0]);
+      // the shortest one leads
+      Arrays.sort(this.iterators, Comparator.comparingLong(SeriesIdIterator::cost));
+    }
+
+    @Override
+    public int next() {
+      return advance(current + 1);
+    }
+
+    @Override
+    public int advance(int target) {
+      if (current >= target) {
+        return current;
+      }
+      int candidate = iterators[0].advance(target);
+      int i = 1;
+      while (candidate != NO_MORE_IDS && i < iterators.length) {
+        int id = iterators[i].advance(candidate);
+        if (id == candidate) {
+          i++;
+        } else {
+          candidate = iterators[0].advance(id);
+          i = 1;
+        }
+      }
+      current = candidate;
+      return current;
+    }
+
+    @Override
+    public long cost() {
+      return iterators[0].cost();
+    }
+  }
+}
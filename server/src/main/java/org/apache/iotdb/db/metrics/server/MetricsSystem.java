@@ -20,6 +20,7 @@ package org.apache.iotdb.db.metrics.server;
 
 import org.apache.iotdb.db.metrics.sink.MetricsServletSink;
 import org.apache.iotdb.db.metrics.sink.Sink;
+import org.apache.iotdb.db.metrics.source.CompactionSource;
 import org.apache.iotdb.db.metrics.source.MetricsSource;
 import org.apache.iotdb.db.metrics.source.Source;
 
@@ -76,6 +77,9 @@ public class MetricsSystem {
     MetricsSource source = new MetricsSource(serverArgument, metricRegistry);
     source.registerInfo();
     sources.add(source);
+    CompactionSource compactionSource = new CompactionSource(metricRegistry);
+    compactionSource.registerInfo();
+    sources.add(compactionSource);
   }
 
   public void registerSinks() {}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metrics.source;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * The throughput of compactions, i.e., the points and bytes written into the target files per
+ * second. The meters are marked even if the metrics service is not started.
+ */
+public class CompactionSource implements Source {
+
+  public static final String SOURCE_NAME = "compaction";
+
+  private static final Meter WRITTEN_POINTS = new Meter();
+  private static final Meter WRITTEN_BYTES = new Meter();
+
+  public MetricRegistry metricRegistry;
+
+  public CompactionSource(MetricRegistry metricRegistry) {
+    this.metricRegistry = metricRegistry;
+  }
+
+  public void registerInfo() {
+    metricRegistry.register(MetricRegistry.name(SOURCE_NAME, "written_points"), WRITTEN_POINTS);
+    metricRegistry.register(MetricRegistry.name(SOURCE_NAME, "written_bytes"), WRITTEN_BYTES);
+  }
+
+  public static void markWritten(long pointNum, long byteNum) {
+    WRITTEN_POINTS.mark(pointNum);
+    WRITTEN_BYTES.mark(byteNum);
+  }
+
+  @Override
+  public String sourceName() {
+    return CompactionSource.SOURCE_NAME;
+  }
+}
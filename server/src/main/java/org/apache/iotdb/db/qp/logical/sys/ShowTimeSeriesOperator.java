@@ -21,16 +21,18 @@ package org.apache.iotdb.db.qp.logical.sys;
 
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metadata.tag.TagFilter;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.qp.physical.sys.ShowTimeSeriesPlan;
 import org.apache.iotdb.db.qp.strategy.PhysicalGenerator;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ShowTimeSeriesOperator extends ShowOperator {
 
   private PartialPath path;
-  private boolean isContains;
-  private String key;
-  private String value;
+  private final List<TagFilter> tagFilters = new ArrayList<>();
   private int limit = 0;
   private int offset = 0;
   // if is true, the result will be sorted according to the inserting frequency of the timeseries
@@ -46,28 +48,12 @@ public class ShowTimeSeriesOperator extends ShowOperator {
     return path;
   }
 
-  public boolean isContains() {
-    return isContains;
-  }
-
-  public void setContains(boolean contains) {
-    isContains = contains;
-  }
-
-  public String getKey() {
-    return key;
-  }
-
-  public void setKey(String key) {
-    this.key = key;
-  }
-
-  public String getValue() {
-    return value;
+  public List<TagFilter> getTagFilters() {
+    return tagFilters;
   }
 
-  public void setValue(String value) {
-    this.value = value;
+  public void addTagFilter(TagFilter tagFilter) {
+    tagFilters.add(tagFilter);
   }
 
   public int getLimit() {
@@ -94,9 +80,7 @@ public class ShowTimeSeriesOperator extends ShowOperator {
   public PhysicalPlan generatePhysicalPlan(PhysicalGenerator generator)
       throws QueryProcessException {
     ShowTimeSeriesPlan showTimeSeriesPlan = new ShowTimeSeriesPlan(path, limit, offset);
-    showTimeSeriesPlan.setIsContains(isContains);
-    showTimeSeriesPlan.setKey(key);
-    showTimeSeriesPlan.setValue(value);
+    showTimeSeriesPlan.setTagFilters(tagFilters);
     showTimeSeriesPlan.setOrderByHeat(orderByHeat);
     return showTimeSeriesPlan;
   }
@@ -464,7 +464,10 @@ public abstract class PhysicalPlan {
     CREATE_SNAPSHOT,
     CLEARCACHE,
     CREATE_FUNCTION,
-    DROP_FUNCTION
+    DROP_FUNCTION,
+    // the records of NodeIdDictionary in WAL files
+    DEFINE_NODE_ID,
+    INSERT_WITH_NODE_IDS
   }
 
   public long getIndex() {
@@ -536,6 +536,11 @@ public class InsertRowPlan extends InsertPlan {
         putString(buffer, measurement);
       }
     }
+    serializeValues(buffer);
+  }
+
+  /** Serialize the parts of the plan following the measurements, i.e., the values and flags. */
+  public void serializeValues(ByteBuffer buffer) {
     try {
       buffer.putInt(dataTypes.length);
       putValues(buffer);
@@ -564,7 +569,11 @@ public class InsertRowPlan extends InsertPlan {
     for (int i = 0; i < measurementSize; i++) {
       measurements[i] = readString(buffer);
     }
+    deserializeValues(buffer);
+  }
 
+  /** Deserialize the parts of the plan following the measurements, see serializeValues. */
+  public void deserializeValues(ByteBuffer buffer) {
     int dataTypeSize = buffer.getInt();
     this.dataTypes = new TSDataType[dataTypeSize];
     this.values = new Object[dataTypeSize];
@@ -20,16 +20,18 @@ package org.apache.iotdb.db.qp.physical.sys;
 
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metadata.tag.TagFilter;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ShowTimeSeriesPlan extends ShowPlan {
 
-  private boolean isContains;
-  private String key;
-  private String value;
+  // the timeseries should match all the filters
+  private List<TagFilter> tagFilters = new ArrayList<>();
 
   // if is true, the result will be sorted according to the inserting frequency of the timeseries
   private boolean orderByHeat;
@@ -48,9 +50,9 @@ public class ShowTimeSeriesPlan extends ShowPlan {
       boolean orderByHeat) {
     super(ShowContentType.TIMESERIES);
     this.path = path;
-    this.isContains = isContains;
-    this.key = key;
-    this.value = value;
+    if (key != null && value != null) {
+      tagFilters.add(new TagFilter(key, value, isContains));
+    }
     this.limit = limit;
     this.offset = offset;
     this.orderByHeat = orderByHeat;
@@ -64,28 +66,27 @@ public class ShowTimeSeriesPlan extends ShowPlan {
     super(ShowContentType.TIMESERIES);
   }
 
-  public boolean isContains() {
-    return isContains;
+  public List<TagFilter> getTagFilters() {
+    return tagFilters;
   }
 
-  public void setIsContains(boolean isContains) {
-    this.isContains = isContains;
+  public void setTagFilters(List<TagFilter> tagFilters) {
+    this.tagFilters = tagFilters;
   }
 
-  public String getKey() {
-    return key;
+  /** @return whether the first tag filter is a contains filter */
+  public boolean isContains() {
+    return !tagFilters.isEmpty() && tagFilters.get(0).isContains();
   }
 
-  public void setKey(String key) {
-    this.key = key;
+  /** @return the tag key of the first tag filter */
+  public String getKey() {
+    return tagFilters.isEmpty() ? null : tagFilters.get(0).getKey();
   }
 
+  /** @return the tag value of the first tag filter */
   public String getValue() {
-    return value;
-  }
-
-  public void setValue(String value) {
-    this.value = value;
+    return tagFilters.isEmpty() ? null : tagFilters.get(0).getValue();
   }
 
   public boolean isOrderByHeat() {
@@ -100,9 +101,12 @@ public class ShowTimeSeriesPlan extends ShowPlan {
   public void serialize(DataOutputStream outputStream) throws IOException {
     outputStream.write(PhysicalPlanType.SHOW_TIMESERIES.ordinal());
     putString(outputStream, path.getFullPath());
-    outputStream.writeBoolean(isContains);
-    putString(outputStream, key);
-    putString(outputStream, value);
+    outputStream.writeInt(tagFilters.size());
+    for (TagFilter tagFilter : tagFilters) {
+      outputStream.writeBoolean(tagFilter.isContains());
+      putString(outputStream, tagFilter.getKey());
+      putString(outputStream, tagFilter.getValue());
+    }
     outputStream.writeInt(limit);
     outputStream.writeInt(offset);
     outputStream.writeBoolean(orderByHeat);
@@ -112,9 +116,14 @@ public class ShowTimeSeriesPlan extends ShowPlan {
   @Override
   public void deserialize(ByteBuffer buffer) throws IllegalPathException {
     path = new PartialPath(readString(buffer));
-    isContains = buffer.get() == 1;
-    key = readString(buffer);
-    value = readString(buffer);
+    int tagFilterNum = buffer.getInt();
+    tagFilters = new ArrayList<>(tagFilterNum);
+    for (int i = 0; i < tagFilterNum; i++) {
+      boolean isContains = buffer.get() == 1;
+      String key = readString(buffer);
+      String value = readString(buffer);
+      tagFilters.add(new TagFilter(key, value, isContains));
+    }
     limit = buffer.getInt();
     offset = buffer.getInt();
     orderByHeat = buffer.get() == 1;
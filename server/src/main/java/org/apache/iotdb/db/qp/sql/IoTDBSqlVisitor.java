@@ -25,6 +25,7 @@ import org.apache.iotdb.db.exception.runtime.SQLParserException;
 import org.apache.iotdb.db.index.common.IndexType;
 import org.apache.iotdb.db.index.common.IndexUtils;
 import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metadata.tag.TagFilter;
 import org.apache.iotdb.db.qp.constant.FilterConstant;
 import org.apache.iotdb.db.qp.constant.FilterConstant.FilterType;
 import org.apache.iotdb.db.qp.constant.SQLConstant;
@@ -225,6 +226,7 @@ import org.apache.iotdb.db.qp.sql.SqlBaseParser.StopTriggerContext;
 import org.apache.iotdb.db.qp.sql.SqlBaseParser.StringLiteralContext;
 import org.apache.iotdb.db.qp.sql.SqlBaseParser.SuffixPathContext;
 import org.apache.iotdb.db.qp.sql.SqlBaseParser.TagClauseContext;
+import org.apache.iotdb.db.qp.sql.SqlBaseParser.TagPredicateContext;
 import org.apache.iotdb.db.qp.sql.SqlBaseParser.TimeIntervalContext;
 import org.apache.iotdb.db.qp.sql.SqlBaseParser.TopClauseContext;
 import org.apache.iotdb.db.qp.sql.SqlBaseParser.TracingOffContext;
@@ -1866,23 +1868,27 @@ public class IoTDBSqlVisitor extends SqlBaseBaseVisitor<Operator> {
   }
 
   private void parseShowWhereClause(ShowWhereClauseContext ctx, ShowTimeSeriesOperator operator) {
-    PropertyValueContext propertyValueContext;
-    if (ctx.containsExpression() != null) {
-      operator.setContains(true);
-      propertyValueContext = ctx.containsExpression().propertyValue();
-      operator.setKey(ctx.containsExpression().ID().getText());
-    } else {
-      operator.setContains(false);
-      propertyValueContext = ctx.property().propertyValue();
-      operator.setKey(ctx.property().ID().getText());
-    }
-    String value;
-    if (propertyValueContext.stringLiteral() != null) {
-      value = removeStringQuote(propertyValueContext.getText());
-    } else {
-      value = propertyValueContext.getText();
+    for (TagPredicateContext tagPredicate : ctx.tagPredicate()) {
+      PropertyValueContext propertyValueContext;
+      String key;
+      boolean isContains;
+      if (tagPredicate.containsExpression() != null) {
+        isContains = true;
+        propertyValueContext = tagPredicate.containsExpression().propertyValue();
+        key = tagPredicate.containsExpression().ID().getText();
+      } else {
+        isContains = false;
+        propertyValueContext = tagPredicate.property().propertyValue();
+        key = tagPredicate.property().ID().getText();
+      }
+      String value;
+      if (propertyValueContext.stringLiteral() != null) {
+        value = removeStringQuote(propertyValueContext.getText());
+      } else {
+        value = propertyValueContext.getText();
+      }
+      operator.addTagFilter(new TagFilter(key, value, isContains));
     }
-    operator.setValue(value);
   }
 
   private String[] parsePrivilege(PrivilegesContext ctx) {
@@ -26,6 +26,7 @@ import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
@@ -87,6 +88,52 @@ public abstract class AggregateResult {
   public abstract void updateResultFromPageData(
       BatchData dataInThisPage, long minBound, long maxBound) throws IOException;
 
+  /**
+   * Calculate the aggregation using the data in each page in columns. The default implementation
+   * converts the columns to a BatchData, aggregations that read every point should override it to
+   * read the primitive columns.
+   *
+   * @param dataInThisPage the data in Page
+   */
+  public void updateResultFromColumnBatch(ColumnBatch dataInThisPage)
+      throws IOException, QueryProcessException {
+    updateResultFromPageData(dataInThisPage.toBatchData(0));
+  }
+
+  /**
+   * Calculate the aggregation using the points of the columns from index from, until the first
+   * point out of the bounds, as {@link #updateResultFromPageData(BatchData, long, long)} does.
+   *
+   * @param dataInThisPage the data in Page
+   * @param from index of the first point to calculate
+   * @param minBound calculate points whose time >= bound
+   * @param maxBound calculate points whose time < bound
+   * @return index of the first point that is not consumed
+   */
+  public int updateResultFromColumnBatch(
+      ColumnBatch dataInThisPage, int from, long minBound, long maxBound) throws IOException {
+    BatchData batchData = dataInThisPage.toBatchData(from);
+    updateResultFromPageData(batchData, minBound, maxBound);
+    int remaining = 0;
+    while (batchData.hasCurrent()) {
+      remaining++;
+      batchData.next();
+    }
+    int consumed = batchData.length() - remaining;
+    if (!dataInThisPage.hasNull()) {
+      return from + consumed;
+    }
+    // the null values are not put into the BatchData, skip them to find the index
+    int index = from;
+    while (consumed > 0 || (index < dataInThisPage.size() && dataInThisPage.isNull(index))) {
+      if (!dataInThisPage.isNull(index)) {
+        consumed--;
+      }
+      index++;
+    }
+    return index;
+  }
+
   /**
    * This method calculates the aggregation using common timestamps of the cross series filter.
    *
@@ -29,6 +29,7 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.BooleanStatistics;
 import org.apache.iotdb.tsfile.file.metadata.statistics.IntegerStatistics;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.IOException;
@@ -97,6 +98,56 @@ public class AvgAggrResult extends AggregateResult {
     }
   }
 
+  @Override
+  public void updateResultFromColumnBatch(ColumnBatch dataInThisPage) throws IOException {
+    updateResultFromColumnBatch(dataInThisPage, 0, Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  @Override
+  public int updateResultFromColumnBatch(
+      ColumnBatch dataInThisPage, int from, long minBound, long maxBound) throws IOException {
+    long[] times = dataInThisPage.getTimes();
+    int size = dataInThisPage.size();
+    int index = from;
+    switch (seriesDataType) {
+      case INT32:
+        int[] intValues = dataInThisPage.getIntValues();
+        for (; index < size && times[index] < maxBound && times[index] >= minBound; index++) {
+          if (!dataInThisPage.isNull(index)) {
+            updateAvg(intValues[index]);
+          }
+        }
+        break;
+      case INT64:
+        long[] longValues = dataInThisPage.getLongValues();
+        for (; index < size && times[index] < maxBound && times[index] >= minBound; index++) {
+          if (!dataInThisPage.isNull(index)) {
+            updateAvg(longValues[index]);
+          }
+        }
+        break;
+      case FLOAT:
+        float[] floatValues = dataInThisPage.getFloatValues();
+        for (; index < size && times[index] < maxBound && times[index] >= minBound; index++) {
+          if (!dataInThisPage.isNull(index)) {
+            updateAvg(floatValues[index]);
+          }
+        }
+        break;
+      case DOUBLE:
+        double[] doubleValues = dataInThisPage.getDoubleValues();
+        for (; index < size && times[index] < maxBound && times[index] >= minBound; index++) {
+          if (!dataInThisPage.isNull(index)) {
+            updateAvg(doubleValues[index]);
+          }
+        }
+        break;
+      default:
+        return super.updateResultFromColumnBatch(dataInThisPage, from, minBound, maxBound);
+    }
+    return index;
+  }
+
   @Override
   public void updateResultUsingTimestamps(
       long[] timestamps, int length, IReaderByTimestamp dataReader) throws IOException {
@@ -138,6 +189,10 @@ public class AvgAggrResult extends AggregateResult {
         throw new UnSupportedDataTypeException(
             String.format("Unsupported data type in aggregation AVG : %s", type));
     }
+    updateAvg(val);
+  }
+
+  private void updateAvg(double val) {
     avg = (avg * cnt + val) / (cnt + 1);
     cnt++;
   }
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.query.reader.series.IReaderByTimestamp;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -66,6 +67,37 @@ public class CountAggrResult extends AggregateResult {
     setLongValue(getLongValue() + cnt);
   }
 
+  @Override
+  public void updateResultFromColumnBatch(ColumnBatch dataInThisPage) {
+    int cnt = dataInThisPage.size();
+    if (dataInThisPage.hasNull()) {
+      for (int i = 0; i < dataInThisPage.size(); i++) {
+        if (dataInThisPage.isNull(i)) {
+          cnt--;
+        }
+      }
+    }
+    setLongValue(getLongValue() + cnt);
+  }
+
+  @Override
+  public int updateResultFromColumnBatch(
+      ColumnBatch dataInThisPage, int from, long minBound, long maxBound) {
+    long[] times = dataInThisPage.getTimes();
+    int cnt = 0;
+    int index = from;
+    for (; index < dataInThisPage.size(); index++) {
+      if (times[index] >= maxBound || times[index] < minBound) {
+        break;
+      }
+      if (!dataInThisPage.isNull(index)) {
+        cnt++;
+      }
+    }
+    setLongValue(getLongValue() + cnt);
+    return index;
+  }
+
   @Override
   public void updateResultUsingTimestamps(
       long[] timestamps, int length, IReaderByTimestamp dataReader) throws IOException {
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.query.reader.series.IReaderByTimestamp;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -63,6 +64,30 @@ public class MinValueAggrResult extends AggregateResult {
     }
   }
 
+  @Override
+  public void updateResultFromColumnBatch(ColumnBatch dataInThisPage) {
+    updateResultFromColumnBatch(dataInThisPage, 0, Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  @Override
+  public int updateResultFromColumnBatch(
+      ColumnBatch dataInThisPage, int from, long minBound, long maxBound) {
+    long[] times = dataInThisPage.getTimes();
+    int minIndex = -1;
+    int index = from;
+    int size = dataInThisPage.size();
+    for (; index < size && times[index] < maxBound && times[index] >= minBound; index++) {
+      if (!dataInThisPage.isNull(index)
+          && (minIndex < 0 || dataInThisPage.compareValues(index, minIndex) < 0)) {
+        minIndex = index;
+      }
+    }
+    if (minIndex >= 0) {
+      updateResult((Comparable<Object>) dataInThisPage.getValue(minIndex));
+    }
+    return index;
+  }
+
   @Override
   public void updateResultUsingTimestamps(
       long[] timestamps, int length, IReaderByTimestamp dataReader) throws IOException {
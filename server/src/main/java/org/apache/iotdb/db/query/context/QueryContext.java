@@ -20,12 +20,12 @@
 package org.apache.iotdb.db.query.context;
 
 import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.modification.ModificationCache;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.engine.modification.ModificationIndex;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -39,11 +39,12 @@ public class QueryContext {
    */
   private Map<String, Map<String, List<Modification>>> filePathModCache = new ConcurrentHashMap<>();
   /**
-   * The key is the path of a ModificationFile and the value is all Modifications in this file. We
-   * use this field because each call of Modification.getModifications() return a copy of the
-   * Modifications, and we do not want it to create multiple copies within a query.
+   * The key is the path of a ModificationFile and the value is all Modifications in this file,
+   * shared by the queries through {@link ModificationCache}. The index is kept for the query so
+   * that its series see the same Modifications even if the file is appended during the query. The
+   * series of a query may be read by several threads, so the caches are concurrent maps.
    */
-  private Map<String, List<Modification>> fileModCache = new HashMap<>();
+  private Map<String, ModificationIndex> fileModCache = new ConcurrentHashMap<>();
 
   private long queryId;
 
@@ -71,23 +72,11 @@ public class QueryContext {
         filePathModCache.computeIfAbsent(modFile.getFilePath(), k -> new ConcurrentHashMap<>());
     return fileModifications.computeIfAbsent(
         path.getFullPath(),
-        k -> {
-          List<Modification> allModifications = fileModCache.get(modFile.getFilePath());
-          if (allModifications == null) {
-            allModifications = (List<Modification>) modFile.getModifications();
-            fileModCache.put(modFile.getFilePath(), allModifications);
-          }
-          List<Modification> finalPathModifications = new ArrayList<>();
-          if (!allModifications.isEmpty()) {
-            allModifications.forEach(
-                modification -> {
-                  if (modification.getPath().matchFullPath(path)) {
-                    finalPathModifications.add(modification);
-                  }
-                });
-          }
-          return finalPathModifications;
-        });
+        k ->
+            fileModCache
+                .computeIfAbsent(
+                    modFile.getFilePath(), p -> ModificationCache.getInstance().get(modFile))
+                .getModifications(path));
   }
 
   public long getQueryId() {
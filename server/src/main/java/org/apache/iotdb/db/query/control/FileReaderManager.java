@@ -24,14 +24,19 @@ import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.service.IService;
 import org.apache.iotdb.db.service.ServiceType;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.fileSystem.FSType;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.UnClosedTsFileReader;
+import org.apache.iotdb.tsfile.read.reader.MmapTsFileInput;
 import org.apache.iotdb.tsfile.v2.read.TsFileSequenceReaderForV2;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -169,7 +174,7 @@ public class FileReaderManager implements IService {
       if (!isClosed) {
         tsFileReader = new UnClosedTsFileReader(filePath);
       } else {
-        tsFileReader = new TsFileSequenceReader(filePath);
+        tsFileReader = openClosedFileReader(filePath);
         if (tsFileReader.readVersionNumber() != TSFileConfig.VERSION_NUMBER) {
           tsFileReader.close();
           tsFileReader = new TsFileSequenceReaderForV2(filePath);
@@ -187,6 +192,23 @@ public class FileReaderManager implements IService {
     return readerMap.get(filePath);
   }
 
+  /**
+   * Open the reader of a sealed file. If enable_mmap_tsfile_read is set, the local file is mapped
+   * into memory, and the chunks read by the reader are read-only views of the mapping without
+   * arrays. The mapping is unmapped when the reader is closed: a managed reader is closed once no
+   * query references the file, or by {@link #closeFileAndRemoveReader} under the write lock of the
+   * file before a merge rewrites it or the file is deleted, so the chunks must not be kept beyond
+   * the query or the task reading them.
+   */
+  public static TsFileSequenceReader openClosedFileReader(String filePath) throws IOException {
+    if (IoTDBDescriptor.getInstance().getConfig().isEnableMmapTsFileRead()
+        && TSFileDescriptor.getInstance().getConfig().getTSFileStorageFs() == FSType.LOCAL
+        && new File(filePath).length() <= MmapTsFileInput.MAX_MAPPED_SIZE) {
+      return new TsFileSequenceReader(filePath, new MmapTsFileInput(Paths.get(filePath)));
+    }
+    return new TsFileSequenceReader(filePath);
+  }
+
   /**
    * Increase the reference count of the reader specified by filePath. Only when the reference count
    * of a reader equals zero, the reader can be closed and removed.
@@ -255,6 +277,13 @@ public class FileReaderManager implements IService {
         || (!isClosed && unclosedFileReaderMap.containsKey(tsFile.getTsFilePath()));
   }
 
+  /** This method is only for unit tests. */
+  public synchronized int getReferenceCount(TsFileResource tsFile, boolean isClosed) {
+    AtomicInteger reference =
+        (isClosed ? closedReferenceMap : unclosedReferenceMap).get(tsFile.getTsFilePath());
+    return reference == null ? 0 : reference.get();
+  }
+
   @Override
   public void start() {
     // Do nothing
@@ -29,6 +29,7 @@ import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.externalsort.serialize.IExternalSortFileDeserializer;
+import org.apache.iotdb.db.query.reader.series.PartitionedSeriesRawDataBatchReader;
 import org.apache.iotdb.db.query.udf.service.TemporaryQueryDataFileService;
 import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
@@ -39,6 +40,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -73,9 +75,17 @@ public class QueryResourceManager {
    */
   private final Map<Long, List<IExternalSortFileDeserializer>> externalSortFileMap;
 
+  /**
+   * Record the series readers that read ahead in the query thread pool.
+   *
+   * <p>Key: query job id. Value: readers to close before the files of the query are released.
+   */
+  private final Map<Long, List<PartitionedSeriesRawDataBatchReader>> prefetchingReaderMap;
+
   private QueryResourceManager() {
     filePathsManager = new QueryFileManager();
     externalSortFileMap = new ConcurrentHashMap<>();
+    prefetchingReaderMap = new ConcurrentHashMap<>();
   }
 
   public static QueryResourceManager getInstance() {
@@ -110,6 +120,18 @@ public class QueryResourceManager {
     externalSortFileMap.computeIfAbsent(queryId, x -> new ArrayList<>()).add(deserializer);
   }
 
+  /**
+   * register a reader that prefetches in the query thread pool, to close it when the query ends.
+   *
+   * @param queryId query job id
+   * @param reader reader of a series
+   */
+  public void registerPrefetchingReader(long queryId, PartitionedSeriesRawDataBatchReader reader) {
+    prefetchingReaderMap
+        .computeIfAbsent(queryId, x -> Collections.synchronizedList(new ArrayList<>()))
+        .add(reader);
+  }
+
   public QueryDataSource getQueryDataSource(
       PartialPath selectedPath, QueryContext context, Filter filter)
       throws StorageEngineException, QueryProcessException {
@@ -172,6 +194,15 @@ public class QueryResourceManager {
       externalSortFileMap.remove(queryId);
     }
 
+    // stop prefetching before the files it reads are released
+    List<PartitionedSeriesRawDataBatchReader> prefetchingReaders =
+        prefetchingReaderMap.remove(queryId);
+    if (prefetchingReaders != null) {
+      for (PartitionedSeriesRawDataBatchReader reader : prefetchingReaders) {
+        reader.close();
+      }
+    }
+
     // remove usage of opened file paths of current thread
     filePathsManager.removeUsedFilesForQuery(queryId);
 
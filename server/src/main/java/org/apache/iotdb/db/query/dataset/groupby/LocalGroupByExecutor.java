@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.query.dataset.groupby;
 
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.rollup.SeriesRollup;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.PartialPath;
@@ -31,7 +32,7 @@ import org.apache.iotdb.db.query.reader.series.IAggregateReader;
 import org.apache.iotdb.db.query.reader.series.SeriesAggregateReader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
-import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.utils.Pair;
@@ -44,19 +45,23 @@ import java.util.Set;
 public class LocalGroupByExecutor implements GroupByExecutor {
 
   private final IAggregateReader reader;
-  private BatchData preCachedData;
+  private ColumnBatch preCachedData;
+  // index of the next point to read in preCachedData
+  private int preCachedIndex;
 
   // Aggregate result buffer of this path
   private final List<AggregateResult> results = new ArrayList<>();
   private final TimeRange timeRange;
 
-  // used for resetting the batch data to the last index
-  private int lastReadCurArrayIndex;
-  private int lastReadCurListIndex;
+  // used for resetting the read index of the batch data to the last index
+  private int lastReadIndex;
   private boolean ascending;
 
   private QueryDataSource queryDataSource;
 
+  // whether the current file is being calculated from its rollup, so its chunks are not read
+  private boolean rollupFileInProgress = false;
+
   public LocalGroupByExecutor(
       PartialPath path,
       Set<String> allSensors,
@@ -83,8 +88,8 @@ public class LocalGroupByExecutor implements GroupByExecutor {
             ascending);
     this.preCachedData = null;
     timeRange = new TimeRange(Long.MIN_VALUE, Long.MAX_VALUE);
-    lastReadCurArrayIndex = 0;
-    lastReadCurListIndex = 0;
+    preCachedIndex = 0;
+    lastReadIndex = 0;
     this.ascending = ascending;
   }
 
@@ -109,21 +114,23 @@ public class LocalGroupByExecutor implements GroupByExecutor {
 
   /** @return if already get the result */
   private boolean calcFromCacheData(long curStartTime, long curEndTime) throws IOException {
-    calcFromBatch(preCachedData, curStartTime, curEndTime);
-    // The result is calculated from the cache
+    calcFromBatch(preCachedData, preCachedIndex, curStartTime, curEndTime);
+    // The result is calculated from the cache, the last time of a batch is its max time in
+    // ascending order and its min time in descending order
     return (preCachedData != null
             && (ascending
-                ? preCachedData.getMaxTimestamp() >= curEndTime
-                : preCachedData.getMinTimestamp() < curStartTime))
+                ? getLastTime(preCachedData) >= curEndTime
+                : getLastTime(preCachedData) < curStartTime))
         || isEndCalc();
   }
 
+  /** @return index of the next point to read in the batch after the calculation */
   @SuppressWarnings("squid:S3776")
-  private void calcFromBatch(BatchData batchData, long curStartTime, long curEndTime)
-      throws IOException {
+  private int calcFromBatch(
+      ColumnBatch batchData, int readIndex, long curStartTime, long curEndTime) throws IOException {
     // check if the batchData does not contain points in current interval
-    if (!satisfied(batchData, curStartTime, curEndTime)) {
-      return;
+    if (!satisfied(batchData, readIndex, curStartTime, curEndTime)) {
+      return readIndex;
     }
 
     for (AggregateResult result : results) {
@@ -132,47 +139,55 @@ public class LocalGroupByExecutor implements GroupByExecutor {
         continue;
       }
       // lazy reset batch data for calculation
-      batchData.resetBatchData(lastReadCurArrayIndex, lastReadCurListIndex);
+      readIndex = lastReadIndex;
       if (ascending) {
         // skip points that cannot be calculated
-        while (batchData.hasCurrent() && batchData.currentTime() < curStartTime) {
-          batchData.next();
+        while (readIndex < batchData.size() && batchData.getTime(readIndex) < curStartTime) {
+          readIndex++;
         }
       } else {
-        while (batchData.hasCurrent() && batchData.currentTime() >= curEndTime) {
-          batchData.next();
+        while (readIndex < batchData.size() && batchData.getTime(readIndex) >= curEndTime) {
+          readIndex++;
         }
       }
 
-      if (batchData.hasCurrent()) {
-        result.updateResultFromPageData(batchData, curStartTime, curEndTime);
+      if (readIndex < batchData.size()) {
+        readIndex =
+            result.updateResultFromColumnBatch(batchData, readIndex, curStartTime, curEndTime);
       }
     }
-    lastReadCurArrayIndex = batchData.getReadCurArrayIndex();
-    lastReadCurListIndex = batchData.getReadCurListIndex();
+    lastReadIndex = readIndex;
     // can calc for next interval
-    if (batchData.hasCurrent()) {
+    if (batchData == preCachedData || readIndex < batchData.size()) {
       preCachedData = batchData;
+      preCachedIndex = readIndex;
     }
+    return readIndex;
   }
 
-  private boolean satisfied(BatchData batchData, long curStartTime, long curEndTime) {
-    if (batchData == null || !batchData.hasCurrent()) {
+  private boolean satisfied(
+      ColumnBatch batchData, int readIndex, long curStartTime, long curEndTime) {
+    if (batchData == null || readIndex >= batchData.size()) {
       return false;
     }
 
     if (ascending
-        && (batchData.getMaxTimestamp() < curStartTime || batchData.currentTime() >= curEndTime)) {
+        && (getLastTime(batchData) < curStartTime || batchData.getTime(readIndex) >= curEndTime)) {
       return false;
     }
     if (!ascending
-        && (batchData.getTimeByIndex(0) >= curEndTime || batchData.currentTime() < curStartTime)) {
+        && (getLastTime(batchData) >= curEndTime || batchData.getTime(readIndex) < curStartTime)) {
       preCachedData = batchData;
+      preCachedIndex = readIndex;
       return false;
     }
     return true;
   }
 
+  private static long getLastTime(ColumnBatch batchData) {
+    return batchData.getTime(batchData.size() - 1);
+  }
+
   private void calcFromStatistics(Statistics pageStatistics) throws QueryProcessException {
     for (AggregateResult result : results) {
       // cacl is compile
@@ -183,6 +198,32 @@ public class LocalGroupByExecutor implements GroupByExecutor {
     }
   }
 
+  /**
+   * Calculate the results from the buckets of the rollup of the current file in the interval, and
+   * skip the file if it has no point after the interval.
+   *
+   * @return false if the rollup cannot be used for the interval
+   */
+  private boolean calcFromRollup(SeriesRollup rollup, long curStartTime, long curEndTime)
+      throws IOException, QueryProcessException {
+    if (rollup == null || !rollup.isAligned(curStartTime) || !rollup.isAligned(curEndTime)) {
+      return false;
+    }
+    for (Statistics bucket : rollup.getBuckets(curStartTime, curEndTime, ascending)) {
+      calcFromStatistics(bucket);
+    }
+    Statistics fileStatistics = reader.currentFileStatistics();
+    if (ascending
+        ? fileStatistics.getEndTime() < curEndTime
+        : fileStatistics.getStartTime() >= curStartTime) {
+      reader.skipCurrentFile();
+      rollupFileInProgress = false;
+    } else {
+      rollupFileInProgress = true;
+    }
+    return true;
+  }
+
   @Override
   public List<AggregateResult> calcResult(long curStartTime, long curEndTime)
       throws IOException, QueryProcessException {
@@ -197,14 +238,16 @@ public class LocalGroupByExecutor implements GroupByExecutor {
       return results;
     }
 
-    // read page data firstly
-    if (readAndCalcFromPage(curStartTime, curEndTime)) {
-      return results;
-    }
+    if (!rollupFileInProgress) {
+      // read page data firstly
+      if (readAndCalcFromPage(curStartTime, curEndTime)) {
+        return results;
+      }
 
-    // read chunk data secondly
-    if (readAndCalcFromChunk(curStartTime, curEndTime)) {
-      return results;
+      // read chunk data secondly
+      if (readAndCalcFromChunk(curStartTime, curEndTime)) {
+        return results;
+      }
     }
 
     // read from file first
@@ -220,8 +263,17 @@ public class LocalGroupByExecutor implements GroupByExecutor {
         reader.skipCurrentFile();
         continue;
       }
+      // calc from the rollup of the file if the buckets fit the interval
+      if (reader.canUseCurrentFileStatistics()
+          && calcFromRollup(reader.currentFileRollup(), curStartTime, curEndTime)) {
+        if (rollupFileInProgress) {
+          return results;
+        }
+        continue;
+      }
 
       // read chunk
+      rollupFileInProgress = false;
       if (readAndCalcFromChunk(curStartTime, curEndTime)) {
         return results;
       }
@@ -234,35 +286,29 @@ public class LocalGroupByExecutor implements GroupByExecutor {
   public Pair<Long, Object> peekNextNotNullValue(long nextStartTime, long nextEndTime)
       throws IOException {
     try {
-      if (preCachedData != null && preCachedData.hasCurrent()) {
+      if (preCachedData != null && preCachedIndex < preCachedData.size()) {
         // save context
-        int readCurArrayIndex = preCachedData.getReadCurArrayIndex();
-        int readCurListIndex = preCachedData.getReadCurListIndex();
+        int readIndex = preCachedIndex;
 
         List<AggregateResult> aggregateResults = calcResult(nextStartTime, nextEndTime);
         if (aggregateResults == null || aggregateResults.get(0).getResult() == null) {
           return null;
         }
         // restore context
-        lastReadCurListIndex = readCurListIndex;
-        lastReadCurArrayIndex = readCurArrayIndex;
-        preCachedData.resetBatchData(readCurArrayIndex, readCurListIndex);
+        lastReadIndex = readIndex;
+        preCachedIndex = readIndex;
         return new Pair<>(nextStartTime, aggregateResults.get(0).getResult());
       } else {
         // save context
-        int readCurArrayIndex = lastReadCurArrayIndex;
-        int readCurListIndex = lastReadCurListIndex;
+        int readIndex = lastReadIndex;
 
         List<AggregateResult> aggregateResults = calcResult(nextStartTime, nextEndTime);
         if (aggregateResults == null || aggregateResults.get(0).getResult() == null) {
           return null;
         }
         // restore context
-        lastReadCurListIndex = readCurListIndex;
-        lastReadCurArrayIndex = readCurArrayIndex;
-        if (preCachedData != null) {
-          preCachedData.resetBatchData();
-        }
+        lastReadIndex = readIndex;
+        preCachedIndex = 0;
         return new Pair<>(nextStartTime, aggregateResults.get(0).getResult());
       }
     } catch (QueryProcessException e) {
@@ -324,30 +370,29 @@ public class LocalGroupByExecutor implements GroupByExecutor {
         }
       }
       // calc from page data
-      BatchData batchData = reader.nextPage();
-      if (batchData == null || !batchData.hasCurrent()) {
+      ColumnBatch batchData = reader.nextPageColumnBatch();
+      if (batchData == null || batchData.isEmpty()) {
         continue;
       }
       // stop calc and cached current batchData
-      if (ascending && batchData.currentTime() >= curEndTime) {
+      if (ascending && batchData.getTime(0) >= curEndTime) {
         preCachedData = batchData;
+        preCachedIndex = 0;
         // reset the last position to current Index
-        lastReadCurArrayIndex = batchData.getReadCurArrayIndex();
-        lastReadCurListIndex = batchData.getReadCurListIndex();
+        lastReadIndex = 0;
         return true;
       }
 
       // reset the last position to current Index
-      lastReadCurArrayIndex = batchData.getReadCurArrayIndex();
-      lastReadCurListIndex = batchData.getReadCurListIndex();
-      calcFromBatch(batchData, curStartTime, curEndTime);
+      lastReadIndex = 0;
+      int readIndex = calcFromBatch(batchData, 0, curStartTime, curEndTime);
 
       // judge whether the calculation finished
       if (isEndCalc()
-          || (batchData.hasCurrent()
+          || (readIndex < batchData.size()
               && (ascending
-                  ? batchData.currentTime() >= curEndTime
-                  : batchData.currentTime() < curStartTime))) {
+                  ? batchData.getTime(readIndex) >= curEndTime
+                  : batchData.getTime(readIndex) < curStartTime))) {
         return true;
       }
     }
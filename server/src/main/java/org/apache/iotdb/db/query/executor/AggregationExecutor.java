@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.query.executor;
 
+import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.StorageEngine;
@@ -36,6 +37,7 @@ import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.query.dataset.SingleDataSet;
 import org.apache.iotdb.db.query.factory.AggregateResultFactory;
 import org.apache.iotdb.db.query.filter.TsFileFilter;
+import org.apache.iotdb.db.query.pool.QueryTaskPoolManager;
 import org.apache.iotdb.db.query.reader.series.IAggregateReader;
 import org.apache.iotdb.db.query.reader.series.IReaderByTimestamp;
 import org.apache.iotdb.db.query.reader.series.SeriesAggregateReader;
@@ -43,9 +45,10 @@ import org.apache.iotdb.db.query.reader.series.SeriesReaderByTimestamp;
 import org.apache.iotdb.db.query.timegenerator.ServerTimeGenerator;
 import org.apache.iotdb.db.utils.FilePathUtils;
 import org.apache.iotdb.db.utils.QueryUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
-import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
@@ -53,20 +56,30 @@ import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.iotdb.tsfile.read.query.timegenerator.TimeGenerator;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.apache.iotdb.tsfile.read.query.executor.ExecutorWithTimeGenerator.markFilterdPaths;
 
 @SuppressWarnings("java:S1135") // ignore todos
 public class AggregationExecutor {
 
+  private static final Logger logger = LoggerFactory.getLogger(AggregationExecutor.class);
+
   private List<PartialPath> selectedSeries;
   protected List<TSDataType> dataTypes;
   protected List<String> aggregations;
@@ -99,7 +112,6 @@ public class AggregationExecutor {
       timeFilter = ((GlobalTimeExpression) expression).getFilter();
     }
 
-    // TODO use multi-thread
     Map<PartialPath, List<Integer>> pathToAggrIndexesMap =
         groupAggregationsBySeries(selectedSeries);
     AggregateResult[] aggregateResultList = new AggregateResult[selectedSeries.size()];
@@ -107,13 +119,18 @@ public class AggregationExecutor {
     List<StorageGroupProcessor> list =
         StorageEngine.getInstance().mergeLock(new ArrayList<>(pathToAggrIndexesMap.keySet()));
     try {
-      for (Map.Entry<PartialPath, List<Integer>> entry : pathToAggrIndexesMap.entrySet()) {
-        aggregateOneSeries(
-            entry,
-            aggregateResultList,
-            aggregationPlan.getAllMeasurementsInDevice(entry.getKey().getDevice()),
-            timeFilter,
-            context);
+      if (canAggregateInParallel() && getParallelism() > 1 && pathToAggrIndexesMap.size() > 1) {
+        aggregateSeriesInParallel(
+            pathToAggrIndexesMap, aggregateResultList, aggregationPlan, timeFilter, context);
+      } else {
+        for (Map.Entry<PartialPath, List<Integer>> entry : pathToAggrIndexesMap.entrySet()) {
+          aggregateOneSeries(
+              entry,
+              aggregateResultList,
+              aggregationPlan.getAllMeasurementsInDevice(entry.getKey().getDevice()),
+              timeFilter,
+              context);
+        }
       }
     } finally {
       StorageEngine.getInstance().mergeUnLock(list);
@@ -122,6 +139,116 @@ public class AggregationExecutor {
     return constructDataSet(Arrays.asList(aggregateResultList), aggregationPlan);
   }
 
+  /** @return how many series of a query can be aggregated concurrently */
+  private static int getParallelism() {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    return Math.min(config.getAggregationParallelism(), config.getConcurrentQueryThread());
+  }
+
+  /**
+   * @return true if the series are aggregated from the local storage engine. The parallel
+   *     aggregation reads the local data sources directly instead of calling {@link
+   *     #aggregateOneSeries(Entry, AggregateResult[], Set, Filter, QueryContext)}
+   */
+  protected boolean canAggregateInParallel() {
+    return true;
+  }
+
+  /**
+   * Aggregate the series in the query thread pool. At most {@link #getParallelism()} series of the
+   * query are aggregated at the same time, so that a query with many series neither occupies the
+   * whole pool nor holds the readers and the cached pages of all its series in memory at once. Each
+   * series writes the disjoint indexes of aggregateResultList, so the results need no extra merge.
+   * If a series fails, the series not started yet are skipped, and all the submitted tasks are
+   * waited for before the exception is thrown, so that no task outlives the merge lock.
+   *
+   * <p>The data sources of the series are taken by the query thread, which holds the merge locks.
+   * The locks of a storage group are not fair, so a task locking it again would wait behind a
+   * queued writer, which in turn waits for the query thread.
+   */
+  private void aggregateSeriesInParallel(
+      Map<PartialPath, List<Integer>> pathToAggrIndexesMap,
+      AggregateResult[] aggregateResultList,
+      AggregationPlan aggregationPlan,
+      Filter timeFilter,
+      QueryContext context)
+      throws IOException, QueryProcessException, StorageEngineException {
+    int parallelism = getParallelism();
+    AtomicBoolean failed = new AtomicBoolean(false);
+    Deque<Future<Void>> runningTasks = new ArrayDeque<>(parallelism);
+    try {
+      for (Map.Entry<PartialPath, List<Integer>> entry : pathToAggrIndexesMap.entrySet()) {
+        if (runningTasks.size() >= parallelism) {
+          waitForTask(runningTasks.poll());
+        }
+        Set<String> measurements =
+            aggregationPlan.getAllMeasurementsInDevice(entry.getKey().getDevice());
+        QueryDataSource queryDataSource =
+            QueryResourceManager.getInstance()
+                .getQueryDataSource(entry.getKey(), context, timeFilter);
+        runningTasks.add(
+            QueryTaskPoolManager.getInstance()
+                .submit(
+                    () -> {
+                      if (!failed.get()) {
+                        aggregateOneSeries(
+                            entry,
+                            aggregateResultList,
+                            measurements,
+                            timeFilter,
+                            context,
+                            queryDataSource);
+                      }
+                      return null;
+                    }));
+      }
+      while (!runningTasks.isEmpty()) {
+        waitForTask(runningTasks.poll());
+      }
+    } finally {
+      if (!runningTasks.isEmpty()) {
+        failed.set(true);
+        for (Future<Void> task : runningTasks) {
+          waitForTaskQuietly(task);
+        }
+      }
+    }
+  }
+
+  private static void waitForTask(Future<Void> task)
+      throws IOException, QueryProcessException, StorageEngineException {
+    try {
+      task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new QueryProcessException("Interrupted while aggregating the series");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof QueryProcessException) {
+        throw (QueryProcessException) cause;
+      } else if (cause instanceof StorageEngineException) {
+        throw (StorageEngineException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new QueryProcessException(cause, TSStatusCode.QUERY_PROCESS_ERROR.getStatusCode());
+    }
+  }
+
+  private static void waitForTaskQuietly(Future<Void> task) {
+    try {
+      task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      logger.debug("A series of the failed aggregation also failed", e.getCause());
+    }
+  }
+
   /**
    * get aggregation result for one series
    *
@@ -136,6 +263,22 @@ public class AggregationExecutor {
       Filter timeFilter,
       QueryContext context)
       throws IOException, QueryProcessException, StorageEngineException {
+    QueryDataSource queryDataSource =
+        QueryResourceManager.getInstance()
+            .getQueryDataSource(pathToAggrIndexes.getKey(), context, timeFilter);
+    aggregateOneSeries(
+        pathToAggrIndexes, aggregateResultList, measurements, timeFilter, context, queryDataSource);
+  }
+
+  /** get aggregation result for one series whose data source is already taken */
+  private void aggregateOneSeries(
+      Map.Entry<PartialPath, List<Integer>> pathToAggrIndexes,
+      AggregateResult[] aggregateResultList,
+      Set<String> measurements,
+      Filter timeFilter,
+      QueryContext context,
+      QueryDataSource queryDataSource)
+      throws IOException, QueryProcessException {
     List<AggregateResult> ascAggregateResultList = new ArrayList<>();
     List<AggregateResult> descAggregateResultList = new ArrayList<>();
     boolean[] isAsc = new boolean[aggregateResultList.length];
@@ -158,11 +301,11 @@ public class AggregationExecutor {
         seriesPath,
         measurements,
         context,
+        queryDataSource,
         timeFilter,
         tsDataType,
         ascAggregateResultList,
-        descAggregateResultList,
-        null);
+        descAggregateResultList);
 
     int ascIndex = 0;
     int descIndex = 0;
@@ -192,6 +335,28 @@ public class AggregationExecutor {
     if (fileFilter != null) {
       QueryUtils.filterQueryDataSource(queryDataSource, fileFilter);
     }
+    aggregateOneSeries(
+        seriesPath,
+        measurements,
+        context,
+        queryDataSource,
+        timeFilter,
+        tsDataType,
+        ascAggregateResultList,
+        descAggregateResultList);
+  }
+
+  @SuppressWarnings("squid:S107")
+  private static void aggregateOneSeries(
+      PartialPath seriesPath,
+      Set<String> measurements,
+      QueryContext context,
+      QueryDataSource queryDataSource,
+      Filter timeFilter,
+      TSDataType tsDataType,
+      List<AggregateResult> ascAggregateResultList,
+      List<AggregateResult> descAggregateResultList)
+      throws IOException, QueryProcessException {
     // update filter by TTL
     timeFilter = queryDataSource.updateFilterUsingTTL(timeFilter);
 
@@ -314,12 +479,11 @@ public class AggregationExecutor {
         seriesReader.skipCurrentPage();
         continue;
       }
-      BatchData nextOverlappedPageData = seriesReader.nextPage();
+      ColumnBatch nextOverlappedPageData = seriesReader.nextPageColumnBatch();
       for (int i = 0; i < aggregateResultList.size(); i++) {
         if (!isCalculatedArray[i]) {
           AggregateResult aggregateResult = aggregateResultList.get(i);
-          aggregateResult.updateResultFromPageData(nextOverlappedPageData);
-          nextOverlappedPageData.resetBatchData();
+          aggregateResult.updateResultFromColumnBatch(nextOverlappedPageData);
           if (aggregateResult.hasFinalResult()) {
             isCalculatedArray[i] = true;
             remainingToCalculate--;
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.query.executor;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor;
@@ -32,6 +33,7 @@ import org.apache.iotdb.db.query.dataset.RawQueryDataSetWithValueFilter;
 import org.apache.iotdb.db.query.dataset.RawQueryDataSetWithoutValueFilter;
 import org.apache.iotdb.db.query.reader.series.IReaderByTimestamp;
 import org.apache.iotdb.db.query.reader.series.ManagedSeriesReader;
+import org.apache.iotdb.db.query.reader.series.PartitionedSeriesRawDataBatchReader;
 import org.apache.iotdb.db.query.reader.series.SeriesRawDataBatchReader;
 import org.apache.iotdb.db.query.reader.series.SeriesReaderByTimestamp;
 import org.apache.iotdb.db.query.timegenerator.ServerTimeGenerator;
@@ -101,6 +103,8 @@ public class RawDataQueryExecutor {
       timeFilter = ((GlobalTimeExpression) queryPlan.getExpression()).getFilter();
     }
 
+    int prefetchedTimePartitionNum =
+        IoTDBDescriptor.getInstance().getConfig().getPrefetchedTimePartitionNum();
     List<ManagedSeriesReader> readersOfSelectedSeries = new ArrayList<>();
     List<StorageGroupProcessor> list =
         StorageEngine.getInstance().mergeLock(queryPlan.getDeduplicatedPaths());
@@ -113,17 +117,35 @@ public class RawDataQueryExecutor {
             QueryResourceManager.getInstance().getQueryDataSource(path, context, timeFilter);
         timeFilter = queryDataSource.updateFilterUsingTTL(timeFilter);
 
-        ManagedSeriesReader reader =
-            new SeriesRawDataBatchReader(
-                path,
-                queryPlan.getAllMeasurementsInDevice(path.getDevice()),
-                dataType,
-                context,
-                queryDataSource,
-                timeFilter,
-                null,
-                null,
-                queryPlan.isAscending());
+        ManagedSeriesReader reader;
+        if (prefetchedTimePartitionNum > 0
+            && PartitionedSeriesRawDataBatchReader.canBeSplit(queryDataSource, path.getDevice())) {
+          PartitionedSeriesRawDataBatchReader partitionedReader =
+              new PartitionedSeriesRawDataBatchReader(
+                  path,
+                  queryPlan.getAllMeasurementsInDevice(path.getDevice()),
+                  dataType,
+                  context,
+                  queryDataSource,
+                  timeFilter,
+                  queryPlan.isAscending(),
+                  prefetchedTimePartitionNum);
+          QueryResourceManager.getInstance()
+              .registerPrefetchingReader(context.getQueryId(), partitionedReader);
+          reader = partitionedReader;
+        } else {
+          reader =
+              new SeriesRawDataBatchReader(
+                  path,
+                  queryPlan.getAllMeasurementsInDevice(path.getDevice()),
+                  dataType,
+                  context,
+                  queryDataSource,
+                  timeFilter,
+                  null,
+                  null,
+                  queryPlan.isAscending());
+        }
         readersOfSelectedSeries.add(reader);
       }
     } finally {
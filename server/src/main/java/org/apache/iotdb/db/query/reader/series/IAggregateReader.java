@@ -18,8 +18,10 @@
  */
 package org.apache.iotdb.db.query.reader.series;
 
+import org.apache.iotdb.db.engine.rollup.SeriesRollup;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 
 import java.io.IOException;
 
@@ -31,6 +33,14 @@ public interface IAggregateReader {
 
   Statistics currentFileStatistics() throws IOException;
 
+  /**
+   * @return the rollup of the series in the current file, or null if it has none. Only the buckets
+   *     of the rollup can replace the points of the file, if its statistics can be used.
+   */
+  default SeriesRollup currentFileRollup() throws IOException {
+    return null;
+  }
+
   void skipCurrentFile();
 
   boolean hasNextChunk() throws IOException;
@@ -53,5 +63,8 @@ public interface IAggregateReader {
 
   BatchData nextPage() throws IOException;
 
+  /** the same points as {@link #nextPage()} in columns */
+  ColumnBatch nextPageColumnBatch() throws IOException;
+
   boolean isAscending();
 }
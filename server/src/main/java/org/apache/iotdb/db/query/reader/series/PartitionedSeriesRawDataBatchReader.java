@@ -0,0 +1,417 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.series;
+
+import org.apache.iotdb.db.concurrent.WrappedRunnable;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.pool.QueryTaskPoolManager;
+import org.apache.iotdb.db.utils.TestOnly;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+/**
+ * A raw data reader of a series whose files can be split into several slices. Each slice is read by
+ * its own {@link SeriesRawDataBatchReader} and the slices are returned one after another in the
+ * order of the query. Meanwhile, the next few slices are read ahead in the query thread pool, each
+ * into a bounded queue, so that a long range is read by several threads while the memory of a
+ * series stays bounded.
+ *
+ * <p>When the files lie in several time partitions, each partition is a slice. The files of a time
+ * partition never contain data of another partition, so the partitions need no time filter of their
+ * own and stitching them in order keeps the data in order. When they all lie in one partition, the
+ * time range is split at the start times of the sequence files instead. Each range reads the files
+ * that overlap it, with the range added to its time filter, so every point still belongs to exactly
+ * one slice.
+ *
+ * <p>When the prefetched batches of the slice being returned run out, the slice is read in the
+ * calling thread instead of waiting for a task of the pool. The calling thread is usually a read
+ * task of the pool itself, so waiting could exhaust the pool.
+ */
+public class PartitionedSeriesRawDataBatchReader extends BaseManagedSeriesReader {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(PartitionedSeriesRawDataBatchReader.class);
+
+  /** the max number of prefetched batches of a slice */
+  private static final int PREFETCH_QUEUE_CAPACITY = 5;
+
+  private static final QueryTaskPoolManager TASK_POOL_MANAGER = QueryTaskPoolManager.getInstance();
+
+  /** the slices in the order of the query */
+  private final List<SeriesSlice> slices = new ArrayList<>();
+
+  /** how many slices after the current one are read ahead */
+  private final int prefetchedPartitionNum;
+
+  private int currentSliceIndex = 0;
+  /** the slices before this index have started prefetching */
+  private int nextPrefetchIndex = 0;
+
+  private BatchData cachedBatchData;
+
+  private volatile boolean closed = false;
+
+  /** called by a prefetching task with the index of its slice after a read, only set by tests */
+  private IntConsumer prefetchHook = null;
+
+  @SuppressWarnings("squid:S107")
+  public PartitionedSeriesRawDataBatchReader(
+      PartialPath seriesPath,
+      Set<String> allSensors,
+      TSDataType dataType,
+      QueryContext context,
+      QueryDataSource dataSource,
+      Filter timeFilter,
+      boolean ascending,
+      int prefetchedPartitionNum) {
+    this.prefetchedPartitionNum = prefetchedPartitionNum;
+    Map<Long, List<TsFileResource>> seqResources =
+        groupByTimePartition(dataSource.getSeqResources());
+    Map<Long, List<TsFileResource>> unseqResources =
+        groupByTimePartition(dataSource.getUnseqResources());
+    TreeSet<Long> partitions = new TreeSet<>(seqResources.keySet());
+    partitions.addAll(unseqResources.keySet());
+
+    List<QueryDataSource> sliceDataSources = new ArrayList<>();
+    List<Filter> sliceFilters = new ArrayList<>();
+    if (partitions.size() > 1) {
+      for (long partition : partitions) {
+        sliceDataSources.add(
+            new QueryDataSource(
+                seqResources.getOrDefault(partition, new ArrayList<>()),
+                unseqResources.getOrDefault(partition, new ArrayList<>())));
+        sliceFilters.add(timeFilter);
+      }
+    } else {
+      String device = seriesPath.getDevice();
+      List<Long> splitTimes = getSplitTimes(dataSource.getSeqResources(), device);
+      for (int i = 0; i <= splitTimes.size(); i++) {
+        long startTime = i == 0 ? Long.MIN_VALUE : splitTimes.get(i - 1);
+        long endTime = i == splitTimes.size() ? Long.MAX_VALUE : splitTimes.get(i) - 1;
+        sliceDataSources.add(
+            new QueryDataSource(
+                getOverlappedResources(
+                    dataSource.getSeqResources(), device, startTime, endTime, true),
+                getOverlappedResources(
+                    dataSource.getUnseqResources(), device, startTime, endTime, false)));
+        sliceFilters.add(addTimeRange(timeFilter, startTime, endTime));
+      }
+    }
+    if (!ascending) {
+      Collections.reverse(sliceDataSources);
+      Collections.reverse(sliceFilters);
+    }
+
+    for (int i = 0; i < sliceDataSources.size(); i++) {
+      QueryDataSource sliceDataSource = sliceDataSources.get(i);
+      sliceDataSource.setDataTTL(dataSource.getDataTTL());
+      slices.add(
+          new SeriesSlice(
+              i,
+              new SeriesRawDataBatchReader(
+                  seriesPath,
+                  allSensors,
+                  dataType,
+                  context,
+                  sliceDataSource,
+                  sliceFilters.get(i),
+                  null,
+                  null,
+                  ascending)));
+    }
+  }
+
+  /**
+   * @return whether the files of the data source lie in more than one time partition, or in one
+   *     partition with more than one sequence file of the device
+   */
+  public static boolean canBeSplit(QueryDataSource dataSource, String device) {
+    Set<Long> partitions = new TreeSet<>();
+    for (TsFileResource resource : dataSource.getSeqResources()) {
+      partitions.add(resource.getTimePartition());
+    }
+    for (TsFileResource resource : dataSource.getUnseqResources()) {
+      partitions.add(resource.getTimePartition());
+    }
+    return partitions.size() > 1 || !getSplitTimes(dataSource.getSeqResources(), device).isEmpty();
+  }
+
+  private static Map<Long, List<TsFileResource>> groupByTimePartition(
+      List<TsFileResource> resources) {
+    // the resources of a partition keep their order in the data source
+    Map<Long, List<TsFileResource>> partitionToResources = new TreeMap<>();
+    for (TsFileResource resource : resources) {
+      partitionToResources
+          .computeIfAbsent(resource.getTimePartition(), k -> new ArrayList<>())
+          .add(resource);
+    }
+    return partitionToResources;
+  }
+
+  /** @return the start times of the sequence files of the device, except the smallest one */
+  private static List<Long> getSplitTimes(List<TsFileResource> seqResources, String device) {
+    TreeSet<Long> startTimes = new TreeSet<>();
+    for (TsFileResource resource : seqResources) {
+      startTimes.add(resource.getStartTime(device));
+    }
+    List<Long> splitTimes = new ArrayList<>(startTimes);
+    return splitTimes.isEmpty() ? splitTimes : splitTimes.subList(1, splitTimes.size());
+  }
+
+  /** @return the resources whose data of the device may lie in [startTime, endTime] */
+  private static List<TsFileResource> getOverlappedResources(
+      List<TsFileResource> resources, String device, long startTime, long endTime, boolean isSeq) {
+    List<TsFileResource> overlappedResources = new ArrayList<>();
+    for (TsFileResource resource : resources) {
+      // the end time of an unsealed sequence file is not settled, as in TsFileResource.isSatisfied
+      long resourceEndTime =
+          resource.isClosed() || !isSeq ? resource.getEndTime(device) : Long.MAX_VALUE;
+      if (resource.getStartTime(device) <= endTime && resourceEndTime >= startTime) {
+        overlappedResources.add(resource);
+      }
+    }
+    return overlappedResources;
+  }
+
+  private static Filter addTimeRange(Filter timeFilter, long startTime, long endTime) {
+    Filter rangeFilter = null;
+    if (startTime != Long.MIN_VALUE) {
+      rangeFilter = TimeFilter.gtEq(startTime);
+    }
+    if (endTime != Long.MAX_VALUE) {
+      rangeFilter =
+          rangeFilter == null
+              ? TimeFilter.ltEq(endTime)
+              : FilterFactory.and(rangeFilter, TimeFilter.ltEq(endTime));
+    }
+    if (rangeFilter == null) {
+      return timeFilter;
+    }
+    return timeFilter == null ? rangeFilter : FilterFactory.and(timeFilter, rangeFilter);
+  }
+
+  @Override
+  public boolean hasNextBatch() throws IOException {
+    if (cachedBatchData != null) {
+      return true;
+    }
+    while (currentSliceIndex < slices.size()) {
+      prefetch();
+      cachedBatchData = slices.get(currentSliceIndex).next();
+      if (cachedBatchData != null) {
+        return true;
+      }
+      slices.set(currentSliceIndex++, null);
+    }
+    return false;
+  }
+
+  @Override
+  public BatchData nextBatch() throws IOException {
+    if (hasNextBatch()) {
+      BatchData batchData = cachedBatchData;
+      cachedBatchData = null;
+      return batchData;
+    }
+    throw new IOException("no next batch");
+  }
+
+  /** keep the current slice and the next prefetchedPartitionNum ones read ahead */
+  private void prefetch() {
+    while (nextPrefetchIndex < slices.size()
+        && nextPrefetchIndex <= currentSliceIndex + prefetchedPartitionNum) {
+      slices.get(nextPrefetchIndex++).startPrefetch();
+    }
+  }
+
+  /**
+   * Stop prefetching. Returns only after the reads of the prefetching tasks are finished, so the
+   * files of the query can be released right after it.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    for (SeriesSlice slice : slices) {
+      if (slice != null) {
+        slice.cancel();
+      }
+    }
+  }
+
+  @TestOnly
+  public int getSliceNum() {
+    return slices.size();
+  }
+
+  @TestOnly
+  void setPrefetchHook(IntConsumer prefetchHook) {
+    this.prefetchHook = prefetchHook;
+  }
+
+  @TestOnly
+  public int getPrefetchedBatchNum() {
+    int prefetchedBatchNum = 0;
+    for (SeriesSlice slice : slices) {
+      if (slice != null) {
+        prefetchedBatchNum += slice.prefetchedBatches.size();
+      }
+    }
+    return prefetchedBatchNum;
+  }
+
+  /**
+   * A slice of the series. Its reader is only used while holding the lock of the slice, by either
+   * the prefetching task or the consumer, and a prefetched batch is queued before the lock is
+   * released, so the batches of the queue always precede those left in the reader.
+   */
+  private class SeriesSlice extends WrappedRunnable {
+
+    private final int index;
+
+    private final SeriesRawDataBatchReader reader;
+
+    private final BlockingQueue<BatchData> prefetchedBatches =
+        new LinkedBlockingQueue<>(PREFETCH_QUEUE_CAPACITY);
+
+    /** whether a prefetching task of the slice is submitted and not finished */
+    private final AtomicBoolean prefetching = new AtomicBoolean(false);
+
+    /** the last submitted prefetching task, only changed while holding the lock of the slice */
+    private Future<?> prefetchFuture;
+
+    /** only changed while holding the lock of the slice */
+    private volatile boolean exhausted = false;
+
+    private volatile Exception failure;
+
+    private SeriesSlice(int index, SeriesRawDataBatchReader reader) {
+      this.index = index;
+      this.reader = reader;
+    }
+
+    private void startPrefetch() {
+      if (!closed && !exhausted && failure == null && prefetching.compareAndSet(false, true)) {
+        synchronized (this) {
+          if (closed) {
+            prefetching.set(false);
+            return;
+          }
+          prefetchFuture = TASK_POOL_MANAGER.submit(this);
+        }
+      }
+    }
+
+    /** read one batch into the queue, and submit itself again if the queue still has space */
+    @Override
+    public void runMayThrow() {
+      synchronized (this) {
+        try {
+          if (!closed && !exhausted && prefetchedBatches.remainingCapacity() > 0) {
+            BatchData batchData = readBatch();
+            if (batchData != null) {
+              prefetchedBatches.offer(batchData);
+            }
+            if (prefetchHook != null) {
+              prefetchHook.accept(index);
+            }
+          }
+        } catch (Exception e) {
+          logger.error("Something gets wrong while prefetching a slice of a series: ", e);
+          failure = e;
+        }
+        if (closed || exhausted || failure != null || prefetchedBatches.remainingCapacity() == 0) {
+          prefetching.set(false);
+          return;
+        }
+        prefetchFuture = TASK_POOL_MANAGER.submit(this);
+      }
+    }
+
+    /**
+     * Wait for the read of a running prefetching task and drop the queued one. The tasks check
+     * closed under the lock, so none reads after the lock is taken here.
+     */
+    private void cancel() {
+      Future<?> future;
+      synchronized (this) {
+        future = prefetchFuture;
+        prefetchedBatches.clear();
+      }
+      if (future != null) {
+        future.cancel(false);
+      }
+    }
+
+    /** @return the next non-empty batch of the slice, or null if the slice is finished */
+    private BatchData next() throws IOException {
+      BatchData batchData = prefetchedBatches.poll();
+      if (batchData != null) {
+        startPrefetch();
+        return batchData;
+      }
+      synchronized (this) {
+        batchData = prefetchedBatches.poll();
+        while (batchData == null && !exhausted) {
+          if (failure != null) {
+            throw failure instanceof IOException
+                ? (IOException) failure
+                : new IOException(failure.getMessage(), failure);
+          }
+          batchData = readBatch();
+        }
+        return batchData;
+      }
+    }
+
+    /** @return the next non-empty batch of the reader, or null if it is exhausted */
+    private BatchData readBatch() throws IOException {
+      while (reader.hasNextBatch()) {
+        BatchData batchData = reader.nextBatch();
+        if (!batchData.isEmpty()) {
+          return batchData;
+        }
+      }
+      exhausted = true;
+      return null;
+    }
+  }
+}
@@ -19,12 +19,14 @@
 package org.apache.iotdb.db.query.reader.series;
 
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.rollup.SeriesRollup;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.filter.TsFileFilter;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
 import java.io.IOException;
@@ -80,6 +82,11 @@ public class SeriesAggregateReader implements IAggregateReader {
     return seriesReader.currentFileStatistics();
   }
 
+  @Override
+  public SeriesRollup currentFileRollup() throws IOException {
+    return seriesReader.currentFileRollup();
+  }
+
   @Override
   public void skipCurrentFile() {
     seriesReader.skipCurrentFile();
@@ -139,6 +146,11 @@ public class SeriesAggregateReader implements IAggregateReader {
     return seriesReader.nextPage().flip();
   }
 
+  @Override
+  public ColumnBatch nextPageColumnBatch() throws IOException {
+    return seriesReader.nextPageColumnBatch();
+  }
+
   private boolean containedByTimeFilter(Statistics statistics) {
     Filter timeFilter = seriesReader.getTimeFilter();
     return timeFilter == null
@@ -20,8 +20,11 @@ package org.apache.iotdb.db.query.reader.series;
 
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.rollup.RollupCache;
+import org.apache.iotdb.db.engine.rollup.SeriesRollup;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metadata.VectorPartialPath;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.query.control.QueryTimeManager;
@@ -39,6 +42,7 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.basic.UnaryFilter;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
@@ -46,8 +50,10 @@ import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.PriorityQueue;
 import java.util.Set;
@@ -86,6 +92,10 @@ public class SeriesReader {
    */
   protected ITimeSeriesMetadata firstTimeSeriesMetadata;
   protected final List<ITimeSeriesMetadata> seqTimeSeriesMetadata = new LinkedList<>();
+  /** the sealed seq files of the cached TimeSeriesMetadata, to find their rollups */
+  protected final Map<ITimeSeriesMetadata, TsFileResource> sealedSeqFileResources =
+      new IdentityHashMap<>();
+
   protected final PriorityQueue<ITimeSeriesMetadata> unSeqTimeSeriesMetadata;
 
   /*
@@ -278,7 +288,24 @@ public class SeriesReader {
     return firstTimeSeriesMetadata.isModified();
   }
 
+  /**
+   * @return the rollup of the series in the current file, or null if the file is not a sealed
+   *     sequence file or has no rollup of the series
+   */
+  SeriesRollup currentFileRollup() throws IOException {
+    if (firstTimeSeriesMetadata == null) {
+      throw new IOException("no first file");
+    }
+    TsFileResource resource = sealedSeqFileResources.get(firstTimeSeriesMetadata);
+    if (resource == null || seriesPath instanceof VectorPartialPath) {
+      return null;
+    }
+    return RollupCache.getInstance()
+        .get(resource.getTsFile(), seriesPath.getDevice(), seriesPath.getMeasurement());
+  }
+
   void skipCurrentFile() {
+    sealedSeqFileResources.remove(firstTimeSeriesMetadata);
     firstTimeSeriesMetadata = null;
   }
 
@@ -360,6 +387,7 @@ public class SeriesReader {
 
   protected void unpackOneTimeSeriesMetadata(ITimeSeriesMetadata timeSeriesMetadata)
       throws IOException {
+    sealedSeqFileResources.remove(timeSeriesMetadata);
     List<IChunkMetadata> chunkMetadataList =
         FileLoaderUtils.loadChunkMetadataList(timeSeriesMetadata);
     chunkMetadataList.forEach(chunkMetadata -> chunkMetadata.setSeq(timeSeriesMetadata.isSeq()));
@@ -649,6 +677,31 @@ public class SeriesReader {
     }
   }
 
+  /**
+   * The same as {@link #nextPage()}, but returns the page in columns. A non-overlapped page is
+   * decoded into the columns directly.
+   */
+  ColumnBatch nextPageColumnBatch() throws IOException {
+
+    if (!hasNextPage()) {
+      throw new IOException("no next page, neither non-overlapped nor overlapped");
+    }
+
+    if (hasCachedNextOverlappedPage) {
+      hasCachedNextOverlappedPage = false;
+      return ColumnBatch.fromBatchData(cachedBatchData);
+    } else {
+      if (valueFilter != null) {
+        firstPageReader.setFilter(valueFilter);
+      }
+      ColumnBatch columnBatch =
+          firstPageReader.getAllSatisfiedColumnBatch(orderUtils.getAscending());
+      firstPageReader = null;
+
+      return columnBatch;
+    }
+  }
+
   /**
    * read overlapped data till currentLargestEndTime in mergeReader, if current batch does not
    * contain data, read till next currentLargestEndTime again
@@ -967,16 +1020,16 @@ public class SeriesReader {
   }
 
   protected void unpackSeqTsFileResource() throws IOException {
+    TsFileResource resource = orderUtils.getNextSeqFileResource(seqFileResource, true);
     ITimeSeriesMetadata timeseriesMetadata =
         FileLoaderUtils.loadTimeSeriesMetadata(
-            orderUtils.getNextSeqFileResource(seqFileResource, true),
-            seriesPath,
-            context,
-            getAnyFilter(),
-            allSensors);
+            resource, seriesPath, context, getAnyFilter(), allSensors);
     if (timeseriesMetadata != null) {
       timeseriesMetadata.setSeq(true);
       seqTimeSeriesMetadata.add(timeseriesMetadata);
+      if (resource.isClosed()) {
+        sealedSeqFileResources.put(timeseriesMetadata, resource);
+      }
     }
   }
 
@@ -1024,6 +1077,10 @@ public class SeriesReader {
       return data.getAllSatisfiedPageData(ascending);
     }
 
+    ColumnBatch getAllSatisfiedColumnBatch(boolean ascending) throws IOException {
+      return data.getAllSatisfiedColumnBatch(ascending);
+    }
+
     void setFilter(Filter filter) {
       data.setFilter(filter);
     }
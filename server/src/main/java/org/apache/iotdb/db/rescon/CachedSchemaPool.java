@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicate the schemas of timeseries, so that the timeseries of the same measurement, data type,
+ * encoding, compressor and props in different devices share one MeasurementSchema instance and one
+ * measurement name. The shared schemas must not be modified.
+ *
+ * <p>The pool is bounded: once it holds {@link #MAX_CACHED_SCHEMA_NUM} distinct schemas, which
+ * happens only if few measurements repeat, new schemas are used as they are.
+ */
+public class CachedSchemaPool {
+
+  private static final int MAX_CACHED_SCHEMA_NUM = 100_000;
+
+  private final Map<SchemaKey, MeasurementSchema> cachedPool = new ConcurrentHashMap<>();
+
+  /**
+   * @return the cached schema equal to the given one, or the given one itself after caching it.
+   *     Schemas of vectors are not cached.
+   */
+  public IMeasurementSchema intern(IMeasurementSchema schema) {
+    if (!(schema instanceof MeasurementSchema)) {
+      return schema;
+    }
+    SchemaKey key = new SchemaKey((MeasurementSchema) schema);
+    MeasurementSchema cachedSchema = cachedPool.get(key);
+    if (cachedSchema != null) {
+      return cachedSchema;
+    }
+    if (cachedPool.size() >= MAX_CACHED_SCHEMA_NUM) {
+      return schema;
+    }
+    cachedSchema = cachedPool.putIfAbsent(key, (MeasurementSchema) schema);
+    return cachedSchema == null ? schema : cachedSchema;
+  }
+
+  public int size() {
+    return cachedPool.size();
+  }
+
+  public void clear() {
+    cachedPool.clear();
+  }
+
+  public static CachedSchemaPool getInstance() {
+    return CachedSchemaPool.InstanceHolder.INSTANCE;
+  }
+
+  /** MeasurementSchema#equals ignores the props, which the shared schemas must agree on */
+  private static class SchemaKey {
+
+    private final MeasurementSchema schema;
+
+    private SchemaKey(MeasurementSchema schema) {
+      this.schema = schema;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SchemaKey)) {
+        return false;
+      }
+      SchemaKey that = (SchemaKey) o;
+      return schema.equals(that.schema)
+          && Objects.equals(schema.getProps(), that.schema.getProps());
+    }
+
+    @Override
+    public int hashCode() {
+      return schema.hashCode();
+    }
+  }
+
+  private static class InstanceHolder {
+
+    private static final CachedSchemaPool INSTANCE = new CachedSchemaPool();
+
+    private InstanceHolder() {}
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
+/**
+ * Manage the direct memory arrays used by off-heap TVLists. Each array is a direct {@link
+ * ByteBuffer} holding ARRAY_SIZE elements of 4 or 8 bytes. Released arrays are pooled per element
+ * width, and the bytes held by TVLists are reported to {@link SystemInfo}.
+ */
+public class OffHeapArrayManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapArrayManager.class);
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  /** threshold total size of pooled direct arrays, shared with the on-heap array pool */
+  private static final double POOLED_ARRAYS_MEMORY_THRESHOLD =
+      CONFIG.getAllocateMemoryForWrite() * CONFIG.getBufferedArraysMemoryProportion();
+
+  private static final int INT_ARRAY_BYTES = ARRAY_SIZE * Integer.BYTES;
+
+  private static final int LONG_ARRAY_BYTES = ARRAY_SIZE * Long.BYTES;
+
+  /** pooled arrays of 4-byte elements (INT32, FLOAT) */
+  private static final ArrayDeque<ByteBuffer> POOLED_INT_ARRAYS = new ArrayDeque<>();
+
+  /** pooled arrays of 8-byte elements (INT64, DOUBLE, timestamps) */
+  private static final ArrayDeque<ByteBuffer> POOLED_LONG_ARRAYS = new ArrayDeque<>();
+
+  /** max number of pooled arrays of each element width */
+  private static final int INT_ARRAY_LIMIT =
+      (int) (POOLED_ARRAYS_MEMORY_THRESHOLD / 2 / INT_ARRAY_BYTES);
+
+  private static final int LONG_ARRAY_LIMIT =
+      (int) (POOLED_ARRAYS_MEMORY_THRESHOLD / 2 / LONG_ARRAY_BYTES);
+
+  /** total bytes of direct memory allocated by the manager, including the pooled arrays */
+  private static final AtomicLong ALLOCATED_BYTES = new AtomicLong(0);
+
+  private OffHeapArrayManager() {}
+
+  public static boolean isSupported(TSDataType dataType) {
+    switch (dataType) {
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Get or allocate a direct array according to type. The returned buffer uses the native byte
+   * order and is accessed by absolute index only.
+   *
+   * @return a direct buffer of ARRAY_SIZE elements
+   */
+  public static ByteBuffer allocate(TSDataType dataType) {
+    ArrayDeque<ByteBuffer> pool;
+    int arrayBytes;
+    switch (dataType) {
+      case INT32:
+      case FLOAT:
+        pool = POOLED_INT_ARRAYS;
+        arrayBytes = INT_ARRAY_BYTES;
+        break;
+      case INT64:
+      case DOUBLE:
+        pool = POOLED_LONG_ARRAYS;
+        arrayBytes = LONG_ARRAY_BYTES;
+        break;
+      default:
+        throw new UnSupportedDataTypeException(dataType.name());
+    }
+
+    ByteBuffer array;
+    synchronized (pool) {
+      array = pool.poll();
+    }
+    if (array == null) {
+      array = ByteBuffer.allocateDirect(arrayBytes).order(ByteOrder.nativeOrder());
+      ALLOCATED_BYTES.addAndGet(arrayBytes);
+    }
+    SystemInfo.getInstance().addOffHeapMemTableCost(arrayBytes);
+    return array;
+  }
+
+  /**
+   * This method is called when a TVList gives back its direct array. Arrays beyond the pool limit
+   * are dropped and freed by the buffer cleaner.
+   *
+   * @param array direct array to be released
+   */
+  public static void release(ByteBuffer array) {
+    int arrayBytes = array.capacity();
+    SystemInfo.getInstance().resetOffHeapMemTableCost(arrayBytes);
+    ArrayDeque<ByteBuffer> pool;
+    int limit;
+    if (arrayBytes == INT_ARRAY_BYTES) {
+      pool = POOLED_INT_ARRAYS;
+      limit = INT_ARRAY_LIMIT;
+    } else {
+      pool = POOLED_LONG_ARRAYS;
+      limit = LONG_ARRAY_LIMIT;
+    }
+    synchronized (pool) {
+      if (pool.size() < limit) {
+        pool.add(array);
+        return;
+      }
+    }
+    ALLOCATED_BYTES.addAndGet(-arrayBytes);
+  }
+
+  /**
+   * This method is called when a TVList gives up a direct array which queries may still read. The
+   * array can not be reused, so it is not pooled. It is no longer accounted and is freed by the
+   * buffer cleaner once the queries drop it.
+   *
+   * @param array direct array to be discarded
+   */
+  public static void discard(ByteBuffer array) {
+    int arrayBytes = array.capacity();
+    SystemInfo.getInstance().resetOffHeapMemTableCost(arrayBytes);
+    ALLOCATED_BYTES.addAndGet(-arrayBytes);
+  }
+
+  /** @return bytes of direct memory allocated by the manager, including the pooled arrays */
+  public static long getAllocatedBytes() {
+    return ALLOCATED_BYTES.get();
+  }
+
+  public static void close() {
+    synchronized (POOLED_INT_ARRAYS) {
+      ALLOCATED_BYTES.addAndGet(-(long) POOLED_INT_ARRAYS.size() * INT_ARRAY_BYTES);
+      POOLED_INT_ARRAYS.clear();
+    }
+    synchronized (POOLED_LONG_ARRAYS) {
+      ALLOCATED_BYTES.addAndGet(-(long) POOLED_LONG_ARRAYS.size() * LONG_ARRAY_BYTES);
+      POOLED_LONG_ARRAYS.clear();
+    }
+    LOGGER.debug("Off-heap array pool is cleared, {} bytes still in use", ALLOCATED_BYTES.get());
+  }
+}
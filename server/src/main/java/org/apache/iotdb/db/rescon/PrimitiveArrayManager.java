@@ -256,55 +256,4 @@ public class PrimitiveArrayManager {
   public static void close() {
     init();
   }
-
-  /**
-   * Get primitive data lists according to data type and size, only for TVList's sorting
-   *
-   * @param dataType data type
-   * @param size needed capacity
-   * @return an array of primitive data arrays
-   */
-  public static Object createDataListsByType(TSDataType dataType, int size) {
-    int arrayNumber = (int) Math.ceil((float) size / (float) ARRAY_SIZE);
-    switch (dataType) {
-      case BOOLEAN:
-        boolean[][] booleans = new boolean[arrayNumber][];
-        for (int i = 0; i < arrayNumber; i++) {
-          booleans[i] = new boolean[ARRAY_SIZE];
-        }
-        return booleans;
-      case INT32:
-        int[][] ints = new int[arrayNumber][];
-        for (int i = 0; i < arrayNumber; i++) {
-          ints[i] = new int[ARRAY_SIZE];
-        }
-        return ints;
-      case INT64:
-        long[][] longs = new long[arrayNumber][];
-        for (int i = 0; i < arrayNumber; i++) {
-          longs[i] = new long[ARRAY_SIZE];
-        }
-        return longs;
-      case FLOAT:
-        float[][] floats = new float[arrayNumber][];
-        for (int i = 0; i < arrayNumber; i++) {
-          floats[i] = new float[ARRAY_SIZE];
-        }
-        return floats;
-      case DOUBLE:
-        double[][] doubles = new double[arrayNumber][];
-        for (int i = 0; i < arrayNumber; i++) {
-          doubles[i] = new double[ARRAY_SIZE];
-        }
-        return doubles;
-      case TEXT:
-        Binary[][] binaries = new Binary[arrayNumber][];
-        for (int i = 0; i < arrayNumber; i++) {
-          binaries[i] = new Binary[ARRAY_SIZE];
-        }
-        return binaries;
-      default:
-        throw new UnSupportedDataTypeException(dataType.name());
-    }
-  }
 }
@@ -30,10 +30,16 @@ import org.apache.iotdb.db.exception.WriteProcessRejectException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
 
 public class SystemInfo {
 
@@ -48,11 +54,30 @@ public class SystemInfo {
 
   private long flushingMemTablesCost = 0L;
 
+  private long flushingOffHeapMemTablesCost = 0L;
+
+  /**
+   * bytes of direct memory currently held by off-heap TVLists, which are limited by the off-heap
+   * thresholds only and are not in the storage group costs
+   */
+  private final AtomicLong offHeapMemTableCost = new AtomicLong(0);
+
   private ExecutorService flushTaskSubmitThreadPool =
       IoTDBThreadPoolFactory.newSingleThreadExecutor("FlushTask-Submit-Pool");
   private static double FLUSH_THERSHOLD = memorySizeForWrite * config.getFlushProportion();
   private static double REJECT_THERSHOLD = memorySizeForWrite * config.getRejectProportion();
 
+  /**
+   * The arrays of off-heap TVLists are limited by off_heap_memtable_size instead of the heap, with
+   * the same flush and reject proportions as the storage group costs.
+   */
+  private static final long OFF_HEAP_MEMORY_SIZE = config.getOffHeapMemTableSize();
+
+  private static final double OFF_HEAP_FLUSH_THRESHOLD =
+      OFF_HEAP_MEMORY_SIZE * config.getFlushProportion();
+  private static final double OFF_HEAP_REJECT_THRESHOLD =
+      OFF_HEAP_MEMORY_SIZE * config.getRejectProportion();
+
   private volatile boolean isEncodingFasterThanIo = true;
 
   /**
@@ -78,32 +103,39 @@ public class SystemInfo {
     }
     reportedStorageGroupMemCostMap.put(storageGroupInfo, storageGroupInfo.getMemCost());
     storageGroupInfo.setLastReportedSize(storageGroupInfo.getMemCost());
-    if (totalStorageGroupMemCost < FLUSH_THERSHOLD) {
+    storageGroupInfo.setLastReportedOffHeapSize(storageGroupInfo.getOffHeapMemCost());
+    if (!isOverFlushThreshold()) {
       return true;
-    } else if (totalStorageGroupMemCost >= FLUSH_THERSHOLD
-        && totalStorageGroupMemCost < REJECT_THERSHOLD) {
+    } else if (!isOverRejectThreshold()) {
       logger.debug(
           "The total storage group mem costs are too large, call for flushing. "
-              + "Current sg cost is {}",
-          totalStorageGroupMemCost);
+              + "Current sg cost is {}, off-heap memtable cost is {}",
+          totalStorageGroupMemCost,
+          offHeapMemTableCost.get());
       chooseMemTablesToMarkFlush(tsFileProcessor);
       return true;
     } else {
       logger.info(
-          "Change system to reject status. Triggered by: logical SG ({}), mem cost delta ({}), totalSgMemCost ({}).",
+          "Change system to reject status. Triggered by: logical SG ({}), mem cost delta ({}), totalSgMemCost ({}), offHeapMemTableCost ({}).",
           storageGroupInfo.getStorageGroupProcessor().getLogicalStorageGroupName(),
           delta,
-          totalStorageGroupMemCost);
+          totalStorageGroupMemCost,
+          offHeapMemTableCost.get());
       rejected = true;
       if (chooseMemTablesToMarkFlush(tsFileProcessor)) {
-        if (totalStorageGroupMemCost < memorySizeForWrite) {
+        if (totalStorageGroupMemCost < memorySizeForWrite
+            && offHeapMemTableCost.get() < OFF_HEAP_MEMORY_SIZE) {
           return true;
         } else {
           throw new WriteProcessRejectException(
               "Total Storage Group MemCost "
                   + totalStorageGroupMemCost
                   + " is over than memorySizeForWriting "
-                  + memorySizeForWrite);
+                  + memorySizeForWrite
+                  + ", or off-heap memtable cost "
+                  + offHeapMemTableCost.get()
+                  + " is over than off_heap_memtable_size "
+                  + OFF_HEAP_MEMORY_SIZE);
         }
       } else {
         return false;
@@ -125,10 +157,10 @@ public class SystemInfo {
       this.totalStorageGroupMemCost -= delta;
       storageGroupInfo.setLastReportedSize(storageGroupInfo.getMemCost());
       reportedStorageGroupMemCostMap.put(storageGroupInfo, storageGroupInfo.getMemCost());
+      storageGroupInfo.setLastReportedOffHeapSize(storageGroupInfo.getOffHeapMemCost());
     }
 
-    if (totalStorageGroupMemCost >= FLUSH_THERSHOLD
-        && totalStorageGroupMemCost < REJECT_THERSHOLD) {
+    if (isOverFlushThreshold() && !isOverRejectThreshold()) {
       logger.debug(
           "SG ({}) released memory (delta: {}) but still exceeding flush proportion (totalSgMemCost: {}), call flush.",
           storageGroupInfo.getStorageGroupProcessor().getLogicalStorageGroupName(),
@@ -143,7 +175,7 @@ public class SystemInfo {
       }
       logCurrentTotalSGMemory();
       rejected = false;
-    } else if (totalStorageGroupMemCost >= REJECT_THERSHOLD) {
+    } else if (isOverRejectThreshold()) {
       logger.warn(
           "SG ({}) released memory (delta: {}), but system is still in reject status (totalSgMemCost: {}).",
           storageGroupInfo.getStorageGroupProcessor().getLogicalStorageGroupName(),
@@ -162,12 +194,38 @@ public class SystemInfo {
     }
   }
 
-  public synchronized void addFlushingMemTableCost(long flushingMemTableCost) {
+  public synchronized void addFlushingMemTableCost(
+      long flushingMemTableCost, long flushingOffHeapMemTableCost) {
     this.flushingMemTablesCost += flushingMemTableCost;
+    this.flushingOffHeapMemTablesCost += flushingOffHeapMemTableCost;
   }
 
-  public synchronized void resetFlushingMemTableCost(long flushingMemTableCost) {
+  public synchronized void resetFlushingMemTableCost(
+      long flushingMemTableCost, long flushingOffHeapMemTableCost) {
     this.flushingMemTablesCost -= flushingMemTableCost;
+    this.flushingOffHeapMemTablesCost -= flushingOffHeapMemTableCost;
+  }
+
+  public void addOffHeapMemTableCost(long cost) {
+    offHeapMemTableCost.addAndGet(cost);
+  }
+
+  public void resetOffHeapMemTableCost(long cost) {
+    offHeapMemTableCost.addAndGet(-cost);
+  }
+
+  public long getOffHeapMemTableCost() {
+    return offHeapMemTableCost.get();
+  }
+
+  private boolean isOverFlushThreshold() {
+    return totalStorageGroupMemCost >= FLUSH_THERSHOLD
+        || offHeapMemTableCost.get() >= OFF_HEAP_FLUSH_THRESHOLD;
+  }
+
+  private boolean isOverRejectThreshold() {
+    return totalStorageGroupMemCost >= REJECT_THERSHOLD
+        || offHeapMemTableCost.get() >= OFF_HEAP_REJECT_THRESHOLD;
   }
 
   private void logCurrentTotalSGMemory() {
@@ -177,40 +235,86 @@ public class SystemInfo {
   /**
    * Order all working memtables in system by memory cost of actual data points in memtable. Mark
    * the top K TSPs as to be flushed, so that after flushing the K TSPs, the memory cost should be
-   * less than FLUSH_THRESHOLD
+   * less than FLUSH_THRESHOLD. The heap and the off-heap costs are limited separately, each by
+   * flushing the memtables costing the most of it.
    */
   private boolean chooseMemTablesToMarkFlush(TsFileProcessor currentTsFileProcessor) {
     // If invoke flush by replaying logs, do not flush now!
     if (reportedStorageGroupMemCostMap.size() == 0) {
       return false;
     }
-    PriorityQueue<TsFileProcessor> allTsFileProcessors =
-        new PriorityQueue<>(
-            (o1, o2) -> Long.compare(o2.getWorkMemTableRamCost(), o1.getWorkMemTableRamCost()));
+    List<TsFileProcessor> allTsFileProcessors = new ArrayList<>();
     for (StorageGroupInfo storageGroupInfo : reportedStorageGroupMemCostMap.keySet()) {
       allTsFileProcessors.addAll(storageGroupInfo.getAllReportedTsp());
     }
-    boolean isCurrentTsFileProcessorSelected = false;
+    Set<TsFileProcessor> selectedTsFileProcessors = new HashSet<>();
+    if (!markMemTablesToFlush(
+            allTsFileProcessors,
+            TsFileProcessor::getWorkMemTableRamCost,
+            totalStorageGroupMemCost - flushingMemTablesCost,
+            FLUSH_THERSHOLD,
+            selectedTsFileProcessors)
+        || !markMemTablesToFlush(
+            allTsFileProcessors,
+            TsFileProcessor::getWorkMemTableOffHeapRamCost,
+            offHeapMemTableCost.get() - flushingOffHeapMemTablesCost,
+            OFF_HEAP_FLUSH_THRESHOLD,
+            selectedTsFileProcessors)) {
+      return false;
+    }
+    return selectedTsFileProcessors.contains(currentTsFileProcessor);
+  }
+
+  /**
+   * Mark the working memtables costing the most until the active cost minus the cost of the
+   * selected memtables, including those selected before, is under the threshold.
+   *
+   * @return false if there are not enough memtables to flush
+   */
+  private boolean markMemTablesToFlush(
+      List<TsFileProcessor> allTsFileProcessors,
+      ToLongFunction<TsFileProcessor> costFunction,
+      long activeMemSize,
+      double threshold,
+      Set<TsFileProcessor> selectedTsFileProcessors) {
     long memCost = 0;
-    long activeMemSize = totalStorageGroupMemCost - flushingMemTablesCost;
-    while (activeMemSize - memCost > FLUSH_THERSHOLD) {
-      if (allTsFileProcessors.isEmpty()
-          || allTsFileProcessors.peek().getWorkMemTableRamCost() == 0) {
+    for (TsFileProcessor selectedTsFileProcessor : selectedTsFileProcessors) {
+      memCost += costFunction.applyAsLong(selectedTsFileProcessor);
+    }
+    if (activeMemSize - memCost <= threshold) {
+      return true;
+    }
+    PriorityQueue<TsFileProcessor> tsFileProcessors =
+        new PriorityQueue<>(
+            (o1, o2) -> Long.compare(costFunction.applyAsLong(o2), costFunction.applyAsLong(o1)));
+    for (TsFileProcessor tsFileProcessor : allTsFileProcessors) {
+      if (!selectedTsFileProcessors.contains(tsFileProcessor)) {
+        tsFileProcessors.add(tsFileProcessor);
+      }
+    }
+    while (activeMemSize - memCost > threshold) {
+      if (tsFileProcessors.isEmpty() || costFunction.applyAsLong(tsFileProcessors.peek()) == 0) {
         return false;
       }
-      TsFileProcessor selectedTsFileProcessor = allTsFileProcessors.peek();
-      memCost += selectedTsFileProcessor.getWorkMemTableRamCost();
+      TsFileProcessor selectedTsFileProcessor = tsFileProcessors.poll();
+      memCost += costFunction.applyAsLong(selectedTsFileProcessor);
       selectedTsFileProcessor.setWorkMemTableShouldFlush();
       flushTaskSubmitThreadPool.submit(
           () -> {
             selectedTsFileProcessor.submitAFlushTask();
           });
-      if (selectedTsFileProcessor == currentTsFileProcessor) {
-        isCurrentTsFileProcessorSelected = true;
-      }
-      allTsFileProcessors.poll();
+      selectedTsFileProcessors.add(selectedTsFileProcessor);
     }
-    return isCurrentTsFileProcessorSelected;
+    return true;
+  }
+
+  /**
+   * Submit a task which needs the write lock of a storage group on behalf of a concurrent
+   * insertion. The insertion holds the read lock and can not upgrade it, so the task runs
+   * asynchronously, in order with the flush tasks submitted by the memory control.
+   */
+  public void submitExclusiveTask(Runnable task) {
+    flushTaskSubmitThreadPool.submit(task);
   }
 
   public boolean isRejected() {
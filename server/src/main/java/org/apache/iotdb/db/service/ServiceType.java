@@ -29,7 +29,7 @@ public enum ServiceType {
   MQTT_SERVICE("MQTTService", ""),
   MONITOR_SERVICE("Monitor ServerService", "Monitor"),
   STAT_MONITOR_SERVICE("Statistics ServerService", ""),
-  WAL_SERVICE("WAL ServerService", ""),
+  WAL_SERVICE("WAL ServerService", generateJmxName("org.apache.iotdb.db.writelog", "WAL Manager")),
   CLOSE_MERGE_SERVICE("Close&Merge ServerService", ""),
   JVM_MEM_CONTROL_SERVICE("Memory Controller", ""),
   AUTHORIZATION_SERVICE("Authorization ServerService", ""),
@@ -21,6 +21,10 @@ package org.apache.iotdb.db.tools.mlog;
 import org.apache.iotdb.db.metadata.PartialPath;
 import org.apache.iotdb.db.metadata.logfile.MLogReader;
 import org.apache.iotdb.db.metadata.logfile.MLogTxtWriter;
+import org.apache.iotdb.db.metadata.logfile.MTreeSnapshotReader;
+import org.apache.iotdb.db.metadata.mnode.MNode;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.db.metadata.mnode.StorageGroupMNode;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.qp.physical.crud.CreateTemplatePlan;
 import org.apache.iotdb.db.qp.physical.crud.SetDeviceTemplatePlan;
@@ -48,7 +52,9 @@ import org.apache.commons.cli.ParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
 
 /** parse the binary mlog or snapshot to text */
 public class MLogParser {
@@ -158,6 +164,10 @@ public class MLogParser {
   }
 
   public static void parseFromFile(String inputFile, String outputFile) throws IOException {
+    if (MTreeSnapshotReader.isCompactSnapshot(new File(inputFile))) {
+      parseFromSnapshot(inputFile, outputFile);
+      return;
+    }
     try (MLogReader mLogReader = new MLogReader(inputFile);
         MLogTxtWriter mLogTxtWriter = new MLogTxtWriter(outputFile)) {
 
@@ -233,4 +243,35 @@ public class MLogParser {
       }
     }
   }
+
+  /** parse a snapshot written by MTreeSnapshotWriter to the same text as an MLog snapshot */
+  private static void parseFromSnapshot(String inputFile, String outputFile) throws IOException {
+    MNode root = new MTreeSnapshotReader(new File(inputFile)).read(1);
+    try (MLogTxtWriter mLogTxtWriter = new MLogTxtWriter(outputFile)) {
+      serializeMNode(root, mLogTxtWriter);
+    }
+  }
+
+  private static void serializeMNode(MNode node, MLogTxtWriter mLogTxtWriter) throws IOException {
+    Collection<MNode> children = node.getChildren().values();
+    for (MNode child : children) {
+      serializeMNode(child, mLogTxtWriter);
+    }
+    if (node instanceof StorageGroupMNode) {
+      mLogTxtWriter.serializeStorageGroupMNode(
+          new StorageGroupMNodePlan(
+              node.getName(), ((StorageGroupMNode) node).getDataTTL(), children.size()));
+    } else if (node instanceof MeasurementMNode) {
+      MeasurementMNode measurement = (MeasurementMNode) node;
+      mLogTxtWriter.serializeMeasurementMNode(
+          new MeasurementMNodePlan(
+              measurement.getName(),
+              measurement.getAlias(),
+              measurement.getOffset(),
+              children.size(),
+              measurement.getSchema()));
+    } else {
+      mLogTxtWriter.serializeMNode(new MNodePlan(node.getName(), children.size()));
+    }
+  }
 }
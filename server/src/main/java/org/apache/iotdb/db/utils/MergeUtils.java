@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.utils;
 
+import org.apache.iotdb.db.engine.merge.manage.MergeManager;
 import org.apache.iotdb.db.engine.merge.manage.MergeResource;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
@@ -109,6 +110,11 @@ public class MergeUtils {
     return ptWritten;
   }
 
+  /** @return the bytes the chunk takes in a file */
+  public static long getChunkSize(Chunk chunk) {
+    return (long) chunk.getHeader().getSerializedSize() + chunk.getHeader().getDataSize();
+  }
+
   public static void writeBatchPoint(BatchData batchData, int i, IChunkWriter chunkWriter) {
     switch (chunkWriter.getDataType()) {
       case TEXT:
@@ -219,7 +225,7 @@ public class MergeUtils {
     while (!chunkMetaHeap.isEmpty()) {
       MetaListEntry metaListEntry = chunkMetaHeap.poll();
       ChunkMetadata currMeta = metaListEntry.current();
-      Chunk chunk = tsFileReader.readMemChunk(currMeta);
+      Chunk chunk = MergeManager.readMergeChunk(tsFileReader, currMeta);
       ret[metaListEntry.pathId].add(chunk);
       if (metaListEntry.hasNext()) {
         metaListEntry.next();
@@ -26,6 +26,7 @@ import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
@@ -52,9 +53,7 @@ public class BinaryTVList extends TVList {
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
     values.get(arrayIndex)[elementIndex] = value;
     size++;
-    if (sorted && size > 1 && timestamp < getTime(size - 2)) {
-      sorted = false;
-    }
+    updateSorted(timestamp);
   }
 
   @Override
@@ -87,6 +86,14 @@ public class BinaryTVList extends TVList {
     return cloneList;
   }
 
+  @Override
+  public BinaryTVList lazyClone() {
+    BinaryTVList cloneList = new BinaryTVList();
+    lazyCloneAs(cloneList);
+    cloneList.values.addAll(values);
+    return cloneList;
+  }
+
   private Binary[] cloneValue(Binary[] array) {
     Binary[] cloneArray = new Binary[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -94,26 +101,17 @@ public class BinaryTVList extends TVList {
   }
 
   @Override
-  public void sort() {
-    if (sortedTimestamps == null || sortedTimestamps.length < size) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
-    }
-    if (sortedValues == null || sortedValues.length < size) {
-      sortedValues =
-          (Binary[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.TEXT, size);
-    }
-    sort(0, size);
-    clearSortedValue();
-    clearSortedTime();
-    sorted = true;
+  protected void copySharedValueArray(int arrayIndex) {
+    Binary[] valueArray = (Binary[]) getPrimitiveArraysByType(TSDataType.TEXT);
+    System.arraycopy(values.get(arrayIndex), 0, valueArray, 0, ARRAY_SIZE);
+    values.set(arrayIndex, valueArray);
   }
 
   @Override
   void clearValue() {
     if (values != null) {
-      for (Binary[] dataArray : values) {
-        PrimitiveArrayManager.release(dataArray);
+      for (int i = sharedArrayNum; i < values.size(); i++) {
+        PrimitiveArrayManager.release(values.get(i));
       }
       values.clear();
     }
@@ -122,10 +120,22 @@ public class BinaryTVList extends TVList {
   @Override
   void clearSortedValue() {
     if (sortedValues != null) {
+      for (Binary[] dataArray : sortedValues) {
+        PrimitiveArrayManager.release(dataArray);
+      }
       sortedValues = null;
     }
   }
 
+  @Override
+  protected void expandSortedValues(int oldArrayNum, int newArrayNum) {
+    sortedValues =
+        oldArrayNum == 0 ? new Binary[newArrayNum][] : Arrays.copyOf(sortedValues, newArrayNum);
+    for (int i = oldArrayNum; i < newArrayNum; i++) {
+      sortedValues[i] = (Binary[]) PrimitiveArrayManager.allocate(TSDataType.TEXT);
+    }
+  }
+
   @Override
   protected void setFromSorted(int src, int dest) {
     set(
@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
@@ -51,9 +52,7 @@ public class BooleanTVList extends TVList {
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
     values.get(arrayIndex)[elementIndex] = value;
     size++;
-    if (sorted && size > 1 && timestamp < getTime(size - 2)) {
-      sorted = false;
-    }
+    updateSorted(timestamp);
   }
 
   @Override
@@ -86,6 +85,14 @@ public class BooleanTVList extends TVList {
     return cloneList;
   }
 
+  @Override
+  public BooleanTVList lazyClone() {
+    BooleanTVList cloneList = new BooleanTVList();
+    lazyCloneAs(cloneList);
+    cloneList.values.addAll(values);
+    return cloneList;
+  }
+
   private boolean[] cloneValue(boolean[] array) {
     boolean[] cloneArray = new boolean[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -93,26 +100,17 @@ public class BooleanTVList extends TVList {
   }
 
   @Override
-  public void sort() {
-    if (sortedTimestamps == null || sortedTimestamps.length < size) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
-    }
-    if (sortedValues == null || sortedValues.length < size) {
-      sortedValues =
-          (boolean[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.BOOLEAN, size);
-    }
-    sort(0, size);
-    clearSortedValue();
-    clearSortedTime();
-    sorted = true;
+  protected void copySharedValueArray(int arrayIndex) {
+    boolean[] valueArray = (boolean[]) getPrimitiveArraysByType(TSDataType.BOOLEAN);
+    System.arraycopy(values.get(arrayIndex), 0, valueArray, 0, ARRAY_SIZE);
+    values.set(arrayIndex, valueArray);
   }
 
   @Override
   void clearValue() {
     if (values != null) {
-      for (boolean[] dataArray : values) {
-        PrimitiveArrayManager.release(dataArray);
+      for (int i = sharedArrayNum; i < values.size(); i++) {
+        PrimitiveArrayManager.release(values.get(i));
       }
       values.clear();
     }
@@ -121,10 +119,22 @@ public class BooleanTVList extends TVList {
   @Override
   void clearSortedValue() {
     if (sortedValues != null) {
+      for (boolean[] dataArray : sortedValues) {
+        PrimitiveArrayManager.release(dataArray);
+      }
       sortedValues = null;
     }
   }
 
+  @Override
+  protected void expandSortedValues(int oldArrayNum, int newArrayNum) {
+    sortedValues =
+        oldArrayNum == 0 ? new boolean[newArrayNum][] : Arrays.copyOf(sortedValues, newArrayNum);
+    for (int i = oldArrayNum; i < newArrayNum; i++) {
+      sortedValues[i] = (boolean[]) PrimitiveArrayManager.allocate(TSDataType.BOOLEAN);
+    }
+  }
+
   @Override
   protected void setFromSorted(int src, int dest) {
     set(
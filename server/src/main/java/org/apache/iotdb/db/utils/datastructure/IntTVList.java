@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
@@ -51,9 +52,7 @@ public class IntTVList extends TVList {
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
     values.get(arrayIndex)[elementIndex] = value;
     size++;
-    if (sorted && size > 1 && timestamp < getTime(size - 2)) {
-      sorted = false;
-    }
+    updateSorted(timestamp);
   }
 
   @Override
@@ -86,6 +85,14 @@ public class IntTVList extends TVList {
     return cloneList;
   }
 
+  @Override
+  public IntTVList lazyClone() {
+    IntTVList cloneList = new IntTVList();
+    lazyCloneAs(cloneList);
+    cloneList.values.addAll(values);
+    return cloneList;
+  }
+
   private int[] cloneValue(int[] array) {
     int[] cloneArray = new int[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -93,25 +100,17 @@ public class IntTVList extends TVList {
   }
 
   @Override
-  public void sort() {
-    if (sortedTimestamps == null || sortedTimestamps.length < size) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
-    }
-    if (sortedValues == null || sortedValues.length < size) {
-      sortedValues = (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, size);
-    }
-    sort(0, size);
-    clearSortedValue();
-    clearSortedTime();
-    sorted = true;
+  protected void copySharedValueArray(int arrayIndex) {
+    int[] valueArray = (int[]) getPrimitiveArraysByType(TSDataType.INT32);
+    System.arraycopy(values.get(arrayIndex), 0, valueArray, 0, ARRAY_SIZE);
+    values.set(arrayIndex, valueArray);
   }
 
   @Override
   void clearValue() {
     if (values != null) {
-      for (int[] dataArray : values) {
-        PrimitiveArrayManager.release(dataArray);
+      for (int i = sharedArrayNum; i < values.size(); i++) {
+        PrimitiveArrayManager.release(values.get(i));
       }
       values.clear();
     }
@@ -120,10 +119,22 @@ public class IntTVList extends TVList {
   @Override
   void clearSortedValue() {
     if (sortedValues != null) {
+      for (int[] dataArray : sortedValues) {
+        PrimitiveArrayManager.release(dataArray);
+      }
       sortedValues = null;
     }
   }
 
+  @Override
+  protected void expandSortedValues(int oldArrayNum, int newArrayNum) {
+    sortedValues =
+        oldArrayNum == 0 ? new int[newArrayNum][] : Arrays.copyOf(sortedValues, newArrayNum);
+    for (int i = oldArrayNum; i < newArrayNum; i++) {
+      sortedValues[i] = (int[]) PrimitiveArrayManager.allocate(TSDataType.INT32);
+    }
+  }
+
   @Override
   protected void setFromSorted(int src, int dest) {
     set(
@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.OffHeapArrayManager;
+import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
+/**
+ * A TVList whose time and value arrays live in direct memory allocated by {@link
+ * OffHeapArrayManager}. Values are stored as raw bits (4 or 8 bytes per element) so that sorting,
+ * deletion and cloning are shared by all the numeric types; subclasses only convert between the
+ * typed values and the raw bits.
+ *
+ * <p>The direct arrays are given back to the pool in {@link #clear()}, which is called when the
+ * memtable is released after flushing. A lazy clone takes over the accounting of all the arrays of
+ * the list it is cloned from, which is held by queries and never cleared. The arrays the clone
+ * still shares with that list, or replaces by copies, may still be read by the queries, so they are
+ * discarded instead of pooled, and so are the arrays of a list still held by queries when its
+ * memtable is released. Discarded arrays are freed by the buffer cleaner.
+ */
+public abstract class OffHeapTVList extends TVList {
+
+  private final List<ByteBuffer> timeArrays;
+
+  private final List<ByteBuffer> valueArrays;
+
+  /** log2 of the element width of value arrays */
+  private final int valueShift;
+
+  private long[][] sortedValues;
+
+  private long pivotValue;
+
+  OffHeapTVList(int valueBytes) {
+    super();
+    timeArrays = new ArrayList<>();
+    valueArrays = new ArrayList<>();
+    valueShift = valueBytes == Long.BYTES ? 3 : 2;
+  }
+
+  @Override
+  public long getTime(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return timeArrays.get(index / ARRAY_SIZE).getLong((index % ARRAY_SIZE) << 3);
+  }
+
+  protected long getRawValue(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    ByteBuffer valueArray = valueArrays.get(index / ARRAY_SIZE);
+    int offset = (index % ARRAY_SIZE) << valueShift;
+    return valueShift == 3 ? valueArray.getLong(offset) : valueArray.getInt(offset);
+  }
+
+  protected void set(int index, long timestamp, long rawValue) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    write(index, timestamp, rawValue);
+  }
+
+  private void write(int index, long timestamp, long rawValue) {
+    int arrayIndex = index / ARRAY_SIZE;
+    int elementIndex = index % ARRAY_SIZE;
+    timeArrays.get(arrayIndex).putLong(elementIndex << 3, timestamp);
+    ByteBuffer valueArray = valueArrays.get(arrayIndex);
+    if (valueShift == 3) {
+      valueArray.putLong(elementIndex << 3, rawValue);
+    } else {
+      valueArray.putInt(elementIndex << 2, (int) rawValue);
+    }
+  }
+
+  /** Append one point and maintain minTime and the sorted flag. */
+  protected void putRaw(long timestamp, long rawValue) {
+    checkExpansion();
+    write(size, timestamp, rawValue);
+    minTime = Math.min(minTime, timestamp);
+    size++;
+    updateSorted(timestamp);
+  }
+
+  /**
+   * Append one point of a batch whose minTime and sorted flag have been maintained by {@link
+   * #updateMinTimeAndSorted(long[], int, int)}.
+   */
+  protected void appendRaw(long timestamp, long rawValue) {
+    checkExpansion();
+    write(size, timestamp, rawValue);
+    size++;
+  }
+
+  @Override
+  public TVList clone() {
+    OffHeapTVList cloneList = (OffHeapTVList) newOffHeapList(getDataType());
+    for (ByteBuffer timeArray : timeArrays) {
+      cloneList.timeArrays.add(cloneArray(timeArray, TSDataType.INT64));
+    }
+    for (ByteBuffer valueArray : valueArrays) {
+      cloneList.valueArrays.add(cloneArray(valueArray, getDataType()));
+    }
+    cloneList.size = size;
+    cloneList.sorted = sorted;
+    cloneList.minTime = minTime;
+    cloneRunsAs(cloneList);
+    return cloneList;
+  }
+
+  @Override
+  public TVList lazyClone() {
+    OffHeapTVList cloneList = (OffHeapTVList) newOffHeapList(getDataType());
+    cloneList.timeArrays.addAll(timeArrays);
+    cloneList.valueArrays.addAll(valueArrays);
+    lazyCloneAs(cloneList);
+    return cloneList;
+  }
+
+  @Override
+  protected void copySharedTimeArray(int arrayIndex) {
+    ByteBuffer sharedArray = timeArrays.get(arrayIndex);
+    timeArrays.set(arrayIndex, cloneArray(sharedArray, TSDataType.INT64));
+    OffHeapArrayManager.discard(sharedArray);
+  }
+
+  @Override
+  protected void copySharedValueArray(int arrayIndex) {
+    ByteBuffer sharedArray = valueArrays.get(arrayIndex);
+    valueArrays.set(arrayIndex, cloneArray(sharedArray, getDataType()));
+    OffHeapArrayManager.discard(sharedArray);
+  }
+
+  private ByteBuffer cloneArray(ByteBuffer array, TSDataType dataType) {
+    ByteBuffer cloneArray = OffHeapArrayManager.allocate(dataType);
+    // duplicate both sides so that the positions of the pooled buffers are never moved
+    cloneArray.duplicate().put(array.duplicate());
+    return cloneArray;
+  }
+
+  @Override
+  protected void checkExpansion() {
+    if ((size % ARRAY_SIZE) == 0) {
+      expandValues();
+      timeArrays.add(OffHeapArrayManager.allocate(TSDataType.INT64));
+    }
+  }
+
+  @Override
+  protected void expandValues() {
+    valueArrays.add(OffHeapArrayManager.allocate(getDataType()));
+  }
+
+  @Override
+  protected int getTimeArrayNum() {
+    return timeArrays.size();
+  }
+
+  @Override
+  protected void releaseLastTimeArray() {
+    OffHeapArrayManager.release(timeArrays.remove(timeArrays.size() - 1));
+  }
+
+  @Override
+  protected void releaseLastValueArray() {
+    OffHeapArrayManager.release(valueArrays.remove(valueArrays.size() - 1));
+  }
+
+  @Override
+  protected void clearTime() {
+    releaseArrays(timeArrays);
+    timeArrays.clear();
+  }
+
+  @Override
+  void clearValue() {
+    releaseArrays(valueArrays);
+    valueArrays.clear();
+  }
+
+  private void releaseArrays(List<ByteBuffer> arrays) {
+    for (int i = 0; i < arrays.size(); i++) {
+      if (i < sharedArrayNum) {
+        OffHeapArrayManager.discard(arrays.get(i));
+      } else {
+        OffHeapArrayManager.release(arrays.get(i));
+      }
+    }
+  }
+
+  @Override
+  public void discardArrays() {
+    for (ByteBuffer timeArray : timeArrays) {
+      OffHeapArrayManager.discard(timeArray);
+    }
+    for (ByteBuffer valueArray : valueArrays) {
+      OffHeapArrayManager.discard(valueArray);
+    }
+  }
+
+  @Override
+  void clearSortedValue() {
+    if (sortedValues != null) {
+      for (long[] dataArray : sortedValues) {
+        PrimitiveArrayManager.release(dataArray);
+      }
+      sortedValues = null;
+    }
+  }
+
+  @Override
+  protected void expandSortedValues(int oldArrayNum, int newArrayNum) {
+    sortedValues =
+        oldArrayNum == 0 ? new long[newArrayNum][] : Arrays.copyOf(sortedValues, newArrayNum);
+    for (int i = oldArrayNum; i < newArrayNum; i++) {
+      sortedValues[i] = (long[]) PrimitiveArrayManager.allocate(TSDataType.INT64);
+    }
+  }
+
+  @Override
+  protected void set(int src, int dest) {
+    set(dest, getTime(src), getRawValue(src));
+  }
+
+  @Override
+  protected void setFromSorted(int src, int dest) {
+    set(
+        dest,
+        sortedTimestamps[src / ARRAY_SIZE][src % ARRAY_SIZE],
+        sortedValues[src / ARRAY_SIZE][src % ARRAY_SIZE]);
+  }
+
+  @Override
+  protected void setToSorted(int src, int dest) {
+    sortedTimestamps[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getTime(src);
+    sortedValues[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getRawValue(src);
+  }
+
+  @Override
+  protected void reverseRange(int lo, int hi) {
+    hi--;
+    while (lo < hi) {
+      long loT = getTime(lo);
+      long loV = getRawValue(lo);
+      long hiT = getTime(hi);
+      long hiV = getRawValue(hi);
+      set(lo++, hiT, hiV);
+      set(hi--, loT, loV);
+    }
+  }
+
+  @Override
+  protected void saveAsPivot(int pos) {
+    pivotTime = getTime(pos);
+    pivotValue = getRawValue(pos);
+  }
+
+  @Override
+  protected void setPivotTo(int pos) {
+    set(pos, pivotTime, pivotValue);
+  }
+}
@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.db.utils.datastructure;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.rescon.OffHeapArrayManager;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.utils.TestOnly;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -31,6 +33,7 @@ import org.apache.iotdb.tsfile.utils.BitMap;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -39,12 +42,30 @@ import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
 public abstract class TVList {
 
   protected static final int SMALL_ARRAY_LENGTH = 32;
+  /** beyond this number of runs, the runs are detected when sorting instead of tracked */
+  protected static final int MAX_TRACKED_RUN_NUM = 256;
+
   protected static final String ERR_DATATYPE_NOT_CONSISTENT = "DataType not consistent";
   protected List<long[]> timestamps;
   protected int size;
 
   protected long[][] sortedTimestamps;
   protected boolean sorted = true;
+  /**
+   * the indexes of the points that are smaller than their previous points, each of them starts a
+   * new sorted run. runNum is -1 if there are too many runs to track.
+   */
+  protected int[] runStarts;
+
+  protected int runNum;
+
+  /**
+   * the number of leading arrays shared with the list this one is lazily cloned from. Queries may
+   * still read them through that list, so they are copied before their points are moved and never
+   * reused after this list is cleared.
+   */
+  protected int sharedArrayNum;
+
   // record reference count of this tv list
   // currently this reference will only be increase because we can't know when to decrease it
   protected AtomicInteger referenceCount;
@@ -61,6 +82,9 @@ public abstract class TVList {
   }
 
   public static TVList newList(TSDataType dataType) {
+    if (isOffHeapList(dataType)) {
+      return newOffHeapList(dataType);
+    }
     switch (dataType) {
       case TEXT:
         return new BinaryTVList();
@@ -80,10 +104,32 @@ public abstract class TVList {
     return null;
   }
 
+  public static TVList newOffHeapList(TSDataType dataType) {
+    switch (dataType) {
+      case FLOAT:
+        return new OffHeapFloatTVList();
+      case INT32:
+        return new OffHeapIntTVList();
+      case INT64:
+        return new OffHeapLongTVList();
+      case DOUBLE:
+        return new OffHeapDoubleTVList();
+      default:
+        break;
+    }
+    return null;
+  }
+
   public static TVList newVectorList(List<TSDataType> datatypes) {
     return new VectorTVList(datatypes);
   }
 
+  /** @return whether the arrays of new TVLists of the type are kept in direct memory */
+  public static boolean isOffHeapList(TSDataType dataType) {
+    return IoTDBDescriptor.getInstance().getConfig().isEnableOffHeapMemTable()
+        && OffHeapArrayManager.isSupported(dataType);
+  }
+
   public static long tvListArrayMemSize(TSDataType type) {
     long size = 0;
     // time size
@@ -229,7 +275,22 @@ public abstract class TVList {
     throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
   }
 
-  public abstract void sort();
+  /**
+   * Sort the points by time stably. The sorted runs recorded while inserting are merged pairwise,
+   * so a list that is mostly in order is sorted with a few short merges.
+   */
+  public void sort() {
+    if (!sorted) {
+      if (sharedArrayNum > 0) {
+        copySharedArrays(getFirstMovedIndex());
+      }
+      mergeRuns(runNum < 0 ? detectRuns() : getTrackedRuns());
+    }
+    clearSortedValue();
+    clearSortedTime();
+    clearRuns();
+    sorted = true;
+  }
 
   public long getMinTime() {
     return minTime;
@@ -245,6 +306,9 @@ public abstract class TVList {
 
   protected abstract void setToSorted(int src, int dest);
 
+  /** Expand the sorting buffer of values from oldArrayNum arrays to newArrayNum arrays. */
+  protected abstract void expandSortedValues(int oldArrayNum, int newArrayNum);
+
   protected abstract void reverseRange(int lo, int hi);
 
   protected abstract void expandValues();
@@ -257,20 +321,53 @@ public abstract class TVList {
     return clone();
   }
 
+  /**
+   * Clone the list without copying its arrays, as the next version of it to be written. The arrays
+   * are shared until the clone moves the points in them, which copies only the arrays from the
+   * first moved point on, so this list is never changed by the clone and the queries holding it
+   * keep reading the points they got. Points appended to the clone are not visible to this list.
+   */
+  public abstract TVList lazyClone();
+
   protected abstract void releaseLastValueArray();
 
+  protected int getTimeArrayNum() {
+    return timestamps.size();
+  }
+
   protected void releaseLastTimeArray() {
     PrimitiveArrayManager.release(timestamps.remove(timestamps.size() - 1));
   }
 
   public int delete(long lowerBound, long upperBound) {
+    if (sharedArrayNum > 0) {
+      // the points are moved from the first deleted one on
+      for (int i = 0; i < size; i++) {
+        long time = getTime(i);
+        if (time >= lowerBound && time <= upperBound) {
+          copySharedArrays(i);
+          break;
+        }
+      }
+    }
     int newSize = 0;
     minTime = Long.MAX_VALUE;
+    // the runs are recorded again as the remaining points are moved
+    clearRuns();
+    sorted = true;
+    long lastTime = Long.MIN_VALUE;
     for (int i = 0; i < size; i++) {
       long time = getTime(i);
       if (time < lowerBound || time > upperBound) {
-        set(i, newSize++);
+        if (time < lastTime) {
+          startNewRun(newSize);
+        }
+        if (i != newSize) {
+          set(i, newSize);
+        }
+        newSize++;
         minTime = Math.min(time, minTime);
+        lastTime = time;
       }
     }
     int deletedNumber = size - newSize;
@@ -280,7 +377,7 @@ public abstract class TVList {
     if (newSize % ARRAY_SIZE != 0) {
       newArrayNum++;
     }
-    for (int releaseIdx = newArrayNum; releaseIdx < timestamps.size(); releaseIdx++) {
+    for (int releaseIdx = newArrayNum; releaseIdx < getTimeArrayNum(); releaseIdx++) {
       releaseLastTimeArray();
       releaseLastValueArray();
     }
@@ -302,6 +399,23 @@ public abstract class TVList {
     cloneList.size = size;
     cloneList.sorted = sorted;
     cloneList.minTime = minTime;
+    cloneRunsAs(cloneList);
+  }
+
+  /** Share the arrays of this list with cloneList, whose value arrays are shared by subclasses. */
+  protected void lazyCloneAs(TVList cloneList) {
+    cloneList.timestamps.addAll(timestamps);
+    cloneList.size = size;
+    cloneList.sorted = sorted;
+    cloneList.minTime = minTime;
+    cloneList.version = version + 1;
+    cloneList.sharedArrayNum = getTimeArrayNum();
+    cloneRunsAs(cloneList);
+  }
+
+  protected void cloneRunsAs(TVList cloneList) {
+    cloneList.runStarts = runStarts == null ? null : Arrays.copyOf(runStarts, runStarts.length);
+    cloneList.runNum = runNum;
   }
 
   public void clear() {
@@ -313,31 +427,114 @@ public abstract class TVList {
 
     clearValue();
     clearSortedValue();
+    clearRuns();
+    sharedArrayNum = 0;
+  }
+
+  /**
+   * Give up the arrays of a list which is still held by queries when its memtable is released. The
+   * list is not cleared, as the queries keep reading it. Heap arrays are simply left to the GC, so
+   * only lists whose arrays are accounted elsewhere need to override this.
+   */
+  public void discardArrays() {
+    // the heap arrays are not accounted after the memtable is released
   }
 
   protected void clearTime() {
     if (timestamps != null) {
-      for (long[] dataArray : timestamps) {
-        PrimitiveArrayManager.release(dataArray);
+      for (int i = sharedArrayNum; i < timestamps.size(); i++) {
+        PrimitiveArrayManager.release(timestamps.get(i));
       }
       timestamps.clear();
     }
   }
 
+  /**
+   * Copy the shared arrays holding the points from index on, before the points are moved. The
+   * copies are owned by this list.
+   */
+  protected void copySharedArrays(int index) {
+    int firstArrayIndex = index / ARRAY_SIZE;
+    for (int arrayIndex = firstArrayIndex; arrayIndex < sharedArrayNum; arrayIndex++) {
+      copySharedTimeArray(arrayIndex);
+      copySharedValueArray(arrayIndex);
+    }
+    sharedArrayNum = Math.min(sharedArrayNum, firstArrayIndex);
+  }
+
+  protected void copySharedTimeArray(int arrayIndex) {
+    long[] timeArray = (long[]) getPrimitiveArraysByType(TSDataType.INT64);
+    System.arraycopy(timestamps.get(arrayIndex), 0, timeArray, 0, ARRAY_SIZE);
+    timestamps.set(arrayIndex, timeArray);
+  }
+
+  /** Replace the shared value array at arrayIndex with a copy owned by this list. */
+  protected abstract void copySharedValueArray(int arrayIndex);
+
   protected void clearSortedTime() {
     if (sortedTimestamps != null) {
+      for (long[] dataArray : sortedTimestamps) {
+        PrimitiveArrayManager.release(dataArray);
+      }
       sortedTimestamps = null;
     }
   }
 
+  protected void clearRuns() {
+    runStarts = null;
+    runNum = 0;
+  }
+
+  /**
+   * Record that the point at index is smaller than its previous point, so it starts a new sorted
+   * run.
+   */
+  protected void startNewRun(int index) {
+    sorted = false;
+    if (runNum < 0) {
+      return;
+    }
+    if (runNum == MAX_TRACKED_RUN_NUM) {
+      // too many runs, they will be detected when sorting
+      runStarts = null;
+      runNum = -1;
+      return;
+    }
+    if (runStarts == null) {
+      runStarts = new int[4];
+    } else if (runNum == runStarts.length) {
+      runStarts = Arrays.copyOf(runStarts, runNum * 2);
+    }
+    runStarts[runNum++] = index;
+  }
+
   abstract void clearValue();
 
   /**
    * The arrays for sorting are not including in write memory now, the memory usage is considered as
-   * temporary memory.
+   * temporary memory. They are borrowed from and returned to {@link PrimitiveArrayManager}.
    */
   abstract void clearSortedValue();
 
+  /** Make sure that the sorting buffers hold at least length points. */
+  protected void checkSortingBuffer(int length) {
+    int arrayNum = (length + ARRAY_SIZE - 1) / ARRAY_SIZE;
+    int oldArrayNum = sortedTimestamps == null ? 0 : sortedTimestamps.length;
+    if (arrayNum <= oldArrayNum) {
+      return;
+    }
+    sortedTimestamps =
+        oldArrayNum == 0 ? new long[arrayNum][] : Arrays.copyOf(sortedTimestamps, arrayNum);
+    for (int i = oldArrayNum; i < arrayNum; i++) {
+      sortedTimestamps[i] = (long[]) PrimitiveArrayManager.allocate(TSDataType.INT64);
+    }
+    expandSortedValues(oldArrayNum, arrayNum);
+  }
+
+  private long getSortedTime(int index) {
+    return sortedTimestamps[index / ARRAY_SIZE][index % ARRAY_SIZE];
+  }
+
   protected void checkExpansion() {
     if ((size % ARRAY_SIZE) == 0) {
       expandValues();
@@ -355,23 +552,76 @@ public abstract class TVList {
     return cloneArray;
   }
 
-  protected void sort(int lo, int hi) {
-    if (sorted) {
-      return;
+  /**
+   * Get the first point moved by sorting. The points before it are in order and not later than any
+   * point after them, so they stay where they are.
+   */
+  private int getFirstMovedIndex() {
+    int prefixEnd = 1;
+    if (runNum > 0) {
+      prefixEnd = runStarts[0];
+    } else {
+      while (prefixEnd < size && getTime(prefixEnd) >= getTime(prefixEnd - 1)) {
+        prefixEnd++;
+      }
     }
+    long restMinTime = Long.MAX_VALUE;
+    for (int i = prefixEnd; i < size; i++) {
+      restMinTime = Math.min(restMinTime, getTime(i));
+    }
+    return upperBound(0, prefixEnd, restMinTime);
+  }
 
-    if (lo == hi) {
-      return;
+  /** @return the bounds of the tracked runs, from 0 to size */
+  private int[] getTrackedRuns() {
+    int[] bounds = new int[runNum + 2];
+    System.arraycopy(runStarts, 0, bounds, 1, runNum);
+    bounds[runNum + 1] = size;
+    return bounds;
+  }
+
+  /**
+   * Find the runs like TimSort, the descending runs are reversed and the runs shorter than {@link
+   * #SMALL_ARRAY_LENGTH} are extended by binary insertion.
+   *
+   * @return the bounds of the runs, from 0 to size
+   */
+  private int[] detectRuns() {
+    int[] bounds = new int[16];
+    int boundNum = 1;
+    int lo = 0;
+    while (lo < size) {
+      int runLen = countRunAndMakeAscending(lo, size);
+      if (runLen < SMALL_ARRAY_LENGTH) {
+        int force = Math.min(SMALL_ARRAY_LENGTH, size - lo);
+        binarySort(lo, lo + force, lo + runLen);
+        runLen = force;
+      }
+      lo += runLen;
+      if (boundNum == bounds.length) {
+        bounds = Arrays.copyOf(bounds, boundNum * 2);
+      }
+      bounds[boundNum++] = lo;
     }
-    if (hi - lo <= SMALL_ARRAY_LENGTH) {
-      int initRunLen = countRunAndMakeAscending(lo, hi);
-      binarySort(lo, hi, lo + initRunLen);
-      return;
+    return Arrays.copyOf(bounds, boundNum);
+  }
+
+  /** Merge the adjacent runs pairwise until one run is left. */
+  private void mergeRuns(int[] bounds) {
+    int boundNum = bounds.length;
+    while (boundNum > 2) {
+      int newBoundNum = 1;
+      int i = 0;
+      for (; i + 2 < boundNum; i += 2) {
+        merge(bounds[i], bounds[i + 1], bounds[i + 2]);
+        bounds[newBoundNum++] = bounds[i + 2];
+      }
+      if (i + 1 < boundNum) {
+        // an odd run left
+        bounds[newBoundNum++] = bounds[i + 1];
+      }
+      boundNum = newBoundNum;
     }
-    int mid = (lo + hi) >>> 1;
-    sort(lo, mid);
-    sort(mid, hi);
-    merge(lo, mid, hi);
   }
 
   protected int countRunAndMakeAscending(int lo, int hi) {
@@ -447,78 +697,124 @@ public abstract class TVList {
       }
       setPivotTo(left);
     }
-    for (int i = lo; i < hi; i++) {
-      setToSorted(i, i);
-    }
   }
 
+  /**
+   * Merge the sorted runs [lo, mid) and [mid, hi) stably. Only the overlapping parts of the runs
+   * are merged, through a sorting buffer as long as the shorter of them.
+   */
   protected void merge(int lo, int mid, int hi) {
-    // end of sorting buffer
-    int tmpIdx = 0;
+    long leftMaxTime = getTime(mid - 1);
+    long rightMinTime = getTime(mid);
+    if (leftMaxTime <= rightMinTime) {
+      return;
+    }
+    // the points of the left run that are not larger than the right run are in place
+    lo = upperBound(lo, mid, rightMinTime);
+    // the points of the right run that are not smaller than the left run are in place
+    hi = lowerBound(mid, hi, leftMaxTime);
+    if (mid - lo <= hi - mid) {
+      mergeLo(lo, mid, hi);
+    } else {
+      mergeHi(lo, mid, hi);
+    }
+  }
 
-    // start of unmerged parts of each sequence
-    int leftIdx = lo;
+  /** merge from the start with the left run in the sorting buffer */
+  private void mergeLo(int lo, int mid, int hi) {
+    int leftLen = mid - lo;
+    checkSortingBuffer(leftLen);
+    for (int i = 0; i < leftLen; i++) {
+      setToSorted(lo + i, i);
+    }
+    int leftIdx = 0;
     int rightIdx = mid;
-
-    // copy the minimum elements to sorting buffer until one sequence is exhausted
-    int endSide = 0;
-    while (endSide == 0) {
-      if (compare(leftIdx, rightIdx) <= 0) {
-        setToSorted(leftIdx, lo + tmpIdx);
-        tmpIdx++;
-        leftIdx++;
-        if (leftIdx == mid) {
-          endSide = 1;
-        }
+    int dest = lo;
+    while (leftIdx < leftLen && rightIdx < hi) {
+      if (getTime(rightIdx) < getSortedTime(leftIdx)) {
+        set(rightIdx++, dest++);
       } else {
-        setToSorted(rightIdx, lo + tmpIdx);
-        tmpIdx++;
-        rightIdx++;
-        if (rightIdx == hi) {
-          endSide = 2;
-        }
+        setFromSorted(leftIdx++, dest++);
       }
     }
+    // the rest of the right run is in place
+    while (leftIdx < leftLen) {
+      setFromSorted(leftIdx++, dest++);
+    }
+  }
 
-    // copy the remaining elements of another sequence
-    int start;
-    int end;
-    if (endSide == 1) {
-      start = rightIdx;
-      end = hi;
-    } else {
-      start = leftIdx;
-      end = mid;
+  /** merge from the end with the right run in the sorting buffer */
+  private void mergeHi(int lo, int mid, int hi) {
+    int rightLen = hi - mid;
+    checkSortingBuffer(rightLen);
+    for (int i = 0; i < rightLen; i++) {
+      setToSorted(mid + i, i);
+    }
+    int leftIdx = mid - 1;
+    int rightIdx = rightLen - 1;
+    int dest = hi - 1;
+    while (leftIdx >= lo && rightIdx >= 0) {
+      if (getTime(leftIdx) > getSortedTime(rightIdx)) {
+        set(leftIdx--, dest--);
+      } else {
+        setFromSorted(rightIdx--, dest--);
+      }
+    }
+    // the rest of the left run is in place
+    while (rightIdx >= 0) {
+      setFromSorted(rightIdx--, dest--);
     }
-    for (; start < end; start++) {
-      setToSorted(start, lo + tmpIdx);
-      tmpIdx++;
+  }
+
+  /** @return the first index in [lo, hi) whose time is larger than time, or hi */
+  private int upperBound(int lo, int hi, long time) {
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (getTime(mid) <= time) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
     }
+    return lo;
+  }
 
-    // copy from sorting buffer to the original arrays so that they can be further sorted
-    // potential speed up: change the place of sorting buffer and origin data between merge
-    // iterations
-    for (int i = lo; i < hi; i++) {
-      setFromSorted(i, i);
+  /** @return the first index in [lo, hi) whose time is not smaller than time, or hi */
+  private int lowerBound(int lo, int hi, long time) {
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (getTime(mid) < time) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
     }
+    return lo;
   }
 
   void updateMinTimeAndSorted(long[] time) {
     updateMinTimeAndSorted(time, 0, time.length);
   }
 
+  /** Should be called before the points in [start, end) of time are appended. */
   void updateMinTimeAndSorted(long[] time, int start, int end) {
-    int length = time.length;
     long inPutMinTime = Long.MAX_VALUE;
-    boolean inputSorted = true;
+    long lastTime = size == 0 ? Long.MIN_VALUE : getTime(size - 1);
     for (int i = start; i < end; i++) {
       inPutMinTime = Math.min(inPutMinTime, time[i]);
-      if (inputSorted && i < length - 1 && time[i] > time[i + 1]) {
-        inputSorted = false;
+      if (time[i] < lastTime) {
+        startNewRun(size + i - start);
       }
+      lastTime = time[i];
     }
     minTime = Math.min(inPutMinTime, minTime);
-    sorted = sorted && inputSorted && (size == 0 || inPutMinTime >= getTime(size - 1));
+  }
+
+  /** Should be called after a point is appended at index size - 1. */
+  protected void updateSorted(long timestamp) {
+    if (size > 1 && timestamp < getTime(size - 2)) {
+      startNewRun(size - 1);
+    }
   }
 
   /** for log */
@@ -28,6 +28,7 @@ import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
@@ -46,6 +47,12 @@ public class VectorTVList extends TVList {
 
   private int pivotIndex;
 
+  /**
+   * the number of leading value arrays and bitmaps of each column shared with the list this one is
+   * lazily cloned from. Sorting only moves the indices, so they are never copied.
+   */
+  private int sharedValueArrayNum;
+
   VectorTVList(List<TSDataType> types) {
     super();
     indices = new ArrayList<>(types.size());
@@ -101,9 +108,7 @@ public class VectorTVList extends TVList {
     }
     indices.get(arrayIndex)[elementIndex] = size;
     size++;
-    if (sorted && size > 1 && timestamp < getTime(size - 2)) {
-      sorted = false;
-    }
+    updateSorted(timestamp);
   }
 
   @Override
@@ -363,6 +368,31 @@ public class VectorTVList extends TVList {
     return cloneList;
   }
 
+  @Override
+  public VectorTVList lazyClone() {
+    VectorTVList cloneList = new VectorTVList(dataTypes);
+    lazyCloneAs(cloneList);
+    cloneList.indices.addAll(indices);
+    for (int i = 0; i < values.size(); i++) {
+      cloneList.values.get(i).addAll(values.get(i));
+    }
+    if (bitMaps != null) {
+      cloneList.bitMaps = new ArrayList<>(dataTypes.size());
+      for (List<BitMap> columnBitMaps : bitMaps) {
+        cloneList.bitMaps.add(columnBitMaps == null ? null : new ArrayList<>(columnBitMaps));
+      }
+    }
+    cloneList.sharedValueArrayNum = indices.size();
+    return cloneList;
+  }
+
+  @Override
+  protected void copySharedValueArray(int arrayIndex) {
+    int[] indexArray = (int[]) getPrimitiveArraysByType(TSDataType.INT32);
+    System.arraycopy(indices.get(arrayIndex), 0, indexArray, 0, ARRAY_SIZE);
+    indices.set(arrayIndex, indexArray);
+  }
+
   private int[] cloneIndex(int[] array) {
     int[] cloneArray = new int[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -412,34 +442,19 @@ public class VectorTVList extends TVList {
     }
   }
 
-  @Override
-  public void sort() {
-    if (sortedTimestamps == null || sortedTimestamps.length < size) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
-    }
-    if (sortedIndices == null || sortedIndices.length < size) {
-      sortedIndices = (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, size);
-    }
-    sort(0, size);
-    clearSortedValue();
-    clearSortedTime();
-    sorted = true;
-  }
-
   @Override
   void clearValue() {
     if (indices != null) {
-      for (int[] dataArray : indices) {
-        PrimitiveArrayManager.release(dataArray);
+      for (int i = sharedArrayNum; i < indices.size(); i++) {
+        PrimitiveArrayManager.release(indices.get(i));
       }
       indices.clear();
     }
     for (int i = 0; i < dataTypes.size(); i++) {
       List<Object> columnValues = values.get(i);
       if (columnValues != null) {
-        for (Object dataArray : columnValues) {
-          PrimitiveArrayManager.release(dataArray);
+        for (int j = sharedValueArrayNum; j < columnValues.size(); j++) {
+          PrimitiveArrayManager.release(columnValues.get(j));
         }
         columnValues.clear();
       }
@@ -450,15 +465,28 @@ public class VectorTVList extends TVList {
         }
       }
     }
+    sharedValueArrayNum = 0;
   }
 
   @Override
   void clearSortedValue() {
     if (sortedIndices != null) {
+      for (int[] dataArray : sortedIndices) {
+        PrimitiveArrayManager.release(dataArray);
+      }
       sortedIndices = null;
     }
   }
 
+  @Override
+  protected void expandSortedValues(int oldArrayNum, int newArrayNum) {
+    sortedIndices =
+        oldArrayNum == 0 ? new int[newArrayNum][] : Arrays.copyOf(sortedIndices, newArrayNum);
+    for (int i = oldArrayNum; i < newArrayNum; i++) {
+      sortedIndices[i] = (int[]) PrimitiveArrayManager.allocate(TSDataType.INT32);
+    }
+  }
+
   @Override
   protected void setFromSorted(int src, int dest) {
     set(
@@ -584,8 +612,12 @@ public class VectorTVList extends TVList {
   protected void releaseLastValueArray() {
     PrimitiveArrayManager.release(indices.remove(indices.size() - 1));
     for (List<Object> valueList : values) {
-      PrimitiveArrayManager.release(valueList.remove(valueList.size() - 1));
+      Object valueArray = valueList.remove(valueList.size() - 1);
+      if (valueList.size() >= sharedValueArrayNum) {
+        PrimitiveArrayManager.release(valueArray);
+      }
     }
+    sharedValueArrayNum = Math.min(sharedValueArrayNum, indices.size());
   }
 
   @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
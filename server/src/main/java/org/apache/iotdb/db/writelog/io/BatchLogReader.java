@@ -43,16 +43,20 @@ public class BatchLogReader implements ILogReader {
 
   private boolean fileCorrupted = false;
 
-  BatchLogReader(ByteBuffer buffer) {
-    List<PhysicalPlan> logs = readLogs(buffer);
+  /** @param dictionary the node ids defined by the previous batches of the same file */
+  BatchLogReader(ByteBuffer buffer, NodeIdDictionary dictionary) {
+    List<PhysicalPlan> logs = readLogs(buffer, dictionary);
     this.planIterator = logs.iterator();
   }
 
-  private List<PhysicalPlan> readLogs(ByteBuffer buffer) {
+  private List<PhysicalPlan> readLogs(ByteBuffer buffer, NodeIdDictionary dictionary) {
     List<PhysicalPlan> plans = new ArrayList<>();
     while (buffer.position() != buffer.limit()) {
       try {
-        plans.add(PhysicalPlan.Factory.create(buffer));
+        PhysicalPlan plan = dictionary.read(buffer);
+        if (plan != null) {
+          plans.add(plan);
+        }
       } catch (IOException | IllegalPathException e) {
         logger.error("Cannot deserialize PhysicalPlans from ByteBuffer, ignore remaining logs", e);
         fileCorrupted = true;
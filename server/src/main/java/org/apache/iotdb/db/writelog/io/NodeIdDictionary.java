@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan.PhysicalPlanType;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * NodeIdDictionary logs the InsertRowPlans in a WAL file with numeric ids of their devices and
+ * measurements instead of the paths, so that the strings are neither encoded nor written for every
+ * row. The ids are numbered from 0 in each file, and the name of an id is logged by a
+ * DEFINE_NODE_ID record before the first log using it, so a file can be replayed by itself and
+ * the ids are never persisted elsewhere. A replayed plan carries the paths again before it is
+ * applied to the memtables.
+ *
+ * <p>A dictionary is used by either the writer or a reader of a file, and it is not thread-safe.
+ */
+public class NodeIdDictionary {
+
+  private static final byte DEFINE_NODE_ID = (byte) PhysicalPlanType.DEFINE_NODE_ID.ordinal();
+  private static final byte INSERT_WITH_NODE_IDS =
+      (byte) PhysicalPlanType.INSERT_WITH_NODE_IDS.ordinal();
+
+  /** the ids of the device paths defined in the current file, used by the writer */
+  private final Map<String, Integer> deviceIds = new HashMap<>();
+
+  /** the ids of the measurement names defined in the current file, shared by the devices */
+  private final Map<String, Integer> measurementIds = new HashMap<>();
+
+  private int nextId = 0;
+
+  /** the names of the ids defined so far, used by the reader */
+  private final Map<Integer, String> names = new HashMap<>();
+
+  /**
+   * Serialize the plan with the ids of its device and measurements, defining the ids not in the
+   * current file yet.
+   *
+   * @return false if the plan is not serialized, for it is not an InsertRowPlan or it inserts
+   *     aligned series, then it should be serialized by itself
+   */
+  public boolean serialize(PhysicalPlan plan, ByteBuffer buffer) {
+    if (!(plan instanceof InsertRowPlan) || ((InsertRowPlan) plan).isAligned()) {
+      return false;
+    }
+    InsertRowPlan rowPlan = (InsertRowPlan) plan;
+    String[] measurements = rowPlan.getMeasurements();
+    int firstNewId = nextId;
+    try {
+      int deviceId = getOrDefine(deviceIds, rowPlan.getPrefixPath().getFullPath(), buffer);
+      int measurementNum = 0;
+      int[] ids = new int[measurements.length];
+      for (int i = 0; i < measurements.length; i++) {
+        if (measurements[i] != null) {
+          ids[measurementNum++] = getOrDefine(measurementIds, measurements[i], buffer);
+        }
+      }
+      buffer.put(INSERT_WITH_NODE_IDS);
+      buffer.putLong(rowPlan.getTime());
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(deviceId, buffer);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(measurementNum, buffer);
+      for (int i = 0; i < measurementNum; i++) {
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(ids[i], buffer);
+      }
+      rowPlan.serializeValues(buffer);
+    } catch (BufferOverflowException e) {
+      // the buffer is reset and the log is put again, so the ids defined by it are undone
+      deviceIds.values().removeIf(id -> id >= firstNewId);
+      measurementIds.values().removeIf(id -> id >= firstNewId);
+      nextId = firstNewId;
+      throw e;
+    }
+    return true;
+  }
+
+  private int getOrDefine(Map<String, Integer> ids, String name, ByteBuffer buffer) {
+    Integer id = ids.get(name);
+    if (id == null) {
+      id = nextId++;
+      ids.put(name, id);
+      buffer.put(DEFINE_NODE_ID);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(id, buffer);
+      ReadWriteIOUtils.write(name, buffer);
+    }
+    return id;
+  }
+
+  /** Forget the defined ids when the writer starts a new file. */
+  public void clear() {
+    deviceIds.clear();
+    measurementIds.clear();
+    nextId = 0;
+    names.clear();
+  }
+
+  /**
+   * Read a log from the buffer.
+   *
+   * @return the plan, or null if the log is a definition of id
+   */
+  public PhysicalPlan read(ByteBuffer buffer) throws IOException, IllegalPathException {
+    byte type = buffer.get(buffer.position());
+    if (type == DEFINE_NODE_ID) {
+      buffer.get();
+      int id = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      names.put(id, ReadWriteIOUtils.readString(buffer));
+      return null;
+    } else if (type != INSERT_WITH_NODE_IDS) {
+      return PhysicalPlan.Factory.create(buffer);
+    }
+
+    buffer.get();
+    InsertRowPlan plan = new InsertRowPlan();
+    plan.setTime(buffer.getLong());
+    plan.setPrefixPath(new PartialPath(getName(buffer)));
+    String[] measurements = new String[ReadWriteForEncodingUtils.readUnsignedVarInt(buffer)];
+    for (int i = 0; i < measurements.length; i++) {
+      measurements[i] = getName(buffer);
+    }
+    plan.setMeasurements(measurements);
+    plan.deserializeValues(buffer);
+    return plan;
+  }
+
+  private String getName(ByteBuffer buffer) throws IOException {
+    int id = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    String name = names.get(id);
+    if (name == null) {
+      throw new IOException("Node id " + id + " is not defined before it is used");
+    }
+    return name;
+  }
+}
@@ -53,6 +53,8 @@ public class SingleFileLogReader implements ILogReader {
 
   private BatchLogReader batchLogReader;
 
+  private NodeIdDictionary nodeIdDictionary;
+
   private boolean fileCorrupted = false;
 
   public SingleFileLogReader(File logFile) throws FileNotFoundException {
@@ -93,7 +95,7 @@ public class SingleFileLogReader implements ILogReader {
                 idx, checkSum, checkSummer.getValue()));
       }
 
-      batchLogReader = new BatchLogReader(ByteBuffer.wrap(buffer));
+      batchLogReader = new BatchLogReader(ByteBuffer.wrap(buffer), nodeIdDictionary);
       fileCorrupted = fileCorrupted || batchLogReader.isFileCorrupted();
     } catch (Exception e) {
       logger.error(
@@ -134,6 +136,7 @@ public class SingleFileLogReader implements ILogReader {
     logger.info("open WAL file: {} size is {}", logFile.getName(), logFile.length());
     this.filepath = logFile.getPath();
     idx = 0;
+    nodeIdDictionary = new NodeIdDictionary();
   }
 
   public boolean isFileCorrupted() {
@@ -22,6 +22,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.StartupException;
 import org.apache.iotdb.db.service.IService;
+import org.apache.iotdb.db.service.JMXService;
 import org.apache.iotdb.db.service.ServiceType;
 import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
@@ -36,6 +37,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -43,7 +45,8 @@ import java.util.function.Supplier;
  * MultiFileLogNodeManager manages all ExclusiveWriteLogNodes, each manages WALs of a TsFile (either
  * seq or unseq).
  */
-public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
+public class MultiFileLogNodeManager
+    implements WriteLogNodeManager, IService, MultiFileLogNodeManagerMBean {
 
   private static final Logger logger = LoggerFactory.getLogger(MultiFileLogNodeManager.class);
   private final Map<String, WriteLogNode> nodeMap;
@@ -51,6 +54,12 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
   private ScheduledExecutorService executorService;
   private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
+  // statistics of the group commits of all nodes
+  private final AtomicLong groupCommitNum = new AtomicLong();
+  private final AtomicLong groupCommittedLogNum = new AtomicLong();
+  private final AtomicLong totalFsyncNanos = new AtomicLong();
+  private final AtomicLong maxFsyncNanos = new AtomicLong();
+
   private void forceTask() {
     if (IoTDBDescriptor.getInstance().getConfig().isReadOnly()) {
       logger.warn("system mode is read-only, the force flush WAL task is stopped");
@@ -121,6 +130,7 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
       if (!config.isEnableWal()) {
         return;
       }
+      JMXService.registerMBean(this, ServiceType.WAL_SERVICE.getJmxName());
       if (config.getForceWalPeriodInMs() > 0) {
         executorService = Executors.newSingleThreadScheduledExecutor();
         executorService.scheduleWithFixedDelay(
@@ -148,9 +158,45 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
         Thread.currentThread().interrupt();
       }
     }
+    JMXService.deregisterMBean(ServiceType.WAL_SERVICE.getJmxName());
     close();
   }
 
+  /**
+   * Called by a log node after it forces the logs of a group commit to disk.
+   *
+   * @param logNum number of logs committed together
+   * @param fsyncNanos time spent on forcing them to disk
+   */
+  public void recordGroupCommit(int logNum, long fsyncNanos) {
+    groupCommitNum.incrementAndGet();
+    groupCommittedLogNum.addAndGet(logNum);
+    totalFsyncNanos.addAndGet(fsyncNanos);
+    maxFsyncNanos.accumulateAndGet(fsyncNanos, Math::max);
+  }
+
+  @Override
+  public long getGroupCommitNum() {
+    return groupCommitNum.get();
+  }
+
+  @Override
+  public double getAverageGroupCommitBatchSize() {
+    long commitNum = groupCommitNum.get();
+    return commitNum == 0 ? 0 : (double) groupCommittedLogNum.get() / commitNum;
+  }
+
+  @Override
+  public double getAverageFsyncLatencyInUs() {
+    long commitNum = groupCommitNum.get();
+    return commitNum == 0 ? 0 : totalFsyncNanos.get() / 1000.0 / commitNum;
+  }
+
+  @Override
+  public long getMaxFsyncLatencyInUs() {
+    return maxFsyncNanos.get() / 1000;
+  }
+
   @Override
   public ServiceType getID() {
     return ServiceType.WAL_SERVICE;
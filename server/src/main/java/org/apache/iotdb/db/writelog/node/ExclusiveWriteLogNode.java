@@ -27,6 +27,8 @@ import org.apache.iotdb.db.writelog.io.ILogReader;
 import org.apache.iotdb.db.writelog.io.ILogWriter;
 import org.apache.iotdb.db.writelog.io.LogWriter;
 import org.apache.iotdb.db.writelog.io.MultiFileLogReader;
+import org.apache.iotdb.db.writelog.io.NodeIdDictionary;
+import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.io.FileUtils;
@@ -77,7 +79,35 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
 
   private int bufferedLogNum = 0;
 
-  private boolean deleted;
+  private volatile boolean deleted;
+
+  /**
+   * whether writers wait until their logs are forced to disk, the logs of concurrent writers are
+   * written and forced by one flush
+   */
+  private final boolean enableGroupCommit = config.isEnableWalGroupCommit();
+
+  /** sequence number of the last log put into the buffer, guarded by lock */
+  private long appendedLogSeq = 0;
+
+  /** sequence number of the last log that has been forced to disk */
+  private long committedLogSeq = 0;
+
+  /** whether a group commit task is submitted and has not switched the buffer yet */
+  private boolean groupCommitScheduled = false;
+
+  /**
+   * set if a group commit fails. The node is then closed for writing: the logs not forced yet are
+   * discarded, their writers and all later writers get an IOException, and the system is set
+   * read-only. The node recovers only by a restart, which replays the logs forced before the
+   * failure.
+   */
+  private volatile boolean groupCommitFailed = false;
+
+  private final Object groupCommitCondition = new Object();
+
+  /** the node ids defined in the current file, guarded by lock */
+  private final NodeIdDictionary nodeIdDictionary = new NodeIdDictionary();
 
   /**
    * constructor of ExclusiveWriteLogNode.
@@ -102,15 +132,32 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
 
   @Override
   public void write(PhysicalPlan plan) throws IOException {
+    waitForCommit(append(plan));
+  }
+
+  @Override
+  public long append(PhysicalPlan plan) throws IOException {
     if (deleted) {
       throw new IOException("WAL node deleted");
     }
+    if (groupCommitFailed) {
+      throw new IOException("WAL of " + identifier + " failed to be forced to disk");
+    }
     lock.lock();
     try {
       putLog(plan);
-      if (bufferedLogNum >= config.getFlushWalThreshold()) {
-        sync();
+      if (!enableGroupCommit) {
+        if (bufferedLogNum >= config.getFlushWalThreshold()) {
+          sync();
+        }
+        return 0;
+      }
+      long logSeq = ++appendedLogSeq;
+      if (!groupCommitScheduled) {
+        groupCommitScheduled = true;
+        FLUSH_BUFFER_THREAD_POOL.submit(this::groupCommit);
       }
+      return logSeq;
     } catch (BufferOverflowException e) {
       throw new IOException("Log cannot fit into the buffer, please increase wal_buffer_size", e);
     } finally {
@@ -118,19 +165,84 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
     }
   }
 
+  /**
+   * Switch the working buffer to flushing, so that all the logs put since the last commit are
+   * written and forced together. Writers keep putting logs into the other buffer meanwhile.
+   */
+  private void groupCommit() {
+    try {
+      // wait for the previous commit outside the lock, during which more logs can be put
+      if (config.getWalGroupCommitDelayInMs() > 0) {
+        Thread.sleep(config.getWalGroupCommitDelayInMs());
+      }
+      synchronized (switchBufferCondition) {
+        while (logBufferFlushing != null && !deleted) {
+          switchBufferCondition.wait();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    lock.lock();
+    try {
+      groupCommitScheduled = false;
+      sync();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void waitForCommit(long logSeq) throws IOException {
+    if (logSeq <= 0) {
+      return;
+    }
+    synchronized (groupCommitCondition) {
+      while (committedLogSeq < logSeq && !groupCommitFailed && !deleted) {
+        try {
+          groupCommitCondition.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Waiting for the WAL to be forced interrupted", e);
+        }
+      }
+      if (committedLogSeq < logSeq) {
+        throw new IOException("WAL of " + identifier + " cannot be forced to disk");
+      }
+    }
+  }
+
+  private void notifyCommitted(long logSeq, boolean success) {
+    synchronized (groupCommitCondition) {
+      // the logs of a failed commit must not be acknowledged by a later commit
+      if (success && !groupCommitFailed) {
+        committedLogSeq = Math.max(committedLogSeq, logSeq);
+      } else {
+        groupCommitFailed = true;
+      }
+      groupCommitCondition.notifyAll();
+    }
+  }
+
   private void putLog(PhysicalPlan plan) {
     logBufferWorking.mark();
     try {
-      plan.serialize(logBufferWorking);
+      serialize(plan);
     } catch (BufferOverflowException e) {
       logger.info("WAL BufferOverflow !");
       logBufferWorking.reset();
       sync();
-      plan.serialize(logBufferWorking);
+      serialize(plan);
     }
     bufferedLogNum++;
   }
 
+  private void serialize(PhysicalPlan plan) {
+    if (!nodeIdDictionary.serialize(plan, logBufferWorking)) {
+      plan.serialize(logBufferWorking);
+    }
+  }
+
   @Override
   public void close() {
     sync();
@@ -149,6 +261,8 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
         logger.debug("WAL file {} is closed", currentFileWriter);
         this.currentFileWriter = null;
       }
+      // the logs put from now on are written to the next file
+      nodeIdDictionary.clear();
       logger.debug("Log node {} closed successfully", identifier);
     } catch (IOException e) {
       logger.error("Cannot close log node {} because:", identifier, e);
@@ -209,6 +323,11 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
       close();
       FileUtils.deleteDirectory(SystemFileFactory.INSTANCE.getFile(logDirectory));
       deleted = true;
+      if (enableGroupCommit) {
+        synchronized (groupCommitCondition) {
+          groupCommitCondition.notifyAll();
+        }
+      }
       return this.bufferArray;
     } finally {
       lock.unlock();
@@ -260,7 +379,14 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
       }
       switchBufferWorkingToFlushing();
       ILogWriter currWriter = getCurrentFileWriter();
-      FLUSH_BUFFER_THREAD_POOL.submit(() -> flushBuffer(currWriter));
+      if (enableGroupCommit) {
+        // the logs in the flushing buffer are the ones put after the last sync
+        long logSeq = appendedLogSeq;
+        int logNum = bufferedLogNum;
+        FLUSH_BUFFER_THREAD_POOL.submit(() -> commitBuffer(currWriter, logSeq, logNum));
+      } else {
+        FLUSH_BUFFER_THREAD_POOL.submit(() -> flushBuffer(currWriter));
+      }
       switchBufferIdleToWorking();
 
       bufferedLogNum = 0;
@@ -285,6 +411,40 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
       IoTDBDescriptor.getInstance().getConfig().setReadOnly(true);
       return;
     }
+    releaseFlushingBuffer();
+  }
+
+  /**
+   * write and force the flushing buffer, then acknowledge all the writers of the logs in it. The
+   * writers are acknowledged before the buffer is released, as a close or delete waiting for the
+   * buffer may mark the node deleted right after.
+   */
+  private void commitBuffer(ILogWriter writer, long logSeq, int logNum) {
+    if (groupCommitFailed) {
+      // the logs put after a failed commit are not written behind it
+      notifyCommitted(logSeq, false);
+      releaseFlushingBuffer();
+      return;
+    }
+    try {
+      writer.write(logBufferFlushing);
+      long startTime = System.nanoTime();
+      writer.force();
+      MultiFileLogNodeManager.getInstance()
+          .recordGroupCommit(logNum, System.nanoTime() - startTime);
+    } catch (IOException e) {
+      logger.error("Log node {} commit failed, change system mode to read-only", identifier, e);
+      IoTDBDescriptor.getInstance().getConfig().setReadOnly(true);
+      notifyCommitted(logSeq, false);
+      // release the discarded logs, so that the writers and closers are not blocked on the buffer
+      releaseFlushingBuffer();
+      return;
+    }
+    notifyCommitted(logSeq, true);
+    releaseFlushingBuffer();
+  }
+
+  private void releaseFlushingBuffer() {
     logBufferFlushing.clear();
 
     try {
@@ -342,7 +502,9 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
       logger.info("create WAL parent folder {}.", newFile.getParent());
     }
     logger.debug("WAL file {} is opened", newFile);
-    currentFileWriter = new LogWriter(newFile, config.getForceWalPeriodInMs() == 0);
+    // logs are forced by each group commit explicitly
+    currentFileWriter =
+        new LogWriter(newFile, config.getForceWalPeriodInMs() == 0 && !enableGroupCommit);
   }
 
   @Override
@@ -36,6 +36,23 @@ public interface WriteLogNode {
    */
   void write(PhysicalPlan plan) throws IOException;
 
+  /**
+   * Put a wal for a PhysicalPlan into the cache like {@link #write(PhysicalPlan)}, but do not wait
+   * for the group commit, so that the caller can wait after releasing its locks.
+   *
+   * @param plan - a PhysicalPlan
+   * @return the sequence number to be passed to {@link #waitForCommit(long)}, or 0 if there is
+   *     nothing to wait for
+   */
+  long append(PhysicalPlan plan) throws IOException;
+
+  /**
+   * Wait until the wal of the given sequence number has been forced to disk by a group commit.
+   *
+   * @param logSeq a sequence number returned by {@link #append(PhysicalPlan)}
+   */
+  void waitForCommit(long logSeq) throws IOException;
+
   /** Sync and close streams. */
   void close() throws IOException;
 
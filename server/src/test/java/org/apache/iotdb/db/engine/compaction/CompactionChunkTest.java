@@ -21,6 +21,7 @@ package org.apache.iotdb.db.engine.compaction;
 
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.compaction.utils.ChunkGroupBuffer;
 import org.apache.iotdb.db.engine.compaction.utils.CompactionUtils;
 import org.apache.iotdb.db.engine.merge.manage.MergeManager;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
@@ -118,11 +119,12 @@ public class CompactionChunkTest extends LevelCompactionTest {
               chunkMetadata.getMeasurementUid(), readerChunkMetadataMap);
         }
       }
+      ChunkGroupBuffer chunkGroupBuffer = new ChunkGroupBuffer(device);
       for (Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry :
           measurementChunkMetadataMap.entrySet()) {
-        CompactionUtils.writeByAppendPageMerge(
-            device, compactionWriteRateLimiter, entry, targetTsfileResource, writer);
+        CompactionUtils.writeByAppendPageMerge(compactionWriteRateLimiter, entry, chunkGroupBuffer);
       }
+      chunkGroupBuffer.writeTo(writer, targetTsfileResource);
       reader.close();
     }
     writer.endChunkGroup();
@@ -197,17 +199,102 @@ public class CompactionChunkTest extends LevelCompactionTest {
               chunkMetadata.getMeasurementUid(), readerChunkMetadataMap);
         }
       }
+      ChunkGroupBuffer chunkGroupBuffer = new ChunkGroupBuffer(device);
       for (Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry :
           measurementChunkMetadataMap.entrySet()) {
         CompactionUtils.writeByDeserializePageMerge(
-            device,
             compactionWriteRateLimiter,
             entry,
-            targetTsfileResource,
-            writer,
+            chunkGroupBuffer,
             new HashMap<>(),
             new ArrayList<>());
       }
+      chunkGroupBuffer.writeTo(writer, targetTsfileResource);
+      reader.close();
+    }
+    writer.endChunkGroup();
+    targetTsfileResource.serialize();
+    writer.endFile();
+    targetTsfileResource.close();
+
+    TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath());
+    List<Path> paths = reader.getAllPaths();
+    for (Path path : paths) {
+      List<ChunkMetadata> chunkMetadataList = reader.getChunkMetadataList(path);
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        Chunk chunk = reader.readMemChunk(chunkMetadata);
+        IChunkReader chunkReader = new ChunkReaderByTimestamp(chunk);
+        long totalPointCount = 0;
+        while (chunkReader.hasNextSatisfiedPage()) {
+          BatchData batchData = chunkReader.nextPageData();
+          for (int i = 0; i < batchData.length(); i++) {
+            assertEquals(batchData.getTimeByIndex(i), batchData.getDoubleByIndex(i), 0.001);
+          }
+          totalPointCount += batchData.length();
+        }
+        assertEquals(totalPointCount, chunkMetadata.getNumOfPoints());
+      }
+    }
+    reader.close();
+  }
+
+  @Test
+  public void testPageMerge() throws IOException, IllegalPathException {
+    Map<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> measurementChunkMetadataMap =
+        new HashMap<>();
+    List<TsFileResource> sourceTsfileResources = seqResources.subList(0, 2);
+    File file =
+        new File(
+            TestConstant.BASE_OUTPUT_PATH.concat(
+                0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 1
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + ".tsfile"));
+    TsFileResource targetTsfileResource = new TsFileResource(file);
+    RateLimiter compactionWriteRateLimiter = MergeManager.getINSTANCE().getMergeWriteRateLimiter();
+    String device = COMPACTION_TEST_SG + PATH_SEPARATOR + "device0";
+    RestorableTsFileIOWriter writer =
+        new RestorableTsFileIOWriter(targetTsfileResource.getTsFile());
+    writer.startChunkGroup(device);
+    for (TsFileResource tsFileResource : sourceTsfileResources) {
+      TsFileSequenceReader reader = new TsFileSequenceReader(tsFileResource.getTsFilePath());
+      Map<String, List<ChunkMetadata>> chunkMetadataMap = reader.readChunkMetadataInDevice(device);
+      for (Entry<String, List<ChunkMetadata>> entry : chunkMetadataMap.entrySet()) {
+        for (ChunkMetadata chunkMetadata : entry.getValue()) {
+          Map<TsFileSequenceReader, List<ChunkMetadata>> readerChunkMetadataMap;
+          String measurementUid = chunkMetadata.getMeasurementUid();
+          if (measurementChunkMetadataMap.containsKey(measurementUid)) {
+            readerChunkMetadataMap = measurementChunkMetadataMap.get(measurementUid);
+          } else {
+            readerChunkMetadataMap = new LinkedHashMap<>();
+          }
+          List<ChunkMetadata> chunkMetadataList;
+          if (readerChunkMetadataMap.containsKey(reader)) {
+            chunkMetadataList = readerChunkMetadataMap.get(reader);
+          } else {
+            chunkMetadataList = new ArrayList<>();
+          }
+          chunkMetadataList.add(chunkMetadata);
+          readerChunkMetadataMap.put(reader, chunkMetadataList);
+          measurementChunkMetadataMap.put(
+              chunkMetadata.getMeasurementUid(), readerChunkMetadataMap);
+        }
+      }
+      ChunkGroupBuffer chunkGroupBuffer = new ChunkGroupBuffer(device);
+      for (Entry<String, Map<TsFileSequenceReader, List<ChunkMetadata>>> entry :
+          measurementChunkMetadataMap.entrySet()) {
+        CompactionUtils.writeByPageMerge(
+            compactionWriteRateLimiter,
+            entry,
+            chunkGroupBuffer,
+            new HashMap<>(),
+            new ArrayList<>());
+      }
+      chunkGroupBuffer.writeTo(writer, targetTsfileResource);
       reader.close();
     }
     writer.endChunkGroup();
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.compaction.utils.CompactionLogger;
+import org.apache.iotdb.db.engine.compaction.utils.CompactionUtils;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.reader.series.SeriesRawDataBatchReader;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.reader.IBatchReader;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/** Compare the compactions whose sensor batches are merged by parallel sub-tasks to serial ones. */
+public class CompactionSubTaskTest extends LevelCompactionTest {
+
+  private static final int SUB_THREAD_NUM = 4;
+
+  private File tempSGDir;
+  private int prevCompactionSubThreadNum;
+
+  @Override
+  @Before
+  public void setUp() throws IOException, WriteProcessException, MetadataException {
+    // so many sensors that each device has several sensor batches
+    measurementNum = 2 * TSFileDescriptor.getInstance().getConfig().getMaxDegreeOfIndexNode() + 1;
+    deviceNum = 4;
+    seqFileNum = 3;
+    prevCompactionSubThreadNum =
+        IoTDBDescriptor.getInstance().getConfig().getCompactionSubThreadNum();
+    super.setUp();
+    tempSGDir = new File(TestConstant.BASE_OUTPUT_PATH.concat("tempSG"));
+    tempSGDir.mkdirs();
+  }
+
+  @Override
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    CompactionMergeTaskPoolManager.getInstance().stop();
+    IoTDBDescriptor.getInstance().getConfig().setCompactionSubThreadNum(prevCompactionSubThreadNum);
+    super.tearDown();
+    FileUtils.deleteDirectory(tempSGDir);
+  }
+
+  @Test
+  public void testSameAsSerialCompaction() throws Exception {
+    try (TsFileSequenceReader reader =
+        new TsFileSequenceReader(seqResources.get(seqFileNum - 1).getTsFilePath())) {
+      Iterator<?> sensorBatches = reader.getMeasurementChunkMetadataListMapIterator(deviceIds[0]);
+      int sensorBatchNum = 0;
+      while (sensorBatches.hasNext()) {
+        sensorBatches.next();
+        sensorBatchNum++;
+      }
+      assertEquals(3, sensorBatchNum);
+    }
+
+    for (boolean sequence : new boolean[] {true, false}) {
+      IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+      // the sub-tasks run in the compacting thread while the pool is not started
+      config.setCompactionSubThreadNum(1);
+      File serialFile = compact(0, sequence);
+
+      // the 12 sensor batches are more than the 2 * SUB_THREAD_NUM sub-tasks that may be in flight
+      config.setCompactionSubThreadNum(SUB_THREAD_NUM);
+      CompactionMergeTaskPoolManager.getInstance().start();
+      File parallelFile;
+      try {
+        parallelFile = compact(1, sequence);
+      } finally {
+        CompactionMergeTaskPoolManager.getInstance().stop();
+      }
+
+      List<String> chunkGroupDevices = getChunkGroupDevices(parallelFile);
+      assertEquals(deviceNum, chunkGroupDevices.size());
+      assertEquals(deviceNum, new HashSet<>(chunkGroupDevices).size());
+      assertEquals(getChunkGroupDevices(serialFile), chunkGroupDevices);
+      // the same chunks in the same order
+      assertArrayEquals(
+          Files.readAllBytes(serialFile.toPath()), Files.readAllBytes(parallelFile.toPath()));
+      checkData(parallelFile);
+    }
+  }
+
+  private File compact(int targetVersion, boolean sequence)
+      throws IOException, IllegalPathException {
+    CompactionLogger compactionLogger =
+        new CompactionLogger(tempSGDir.getPath(), COMPACTION_TEST_SG);
+    TsFileResource targetTsFileResource =
+        new TsFileResource(
+            new File(
+                TestConstant.BASE_OUTPUT_PATH.concat(
+                    targetVersion
+                        + IoTDBConstant.FILE_NAME_SEPARATOR
+                        + targetVersion
+                        + IoTDBConstant.FILE_NAME_SEPARATOR
+                        + 1
+                        + IoTDBConstant.FILE_NAME_SEPARATOR
+                        + 0
+                        + ".tsfile")));
+    CompactionUtils.merge(
+        targetTsFileResource,
+        new ArrayList<>(seqResources),
+        COMPACTION_TEST_SG,
+        compactionLogger,
+        new HashSet<>(),
+        sequence,
+        new ArrayList<>());
+    compactionLogger.close();
+    File targetFile = targetTsFileResource.getTsFile();
+    File copiedFile = new File(tempSGDir, (sequence ? "seq-" : "unseq-") + targetFile.getName());
+    FileUtils.moveFile(targetFile, copiedFile);
+    targetTsFileResource.remove();
+    return copiedFile;
+  }
+
+  /** @return the devices of the chunk groups in the file, in the order they are written */
+  private List<String> getChunkGroupDevices(File file) throws IOException {
+    List<String> devices = new ArrayList<>();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      reader.position((long) TSFileConfig.MAGIC_STRING.getBytes().length + Byte.BYTES);
+      byte marker;
+      while ((marker = reader.readMarker()) != MetaMarker.SEPARATOR) {
+        switch (marker) {
+          case MetaMarker.CHUNK_HEADER:
+          case MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER:
+            ChunkHeader chunkHeader = reader.readChunkHeader(marker);
+            reader.position(reader.position() + chunkHeader.getDataSize());
+            break;
+          case MetaMarker.CHUNK_GROUP_HEADER:
+            devices.add(reader.readChunkGroupHeader().getDeviceID());
+            break;
+          case MetaMarker.OPERATION_INDEX_RANGE:
+            reader.readPlanIndex();
+            break;
+          default:
+            MetaMarker.handleUnexpectedMarker(marker);
+        }
+      }
+    }
+    return devices;
+  }
+
+  private void checkData(File file) throws IOException, IllegalPathException {
+    // prepareFiles() overwrites the first seq file with an empty unseq file
+    long startTime = ptNum;
+    long endTime = seqFileNum * ptNum - 1;
+    TsFileResource tsFileResource = new TsFileResource(file);
+    tsFileResource.setClosed(true);
+    for (String deviceId : Arrays.asList(deviceIds[0], deviceIds[deviceNum - 1])) {
+      tsFileResource.updateStartTime(deviceId, startTime);
+      tsFileResource.updateEndTime(deviceId, endTime);
+      PartialPath path =
+          new PartialPath(
+              deviceId
+                  + TsFileConstant.PATH_SEPARATOR
+                  + measurementSchemas[measurementNum - 1].getMeasurementId());
+      IBatchReader tsFilesReader =
+          new SeriesRawDataBatchReader(
+              path,
+              measurementSchemas[measurementNum - 1].getType(),
+              new QueryContext(),
+              Collections.singletonList(tsFileResource),
+              new ArrayList<>(),
+              null,
+              null,
+              true);
+      long expectedTime = startTime;
+      while (tsFilesReader.hasNextBatch()) {
+        BatchData batchData = tsFilesReader.nextBatch();
+        for (int i = 0; i < batchData.length(); i++) {
+          assertEquals(expectedTime, batchData.getTimeByIndex(i));
+          assertEquals(expectedTime, batchData.getDoubleByIndex(i), 0.001);
+          expectedTime++;
+        }
+      }
+      assertEquals(endTime + 1, expectedTime);
+    }
+  }
+}
@@ -113,6 +113,60 @@ public class LevelCompactionMergeTest extends LevelCompactionTest {
     }
   }
 
+  /** compaction reads the memory-mapped source files and writes their chunks back */
+  @Test
+  public void testCompactionMergeWithMmap() throws IllegalPathException, IOException {
+    boolean prevEnableMmap = IoTDBDescriptor.getInstance().getConfig().isEnableMmapTsFileRead();
+    IoTDBDescriptor.getInstance().getConfig().setEnableMmapTsFileRead(true);
+    try {
+      PartialPath path =
+          new PartialPath(
+              deviceIds[0]
+                  + TsFileConstant.PATH_SEPARATOR
+                  + measurementSchemas[0].getMeasurementId());
+      int expectedCount = countPoints(path, seqResources);
+
+      LevelCompactionTsFileManagement levelCompactionTsFileManagement =
+          new LevelCompactionTsFileManagement(COMPACTION_TEST_SG, tempSGDir.getPath());
+      levelCompactionTsFileManagement.addAll(seqResources, true);
+      levelCompactionTsFileManagement.forkCurrentFileList(0);
+      CompactionMergeTask compactionMergeTask =
+          levelCompactionTsFileManagement
+          .new CompactionMergeTask(this::closeCompactionMergeCallBack, 0);
+      compactionMergeWorking = true;
+      compactionMergeTask.call();
+      while (compactionMergeWorking) {
+        // wait
+      }
+      assertEquals(
+          expectedCount, countPoints(path, levelCompactionTsFileManagement.getTsFileList(true)));
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setEnableMmapTsFileRead(prevEnableMmap);
+    }
+  }
+
+  private int countPoints(PartialPath path, List<TsFileResource> resources) throws IOException {
+    IBatchReader tsFilesReader =
+        new SeriesRawDataBatchReader(
+            path,
+            measurementSchemas[0].getType(),
+            new QueryContext(),
+            resources,
+            new ArrayList<>(),
+            null,
+            null,
+            true);
+    int count = 0;
+    while (tsFilesReader.hasNextBatch()) {
+      BatchData batchData = tsFilesReader.nextBatch();
+      for (int i = 0; i < batchData.length(); i++) {
+        count++;
+        assertEquals(batchData.getTimeByIndex(i), batchData.getDoubleByIndex(i), 0.001);
+      }
+    }
+    return count;
+  }
+
   /** just compaction stable list */
   @Test
   public void testCompactionMergeStableList() throws IllegalPathException, IOException {
@@ -18,46 +18,93 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
-/** Memtable insert benchmark. Bench the Memtable and get its performance. */
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memtable insert benchmark. Fills a memtable and releases it, as a flush does, with the TVLists
+ * backed by heap arrays or by off-heap arrays. The score is in points per second; run it with
+ * "-prof gc" (main() adds the profiler) to compare the allocation rate and the GC time of the two
+ * modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
 public class MemtableBenchmark {
 
-  private static String deviceId = "d0";
-  private static int numOfMeasurement = 10000;
-  private static int numOfPoint = 1000;
+  private static final String DEVICE_ID = "d0";
+  private static final int NUM_OF_MEASUREMENT = 1000;
+  private static final int NUM_OF_POINT = 1000;
+
+  @Param({"heap", "off-heap"})
+  private String mode;
 
-  private static String[] measurementId = new String[numOfMeasurement];
-  private static TSDataType tsDataType = TSDataType.INT64;
+  private IMeasurementSchema[] schemas;
+  private boolean enableOffHeapMemTable;
 
-  static {
-    for (int i = 0; i < numOfMeasurement; i++) {
-      measurementId[i] = "m" + i;
+  @Setup
+  public void setUp() {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    enableOffHeapMemTable = config.isEnableOffHeapMemTable();
+    config.setEnableOffHeapMemTable("off-heap".equals(mode));
+    schemas = new IMeasurementSchema[NUM_OF_MEASUREMENT];
+    for (int i = 0; i < NUM_OF_MEASUREMENT; i++) {
+      schemas[i] = new MeasurementSchema("m" + i, TSDataType.INT64, TSEncoding.PLAIN);
     }
   }
 
-  public static void main(String[] args) {
+  @TearDown
+  public void tearDown() {
+    IoTDBDescriptor.getInstance().getConfig().setEnableOffHeapMemTable(enableOffHeapMemTable);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_OF_MEASUREMENT * NUM_OF_POINT)
+  public void insertAndRelease() {
     IMemTable memTable = new PrimitiveMemTable();
-    final long startTime = System.currentTimeMillis();
     // cpu not locality
-    for (int i = 0; i < numOfPoint; i++) {
-      for (int j = 0; j < numOfMeasurement; j++) {
-        memTable.write(
-            deviceId,
-            new MeasurementSchema(measurementId[j], tsDataType, TSEncoding.PLAIN),
-            System.nanoTime(),
-            String.valueOf(System.currentTimeMillis()));
+    for (int i = 0; i < NUM_OF_POINT; i++) {
+      for (int j = 0; j < NUM_OF_MEASUREMENT; j++) {
+        memTable.write(DEVICE_ID, schemas[j], i, (long) i);
       }
     }
+    // releasing the memtable is what triggers the old-gen churn in heap mode
+    memTable.release();
+  }
 
-    final long endTime = System.currentTimeMillis();
-    System.out.println(
-        String.format(
-            "Num of time series: %d, "
-                + "Num of points for each time series: %d, "
-                + "The total time: %d ms. ",
-            numOfMeasurement, numOfPoint, endTime - startTime));
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(MemtableBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+        .run();
   }
 }
@@ -32,6 +32,7 @@ import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -79,6 +80,53 @@ public class PrimitiveMemTableTest {
     Assert.assertEquals(count, i);
   }
 
+  @Test
+  public void runningStatisticsTest() throws IOException, QueryProcessException, MetadataException {
+    IMemTable memTable = new PrimitiveMemTable();
+    String deviceId = "d1";
+    MeasurementSchema schema = new MeasurementSchema("s0", TSDataType.INT64, TSEncoding.PLAIN);
+    int dataSize = 1000;
+    for (int i = 0; i < dataSize; i++) {
+      memTable.write(deviceId, schema, i, (long) i * 2);
+    }
+    WritableMemChunk writableMemChunk =
+        (WritableMemChunk) memTable.getMemTableMap().get(deviceId).get("s0");
+    Assert.assertEquals(dataSize, writableMemChunk.getStatisticsForQuery().getCount());
+
+    // the statistics maintained on insertion are the same as those of the points
+    Statistics statistics =
+        memTable
+            .query(deviceId, "s0", schema, Long.MIN_VALUE, null)
+            .getChunkMetaData()
+            .getStatistics();
+    Assert.assertEquals(dataSize, statistics.getCount());
+    Assert.assertEquals(0, statistics.getStartTime());
+    Assert.assertEquals(dataSize - 1, statistics.getEndTime());
+    Assert.assertEquals(0L, statistics.getMinValue());
+    Assert.assertEquals((dataSize - 1) * 2L, statistics.getMaxValue());
+    Assert.assertEquals(0L, statistics.getFirstValue());
+    Assert.assertEquals((dataSize - 1) * 2L, statistics.getLastValue());
+    Assert.assertEquals((long) dataSize * (dataSize - 1), statistics.getSumDoubleValue(), 0);
+
+    // a point out of order overwrites the point of the same time
+    memTable.write(deviceId, schema, 0, (long) dataSize * 10);
+    Assert.assertNull(writableMemChunk.getStatisticsForQuery());
+    statistics =
+        memTable
+            .query(deviceId, "s0", schema, Long.MIN_VALUE, null)
+            .getChunkMetaData()
+            .getStatistics();
+    Assert.assertEquals(dataSize, statistics.getCount());
+    Assert.assertEquals((long) dataSize * 10, statistics.getMaxValue());
+    Assert.assertEquals((long) dataSize * 10, statistics.getFirstValue());
+
+    WritableMemChunk series = new WritableMemChunk(schema, TVList.newList(TSDataType.INT64));
+    series.putLongs(new long[] {1, 2, 3}, null, new long[] {1, 2, 3}, 0, 3);
+    Assert.assertEquals(3, series.getStatisticsForQuery().getCount());
+    series.delete(2, 2);
+    Assert.assertNull(series.getStatisticsForQuery());
+  }
+
   @Test
   public void simpleTest() throws IOException, QueryProcessException, MetadataException {
     IMemTable memTable = new PrimitiveMemTable();
@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.db.engine.merge;
 
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.merge.manage.MergeManager;
 import org.apache.iotdb.db.engine.merge.task.MergeMultiChunkTask;
 import org.apache.iotdb.db.engine.merge.task.MergeTask;
@@ -43,6 +45,75 @@ public class MergeManagerTest extends MergeTest {
     assertTrue((System.currentTimeMillis() - startTime) >= 9000);
   }
 
+  @Test
+  public void testThrottledTime() {
+    RateLimiter rateLimiter = RateLimiter.create(1024 * 1024);
+    long throttledTime = MergeManager.getINSTANCE().getMergeThrottledTimeMs();
+    MergeManager.mergeRateLimiterAcquire(rateLimiter, 1024 * 1024L);
+    MergeManager.mergeRateLimiterAcquire(rateLimiter, 1);
+    assertTrue(MergeManager.getINSTANCE().getMergeThrottledTimeMs() - throttledTime >= 900);
+  }
+
+  @Test
+  public void testAdaptiveRate() {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int prevWriteThroughput = config.getMergeWriteThroughputMbPerSec();
+    int prevReadThroughput = config.getMergeReadThroughputMbPerSec();
+    MergeManager mergeManager = MergeManager.getINSTANCE();
+    try {
+      config.setMergeWriteThroughputMbPerSec(16);
+      config.setMergeReadThroughputMbPerSec(0);
+      mergeManager.updateMergeRates(0);
+      assertEquals(16, mergeManager.getMergeWriteRateMbPerSec(), 0.001);
+      // 0 leaves the reads unlimited, whatever the flush backlog
+      assertEquals(0, mergeManager.getMergeReadRateMbPerSec(), 0.001);
+
+      // divided by (1 + the pending flush tasks)
+      mergeManager.updateMergeRates(1);
+      assertEquals(8, mergeManager.getMergeWriteRateMbPerSec(), 0.001);
+      mergeManager.updateMergeRates(3);
+      assertEquals(4, mergeManager.getMergeWriteRateMbPerSec(), 0.001);
+      assertEquals(0, mergeManager.getMergeReadRateMbPerSec(), 0.001);
+      // at most by 8
+      mergeManager.updateMergeRates(100);
+      assertEquals(2, mergeManager.getMergeWriteRateMbPerSec(), 0.001);
+
+      // changed limits, e.g. hot-loaded ones, are picked up
+      config.setMergeWriteThroughputMbPerSec(4);
+      config.setMergeReadThroughputMbPerSec(32);
+      mergeManager.updateMergeRates(1);
+      assertEquals(2, mergeManager.getMergeWriteRateMbPerSec(), 0.001);
+      assertEquals(16, mergeManager.getMergeReadRateMbPerSec(), 0.001);
+      // but never lowered below 1 MB/s
+      mergeManager.updateMergeRates(7);
+      assertEquals(1, mergeManager.getMergeWriteRateMbPerSec(), 0.001);
+      assertEquals(4, mergeManager.getMergeReadRateMbPerSec(), 0.001);
+
+      // the limiters pick up the configuration and the flush backlog by themselves at most once a
+      // second, the time is ahead of the real one so that no other update interferes
+      long time = System.currentTimeMillis() + 3_600_000L;
+      mergeManager.updateMergeRates(time, () -> 0);
+      assertEquals(4, mergeManager.getMergeWriteRateMbPerSec(), 0.001);
+      assertEquals(32, mergeManager.getMergeReadRateMbPerSec(), 0.001);
+      mergeManager.updateMergeRates(
+          time + 999,
+          () -> {
+            throw new AssertionError("The rates should not be updated within a second");
+          });
+      assertEquals(4, mergeManager.getMergeWriteRateMbPerSec(), 0.001);
+      mergeManager.updateMergeRates(time + 1000, () -> 1);
+      assertEquals(2, mergeManager.getMergeWriteRateMbPerSec(), 0.001);
+      assertEquals(16, mergeManager.getMergeReadRateMbPerSec(), 0.001);
+      // a clock set back updates the rates at once
+      mergeManager.updateMergeRates(time - 1000, () -> 0);
+      assertEquals(4, mergeManager.getMergeWriteRateMbPerSec(), 0.001);
+    } finally {
+      config.setMergeWriteThroughputMbPerSec(prevWriteThroughput);
+      config.setMergeReadThroughputMbPerSec(prevReadThroughput);
+      mergeManager.updateMergeRates(0);
+    }
+  }
+
   @Test
   public void testGenMergeReport() {
     FakedMergeMultiChunkTask chunkTask = new FakedMergeMultiChunkTask();
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.merge.manage.MergeResource;
 import org.apache.iotdb.db.engine.merge.task.MergeTask;
 import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
@@ -52,6 +53,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class MergeTaskTest extends MergeTest {
 
@@ -112,6 +115,34 @@ public class MergeTaskTest extends MergeTest {
     tsFilesReader.close();
   }
 
+  @Test
+  public void testMergeRemovesRollups() throws Exception {
+    List<File> oldSeqFiles = new ArrayList<>();
+    for (TsFileResource seqResource : seqResources) {
+      TsFileRollup.generate(seqResource.getTsFile(), 100).serialize(seqResource.getTsFile());
+      assertTrue(TsFileRollup.getRollupFile(seqResource.getTsFile()).exists());
+      oldSeqFiles.add(seqResource.getTsFile());
+    }
+    MergeTask mergeTask =
+        new MergeTask(
+            new MergeResource(seqResources, unseqResources),
+            tempSGDir.getPath(),
+            (k, v, l) -> {},
+            "test",
+            false,
+            1,
+            MERGE_TEST_SG);
+    mergeTask.call();
+
+    // the rollups of the merged files are stale, they are neither kept nor renamed
+    for (File oldSeqFile : oldSeqFiles) {
+      assertFalse(TsFileRollup.getRollupFile(oldSeqFile).exists());
+    }
+    for (TsFileResource seqResource : seqResources) {
+      assertFalse(TsFileRollup.getRollupFile(seqResource.getTsFile()).exists());
+    }
+  }
+
   @Test
   public void testMergeEndTime() throws Exception {
     List<TsFileResource> testSeqResources = seqResources.subList(0, 3);
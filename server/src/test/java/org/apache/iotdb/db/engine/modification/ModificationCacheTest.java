@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.modification;
+
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.modification.io.LocalBinaryModificationAccessor;
+import org.apache.iotdb.db.engine.modification.io.LocalTextModificationAccessor;
+import org.apache.iotdb.db.metadata.PartialPath;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ModificationCacheTest {
+
+  private static final String TEMP_FILE_NAME = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+  private static final String[] NODES = {"d1", "d2", "s1", "s2", "*"};
+
+  private final Random random = new Random(7);
+
+  @After
+  public void tearDown() {
+    ModificationCache.getInstance().clear();
+    new File(TEMP_FILE_NAME).delete();
+  }
+
+  @Test
+  public void testSameAsMatching() {
+    List<Modification> modifications = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      modifications.add(new Deletion(randomPath(1 + random.nextInt(3)), i, i, i + 10));
+    }
+    ModificationIndex index = new ModificationIndex(modifications, 0);
+    for (int i = 0; i < 100; i++) {
+      PartialPath seriesPath = randomPath(3);
+      List<Modification> expected = new ArrayList<>();
+      for (Modification modification : modifications) {
+        if (modification.getPath().matchFullPath(seriesPath)) {
+          expected.add(modification);
+        }
+      }
+      assertEquals(expected, index.getModifications(seriesPath));
+    }
+  }
+
+  @Test
+  public void testInvalidation() throws IOException {
+    PartialPath seriesPath = new PartialPath(new String[] {"root", "sg", "d1", "s1"});
+    ModificationCache cache = ModificationCache.getInstance();
+    try (ModificationFile modFile = new ModificationFile(TEMP_FILE_NAME)) {
+      assertTrue(cache.get(modFile).getModifications(seriesPath).isEmpty());
+
+      modFile.write(new Deletion(new PartialPath(new String[] {"root", "sg", "d1"}), 1, 1, 10));
+      ModificationIndex index = cache.get(modFile);
+      assertEquals(1, index.getModifications(seriesPath).size());
+      assertSame(index, cache.get(modFile));
+
+      modFile.write(new Deletion(seriesPath, 2, 20, 30));
+      assertEquals(2, cache.get(modFile).getModifications(seriesPath).size());
+
+      modFile.abort();
+      assertEquals(1, cache.get(modFile).getModifications(seriesPath).size());
+    }
+  }
+
+  @Test
+  public void testTextFormat() throws IOException {
+    PartialPath seriesPath = new PartialPath(new String[] {"root", "sg", "d1", "s1"});
+    try (LocalTextModificationAccessor accessor =
+        new LocalTextModificationAccessor(TEMP_FILE_NAME)) {
+      accessor.write(new Deletion(seriesPath, 1, 1, 10));
+    }
+
+    ModificationCache cache = ModificationCache.getInstance();
+    // a text file written by earlier versions is still read and appended in text format
+    try (ModificationFile modFile = new ModificationFile(TEMP_FILE_NAME)) {
+      modFile.write(new Deletion(seriesPath, 2, 20, 30));
+      assertEquals(2, modFile.getModifications().size());
+      assertEquals(2, cache.get(modFile).getModifications(seriesPath).size());
+    }
+    assertTrue(LocalBinaryModificationAccessor.isTextFormat(TEMP_FILE_NAME));
+  }
+
+  private PartialPath randomPath(int nodeNum) {
+    String[] nodes = new String[nodeNum + 2];
+    nodes[0] = "root";
+    nodes[1] = "sg";
+    for (int i = 2; i < nodes.length; i++) {
+      nodes[i] = NODES[random.nextInt(NODES.length)];
+    }
+    return new PartialPath(nodes);
+  }
+}
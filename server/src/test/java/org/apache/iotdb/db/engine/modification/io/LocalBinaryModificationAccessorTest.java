@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.modification.io;
+
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.metadata.PartialPath;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LocalBinaryModificationAccessorTest {
+
+  private static final String TEMP_FILE_NAME = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+
+  private final Modification[] modifications =
+      new Modification[] {
+        new Deletion(new PartialPath(new String[] {"root", "sg", "d1", "s1"}), 1, 1),
+        new Deletion(new PartialPath(new String[] {"root", "sg", "d1", "s2"}), 2, 2),
+        new Deletion(new PartialPath(new String[] {"root", "sg", "*", "s3"}), 3, 3, 4),
+        new Deletion(new PartialPath(new String[] {"root", "sg", "d,2", "s4"}), 4, 4, 5),
+      };
+
+  @After
+  public void tearDown() {
+    new File(TEMP_FILE_NAME).delete();
+  }
+
+  @Test
+  public void readMyWrite() throws IOException {
+    try (LocalBinaryModificationAccessor accessor =
+        new LocalBinaryModificationAccessor(TEMP_FILE_NAME)) {
+      for (int i = 0; i < 2; i++) {
+        accessor.write(modifications[i]);
+      }
+      List<Modification> modificationList = (List<Modification>) accessor.read();
+      assertEquals(2, modificationList.size());
+      for (int i = 0; i < 2; i++) {
+        assertEquals(modifications[i], modificationList.get(i));
+      }
+
+      for (int i = 2; i < 4; i++) {
+        accessor.write(modifications[i]);
+      }
+      accessor.abort();
+      modificationList = (List<Modification>) accessor.read();
+      assertEquals(3, modificationList.size());
+      for (int i = 0; i < 3; i++) {
+        assertEquals(modifications[i], modificationList.get(i));
+      }
+    }
+    assertFalse(LocalBinaryModificationAccessor.isTextFormat(TEMP_FILE_NAME));
+  }
+
+  @Test
+  public void readIncompleteRecord() throws IOException {
+    try (LocalBinaryModificationAccessor accessor =
+        new LocalBinaryModificationAccessor(TEMP_FILE_NAME)) {
+      accessor.write(modifications[0]);
+    }
+    // a record is being written when the system crashes
+    try (FileOutputStream outputStream = new FileOutputStream(TEMP_FILE_NAME, true)) {
+      outputStream.write(new byte[] {0, 0, 0, 100, 0, 0, 0, 4});
+    }
+
+    try (LocalBinaryModificationAccessor accessor =
+        new LocalBinaryModificationAccessor(TEMP_FILE_NAME)) {
+      List<Modification> modificationList = new ArrayList<>(accessor.read());
+      assertEquals(1, modificationList.size());
+      assertEquals(modifications[0], modificationList.get(0));
+
+      // the incomplete record is dropped before appending
+      accessor.write(modifications[1]);
+      modificationList = new ArrayList<>(accessor.read());
+      assertEquals(2, modificationList.size());
+      assertEquals(modifications[1], modificationList.get(1));
+    }
+  }
+
+  @Test
+  public void testTextFormat() throws IOException {
+    assertFalse(LocalBinaryModificationAccessor.isTextFormat(TEMP_FILE_NAME));
+    try (LocalTextModificationAccessor accessor =
+        new LocalTextModificationAccessor(TEMP_FILE_NAME)) {
+      accessor.write(modifications[0]);
+    }
+    assertTrue(LocalBinaryModificationAccessor.isTextFormat(TEMP_FILE_NAME));
+  }
+}
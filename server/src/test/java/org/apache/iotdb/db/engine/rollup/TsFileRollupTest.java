@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TsFileRollupTest {
+
+  private static final String DEVICE = "root.sg.d1";
+  private static final String MEASUREMENT = "s1";
+  private static final long INTERVAL = 100;
+
+  private File tsFile;
+
+  @Before
+  public void setUp() throws Exception {
+    tsFile = new File(TestConstant.OUTPUT_DATA_DIR.concat("rollup-test.tsfile"));
+    tsFile.getParentFile().mkdirs();
+    try (TsFileWriter writer = new TsFileWriter(tsFile)) {
+      writer.registerTimeseries(
+          new Path(DEVICE, MEASUREMENT),
+          new MeasurementSchema(MEASUREMENT, TSDataType.INT64, TSEncoding.RLE));
+      for (long time = 0; time < 1000; time++) {
+        TSRecord record = new TSRecord(time, DEVICE);
+        record.addTuple(new LongDataPoint(MEASUREMENT, time));
+        writer.write(record);
+        if (time % 150 == 0) {
+          writer.flushAllChunkGroups();
+        }
+      }
+    }
+  }
+
+  @After
+  public void tearDown() {
+    TsFileRollup.remove(tsFile);
+    assertTrue(tsFile.delete());
+  }
+
+  @Test
+  public void testGenerate() throws IOException {
+    SeriesRollup rollup =
+        TsFileRollup.generate(tsFile, INTERVAL).getSeriesRollup(DEVICE, MEASUREMENT);
+    assertEquals(10, rollup.getBucketNum());
+    checkBuckets(rollup);
+  }
+
+  @Test
+  public void testSerialize() throws IOException {
+    TsFileRollup.generate(tsFile, INTERVAL).serialize(tsFile);
+    assertTrue(TsFileRollup.getRollupFile(tsFile).exists());
+    checkBuckets(TsFileRollup.deserialize(tsFile).getSeriesRollup(DEVICE, MEASUREMENT));
+    checkBuckets(RollupCache.getInstance().get(tsFile, DEVICE, MEASUREMENT));
+    assertNull(RollupCache.getInstance().get(tsFile, DEVICE, "s2"));
+
+    // the rollups are stale once the file is rewritten
+    try (FileOutputStream outputStream = new FileOutputStream(tsFile, true)) {
+      outputStream.write(0);
+    }
+    assertNull(TsFileRollup.deserialize(tsFile));
+
+    TsFileRollup.remove(tsFile);
+    assertFalse(TsFileRollup.getRollupFile(tsFile).exists());
+    assertNull(RollupCache.getInstance().get(tsFile, DEVICE, MEASUREMENT));
+  }
+
+  @Test
+  public void testMerge() {
+    TsFileRollup former = new TsFileRollup(INTERVAL);
+    TsFileRollup latter = new TsFileRollup(INTERVAL);
+    for (long time = 0; time < 1000; time++) {
+      TsFileRollup rollup = time < 550 ? former : latter;
+      rollup
+          .getOrCreateSeriesRollup(DEVICE, MEASUREMENT, TSDataType.INT64)
+          .getBucket(time)
+          .update(time, time);
+    }
+    former.merge(latter);
+    checkBuckets(former.getSeriesRollup(DEVICE, MEASUREMENT));
+  }
+
+  private void checkBuckets(SeriesRollup rollup) {
+    assertTrue(rollup.isAligned(200));
+    assertFalse(rollup.isAligned(250));
+
+    List<Statistics> buckets = new ArrayList<>(rollup.getBuckets(200, 500, true));
+    assertEquals(3, buckets.size());
+    for (int i = 0; i < buckets.size(); i++) {
+      long bucketStart = 200 + i * INTERVAL;
+      Statistics bucket = buckets.get(i);
+      assertEquals(INTERVAL, bucket.getCount());
+      assertEquals(bucketStart, bucket.getStartTime());
+      assertEquals(bucketStart + INTERVAL - 1, bucket.getEndTime());
+      assertEquals(bucketStart, (long) bucket.getFirstValue());
+      assertEquals(bucketStart + INTERVAL - 1, (long) bucket.getLastValue());
+      assertEquals((2 * bucketStart + INTERVAL - 1) * INTERVAL / 2, bucket.getSumDoubleValue(), 0);
+    }
+
+    buckets = new ArrayList<>(rollup.getBuckets(200, 500, false));
+    assertEquals(400, buckets.get(0).getStartTime());
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.flush.TsFileFlushPolicy;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bench the insertions of one storage group from multiple threads, each of which writes its own
+ * devices, with and without enable_concurrent_insert. The score is in points per second over all
+ * the threads; main() runs it with 1, 2, 4, 8 and 16 threads, or pass "-t" to pick the count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ConcurrentInsertBenchmark {
+
+  private static final String STORAGE_GROUP = "root.bench";
+  private static final String SYSTEM_DIR = TestConstant.OUTPUT_DATA_DIR.concat("info");
+
+  private static final int[] NUM_OF_WORKERS = {1, 2, 4, 8, 16};
+  private static final int NUM_OF_DEVICE_PER_WORKER = 4;
+  private static final int NUM_OF_MEASUREMENT = 10;
+
+  private static final String[] MEASUREMENTS = new String[NUM_OF_MEASUREMENT];
+
+  /** gives every worker thread devices of its own */
+  private static final AtomicInteger WORKER_IDS = new AtomicInteger();
+
+  static {
+    for (int i = 0; i < NUM_OF_MEASUREMENT; i++) {
+      MEASUREMENTS[i] = "measurement_" + i;
+    }
+  }
+
+  @Param({"false", "true"})
+  private boolean concurrent;
+
+  private boolean enableConcurrentInsert;
+  private StorageGroupProcessor processor;
+
+  @Setup
+  public void setUp() throws Exception {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    enableConcurrentInsert = config.isEnableConcurrentInsert();
+    config.setEnableConcurrentInsert(concurrent);
+    EnvironmentUtils.envSetUp();
+    processor =
+        new StorageGroupProcessor(
+            SYSTEM_DIR, STORAGE_GROUP, new TsFileFlushPolicy.DirectFlushPolicy(), STORAGE_GROUP);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    processor.syncCloseAllWorkingTsFileProcessors();
+    processor.syncDeleteDataFiles();
+    EnvironmentUtils.cleanEnv();
+    EnvironmentUtils.cleanDir(TestConstant.OUTPUT_DATA_DIR);
+    IoTDBDescriptor.getInstance().getConfig().setEnableConcurrentInsert(enableConcurrentInsert);
+  }
+
+  @State(Scope.Thread)
+  public static class Worker {
+
+    private final String[] devices = new String[NUM_OF_DEVICE_PER_WORKER];
+    private long time;
+
+    @Setup
+    public void setUp() {
+      int workerId = WORKER_IDS.getAndIncrement();
+      for (int i = 0; i < NUM_OF_DEVICE_PER_WORKER; i++) {
+        devices[i] =
+            STORAGE_GROUP
+                + TsFileConstant.PATH_SEPARATOR
+                + "device_"
+                + (workerId * NUM_OF_DEVICE_PER_WORKER + i);
+      }
+    }
+
+    private InsertRowPlan nextRow() throws IllegalPathException {
+      time++;
+      TSRecord tsRecord = new TSRecord(time, devices[(int) (time % NUM_OF_DEVICE_PER_WORKER)]);
+      for (String measurement : MEASUREMENTS) {
+        tsRecord.addTuple(new LongDataPoint(measurement, time));
+      }
+      return new InsertRowPlan(tsRecord);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_OF_MEASUREMENT)
+  public void insertRow(Worker worker) throws Exception {
+    processor.insert(worker.nextRow());
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    for (int numOfWorker : NUM_OF_WORKERS) {
+      new Runner(
+              new OptionsBuilder()
+                  .include(ConcurrentInsertBenchmark.class.getSimpleName())
+                  .threads(numOfWorker)
+                  .build())
+          .run();
+    }
+  }
+}
@@ -57,6 +57,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class StorageGroupProcessorTest {
 
@@ -590,6 +593,67 @@ public class StorageGroupProcessorTest {
     config.setEnablePartition(defaultEnablePartition);
   }
 
+  @Test
+  public void testConcurrentInsert() throws Exception {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    boolean defaultEnableConcurrentInsert = config.isEnableConcurrentInsert();
+    config.setEnableConcurrentInsert(true);
+    int threadNum = 4;
+    int pointNum = 100;
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    try {
+      processor.syncDeleteDataFiles();
+      processor = new DummySGP(systemDir, storageGroup);
+
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threadNum; i++) {
+        int startTime = i * pointNum + 1;
+        futures.add(
+            pool.submit(
+                () -> {
+                  for (int j = startTime; j < startTime + pointNum; j++) {
+                    TSRecord record = new TSRecord(j, deviceId);
+                    record.addTuple(
+                        DataPoint.getDataPoint(TSDataType.INT32, measurementId, String.valueOf(j)));
+                    processor.insert(new InsertRowPlan(record));
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+
+      List<TsFileResource> tsfileResourcesForQuery = new ArrayList<>();
+      for (TsFileProcessor tsfileProcessor : processor.getWorkSequenceTsFileProcessors()) {
+        tsfileProcessor.query(
+            deviceId,
+            measurementId,
+            new MeasurementSchema(
+                measurementId,
+                TSDataType.INT32,
+                TSEncoding.RLE,
+                CompressionType.UNCOMPRESSED,
+                Collections.emptyMap()),
+            new QueryContext(),
+            tsfileResourcesForQuery);
+      }
+
+      Assert.assertEquals(1, tsfileResourcesForQuery.size());
+      long time = 1;
+      for (ReadOnlyMemChunk memChunk : tsfileResourcesForQuery.get(0).getReadOnlyMemChunk()) {
+        IPointReader iterator = memChunk.getPointReader();
+        while (iterator.hasNextTimeValuePair()) {
+          Assert.assertEquals(time++, iterator.nextTimeValuePair().getTimestamp());
+        }
+      }
+      Assert.assertEquals(threadNum * pointNum + 1, time);
+    } finally {
+      pool.shutdown();
+      config.setEnableConcurrentInsert(defaultEnableConcurrentInsert);
+    }
+  }
+
   @Test
   public void testMerge()
       throws WriteProcessException, QueryProcessException, IllegalPathException,
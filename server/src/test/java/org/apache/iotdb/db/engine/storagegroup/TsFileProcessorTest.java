@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.db.engine.storagegroup;
 
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.MetadataManagerHelper;
 import org.apache.iotdb.db.engine.fileSystem.SystemFileFactory;
@@ -29,6 +31,7 @@ import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -381,6 +384,49 @@ public class TsFileProcessorTest {
     assertTrue(processor.getTsFileResource().isClosed());
   }
 
+  @Test
+  public void testOffHeapMemCost() throws IOException, WriteProcessException, MetadataException {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    boolean prevEnableOffHeapMemTable = config.isEnableOffHeapMemTable();
+    config.setEnableOffHeapMemTable(true);
+    try {
+      processor =
+          new TsFileProcessor(
+              storageGroup,
+              SystemFileFactory.INSTANCE.getFile(filePath),
+              sgInfo,
+              this::closeTsFileProcessor,
+              (tsFileProcessor) -> true,
+              true);
+
+      TsFileProcessorInfo tsFileProcessorInfo = new TsFileProcessorInfo(sgInfo);
+      processor.setTsFileProcessorInfo(tsFileProcessorInfo);
+      this.sgInfo.initTsFileProcessorInfo(processor);
+      SystemInfo.getInstance().reportStorageGroupStatus(sgInfo, processor);
+      long memCost = sgInfo.getMemCost();
+
+      for (int i = 1; i <= 100; i++) {
+        TSRecord record = new TSRecord(i, deviceId);
+        record.addTuple(DataPoint.getDataPoint(dataType, measurementId, String.valueOf(i)));
+        processor.insert(new InsertRowPlan(record));
+      }
+
+      // the arrays of the INT32 series are only accounted against the off-heap budget
+      long arrayMemSize = TVList.tvListArrayMemSize(dataType);
+      assertEquals(0, processor.getWorkMemTableRamCost());
+      assertEquals(arrayMemSize, processor.getWorkMemTableOffHeapRamCost());
+      assertEquals(
+          memCost + ChunkMetadata.calculateRamSize(measurementId, dataType), sgInfo.getMemCost());
+      assertEquals(arrayMemSize, sgInfo.getOffHeapMemCost());
+
+      processor.syncFlush();
+      assertEquals(0, sgInfo.getOffHeapMemCost());
+      processor.syncClose();
+    } finally {
+      config.setEnableOffHeapMemTable(prevEnableOffHeapMemTable);
+    }
+  }
+
   private void closeTsFileProcessor(TsFileProcessor unsealedTsFileProcessor)
       throws TsFileProcessorException {
     TsFileResource resource = unsealedTsFileProcessor.getTsFileResource();
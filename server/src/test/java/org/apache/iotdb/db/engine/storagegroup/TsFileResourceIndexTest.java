@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TsFileResourceIndexTest {
+
+  private static final String[] DEVICES = {"root.sg.d0", "root.sg.d1", "root.sg.d2"};
+
+  private final Random random = new Random(17);
+  private int fileNum = 0;
+
+  @Test
+  public void testSameAsScanning() {
+    TsFileResourceIndex index = new TsFileResourceIndex();
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      TsFileResource resource = newResource(i % 10 != 0);
+      resources.add(resource);
+      index.add(resource);
+    }
+    check(index, resources);
+
+    // compactions replace some files with others
+    for (int i = 0; i < 20; i++) {
+      TsFileResource removed = resources.remove(random.nextInt(resources.size()));
+      index.remove(removed);
+      TsFileResource added = newResource(true);
+      resources.add(added);
+      index.add(added);
+    }
+    check(index, resources);
+
+    // unsealed files are indexed after they are sealed
+    for (TsFileResource resource : resources) {
+      resource.setClosed(true);
+    }
+    check(index, resources);
+
+    // a merge rewrites some files in place
+    for (int i = 0; i < 20; i++) {
+      TsFileResource resource = resources.get(random.nextInt(resources.size()));
+      resource.updateStartTime(DEVICES[0], random.nextInt(10000));
+      resource.updateEndTime(DEVICES[0], random.nextInt(10000));
+      index.update(resource);
+    }
+    check(index, resources);
+    assertEquals(resources.size(), index.size());
+
+    index.removeAll(resources);
+    assertEquals(0, index.size());
+    assertTrue(index.getOverlappedResources(DEVICES[0], null).isEmpty());
+  }
+
+  private TsFileResource newResource(boolean closed) {
+    fileNum++;
+    TsFileResource resource =
+        new TsFileResource(new File(String.format("%d-%d-0-0.tsfile", fileNum, fileNum)));
+    for (String device : DEVICES) {
+      if (random.nextInt(4) == 0) {
+        continue;
+      }
+      long startTime = random.nextInt(10000);
+      resource.updateStartTime(device, startTime);
+      resource.updateEndTime(device, startTime + random.nextInt(500));
+    }
+    resource.setClosed(closed);
+    return resource;
+  }
+
+  private void check(TsFileResourceIndex index, List<TsFileResource> resources) {
+    for (int i = 0; i < 100; i++) {
+      String device = DEVICES[random.nextInt(DEVICES.length)];
+      long startTime = random.nextInt(11000) - 500;
+      long endTime = startTime + random.nextInt(2000);
+      Filter filter = FilterFactory.and(TimeFilter.gtEq(startTime), TimeFilter.ltEq(endTime));
+      checkFilter(index, resources, device, filter);
+    }
+    checkFilter(index, resources, DEVICES[1], null);
+    checkFilter(index, resources, DEVICES[1], TimeFilter.eq(random.nextInt(10000)));
+    // not a time range, so every file of the device is a candidate
+    checkFilter(index, resources, DEVICES[2], TimeFilter.notEq(random.nextInt(10000)));
+  }
+
+  private void checkFilter(
+      TsFileResourceIndex index, List<TsFileResource> resources, String device, Filter filter) {
+    List<TsFileResource> expected = new ArrayList<>();
+    for (TsFileResource resource : resources) {
+      if (resource.isSatisfied(device, filter, true, Long.MAX_VALUE, false)) {
+        expected.add(resource);
+      }
+    }
+    List<TsFileResource> actual = new ArrayList<>();
+    List<TsFileResource> candidates = index.getOverlappedResources(device, filter);
+    for (int i = 0; i < candidates.size(); i++) {
+      TsFileResource candidate = candidates.get(i);
+      if (i > 0) {
+        // in the order of the start times of the device
+        assertTrue(candidates.get(i - 1).getStartTime(device) <= candidate.getStartTime(device));
+      }
+      if (candidate.isSatisfied(device, filter, true, Long.MAX_VALUE, false)) {
+        actual.add(candidate);
+      }
+    }
+    assertEquals(expected.size(), actual.size());
+    Collections.sort(expected, (o1, o2) -> Long.compare(o1.getVersion(), o2.getVersion()));
+    Collections.sort(actual, (o1, o2) -> Long.compare(o1.getVersion(), o2.getVersion()));
+    assertEquals(expected, actual);
+  }
+}
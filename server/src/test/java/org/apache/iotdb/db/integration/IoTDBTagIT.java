@@ -29,6 +29,7 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -343,6 +344,59 @@ public class IoTDBTagIT {
     }
   }
 
+  @Test
+  public void queryWithMultipleTagsTest() throws ClassNotFoundException {
+    List<String> ret =
+        Arrays.asList(
+            "root.turbine.d1.s1,{\"tag1\":\"v1\",\"tag2\":\"v2\"}",
+            "root.turbine.d2.s1,{\"tag1\":\"v1\",\"tag2\":\"v20\"}");
+    Class.forName(Config.JDBC_DRIVER_NAME);
+    try (Connection connection =
+            DriverManager.getConnection(
+                Config.IOTDB_URL_PREFIX + "127.0.0.1:6667/", "root", "root");
+        Statement statement = connection.createStatement()) {
+      statement.execute(
+          "create timeseries root.turbine.d1.s1 with datatype=FLOAT, encoding=RLE "
+              + "tags(tag1=v1, tag2=v2)");
+      statement.execute(
+          "create timeseries root.turbine.d1.s2 with datatype=FLOAT, encoding=RLE "
+              + "tags(tag1=v10, tag2=v2)");
+      statement.execute(
+          "create timeseries root.turbine.d2.s1 with datatype=FLOAT, encoding=RLE "
+              + "tags(tag1=v1, tag2=v20)");
+      statement.execute(
+          "create timeseries root.turbine.d2.s2 with datatype=FLOAT, encoding=RLE "
+              + "tags(tag1=v1, tag3=v2)");
+
+      boolean hasResult = statement.execute("show timeseries where tag1=v1 and tag2 contains 'v2'");
+      assertTrue(hasResult);
+      int count = 0;
+      try (ResultSet resultSet = statement.getResultSet()) {
+        while (resultSet.next()) {
+          String ans = resultSet.getString("timeseries") + "," + resultSet.getString("tags");
+          assertTrue(ret.contains(ans));
+          count++;
+        }
+      }
+      assertEquals(ret.size(), count);
+
+      hasResult =
+          statement.execute("show timeseries root.turbine.d1 where tag1=v1 and tag2=v2 limit 1");
+      assertTrue(hasResult);
+      count = 0;
+      try (ResultSet resultSet = statement.getResultSet()) {
+        while (resultSet.next()) {
+          assertEquals("root.turbine.d1.s1", resultSet.getString("timeseries"));
+          count++;
+        }
+      }
+      assertEquals(1, count);
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail();
+    }
+  }
+
   @Test
   public void queryWithLimitTest() throws ClassNotFoundException {
     List<String> ret =
@@ -399,6 +453,37 @@ public class IoTDBTagIT {
     }
   }
 
+  @Test
+  public void queryWithLimitInPathOrderTest() throws ClassNotFoundException {
+    Class.forName(Config.JDBC_DRIVER_NAME);
+    try (Connection connection =
+            DriverManager.getConnection(
+                Config.IOTDB_URL_PREFIX + "127.0.0.1:6667/", "root", "root");
+        Statement statement = connection.createStatement()) {
+      // the timeseries are created out of the alphabetical order
+      for (String measurement : Arrays.asList("s3", "s1", "s4", "s2")) {
+        statement.execute(
+            "create timeseries root.turbine.d1."
+                + measurement
+                + " with datatype=FLOAT, encoding=RLE tags(tag1=v1)");
+      }
+
+      boolean hasResult =
+          statement.execute("show timeseries root.turbine.d1 where tag1=v1 limit 2 offset 1");
+      assertTrue(hasResult);
+      List<String> timeseries = new ArrayList<>();
+      try (ResultSet resultSet = statement.getResultSet()) {
+        while (resultSet.next()) {
+          timeseries.add(resultSet.getString("timeseries"));
+        }
+      }
+      assertEquals(Arrays.asList("root.turbine.d1.s2", "root.turbine.d1.s3"), timeseries);
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail();
+    }
+  }
+
   @Test
   public void deleteTest() throws ClassNotFoundException {
     List<String> ret1 =
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.logfile;
+
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.metadata.mnode.MNode;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.db.metadata.mnode.StorageGroupMNode;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.schema.VectorMeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MTreeSnapshotTest {
+
+  private static final String SNAPSHOT_PATH =
+      TestConstant.BASE_OUTPUT_PATH.concat("MTreeSnapshotTest.snapshot.bin");
+
+  @Before
+  public void setUp() {
+    new File(TestConstant.BASE_OUTPUT_PATH).mkdirs();
+  }
+
+  @After
+  public void tearDown() {
+    new File(SNAPSHOT_PATH).delete();
+  }
+
+  @Test
+  public void testWriteAndRead() throws IOException {
+    MNode root = new MNode(null, "root");
+    MNode parent = addChild(root, new MNode(root, "a"));
+    // a storage group of many devices, which is written in many sections
+    MNode sg1 = addChild(parent, new StorageGroupMNode(parent, "sg1", 1000));
+    for (int i = 0; i < 10000; i++) {
+      MNode device = addChild(sg1, new MNode(sg1, "d" + i));
+      for (int j = 0; j < 10; j++) {
+        addChild(
+            device,
+            new MeasurementMNode(
+                device,
+                "s" + j,
+                null,
+                TSDataType.values()[j % 6],
+                TSEncoding.PLAIN,
+                CompressionType.SNAPPY,
+                null));
+      }
+    }
+    // a storage group of various nodes
+    MNode sg2 = addChild(root, new StorageGroupMNode(root, "sg2", Long.MAX_VALUE));
+    MNode device = addChild(sg2, new MNode(sg2, "d"));
+    Map<String, String> props = new HashMap<>();
+    props.put("max_point_number", "2");
+    MeasurementMNode measurement =
+        new MeasurementMNode(
+            device, "s1", "alias", TSDataType.FLOAT, TSEncoding.RLE, CompressionType.GZIP, props);
+    measurement.setOffset(100);
+    addChild(device, measurement);
+    device.addAlias("alias", measurement);
+    addChild(
+        device,
+        new MeasurementMNode(
+            device,
+            "s2",
+            null,
+            TSDataType.TEXT,
+            TSEncoding.PLAIN,
+            CompressionType.UNCOMPRESSED,
+            Collections.emptyMap()));
+    MNode subDevice = addChild(device, new MNode(device, "d"));
+    MeasurementMNode vector =
+        new MeasurementMNode(
+            subDevice,
+            "vector",
+            new VectorMeasurementSchema(
+                "vector",
+                new String[] {"s1", "s2"},
+                new TSDataType[] {TSDataType.INT32, TSDataType.DOUBLE},
+                new TSEncoding[] {TSEncoding.RLE, TSEncoding.GORILLA},
+                CompressionType.SNAPPY),
+            null);
+    addChild(subDevice, vector);
+    addChild(vector, new MNode(vector, "s1"));
+    addChild(vector, new MNode(vector, "s2"));
+    addChild(root, new StorageGroupMNode(root, "sg3", 0));
+
+    try (MTreeSnapshotWriter writer = new MTreeSnapshotWriter(SNAPSHOT_PATH)) {
+      writer.write(root);
+    }
+    assertTrue(MTreeSnapshotReader.isCompactSnapshot(new File(SNAPSHOT_PATH)));
+    MNode readRoot = new MTreeSnapshotReader(new File(SNAPSHOT_PATH)).read(4);
+    assertNull(readRoot.getParent());
+    checkEquals(root, readRoot);
+
+    MNode readDevice = readRoot.getChild("sg2").getChild("d");
+    assertSame(readDevice.getChild("s1"), readDevice.getChild("alias"));
+    assertEquals(props, ((MeasurementMNode) readDevice.getChild("s1")).getSchema().getProps());
+    assertTrue(((MeasurementMNode) readDevice.getChild("s2")).getSchema().getProps().isEmpty());
+  }
+
+  private static MNode addChild(MNode parent, MNode child) {
+    parent.addChild(child.getName(), child);
+    return child;
+  }
+
+  private static void checkEquals(MNode expected, MNode actual) {
+    assertEquals(expected.getClass(), actual.getClass());
+    assertEquals(expected.getFullPath(), actual.getFullPath());
+    if (expected instanceof StorageGroupMNode) {
+      assertEquals(
+          ((StorageGroupMNode) expected).getDataTTL(), ((StorageGroupMNode) actual).getDataTTL());
+    } else if (expected instanceof MeasurementMNode) {
+      MeasurementMNode expectedMeasurement = (MeasurementMNode) expected;
+      MeasurementMNode actualMeasurement = (MeasurementMNode) actual;
+      assertEquals(expectedMeasurement.getSchema(), actualMeasurement.getSchema());
+      assertEquals(expectedMeasurement.getAlias(), actualMeasurement.getAlias());
+      assertEquals(expectedMeasurement.getOffset(), actualMeasurement.getOffset());
+    }
+    assertEquals(expected.getChildren().keySet(), actual.getChildren().keySet());
+    assertEquals(expected.getAliasChildren().keySet(), actual.getAliasChildren().keySet());
+    for (MNode child : expected.getChildren().values()) {
+      MNode actualChild = actual.getChild(child.getName());
+      assertSame(actual, actualChild.getParent());
+      checkEquals(child, actualChild);
+    }
+  }
+
+  @Test
+  public void testCorruptedSnapshot() throws IOException {
+    MNode root = new MNode(null, "root");
+    MNode sg = addChild(root, new StorageGroupMNode(root, "sg", 1000));
+    addChild(sg, new MNode(sg, "d"));
+    try (MTreeSnapshotWriter writer = new MTreeSnapshotWriter(SNAPSHOT_PATH)) {
+      writer.write(root);
+    }
+    try (RandomAccessFile file = new RandomAccessFile(SNAPSHOT_PATH, "rw")) {
+      file.seek(file.length() - 1);
+      file.write(0xFF);
+    }
+    try {
+      new MTreeSnapshotReader(new File(SNAPSHOT_PATH)).read(1);
+      fail();
+    } catch (IOException e) {
+      // expected
+    }
+
+    try (RandomAccessFile file = new RandomAccessFile(SNAPSHOT_PATH, "rw")) {
+      file.setLength(4);
+    }
+    assertFalse(MTreeSnapshotReader.isCompactSnapshot(new File(SNAPSHOT_PATH)));
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.mnode;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompactMNodeMapTest {
+
+  @Test
+  public void testPutAndRemove() {
+    CompactMNodeMap map = new CompactMNodeMap();
+    Map<String, MNode> expected = new HashMap<>();
+    // "Aa" and "BB" have the same hash code
+    for (String name : new String[] {"s1", "Aa", "BB", "s2", "AaAa", "BBBB", "AaBB", "d1"}) {
+      MNode node = new MNode(null, name);
+      assertNull(map.putIfAbsent(name, node));
+      expected.put(name, node);
+    }
+    assertSame(expected.get("Aa"), map.putIfAbsent("Aa", new MNode(null, "Aa")));
+    assertEquals(expected, map);
+    assertEquals(expected.keySet(), map.keySet());
+    for (Map.Entry<String, MNode> entry : expected.entrySet()) {
+      assertSame(entry.getValue(), map.get(entry.getKey()));
+      assertTrue(map.containsKey(entry.getKey()));
+    }
+    assertNull(map.get("s3"));
+
+    assertSame(expected.remove("BB"), map.remove("BB"));
+    assertSame(expected.remove("s1"), map.remove("s1"));
+    assertNull(map.remove("s1"));
+    assertFalse(map.containsKey("BB"));
+    assertSame(expected.get("Aa"), map.get("Aa"));
+    assertEquals(expected, map);
+
+    MNode replacing = new MNode(null, "AaAa");
+    assertSame(expected.put("AaAa", replacing), map.put("AaAa", replacing));
+    assertEquals(expected, map);
+  }
+
+  @Test
+  public void testIterateWhileModifying() {
+    CompactMNodeMap map = new CompactMNodeMap();
+    for (int i = 0; i < 10; i++) {
+      map.put("s" + i, new MNode(null, "s" + i));
+    }
+    // the iterator keeps iterating the entries when it is created
+    Iterator<MNode> iterator = map.values().iterator();
+    map.put("s10", new MNode(null, "s10"));
+    int count = 0;
+    while (iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+      count++;
+    }
+    assertEquals(10, count);
+    assertEquals(1, map.size());
+    assertTrue(map.containsKey("s10"));
+  }
+
+  @Test
+  public void testGrowBeyondMaxSize() {
+    MNode device = new MNode(null, "d1");
+    int size = CompactMNodeMap.MAX_SIZE * 2;
+    for (int i = 0; i < size; i++) {
+      MNode child = new MNode(null, "s" + i);
+      device.addChild(child.getName(), child);
+      if (i < CompactMNodeMap.MAX_SIZE) {
+        assertTrue(device.getChildren() instanceof CompactMNodeMap);
+      }
+      device.addAlias("alias" + i, child);
+    }
+    assertFalse(device.getChildren() instanceof CompactMNodeMap);
+    assertEquals(size, device.getChildren().size());
+    assertEquals(size, device.getAliasChildren().size());
+    for (int i = 0; i < size; i++) {
+      MNode child = device.getChild("s" + i);
+      assertEquals("s" + i, child.getName());
+      assertSame(device, child.getParent());
+      assertSame(child, device.getChild("alias" + i));
+    }
+    assertFalse(device.addAlias("alias0", device.getChild("s1")));
+  }
+}
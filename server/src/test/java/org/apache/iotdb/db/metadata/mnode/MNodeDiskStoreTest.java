@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.mnode;
+
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MNodeDiskStoreTest {
+
+  private static final String FILE_PATH =
+      TestConstant.BASE_OUTPUT_PATH.concat("MNodeDiskStoreTest.evicted.bin");
+
+  private static final int DEVICE_NUM = 10;
+  private static final int MEASUREMENT_NUM = 10;
+
+  private MNodeDiskStore store;
+  private MNode storageGroup;
+  private MNode[] devices;
+
+  @Before
+  public void setUp() throws IOException {
+    new File(TestConstant.BASE_OUTPUT_PATH).mkdirs();
+    store = new MNodeDiskStore(FILE_PATH, 3 * MEASUREMENT_NUM, 0);
+    MNode root = new MNode(null, "root");
+    storageGroup = new StorageGroupMNode(root, "sg", Long.MAX_VALUE);
+    root.addChild(storageGroup.getName(), storageGroup);
+    devices = new MNode[DEVICE_NUM];
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      devices[i] = new MNode(storageGroup, "d" + i);
+      storageGroup.addChild(devices[i].getName(), devices[i]);
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    store.close();
+    assertFalse(new File(FILE_PATH).exists());
+  }
+
+  private void createMeasurements(MNode device) {
+    for (int i = 0; i < MEASUREMENT_NUM; i++) {
+      MeasurementMNode measurement =
+          new MeasurementMNode(
+              device,
+              "s" + i,
+              "alias" + i,
+              TSDataType.values()[i % 6],
+              TSEncoding.PLAIN,
+              CompressionType.SNAPPY,
+              Collections.emptyMap());
+      device.addChild(measurement.getName(), measurement);
+      device.addAlias(measurement.getAlias(), measurement);
+    }
+    store.touch(device);
+  }
+
+  private void checkMeasurements(MNode device) {
+    assertEquals(MEASUREMENT_NUM, device.getChildren().size());
+    for (int i = 0; i < MEASUREMENT_NUM; i++) {
+      MeasurementMNode measurement = (MeasurementMNode) device.getChild("s" + i);
+      assertSame(device, measurement.getParent());
+      assertEquals("alias" + i, measurement.getAlias());
+      assertEquals(TSDataType.values()[i % 6], measurement.getSchema().getType());
+      assertEquals(CompressionType.SNAPPY, measurement.getSchema().getCompressor());
+      assertSame(measurement, device.getChild("alias" + i));
+    }
+  }
+
+  @Test
+  public void testEvictAndLoad() {
+    for (MNode device : devices) {
+      createMeasurements(device);
+    }
+    // the least recently touched devices are evicted
+    assertEquals(3 * MEASUREMENT_NUM, store.getResidentMeasurementNum());
+    assertEquals(DEVICE_NUM - 3, store.getEvictedDeviceNum());
+    assertTrue(devices[0].children instanceof EvictedChildren);
+    assertFalse(devices[DEVICE_NUM - 1].children instanceof EvictedChildren);
+
+    // loaded on access, which evicts another device
+    checkMeasurements(devices[0]);
+    assertFalse(devices[0].children instanceof EvictedChildren);
+    assertEquals(DEVICE_NUM - 3, store.getEvictedDeviceNum());
+    assertTrue(devices[DEVICE_NUM - 3].children instanceof EvictedChildren);
+    for (MNode device : devices) {
+      checkMeasurements(device);
+    }
+
+    // a loaded device is modified as a resident one
+    MNode device = devices[1];
+    device.deleteChild("s0");
+    device.deleteAliasChild("alias0");
+    assertEquals(MEASUREMENT_NUM - 1, device.getChildren().size());
+    assertEquals(MEASUREMENT_NUM - 1, device.getAliasChildren().size());
+    assertFalse(device.hasChild("alias0"));
+  }
+
+  @Test
+  public void testPinAndIneligibleDevices() {
+    store.pin(devices[0]);
+    createMeasurements(devices[0]);
+    createMeasurements(devices[1]);
+    // measurements with tags or attributes are kept in memory
+    ((MeasurementMNode) devices[1].getChild("s1")).setOffset(0);
+    // so are devices having devices
+    MNode subDevice = new MNode(devices[2], "d");
+    devices[2].addChild(subDevice.getName(), subDevice);
+    createMeasurements(devices[2]);
+    for (int i = 3; i < DEVICE_NUM; i++) {
+      createMeasurements(devices[i]);
+    }
+    assertFalse(devices[0].children instanceof EvictedChildren);
+    assertFalse(devices[1].children instanceof EvictedChildren);
+    assertFalse(devices[2].children instanceof EvictedChildren);
+    assertTrue(devices[3].children instanceof EvictedChildren);
+
+    store.unpin(devices[0]);
+    createMeasurements(devices[3]);
+    assertTrue(devices[0].children instanceof EvictedChildren);
+    checkMeasurements(devices[0]);
+  }
+
+  @Test
+  public void testCompactAndRemove() throws IOException {
+    for (MNode device : devices) {
+      createMeasurements(device);
+    }
+    long fileSize = store.getFileSize();
+    // load and evict the devices over and over again
+    MeasurementMNode oldMeasurement = (MeasurementMNode) devices[0].getChild("s0");
+    for (int round = 0; round < 3; round++) {
+      for (MNode device : devices) {
+        checkMeasurements(device);
+      }
+    }
+    assertNotSame(oldMeasurement, devices[0].getChild("s0"));
+    assertTrue(store.getFileSize() <= fileSize * 2);
+    for (MNode device : devices) {
+      checkMeasurements(device);
+    }
+
+    store.remove(new PartialPath(new String[] {"root", "sg"}));
+    assertEquals(0, store.getResidentMeasurementNum());
+    assertEquals(0, store.getEvictedDeviceNum());
+    assertNotNull(storageGroup.getChild("d0"));
+  }
+}
@@ -19,17 +19,33 @@
 package org.apache.iotdb.db.metadata.mnode;
 
 import org.apache.iotdb.db.metadata.MetaUtils;
+import org.apache.iotdb.db.rescon.CachedSchemaPool;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 public class MNodeTest {
   private static ExecutorService service;
@@ -95,4 +111,87 @@ public class MNodeTest {
             .addChild(new MNode(null, "temperature"));
     assertEquals("root.sg1.aa.bb.cc.dd.device11.temperature", temperatureNode.getFullPath());
   }
+
+  @Test
+  public void testSharedSchema() {
+    MNode sgNode = new MNode(null, "sg1");
+    MeasurementMNode[] nodes = new MeasurementMNode[3];
+    for (int i = 0; i < nodes.length; i++) {
+      MNode deviceNode = sgNode.addChild(new MNode(null, "d" + i));
+      nodes[i] =
+          new MeasurementMNode(
+              deviceNode,
+              new String("speed"),
+              null,
+              TSDataType.DOUBLE,
+              TSEncoding.GORILLA,
+              CompressionType.SNAPPY,
+              i < 2 ? null : Collections.singletonMap("max_point_number", "2"));
+      deviceNode.addChild(nodes[i]);
+    }
+    // the measurements of the same schema share the schema and the name
+    assertSame(nodes[0].getSchema(), nodes[1].getSchema());
+    assertSame(nodes[0].getName(), nodes[1].getName());
+    assertEquals("sg1.d1.speed", nodes[1].getFullPath());
+    // the props are a part of the schema
+    assertNotSame(nodes[0].getSchema(), nodes[2].getSchema());
+    assertEquals("2", nodes[2].getSchema().getProps().get("max_point_number"));
+  }
+
+  @Test
+  public void testConcurrentFlushOfSharedSchema()
+      throws InterruptedException, ExecutionException {
+    int threadNum = Runtime.getRuntime().availableProcessors();
+    try {
+      for (int round = 0; round < 100; round++) {
+        // a fresh shared schema per round, so that the encoder builders are built concurrently
+        CachedSchemaPool.getInstance().clear();
+        MNode sgNode = new MNode(null, "sg1");
+        List<MeasurementMNode> nodes = new ArrayList<>();
+        for (int i = 0; i < threadNum; i++) {
+          MNode deviceNode = sgNode.addChild(new MNode(null, "d" + i));
+          MeasurementMNode node =
+              new MeasurementMNode(
+                  deviceNode,
+                  "s1",
+                  null,
+                  TSDataType.FLOAT,
+                  TSEncoding.RLE,
+                  CompressionType.UNCOMPRESSED,
+                  Collections.singletonMap(Encoder.MAX_POINT_NUMBER, "4"));
+          deviceNode.addChild(node);
+          nodes.add(node);
+        }
+        assertSame(nodes.get(0).getSchema(), nodes.get(threadNum - 1).getSchema());
+
+        // the flushes of the series encode with the props of the shared schema
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Float>> results = new ArrayList<>();
+        for (MeasurementMNode node : nodes) {
+          results.add(
+              service.submit(
+                  () -> {
+                    start.await();
+                    return encodeAndDecode(node.getSchema().getValueEncoder(), 1.23456f);
+                  }));
+        }
+        start.countDown();
+        for (Future<Float> result : results) {
+          assertEquals(1.2346f, result.get(), 0.00001f);
+        }
+      }
+    } finally {
+      CachedSchemaPool.getInstance().clear();
+      service.shutdown();
+    }
+  }
+
+  private static float encodeAndDecode(Encoder encoder, float value) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(value, out);
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = Decoder.getDecoderByType(TSEncoding.RLE, TSDataType.FLOAT);
+    return decoder.readFloat(buffer);
+  }
 }
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.mnode;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import java.util.Collections;
+
+/**
+ * MTree memory benchmark. Build the nodes of root.sg[0-9].d[0-numOfDevice).s[0-numOfMeasurement),
+ * as creating timeseries does, and report the heap they take per timeseries. Run it with a fixed
+ * heap, e.g. -Xms4g -Xmx4g, and the arguments numOfDevice and numOfMeasurement.
+ */
+public class MTreeMemoryBenchmark {
+
+  private static final int NUM_OF_STORAGE_GROUP = 10;
+
+  public static void main(String[] args) {
+    int numOfDevice = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    int numOfMeasurement = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+    long usedMemoryBefore = getUsedMemory();
+    MNode root = new MNode(null, "root");
+    for (int i = 0; i < NUM_OF_STORAGE_GROUP; i++) {
+      root.addChild(new StorageGroupMNode(root, "sg" + i, Long.MAX_VALUE));
+    }
+    for (int i = 0; i < numOfDevice; i++) {
+      MNode sgNode = root.getChild("sg" + i % NUM_OF_STORAGE_GROUP);
+      MNode deviceNode = sgNode.addChild(new MNode(sgNode, "d" + i));
+      for (int j = 0; j < numOfMeasurement; j++) {
+        // the names are parsed from the paths, so they are different instances
+        String measurement = "s" + j;
+        deviceNode.addChild(
+            new MeasurementMNode(
+                deviceNode,
+                measurement,
+                null,
+                TSDataType.DOUBLE,
+                TSEncoding.GORILLA,
+                CompressionType.SNAPPY,
+                Collections.emptyMap()));
+      }
+    }
+    long usedMemoryAfter = getUsedMemory();
+
+    long numOfSeries = (long) numOfDevice * numOfMeasurement;
+    System.out.println(
+        String.format(
+            "Num of devices: %d, "
+                + "Num of measurements of each device: %d, "
+                + "Heap used by MTree: %d MB, "
+                + "Bytes per timeseries: %.1f",
+            numOfDevice,
+            numOfMeasurement,
+            (usedMemoryAfter - usedMemoryBefore) >> 20,
+            (double) (usedMemoryAfter - usedMemoryBefore) / numOfSeries));
+    // keep the tree reachable until it is measured
+    System.out.println("Num of timeseries: " + root.getMeasurementMNodeCount());
+  }
+
+  private static long getUsedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.tag;
+
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.MetadataConstant;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TagInvertedIndexTest {
+
+  private static final String SCHEMA_DIR = TestConstant.BASE_OUTPUT_PATH.concat("tagIndex");
+
+  @Before
+  public void setUp() {
+    new File(SCHEMA_DIR).mkdirs();
+  }
+
+  @After
+  public void tearDown() {
+    for (String name :
+        Arrays.asList(
+            MetadataConstant.TAG_INDEX,
+            MetadataConstant.TAG_INDEX_TMP,
+            MetadataConstant.TAG_INDEX_LOG)) {
+      new File(SCHEMA_DIR, name).delete();
+    }
+    new File(SCHEMA_DIR).delete();
+  }
+
+  @Test
+  public void testPostingList() {
+    PostingList postingList = new PostingList();
+    TreeSet<Integer> expected = new TreeSet<>();
+    Random random = new Random(1);
+    // mostly ascending ids with some in the middle
+    for (int i = 0; i < 10000; i++) {
+      int id = random.nextInt(4) == 0 ? random.nextInt(20000) : 2 * i + random.nextInt(3);
+      assertEquals(expected.add(id), postingList.add(id));
+    }
+    for (int i = 0; i < 3000; i++) {
+      int id = random.nextInt(20000);
+      assertEquals(expected.remove(id), postingList.remove(id));
+    }
+    assertEquals(expected.size(), postingList.size());
+    for (int id = 0; id < 20000; id++) {
+      assertEquals(expected.contains(id), postingList.contains(id));
+    }
+
+    SeriesIdIterator iterator = postingList.iterator();
+    for (int id : expected) {
+      assertEquals(id, iterator.next());
+    }
+    assertEquals(SeriesIdIterator.NO_MORE_IDS, iterator.next());
+
+    iterator = postingList.iterator();
+    for (int target = 0; target < 20000; target += 1 + random.nextInt(500)) {
+      Integer id = expected.ceiling(target);
+      assertEquals(id == null ? SeriesIdIterator.NO_MORE_IDS : id, iterator.advance(target));
+    }
+  }
+
+  @Test
+  public void testQuery() throws IOException, MetadataException {
+    try (TagInvertedIndex index = new TagInvertedIndex(SCHEMA_DIR)) {
+      assertFalse(index.isRecovered());
+      addSeries(index, 1000);
+
+      // even series of region r1, whose name contains "o"
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 4; i < 1000; i += 6) {
+        expected.add(i);
+      }
+      assertEquals(
+          expected,
+          query(
+              index,
+              Arrays.asList(
+                  new TagFilter("region", "r1", false),
+                  new TagFilter("name", "o", true),
+                  new TagFilter("parity", "even", false))));
+      assertEquals(
+          Collections.emptyList(),
+          query(
+              index,
+              Arrays.asList(
+                  new TagFilter("parity", "even", false), new TagFilter("parity", "odd", false))));
+      assertEquals(
+          Collections.emptyList(),
+          query(index, Collections.singletonList(new TagFilter("region", "r3", false))));
+
+      // the visitor stops the query
+      List<Integer> ids = new ArrayList<>();
+      index.query(
+          Collections.singletonList(new TagFilter("parity", "odd", false)),
+          (seriesId, fullPath) -> {
+            assertEquals("root.sg.d" + seriesId + ".s", fullPath);
+            ids.add(seriesId);
+            return ids.size() < 3;
+          });
+      assertEquals(Arrays.asList(1, 3, 5), ids);
+
+      index.removeSeries(3, tagsOf(3));
+      index.removeTags(5, Collections.singletonMap("parity", "odd"));
+      index.addTags(5, "root.sg.d5.s", Collections.singletonMap("parity", "even"));
+      assertEquals(
+          Arrays.asList(1, 7),
+          query(index, Collections.singletonList(new TagFilter("parity", "odd", false)))
+              .subList(0, 2));
+      assertTrue(
+          query(index, Collections.singletonList(new TagFilter("parity", "even", false)))
+              .contains(5));
+      assertFalse(index.containsKey("unit"));
+      assertTrue(index.containsKey("region"));
+    }
+  }
+
+  @Test
+  public void testRecover() throws IOException, MetadataException {
+    List<TagFilter> filters = Collections.singletonList(new TagFilter("region", "r0", false));
+    List<Integer> expected;
+    try (TagInvertedIndex index = new TagInvertedIndex(SCHEMA_DIR)) {
+      addSeries(index, 500);
+      index.checkpoint();
+      index.removeSeries(0, tagsOf(0));
+      index.addTags(1, "root.sg.d1.s", Collections.singletonMap("region", "r0"));
+      expected = query(index, filters);
+    }
+
+    // recover from the checkpoint written when closed
+    try (TagInvertedIndex index = new TagInvertedIndex(SCHEMA_DIR)) {
+      assertTrue(index.isRecovered());
+      assertEquals(expected, query(index, filters));
+      index.removeSeries(1, tagsOf(1));
+      expected = query(index, filters);
+      // an incomplete record written before a crash
+      try (RandomAccessFile log =
+          new RandomAccessFile(new File(SCHEMA_DIR, MetadataConstant.TAG_INDEX_LOG), "rw")) {
+        log.seek(log.length());
+        log.writeInt(100);
+        log.write(new byte[10]);
+      }
+
+      // recover from the checkpoint and the log, without closing the index
+      try (TagInvertedIndex recoveredIndex = new TagInvertedIndex(SCHEMA_DIR)) {
+        assertTrue(recoveredIndex.isRecovered());
+        assertEquals(expected, query(recoveredIndex, filters));
+      }
+    }
+  }
+
+  private static Map<String, String> tagsOf(int i) {
+    Map<String, String> tags = new HashMap<>();
+    tags.put("region", "r" + (i % 3));
+    tags.put("parity", i % 2 == 0 ? "even" : "odd");
+    tags.put("name", i % 2 == 0 ? "foo" + i : "bar" + i);
+    return tags;
+  }
+
+  private static void addSeries(TagInvertedIndex index, int seriesNum) throws IOException {
+    for (int i = 0; i < seriesNum; i++) {
+      index.addTags(i, "root.sg.d" + i + ".s", tagsOf(i));
+    }
+  }
+
+  private static List<Integer> query(TagInvertedIndex index, List<TagFilter> filters)
+      throws MetadataException {
+    List<Integer> ids = new ArrayList<>();
+    index.query(filters, (seriesId, fullPath) -> ids.add(seriesId));
+    return ids;
+  }
+}
@@ -23,6 +23,7 @@ import org.apache.iotdb.db.auth.AuthException;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.metadata.tag.TagFilter;
 import org.apache.iotdb.db.qp.logical.Operator.OperatorType;
 import org.apache.iotdb.db.qp.logical.sys.AlterTimeSeriesOperator.AlterType;
 import org.apache.iotdb.db.qp.logical.sys.AuthorOperator.AuthorType;
@@ -53,6 +54,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 
 public class PhysicalPlanSerializeTest {
@@ -98,6 +100,20 @@ public class PhysicalPlanSerializeTest {
     Assert.assertEquals(false, ((ShowTimeSeriesPlan) result).isOrderByHeat());
   }
 
+  @Test
+  public void showTimeSeriesPlanWithTagFiltersSerializeTest()
+      throws IllegalPathException, IOException {
+    ShowTimeSeriesPlan timeSeriesPlan = new ShowTimeSeriesPlan(new PartialPath("root.sg"), 10, 5);
+    List<TagFilter> tagFilters =
+        Arrays.asList(new TagFilter("unit", "10", false), new TagFilter("type", "f", true));
+    timeSeriesPlan.setTagFilters(tagFilters);
+    ByteBuffer byteBuffer = serializePlan(timeSeriesPlan);
+    PhysicalPlan result = Factory.create(byteBuffer);
+    Assert.assertEquals(tagFilters, ((ShowTimeSeriesPlan) result).getTagFilters());
+    Assert.assertEquals(10, ((ShowTimeSeriesPlan) result).getLimit());
+    Assert.assertEquals(5, ((ShowTimeSeriesPlan) result).getOffset());
+  }
+
   @Test
   public void setTTLPlanSerializeTest() throws IllegalPathException, IOException {
     SetTTLPlan setTTLPlan = new SetTTLPlan(new PartialPath("root.sg"), 1000000L);
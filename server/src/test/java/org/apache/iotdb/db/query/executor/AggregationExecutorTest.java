@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.compaction.CompactionStrategy;
+import org.apache.iotdb.db.engine.storagegroup.StorageGroupProcessor;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.qp.Planner;
+import org.apache.iotdb.db.qp.executor.IPlanExecutor;
+import org.apache.iotdb.db.qp.executor.PlanExecutor;
+import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.exception.filter.StatisticsClassException;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AggregationExecutorTest {
+
+  private static final String[] STORAGE_GROUPS = {"root.vehicle", "root.test"};
+  private static final String[] DEVICES = {"d0", "d1", "d2"};
+  private static final String[] SENSORS = {"s0", "s1", "s2", "s3"};
+  private static final String[] TYPES = {"INT32", "INT64", "FLOAT", "DOUBLE"};
+
+  private static final String AGGREGATION_SQL =
+      "select count(*), sum(*), avg(*), max_value(*), min_value(*), first_value(*), "
+          + "last_value(*), max_time(*), min_time(*) from root.vehicle.*, root.test.* "
+          + "where time >= 5";
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private final IPlanExecutor queryExecutor = new PlanExecutor();
+  private final Planner processor = new Planner();
+
+  private int prevAggregationParallelism;
+  private int prevConcurrentQueryThread;
+  private CompactionStrategy prevCompactionStrategy;
+
+  static {
+    IoTDB.metaManager.init();
+  }
+
+  public AggregationExecutorTest() throws Exception {}
+
+  @Before
+  public void setUp() throws Exception {
+    prevAggregationParallelism = config.getAggregationParallelism();
+    prevConcurrentQueryThread = config.getConcurrentQueryThread();
+    prevCompactionStrategy = config.getCompactionStrategy();
+    // a merge renames the files, which would make the references of the files change under the
+    // checks of the tests
+    config.setCompactionStrategy(CompactionStrategy.NO_COMPACTION);
+    EnvironmentUtils.envSetUp();
+    for (String storageGroup : STORAGE_GROUPS) {
+      execute("SET STORAGE GROUP TO " + storageGroup);
+      for (String device : DEVICES) {
+        for (int i = 0; i < SENSORS.length; i++) {
+          execute(
+              String.format(
+                  "CREATE TIMESERIES %s.%s.%s WITH DATATYPE=%s, ENCODING=PLAIN",
+                  storageGroup, device, SENSORS[i], TYPES[i]));
+        }
+      }
+    }
+    execute("SET STORAGE GROUP TO root.text");
+    execute("CREATE TIMESERIES root.text.d0.s0 WITH DATATYPE=TEXT, ENCODING=PLAIN");
+
+    // several sequence files, an unsequence file and a deletion per storage group
+    for (int file = 0; file < 3; file++) {
+      insertRows(file * 100, file * 100 + 100);
+      execute("flush");
+    }
+    insertRows(50, 150);
+    execute("flush");
+    for (String storageGroup : STORAGE_GROUPS) {
+      execute(String.format("delete from %s.d0.s0 where time <= 20", storageGroup));
+    }
+    // the last rows stay in the working memtables
+    insertRows(300, 320);
+    execute("insert into root.text.d0(timestamp,s0) values(1,'a')");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+    config.setAggregationParallelism(prevAggregationParallelism);
+    config.setConcurrentQueryThread(prevConcurrentQueryThread);
+    config.setCompactionStrategy(prevCompactionStrategy);
+  }
+
+  private void execute(String sql) throws Exception {
+    queryExecutor.processNonQuery(processor.parseSQLToPhysicalPlan(sql));
+  }
+
+  private void insertRows(int startTime, int endTime) throws Exception {
+    for (String storageGroup : STORAGE_GROUPS) {
+      for (int d = 0; d < DEVICES.length; d++) {
+        for (int time = startTime; time < endTime; time++) {
+          int value = time * (d + 1) + storageGroup.length();
+          execute(
+              String.format(
+                  "insert into %s.%s(timestamp,s0,s1,s2,s3) values(%d,%d,%d,%d.5,%d.25)",
+                  storageGroup, DEVICES[d], time, value, value * 3L, value, value));
+        }
+      }
+    }
+  }
+
+  private List<String> query(String sql, int parallelism) throws Exception {
+    config.setAggregationParallelism(parallelism);
+    config.setConcurrentQueryThread(Math.max(parallelism, 1));
+    long queryId = QueryResourceManager.getInstance().assignQueryId(true);
+    try {
+      QueryPlan queryPlan = (QueryPlan) processor.parseSQLToPhysicalPlan(sql);
+      QueryDataSet dataSet = queryExecutor.processQuery(queryPlan, new QueryContext(queryId));
+      List<String> result = new ArrayList<>();
+      for (int i = 0; i < dataSet.getPaths().size(); i++) {
+        result.add(dataSet.getPaths().get(i) + " " + dataSet.getDataTypes().get(i));
+      }
+      while (dataSet.hasNext()) {
+        result.add(dataSet.next().toString());
+      }
+      // a file is referenced at most once by the query, however many threads opened it
+      int referencedFileNum = 0;
+      for (TsFileResource tsFile : getSealedFiles()) {
+        int referenceCount = FileReaderManager.getInstance().getReferenceCount(tsFile, true);
+        assertTrue(referenceCount <= 1);
+        referencedFileNum += referenceCount;
+      }
+      assertTrue(referencedFileNum > 0);
+      return result;
+    } finally {
+      QueryResourceManager.getInstance().endQuery(queryId);
+      assertNoReference();
+    }
+  }
+
+  private List<TsFileResource> getSealedFiles() throws Exception {
+    List<TsFileResource> tsFiles = new ArrayList<>();
+    for (String storageGroup : STORAGE_GROUPS) {
+      StorageGroupProcessor processor =
+          StorageEngine.getInstance().getProcessor(new PartialPath(storageGroup));
+      for (TsFileResource tsFile : processor.getSequenceFileTreeSet()) {
+        if (tsFile.isClosed()) {
+          tsFiles.add(tsFile);
+        }
+      }
+      for (TsFileResource tsFile : processor.getUnSequenceFileList()) {
+        if (tsFile.isClosed()) {
+          tsFiles.add(tsFile);
+        }
+      }
+    }
+    assertFalse(tsFiles.isEmpty());
+    return tsFiles;
+  }
+
+  private void assertNoReference() throws Exception {
+    for (TsFileResource tsFile : getSealedFiles()) {
+      assertEquals(0, FileReaderManager.getInstance().getReferenceCount(tsFile, true));
+    }
+  }
+
+  @Test
+  public void testParallelSameAsSerial() throws Exception {
+    List<String> serialResult = query(AGGREGATION_SQL, 1);
+    // the paths and types of 9 aggregations of 24 series, and one row of values
+    assertEquals(
+        9 * STORAGE_GROUPS.length * DEVICES.length * SENSORS.length + 1, serialResult.size());
+    for (int parallelism : new int[] {2, 4, 8}) {
+      assertEquals(serialResult, query(AGGREGATION_SQL, parallelism));
+    }
+  }
+
+  @Test
+  public void testParallelSameAsSerialWithTimeRange() throws Exception {
+    String sql =
+        "select count(s0), sum(s1), max_value(s2), last_value(s3) from root.vehicle.*, root.test.* "
+            + "where time >= 120 and time < 310";
+    List<String> serialResult = query(sql, 1);
+    assertEquals(serialResult, query(sql, 4));
+  }
+
+  @Test(timeout = 120000)
+  public void testParallelWithConcurrentInsertions() throws Exception {
+    // the insertions queue for the write lock of the storage groups locked by the query, the
+    // tasks of the query must not wait behind them
+    String sql = AGGREGATION_SQL + " and time < 1000";
+    List<String> serialResult = query(sql, 1);
+    AtomicBoolean stopped = new AtomicBoolean(false);
+    AtomicReference<Exception> insertionFailure = new AtomicReference<>();
+    Thread insertThread =
+        new Thread(
+            () -> {
+              try {
+                for (int time = 1000; !stopped.get(); time += 10) {
+                  insertRows(time, time + 10);
+                }
+              } catch (Exception e) {
+                insertionFailure.set(e);
+              }
+            });
+    insertThread.start();
+    try {
+      for (int i = 0; i < 20; i++) {
+        assertEquals(serialResult, query(sql, 4));
+      }
+    } finally {
+      stopped.set(true);
+      insertThread.join();
+    }
+    assertNull(insertionFailure.get());
+  }
+
+  @Test
+  public void testFailedSeries() throws Exception {
+    // sum of a TEXT series fails in its sub-task while the other series are being aggregated
+    String sql = "select sum(*) from root.vehicle.*, root.test.*, root.text.*";
+    for (int parallelism : new int[] {1, 2, 4}) {
+      try {
+        query(sql, parallelism);
+        fail();
+      } catch (StatisticsClassException e) {
+        // expected, the files referenced by the other series are released by endQuery
+      }
+    }
+    // the pool and the locks are left clean for the next queries
+    List<String> serialResult = query(AGGREGATION_SQL, 1);
+    assertEquals(serialResult, query(AGGREGATION_SQL, 4));
+    assertTrue(serialResult.size() > 1);
+  }
+}
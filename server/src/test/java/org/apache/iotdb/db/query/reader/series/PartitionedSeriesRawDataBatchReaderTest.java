@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.series;
+
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.read.reader.IBatchReader;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PartitionedSeriesRawDataBatchReaderTest {
+
+  private static final String SERIES_READER_TEST_SG = "root.seriesReaderTest";
+  private List<String> deviceIds = new ArrayList<>();
+  private List<MeasurementSchema> measurementSchemas = new ArrayList<>();
+
+  private List<TsFileResource> seqResources = new ArrayList<>();
+  private List<TsFileResource> unseqResources = new ArrayList<>();
+
+  private boolean prevEnablePartition;
+  private long prevPartitionInterval;
+
+  @Before
+  public void setUp() throws MetadataException, IOException, WriteProcessException {
+    SeriesReaderTestUtil.setUp(measurementSchemas, deviceIds, seqResources, unseqResources);
+    prevEnablePartition = StorageEngine.isEnablePartition();
+    prevPartitionInterval = StorageEngine.getTimePartitionInterval();
+    // every seq file and every unseq file but the last one lies in a partition of its own
+    StorageEngine.setEnablePartition(true);
+    StorageEngine.setTimePartitionInterval(100);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    StorageEngine.setEnablePartition(prevEnablePartition);
+    StorageEngine.setTimePartitionInterval(prevPartitionInterval);
+    SeriesReaderTestUtil.tearDown(seqResources, unseqResources);
+  }
+
+  @Test
+  public void testSameAsSeriesReader() throws Exception {
+    // the last unseq file spans two partitions, which never happens to the files of a server
+    List<TsFileResource> unseqInPartitions = unseqResources.subList(0, unseqResources.size() - 1);
+    for (boolean ascending : new boolean[] {true, false}) {
+      for (int prefetchedPartitionNum : new int[] {0, 1, 10}) {
+        checkReader(unseqInPartitions, null, ascending, prefetchedPartitionNum, 500);
+      }
+    }
+  }
+
+  @Test
+  public void testSinglePartition() throws Exception {
+    StorageEngine.setEnablePartition(false);
+    Filter timeFilter = FilterFactory.and(TimeFilter.gtEq(150), TimeFilter.lt(350));
+    for (boolean ascending : new boolean[] {true, false}) {
+      for (int prefetchedPartitionNum : new int[] {0, 1, 10}) {
+        checkReader(unseqResources, null, ascending, prefetchedPartitionNum, 500);
+        checkReader(unseqResources, timeFilter, ascending, prefetchedPartitionNum, 200);
+      }
+    }
+  }
+
+  @Test
+  public void testClose() throws Exception {
+    StorageEngine.setEnablePartition(false);
+    PartitionedSeriesRawDataBatchReader partitionedReader =
+        new PartitionedSeriesRawDataBatchReader(
+            new PartialPath(SERIES_READER_TEST_SG + ".device0.sensor0"),
+            new HashSet<>(Collections.singletonList("sensor0")),
+            TSDataType.INT32,
+            new QueryContext(),
+            new QueryDataSource(new ArrayList<>(seqResources), new ArrayList<>(unseqResources)),
+            null,
+            true,
+            10);
+    // the first prefetching read of the second slice blocks until it is released
+    CountDownLatch readBlocked = new CountDownLatch(1);
+    CountDownLatch readReleased = new CountDownLatch(1);
+    AtomicBoolean readFinished = new AtomicBoolean(false);
+    partitionedReader.setPrefetchHook(
+        index -> {
+          if (index == 1 && readBlocked.getCount() > 0) {
+            readBlocked.countDown();
+            Uninterruptibles.awaitUninterruptibly(readReleased);
+            readFinished.set(true);
+          }
+        });
+    assertTrue(partitionedReader.hasNextBatch());
+    readBlocked.await();
+
+    AtomicBoolean readFinishedAtClose = new AtomicBoolean(false);
+    Thread closeThread =
+        new Thread(
+            () -> {
+              partitionedReader.close();
+              readFinishedAtClose.set(readFinished.get());
+            });
+    closeThread.start();
+    // the close waits for the blocked read
+    while (closeThread.getState() != Thread.State.BLOCKED) {
+      assertTrue("close returned during a prefetching read", closeThread.isAlive());
+      Thread.yield();
+    }
+    readReleased.countDown();
+    closeThread.join();
+    assertTrue(readFinishedAtClose.get());
+    assertEquals(0, partitionedReader.getPrefetchedBatchNum());
+  }
+
+  private void checkReader(
+      List<TsFileResource> unseqFiles,
+      Filter timeFilter,
+      boolean ascending,
+      int prefetchedPartitionNum,
+      int expectedCount)
+      throws Exception {
+    PartialPath path = new PartialPath(SERIES_READER_TEST_SG + ".device0.sensor0");
+    Set<String> allSensors = new HashSet<>();
+    allSensors.add("sensor0");
+
+    QueryDataSource dataSource =
+        new QueryDataSource(new ArrayList<>(seqResources), new ArrayList<>(unseqFiles));
+    assertTrue(PartitionedSeriesRawDataBatchReader.canBeSplit(dataSource, path.getDevice()));
+    PartitionedSeriesRawDataBatchReader partitionedReader =
+        new PartitionedSeriesRawDataBatchReader(
+            path,
+            allSensors,
+            TSDataType.INT32,
+            new QueryContext(),
+            dataSource,
+            timeFilter,
+            ascending,
+            prefetchedPartitionNum);
+    // a slice for each partition, or for each seq file in a single partition
+    assertEquals(seqResources.size(), partitionedReader.getSliceNum());
+
+    IBatchReader expectedReader =
+        new SeriesRawDataBatchReader(
+            path,
+            allSensors,
+            TSDataType.INT32,
+            new QueryContext(),
+            new QueryDataSource(new ArrayList<>(seqResources), new ArrayList<>(unseqFiles)),
+            timeFilter,
+            null,
+            null,
+            ascending);
+
+    BatchData expected = null;
+    int count = 0;
+    while (partitionedReader.hasNextBatch()) {
+      BatchData batchData = partitionedReader.nextBatch();
+      while (batchData.hasCurrent()) {
+        while (expected == null || !expected.hasCurrent()) {
+          assertTrue(expectedReader.hasNextBatch());
+          expected = expectedReader.nextBatch();
+        }
+        assertEquals(expected.currentTime(), batchData.currentTime());
+        assertEquals(expected.getInt(), batchData.getInt());
+        expected.next();
+        batchData.next();
+        count++;
+      }
+    }
+    assertFalse(expected != null && expected.hasCurrent());
+    while (expectedReader.hasNextBatch()) {
+      assertTrue(expectedReader.nextBatch().isEmpty());
+    }
+    assertEquals(expectedCount, count);
+    partitionedReader.close();
+  }
+}
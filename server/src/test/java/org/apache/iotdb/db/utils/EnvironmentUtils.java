@@ -39,6 +39,7 @@ import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.query.control.TracingManager;
 import org.apache.iotdb.db.query.udf.service.UDFRegistrationService;
+import org.apache.iotdb.db.rescon.OffHeapArrayManager;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.service.IoTDB;
@@ -149,6 +150,7 @@ public class EnvironmentUtils {
 
     // close array manager
     PrimitiveArrayManager.close();
+    OffHeapArrayManager.close();
 
     // clear system info
     SystemInfo.getInstance().close();
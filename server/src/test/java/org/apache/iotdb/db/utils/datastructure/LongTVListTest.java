@@ -29,6 +29,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
 public class LongTVListTest {
 
   @Test
@@ -95,4 +97,148 @@ public class LongTVListTest {
       Assert.assertEquals(tvList.size - i, tvList.getTime((int) i));
     }
   }
+
+  @Test
+  public void testSortWithDelayedPoints() {
+    Random random = new Random();
+    LongTVList tvList = new LongTVList();
+    List<TimeValuePair> inputs = new ArrayList<>();
+    long time = 0;
+    for (int batch = 0; batch < 100; batch++) {
+      // points in order with repeated timestamps
+      long[] times = new long[100];
+      long[] values = new long[100];
+      for (int i = 0; i < times.length; i++) {
+        time += random.nextInt(2);
+        times[i] = time;
+        values[i] = inputs.size() + i;
+        inputs.add(new TimeValuePair(times[i], new TsLong(values[i])));
+      }
+      tvList.putLongs(times, values, 0, times.length);
+      // a few delayed points
+      for (int i = 0; i < 3; i++) {
+        long delayedTime = Math.max(0, time - random.nextInt(300));
+        tvList.putLong(delayedTime, inputs.size());
+        inputs.add(new TimeValuePair(delayedTime, new TsLong(inputs.size())));
+      }
+    }
+    Assert.assertFalse(tvList.isSorted());
+    tvList.sort();
+    Assert.assertTrue(tvList.isSorted());
+
+    // the points of the same timestamp stay in the order they are inserted
+    inputs.sort(TimeValuePair::compareTo);
+    for (int i = 0; i < tvList.size; i++) {
+      Assert.assertEquals(inputs.get(i).getTimestamp(), tvList.getTime(i));
+      Assert.assertEquals(inputs.get(i).getValue().getLong(), tvList.getLong(i));
+    }
+  }
+
+  @Test
+  public void testDeleteAndSort() {
+    LongTVList tvList = new LongTVList();
+    for (long i = 0; i < 1000; i++) {
+      // 0, 1, ..., 99, 50, 51, ..., 149, 100, ...
+      long time = i / 100 * 50 + i % 100;
+      tvList.putLong(time, time);
+    }
+    tvList.delete(300, 400);
+    tvList.sort();
+    long lastTime = Long.MIN_VALUE;
+    for (int i = 0; i < tvList.size; i++) {
+      long time = tvList.getTime(i);
+      Assert.assertTrue(time >= lastTime);
+      Assert.assertTrue(time < 300 || time > 400);
+      Assert.assertEquals(time, tvList.getLong(i));
+      lastTime = time;
+    }
+    // two points of each time in [50, 500), and the deleted ones are in [300, 400]
+    Assert.assertEquals(1000 - 101 * 2, tvList.size);
+  }
+
+  @Test
+  public void testLazyClone() {
+    LongTVList tvList = new LongTVList();
+    int size = ARRAY_SIZE * 4;
+    for (long i = 0; i < size; i++) {
+      tvList.putLong(i, i);
+    }
+
+    // a delayed point moves only the points of the last array
+    TVList cloneList = tvList.lazyClone();
+    cloneList.putLong(size - 2, -1);
+    cloneList.sort();
+    Assert.assertEquals(3, cloneList.sharedArrayNum);
+    Assert.assertSame(tvList.timestamps.get(2), cloneList.timestamps.get(2));
+    Assert.assertNotSame(tvList.timestamps.get(3), cloneList.timestamps.get(3));
+    Assert.assertEquals(size + 1, cloneList.size());
+    for (int i = 0; i < cloneList.size(); i++) {
+      long time = i < size - 1 ? i : i - 1;
+      Assert.assertEquals(time, cloneList.getTime(i));
+      Assert.assertEquals(i == size - 1 ? -1 : time, cloneList.getLong(i));
+    }
+
+    // the deletion moves only the points after the deleted ones
+    TVList deletedList = cloneList.lazyClone();
+    Assert.assertEquals(1, deletedList.delete(1, 1));
+    Assert.assertEquals(0, deletedList.sharedArrayNum);
+    Assert.assertEquals(size, deletedList.size());
+    Assert.assertEquals(2, deletedList.getTime(1));
+    deletedList.clear();
+    cloneList.clear();
+
+    // the original list is never changed by its clones
+    Assert.assertEquals(size, tvList.size());
+    for (int i = 0; i < tvList.size(); i++) {
+      Assert.assertEquals(i, tvList.getTime(i));
+      Assert.assertEquals(i, tvList.getLong(i));
+    }
+  }
+
+  @Test
+  public void testQuerySnapshotsAreUnchanged() {
+    Random random = new Random(0);
+    TVList list = new LongTVList();
+    List<TVList> snapshots = new ArrayList<>();
+    List<long[]> snapshotTimes = new ArrayList<>();
+    long time = 0;
+    for (int round = 0; round < 10; round++) {
+      // in-order points, and a few delayed into the arrays the earlier snapshots read
+      for (int i = 0; i < ARRAY_SIZE; i++) {
+        list.putLong(time, time);
+        time++;
+      }
+      for (int i = 0; i < 3; i++) {
+        long delayedTime = Math.max(0, time - 1 - random.nextInt(ARRAY_SIZE * 2));
+        list.putLong(delayedTime, delayedTime);
+      }
+      // as WritableMemChunk does, a list held by queries is cloned before it is sorted
+      if (list.getReferenceCount() > 0 && !list.isSorted()) {
+        list = list.lazyClone();
+      }
+      list.sort();
+      // a query takes a snapshot
+      list.increaseReferenceCount();
+      snapshots.add(list);
+      long[] times = new long[list.size()];
+      for (int i = 0; i < times.length; i++) {
+        times[i] = list.getTime(i);
+      }
+      snapshotTimes.add(times);
+
+      for (int i = 0; i < snapshots.size(); i++) {
+        checkSnapshot(snapshots.get(i), snapshotTimes.get(i));
+      }
+    }
+  }
+
+  private void checkSnapshot(TVList snapshot, long[] times) {
+    for (int i = 0; i < times.length; i++) {
+      if (i > 0) {
+        Assert.assertTrue(times[i] >= times[i - 1]);
+      }
+      Assert.assertEquals(times[i], snapshot.getTime(i));
+      Assert.assertEquals(times[i], snapshot.getLong(i));
+    }
+  }
 }
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.OffHeapArrayManager;
+import org.apache.iotdb.db.rescon.SystemInfo;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsDouble;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
+public class OffHeapTVListTest {
+
+  @Test
+  public void testOffHeapLongTVList() {
+    TVList tvList = TVList.newOffHeapList(TSDataType.INT64);
+    for (long i = 1000; i >= 0; i--) {
+      tvList.putLong(i, i);
+    }
+    Assert.assertFalse(tvList.isSorted());
+    tvList.sort();
+    for (int i = 0; i < tvList.size(); i++) {
+      Assert.assertEquals(i, tvList.getLong(i));
+      Assert.assertEquals(i, tvList.getTime(i));
+    }
+    tvList.clear();
+  }
+
+  @Test
+  public void testOffHeapIntTVLists() {
+    TVList tvList = TVList.newOffHeapList(TSDataType.INT32);
+    long[] times = new long[1001];
+    int[] values = new int[1001];
+    for (int i = 0; i <= 1000; i++) {
+      times[i] = 1000 - i;
+      values[i] = -(1000 - i);
+    }
+    tvList.putInts(times, values, 0, 1001);
+    tvList.sort();
+    for (int i = 0; i < tvList.size(); i++) {
+      Assert.assertEquals(-i, tvList.getInt(i));
+      Assert.assertEquals(i, tvList.getTime(i));
+    }
+    tvList.clear();
+  }
+
+  @Test
+  public void testOffHeapDoubleTVList() {
+    Random random = new Random();
+    TVList tvList = TVList.newOffHeapList(TSDataType.DOUBLE);
+    List<TimeValuePair> inputs = new ArrayList<>();
+    for (long i = 0; i < 10000; i++) {
+      long time = random.nextInt(10000);
+      double value = random.nextDouble();
+      tvList.putDouble(time, value);
+      inputs.add(new TimeValuePair(time, new TsDouble(value)));
+    }
+    tvList.sort();
+    inputs.sort(TimeValuePair::compareTo);
+    for (int i = 0; i < tvList.size(); i++) {
+      Assert.assertEquals(inputs.get(i).getTimestamp(), tvList.getTime(i));
+      Assert.assertEquals(inputs.get(i).getValue().getDouble(), tvList.getDouble(i), 0);
+    }
+    tvList.clear();
+  }
+
+  @Test
+  public void testOffHeapFloatTVListCloneAndDelete() {
+    TVList tvList = TVList.newOffHeapList(TSDataType.FLOAT);
+    for (long i = 0; i < 1000; i++) {
+      tvList.putFloat(i, i + 0.5f);
+    }
+    TVList cloneList = tvList.clone();
+    Assert.assertEquals(TSDataType.FLOAT, cloneList.getDataType());
+    Assert.assertEquals(500, tvList.delete(0, 499));
+    Assert.assertEquals(500, tvList.size());
+    Assert.assertEquals(500, tvList.getMinTime());
+    for (int i = 0; i < tvList.size(); i++) {
+      Assert.assertEquals(i + 500, tvList.getTime(i));
+      Assert.assertEquals(i + 500.5f, tvList.getFloat(i), 0);
+    }
+    Assert.assertEquals(1000, cloneList.size());
+    for (int i = 0; i < cloneList.size(); i++) {
+      Assert.assertEquals(i, cloneList.getTime(i));
+      Assert.assertEquals(i + 0.5f, cloneList.getFloat(i), 0);
+    }
+    tvList.clear();
+    cloneList.clear();
+  }
+
+  @Test
+  public void testOffHeapMemoryIsReleased() {
+    long costBefore = SystemInfo.getInstance().getOffHeapMemTableCost();
+    TVList tvList = TVList.newOffHeapList(TSDataType.INT64);
+    for (long i = 0; i < 1000; i++) {
+      tvList.putLong(i, i);
+    }
+    Assert.assertTrue(SystemInfo.getInstance().getOffHeapMemTableCost() > costBefore);
+    tvList.clear();
+    Assert.assertEquals(costBefore, SystemInfo.getInstance().getOffHeapMemTableCost());
+  }
+
+  @Test
+  public void testOffHeapLazyClone() {
+    long costBefore = SystemInfo.getInstance().getOffHeapMemTableCost();
+    TVList tvList = TVList.newOffHeapList(TSDataType.DOUBLE);
+    for (int i = 0; i < 1000; i++) {
+      tvList.putDouble(i, i + 0.5);
+    }
+    TVList cloneList = tvList.lazyClone();
+    for (int i = 1000; i < 1100; i++) {
+      cloneList.putDouble(i - 100, -1);
+    }
+    cloneList.sort();
+    Assert.assertEquals(1100, cloneList.size());
+    for (int i = 0; i < cloneList.size(); i++) {
+      Assert.assertEquals(i < 900 ? i : 900 + (i - 900) / 2, cloneList.getTime(i));
+    }
+    cloneList.clear();
+    // the clone accounts for all the arrays, including those it shared or replaced by copies
+    Assert.assertEquals(costBefore, SystemInfo.getInstance().getOffHeapMemTableCost());
+
+    // the arrays shared with the clone are still held by the original list, which is held by
+    // queries and never cleared
+    Assert.assertEquals(1000, tvList.size());
+    for (int i = 0; i < tvList.size(); i++) {
+      Assert.assertEquals(i, tvList.getTime(i));
+      Assert.assertEquals(i + 0.5, tvList.getDouble(i), 0);
+    }
+  }
+
+  @Test
+  public void testOffHeapArraysOfQueriedListAreDiscarded() {
+    long costBefore = SystemInfo.getInstance().getOffHeapMemTableCost();
+    long allocatedBefore = OffHeapArrayManager.getAllocatedBytes();
+    TVList tvList = TVList.newOffHeapList(TSDataType.INT32);
+    for (int i = 0; i < 1000; i++) {
+      tvList.putInt(i, i);
+    }
+    // the memtable is released while a query holds the list
+    tvList.increaseReferenceCount();
+    tvList.discardArrays();
+    Assert.assertEquals(costBefore, SystemInfo.getInstance().getOffHeapMemTableCost());
+    Assert.assertTrue(OffHeapArrayManager.getAllocatedBytes() <= allocatedBefore);
+    for (int i = 0; i < tvList.size(); i++) {
+      Assert.assertEquals(i, tvList.getInt(i));
+    }
+  }
+
+  @Test
+  public void testOffHeapQuerySnapshotIsUnchanged() {
+    Random random = new Random(0);
+    long costBefore = SystemInfo.getInstance().getOffHeapMemTableCost();
+    TVList list = TVList.newOffHeapList(TSDataType.INT64);
+    long time = 0;
+    for (int i = 0; i < ARRAY_SIZE * 3; i++) {
+      list.putLong(time, time);
+      time++;
+    }
+    // a query takes a snapshot
+    list.sort();
+    list.increaseReferenceCount();
+    TVList snapshot = list;
+    int snapshotSize = snapshot.size();
+
+    for (int round = 0; round < 10; round++) {
+      // in-order points, and a few delayed into the arrays the snapshot reads
+      for (int i = 0; i < ARRAY_SIZE; i++) {
+        list.putLong(time, time);
+        time++;
+      }
+      for (int i = 0; i < 3; i++) {
+        long delayedTime = random.nextInt(snapshotSize);
+        list.putLong(delayedTime, -delayedTime);
+      }
+      // as WritableMemChunk does, a list held by queries is cloned before it is sorted
+      if (list.getReferenceCount() > 0 && !list.isSorted()) {
+        list = list.lazyClone();
+      }
+      list.sort();
+      checkSnapshot(snapshot, snapshotSize);
+    }
+
+    // another query takes a snapshot of the latest list, and the memtable is released meanwhile
+    list.increaseReferenceCount();
+    TVList latestSnapshot = list;
+    long[] latestTimes = new long[latestSnapshot.size()];
+    long[] latestValues = new long[latestSnapshot.size()];
+    for (int i = 0; i < latestTimes.length; i++) {
+      latestTimes[i] = latestSnapshot.getTime(i);
+      latestValues[i] = latestSnapshot.getLong(i);
+    }
+    latestSnapshot.discardArrays();
+    Assert.assertEquals(costBefore, SystemInfo.getInstance().getOffHeapMemTableCost());
+
+    // the arrays in the pool are reused and overwritten, but none of them is read by the snapshots
+    TVList newList = TVList.newOffHeapList(TSDataType.INT64);
+    for (int i = 0; i < ARRAY_SIZE * 20; i++) {
+      newList.putLong(-1, -1);
+    }
+    checkSnapshot(snapshot, snapshotSize);
+    for (int i = 0; i < latestTimes.length; i++) {
+      Assert.assertEquals(latestTimes[i], latestSnapshot.getTime(i));
+      Assert.assertEquals(latestValues[i], latestSnapshot.getLong(i));
+    }
+    newList.clear();
+  }
+
+  private void checkSnapshot(TVList snapshot, int snapshotSize) {
+    for (int i = 0; i < snapshotSize; i++) {
+      Assert.assertEquals(i, snapshot.getTime(i));
+      Assert.assertEquals(i, snapshot.getLong(i));
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memtable sorting benchmark. Sorts a LongTVList of points that mostly arrive in order, except that
+ * a ratio of them are delayed by up to 'maxDelay' and written in bursts, as devices that reconnect
+ * send the points they buffered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TVListSortBenchmark {
+
+  private static final int BURST_SIZE = 32;
+
+  @Param({"100000"})
+  private int size;
+
+  @Param({"0", "0.001", "0.01", "0.1"})
+  private double disorderRatio;
+
+  @Param({"1000"})
+  private long maxDelay;
+
+  private TVList source;
+  private TVList tvList;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(0);
+    source = new LongTVList();
+    long time = maxDelay;
+    int numOfBursts = (int) (size * disorderRatio / BURST_SIZE);
+    while (source.size() < size) {
+      if (numOfBursts > 0 && random.nextInt(size) < numOfBursts * BURST_SIZE) {
+        // a burst of delayed points, in order among themselves
+        long delayedTime = time - 1 - random.nextInt((int) maxDelay);
+        for (int i = 0; i < BURST_SIZE && source.size() < size; i++) {
+          source.putLong(delayedTime, delayedTime);
+          delayedTime += random.nextInt(2);
+        }
+      } else {
+        source.putLong(time, time);
+        time += 1 + random.nextInt(2);
+      }
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void cloneList() {
+    tvList = source.clone();
+  }
+
+  @TearDown(Level.Invocation)
+  public void clearList() {
+    tvList.clear();
+  }
+
+  @Benchmark
+  public TVList sort() {
+    tvList.sort();
+    return tvList;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(TVListSortBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.db.utils.MmapUtil;
 import org.apache.iotdb.db.writelog.io.ILogReader;
+import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
 import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -43,6 +44,9 @@ import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
@@ -321,4 +325,157 @@ public class WriteLogNodeTest {
       MmapUtil.clean((MappedByteBuffer) byteBuffer);
     }
   }
+
+  @Test
+  public void testGroupCommit() throws Exception {
+    // this test writes logs from several threads with group commit enabled, every log must be
+    // readable from the file once its write returns
+    boolean enableWalGroupCommit = config.isEnableWalGroupCommit();
+    config.setEnableWalGroupCommit(true);
+    String identifier = "root.logTestDevice.groupCommit";
+    int threadNum = 4;
+    int logNumPerThread = 50;
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    try {
+      ByteBuffer[] byteBuffers = new ByteBuffer[2];
+      byteBuffers[0] = ByteBuffer.allocateDirect(config.getWalBufferSize() / 2);
+      byteBuffers[1] = ByteBuffer.allocateDirect(config.getWalBufferSize() / 2);
+      WriteLogNode logNode = new ExclusiveWriteLogNode(identifier);
+      logNode.initBuffer(byteBuffers);
+      long groupCommitNum = MultiFileLogNodeManager.getInstance().getGroupCommitNum();
+
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threadNum; i++) {
+        int startTime = i * logNumPerThread;
+        futures.add(
+            pool.submit(
+                () -> {
+                  for (int j = startTime; j < startTime + logNumPerThread; j++) {
+                    logNode.write(
+                        new InsertRowPlan(
+                            new PartialPath(identifier),
+                            j,
+                            new String[] {"s1"},
+                            new TSDataType[] {TSDataType.INT64},
+                            new String[] {String.valueOf(j)}));
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+
+      ILogReader reader = logNode.getLogReader();
+      int logNum = 0;
+      while (reader.hasNext()) {
+        reader.next();
+        logNum++;
+      }
+      reader.close();
+      assertEquals(threadNum * logNumPerThread, logNum);
+      assertTrue(MultiFileLogNodeManager.getInstance().getGroupCommitNum() > groupCommitNum);
+
+      ByteBuffer[] array = logNode.delete();
+      for (ByteBuffer byteBuffer : array) {
+        MmapUtil.clean((MappedByteBuffer) byteBuffer);
+      }
+    } finally {
+      pool.shutdown();
+      config.setEnableWalGroupCommit(enableWalGroupCommit);
+    }
+  }
+
+  @Test
+  public void testGroupCommitAppend() throws Exception {
+    // the logs appended without waiting are readable once the last of them is committed
+    boolean enableWalGroupCommit = config.isEnableWalGroupCommit();
+    config.setEnableWalGroupCommit(true);
+    String identifier = "root.logTestDevice.groupCommitAppend";
+    try {
+      ByteBuffer[] byteBuffers = new ByteBuffer[2];
+      byteBuffers[0] = ByteBuffer.allocateDirect(config.getWalBufferSize() / 2);
+      byteBuffers[1] = ByteBuffer.allocateDirect(config.getWalBufferSize() / 2);
+      WriteLogNode logNode = new ExclusiveWriteLogNode(identifier);
+      logNode.initBuffer(byteBuffers);
+
+      long lastLogSeq = 0;
+      for (int i = 0; i < 10; i++) {
+        long logSeq =
+            logNode.append(
+                new InsertRowPlan(
+                    new PartialPath(identifier),
+                    i,
+                    new String[] {"s1"},
+                    new TSDataType[] {TSDataType.INT64},
+                    new String[] {String.valueOf(i)}));
+        assertTrue(logSeq > lastLogSeq);
+        lastLogSeq = logSeq;
+      }
+      logNode.waitForCommit(lastLogSeq);
+
+      ILogReader reader = logNode.getLogReader();
+      int logNum = 0;
+      while (reader.hasNext()) {
+        reader.next();
+        logNum++;
+      }
+      reader.close();
+      assertEquals(10, logNum);
+
+      ByteBuffer[] array = logNode.delete();
+      for (ByteBuffer byteBuffer : array) {
+        MmapUtil.clean((MappedByteBuffer) byteBuffer);
+      }
+    } finally {
+      config.setEnableWalGroupCommit(enableWalGroupCommit);
+    }
+  }
+
+  @Test
+  public void testGroupCommitBeforeDelete() throws Exception {
+    // the writers waiting for the logs forced by the close of a delete are acknowledged, although
+    // the node is marked deleted right after
+    boolean enableWalGroupCommit = config.isEnableWalGroupCommit();
+    config.setEnableWalGroupCommit(true);
+    String identifier = "root.logTestDevice.groupCommitBeforeDelete";
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      for (int round = 0; round < 20; round++) {
+        ByteBuffer[] byteBuffers = new ByteBuffer[2];
+        byteBuffers[0] = ByteBuffer.allocateDirect(config.getWalBufferSize() / 2);
+        byteBuffers[1] = ByteBuffer.allocateDirect(config.getWalBufferSize() / 2);
+        WriteLogNode logNode = new ExclusiveWriteLogNode(identifier);
+        logNode.initBuffer(byteBuffers);
+
+        long lastLogSeq = 0;
+        for (int i = 0; i < 10; i++) {
+          lastLogSeq =
+              logNode.append(
+                  new InsertRowPlan(
+                      new PartialPath(identifier),
+                      i,
+                      new String[] {"s1"},
+                      new TSDataType[] {TSDataType.INT64},
+                      new String[] {String.valueOf(i)}));
+        }
+        long logSeq = lastLogSeq;
+        Future<?> waiter =
+            pool.submit(
+                () -> {
+                  logNode.waitForCommit(logSeq);
+                  return null;
+                });
+        ByteBuffer[] array = logNode.delete();
+        waiter.get();
+        logNode.waitForCommit(lastLogSeq);
+        for (ByteBuffer byteBuffer : array) {
+          MmapUtil.clean((MappedByteBuffer) byteBuffer);
+        }
+      }
+    } finally {
+      pool.shutdown();
+      config.setEnableWalGroupCommit(enableWalGroupCommit);
+    }
+  }
 }
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.PartialPath;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NodeIdDictionaryTest {
+
+  @Test
+  public void testSerializeWithNodeIds() throws IOException, IllegalPathException {
+    NodeIdDictionary writerDictionary = new NodeIdDictionary();
+    ByteBuffer buffer = ByteBuffer.allocate(4096);
+    List<PhysicalPlan> plans = new ArrayList<>();
+
+    InsertRowPlan firstPlan = createPlan("root.sg.d1", 10, "s1", "s2");
+    assertTrue(writerDictionary.serialize(firstPlan, buffer));
+    int firstSize = buffer.position();
+    plans.add(firstPlan);
+
+    // the ids are defined only once
+    InsertRowPlan secondPlan = createPlan("root.sg.d1", 20, "s2", "s1");
+    assertTrue(writerDictionary.serialize(secondPlan, buffer));
+    assertTrue(buffer.position() - firstSize < firstSize);
+    plans.add(secondPlan);
+
+    // the ids of the measurements are shared by the devices
+    int secondEnd = buffer.position();
+    InsertRowPlan otherDevicePlan = createPlan("root.sg.d2", 20, "s1", "s2");
+    assertTrue(writerDictionary.serialize(otherDevicePlan, buffer));
+    assertTrue(buffer.position() - secondEnd < firstSize);
+    plans.add(otherDevicePlan);
+
+    // the plans other than the InsertRowPlans of non-aligned series are serialized by themselves
+    DeletePlan deletePlan = new DeletePlan(Long.MIN_VALUE, 10L, new PartialPath("root.sg.d1.s1"));
+    assertFalse(writerDictionary.serialize(deletePlan, buffer));
+    deletePlan.serialize(buffer);
+    plans.add(deletePlan);
+    InsertRowPlan alignedPlan = createPlan("root.sg.d3", 30, "s1");
+    alignedPlan.setAligned(true);
+    assertFalse(writerDictionary.serialize(alignedPlan, buffer));
+
+    InsertRowPlan failedPlan = createPlan("root.sg.d1", 40, "s1", "s2");
+    failedPlan.markFailedMeasurementInsertion(0, new Exception());
+    assertTrue(writerDictionary.serialize(failedPlan, buffer));
+
+    buffer.flip();
+    NodeIdDictionary readerDictionary = new NodeIdDictionary();
+    List<PhysicalPlan> readPlans = new ArrayList<>();
+    while (buffer.hasRemaining()) {
+      PhysicalPlan plan = readerDictionary.read(buffer);
+      if (plan != null) {
+        readPlans.add(plan);
+      }
+    }
+    assertEquals(plans, readPlans.subList(0, plans.size()));
+    InsertRowPlan readFailedPlan = (InsertRowPlan) readPlans.get(plans.size());
+    assertEquals(Arrays.asList("s2"), Arrays.asList(readFailedPlan.getMeasurements()));
+    assertEquals(Arrays.asList(null, 2L), Arrays.asList(readFailedPlan.getValues()));
+  }
+
+  @Test
+  public void testClear() throws IOException, IllegalPathException {
+    NodeIdDictionary writerDictionary = new NodeIdDictionary();
+    ByteBuffer buffer = ByteBuffer.allocate(4096);
+    writerDictionary.serialize(createPlan("root.sg.d1", 10, "s1"), buffer);
+
+    // the log referring to the ids defined in another file cannot be read
+    buffer.clear();
+    writerDictionary.serialize(createPlan("root.sg.d1", 20, "s1"), buffer);
+    buffer.flip();
+    try {
+      new NodeIdDictionary().read(buffer);
+      fail("The ids should not be defined");
+    } catch (IOException e) {
+      // expected
+    }
+
+    // the ids are defined again in the next file
+    writerDictionary.clear();
+    buffer.clear();
+    InsertRowPlan plan = createPlan("root.sg.d1", 30, "s1");
+    writerDictionary.serialize(plan, buffer);
+    buffer.flip();
+    NodeIdDictionary readerDictionary = new NodeIdDictionary();
+    assertNull(readerDictionary.read(buffer));
+    assertNull(readerDictionary.read(buffer));
+    assertEquals(plan, readerDictionary.read(buffer));
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  public void testBufferOverflow() throws IOException, IllegalPathException {
+    NodeIdDictionary writerDictionary = new NodeIdDictionary();
+    ByteBuffer buffer = ByteBuffer.allocate(16);
+    try {
+      writerDictionary.serialize(createPlan("root.sg.d1", 10, "s1"), buffer);
+      fail("The buffer should overflow");
+    } catch (BufferOverflowException e) {
+      // expected
+    }
+
+    // the ids are defined again when the log is put into a new buffer
+    buffer = ByteBuffer.allocate(4096);
+    InsertRowPlan plan = createPlan("root.sg.d1", 10, "s1");
+    assertTrue(writerDictionary.serialize(plan, buffer));
+    buffer.flip();
+    NodeIdDictionary readerDictionary = new NodeIdDictionary();
+    assertNull(readerDictionary.read(buffer));
+    assertNull(readerDictionary.read(buffer));
+    assertEquals(plan, readerDictionary.read(buffer));
+    assertFalse(buffer.hasRemaining());
+  }
+
+  private InsertRowPlan createPlan(String device, long time, String... measurements)
+      throws IllegalPathException {
+    TSDataType[] dataTypes = new TSDataType[measurements.length];
+    String[] values = new String[measurements.length];
+    for (int i = 0; i < measurements.length; i++) {
+      dataTypes[i] = TSDataType.INT64;
+      values[i] = String.valueOf(i + 1);
+    }
+    return new InsertRowPlan(new PartialPath(device), time, measurements, dataTypes, values);
+  }
+}
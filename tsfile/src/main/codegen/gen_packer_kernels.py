@@ -0,0 +1,281 @@
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+#
+#     http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing,
+# software distributed under the License is distributed on an
+# "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+# KIND, either express or implied.  See the License for the
+# specific language governing permissions and limitations
+# under the License.
+#
+
+# Generates IntPackerKernels.java and LongPackerKernels.java, which pack and unpack 8 values of
+# each bit-width with straight-line code. Run it from any directory after changing it:
+#
+#     python3 tsfile/src/main/codegen/gen_packer_kernels.py
+
+import os
+import textwrap
+
+LICENSE = """/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+"""
+
+OUTPUT_DIR = os.path.join(
+    os.path.dirname(os.path.abspath(__file__)),
+    "..",
+    "java",
+    "org",
+    "apache",
+    "iotdb",
+    "tsfile",
+    "encoding",
+    "bitpacking",
+)
+
+MAX_LINE_LENGTH = 100
+NUM_OF_VALUES = 8
+
+
+def assign(lhs, terms, indent, cast=None):
+    """Formats 'lhs = terms[0] | terms[1] | ...;' the way google-java-format does."""
+    if len(terms) == 1:
+        expr = terms[0]
+        if cast is not None:
+            expr = "%s %s" % (cast, "(%s)" % expr if " " in expr else expr)
+    else:
+        terms = ["(%s)" % t if " " in t else t for t in terms]
+        expr = " | ".join(terms)
+        if cast is not None:
+            expr = "%s (%s)" % (cast, expr)
+    pad = " " * indent
+    line = "%s%s = %s;" % (pad, lhs, expr)
+    if len(line) <= MAX_LINE_LENGTH:
+        return [line]
+    if len(pad) + 4 + len(expr) + 1 <= MAX_LINE_LENGTH:
+        return ["%s%s =" % (pad, lhs), "%s    %s;" % (pad, expr)]
+    lines = ["%s%s =" % (pad, lhs)]
+    if cast is None:
+        lines.append("%s    %s" % (pad, terms[0]))
+        lines += ["%s        | %s" % (pad, t) for t in terms[1:]]
+        lines[-1] += ";"
+    else:
+        # the operands of a cast expression are filled into lines rather than one per line
+        lines.append("%s    %s" % (pad, cast))
+        line = "%s        (%s" % (pad, terms[0])
+        for t in terms[1:]:
+            if len(line) + len(" | ") + len(t) + len(");") > MAX_LINE_LENGTH:
+                lines.append(line)
+                line = "%s            | %s" % (pad, t)
+            else:
+                line += " | " + t
+        lines.append(line + ");")
+    return lines
+
+
+def javadoc(text):
+    """Opens a class javadoc with a paragraph filled the way google-java-format does."""
+    return ["/**"] + textwrap.wrap(
+        text,
+        MAX_LINE_LENGTH,
+        initial_indent=" * ",
+        subsequent_indent=" * ",
+        break_on_hyphens=False,
+        break_long_words=False,
+    )
+
+
+def signature(prefix, params):
+    """Formats a method declaration the way google-java-format does."""
+    line = "  %s(%s) {" % (prefix, params)
+    if len(line) <= MAX_LINE_LENGTH:
+        return [line]
+    return ["  %s(" % prefix, "      %s) {" % params]
+
+
+def index(name, i):
+    return name if i == 0 else "%s + %d" % (name, i)
+
+
+def unpack_terms(j, width):
+    """The terms that assemble the j-th value from the bytes b0, b1, ... of its 8 values."""
+    start = j * width
+    end = start + width
+    terms = []
+    for k in range(start // 8, (end - 1) // 8 + 1):
+        low = max(start, 8 * k) - 8 * k
+        high = min(end, 8 * k + 8) - 8 * k
+        term = "b%d" % k
+        if high < 8:
+            term = "%s >>> %d" % (term, 8 - high)
+        if low > 0:
+            term = "%s & 0x%X" % ("(%s)" % term if " " in term else term, (1 << (high - low)) - 1)
+        left_shift = end - (8 * k + high)
+        if left_shift > 0:
+            term = "%s << %d" % ("(%s)" % term if " " in term else term, left_shift)
+        terms.append(term)
+    return terms
+
+
+def pack_terms(k, width):
+    """The terms that assemble the k-th byte from the 8 values v0, v1, ... ."""
+    terms = []
+    for j in range(NUM_OF_VALUES):
+        start = j * width
+        end = start + width
+        if end <= 8 * k or start >= 8 * k + 8:
+            continue
+        high = min(end, 8 * k + 8)
+        term = "v%d" % j
+        if end > high:
+            term = "%s >>> %d" % (term, end - high)
+        elif high < 8 * k + 8:
+            term = "%s << %d" % (term, 8 * k + 8 - high)
+        terms.append(term)
+    return terms
+
+
+def generate(class_name, packer_name, value_type, max_width):
+    out = [LICENSE + "package org.apache.iotdb.tsfile.encoding.bitpacking;", ""]
+    out += ["import java.util.Arrays;", ""]
+    out += javadoc(
+        "Packs and unpacks 8 %ss of each bit-width in the layout of {@link %s}, with "
+        "straight-line code instead of loops over the bits, so that the JIT compiles every "
+        "bit-width to a few shifts and masks per value."
+        % ("Integer" if value_type == "int" else "Long", packer_name)
+    )
+    out += [
+        " *",
+        " * <p>This class is generated by tsfile/src/main/codegen/gen_packer_kernels.py, do not"
+        " edit it.",
+        " */",
+        "public class %s {" % class_name,
+        "",
+        "  private %s() {" % class_name,
+        "    // util class",
+        "  }",
+        "",
+    ]
+
+    out += [
+        "  /**",
+        "   * Encode 8 values of the array 'values' with specified bit-width to 'width' bytes.",
+        "   *",
+        "   * @param width bit-width, which every value must fit in",
+        "   * @param values array where the 8 values are in",
+        "   * @param offset the offset of the first value to be encoded",
+        "   * @param buf array where the encoded bytes are written",
+        "   * @param bufOffset the offset of the first encoded byte in buf",
+        "   */",
+    ]
+    out += signature(
+        "public static void pack8Values",
+        "int width, %s[] values, int offset, byte[] buf, int bufOffset" % value_type,
+    )
+    out += [
+        "    switch (width) {",
+        "      case 0:",
+        "        break;",
+    ]
+    for width in range(1, max_width + 1):
+        out += [
+            "      case %d:" % width,
+            "        pack8Values%d(values, offset, buf, bufOffset);" % width,
+            "        break;",
+        ]
+    out += [
+        "      default:",
+        "        throw new IllegalArgumentException(\"Invalid bit-width: \" + width);",
+        "    }",
+        "  }",
+        "",
+        "  /**",
+        "   * Decode 8 values of specified bit-width from 'width' bytes of 'buf'.",
+        "   *",
+        "   * @param width bit-width",
+        "   * @param buf array where the encoded bytes are in",
+        "   * @param offset the offset of the first byte to be decoded",
+        "   * @param values array where the 8 decoded values are written",
+        "   * @param valuesOffset the offset of the first decoded value in values",
+        "   */",
+    ]
+    out += signature(
+        "public static void unpack8Values",
+        "int width, byte[] buf, int offset, %s[] values, int valuesOffset" % value_type,
+    )
+    out += [
+        "    switch (width) {",
+        "      case 0:",
+        "        Arrays.fill(values, valuesOffset, valuesOffset + %d, 0);" % NUM_OF_VALUES,
+        "        break;",
+    ]
+    for width in range(1, max_width + 1):
+        out += [
+            "      case %d:" % width,
+            "        unpack8Values%d(buf, offset, values, valuesOffset);" % width,
+            "        break;",
+        ]
+    out += [
+        "      default:",
+        "        throw new IllegalArgumentException(\"Invalid bit-width: \" + width);",
+        "    }",
+        "  }",
+    ]
+
+    for width in range(1, max_width + 1):
+        out.append("")
+        out += signature(
+            "private static void pack8Values%d" % width,
+            "%s[] values, int offset, byte[] buf, int bufOffset" % value_type,
+        )
+        for j in range(NUM_OF_VALUES):
+            out.append("    %s v%d = values[%s];" % (value_type, j, index("offset", j)))
+        for k in range(width):
+            out += assign("buf[%s]" % index("bufOffset", k), pack_terms(k, width), 4, "(byte)")
+        out.append("  }")
+
+        out.append("")
+        out += signature(
+            "private static void unpack8Values%d" % width,
+            "byte[] buf, int offset, %s[] values, int valuesOffset" % value_type,
+        )
+        for k in range(width):
+            out.append("    %s b%d = buf[%s] & 0xFF;" % (value_type, k, index("offset", k)))
+        for j in range(NUM_OF_VALUES):
+            out += assign("values[%s]" % index("valuesOffset", j), unpack_terms(j, width), 4)
+        out.append("  }")
+
+    out += ["}", ""]
+    for line in out:
+        for physical in line.split("\n"):
+            assert len(physical) <= MAX_LINE_LENGTH, physical
+    with open(os.path.join(OUTPUT_DIR, class_name + ".java"), "w") as f:
+        f.write("\n".join(out))
+
+
+if __name__ == "__main__":
+    generate("IntPackerKernels", "IntPacker", "int", 32)
+    generate("LongPackerKernels", "LongPacker", "long", 64)
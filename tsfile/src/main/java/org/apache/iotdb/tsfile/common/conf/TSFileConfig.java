@@ -106,8 +106,20 @@ public class TSFileConfig implements Serializable {
   private double sdtMaxError = 100;
   /** Default DFT satisfy rate is 0.1 */
   private double dftSatisfyRate = 0.1;
-  /** Data compression method, TsFile supports UNCOMPRESSED, SNAPPY or LZ4. */
+  /**
+   * What the encoding of a chunk of an AUTO encoded series is selected for, SIZE selects the
+   * smallest encoding and DECODE_SPEED trades size for faster decoding.
+   */
+  private String autoEncodingPreference = "SIZE";
+  /** Data compression method, TsFile supports UNCOMPRESSED, SNAPPY, GZIP, LZ4 or ZSTD. */
   private CompressionType compressor = CompressionType.SNAPPY;
+  /** Compression level of ZSTD, a higher level trades compression speed for ratio. */
+  private int zstdCompressionLevel = 3;
+  /**
+   * Path of a dictionary trained by ZSTD for the pages of the data set. Pages are compressed
+   * without a dictionary if it is empty.
+   */
+  private String zstdDictionaryPath = "";
   /** Line count threshold for checking page memory occupied size. */
   private int pageCheckSizeThreshold = 100;
   /** Default endian value is BIG_ENDIAN. */
@@ -275,6 +287,14 @@ public class TSFileConfig implements Serializable {
     this.dftSatisfyRate = dftSatisfyRate;
   }
 
+  public String getAutoEncodingPreference() {
+    return autoEncodingPreference;
+  }
+
+  public void setAutoEncodingPreference(String autoEncodingPreference) {
+    this.autoEncodingPreference = autoEncodingPreference;
+  }
+
   public CompressionType getCompressor() {
     return compressor;
   }
@@ -283,6 +303,22 @@ public class TSFileConfig implements Serializable {
     this.compressor = CompressionType.valueOf(compressor);
   }
 
+  public int getZstdCompressionLevel() {
+    return zstdCompressionLevel;
+  }
+
+  public void setZstdCompressionLevel(int zstdCompressionLevel) {
+    this.zstdCompressionLevel = zstdCompressionLevel;
+  }
+
+  public String getZstdDictionaryPath() {
+    return zstdDictionaryPath;
+  }
+
+  public void setZstdDictionaryPath(String zstdDictionaryPath) {
+    this.zstdDictionaryPath = zstdDictionaryPath;
+  }
+
   public int getPageCheckSizeThreshold() {
     return pageCheckSizeThreshold;
   }
@@ -139,7 +139,15 @@ public class TSFileDescriptor {
                   "float_precision", Integer.toString(conf.getFloatPrecision()))));
       conf.setTimeEncoder(properties.getProperty("time_encoder", conf.getTimeEncoder()));
       conf.setValueEncoder(properties.getProperty("value_encoder", conf.getValueEncoder()));
+      conf.setAutoEncodingPreference(
+          properties.getProperty("auto_encoding_preference", conf.getAutoEncodingPreference()));
       conf.setCompressor(properties.getProperty("compressor", conf.getCompressor().toString()));
+      conf.setZstdCompressionLevel(
+          Integer.parseInt(
+              properties.getProperty(
+                  "zstd_compression_level", Integer.toString(conf.getZstdCompressionLevel()))));
+      conf.setZstdDictionaryPath(
+          properties.getProperty("zstd_dictionary_path", conf.getZstdDictionaryPath()));
       conf.setBatchSize(
           Integer.parseInt(
               properties.getProperty("batch_size", Integer.toString(conf.getBatchSize()))));
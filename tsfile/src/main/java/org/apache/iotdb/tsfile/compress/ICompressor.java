@@ -19,9 +19,12 @@
 
 package org.apache.iotdb.tsfile.compress;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import org.xerial.snappy.Snappy;
@@ -31,12 +34,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.GZIP;
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.LZ4;
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.SNAPPY;
+import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.ZSTD;
 
 /** compress data according to type in schema. */
 public interface ICompressor extends Serializable {
@@ -64,6 +69,8 @@ public interface ICompressor extends Serializable {
         return new IOTDBLZ4Compressor();
       case GZIP:
         return new GZIPCompressor();
+      case ZSTD:
+        return new ZSTDCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -175,8 +182,9 @@ public interface ICompressor extends Serializable {
 
     @Override
     public int compress(ByteBuffer data, ByteBuffer compressed) {
+      int startPosition = compressed.position();
       compressor.compress(data, compressed);
-      return data.limit();
+      return compressed.position() - startPosition;
     }
 
     @Override
@@ -257,4 +265,111 @@ public interface ICompressor extends Serializable {
       return GZIP;
     }
   }
+
+  /**
+   * ZSTD compresses better than SNAPPY and LZ4 at a comparable decompression speed, and its level
+   * trades compression speed for ratio. A dictionary trained over the pages of the data set, if
+   * configured, is used for every page.
+   */
+  class ZSTDCompressor implements ICompressor {
+
+    private final int level;
+    /** null if no dictionary is configured */
+    private final ZstdDictCompress dict;
+
+    public ZSTDCompressor() {
+      this(
+          TSFileDescriptor.getInstance().getConfig().getZstdCompressionLevel(),
+          ZSTDDictionary.getConfiguredDictionary());
+    }
+
+    public ZSTDCompressor(int level, ZSTDDictionary dictionary) {
+      this.level = level;
+      this.dict = dictionary == null ? null : dictionary.getCompressDict(level);
+    }
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+      if (data == null) {
+        return new byte[0];
+      }
+      byte[] compressed = new byte[getMaxBytesForCompression(data.length)];
+      int size = compress(data, 0, data.length, compressed, 0);
+      return Arrays.copyOf(compressed, size);
+    }
+
+    @Override
+    public int compress(byte[] data, int offset, int length, byte[] compressed) throws IOException {
+      return compress(data, offset, length, compressed, 0);
+    }
+
+    private int compress(byte[] data, int offset, int length, byte[] compressed, int outOffset)
+        throws IOException {
+      long result =
+          dict == null
+              ? Zstd.compressByteArray(
+                  compressed, outOffset, compressed.length - outOffset, data, offset, length, level)
+              : Zstd.compressFastDict(compressed, outOffset, data, offset, length, dict);
+      return ZSTDUtils.checkResult(result);
+    }
+
+    /**
+     * Buffers that are both direct or both backed by arrays are compressed without copying, the
+     * remaining bytes of data are consumed and the position of compressed is moved past the output.
+     */
+    @Override
+    public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      int length = data.remaining();
+      int size;
+      if (data.isDirect() && compressed.isDirect()) {
+        long result =
+            dict == null
+                ? Zstd.compressDirectByteBuffer(
+                    compressed,
+                    compressed.position(),
+                    compressed.remaining(),
+                    data,
+                    data.position(),
+                    length,
+                    level)
+                : Zstd.compressDirectByteBufferFastDict(
+                    compressed,
+                    compressed.position(),
+                    compressed.remaining(),
+                    data,
+                    data.position(),
+                    length,
+                    dict);
+        size = ZSTDUtils.checkResult(result);
+        compressed.position(compressed.position() + size);
+      } else if (data.hasArray() && compressed.hasArray()) {
+        size =
+            compress(
+                data.array(),
+                data.arrayOffset() + data.position(),
+                length,
+                compressed.array(),
+                compressed.arrayOffset() + compressed.position());
+        compressed.position(compressed.position() + size);
+      } else {
+        byte[] dataBefore = new byte[length];
+        data.duplicate().get(dataBefore);
+        byte[] res = compress(dataBefore);
+        compressed.put(res);
+        size = res.length;
+      }
+      data.position(data.limit());
+      return size;
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      return (int) Zstd.compressBound(uncompressedDataSize);
+    }
+
+    @Override
+    public CompressionType getType() {
+      return ZSTD;
+    }
+  }
 }
@@ -22,6 +22,8 @@ package org.apache.iotdb.tsfile.compress;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictDecompress;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4SafeDecompressor;
@@ -54,6 +56,8 @@ public interface IUnCompressor {
         return new LZ4UnCompressor();
       case GZIP:
         return new GZIPUnCompressor();
+      case ZSTD:
+        return new ZSTDUnCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -89,6 +93,32 @@ public interface IUnCompressor {
   int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
       throws IOException;
 
+  /**
+   * uncompress the next length bytes of the buffer and move its position past them. The bytes are
+   * read in place if the buffer is backed by an array, so a page is not copied out of its chunk.
+   *
+   * @param compressed the buffer the compressed bytes start at the position of
+   * @param length the number of compressed bytes
+   * @param output -output byte
+   * @return the valid length of the output array
+   */
+  default int uncompress(ByteBuffer compressed, int length, byte[] output) throws IOException {
+    if (compressed.hasArray()) {
+      int size =
+          uncompress(
+              compressed.array(),
+              compressed.arrayOffset() + compressed.position(),
+              length,
+              output,
+              0);
+      compressed.position(compressed.position() + length);
+      return size;
+    }
+    byte[] compressedBytes = new byte[length];
+    compressed.get(compressedBytes);
+    return uncompress(compressedBytes, 0, length, output, 0);
+  }
+
   /**
    * if the data is large, using this function is better.
    *
@@ -236,7 +266,7 @@ public interface IUnCompressor {
     public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
         throws IOException {
       try {
-        return decompressor.decompress(byteArray, offset, length, output, offset);
+        return decompressor.decompress(byteArray, offset, length, output, outOffset);
       } catch (RuntimeException e) {
         logger.error(UNCOMPRESS_INPUT_ERROR, e);
         throw new IOException(e);
@@ -250,8 +280,9 @@ public interface IUnCompressor {
       }
 
       try {
+        int startPosition = uncompressed.position();
         decompressor.decompress(compressed, uncompressed);
-        return compressed.limit();
+        return uncompressed.position() - startPosition;
       } catch (RuntimeException e) {
         logger.error(UNCOMPRESS_INPUT_ERROR, e);
         throw new IOException(e);
@@ -312,4 +343,120 @@ public interface IUnCompressor {
       return CompressionType.GZIP;
     }
   }
+
+  class ZSTDUnCompressor implements IUnCompressor {
+
+    /** null if no dictionary is configured */
+    private final ZSTDDictionary dictionary;
+
+    public ZSTDUnCompressor() {
+      this(ZSTDDictionary.getConfiguredDictionary());
+    }
+
+    public ZSTDUnCompressor(ZSTDDictionary dictionary) {
+      this.dictionary = dictionary;
+    }
+
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      return ZSTDUtils.getContentSize(ByteBuffer.wrap(array, offset, length));
+    }
+
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) throws IOException {
+      return ZSTDUtils.getContentSize(buffer);
+    }
+
+    @Override
+    public byte[] uncompress(byte[] byteArray) throws IOException {
+      if (byteArray == null) {
+        return new byte[0];
+      }
+      byte[] uncompressed = new byte[getUncompressedLength(byteArray, 0, byteArray.length)];
+      uncompress(byteArray, 0, byteArray.length, uncompressed, 0);
+      return uncompressed;
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      long dictId = ZSTDUtils.getDictId(ByteBuffer.wrap(byteArray, offset, length));
+      long result =
+          dictId == 0
+              ? Zstd.decompressByteArray(
+                  output, outOffset, output.length - outOffset, byteArray, offset, length)
+              : Zstd.decompressFastDict(
+                  output, outOffset, byteArray, offset, length, getDecompressDict(dictId));
+      return ZSTDUtils.checkResult(result);
+    }
+
+    /**
+     * Buffers that are both direct or both backed by arrays are uncompressed without copying, the
+     * remaining bytes of compressed are consumed and the position of uncompressed is moved past the
+     * output.
+     */
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed == null || !compressed.hasRemaining()) {
+        return 0;
+      }
+      int length = compressed.remaining();
+      int size;
+      if (compressed.isDirect() && uncompressed.isDirect()) {
+        long dictId = ZSTDUtils.getDictId(compressed);
+        long result =
+            dictId == 0
+                ? Zstd.decompressDirectByteBuffer(
+                    uncompressed,
+                    uncompressed.position(),
+                    uncompressed.remaining(),
+                    compressed,
+                    compressed.position(),
+                    length)
+                : Zstd.decompressDirectByteBufferFastDict(
+                    uncompressed,
+                    uncompressed.position(),
+                    uncompressed.remaining(),
+                    compressed,
+                    compressed.position(),
+                    length,
+                    getDecompressDict(dictId));
+        size = ZSTDUtils.checkResult(result);
+        uncompressed.position(uncompressed.position() + size);
+      } else if (compressed.hasArray() && uncompressed.hasArray()) {
+        size =
+            uncompress(
+                compressed.array(),
+                compressed.arrayOffset() + compressed.position(),
+                length,
+                uncompressed.array(),
+                uncompressed.arrayOffset() + uncompressed.position());
+        uncompressed.position(uncompressed.position() + size);
+      } else {
+        byte[] dataBefore = new byte[length];
+        compressed.duplicate().get(dataBefore);
+        byte[] res = uncompress(dataBefore);
+        uncompressed.put(res);
+        size = res.length;
+      }
+      compressed.position(compressed.limit());
+      return size;
+    }
+
+    private ZstdDictDecompress getDecompressDict(long dictId) throws IOException {
+      if (dictionary == null || dictionary.getId() != dictId) {
+        throw new IOException(
+            String.format(
+                "The data is compressed with the ZSTD dictionary %d, which is not configured by "
+                    + "zstd_dictionary_path",
+                dictId));
+      }
+      return dictionary.getDecompressDict();
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.ZSTD;
+    }
+  }
 }
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A dictionary trained by ZSTD over sample pages. A page holds a few KB of encoded points, which is
+ * too little for the compressor to learn the patterns of the data set, so priming it with a
+ * dictionary of these patterns improves the ratio of small pages considerably.
+ *
+ * <p>The id of the dictionary is recorded in every frame compressed with it, so a page can only be
+ * uncompressed when the same dictionary is configured.
+ */
+public class ZSTDDictionary {
+
+  private static final Logger logger = LoggerFactory.getLogger(ZSTDDictionary.class);
+
+  /** the dictionary loaded from zstd_dictionary_path, null if it is not configured */
+  private static volatile ZSTDDictionary configuredDictionary;
+  /** the path configuredDictionary is loaded from, it is written after configuredDictionary */
+  private static volatile String configuredPath = "";
+
+  private final byte[] content;
+  private final long id;
+  private final ZstdDictDecompress decompressDict;
+  /** digested dictionaries for compression, each of them is bound to a compression level */
+  private final Map<Integer, ZstdDictCompress> compressDicts = new ConcurrentHashMap<>();
+
+  /**
+   * @param content a dictionary trained by ZSTD, by {@link #train(List, int)} or by the zstd
+   *     command line tool
+   */
+  public ZSTDDictionary(byte[] content) {
+    this.id = Zstd.getDictIdFromDict(content);
+    if (id == 0) {
+      // frames compressed with a raw content dictionary can not be told from the others
+      throw new IllegalArgumentException("The content is not a dictionary trained by ZSTD");
+    }
+    this.content = content;
+    this.decompressDict = new ZstdDictDecompress(content);
+  }
+
+  /** @return the dictionary configured by zstd_dictionary_path, or null if there is none */
+  public static ZSTDDictionary getConfiguredDictionary() {
+    String path = TSFileDescriptor.getInstance().getConfig().getZstdDictionaryPath();
+    if (path == null || path.isEmpty()) {
+      return null;
+    }
+    if (!path.equals(configuredPath)) {
+      synchronized (ZSTDDictionary.class) {
+        if (!path.equals(configuredPath)) {
+          configuredDictionary = load(path);
+          configuredPath = path;
+        }
+      }
+    }
+    return configuredDictionary;
+  }
+
+  private static ZSTDDictionary load(String path) {
+    try {
+      ZSTDDictionary dictionary = new ZSTDDictionary(Files.readAllBytes(Paths.get(path)));
+      logger.info("Loaded the ZSTD dictionary {} from {}", dictionary.getId(), path);
+      return dictionary;
+    } catch (IOException | RuntimeException e) {
+      logger.error(
+          "Cannot load the ZSTD dictionary from {}, pages will be compressed without it", path, e);
+      return null;
+    }
+  }
+
+  /**
+   * Train a dictionary over sample pages, the samples should be uncompressed pages of the data set
+   * the dictionary is used for.
+   *
+   * @param samples uncompressed pages, their remaining bytes are used and they are not modified
+   * @param dictSize the maximum size of the dictionary, 16KB to 128KB usually works well
+   * @return the content of the dictionary
+   */
+  public static byte[] train(List<ByteBuffer> samples, int dictSize) {
+    int sampleSize = 0;
+    for (ByteBuffer sample : samples) {
+      sampleSize += sample.remaining();
+    }
+    ZstdDictTrainer trainer = new ZstdDictTrainer(sampleSize, dictSize);
+    for (ByteBuffer sample : samples) {
+      byte[] bytes = new byte[sample.remaining()];
+      sample.duplicate().get(bytes);
+      trainer.addSample(bytes);
+    }
+    return trainer.trainSamples();
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public byte[] getContent() {
+    return content;
+  }
+
+  ZstdDictCompress getCompressDict(int level) {
+    return compressDicts.computeIfAbsent(level, l -> new ZstdDictCompress(content, l));
+  }
+
+  ZstdDictDecompress getDecompressDict() {
+    return decompressDict;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/** Helpers shared by the ZSTD compressor and uncompressor. */
+class ZSTDUtils {
+
+  /** the magic number of a ZSTD frame, in little endian */
+  private static final int FRAME_MAGIC_NUMBER = 0xFD2FB528;
+  /** magic number and frame header descriptor */
+  private static final int FRAME_HEADER_MIN_SIZE = 5;
+
+  private static final int[] DICT_ID_SIZES = {0, 1, 2, 4};
+  private static final int[] CONTENT_SIZE_SIZES = {0, 2, 4, 8};
+
+  private ZSTDUtils() {}
+
+  /**
+   * Read the dictionary id from the header of a frame without uncompressing it. Unlike the helpers
+   * of zstd-jni, the frame may start anywhere in a heap or direct buffer.
+   *
+   * @param frame the frame starts at the position, which is not changed
+   * @return the id of the dictionary the frame is compressed with, or 0 if there is none
+   */
+  static long getDictId(ByteBuffer frame) {
+    int start = frame.position();
+    if (!hasFrameHeader(frame)) {
+      return 0;
+    }
+    int descriptor = frame.get(start + 4) & 0xFF;
+    boolean singleSegment = (descriptor & 0x20) != 0;
+    int dictIdOffset = start + FRAME_HEADER_MIN_SIZE + (singleSegment ? 0 : 1);
+    return readLittleEndian(frame, dictIdOffset, DICT_ID_SIZES[descriptor & 0x03]);
+  }
+
+  /**
+   * @param frame the frame starts at the position, which is not changed
+   * @return the uncompressed size recorded in the header of the frame
+   */
+  static int getContentSize(ByteBuffer frame) throws IOException {
+    int start = frame.position();
+    if (!hasFrameHeader(frame)) {
+      throw new IOException("The data is not a ZSTD frame");
+    }
+    int descriptor = frame.get(start + 4) & 0xFF;
+    boolean singleSegment = (descriptor & 0x20) != 0;
+    int contentSizeFlag = descriptor >>> 6;
+    int contentSizeSize = CONTENT_SIZE_SIZES[contentSizeFlag];
+    if (contentSizeFlag == 0 && singleSegment) {
+      contentSizeSize = 1;
+    }
+    if (contentSizeSize == 0) {
+      throw new IOException("The uncompressed size is not recorded in the ZSTD frame");
+    }
+    int contentSizeOffset =
+        start + FRAME_HEADER_MIN_SIZE + (singleSegment ? 0 : 1) + DICT_ID_SIZES[descriptor & 0x03];
+    long contentSize = readLittleEndian(frame, contentSizeOffset, contentSizeSize);
+    if (contentSizeSize == 2) {
+      // a 2 bytes field is offset by 256
+      contentSize += 256;
+    }
+    if (contentSize > Integer.MAX_VALUE) {
+      throw new IOException("The uncompressed size of the ZSTD frame is too large: " + contentSize);
+    }
+    return (int) contentSize;
+  }
+
+  private static boolean hasFrameHeader(ByteBuffer frame) {
+    return frame.remaining() >= FRAME_HEADER_MIN_SIZE
+        && (int) readLittleEndian(frame, frame.position(), Integer.BYTES) == FRAME_MAGIC_NUMBER;
+  }
+
+  private static long readLittleEndian(ByteBuffer buffer, int offset, int size) {
+    if (offset + size > buffer.limit()) {
+      return 0;
+    }
+    long value = 0;
+    for (int i = 0; i < size; i++) {
+      value |= (long) (buffer.get(offset + i) & 0xFF) << (8 * i);
+    }
+    return value;
+  }
+
+  /** @return the size returned by a zstd-jni function, or throw its error as an IOException */
+  static int checkResult(long result) throws IOException {
+    if (Zstd.isError(result)) {
+      throw new IOException("ZSTD error: " + Zstd.getErrorName(result));
+    }
+    return (int) result;
+  }
+}
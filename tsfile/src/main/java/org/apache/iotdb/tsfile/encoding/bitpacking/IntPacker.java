@@ -55,48 +55,7 @@ public class IntPacker {
    *     IntPacker#width} / 8)
    */
   public void pack8Values(int[] values, int offset, byte[] buf) {
-    int bufIdx = 0;
-    int valueIdx = offset;
-    // remaining bits for the current unfinished Integer
-    int leftBit = 0;
-
-    while (valueIdx < NUM_OF_INTS + offset) {
-      // buffer is used for saving 32 bits as a part of result
-      int buffer = 0;
-      // remaining size of bits in the 'buffer'
-      int leftSize = 32;
-
-      // encode the left bits of current Integer to 'buffer'
-      if (leftBit > 0) {
-        buffer |= (values[valueIdx] << (32 - leftBit));
-        leftSize -= leftBit;
-        leftBit = 0;
-        valueIdx++;
-      }
-
-      while (leftSize >= width && valueIdx < NUM_OF_INTS + offset) {
-        // encode one Integer to the 'buffer'
-        buffer |= (values[valueIdx] << (leftSize - width));
-        leftSize -= width;
-        valueIdx++;
-      }
-      // If the remaining space of the buffer can not save the bits for one Integer,
-      if (leftSize > 0 && valueIdx < NUM_OF_INTS + offset) {
-        // put the first 'leftSize' bits of the Integer into remaining space of the
-        // buffer
-        buffer |= (values[valueIdx] >>> (width - leftSize));
-        leftBit = width - leftSize;
-      }
-
-      // put the buffer into the final result
-      for (int j = 0; j < 4; j++) {
-        buf[bufIdx] = (byte) ((buffer >>> ((3 - j) * 8)) & 0xFF);
-        bufIdx++;
-        if (bufIdx >= width) {
-          return;
-        }
-      }
-    }
+    IntPackerKernels.pack8Values(width, values, offset, buf, 0);
   }
 
   /**
@@ -107,32 +66,7 @@ public class IntPacker {
    * @param values - decoded result , the length of 'values' should be @{link IntPacker#NUM_OF_INTS}
    */
   public void unpack8Values(byte[] buf, int offset, int[] values) {
-    int byteIdx = offset;
-    long buffer = 0;
-    // total bits which have read from 'buf' to 'buffer'. i.e.,
-    // number of available bits to be decoded.
-    int totalBits = 0;
-    int valueIdx = 0;
-
-    while (valueIdx < NUM_OF_INTS) {
-      // If current available bits are not enough to decode one Integer,
-      // then add next byte from buf to 'buffer' until totalBits >= width
-      while (totalBits < width) {
-        buffer = (buffer << 8) | (buf[byteIdx] & 0xFF);
-        byteIdx++;
-        totalBits += 8;
-      }
-
-      // If current available bits are enough to decode one Integer,
-      // then decode one Integer one by one until left bits in 'buffer' is
-      // not enough to decode one Integer.
-      while (totalBits >= width && valueIdx < 8) {
-        values[valueIdx] = (int) (buffer >>> (totalBits - width));
-        valueIdx++;
-        totalBits -= width;
-        buffer = buffer & ((1 << totalBits) - 1);
-      }
-    }
+    IntPackerKernels.unpack8Values(width, buf, offset, values, 0);
   }
 
   /**
@@ -147,12 +81,10 @@ public class IntPacker {
     int idx = 0;
     int k = 0;
     while (idx < length) {
-      int[] tv = new int[8];
-      // decode 8 values one time, current result will be saved in the array named 'tv'
-      unpack8Values(buf, idx, tv);
-      System.arraycopy(tv, 0, values, k, 8);
+      // decode 8 values one time
+      IntPackerKernels.unpack8Values(width, buf, idx, values, k);
       idx += width;
-      k += 8;
+      k += NUM_OF_INTS;
     }
   }
 
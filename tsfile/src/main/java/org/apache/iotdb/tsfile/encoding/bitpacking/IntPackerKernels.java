@@ -0,0 +1,2044 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.bitpacking;
+
+import java.util.Arrays;
+
+/**
+ * Packs and unpacks 8 Integers of each bit-width in the layout of {@link IntPacker}, with
+ * straight-line code instead of loops over the bits, so that the JIT compiles every bit-width to a
+ * few shifts and masks per value.
+ *
+ * <p>This class is generated by tsfile/src/main/codegen/gen_packer_kernels.py, do not edit it.
+ */
+public class IntPackerKernels {
+
+  private IntPackerKernels() {
+    // util class
+  }
+
+  /**
+   * Encode 8 values of the array 'values' with specified bit-width to 'width' bytes.
+   *
+   * @param width bit-width, which every value must fit in
+   * @param values array where the 8 values are in
+   * @param offset the offset of the first value to be encoded
+   * @param buf array where the encoded bytes are written
+   * @param bufOffset the offset of the first encoded byte in buf
+   */
+  public static void pack8Values(int width, int[] values, int offset, byte[] buf, int bufOffset) {
+    switch (width) {
+      case 0:
+        break;
+      case 1:
+        pack8Values1(values, offset, buf, bufOffset);
+        break;
+      case 2:
+        pack8Values2(values, offset, buf, bufOffset);
+        break;
+      case 3:
+        pack8Values3(values, offset, buf, bufOffset);
+        break;
+      case 4:
+        pack8Values4(values, offset, buf, bufOffset);
+        break;
+      case 5:
+        pack8Values5(values, offset, buf, bufOffset);
+        break;
+      case 6:
+        pack8Values6(values, offset, buf, bufOffset);
+        break;
+      case 7:
+        pack8Values7(values, offset, buf, bufOffset);
+        break;
+      case 8:
+        pack8Values8(values, offset, buf, bufOffset);
+        break;
+      case 9:
+        pack8Values9(values, offset, buf, bufOffset);
+        break;
+      case 10:
+        pack8Values10(values, offset, buf, bufOffset);
+        break;
+      case 11:
+        pack8Values11(values, offset, buf, bufOffset);
+        break;
+      case 12:
+        pack8Values12(values, offset, buf, bufOffset);
+        break;
+      case 13:
+        pack8Values13(values, offset, buf, bufOffset);
+        break;
+      case 14:
+        pack8Values14(values, offset, buf, bufOffset);
+        break;
+      case 15:
+        pack8Values15(values, offset, buf, bufOffset);
+        break;
+      case 16:
+        pack8Values16(values, offset, buf, bufOffset);
+        break;
+      case 17:
+        pack8Values17(values, offset, buf, bufOffset);
+        break;
+      case 18:
+        pack8Values18(values, offset, buf, bufOffset);
+        break;
+      case 19:
+        pack8Values19(values, offset, buf, bufOffset);
+        break;
+      case 20:
+        pack8Values20(values, offset, buf, bufOffset);
+        break;
+      case 21:
+        pack8Values21(values, offset, buf, bufOffset);
+        break;
+      case 22:
+        pack8Values22(values, offset, buf, bufOffset);
+        break;
+      case 23:
+        pack8Values23(values, offset, buf, bufOffset);
+        break;
+      case 24:
+        pack8Values24(values, offset, buf, bufOffset);
+        break;
+      case 25:
+        pack8Values25(values, offset, buf, bufOffset);
+        break;
+      case 26:
+        pack8Values26(values, offset, buf, bufOffset);
+        break;
+      case 27:
+        pack8Values27(values, offset, buf, bufOffset);
+        break;
+      case 28:
+        pack8Values28(values, offset, buf, bufOffset);
+        break;
+      case 29:
+        pack8Values29(values, offset, buf, bufOffset);
+        break;
+      case 30:
+        pack8Values30(values, offset, buf, bufOffset);
+        break;
+      case 31:
+        pack8Values31(values, offset, buf, bufOffset);
+        break;
+      case 32:
+        pack8Values32(values, offset, buf, bufOffset);
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid bit-width: " + width);
+    }
+  }
+
+  /**
+   * Decode 8 values of specified bit-width from 'width' bytes of 'buf'.
+   *
+   * @param width bit-width
+   * @param buf array where the encoded bytes are in
+   * @param offset the offset of the first byte to be decoded
+   * @param values array where the 8 decoded values are written
+   * @param valuesOffset the offset of the first decoded value in values
+   */
+  public static void unpack8Values(
+      int width, byte[] buf, int offset, int[] values, int valuesOffset) {
+    switch (width) {
+      case 0:
+        Arrays.fill(values, valuesOffset, valuesOffset + 8, 0);
+        break;
+      case 1:
+        unpack8Values1(buf, offset, values, valuesOffset);
+        break;
+      case 2:
+        unpack8Values2(buf, offset, values, valuesOffset);
+        break;
+      case 3:
+        unpack8Values3(buf, offset, values, valuesOffset);
+        break;
+      case 4:
+        unpack8Values4(buf, offset, values, valuesOffset);
+        break;
+      case 5:
+        unpack8Values5(buf, offset, values, valuesOffset);
+        break;
+      case 6:
+        unpack8Values6(buf, offset, values, valuesOffset);
+        break;
+      case 7:
+        unpack8Values7(buf, offset, values, valuesOffset);
+        break;
+      case 8:
+        unpack8Values8(buf, offset, values, valuesOffset);
+        break;
+      case 9:
+        unpack8Values9(buf, offset, values, valuesOffset);
+        break;
+      case 10:
+        unpack8Values10(buf, offset, values, valuesOffset);
+        break;
+      case 11:
+        unpack8Values11(buf, offset, values, valuesOffset);
+        break;
+      case 12:
+        unpack8Values12(buf, offset, values, valuesOffset);
+        break;
+      case 13:
+        unpack8Values13(buf, offset, values, valuesOffset);
+        break;
+      case 14:
+        unpack8Values14(buf, offset, values, valuesOffset);
+        break;
+      case 15:
+        unpack8Values15(buf, offset, values, valuesOffset);
+        break;
+      case 16:
+        unpack8Values16(buf, offset, values, valuesOffset);
+        break;
+      case 17:
+        unpack8Values17(buf, offset, values, valuesOffset);
+        break;
+      case 18:
+        unpack8Values18(buf, offset, values, valuesOffset);
+        break;
+      case 19:
+        unpack8Values19(buf, offset, values, valuesOffset);
+        break;
+      case 20:
+        unpack8Values20(buf, offset, values, valuesOffset);
+        break;
+      case 21:
+        unpack8Values21(buf, offset, values, valuesOffset);
+        break;
+      case 22:
+        unpack8Values22(buf, offset, values, valuesOffset);
+        break;
+      case 23:
+        unpack8Values23(buf, offset, values, valuesOffset);
+        break;
+      case 24:
+        unpack8Values24(buf, offset, values, valuesOffset);
+        break;
+      case 25:
+        unpack8Values25(buf, offset, values, valuesOffset);
+        break;
+      case 26:
+        unpack8Values26(buf, offset, values, valuesOffset);
+        break;
+      case 27:
+        unpack8Values27(buf, offset, values, valuesOffset);
+        break;
+      case 28:
+        unpack8Values28(buf, offset, values, valuesOffset);
+        break;
+      case 29:
+        unpack8Values29(buf, offset, values, valuesOffset);
+        break;
+      case 30:
+        unpack8Values30(buf, offset, values, valuesOffset);
+        break;
+      case 31:
+        unpack8Values31(buf, offset, values, valuesOffset);
+        break;
+      case 32:
+        unpack8Values32(buf, offset, values, valuesOffset);
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid bit-width: " + width);
+    }
+  }
+
+  private static void pack8Values1(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] =
+        (byte)
+            ((v0 << 7) | (v1 << 6) | (v2 << 5) | (v3 << 4) | (v4 << 3) | (v5 << 2) | (v6 << 1)
+                | v7);
+  }
+
+  private static void unpack8Values1(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    values[valuesOffset] = b0 >>> 7;
+    values[valuesOffset + 1] = (b0 >>> 6) & 0x1;
+    values[valuesOffset + 2] = (b0 >>> 5) & 0x1;
+    values[valuesOffset + 3] = (b0 >>> 4) & 0x1;
+    values[valuesOffset + 4] = (b0 >>> 3) & 0x1;
+    values[valuesOffset + 5] = (b0 >>> 2) & 0x1;
+    values[valuesOffset + 6] = (b0 >>> 1) & 0x1;
+    values[valuesOffset + 7] = b0 & 0x1;
+  }
+
+  private static void pack8Values2(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) ((v0 << 6) | (v1 << 4) | (v2 << 2) | v3);
+    buf[bufOffset + 1] = (byte) ((v4 << 6) | (v5 << 4) | (v6 << 2) | v7);
+  }
+
+  private static void unpack8Values2(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    values[valuesOffset] = b0 >>> 6;
+    values[valuesOffset + 1] = (b0 >>> 4) & 0x3;
+    values[valuesOffset + 2] = (b0 >>> 2) & 0x3;
+    values[valuesOffset + 3] = b0 & 0x3;
+    values[valuesOffset + 4] = b1 >>> 6;
+    values[valuesOffset + 5] = (b1 >>> 4) & 0x3;
+    values[valuesOffset + 6] = (b1 >>> 2) & 0x3;
+    values[valuesOffset + 7] = b1 & 0x3;
+  }
+
+  private static void pack8Values3(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) ((v0 << 5) | (v1 << 2) | (v2 >>> 1));
+    buf[bufOffset + 1] = (byte) ((v2 << 7) | (v3 << 4) | (v4 << 1) | (v5 >>> 2));
+    buf[bufOffset + 2] = (byte) ((v5 << 6) | (v6 << 3) | v7);
+  }
+
+  private static void unpack8Values3(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    values[valuesOffset] = b0 >>> 5;
+    values[valuesOffset + 1] = (b0 >>> 2) & 0x7;
+    values[valuesOffset + 2] = ((b0 & 0x3) << 1) | (b1 >>> 7);
+    values[valuesOffset + 3] = (b1 >>> 4) & 0x7;
+    values[valuesOffset + 4] = (b1 >>> 1) & 0x7;
+    values[valuesOffset + 5] = ((b1 & 0x1) << 2) | (b2 >>> 6);
+    values[valuesOffset + 6] = (b2 >>> 3) & 0x7;
+    values[valuesOffset + 7] = b2 & 0x7;
+  }
+
+  private static void pack8Values4(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) ((v0 << 4) | v1);
+    buf[bufOffset + 1] = (byte) ((v2 << 4) | v3);
+    buf[bufOffset + 2] = (byte) ((v4 << 4) | v5);
+    buf[bufOffset + 3] = (byte) ((v6 << 4) | v7);
+  }
+
+  private static void unpack8Values4(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    values[valuesOffset] = b0 >>> 4;
+    values[valuesOffset + 1] = b0 & 0xF;
+    values[valuesOffset + 2] = b1 >>> 4;
+    values[valuesOffset + 3] = b1 & 0xF;
+    values[valuesOffset + 4] = b2 >>> 4;
+    values[valuesOffset + 5] = b2 & 0xF;
+    values[valuesOffset + 6] = b3 >>> 4;
+    values[valuesOffset + 7] = b3 & 0xF;
+  }
+
+  private static void pack8Values5(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) ((v0 << 3) | (v1 >>> 2));
+    buf[bufOffset + 1] = (byte) ((v1 << 6) | (v2 << 1) | (v3 >>> 4));
+    buf[bufOffset + 2] = (byte) ((v3 << 4) | (v4 >>> 1));
+    buf[bufOffset + 3] = (byte) ((v4 << 7) | (v5 << 2) | (v6 >>> 3));
+    buf[bufOffset + 4] = (byte) ((v6 << 5) | v7);
+  }
+
+  private static void unpack8Values5(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    values[valuesOffset] = b0 >>> 3;
+    values[valuesOffset + 1] = ((b0 & 0x7) << 2) | (b1 >>> 6);
+    values[valuesOffset + 2] = (b1 >>> 1) & 0x1F;
+    values[valuesOffset + 3] = ((b1 & 0x1) << 4) | (b2 >>> 4);
+    values[valuesOffset + 4] = ((b2 & 0xF) << 1) | (b3 >>> 7);
+    values[valuesOffset + 5] = (b3 >>> 2) & 0x1F;
+    values[valuesOffset + 6] = ((b3 & 0x3) << 3) | (b4 >>> 5);
+    values[valuesOffset + 7] = b4 & 0x1F;
+  }
+
+  private static void pack8Values6(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) ((v0 << 2) | (v1 >>> 4));
+    buf[bufOffset + 1] = (byte) ((v1 << 4) | (v2 >>> 2));
+    buf[bufOffset + 2] = (byte) ((v2 << 6) | v3);
+    buf[bufOffset + 3] = (byte) ((v4 << 2) | (v5 >>> 4));
+    buf[bufOffset + 4] = (byte) ((v5 << 4) | (v6 >>> 2));
+    buf[bufOffset + 5] = (byte) ((v6 << 6) | v7);
+  }
+
+  private static void unpack8Values6(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    values[valuesOffset] = b0 >>> 2;
+    values[valuesOffset + 1] = ((b0 & 0x3) << 4) | (b1 >>> 4);
+    values[valuesOffset + 2] = ((b1 & 0xF) << 2) | (b2 >>> 6);
+    values[valuesOffset + 3] = b2 & 0x3F;
+    values[valuesOffset + 4] = b3 >>> 2;
+    values[valuesOffset + 5] = ((b3 & 0x3) << 4) | (b4 >>> 4);
+    values[valuesOffset + 6] = ((b4 & 0xF) << 2) | (b5 >>> 6);
+    values[valuesOffset + 7] = b5 & 0x3F;
+  }
+
+  private static void pack8Values7(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) ((v0 << 1) | (v1 >>> 6));
+    buf[bufOffset + 1] = (byte) ((v1 << 2) | (v2 >>> 5));
+    buf[bufOffset + 2] = (byte) ((v2 << 3) | (v3 >>> 4));
+    buf[bufOffset + 3] = (byte) ((v3 << 4) | (v4 >>> 3));
+    buf[bufOffset + 4] = (byte) ((v4 << 5) | (v5 >>> 2));
+    buf[bufOffset + 5] = (byte) ((v5 << 6) | (v6 >>> 1));
+    buf[bufOffset + 6] = (byte) ((v6 << 7) | v7);
+  }
+
+  private static void unpack8Values7(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    values[valuesOffset] = b0 >>> 1;
+    values[valuesOffset + 1] = ((b0 & 0x1) << 6) | (b1 >>> 2);
+    values[valuesOffset + 2] = ((b1 & 0x3) << 5) | (b2 >>> 3);
+    values[valuesOffset + 3] = ((b2 & 0x7) << 4) | (b3 >>> 4);
+    values[valuesOffset + 4] = ((b3 & 0xF) << 3) | (b4 >>> 5);
+    values[valuesOffset + 5] = ((b4 & 0x1F) << 2) | (b5 >>> 6);
+    values[valuesOffset + 6] = ((b5 & 0x3F) << 1) | (b6 >>> 7);
+    values[valuesOffset + 7] = b6 & 0x7F;
+  }
+
+  private static void pack8Values8(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) v0;
+    buf[bufOffset + 1] = (byte) v1;
+    buf[bufOffset + 2] = (byte) v2;
+    buf[bufOffset + 3] = (byte) v3;
+    buf[bufOffset + 4] = (byte) v4;
+    buf[bufOffset + 5] = (byte) v5;
+    buf[bufOffset + 6] = (byte) v6;
+    buf[bufOffset + 7] = (byte) v7;
+  }
+
+  private static void unpack8Values8(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    values[valuesOffset] = b0;
+    values[valuesOffset + 1] = b1;
+    values[valuesOffset + 2] = b2;
+    values[valuesOffset + 3] = b3;
+    values[valuesOffset + 4] = b4;
+    values[valuesOffset + 5] = b5;
+    values[valuesOffset + 6] = b6;
+    values[valuesOffset + 7] = b7;
+  }
+
+  private static void pack8Values9(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 1);
+    buf[bufOffset + 1] = (byte) ((v0 << 7) | (v1 >>> 2));
+    buf[bufOffset + 2] = (byte) ((v1 << 6) | (v2 >>> 3));
+    buf[bufOffset + 3] = (byte) ((v2 << 5) | (v3 >>> 4));
+    buf[bufOffset + 4] = (byte) ((v3 << 4) | (v4 >>> 5));
+    buf[bufOffset + 5] = (byte) ((v4 << 3) | (v5 >>> 6));
+    buf[bufOffset + 6] = (byte) ((v5 << 2) | (v6 >>> 7));
+    buf[bufOffset + 7] = (byte) ((v6 << 1) | (v7 >>> 8));
+    buf[bufOffset + 8] = (byte) v7;
+  }
+
+  private static void unpack8Values9(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    values[valuesOffset] = (b0 << 1) | (b1 >>> 7);
+    values[valuesOffset + 1] = ((b1 & 0x7F) << 2) | (b2 >>> 6);
+    values[valuesOffset + 2] = ((b2 & 0x3F) << 3) | (b3 >>> 5);
+    values[valuesOffset + 3] = ((b3 & 0x1F) << 4) | (b4 >>> 4);
+    values[valuesOffset + 4] = ((b4 & 0xF) << 5) | (b5 >>> 3);
+    values[valuesOffset + 5] = ((b5 & 0x7) << 6) | (b6 >>> 2);
+    values[valuesOffset + 6] = ((b6 & 0x3) << 7) | (b7 >>> 1);
+    values[valuesOffset + 7] = ((b7 & 0x1) << 8) | b8;
+  }
+
+  private static void pack8Values10(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 2);
+    buf[bufOffset + 1] = (byte) ((v0 << 6) | (v1 >>> 4));
+    buf[bufOffset + 2] = (byte) ((v1 << 4) | (v2 >>> 6));
+    buf[bufOffset + 3] = (byte) ((v2 << 2) | (v3 >>> 8));
+    buf[bufOffset + 4] = (byte) v3;
+    buf[bufOffset + 5] = (byte) (v4 >>> 2);
+    buf[bufOffset + 6] = (byte) ((v4 << 6) | (v5 >>> 4));
+    buf[bufOffset + 7] = (byte) ((v5 << 4) | (v6 >>> 6));
+    buf[bufOffset + 8] = (byte) ((v6 << 2) | (v7 >>> 8));
+    buf[bufOffset + 9] = (byte) v7;
+  }
+
+  private static void unpack8Values10(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    values[valuesOffset] = (b0 << 2) | (b1 >>> 6);
+    values[valuesOffset + 1] = ((b1 & 0x3F) << 4) | (b2 >>> 4);
+    values[valuesOffset + 2] = ((b2 & 0xF) << 6) | (b3 >>> 2);
+    values[valuesOffset + 3] = ((b3 & 0x3) << 8) | b4;
+    values[valuesOffset + 4] = (b5 << 2) | (b6 >>> 6);
+    values[valuesOffset + 5] = ((b6 & 0x3F) << 4) | (b7 >>> 4);
+    values[valuesOffset + 6] = ((b7 & 0xF) << 6) | (b8 >>> 2);
+    values[valuesOffset + 7] = ((b8 & 0x3) << 8) | b9;
+  }
+
+  private static void pack8Values11(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 3);
+    buf[bufOffset + 1] = (byte) ((v0 << 5) | (v1 >>> 6));
+    buf[bufOffset + 2] = (byte) ((v1 << 2) | (v2 >>> 9));
+    buf[bufOffset + 3] = (byte) (v2 >>> 1);
+    buf[bufOffset + 4] = (byte) ((v2 << 7) | (v3 >>> 4));
+    buf[bufOffset + 5] = (byte) ((v3 << 4) | (v4 >>> 7));
+    buf[bufOffset + 6] = (byte) ((v4 << 1) | (v5 >>> 10));
+    buf[bufOffset + 7] = (byte) (v5 >>> 2);
+    buf[bufOffset + 8] = (byte) ((v5 << 6) | (v6 >>> 5));
+    buf[bufOffset + 9] = (byte) ((v6 << 3) | (v7 >>> 8));
+    buf[bufOffset + 10] = (byte) v7;
+  }
+
+  private static void unpack8Values11(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    values[valuesOffset] = (b0 << 3) | (b1 >>> 5);
+    values[valuesOffset + 1] = ((b1 & 0x1F) << 6) | (b2 >>> 2);
+    values[valuesOffset + 2] = ((b2 & 0x3) << 9) | (b3 << 1) | (b4 >>> 7);
+    values[valuesOffset + 3] = ((b4 & 0x7F) << 4) | (b5 >>> 4);
+    values[valuesOffset + 4] = ((b5 & 0xF) << 7) | (b6 >>> 1);
+    values[valuesOffset + 5] = ((b6 & 0x1) << 10) | (b7 << 2) | (b8 >>> 6);
+    values[valuesOffset + 6] = ((b8 & 0x3F) << 5) | (b9 >>> 3);
+    values[valuesOffset + 7] = ((b9 & 0x7) << 8) | b10;
+  }
+
+  private static void pack8Values12(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 4);
+    buf[bufOffset + 1] = (byte) ((v0 << 4) | (v1 >>> 8));
+    buf[bufOffset + 2] = (byte) v1;
+    buf[bufOffset + 3] = (byte) (v2 >>> 4);
+    buf[bufOffset + 4] = (byte) ((v2 << 4) | (v3 >>> 8));
+    buf[bufOffset + 5] = (byte) v3;
+    buf[bufOffset + 6] = (byte) (v4 >>> 4);
+    buf[bufOffset + 7] = (byte) ((v4 << 4) | (v5 >>> 8));
+    buf[bufOffset + 8] = (byte) v5;
+    buf[bufOffset + 9] = (byte) (v6 >>> 4);
+    buf[bufOffset + 10] = (byte) ((v6 << 4) | (v7 >>> 8));
+    buf[bufOffset + 11] = (byte) v7;
+  }
+
+  private static void unpack8Values12(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    values[valuesOffset] = (b0 << 4) | (b1 >>> 4);
+    values[valuesOffset + 1] = ((b1 & 0xF) << 8) | b2;
+    values[valuesOffset + 2] = (b3 << 4) | (b4 >>> 4);
+    values[valuesOffset + 3] = ((b4 & 0xF) << 8) | b5;
+    values[valuesOffset + 4] = (b6 << 4) | (b7 >>> 4);
+    values[valuesOffset + 5] = ((b7 & 0xF) << 8) | b8;
+    values[valuesOffset + 6] = (b9 << 4) | (b10 >>> 4);
+    values[valuesOffset + 7] = ((b10 & 0xF) << 8) | b11;
+  }
+
+  private static void pack8Values13(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 5);
+    buf[bufOffset + 1] = (byte) ((v0 << 3) | (v1 >>> 10));
+    buf[bufOffset + 2] = (byte) (v1 >>> 2);
+    buf[bufOffset + 3] = (byte) ((v1 << 6) | (v2 >>> 7));
+    buf[bufOffset + 4] = (byte) ((v2 << 1) | (v3 >>> 12));
+    buf[bufOffset + 5] = (byte) (v3 >>> 4);
+    buf[bufOffset + 6] = (byte) ((v3 << 4) | (v4 >>> 9));
+    buf[bufOffset + 7] = (byte) (v4 >>> 1);
+    buf[bufOffset + 8] = (byte) ((v4 << 7) | (v5 >>> 6));
+    buf[bufOffset + 9] = (byte) ((v5 << 2) | (v6 >>> 11));
+    buf[bufOffset + 10] = (byte) (v6 >>> 3);
+    buf[bufOffset + 11] = (byte) ((v6 << 5) | (v7 >>> 8));
+    buf[bufOffset + 12] = (byte) v7;
+  }
+
+  private static void unpack8Values13(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    values[valuesOffset] = (b0 << 5) | (b1 >>> 3);
+    values[valuesOffset + 1] = ((b1 & 0x7) << 10) | (b2 << 2) | (b3 >>> 6);
+    values[valuesOffset + 2] = ((b3 & 0x3F) << 7) | (b4 >>> 1);
+    values[valuesOffset + 3] = ((b4 & 0x1) << 12) | (b5 << 4) | (b6 >>> 4);
+    values[valuesOffset + 4] = ((b6 & 0xF) << 9) | (b7 << 1) | (b8 >>> 7);
+    values[valuesOffset + 5] = ((b8 & 0x7F) << 6) | (b9 >>> 2);
+    values[valuesOffset + 6] = ((b9 & 0x3) << 11) | (b10 << 3) | (b11 >>> 5);
+    values[valuesOffset + 7] = ((b11 & 0x1F) << 8) | b12;
+  }
+
+  private static void pack8Values14(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 6);
+    buf[bufOffset + 1] = (byte) ((v0 << 2) | (v1 >>> 12));
+    buf[bufOffset + 2] = (byte) (v1 >>> 4);
+    buf[bufOffset + 3] = (byte) ((v1 << 4) | (v2 >>> 10));
+    buf[bufOffset + 4] = (byte) (v2 >>> 2);
+    buf[bufOffset + 5] = (byte) ((v2 << 6) | (v3 >>> 8));
+    buf[bufOffset + 6] = (byte) v3;
+    buf[bufOffset + 7] = (byte) (v4 >>> 6);
+    buf[bufOffset + 8] = (byte) ((v4 << 2) | (v5 >>> 12));
+    buf[bufOffset + 9] = (byte) (v5 >>> 4);
+    buf[bufOffset + 10] = (byte) ((v5 << 4) | (v6 >>> 10));
+    buf[bufOffset + 11] = (byte) (v6 >>> 2);
+    buf[bufOffset + 12] = (byte) ((v6 << 6) | (v7 >>> 8));
+    buf[bufOffset + 13] = (byte) v7;
+  }
+
+  private static void unpack8Values14(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    values[valuesOffset] = (b0 << 6) | (b1 >>> 2);
+    values[valuesOffset + 1] = ((b1 & 0x3) << 12) | (b2 << 4) | (b3 >>> 4);
+    values[valuesOffset + 2] = ((b3 & 0xF) << 10) | (b4 << 2) | (b5 >>> 6);
+    values[valuesOffset + 3] = ((b5 & 0x3F) << 8) | b6;
+    values[valuesOffset + 4] = (b7 << 6) | (b8 >>> 2);
+    values[valuesOffset + 5] = ((b8 & 0x3) << 12) | (b9 << 4) | (b10 >>> 4);
+    values[valuesOffset + 6] = ((b10 & 0xF) << 10) | (b11 << 2) | (b12 >>> 6);
+    values[valuesOffset + 7] = ((b12 & 0x3F) << 8) | b13;
+  }
+
+  private static void pack8Values15(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 7);
+    buf[bufOffset + 1] = (byte) ((v0 << 1) | (v1 >>> 14));
+    buf[bufOffset + 2] = (byte) (v1 >>> 6);
+    buf[bufOffset + 3] = (byte) ((v1 << 2) | (v2 >>> 13));
+    buf[bufOffset + 4] = (byte) (v2 >>> 5);
+    buf[bufOffset + 5] = (byte) ((v2 << 3) | (v3 >>> 12));
+    buf[bufOffset + 6] = (byte) (v3 >>> 4);
+    buf[bufOffset + 7] = (byte) ((v3 << 4) | (v4 >>> 11));
+    buf[bufOffset + 8] = (byte) (v4 >>> 3);
+    buf[bufOffset + 9] = (byte) ((v4 << 5) | (v5 >>> 10));
+    buf[bufOffset + 10] = (byte) (v5 >>> 2);
+    buf[bufOffset + 11] = (byte) ((v5 << 6) | (v6 >>> 9));
+    buf[bufOffset + 12] = (byte) (v6 >>> 1);
+    buf[bufOffset + 13] = (byte) ((v6 << 7) | (v7 >>> 8));
+    buf[bufOffset + 14] = (byte) v7;
+  }
+
+  private static void unpack8Values15(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    values[valuesOffset] = (b0 << 7) | (b1 >>> 1);
+    values[valuesOffset + 1] = ((b1 & 0x1) << 14) | (b2 << 6) | (b3 >>> 2);
+    values[valuesOffset + 2] = ((b3 & 0x3) << 13) | (b4 << 5) | (b5 >>> 3);
+    values[valuesOffset + 3] = ((b5 & 0x7) << 12) | (b6 << 4) | (b7 >>> 4);
+    values[valuesOffset + 4] = ((b7 & 0xF) << 11) | (b8 << 3) | (b9 >>> 5);
+    values[valuesOffset + 5] = ((b9 & 0x1F) << 10) | (b10 << 2) | (b11 >>> 6);
+    values[valuesOffset + 6] = ((b11 & 0x3F) << 9) | (b12 << 1) | (b13 >>> 7);
+    values[valuesOffset + 7] = ((b13 & 0x7F) << 8) | b14;
+  }
+
+  private static void pack8Values16(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 8);
+    buf[bufOffset + 1] = (byte) v0;
+    buf[bufOffset + 2] = (byte) (v1 >>> 8);
+    buf[bufOffset + 3] = (byte) v1;
+    buf[bufOffset + 4] = (byte) (v2 >>> 8);
+    buf[bufOffset + 5] = (byte) v2;
+    buf[bufOffset + 6] = (byte) (v3 >>> 8);
+    buf[bufOffset + 7] = (byte) v3;
+    buf[bufOffset + 8] = (byte) (v4 >>> 8);
+    buf[bufOffset + 9] = (byte) v4;
+    buf[bufOffset + 10] = (byte) (v5 >>> 8);
+    buf[bufOffset + 11] = (byte) v5;
+    buf[bufOffset + 12] = (byte) (v6 >>> 8);
+    buf[bufOffset + 13] = (byte) v6;
+    buf[bufOffset + 14] = (byte) (v7 >>> 8);
+    buf[bufOffset + 15] = (byte) v7;
+  }
+
+  private static void unpack8Values16(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    values[valuesOffset] = (b0 << 8) | b1;
+    values[valuesOffset + 1] = (b2 << 8) | b3;
+    values[valuesOffset + 2] = (b4 << 8) | b5;
+    values[valuesOffset + 3] = (b6 << 8) | b7;
+    values[valuesOffset + 4] = (b8 << 8) | b9;
+    values[valuesOffset + 5] = (b10 << 8) | b11;
+    values[valuesOffset + 6] = (b12 << 8) | b13;
+    values[valuesOffset + 7] = (b14 << 8) | b15;
+  }
+
+  private static void pack8Values17(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 9);
+    buf[bufOffset + 1] = (byte) (v0 >>> 1);
+    buf[bufOffset + 2] = (byte) ((v0 << 7) | (v1 >>> 10));
+    buf[bufOffset + 3] = (byte) (v1 >>> 2);
+    buf[bufOffset + 4] = (byte) ((v1 << 6) | (v2 >>> 11));
+    buf[bufOffset + 5] = (byte) (v2 >>> 3);
+    buf[bufOffset + 6] = (byte) ((v2 << 5) | (v3 >>> 12));
+    buf[bufOffset + 7] = (byte) (v3 >>> 4);
+    buf[bufOffset + 8] = (byte) ((v3 << 4) | (v4 >>> 13));
+    buf[bufOffset + 9] = (byte) (v4 >>> 5);
+    buf[bufOffset + 10] = (byte) ((v4 << 3) | (v5 >>> 14));
+    buf[bufOffset + 11] = (byte) (v5 >>> 6);
+    buf[bufOffset + 12] = (byte) ((v5 << 2) | (v6 >>> 15));
+    buf[bufOffset + 13] = (byte) (v6 >>> 7);
+    buf[bufOffset + 14] = (byte) ((v6 << 1) | (v7 >>> 16));
+    buf[bufOffset + 15] = (byte) (v7 >>> 8);
+    buf[bufOffset + 16] = (byte) v7;
+  }
+
+  private static void unpack8Values17(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    values[valuesOffset] = (b0 << 9) | (b1 << 1) | (b2 >>> 7);
+    values[valuesOffset + 1] = ((b2 & 0x7F) << 10) | (b3 << 2) | (b4 >>> 6);
+    values[valuesOffset + 2] = ((b4 & 0x3F) << 11) | (b5 << 3) | (b6 >>> 5);
+    values[valuesOffset + 3] = ((b6 & 0x1F) << 12) | (b7 << 4) | (b8 >>> 4);
+    values[valuesOffset + 4] = ((b8 & 0xF) << 13) | (b9 << 5) | (b10 >>> 3);
+    values[valuesOffset + 5] = ((b10 & 0x7) << 14) | (b11 << 6) | (b12 >>> 2);
+    values[valuesOffset + 6] = ((b12 & 0x3) << 15) | (b13 << 7) | (b14 >>> 1);
+    values[valuesOffset + 7] = ((b14 & 0x1) << 16) | (b15 << 8) | b16;
+  }
+
+  private static void pack8Values18(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 10);
+    buf[bufOffset + 1] = (byte) (v0 >>> 2);
+    buf[bufOffset + 2] = (byte) ((v0 << 6) | (v1 >>> 12));
+    buf[bufOffset + 3] = (byte) (v1 >>> 4);
+    buf[bufOffset + 4] = (byte) ((v1 << 4) | (v2 >>> 14));
+    buf[bufOffset + 5] = (byte) (v2 >>> 6);
+    buf[bufOffset + 6] = (byte) ((v2 << 2) | (v3 >>> 16));
+    buf[bufOffset + 7] = (byte) (v3 >>> 8);
+    buf[bufOffset + 8] = (byte) v3;
+    buf[bufOffset + 9] = (byte) (v4 >>> 10);
+    buf[bufOffset + 10] = (byte) (v4 >>> 2);
+    buf[bufOffset + 11] = (byte) ((v4 << 6) | (v5 >>> 12));
+    buf[bufOffset + 12] = (byte) (v5 >>> 4);
+    buf[bufOffset + 13] = (byte) ((v5 << 4) | (v6 >>> 14));
+    buf[bufOffset + 14] = (byte) (v6 >>> 6);
+    buf[bufOffset + 15] = (byte) ((v6 << 2) | (v7 >>> 16));
+    buf[bufOffset + 16] = (byte) (v7 >>> 8);
+    buf[bufOffset + 17] = (byte) v7;
+  }
+
+  private static void unpack8Values18(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    values[valuesOffset] = (b0 << 10) | (b1 << 2) | (b2 >>> 6);
+    values[valuesOffset + 1] = ((b2 & 0x3F) << 12) | (b3 << 4) | (b4 >>> 4);
+    values[valuesOffset + 2] = ((b4 & 0xF) << 14) | (b5 << 6) | (b6 >>> 2);
+    values[valuesOffset + 3] = ((b6 & 0x3) << 16) | (b7 << 8) | b8;
+    values[valuesOffset + 4] = (b9 << 10) | (b10 << 2) | (b11 >>> 6);
+    values[valuesOffset + 5] = ((b11 & 0x3F) << 12) | (b12 << 4) | (b13 >>> 4);
+    values[valuesOffset + 6] = ((b13 & 0xF) << 14) | (b14 << 6) | (b15 >>> 2);
+    values[valuesOffset + 7] = ((b15 & 0x3) << 16) | (b16 << 8) | b17;
+  }
+
+  private static void pack8Values19(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 11);
+    buf[bufOffset + 1] = (byte) (v0 >>> 3);
+    buf[bufOffset + 2] = (byte) ((v0 << 5) | (v1 >>> 14));
+    buf[bufOffset + 3] = (byte) (v1 >>> 6);
+    buf[bufOffset + 4] = (byte) ((v1 << 2) | (v2 >>> 17));
+    buf[bufOffset + 5] = (byte) (v2 >>> 9);
+    buf[bufOffset + 6] = (byte) (v2 >>> 1);
+    buf[bufOffset + 7] = (byte) ((v2 << 7) | (v3 >>> 12));
+    buf[bufOffset + 8] = (byte) (v3 >>> 4);
+    buf[bufOffset + 9] = (byte) ((v3 << 4) | (v4 >>> 15));
+    buf[bufOffset + 10] = (byte) (v4 >>> 7);
+    buf[bufOffset + 11] = (byte) ((v4 << 1) | (v5 >>> 18));
+    buf[bufOffset + 12] = (byte) (v5 >>> 10);
+    buf[bufOffset + 13] = (byte) (v5 >>> 2);
+    buf[bufOffset + 14] = (byte) ((v5 << 6) | (v6 >>> 13));
+    buf[bufOffset + 15] = (byte) (v6 >>> 5);
+    buf[bufOffset + 16] = (byte) ((v6 << 3) | (v7 >>> 16));
+    buf[bufOffset + 17] = (byte) (v7 >>> 8);
+    buf[bufOffset + 18] = (byte) v7;
+  }
+
+  private static void unpack8Values19(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    values[valuesOffset] = (b0 << 11) | (b1 << 3) | (b2 >>> 5);
+    values[valuesOffset + 1] = ((b2 & 0x1F) << 14) | (b3 << 6) | (b4 >>> 2);
+    values[valuesOffset + 2] = ((b4 & 0x3) << 17) | (b5 << 9) | (b6 << 1) | (b7 >>> 7);
+    values[valuesOffset + 3] = ((b7 & 0x7F) << 12) | (b8 << 4) | (b9 >>> 4);
+    values[valuesOffset + 4] = ((b9 & 0xF) << 15) | (b10 << 7) | (b11 >>> 1);
+    values[valuesOffset + 5] = ((b11 & 0x1) << 18) | (b12 << 10) | (b13 << 2) | (b14 >>> 6);
+    values[valuesOffset + 6] = ((b14 & 0x3F) << 13) | (b15 << 5) | (b16 >>> 3);
+    values[valuesOffset + 7] = ((b16 & 0x7) << 16) | (b17 << 8) | b18;
+  }
+
+  private static void pack8Values20(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 12);
+    buf[bufOffset + 1] = (byte) (v0 >>> 4);
+    buf[bufOffset + 2] = (byte) ((v0 << 4) | (v1 >>> 16));
+    buf[bufOffset + 3] = (byte) (v1 >>> 8);
+    buf[bufOffset + 4] = (byte) v1;
+    buf[bufOffset + 5] = (byte) (v2 >>> 12);
+    buf[bufOffset + 6] = (byte) (v2 >>> 4);
+    buf[bufOffset + 7] = (byte) ((v2 << 4) | (v3 >>> 16));
+    buf[bufOffset + 8] = (byte) (v3 >>> 8);
+    buf[bufOffset + 9] = (byte) v3;
+    buf[bufOffset + 10] = (byte) (v4 >>> 12);
+    buf[bufOffset + 11] = (byte) (v4 >>> 4);
+    buf[bufOffset + 12] = (byte) ((v4 << 4) | (v5 >>> 16));
+    buf[bufOffset + 13] = (byte) (v5 >>> 8);
+    buf[bufOffset + 14] = (byte) v5;
+    buf[bufOffset + 15] = (byte) (v6 >>> 12);
+    buf[bufOffset + 16] = (byte) (v6 >>> 4);
+    buf[bufOffset + 17] = (byte) ((v6 << 4) | (v7 >>> 16));
+    buf[bufOffset + 18] = (byte) (v7 >>> 8);
+    buf[bufOffset + 19] = (byte) v7;
+  }
+
+  private static void unpack8Values20(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    int b19 = buf[offset + 19] & 0xFF;
+    values[valuesOffset] = (b0 << 12) | (b1 << 4) | (b2 >>> 4);
+    values[valuesOffset + 1] = ((b2 & 0xF) << 16) | (b3 << 8) | b4;
+    values[valuesOffset + 2] = (b5 << 12) | (b6 << 4) | (b7 >>> 4);
+    values[valuesOffset + 3] = ((b7 & 0xF) << 16) | (b8 << 8) | b9;
+    values[valuesOffset + 4] = (b10 << 12) | (b11 << 4) | (b12 >>> 4);
+    values[valuesOffset + 5] = ((b12 & 0xF) << 16) | (b13 << 8) | b14;
+    values[valuesOffset + 6] = (b15 << 12) | (b16 << 4) | (b17 >>> 4);
+    values[valuesOffset + 7] = ((b17 & 0xF) << 16) | (b18 << 8) | b19;
+  }
+
+  private static void pack8Values21(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 13);
+    buf[bufOffset + 1] = (byte) (v0 >>> 5);
+    buf[bufOffset + 2] = (byte) ((v0 << 3) | (v1 >>> 18));
+    buf[bufOffset + 3] = (byte) (v1 >>> 10);
+    buf[bufOffset + 4] = (byte) (v1 >>> 2);
+    buf[bufOffset + 5] = (byte) ((v1 << 6) | (v2 >>> 15));
+    buf[bufOffset + 6] = (byte) (v2 >>> 7);
+    buf[bufOffset + 7] = (byte) ((v2 << 1) | (v3 >>> 20));
+    buf[bufOffset + 8] = (byte) (v3 >>> 12);
+    buf[bufOffset + 9] = (byte) (v3 >>> 4);
+    buf[bufOffset + 10] = (byte) ((v3 << 4) | (v4 >>> 17));
+    buf[bufOffset + 11] = (byte) (v4 >>> 9);
+    buf[bufOffset + 12] = (byte) (v4 >>> 1);
+    buf[bufOffset + 13] = (byte) ((v4 << 7) | (v5 >>> 14));
+    buf[bufOffset + 14] = (byte) (v5 >>> 6);
+    buf[bufOffset + 15] = (byte) ((v5 << 2) | (v6 >>> 19));
+    buf[bufOffset + 16] = (byte) (v6 >>> 11);
+    buf[bufOffset + 17] = (byte) (v6 >>> 3);
+    buf[bufOffset + 18] = (byte) ((v6 << 5) | (v7 >>> 16));
+    buf[bufOffset + 19] = (byte) (v7 >>> 8);
+    buf[bufOffset + 20] = (byte) v7;
+  }
+
+  private static void unpack8Values21(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    int b19 = buf[offset + 19] & 0xFF;
+    int b20 = buf[offset + 20] & 0xFF;
+    values[valuesOffset] = (b0 << 13) | (b1 << 5) | (b2 >>> 3);
+    values[valuesOffset + 1] = ((b2 & 0x7) << 18) | (b3 << 10) | (b4 << 2) | (b5 >>> 6);
+    values[valuesOffset + 2] = ((b5 & 0x3F) << 15) | (b6 << 7) | (b7 >>> 1);
+    values[valuesOffset + 3] = ((b7 & 0x1) << 20) | (b8 << 12) | (b9 << 4) | (b10 >>> 4);
+    values[valuesOffset + 4] = ((b10 & 0xF) << 17) | (b11 << 9) | (b12 << 1) | (b13 >>> 7);
+    values[valuesOffset + 5] = ((b13 & 0x7F) << 14) | (b14 << 6) | (b15 >>> 2);
+    values[valuesOffset + 6] = ((b15 & 0x3) << 19) | (b16 << 11) | (b17 << 3) | (b18 >>> 5);
+    values[valuesOffset + 7] = ((b18 & 0x1F) << 16) | (b19 << 8) | b20;
+  }
+
+  private static void pack8Values22(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 14);
+    buf[bufOffset + 1] = (byte) (v0 >>> 6);
+    buf[bufOffset + 2] = (byte) ((v0 << 2) | (v1 >>> 20));
+    buf[bufOffset + 3] = (byte) (v1 >>> 12);
+    buf[bufOffset + 4] = (byte) (v1 >>> 4);
+    buf[bufOffset + 5] = (byte) ((v1 << 4) | (v2 >>> 18));
+    buf[bufOffset + 6] = (byte) (v2 >>> 10);
+    buf[bufOffset + 7] = (byte) (v2 >>> 2);
+    buf[bufOffset + 8] = (byte) ((v2 << 6) | (v3 >>> 16));
+    buf[bufOffset + 9] = (byte) (v3 >>> 8);
+    buf[bufOffset + 10] = (byte) v3;
+    buf[bufOffset + 11] = (byte) (v4 >>> 14);
+    buf[bufOffset + 12] = (byte) (v4 >>> 6);
+    buf[bufOffset + 13] = (byte) ((v4 << 2) | (v5 >>> 20));
+    buf[bufOffset + 14] = (byte) (v5 >>> 12);
+    buf[bufOffset + 15] = (byte) (v5 >>> 4);
+    buf[bufOffset + 16] = (byte) ((v5 << 4) | (v6 >>> 18));
+    buf[bufOffset + 17] = (byte) (v6 >>> 10);
+    buf[bufOffset + 18] = (byte) (v6 >>> 2);
+    buf[bufOffset + 19] = (byte) ((v6 << 6) | (v7 >>> 16));
+    buf[bufOffset + 20] = (byte) (v7 >>> 8);
+    buf[bufOffset + 21] = (byte) v7;
+  }
+
+  private static void unpack8Values22(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    int b19 = buf[offset + 19] & 0xFF;
+    int b20 = buf[offset + 20] & 0xFF;
+    int b21 = buf[offset + 21] & 0xFF;
+    values[valuesOffset] = (b0 << 14) | (b1 << 6) | (b2 >>> 2);
+    values[valuesOffset + 1] = ((b2 & 0x3) << 20) | (b3 << 12) | (b4 << 4) | (b5 >>> 4);
+    values[valuesOffset + 2] = ((b5 & 0xF) << 18) | (b6 << 10) | (b7 << 2) | (b8 >>> 6);
+    values[valuesOffset + 3] = ((b8 & 0x3F) << 16) | (b9 << 8) | b10;
+    values[valuesOffset + 4] = (b11 << 14) | (b12 << 6) | (b13 >>> 2);
+    values[valuesOffset + 5] = ((b13 & 0x3) << 20) | (b14 << 12) | (b15 << 4) | (b16 >>> 4);
+    values[valuesOffset + 6] = ((b16 & 0xF) << 18) | (b17 << 10) | (b18 << 2) | (b19 >>> 6);
+    values[valuesOffset + 7] = ((b19 & 0x3F) << 16) | (b20 << 8) | b21;
+  }
+
+  private static void pack8Values23(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 15);
+    buf[bufOffset + 1] = (byte) (v0 >>> 7);
+    buf[bufOffset + 2] = (byte) ((v0 << 1) | (v1 >>> 22));
+    buf[bufOffset + 3] = (byte) (v1 >>> 14);
+    buf[bufOffset + 4] = (byte) (v1 >>> 6);
+    buf[bufOffset + 5] = (byte) ((v1 << 2) | (v2 >>> 21));
+    buf[bufOffset + 6] = (byte) (v2 >>> 13);
+    buf[bufOffset + 7] = (byte) (v2 >>> 5);
+    buf[bufOffset + 8] = (byte) ((v2 << 3) | (v3 >>> 20));
+    buf[bufOffset + 9] = (byte) (v3 >>> 12);
+    buf[bufOffset + 10] = (byte) (v3 >>> 4);
+    buf[bufOffset + 11] = (byte) ((v3 << 4) | (v4 >>> 19));
+    buf[bufOffset + 12] = (byte) (v4 >>> 11);
+    buf[bufOffset + 13] = (byte) (v4 >>> 3);
+    buf[bufOffset + 14] = (byte) ((v4 << 5) | (v5 >>> 18));
+    buf[bufOffset + 15] = (byte) (v5 >>> 10);
+    buf[bufOffset + 16] = (byte) (v5 >>> 2);
+    buf[bufOffset + 17] = (byte) ((v5 << 6) | (v6 >>> 17));
+    buf[bufOffset + 18] = (byte) (v6 >>> 9);
+    buf[bufOffset + 19] = (byte) (v6 >>> 1);
+    buf[bufOffset + 20] = (byte) ((v6 << 7) | (v7 >>> 16));
+    buf[bufOffset + 21] = (byte) (v7 >>> 8);
+    buf[bufOffset + 22] = (byte) v7;
+  }
+
+  private static void unpack8Values23(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    int b19 = buf[offset + 19] & 0xFF;
+    int b20 = buf[offset + 20] & 0xFF;
+    int b21 = buf[offset + 21] & 0xFF;
+    int b22 = buf[offset + 22] & 0xFF;
+    values[valuesOffset] = (b0 << 15) | (b1 << 7) | (b2 >>> 1);
+    values[valuesOffset + 1] = ((b2 & 0x1) << 22) | (b3 << 14) | (b4 << 6) | (b5 >>> 2);
+    values[valuesOffset + 2] = ((b5 & 0x3) << 21) | (b6 << 13) | (b7 << 5) | (b8 >>> 3);
+    values[valuesOffset + 3] = ((b8 & 0x7) << 20) | (b9 << 12) | (b10 << 4) | (b11 >>> 4);
+    values[valuesOffset + 4] = ((b11 & 0xF) << 19) | (b12 << 11) | (b13 << 3) | (b14 >>> 5);
+    values[valuesOffset + 5] = ((b14 & 0x1F) << 18) | (b15 << 10) | (b16 << 2) | (b17 >>> 6);
+    values[valuesOffset + 6] = ((b17 & 0x3F) << 17) | (b18 << 9) | (b19 << 1) | (b20 >>> 7);
+    values[valuesOffset + 7] = ((b20 & 0x7F) << 16) | (b21 << 8) | b22;
+  }
+
+  private static void pack8Values24(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 16);
+    buf[bufOffset + 1] = (byte) (v0 >>> 8);
+    buf[bufOffset + 2] = (byte) v0;
+    buf[bufOffset + 3] = (byte) (v1 >>> 16);
+    buf[bufOffset + 4] = (byte) (v1 >>> 8);
+    buf[bufOffset + 5] = (byte) v1;
+    buf[bufOffset + 6] = (byte) (v2 >>> 16);
+    buf[bufOffset + 7] = (byte) (v2 >>> 8);
+    buf[bufOffset + 8] = (byte) v2;
+    buf[bufOffset + 9] = (byte) (v3 >>> 16);
+    buf[bufOffset + 10] = (byte) (v3 >>> 8);
+    buf[bufOffset + 11] = (byte) v3;
+    buf[bufOffset + 12] = (byte) (v4 >>> 16);
+    buf[bufOffset + 13] = (byte) (v4 >>> 8);
+    buf[bufOffset + 14] = (byte) v4;
+    buf[bufOffset + 15] = (byte) (v5 >>> 16);
+    buf[bufOffset + 16] = (byte) (v5 >>> 8);
+    buf[bufOffset + 17] = (byte) v5;
+    buf[bufOffset + 18] = (byte) (v6 >>> 16);
+    buf[bufOffset + 19] = (byte) (v6 >>> 8);
+    buf[bufOffset + 20] = (byte) v6;
+    buf[bufOffset + 21] = (byte) (v7 >>> 16);
+    buf[bufOffset + 22] = (byte) (v7 >>> 8);
+    buf[bufOffset + 23] = (byte) v7;
+  }
+
+  private static void unpack8Values24(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    int b19 = buf[offset + 19] & 0xFF;
+    int b20 = buf[offset + 20] & 0xFF;
+    int b21 = buf[offset + 21] & 0xFF;
+    int b22 = buf[offset + 22] & 0xFF;
+    int b23 = buf[offset + 23] & 0xFF;
+    values[valuesOffset] = (b0 << 16) | (b1 << 8) | b2;
+    values[valuesOffset + 1] = (b3 << 16) | (b4 << 8) | b5;
+    values[valuesOffset + 2] = (b6 << 16) | (b7 << 8) | b8;
+    values[valuesOffset + 3] = (b9 << 16) | (b10 << 8) | b11;
+    values[valuesOffset + 4] = (b12 << 16) | (b13 << 8) | b14;
+    values[valuesOffset + 5] = (b15 << 16) | (b16 << 8) | b17;
+    values[valuesOffset + 6] = (b18 << 16) | (b19 << 8) | b20;
+    values[valuesOffset + 7] = (b21 << 16) | (b22 << 8) | b23;
+  }
+
+  private static void pack8Values25(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 17);
+    buf[bufOffset + 1] = (byte) (v0 >>> 9);
+    buf[bufOffset + 2] = (byte) (v0 >>> 1);
+    buf[bufOffset + 3] = (byte) ((v0 << 7) | (v1 >>> 18));
+    buf[bufOffset + 4] = (byte) (v1 >>> 10);
+    buf[bufOffset + 5] = (byte) (v1 >>> 2);
+    buf[bufOffset + 6] = (byte) ((v1 << 6) | (v2 >>> 19));
+    buf[bufOffset + 7] = (byte) (v2 >>> 11);
+    buf[bufOffset + 8] = (byte) (v2 >>> 3);
+    buf[bufOffset + 9] = (byte) ((v2 << 5) | (v3 >>> 20));
+    buf[bufOffset + 10] = (byte) (v3 >>> 12);
+    buf[bufOffset + 11] = (byte) (v3 >>> 4);
+    buf[bufOffset + 12] = (byte) ((v3 << 4) | (v4 >>> 21));
+    buf[bufOffset + 13] = (byte) (v4 >>> 13);
+    buf[bufOffset + 14] = (byte) (v4 >>> 5);
+    buf[bufOffset + 15] = (byte) ((v4 << 3) | (v5 >>> 22));
+    buf[bufOffset + 16] = (byte) (v5 >>> 14);
+    buf[bufOffset + 17] = (byte) (v5 >>> 6);
+    buf[bufOffset + 18] = (byte) ((v5 << 2) | (v6 >>> 23));
+    buf[bufOffset + 19] = (byte) (v6 >>> 15);
+    buf[bufOffset + 20] = (byte) (v6 >>> 7);
+    buf[bufOffset + 21] = (byte) ((v6 << 1) | (v7 >>> 24));
+    buf[bufOffset + 22] = (byte) (v7 >>> 16);
+    buf[bufOffset + 23] = (byte) (v7 >>> 8);
+    buf[bufOffset + 24] = (byte) v7;
+  }
+
+  private static void unpack8Values25(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    int b19 = buf[offset + 19] & 0xFF;
+    int b20 = buf[offset + 20] & 0xFF;
+    int b21 = buf[offset + 21] & 0xFF;
+    int b22 = buf[offset + 22] & 0xFF;
+    int b23 = buf[offset + 23] & 0xFF;
+    int b24 = buf[offset + 24] & 0xFF;
+    values[valuesOffset] = (b0 << 17) | (b1 << 9) | (b2 << 1) | (b3 >>> 7);
+    values[valuesOffset + 1] = ((b3 & 0x7F) << 18) | (b4 << 10) | (b5 << 2) | (b6 >>> 6);
+    values[valuesOffset + 2] = ((b6 & 0x3F) << 19) | (b7 << 11) | (b8 << 3) | (b9 >>> 5);
+    values[valuesOffset + 3] = ((b9 & 0x1F) << 20) | (b10 << 12) | (b11 << 4) | (b12 >>> 4);
+    values[valuesOffset + 4] = ((b12 & 0xF) << 21) | (b13 << 13) | (b14 << 5) | (b15 >>> 3);
+    values[valuesOffset + 5] = ((b15 & 0x7) << 22) | (b16 << 14) | (b17 << 6) | (b18 >>> 2);
+    values[valuesOffset + 6] = ((b18 & 0x3) << 23) | (b19 << 15) | (b20 << 7) | (b21 >>> 1);
+    values[valuesOffset + 7] = ((b21 & 0x1) << 24) | (b22 << 16) | (b23 << 8) | b24;
+  }
+
+  private static void pack8Values26(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 18);
+    buf[bufOffset + 1] = (byte) (v0 >>> 10);
+    buf[bufOffset + 2] = (byte) (v0 >>> 2);
+    buf[bufOffset + 3] = (byte) ((v0 << 6) | (v1 >>> 20));
+    buf[bufOffset + 4] = (byte) (v1 >>> 12);
+    buf[bufOffset + 5] = (byte) (v1 >>> 4);
+    buf[bufOffset + 6] = (byte) ((v1 << 4) | (v2 >>> 22));
+    buf[bufOffset + 7] = (byte) (v2 >>> 14);
+    buf[bufOffset + 8] = (byte) (v2 >>> 6);
+    buf[bufOffset + 9] = (byte) ((v2 << 2) | (v3 >>> 24));
+    buf[bufOffset + 10] = (byte) (v3 >>> 16);
+    buf[bufOffset + 11] = (byte) (v3 >>> 8);
+    buf[bufOffset + 12] = (byte) v3;
+    buf[bufOffset + 13] = (byte) (v4 >>> 18);
+    buf[bufOffset + 14] = (byte) (v4 >>> 10);
+    buf[bufOffset + 15] = (byte) (v4 >>> 2);
+    buf[bufOffset + 16] = (byte) ((v4 << 6) | (v5 >>> 20));
+    buf[bufOffset + 17] = (byte) (v5 >>> 12);
+    buf[bufOffset + 18] = (byte) (v5 >>> 4);
+    buf[bufOffset + 19] = (byte) ((v5 << 4) | (v6 >>> 22));
+    buf[bufOffset + 20] = (byte) (v6 >>> 14);
+    buf[bufOffset + 21] = (byte) (v6 >>> 6);
+    buf[bufOffset + 22] = (byte) ((v6 << 2) | (v7 >>> 24));
+    buf[bufOffset + 23] = (byte) (v7 >>> 16);
+    buf[bufOffset + 24] = (byte) (v7 >>> 8);
+    buf[bufOffset + 25] = (byte) v7;
+  }
+
+  private static void unpack8Values26(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    int b19 = buf[offset + 19] & 0xFF;
+    int b20 = buf[offset + 20] & 0xFF;
+    int b21 = buf[offset + 21] & 0xFF;
+    int b22 = buf[offset + 22] & 0xFF;
+    int b23 = buf[offset + 23] & 0xFF;
+    int b24 = buf[offset + 24] & 0xFF;
+    int b25 = buf[offset + 25] & 0xFF;
+    values[valuesOffset] = (b0 << 18) | (b1 << 10) | (b2 << 2) | (b3 >>> 6);
+    values[valuesOffset + 1] = ((b3 & 0x3F) << 20) | (b4 << 12) | (b5 << 4) | (b6 >>> 4);
+    values[valuesOffset + 2] = ((b6 & 0xF) << 22) | (b7 << 14) | (b8 << 6) | (b9 >>> 2);
+    values[valuesOffset + 3] = ((b9 & 0x3) << 24) | (b10 << 16) | (b11 << 8) | b12;
+    values[valuesOffset + 4] = (b13 << 18) | (b14 << 10) | (b15 << 2) | (b16 >>> 6);
+    values[valuesOffset + 5] = ((b16 & 0x3F) << 20) | (b17 << 12) | (b18 << 4) | (b19 >>> 4);
+    values[valuesOffset + 6] = ((b19 & 0xF) << 22) | (b20 << 14) | (b21 << 6) | (b22 >>> 2);
+    values[valuesOffset + 7] = ((b22 & 0x3) << 24) | (b23 << 16) | (b24 << 8) | b25;
+  }
+
+  private static void pack8Values27(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 19);
+    buf[bufOffset + 1] = (byte) (v0 >>> 11);
+    buf[bufOffset + 2] = (byte) (v0 >>> 3);
+    buf[bufOffset + 3] = (byte) ((v0 << 5) | (v1 >>> 22));
+    buf[bufOffset + 4] = (byte) (v1 >>> 14);
+    buf[bufOffset + 5] = (byte) (v1 >>> 6);
+    buf[bufOffset + 6] = (byte) ((v1 << 2) | (v2 >>> 25));
+    buf[bufOffset + 7] = (byte) (v2 >>> 17);
+    buf[bufOffset + 8] = (byte) (v2 >>> 9);
+    buf[bufOffset + 9] = (byte) (v2 >>> 1);
+    buf[bufOffset + 10] = (byte) ((v2 << 7) | (v3 >>> 20));
+    buf[bufOffset + 11] = (byte) (v3 >>> 12);
+    buf[bufOffset + 12] = (byte) (v3 >>> 4);
+    buf[bufOffset + 13] = (byte) ((v3 << 4) | (v4 >>> 23));
+    buf[bufOffset + 14] = (byte) (v4 >>> 15);
+    buf[bufOffset + 15] = (byte) (v4 >>> 7);
+    buf[bufOffset + 16] = (byte) ((v4 << 1) | (v5 >>> 26));
+    buf[bufOffset + 17] = (byte) (v5 >>> 18);
+    buf[bufOffset + 18] = (byte) (v5 >>> 10);
+    buf[bufOffset + 19] = (byte) (v5 >>> 2);
+    buf[bufOffset + 20] = (byte) ((v5 << 6) | (v6 >>> 21));
+    buf[bufOffset + 21] = (byte) (v6 >>> 13);
+    buf[bufOffset + 22] = (byte) (v6 >>> 5);
+    buf[bufOffset + 23] = (byte) ((v6 << 3) | (v7 >>> 24));
+    buf[bufOffset + 24] = (byte) (v7 >>> 16);
+    buf[bufOffset + 25] = (byte) (v7 >>> 8);
+    buf[bufOffset + 26] = (byte) v7;
+  }
+
+  private static void unpack8Values27(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    int b19 = buf[offset + 19] & 0xFF;
+    int b20 = buf[offset + 20] & 0xFF;
+    int b21 = buf[offset + 21] & 0xFF;
+    int b22 = buf[offset + 22] & 0xFF;
+    int b23 = buf[offset + 23] & 0xFF;
+    int b24 = buf[offset + 24] & 0xFF;
+    int b25 = buf[offset + 25] & 0xFF;
+    int b26 = buf[offset + 26] & 0xFF;
+    values[valuesOffset] = (b0 << 19) | (b1 << 11) | (b2 << 3) | (b3 >>> 5);
+    values[valuesOffset + 1] = ((b3 & 0x1F) << 22) | (b4 << 14) | (b5 << 6) | (b6 >>> 2);
+    values[valuesOffset + 2] =
+        ((b6 & 0x3) << 25) | (b7 << 17) | (b8 << 9) | (b9 << 1) | (b10 >>> 7);
+    values[valuesOffset + 3] = ((b10 & 0x7F) << 20) | (b11 << 12) | (b12 << 4) | (b13 >>> 4);
+    values[valuesOffset + 4] = ((b13 & 0xF) << 23) | (b14 << 15) | (b15 << 7) | (b16 >>> 1);
+    values[valuesOffset + 5] =
+        ((b16 & 0x1) << 26) | (b17 << 18) | (b18 << 10) | (b19 << 2) | (b20 >>> 6);
+    values[valuesOffset + 6] = ((b20 & 0x3F) << 21) | (b21 << 13) | (b22 << 5) | (b23 >>> 3);
+    values[valuesOffset + 7] = ((b23 & 0x7) << 24) | (b24 << 16) | (b25 << 8) | b26;
+  }
+
+  private static void pack8Values28(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 20);
+    buf[bufOffset + 1] = (byte) (v0 >>> 12);
+    buf[bufOffset + 2] = (byte) (v0 >>> 4);
+    buf[bufOffset + 3] = (byte) ((v0 << 4) | (v1 >>> 24));
+    buf[bufOffset + 4] = (byte) (v1 >>> 16);
+    buf[bufOffset + 5] = (byte) (v1 >>> 8);
+    buf[bufOffset + 6] = (byte) v1;
+    buf[bufOffset + 7] = (byte) (v2 >>> 20);
+    buf[bufOffset + 8] = (byte) (v2 >>> 12);
+    buf[bufOffset + 9] = (byte) (v2 >>> 4);
+    buf[bufOffset + 10] = (byte) ((v2 << 4) | (v3 >>> 24));
+    buf[bufOffset + 11] = (byte) (v3 >>> 16);
+    buf[bufOffset + 12] = (byte) (v3 >>> 8);
+    buf[bufOffset + 13] = (byte) v3;
+    buf[bufOffset + 14] = (byte) (v4 >>> 20);
+    buf[bufOffset + 15] = (byte) (v4 >>> 12);
+    buf[bufOffset + 16] = (byte) (v4 >>> 4);
+    buf[bufOffset + 17] = (byte) ((v4 << 4) | (v5 >>> 24));
+    buf[bufOffset + 18] = (byte) (v5 >>> 16);
+    buf[bufOffset + 19] = (byte) (v5 >>> 8);
+    buf[bufOffset + 20] = (byte) v5;
+    buf[bufOffset + 21] = (byte) (v6 >>> 20);
+    buf[bufOffset + 22] = (byte) (v6 >>> 12);
+    buf[bufOffset + 23] = (byte) (v6 >>> 4);
+    buf[bufOffset + 24] = (byte) ((v6 << 4) | (v7 >>> 24));
+    buf[bufOffset + 25] = (byte) (v7 >>> 16);
+    buf[bufOffset + 26] = (byte) (v7 >>> 8);
+    buf[bufOffset + 27] = (byte) v7;
+  }
+
+  private static void unpack8Values28(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    int b19 = buf[offset + 19] & 0xFF;
+    int b20 = buf[offset + 20] & 0xFF;
+    int b21 = buf[offset + 21] & 0xFF;
+    int b22 = buf[offset + 22] & 0xFF;
+    int b23 = buf[offset + 23] & 0xFF;
+    int b24 = buf[offset + 24] & 0xFF;
+    int b25 = buf[offset + 25] & 0xFF;
+    int b26 = buf[offset + 26] & 0xFF;
+    int b27 = buf[offset + 27] & 0xFF;
+    values[valuesOffset] = (b0 << 20) | (b1 << 12) | (b2 << 4) | (b3 >>> 4);
+    values[valuesOffset + 1] = ((b3 & 0xF) << 24) | (b4 << 16) | (b5 << 8) | b6;
+    values[valuesOffset + 2] = (b7 << 20) | (b8 << 12) | (b9 << 4) | (b10 >>> 4);
+    values[valuesOffset + 3] = ((b10 & 0xF) << 24) | (b11 << 16) | (b12 << 8) | b13;
+    values[valuesOffset + 4] = (b14 << 20) | (b15 << 12) | (b16 << 4) | (b17 >>> 4);
+    values[valuesOffset + 5] = ((b17 & 0xF) << 24) | (b18 << 16) | (b19 << 8) | b20;
+    values[valuesOffset + 6] = (b21 << 20) | (b22 << 12) | (b23 << 4) | (b24 >>> 4);
+    values[valuesOffset + 7] = ((b24 & 0xF) << 24) | (b25 << 16) | (b26 << 8) | b27;
+  }
+
+  private static void pack8Values29(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 21);
+    buf[bufOffset + 1] = (byte) (v0 >>> 13);
+    buf[bufOffset + 2] = (byte) (v0 >>> 5);
+    buf[bufOffset + 3] = (byte) ((v0 << 3) | (v1 >>> 26));
+    buf[bufOffset + 4] = (byte) (v1 >>> 18);
+    buf[bufOffset + 5] = (byte) (v1 >>> 10);
+    buf[bufOffset + 6] = (byte) (v1 >>> 2);
+    buf[bufOffset + 7] = (byte) ((v1 << 6) | (v2 >>> 23));
+    buf[bufOffset + 8] = (byte) (v2 >>> 15);
+    buf[bufOffset + 9] = (byte) (v2 >>> 7);
+    buf[bufOffset + 10] = (byte) ((v2 << 1) | (v3 >>> 28));
+    buf[bufOffset + 11] = (byte) (v3 >>> 20);
+    buf[bufOffset + 12] = (byte) (v3 >>> 12);
+    buf[bufOffset + 13] = (byte) (v3 >>> 4);
+    buf[bufOffset + 14] = (byte) ((v3 << 4) | (v4 >>> 25));
+    buf[bufOffset + 15] = (byte) (v4 >>> 17);
+    buf[bufOffset + 16] = (byte) (v4 >>> 9);
+    buf[bufOffset + 17] = (byte) (v4 >>> 1);
+    buf[bufOffset + 18] = (byte) ((v4 << 7) | (v5 >>> 22));
+    buf[bufOffset + 19] = (byte) (v5 >>> 14);
+    buf[bufOffset + 20] = (byte) (v5 >>> 6);
+    buf[bufOffset + 21] = (byte) ((v5 << 2) | (v6 >>> 27));
+    buf[bufOffset + 22] = (byte) (v6 >>> 19);
+    buf[bufOffset + 23] = (byte) (v6 >>> 11);
+    buf[bufOffset + 24] = (byte) (v6 >>> 3);
+    buf[bufOffset + 25] = (byte) ((v6 << 5) | (v7 >>> 24));
+    buf[bufOffset + 26] = (byte) (v7 >>> 16);
+    buf[bufOffset + 27] = (byte) (v7 >>> 8);
+    buf[bufOffset + 28] = (byte) v7;
+  }
+
+  private static void unpack8Values29(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    int b19 = buf[offset + 19] & 0xFF;
+    int b20 = buf[offset + 20] & 0xFF;
+    int b21 = buf[offset + 21] & 0xFF;
+    int b22 = buf[offset + 22] & 0xFF;
+    int b23 = buf[offset + 23] & 0xFF;
+    int b24 = buf[offset + 24] & 0xFF;
+    int b25 = buf[offset + 25] & 0xFF;
+    int b26 = buf[offset + 26] & 0xFF;
+    int b27 = buf[offset + 27] & 0xFF;
+    int b28 = buf[offset + 28] & 0xFF;
+    values[valuesOffset] = (b0 << 21) | (b1 << 13) | (b2 << 5) | (b3 >>> 3);
+    values[valuesOffset + 1] =
+        ((b3 & 0x7) << 26) | (b4 << 18) | (b5 << 10) | (b6 << 2) | (b7 >>> 6);
+    values[valuesOffset + 2] = ((b7 & 0x3F) << 23) | (b8 << 15) | (b9 << 7) | (b10 >>> 1);
+    values[valuesOffset + 3] =
+        ((b10 & 0x1) << 28) | (b11 << 20) | (b12 << 12) | (b13 << 4) | (b14 >>> 4);
+    values[valuesOffset + 4] =
+        ((b14 & 0xF) << 25) | (b15 << 17) | (b16 << 9) | (b17 << 1) | (b18 >>> 7);
+    values[valuesOffset + 5] = ((b18 & 0x7F) << 22) | (b19 << 14) | (b20 << 6) | (b21 >>> 2);
+    values[valuesOffset + 6] =
+        ((b21 & 0x3) << 27) | (b22 << 19) | (b23 << 11) | (b24 << 3) | (b25 >>> 5);
+    values[valuesOffset + 7] = ((b25 & 0x1F) << 24) | (b26 << 16) | (b27 << 8) | b28;
+  }
+
+  private static void pack8Values30(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 22);
+    buf[bufOffset + 1] = (byte) (v0 >>> 14);
+    buf[bufOffset + 2] = (byte) (v0 >>> 6);
+    buf[bufOffset + 3] = (byte) ((v0 << 2) | (v1 >>> 28));
+    buf[bufOffset + 4] = (byte) (v1 >>> 20);
+    buf[bufOffset + 5] = (byte) (v1 >>> 12);
+    buf[bufOffset + 6] = (byte) (v1 >>> 4);
+    buf[bufOffset + 7] = (byte) ((v1 << 4) | (v2 >>> 26));
+    buf[bufOffset + 8] = (byte) (v2 >>> 18);
+    buf[bufOffset + 9] = (byte) (v2 >>> 10);
+    buf[bufOffset + 10] = (byte) (v2 >>> 2);
+    buf[bufOffset + 11] = (byte) ((v2 << 6) | (v3 >>> 24));
+    buf[bufOffset + 12] = (byte) (v3 >>> 16);
+    buf[bufOffset + 13] = (byte) (v3 >>> 8);
+    buf[bufOffset + 14] = (byte) v3;
+    buf[bufOffset + 15] = (byte) (v4 >>> 22);
+    buf[bufOffset + 16] = (byte) (v4 >>> 14);
+    buf[bufOffset + 17] = (byte) (v4 >>> 6);
+    buf[bufOffset + 18] = (byte) ((v4 << 2) | (v5 >>> 28));
+    buf[bufOffset + 19] = (byte) (v5 >>> 20);
+    buf[bufOffset + 20] = (byte) (v5 >>> 12);
+    buf[bufOffset + 21] = (byte) (v5 >>> 4);
+    buf[bufOffset + 22] = (byte) ((v5 << 4) | (v6 >>> 26));
+    buf[bufOffset + 23] = (byte) (v6 >>> 18);
+    buf[bufOffset + 24] = (byte) (v6 >>> 10);
+    buf[bufOffset + 25] = (byte) (v6 >>> 2);
+    buf[bufOffset + 26] = (byte) ((v6 << 6) | (v7 >>> 24));
+    buf[bufOffset + 27] = (byte) (v7 >>> 16);
+    buf[bufOffset + 28] = (byte) (v7 >>> 8);
+    buf[bufOffset + 29] = (byte) v7;
+  }
+
+  private static void unpack8Values30(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    int b19 = buf[offset + 19] & 0xFF;
+    int b20 = buf[offset + 20] & 0xFF;
+    int b21 = buf[offset + 21] & 0xFF;
+    int b22 = buf[offset + 22] & 0xFF;
+    int b23 = buf[offset + 23] & 0xFF;
+    int b24 = buf[offset + 24] & 0xFF;
+    int b25 = buf[offset + 25] & 0xFF;
+    int b26 = buf[offset + 26] & 0xFF;
+    int b27 = buf[offset + 27] & 0xFF;
+    int b28 = buf[offset + 28] & 0xFF;
+    int b29 = buf[offset + 29] & 0xFF;
+    values[valuesOffset] = (b0 << 22) | (b1 << 14) | (b2 << 6) | (b3 >>> 2);
+    values[valuesOffset + 1] =
+        ((b3 & 0x3) << 28) | (b4 << 20) | (b5 << 12) | (b6 << 4) | (b7 >>> 4);
+    values[valuesOffset + 2] =
+        ((b7 & 0xF) << 26) | (b8 << 18) | (b9 << 10) | (b10 << 2) | (b11 >>> 6);
+    values[valuesOffset + 3] = ((b11 & 0x3F) << 24) | (b12 << 16) | (b13 << 8) | b14;
+    values[valuesOffset + 4] = (b15 << 22) | (b16 << 14) | (b17 << 6) | (b18 >>> 2);
+    values[valuesOffset + 5] =
+        ((b18 & 0x3) << 28) | (b19 << 20) | (b20 << 12) | (b21 << 4) | (b22 >>> 4);
+    values[valuesOffset + 6] =
+        ((b22 & 0xF) << 26) | (b23 << 18) | (b24 << 10) | (b25 << 2) | (b26 >>> 6);
+    values[valuesOffset + 7] = ((b26 & 0x3F) << 24) | (b27 << 16) | (b28 << 8) | b29;
+  }
+
+  private static void pack8Values31(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 23);
+    buf[bufOffset + 1] = (byte) (v0 >>> 15);
+    buf[bufOffset + 2] = (byte) (v0 >>> 7);
+    buf[bufOffset + 3] = (byte) ((v0 << 1) | (v1 >>> 30));
+    buf[bufOffset + 4] = (byte) (v1 >>> 22);
+    buf[bufOffset + 5] = (byte) (v1 >>> 14);
+    buf[bufOffset + 6] = (byte) (v1 >>> 6);
+    buf[bufOffset + 7] = (byte) ((v1 << 2) | (v2 >>> 29));
+    buf[bufOffset + 8] = (byte) (v2 >>> 21);
+    buf[bufOffset + 9] = (byte) (v2 >>> 13);
+    buf[bufOffset + 10] = (byte) (v2 >>> 5);
+    buf[bufOffset + 11] = (byte) ((v2 << 3) | (v3 >>> 28));
+    buf[bufOffset + 12] = (byte) (v3 >>> 20);
+    buf[bufOffset + 13] = (byte) (v3 >>> 12);
+    buf[bufOffset + 14] = (byte) (v3 >>> 4);
+    buf[bufOffset + 15] = (byte) ((v3 << 4) | (v4 >>> 27));
+    buf[bufOffset + 16] = (byte) (v4 >>> 19);
+    buf[bufOffset + 17] = (byte) (v4 >>> 11);
+    buf[bufOffset + 18] = (byte) (v4 >>> 3);
+    buf[bufOffset + 19] = (byte) ((v4 << 5) | (v5 >>> 26));
+    buf[bufOffset + 20] = (byte) (v5 >>> 18);
+    buf[bufOffset + 21] = (byte) (v5 >>> 10);
+    buf[bufOffset + 22] = (byte) (v5 >>> 2);
+    buf[bufOffset + 23] = (byte) ((v5 << 6) | (v6 >>> 25));
+    buf[bufOffset + 24] = (byte) (v6 >>> 17);
+    buf[bufOffset + 25] = (byte) (v6 >>> 9);
+    buf[bufOffset + 26] = (byte) (v6 >>> 1);
+    buf[bufOffset + 27] = (byte) ((v6 << 7) | (v7 >>> 24));
+    buf[bufOffset + 28] = (byte) (v7 >>> 16);
+    buf[bufOffset + 29] = (byte) (v7 >>> 8);
+    buf[bufOffset + 30] = (byte) v7;
+  }
+
+  private static void unpack8Values31(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    int b19 = buf[offset + 19] & 0xFF;
+    int b20 = buf[offset + 20] & 0xFF;
+    int b21 = buf[offset + 21] & 0xFF;
+    int b22 = buf[offset + 22] & 0xFF;
+    int b23 = buf[offset + 23] & 0xFF;
+    int b24 = buf[offset + 24] & 0xFF;
+    int b25 = buf[offset + 25] & 0xFF;
+    int b26 = buf[offset + 26] & 0xFF;
+    int b27 = buf[offset + 27] & 0xFF;
+    int b28 = buf[offset + 28] & 0xFF;
+    int b29 = buf[offset + 29] & 0xFF;
+    int b30 = buf[offset + 30] & 0xFF;
+    values[valuesOffset] = (b0 << 23) | (b1 << 15) | (b2 << 7) | (b3 >>> 1);
+    values[valuesOffset + 1] =
+        ((b3 & 0x1) << 30) | (b4 << 22) | (b5 << 14) | (b6 << 6) | (b7 >>> 2);
+    values[valuesOffset + 2] =
+        ((b7 & 0x3) << 29) | (b8 << 21) | (b9 << 13) | (b10 << 5) | (b11 >>> 3);
+    values[valuesOffset + 3] =
+        ((b11 & 0x7) << 28) | (b12 << 20) | (b13 << 12) | (b14 << 4) | (b15 >>> 4);
+    values[valuesOffset + 4] =
+        ((b15 & 0xF) << 27) | (b16 << 19) | (b17 << 11) | (b18 << 3) | (b19 >>> 5);
+    values[valuesOffset + 5] =
+        ((b19 & 0x1F) << 26) | (b20 << 18) | (b21 << 10) | (b22 << 2) | (b23 >>> 6);
+    values[valuesOffset + 6] =
+        ((b23 & 0x3F) << 25) | (b24 << 17) | (b25 << 9) | (b26 << 1) | (b27 >>> 7);
+    values[valuesOffset + 7] = ((b27 & 0x7F) << 24) | (b28 << 16) | (b29 << 8) | b30;
+  }
+
+  private static void pack8Values32(int[] values, int offset, byte[] buf, int bufOffset) {
+    int v0 = values[offset];
+    int v1 = values[offset + 1];
+    int v2 = values[offset + 2];
+    int v3 = values[offset + 3];
+    int v4 = values[offset + 4];
+    int v5 = values[offset + 5];
+    int v6 = values[offset + 6];
+    int v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 24);
+    buf[bufOffset + 1] = (byte) (v0 >>> 16);
+    buf[bufOffset + 2] = (byte) (v0 >>> 8);
+    buf[bufOffset + 3] = (byte) v0;
+    buf[bufOffset + 4] = (byte) (v1 >>> 24);
+    buf[bufOffset + 5] = (byte) (v1 >>> 16);
+    buf[bufOffset + 6] = (byte) (v1 >>> 8);
+    buf[bufOffset + 7] = (byte) v1;
+    buf[bufOffset + 8] = (byte) (v2 >>> 24);
+    buf[bufOffset + 9] = (byte) (v2 >>> 16);
+    buf[bufOffset + 10] = (byte) (v2 >>> 8);
+    buf[bufOffset + 11] = (byte) v2;
+    buf[bufOffset + 12] = (byte) (v3 >>> 24);
+    buf[bufOffset + 13] = (byte) (v3 >>> 16);
+    buf[bufOffset + 14] = (byte) (v3 >>> 8);
+    buf[bufOffset + 15] = (byte) v3;
+    buf[bufOffset + 16] = (byte) (v4 >>> 24);
+    buf[bufOffset + 17] = (byte) (v4 >>> 16);
+    buf[bufOffset + 18] = (byte) (v4 >>> 8);
+    buf[bufOffset + 19] = (byte) v4;
+    buf[bufOffset + 20] = (byte) (v5 >>> 24);
+    buf[bufOffset + 21] = (byte) (v5 >>> 16);
+    buf[bufOffset + 22] = (byte) (v5 >>> 8);
+    buf[bufOffset + 23] = (byte) v5;
+    buf[bufOffset + 24] = (byte) (v6 >>> 24);
+    buf[bufOffset + 25] = (byte) (v6 >>> 16);
+    buf[bufOffset + 26] = (byte) (v6 >>> 8);
+    buf[bufOffset + 27] = (byte) v6;
+    buf[bufOffset + 28] = (byte) (v7 >>> 24);
+    buf[bufOffset + 29] = (byte) (v7 >>> 16);
+    buf[bufOffset + 30] = (byte) (v7 >>> 8);
+    buf[bufOffset + 31] = (byte) v7;
+  }
+
+  private static void unpack8Values32(byte[] buf, int offset, int[] values, int valuesOffset) {
+    int b0 = buf[offset] & 0xFF;
+    int b1 = buf[offset + 1] & 0xFF;
+    int b2 = buf[offset + 2] & 0xFF;
+    int b3 = buf[offset + 3] & 0xFF;
+    int b4 = buf[offset + 4] & 0xFF;
+    int b5 = buf[offset + 5] & 0xFF;
+    int b6 = buf[offset + 6] & 0xFF;
+    int b7 = buf[offset + 7] & 0xFF;
+    int b8 = buf[offset + 8] & 0xFF;
+    int b9 = buf[offset + 9] & 0xFF;
+    int b10 = buf[offset + 10] & 0xFF;
+    int b11 = buf[offset + 11] & 0xFF;
+    int b12 = buf[offset + 12] & 0xFF;
+    int b13 = buf[offset + 13] & 0xFF;
+    int b14 = buf[offset + 14] & 0xFF;
+    int b15 = buf[offset + 15] & 0xFF;
+    int b16 = buf[offset + 16] & 0xFF;
+    int b17 = buf[offset + 17] & 0xFF;
+    int b18 = buf[offset + 18] & 0xFF;
+    int b19 = buf[offset + 19] & 0xFF;
+    int b20 = buf[offset + 20] & 0xFF;
+    int b21 = buf[offset + 21] & 0xFF;
+    int b22 = buf[offset + 22] & 0xFF;
+    int b23 = buf[offset + 23] & 0xFF;
+    int b24 = buf[offset + 24] & 0xFF;
+    int b25 = buf[offset + 25] & 0xFF;
+    int b26 = buf[offset + 26] & 0xFF;
+    int b27 = buf[offset + 27] & 0xFF;
+    int b28 = buf[offset + 28] & 0xFF;
+    int b29 = buf[offset + 29] & 0xFF;
+    int b30 = buf[offset + 30] & 0xFF;
+    int b31 = buf[offset + 31] & 0xFF;
+    values[valuesOffset] = (b0 << 24) | (b1 << 16) | (b2 << 8) | b3;
+    values[valuesOffset + 1] = (b4 << 24) | (b5 << 16) | (b6 << 8) | b7;
+    values[valuesOffset + 2] = (b8 << 24) | (b9 << 16) | (b10 << 8) | b11;
+    values[valuesOffset + 3] = (b12 << 24) | (b13 << 16) | (b14 << 8) | b15;
+    values[valuesOffset + 4] = (b16 << 24) | (b17 << 16) | (b18 << 8) | b19;
+    values[valuesOffset + 5] = (b20 << 24) | (b21 << 16) | (b22 << 8) | b23;
+    values[valuesOffset + 6] = (b24 << 24) | (b25 << 16) | (b26 << 8) | b27;
+    values[valuesOffset + 7] = (b28 << 24) | (b29 << 16) | (b30 << 8) | b31;
+  }
+}
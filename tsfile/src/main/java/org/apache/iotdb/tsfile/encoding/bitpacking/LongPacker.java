@@ -56,48 +56,7 @@ public class LongPacker {
    *     {@link IntPacker#width} / 8)
    */
   public void pack8Values(long[] values, int offset, byte[] buf) {
-
-    int bufIdx = 0;
-    int valueIdx = offset;
-    // remaining bits for the current unfinished Integer
-    int leftBit = 0;
-
-    while (valueIdx < NUM_OF_LONGS + offset) {
-      // buffer is used for saving 64 bits as a part of result
-      long buffer = 0;
-      // remaining size of bits in the 'buffer'
-      int leftSize = 64;
-
-      // encode the left bits of current Long to 'buffer'
-      if (leftBit > 0) {
-        buffer |= (values[valueIdx] << (64 - leftBit));
-        leftSize -= leftBit;
-        leftBit = 0;
-        valueIdx++;
-      }
-
-      while (leftSize >= width && valueIdx < NUM_OF_LONGS + offset) {
-        // encode one Long to the 'buffer'
-        buffer |= (values[valueIdx] << (leftSize - width));
-        leftSize -= width;
-        valueIdx++;
-      }
-      // If the remaining space of the buffer can not save the bits for one Long
-      if (leftSize > 0 && valueIdx < NUM_OF_LONGS + offset) {
-        // put the first 'leftSize' bits of the Long into remaining space of the buffer
-        buffer |= (values[valueIdx] >>> (width - leftSize));
-        leftBit = width - leftSize;
-      }
-
-      // put the buffer into the final result
-      for (int j = 0; j < 8; j++) {
-        buf[bufIdx] = (byte) ((buffer >>> ((8 - j - 1) * 8)) & 0xFF);
-        bufIdx++;
-        if (bufIdx >= width * 8 / 8) {
-          return;
-        }
-      }
-    }
+    LongPackerKernels.pack8Values(width, values, offset, buf, 0);
   }
 
   /**
@@ -108,44 +67,7 @@ public class LongPacker {
    * @param values - decoded result , the size of values should be 8
    */
   public void unpack8Values(byte[] buf, int offset, long[] values) {
-    int byteIdx = offset;
-    int valueIdx = 0;
-    // left bit(s) available for current byte in 'buf'
-    int leftBits = 8;
-    // bits that has been read for current long value which is to be decoded
-    int totalBits = 0;
-
-    // decode long value one by one
-    while (valueIdx < 8) {
-      // set all the 64 bits in current value to '0'
-      values[valueIdx] = 0;
-      // read until 'totalBits' is equal to width
-      while (totalBits < width) {
-        // If 'leftBits' in current byte belongs to current long value
-        if (width - totalBits >= leftBits) {
-          // then put left bits in current byte to current long value
-          values[valueIdx] = values[valueIdx] << leftBits;
-          values[valueIdx] = values[valueIdx] | (((1L << leftBits) - 1) & buf[byteIdx]);
-          totalBits += leftBits;
-          // get next byte
-          byteIdx++;
-          // set 'leftBits' in next byte to 8 because the next byte has not been used
-          leftBits = 8;
-          // Else take part of bits in 'leftBits' to current value.
-        } else {
-          // numbers of bits to be take
-          int t = width - totalBits;
-          values[valueIdx] = values[valueIdx] << t;
-          values[valueIdx] =
-              values[valueIdx] | (((1L << leftBits) - 1) & buf[byteIdx]) >>> (leftBits - t);
-          leftBits -= t;
-          totalBits += t;
-        }
-      }
-      // Start to decode next long value
-      valueIdx++;
-      totalBits = 0;
-    }
+    LongPackerKernels.unpack8Values(width, buf, offset, values, 0);
   }
 
   /**
@@ -160,13 +82,10 @@ public class LongPacker {
     int idx = 0;
     int k = 0;
     while (idx < length) {
-      long[] tv = new long[8];
-      // decode 8 values one time, current result will be saved in the array named
-      // 'tv'
-      unpack8Values(buf, idx, tv);
-      System.arraycopy(tv, 0, values, k, 8);
+      // decode 8 values one time
+      LongPackerKernels.unpack8Values(width, buf, idx, values, k);
       idx += width;
-      k += 8;
+      k += NUM_OF_LONGS;
     }
   }
 
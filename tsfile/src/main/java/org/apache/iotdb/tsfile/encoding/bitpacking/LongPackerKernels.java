@@ -0,0 +1,7130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.bitpacking;
+
+import java.util.Arrays;
+
+/**
+ * Packs and unpacks 8 Longs of each bit-width in the layout of {@link LongPacker}, with
+ * straight-line code instead of loops over the bits, so that the JIT compiles every bit-width to a
+ * few shifts and masks per value.
+ *
+ * <p>This class is generated by tsfile/src/main/codegen/gen_packer_kernels.py, do not edit it.
+ */
+public class LongPackerKernels {
+
+  private LongPackerKernels() {
+    // util class
+  }
+
+  /**
+   * Encode 8 values of the array 'values' with specified bit-width to 'width' bytes.
+   *
+   * @param width bit-width, which every value must fit in
+   * @param values array where the 8 values are in
+   * @param offset the offset of the first value to be encoded
+   * @param buf array where the encoded bytes are written
+   * @param bufOffset the offset of the first encoded byte in buf
+   */
+  public static void pack8Values(int width, long[] values, int offset, byte[] buf, int bufOffset) {
+    switch (width) {
+      case 0:
+        break;
+      case 1:
+        pack8Values1(values, offset, buf, bufOffset);
+        break;
+      case 2:
+        pack8Values2(values, offset, buf, bufOffset);
+        break;
+      case 3:
+        pack8Values3(values, offset, buf, bufOffset);
+        break;
+      case 4:
+        pack8Values4(values, offset, buf, bufOffset);
+        break;
+      case 5:
+        pack8Values5(values, offset, buf, bufOffset);
+        break;
+      case 6:
+        pack8Values6(values, offset, buf, bufOffset);
+        break;
+      case 7:
+        pack8Values7(values, offset, buf, bufOffset);
+        break;
+      case 8:
+        pack8Values8(values, offset, buf, bufOffset);
+        break;
+      case 9:
+        pack8Values9(values, offset, buf, bufOffset);
+        break;
+      case 10:
+        pack8Values10(values, offset, buf, bufOffset);
+        break;
+      case 11:
+        pack8Values11(values, offset, buf, bufOffset);
+        break;
+      case 12:
+        pack8Values12(values, offset, buf, bufOffset);
+        break;
+      case 13:
+        pack8Values13(values, offset, buf, bufOffset);
+        break;
+      case 14:
+        pack8Values14(values, offset, buf, bufOffset);
+        break;
+      case 15:
+        pack8Values15(values, offset, buf, bufOffset);
+        break;
+      case 16:
+        pack8Values16(values, offset, buf, bufOffset);
+        break;
+      case 17:
+        pack8Values17(values, offset, buf, bufOffset);
+        break;
+      case 18:
+        pack8Values18(values, offset, buf, bufOffset);
+        break;
+      case 19:
+        pack8Values19(values, offset, buf, bufOffset);
+        break;
+      case 20:
+        pack8Values20(values, offset, buf, bufOffset);
+        break;
+      case 21:
+        pack8Values21(values, offset, buf, bufOffset);
+        break;
+      case 22:
+        pack8Values22(values, offset, buf, bufOffset);
+        break;
+      case 23:
+        pack8Values23(values, offset, buf, bufOffset);
+        break;
+      case 24:
+        pack8Values24(values, offset, buf, bufOffset);
+        break;
+      case 25:
+        pack8Values25(values, offset, buf, bufOffset);
+        break;
+      case 26:
+        pack8Values26(values, offset, buf, bufOffset);
+        break;
+      case 27:
+        pack8Values27(values, offset, buf, bufOffset);
+        break;
+      case 28:
+        pack8Values28(values, offset, buf, bufOffset);
+        break;
+      case 29:
+        pack8Values29(values, offset, buf, bufOffset);
+        break;
+      case 30:
+        pack8Values30(values, offset, buf, bufOffset);
+        break;
+      case 31:
+        pack8Values31(values, offset, buf, bufOffset);
+        break;
+      case 32:
+        pack8Values32(values, offset, buf, bufOffset);
+        break;
+      case 33:
+        pack8Values33(values, offset, buf, bufOffset);
+        break;
+      case 34:
+        pack8Values34(values, offset, buf, bufOffset);
+        break;
+      case 35:
+        pack8Values35(values, offset, buf, bufOffset);
+        break;
+      case 36:
+        pack8Values36(values, offset, buf, bufOffset);
+        break;
+      case 37:
+        pack8Values37(values, offset, buf, bufOffset);
+        break;
+      case 38:
+        pack8Values38(values, offset, buf, bufOffset);
+        break;
+      case 39:
+        pack8Values39(values, offset, buf, bufOffset);
+        break;
+      case 40:
+        pack8Values40(values, offset, buf, bufOffset);
+        break;
+      case 41:
+        pack8Values41(values, offset, buf, bufOffset);
+        break;
+      case 42:
+        pack8Values42(values, offset, buf, bufOffset);
+        break;
+      case 43:
+        pack8Values43(values, offset, buf, bufOffset);
+        break;
+      case 44:
+        pack8Values44(values, offset, buf, bufOffset);
+        break;
+      case 45:
+        pack8Values45(values, offset, buf, bufOffset);
+        break;
+      case 46:
+        pack8Values46(values, offset, buf, bufOffset);
+        break;
+      case 47:
+        pack8Values47(values, offset, buf, bufOffset);
+        break;
+      case 48:
+        pack8Values48(values, offset, buf, bufOffset);
+        break;
+      case 49:
+        pack8Values49(values, offset, buf, bufOffset);
+        break;
+      case 50:
+        pack8Values50(values, offset, buf, bufOffset);
+        break;
+      case 51:
+        pack8Values51(values, offset, buf, bufOffset);
+        break;
+      case 52:
+        pack8Values52(values, offset, buf, bufOffset);
+        break;
+      case 53:
+        pack8Values53(values, offset, buf, bufOffset);
+        break;
+      case 54:
+        pack8Values54(values, offset, buf, bufOffset);
+        break;
+      case 55:
+        pack8Values55(values, offset, buf, bufOffset);
+        break;
+      case 56:
+        pack8Values56(values, offset, buf, bufOffset);
+        break;
+      case 57:
+        pack8Values57(values, offset, buf, bufOffset);
+        break;
+      case 58:
+        pack8Values58(values, offset, buf, bufOffset);
+        break;
+      case 59:
+        pack8Values59(values, offset, buf, bufOffset);
+        break;
+      case 60:
+        pack8Values60(values, offset, buf, bufOffset);
+        break;
+      case 61:
+        pack8Values61(values, offset, buf, bufOffset);
+        break;
+      case 62:
+        pack8Values62(values, offset, buf, bufOffset);
+        break;
+      case 63:
+        pack8Values63(values, offset, buf, bufOffset);
+        break;
+      case 64:
+        pack8Values64(values, offset, buf, bufOffset);
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid bit-width: " + width);
+    }
+  }
+
+  /**
+   * Decode 8 values of specified bit-width from 'width' bytes of 'buf'.
+   *
+   * @param width bit-width
+   * @param buf array where the encoded bytes are in
+   * @param offset the offset of the first byte to be decoded
+   * @param values array where the 8 decoded values are written
+   * @param valuesOffset the offset of the first decoded value in values
+   */
+  public static void unpack8Values(
+      int width, byte[] buf, int offset, long[] values, int valuesOffset) {
+    switch (width) {
+      case 0:
+        Arrays.fill(values, valuesOffset, valuesOffset + 8, 0);
+        break;
+      case 1:
+        unpack8Values1(buf, offset, values, valuesOffset);
+        break;
+      case 2:
+        unpack8Values2(buf, offset, values, valuesOffset);
+        break;
+      case 3:
+        unpack8Values3(buf, offset, values, valuesOffset);
+        break;
+      case 4:
+        unpack8Values4(buf, offset, values, valuesOffset);
+        break;
+      case 5:
+        unpack8Values5(buf, offset, values, valuesOffset);
+        break;
+      case 6:
+        unpack8Values6(buf, offset, values, valuesOffset);
+        break;
+      case 7:
+        unpack8Values7(buf, offset, values, valuesOffset);
+        break;
+      case 8:
+        unpack8Values8(buf, offset, values, valuesOffset);
+        break;
+      case 9:
+        unpack8Values9(buf, offset, values, valuesOffset);
+        break;
+      case 10:
+        unpack8Values10(buf, offset, values, valuesOffset);
+        break;
+      case 11:
+        unpack8Values11(buf, offset, values, valuesOffset);
+        break;
+      case 12:
+        unpack8Values12(buf, offset, values, valuesOffset);
+        break;
+      case 13:
+        unpack8Values13(buf, offset, values, valuesOffset);
+        break;
+      case 14:
+        unpack8Values14(buf, offset, values, valuesOffset);
+        break;
+      case 15:
+        unpack8Values15(buf, offset, values, valuesOffset);
+        break;
+      case 16:
+        unpack8Values16(buf, offset, values, valuesOffset);
+        break;
+      case 17:
+        unpack8Values17(buf, offset, values, valuesOffset);
+        break;
+      case 18:
+        unpack8Values18(buf, offset, values, valuesOffset);
+        break;
+      case 19:
+        unpack8Values19(buf, offset, values, valuesOffset);
+        break;
+      case 20:
+        unpack8Values20(buf, offset, values, valuesOffset);
+        break;
+      case 21:
+        unpack8Values21(buf, offset, values, valuesOffset);
+        break;
+      case 22:
+        unpack8Values22(buf, offset, values, valuesOffset);
+        break;
+      case 23:
+        unpack8Values23(buf, offset, values, valuesOffset);
+        break;
+      case 24:
+        unpack8Values24(buf, offset, values, valuesOffset);
+        break;
+      case 25:
+        unpack8Values25(buf, offset, values, valuesOffset);
+        break;
+      case 26:
+        unpack8Values26(buf, offset, values, valuesOffset);
+        break;
+      case 27:
+        unpack8Values27(buf, offset, values, valuesOffset);
+        break;
+      case 28:
+        unpack8Values28(buf, offset, values, valuesOffset);
+        break;
+      case 29:
+        unpack8Values29(buf, offset, values, valuesOffset);
+        break;
+      case 30:
+        unpack8Values30(buf, offset, values, valuesOffset);
+        break;
+      case 31:
+        unpack8Values31(buf, offset, values, valuesOffset);
+        break;
+      case 32:
+        unpack8Values32(buf, offset, values, valuesOffset);
+        break;
+      case 33:
+        unpack8Values33(buf, offset, values, valuesOffset);
+        break;
+      case 34:
+        unpack8Values34(buf, offset, values, valuesOffset);
+        break;
+      case 35:
+        unpack8Values35(buf, offset, values, valuesOffset);
+        break;
+      case 36:
+        unpack8Values36(buf, offset, values, valuesOffset);
+        break;
+      case 37:
+        unpack8Values37(buf, offset, values, valuesOffset);
+        break;
+      case 38:
+        unpack8Values38(buf, offset, values, valuesOffset);
+        break;
+      case 39:
+        unpack8Values39(buf, offset, values, valuesOffset);
+        break;
+      case 40:
+        unpack8Values40(buf, offset, values, valuesOffset);
+        break;
+      case 41:
+        unpack8Values41(buf, offset, values, valuesOffset);
+        break;
+      case 42:
+        unpack8Values42(buf, offset, values, valuesOffset);
+        break;
+      case 43:
+        unpack8Values43(buf, offset, values, valuesOffset);
+        break;
+      case 44:
+        unpack8Values44(buf, offset, values, valuesOffset);
+        break;
+      case 45:
+        unpack8Values45(buf, offset, values, valuesOffset);
+        break;
+      case 46:
+        unpack8Values46(buf, offset, values, valuesOffset);
+        break;
+      case 47:
+        unpack8Values47(buf, offset, values, valuesOffset);
+        break;
+      case 48:
+        unpack8Values48(buf, offset, values, valuesOffset);
+        break;
+      case 49:
+        unpack8Values49(buf, offset, values, valuesOffset);
+        break;
+      case 50:
+        unpack8Values50(buf, offset, values, valuesOffset);
+        break;
+      case 51:
+        unpack8Values51(buf, offset, values, valuesOffset);
+        break;
+      case 52:
+        unpack8Values52(buf, offset, values, valuesOffset);
+        break;
+      case 53:
+        unpack8Values53(buf, offset, values, valuesOffset);
+        break;
+      case 54:
+        unpack8Values54(buf, offset, values, valuesOffset);
+        break;
+      case 55:
+        unpack8Values55(buf, offset, values, valuesOffset);
+        break;
+      case 56:
+        unpack8Values56(buf, offset, values, valuesOffset);
+        break;
+      case 57:
+        unpack8Values57(buf, offset, values, valuesOffset);
+        break;
+      case 58:
+        unpack8Values58(buf, offset, values, valuesOffset);
+        break;
+      case 59:
+        unpack8Values59(buf, offset, values, valuesOffset);
+        break;
+      case 60:
+        unpack8Values60(buf, offset, values, valuesOffset);
+        break;
+      case 61:
+        unpack8Values61(buf, offset, values, valuesOffset);
+        break;
+      case 62:
+        unpack8Values62(buf, offset, values, valuesOffset);
+        break;
+      case 63:
+        unpack8Values63(buf, offset, values, valuesOffset);
+        break;
+      case 64:
+        unpack8Values64(buf, offset, values, valuesOffset);
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid bit-width: " + width);
+    }
+  }
+
+  private static void pack8Values1(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] =
+        (byte)
+            ((v0 << 7) | (v1 << 6) | (v2 << 5) | (v3 << 4) | (v4 << 3) | (v5 << 2) | (v6 << 1)
+                | v7);
+  }
+
+  private static void unpack8Values1(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    values[valuesOffset] = b0 >>> 7;
+    values[valuesOffset + 1] = (b0 >>> 6) & 0x1;
+    values[valuesOffset + 2] = (b0 >>> 5) & 0x1;
+    values[valuesOffset + 3] = (b0 >>> 4) & 0x1;
+    values[valuesOffset + 4] = (b0 >>> 3) & 0x1;
+    values[valuesOffset + 5] = (b0 >>> 2) & 0x1;
+    values[valuesOffset + 6] = (b0 >>> 1) & 0x1;
+    values[valuesOffset + 7] = b0 & 0x1;
+  }
+
+  private static void pack8Values2(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) ((v0 << 6) | (v1 << 4) | (v2 << 2) | v3);
+    buf[bufOffset + 1] = (byte) ((v4 << 6) | (v5 << 4) | (v6 << 2) | v7);
+  }
+
+  private static void unpack8Values2(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    values[valuesOffset] = b0 >>> 6;
+    values[valuesOffset + 1] = (b0 >>> 4) & 0x3;
+    values[valuesOffset + 2] = (b0 >>> 2) & 0x3;
+    values[valuesOffset + 3] = b0 & 0x3;
+    values[valuesOffset + 4] = b1 >>> 6;
+    values[valuesOffset + 5] = (b1 >>> 4) & 0x3;
+    values[valuesOffset + 6] = (b1 >>> 2) & 0x3;
+    values[valuesOffset + 7] = b1 & 0x3;
+  }
+
+  private static void pack8Values3(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) ((v0 << 5) | (v1 << 2) | (v2 >>> 1));
+    buf[bufOffset + 1] = (byte) ((v2 << 7) | (v3 << 4) | (v4 << 1) | (v5 >>> 2));
+    buf[bufOffset + 2] = (byte) ((v5 << 6) | (v6 << 3) | v7);
+  }
+
+  private static void unpack8Values3(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    values[valuesOffset] = b0 >>> 5;
+    values[valuesOffset + 1] = (b0 >>> 2) & 0x7;
+    values[valuesOffset + 2] = ((b0 & 0x3) << 1) | (b1 >>> 7);
+    values[valuesOffset + 3] = (b1 >>> 4) & 0x7;
+    values[valuesOffset + 4] = (b1 >>> 1) & 0x7;
+    values[valuesOffset + 5] = ((b1 & 0x1) << 2) | (b2 >>> 6);
+    values[valuesOffset + 6] = (b2 >>> 3) & 0x7;
+    values[valuesOffset + 7] = b2 & 0x7;
+  }
+
+  private static void pack8Values4(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) ((v0 << 4) | v1);
+    buf[bufOffset + 1] = (byte) ((v2 << 4) | v3);
+    buf[bufOffset + 2] = (byte) ((v4 << 4) | v5);
+    buf[bufOffset + 3] = (byte) ((v6 << 4) | v7);
+  }
+
+  private static void unpack8Values4(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    values[valuesOffset] = b0 >>> 4;
+    values[valuesOffset + 1] = b0 & 0xF;
+    values[valuesOffset + 2] = b1 >>> 4;
+    values[valuesOffset + 3] = b1 & 0xF;
+    values[valuesOffset + 4] = b2 >>> 4;
+    values[valuesOffset + 5] = b2 & 0xF;
+    values[valuesOffset + 6] = b3 >>> 4;
+    values[valuesOffset + 7] = b3 & 0xF;
+  }
+
+  private static void pack8Values5(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) ((v0 << 3) | (v1 >>> 2));
+    buf[bufOffset + 1] = (byte) ((v1 << 6) | (v2 << 1) | (v3 >>> 4));
+    buf[bufOffset + 2] = (byte) ((v3 << 4) | (v4 >>> 1));
+    buf[bufOffset + 3] = (byte) ((v4 << 7) | (v5 << 2) | (v6 >>> 3));
+    buf[bufOffset + 4] = (byte) ((v6 << 5) | v7);
+  }
+
+  private static void unpack8Values5(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    values[valuesOffset] = b0 >>> 3;
+    values[valuesOffset + 1] = ((b0 & 0x7) << 2) | (b1 >>> 6);
+    values[valuesOffset + 2] = (b1 >>> 1) & 0x1F;
+    values[valuesOffset + 3] = ((b1 & 0x1) << 4) | (b2 >>> 4);
+    values[valuesOffset + 4] = ((b2 & 0xF) << 1) | (b3 >>> 7);
+    values[valuesOffset + 5] = (b3 >>> 2) & 0x1F;
+    values[valuesOffset + 6] = ((b3 & 0x3) << 3) | (b4 >>> 5);
+    values[valuesOffset + 7] = b4 & 0x1F;
+  }
+
+  private static void pack8Values6(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) ((v0 << 2) | (v1 >>> 4));
+    buf[bufOffset + 1] = (byte) ((v1 << 4) | (v2 >>> 2));
+    buf[bufOffset + 2] = (byte) ((v2 << 6) | v3);
+    buf[bufOffset + 3] = (byte) ((v4 << 2) | (v5 >>> 4));
+    buf[bufOffset + 4] = (byte) ((v5 << 4) | (v6 >>> 2));
+    buf[bufOffset + 5] = (byte) ((v6 << 6) | v7);
+  }
+
+  private static void unpack8Values6(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    values[valuesOffset] = b0 >>> 2;
+    values[valuesOffset + 1] = ((b0 & 0x3) << 4) | (b1 >>> 4);
+    values[valuesOffset + 2] = ((b1 & 0xF) << 2) | (b2 >>> 6);
+    values[valuesOffset + 3] = b2 & 0x3F;
+    values[valuesOffset + 4] = b3 >>> 2;
+    values[valuesOffset + 5] = ((b3 & 0x3) << 4) | (b4 >>> 4);
+    values[valuesOffset + 6] = ((b4 & 0xF) << 2) | (b5 >>> 6);
+    values[valuesOffset + 7] = b5 & 0x3F;
+  }
+
+  private static void pack8Values7(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) ((v0 << 1) | (v1 >>> 6));
+    buf[bufOffset + 1] = (byte) ((v1 << 2) | (v2 >>> 5));
+    buf[bufOffset + 2] = (byte) ((v2 << 3) | (v3 >>> 4));
+    buf[bufOffset + 3] = (byte) ((v3 << 4) | (v4 >>> 3));
+    buf[bufOffset + 4] = (byte) ((v4 << 5) | (v5 >>> 2));
+    buf[bufOffset + 5] = (byte) ((v5 << 6) | (v6 >>> 1));
+    buf[bufOffset + 6] = (byte) ((v6 << 7) | v7);
+  }
+
+  private static void unpack8Values7(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    values[valuesOffset] = b0 >>> 1;
+    values[valuesOffset + 1] = ((b0 & 0x1) << 6) | (b1 >>> 2);
+    values[valuesOffset + 2] = ((b1 & 0x3) << 5) | (b2 >>> 3);
+    values[valuesOffset + 3] = ((b2 & 0x7) << 4) | (b3 >>> 4);
+    values[valuesOffset + 4] = ((b3 & 0xF) << 3) | (b4 >>> 5);
+    values[valuesOffset + 5] = ((b4 & 0x1F) << 2) | (b5 >>> 6);
+    values[valuesOffset + 6] = ((b5 & 0x3F) << 1) | (b6 >>> 7);
+    values[valuesOffset + 7] = b6 & 0x7F;
+  }
+
+  private static void pack8Values8(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) v0;
+    buf[bufOffset + 1] = (byte) v1;
+    buf[bufOffset + 2] = (byte) v2;
+    buf[bufOffset + 3] = (byte) v3;
+    buf[bufOffset + 4] = (byte) v4;
+    buf[bufOffset + 5] = (byte) v5;
+    buf[bufOffset + 6] = (byte) v6;
+    buf[bufOffset + 7] = (byte) v7;
+  }
+
+  private static void unpack8Values8(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    values[valuesOffset] = b0;
+    values[valuesOffset + 1] = b1;
+    values[valuesOffset + 2] = b2;
+    values[valuesOffset + 3] = b3;
+    values[valuesOffset + 4] = b4;
+    values[valuesOffset + 5] = b5;
+    values[valuesOffset + 6] = b6;
+    values[valuesOffset + 7] = b7;
+  }
+
+  private static void pack8Values9(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 1);
+    buf[bufOffset + 1] = (byte) ((v0 << 7) | (v1 >>> 2));
+    buf[bufOffset + 2] = (byte) ((v1 << 6) | (v2 >>> 3));
+    buf[bufOffset + 3] = (byte) ((v2 << 5) | (v3 >>> 4));
+    buf[bufOffset + 4] = (byte) ((v3 << 4) | (v4 >>> 5));
+    buf[bufOffset + 5] = (byte) ((v4 << 3) | (v5 >>> 6));
+    buf[bufOffset + 6] = (byte) ((v5 << 2) | (v6 >>> 7));
+    buf[bufOffset + 7] = (byte) ((v6 << 1) | (v7 >>> 8));
+    buf[bufOffset + 8] = (byte) v7;
+  }
+
+  private static void unpack8Values9(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    values[valuesOffset] = (b0 << 1) | (b1 >>> 7);
+    values[valuesOffset + 1] = ((b1 & 0x7F) << 2) | (b2 >>> 6);
+    values[valuesOffset + 2] = ((b2 & 0x3F) << 3) | (b3 >>> 5);
+    values[valuesOffset + 3] = ((b3 & 0x1F) << 4) | (b4 >>> 4);
+    values[valuesOffset + 4] = ((b4 & 0xF) << 5) | (b5 >>> 3);
+    values[valuesOffset + 5] = ((b5 & 0x7) << 6) | (b6 >>> 2);
+    values[valuesOffset + 6] = ((b6 & 0x3) << 7) | (b7 >>> 1);
+    values[valuesOffset + 7] = ((b7 & 0x1) << 8) | b8;
+  }
+
+  private static void pack8Values10(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 2);
+    buf[bufOffset + 1] = (byte) ((v0 << 6) | (v1 >>> 4));
+    buf[bufOffset + 2] = (byte) ((v1 << 4) | (v2 >>> 6));
+    buf[bufOffset + 3] = (byte) ((v2 << 2) | (v3 >>> 8));
+    buf[bufOffset + 4] = (byte) v3;
+    buf[bufOffset + 5] = (byte) (v4 >>> 2);
+    buf[bufOffset + 6] = (byte) ((v4 << 6) | (v5 >>> 4));
+    buf[bufOffset + 7] = (byte) ((v5 << 4) | (v6 >>> 6));
+    buf[bufOffset + 8] = (byte) ((v6 << 2) | (v7 >>> 8));
+    buf[bufOffset + 9] = (byte) v7;
+  }
+
+  private static void unpack8Values10(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    values[valuesOffset] = (b0 << 2) | (b1 >>> 6);
+    values[valuesOffset + 1] = ((b1 & 0x3F) << 4) | (b2 >>> 4);
+    values[valuesOffset + 2] = ((b2 & 0xF) << 6) | (b3 >>> 2);
+    values[valuesOffset + 3] = ((b3 & 0x3) << 8) | b4;
+    values[valuesOffset + 4] = (b5 << 2) | (b6 >>> 6);
+    values[valuesOffset + 5] = ((b6 & 0x3F) << 4) | (b7 >>> 4);
+    values[valuesOffset + 6] = ((b7 & 0xF) << 6) | (b8 >>> 2);
+    values[valuesOffset + 7] = ((b8 & 0x3) << 8) | b9;
+  }
+
+  private static void pack8Values11(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 3);
+    buf[bufOffset + 1] = (byte) ((v0 << 5) | (v1 >>> 6));
+    buf[bufOffset + 2] = (byte) ((v1 << 2) | (v2 >>> 9));
+    buf[bufOffset + 3] = (byte) (v2 >>> 1);
+    buf[bufOffset + 4] = (byte) ((v2 << 7) | (v3 >>> 4));
+    buf[bufOffset + 5] = (byte) ((v3 << 4) | (v4 >>> 7));
+    buf[bufOffset + 6] = (byte) ((v4 << 1) | (v5 >>> 10));
+    buf[bufOffset + 7] = (byte) (v5 >>> 2);
+    buf[bufOffset + 8] = (byte) ((v5 << 6) | (v6 >>> 5));
+    buf[bufOffset + 9] = (byte) ((v6 << 3) | (v7 >>> 8));
+    buf[bufOffset + 10] = (byte) v7;
+  }
+
+  private static void unpack8Values11(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    values[valuesOffset] = (b0 << 3) | (b1 >>> 5);
+    values[valuesOffset + 1] = ((b1 & 0x1F) << 6) | (b2 >>> 2);
+    values[valuesOffset + 2] = ((b2 & 0x3) << 9) | (b3 << 1) | (b4 >>> 7);
+    values[valuesOffset + 3] = ((b4 & 0x7F) << 4) | (b5 >>> 4);
+    values[valuesOffset + 4] = ((b5 & 0xF) << 7) | (b6 >>> 1);
+    values[valuesOffset + 5] = ((b6 & 0x1) << 10) | (b7 << 2) | (b8 >>> 6);
+    values[valuesOffset + 6] = ((b8 & 0x3F) << 5) | (b9 >>> 3);
+    values[valuesOffset + 7] = ((b9 & 0x7) << 8) | b10;
+  }
+
+  private static void pack8Values12(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 4);
+    buf[bufOffset + 1] = (byte) ((v0 << 4) | (v1 >>> 8));
+    buf[bufOffset + 2] = (byte) v1;
+    buf[bufOffset + 3] = (byte) (v2 >>> 4);
+    buf[bufOffset + 4] = (byte) ((v2 << 4) | (v3 >>> 8));
+    buf[bufOffset + 5] = (byte) v3;
+    buf[bufOffset + 6] = (byte) (v4 >>> 4);
+    buf[bufOffset + 7] = (byte) ((v4 << 4) | (v5 >>> 8));
+    buf[bufOffset + 8] = (byte) v5;
+    buf[bufOffset + 9] = (byte) (v6 >>> 4);
+    buf[bufOffset + 10] = (byte) ((v6 << 4) | (v7 >>> 8));
+    buf[bufOffset + 11] = (byte) v7;
+  }
+
+  private static void unpack8Values12(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    values[valuesOffset] = (b0 << 4) | (b1 >>> 4);
+    values[valuesOffset + 1] = ((b1 & 0xF) << 8) | b2;
+    values[valuesOffset + 2] = (b3 << 4) | (b4 >>> 4);
+    values[valuesOffset + 3] = ((b4 & 0xF) << 8) | b5;
+    values[valuesOffset + 4] = (b6 << 4) | (b7 >>> 4);
+    values[valuesOffset + 5] = ((b7 & 0xF) << 8) | b8;
+    values[valuesOffset + 6] = (b9 << 4) | (b10 >>> 4);
+    values[valuesOffset + 7] = ((b10 & 0xF) << 8) | b11;
+  }
+
+  private static void pack8Values13(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 5);
+    buf[bufOffset + 1] = (byte) ((v0 << 3) | (v1 >>> 10));
+    buf[bufOffset + 2] = (byte) (v1 >>> 2);
+    buf[bufOffset + 3] = (byte) ((v1 << 6) | (v2 >>> 7));
+    buf[bufOffset + 4] = (byte) ((v2 << 1) | (v3 >>> 12));
+    buf[bufOffset + 5] = (byte) (v3 >>> 4);
+    buf[bufOffset + 6] = (byte) ((v3 << 4) | (v4 >>> 9));
+    buf[bufOffset + 7] = (byte) (v4 >>> 1);
+    buf[bufOffset + 8] = (byte) ((v4 << 7) | (v5 >>> 6));
+    buf[bufOffset + 9] = (byte) ((v5 << 2) | (v6 >>> 11));
+    buf[bufOffset + 10] = (byte) (v6 >>> 3);
+    buf[bufOffset + 11] = (byte) ((v6 << 5) | (v7 >>> 8));
+    buf[bufOffset + 12] = (byte) v7;
+  }
+
+  private static void unpack8Values13(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    values[valuesOffset] = (b0 << 5) | (b1 >>> 3);
+    values[valuesOffset + 1] = ((b1 & 0x7) << 10) | (b2 << 2) | (b3 >>> 6);
+    values[valuesOffset + 2] = ((b3 & 0x3F) << 7) | (b4 >>> 1);
+    values[valuesOffset + 3] = ((b4 & 0x1) << 12) | (b5 << 4) | (b6 >>> 4);
+    values[valuesOffset + 4] = ((b6 & 0xF) << 9) | (b7 << 1) | (b8 >>> 7);
+    values[valuesOffset + 5] = ((b8 & 0x7F) << 6) | (b9 >>> 2);
+    values[valuesOffset + 6] = ((b9 & 0x3) << 11) | (b10 << 3) | (b11 >>> 5);
+    values[valuesOffset + 7] = ((b11 & 0x1F) << 8) | b12;
+  }
+
+  private static void pack8Values14(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 6);
+    buf[bufOffset + 1] = (byte) ((v0 << 2) | (v1 >>> 12));
+    buf[bufOffset + 2] = (byte) (v1 >>> 4);
+    buf[bufOffset + 3] = (byte) ((v1 << 4) | (v2 >>> 10));
+    buf[bufOffset + 4] = (byte) (v2 >>> 2);
+    buf[bufOffset + 5] = (byte) ((v2 << 6) | (v3 >>> 8));
+    buf[bufOffset + 6] = (byte) v3;
+    buf[bufOffset + 7] = (byte) (v4 >>> 6);
+    buf[bufOffset + 8] = (byte) ((v4 << 2) | (v5 >>> 12));
+    buf[bufOffset + 9] = (byte) (v5 >>> 4);
+    buf[bufOffset + 10] = (byte) ((v5 << 4) | (v6 >>> 10));
+    buf[bufOffset + 11] = (byte) (v6 >>> 2);
+    buf[bufOffset + 12] = (byte) ((v6 << 6) | (v7 >>> 8));
+    buf[bufOffset + 13] = (byte) v7;
+  }
+
+  private static void unpack8Values14(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    values[valuesOffset] = (b0 << 6) | (b1 >>> 2);
+    values[valuesOffset + 1] = ((b1 & 0x3) << 12) | (b2 << 4) | (b3 >>> 4);
+    values[valuesOffset + 2] = ((b3 & 0xF) << 10) | (b4 << 2) | (b5 >>> 6);
+    values[valuesOffset + 3] = ((b5 & 0x3F) << 8) | b6;
+    values[valuesOffset + 4] = (b7 << 6) | (b8 >>> 2);
+    values[valuesOffset + 5] = ((b8 & 0x3) << 12) | (b9 << 4) | (b10 >>> 4);
+    values[valuesOffset + 6] = ((b10 & 0xF) << 10) | (b11 << 2) | (b12 >>> 6);
+    values[valuesOffset + 7] = ((b12 & 0x3F) << 8) | b13;
+  }
+
+  private static void pack8Values15(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 7);
+    buf[bufOffset + 1] = (byte) ((v0 << 1) | (v1 >>> 14));
+    buf[bufOffset + 2] = (byte) (v1 >>> 6);
+    buf[bufOffset + 3] = (byte) ((v1 << 2) | (v2 >>> 13));
+    buf[bufOffset + 4] = (byte) (v2 >>> 5);
+    buf[bufOffset + 5] = (byte) ((v2 << 3) | (v3 >>> 12));
+    buf[bufOffset + 6] = (byte) (v3 >>> 4);
+    buf[bufOffset + 7] = (byte) ((v3 << 4) | (v4 >>> 11));
+    buf[bufOffset + 8] = (byte) (v4 >>> 3);
+    buf[bufOffset + 9] = (byte) ((v4 << 5) | (v5 >>> 10));
+    buf[bufOffset + 10] = (byte) (v5 >>> 2);
+    buf[bufOffset + 11] = (byte) ((v5 << 6) | (v6 >>> 9));
+    buf[bufOffset + 12] = (byte) (v6 >>> 1);
+    buf[bufOffset + 13] = (byte) ((v6 << 7) | (v7 >>> 8));
+    buf[bufOffset + 14] = (byte) v7;
+  }
+
+  private static void unpack8Values15(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    values[valuesOffset] = (b0 << 7) | (b1 >>> 1);
+    values[valuesOffset + 1] = ((b1 & 0x1) << 14) | (b2 << 6) | (b3 >>> 2);
+    values[valuesOffset + 2] = ((b3 & 0x3) << 13) | (b4 << 5) | (b5 >>> 3);
+    values[valuesOffset + 3] = ((b5 & 0x7) << 12) | (b6 << 4) | (b7 >>> 4);
+    values[valuesOffset + 4] = ((b7 & 0xF) << 11) | (b8 << 3) | (b9 >>> 5);
+    values[valuesOffset + 5] = ((b9 & 0x1F) << 10) | (b10 << 2) | (b11 >>> 6);
+    values[valuesOffset + 6] = ((b11 & 0x3F) << 9) | (b12 << 1) | (b13 >>> 7);
+    values[valuesOffset + 7] = ((b13 & 0x7F) << 8) | b14;
+  }
+
+  private static void pack8Values16(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 8);
+    buf[bufOffset + 1] = (byte) v0;
+    buf[bufOffset + 2] = (byte) (v1 >>> 8);
+    buf[bufOffset + 3] = (byte) v1;
+    buf[bufOffset + 4] = (byte) (v2 >>> 8);
+    buf[bufOffset + 5] = (byte) v2;
+    buf[bufOffset + 6] = (byte) (v3 >>> 8);
+    buf[bufOffset + 7] = (byte) v3;
+    buf[bufOffset + 8] = (byte) (v4 >>> 8);
+    buf[bufOffset + 9] = (byte) v4;
+    buf[bufOffset + 10] = (byte) (v5 >>> 8);
+    buf[bufOffset + 11] = (byte) v5;
+    buf[bufOffset + 12] = (byte) (v6 >>> 8);
+    buf[bufOffset + 13] = (byte) v6;
+    buf[bufOffset + 14] = (byte) (v7 >>> 8);
+    buf[bufOffset + 15] = (byte) v7;
+  }
+
+  private static void unpack8Values16(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    values[valuesOffset] = (b0 << 8) | b1;
+    values[valuesOffset + 1] = (b2 << 8) | b3;
+    values[valuesOffset + 2] = (b4 << 8) | b5;
+    values[valuesOffset + 3] = (b6 << 8) | b7;
+    values[valuesOffset + 4] = (b8 << 8) | b9;
+    values[valuesOffset + 5] = (b10 << 8) | b11;
+    values[valuesOffset + 6] = (b12 << 8) | b13;
+    values[valuesOffset + 7] = (b14 << 8) | b15;
+  }
+
+  private static void pack8Values17(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 9);
+    buf[bufOffset + 1] = (byte) (v0 >>> 1);
+    buf[bufOffset + 2] = (byte) ((v0 << 7) | (v1 >>> 10));
+    buf[bufOffset + 3] = (byte) (v1 >>> 2);
+    buf[bufOffset + 4] = (byte) ((v1 << 6) | (v2 >>> 11));
+    buf[bufOffset + 5] = (byte) (v2 >>> 3);
+    buf[bufOffset + 6] = (byte) ((v2 << 5) | (v3 >>> 12));
+    buf[bufOffset + 7] = (byte) (v3 >>> 4);
+    buf[bufOffset + 8] = (byte) ((v3 << 4) | (v4 >>> 13));
+    buf[bufOffset + 9] = (byte) (v4 >>> 5);
+    buf[bufOffset + 10] = (byte) ((v4 << 3) | (v5 >>> 14));
+    buf[bufOffset + 11] = (byte) (v5 >>> 6);
+    buf[bufOffset + 12] = (byte) ((v5 << 2) | (v6 >>> 15));
+    buf[bufOffset + 13] = (byte) (v6 >>> 7);
+    buf[bufOffset + 14] = (byte) ((v6 << 1) | (v7 >>> 16));
+    buf[bufOffset + 15] = (byte) (v7 >>> 8);
+    buf[bufOffset + 16] = (byte) v7;
+  }
+
+  private static void unpack8Values17(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    values[valuesOffset] = (b0 << 9) | (b1 << 1) | (b2 >>> 7);
+    values[valuesOffset + 1] = ((b2 & 0x7F) << 10) | (b3 << 2) | (b4 >>> 6);
+    values[valuesOffset + 2] = ((b4 & 0x3F) << 11) | (b5 << 3) | (b6 >>> 5);
+    values[valuesOffset + 3] = ((b6 & 0x1F) << 12) | (b7 << 4) | (b8 >>> 4);
+    values[valuesOffset + 4] = ((b8 & 0xF) << 13) | (b9 << 5) | (b10 >>> 3);
+    values[valuesOffset + 5] = ((b10 & 0x7) << 14) | (b11 << 6) | (b12 >>> 2);
+    values[valuesOffset + 6] = ((b12 & 0x3) << 15) | (b13 << 7) | (b14 >>> 1);
+    values[valuesOffset + 7] = ((b14 & 0x1) << 16) | (b15 << 8) | b16;
+  }
+
+  private static void pack8Values18(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 10);
+    buf[bufOffset + 1] = (byte) (v0 >>> 2);
+    buf[bufOffset + 2] = (byte) ((v0 << 6) | (v1 >>> 12));
+    buf[bufOffset + 3] = (byte) (v1 >>> 4);
+    buf[bufOffset + 4] = (byte) ((v1 << 4) | (v2 >>> 14));
+    buf[bufOffset + 5] = (byte) (v2 >>> 6);
+    buf[bufOffset + 6] = (byte) ((v2 << 2) | (v3 >>> 16));
+    buf[bufOffset + 7] = (byte) (v3 >>> 8);
+    buf[bufOffset + 8] = (byte) v3;
+    buf[bufOffset + 9] = (byte) (v4 >>> 10);
+    buf[bufOffset + 10] = (byte) (v4 >>> 2);
+    buf[bufOffset + 11] = (byte) ((v4 << 6) | (v5 >>> 12));
+    buf[bufOffset + 12] = (byte) (v5 >>> 4);
+    buf[bufOffset + 13] = (byte) ((v5 << 4) | (v6 >>> 14));
+    buf[bufOffset + 14] = (byte) (v6 >>> 6);
+    buf[bufOffset + 15] = (byte) ((v6 << 2) | (v7 >>> 16));
+    buf[bufOffset + 16] = (byte) (v7 >>> 8);
+    buf[bufOffset + 17] = (byte) v7;
+  }
+
+  private static void unpack8Values18(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    values[valuesOffset] = (b0 << 10) | (b1 << 2) | (b2 >>> 6);
+    values[valuesOffset + 1] = ((b2 & 0x3F) << 12) | (b3 << 4) | (b4 >>> 4);
+    values[valuesOffset + 2] = ((b4 & 0xF) << 14) | (b5 << 6) | (b6 >>> 2);
+    values[valuesOffset + 3] = ((b6 & 0x3) << 16) | (b7 << 8) | b8;
+    values[valuesOffset + 4] = (b9 << 10) | (b10 << 2) | (b11 >>> 6);
+    values[valuesOffset + 5] = ((b11 & 0x3F) << 12) | (b12 << 4) | (b13 >>> 4);
+    values[valuesOffset + 6] = ((b13 & 0xF) << 14) | (b14 << 6) | (b15 >>> 2);
+    values[valuesOffset + 7] = ((b15 & 0x3) << 16) | (b16 << 8) | b17;
+  }
+
+  private static void pack8Values19(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 11);
+    buf[bufOffset + 1] = (byte) (v0 >>> 3);
+    buf[bufOffset + 2] = (byte) ((v0 << 5) | (v1 >>> 14));
+    buf[bufOffset + 3] = (byte) (v1 >>> 6);
+    buf[bufOffset + 4] = (byte) ((v1 << 2) | (v2 >>> 17));
+    buf[bufOffset + 5] = (byte) (v2 >>> 9);
+    buf[bufOffset + 6] = (byte) (v2 >>> 1);
+    buf[bufOffset + 7] = (byte) ((v2 << 7) | (v3 >>> 12));
+    buf[bufOffset + 8] = (byte) (v3 >>> 4);
+    buf[bufOffset + 9] = (byte) ((v3 << 4) | (v4 >>> 15));
+    buf[bufOffset + 10] = (byte) (v4 >>> 7);
+    buf[bufOffset + 11] = (byte) ((v4 << 1) | (v5 >>> 18));
+    buf[bufOffset + 12] = (byte) (v5 >>> 10);
+    buf[bufOffset + 13] = (byte) (v5 >>> 2);
+    buf[bufOffset + 14] = (byte) ((v5 << 6) | (v6 >>> 13));
+    buf[bufOffset + 15] = (byte) (v6 >>> 5);
+    buf[bufOffset + 16] = (byte) ((v6 << 3) | (v7 >>> 16));
+    buf[bufOffset + 17] = (byte) (v7 >>> 8);
+    buf[bufOffset + 18] = (byte) v7;
+  }
+
+  private static void unpack8Values19(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    values[valuesOffset] = (b0 << 11) | (b1 << 3) | (b2 >>> 5);
+    values[valuesOffset + 1] = ((b2 & 0x1F) << 14) | (b3 << 6) | (b4 >>> 2);
+    values[valuesOffset + 2] = ((b4 & 0x3) << 17) | (b5 << 9) | (b6 << 1) | (b7 >>> 7);
+    values[valuesOffset + 3] = ((b7 & 0x7F) << 12) | (b8 << 4) | (b9 >>> 4);
+    values[valuesOffset + 4] = ((b9 & 0xF) << 15) | (b10 << 7) | (b11 >>> 1);
+    values[valuesOffset + 5] = ((b11 & 0x1) << 18) | (b12 << 10) | (b13 << 2) | (b14 >>> 6);
+    values[valuesOffset + 6] = ((b14 & 0x3F) << 13) | (b15 << 5) | (b16 >>> 3);
+    values[valuesOffset + 7] = ((b16 & 0x7) << 16) | (b17 << 8) | b18;
+  }
+
+  private static void pack8Values20(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 12);
+    buf[bufOffset + 1] = (byte) (v0 >>> 4);
+    buf[bufOffset + 2] = (byte) ((v0 << 4) | (v1 >>> 16));
+    buf[bufOffset + 3] = (byte) (v1 >>> 8);
+    buf[bufOffset + 4] = (byte) v1;
+    buf[bufOffset + 5] = (byte) (v2 >>> 12);
+    buf[bufOffset + 6] = (byte) (v2 >>> 4);
+    buf[bufOffset + 7] = (byte) ((v2 << 4) | (v3 >>> 16));
+    buf[bufOffset + 8] = (byte) (v3 >>> 8);
+    buf[bufOffset + 9] = (byte) v3;
+    buf[bufOffset + 10] = (byte) (v4 >>> 12);
+    buf[bufOffset + 11] = (byte) (v4 >>> 4);
+    buf[bufOffset + 12] = (byte) ((v4 << 4) | (v5 >>> 16));
+    buf[bufOffset + 13] = (byte) (v5 >>> 8);
+    buf[bufOffset + 14] = (byte) v5;
+    buf[bufOffset + 15] = (byte) (v6 >>> 12);
+    buf[bufOffset + 16] = (byte) (v6 >>> 4);
+    buf[bufOffset + 17] = (byte) ((v6 << 4) | (v7 >>> 16));
+    buf[bufOffset + 18] = (byte) (v7 >>> 8);
+    buf[bufOffset + 19] = (byte) v7;
+  }
+
+  private static void unpack8Values20(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    values[valuesOffset] = (b0 << 12) | (b1 << 4) | (b2 >>> 4);
+    values[valuesOffset + 1] = ((b2 & 0xF) << 16) | (b3 << 8) | b4;
+    values[valuesOffset + 2] = (b5 << 12) | (b6 << 4) | (b7 >>> 4);
+    values[valuesOffset + 3] = ((b7 & 0xF) << 16) | (b8 << 8) | b9;
+    values[valuesOffset + 4] = (b10 << 12) | (b11 << 4) | (b12 >>> 4);
+    values[valuesOffset + 5] = ((b12 & 0xF) << 16) | (b13 << 8) | b14;
+    values[valuesOffset + 6] = (b15 << 12) | (b16 << 4) | (b17 >>> 4);
+    values[valuesOffset + 7] = ((b17 & 0xF) << 16) | (b18 << 8) | b19;
+  }
+
+  private static void pack8Values21(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 13);
+    buf[bufOffset + 1] = (byte) (v0 >>> 5);
+    buf[bufOffset + 2] = (byte) ((v0 << 3) | (v1 >>> 18));
+    buf[bufOffset + 3] = (byte) (v1 >>> 10);
+    buf[bufOffset + 4] = (byte) (v1 >>> 2);
+    buf[bufOffset + 5] = (byte) ((v1 << 6) | (v2 >>> 15));
+    buf[bufOffset + 6] = (byte) (v2 >>> 7);
+    buf[bufOffset + 7] = (byte) ((v2 << 1) | (v3 >>> 20));
+    buf[bufOffset + 8] = (byte) (v3 >>> 12);
+    buf[bufOffset + 9] = (byte) (v3 >>> 4);
+    buf[bufOffset + 10] = (byte) ((v3 << 4) | (v4 >>> 17));
+    buf[bufOffset + 11] = (byte) (v4 >>> 9);
+    buf[bufOffset + 12] = (byte) (v4 >>> 1);
+    buf[bufOffset + 13] = (byte) ((v4 << 7) | (v5 >>> 14));
+    buf[bufOffset + 14] = (byte) (v5 >>> 6);
+    buf[bufOffset + 15] = (byte) ((v5 << 2) | (v6 >>> 19));
+    buf[bufOffset + 16] = (byte) (v6 >>> 11);
+    buf[bufOffset + 17] = (byte) (v6 >>> 3);
+    buf[bufOffset + 18] = (byte) ((v6 << 5) | (v7 >>> 16));
+    buf[bufOffset + 19] = (byte) (v7 >>> 8);
+    buf[bufOffset + 20] = (byte) v7;
+  }
+
+  private static void unpack8Values21(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    values[valuesOffset] = (b0 << 13) | (b1 << 5) | (b2 >>> 3);
+    values[valuesOffset + 1] = ((b2 & 0x7) << 18) | (b3 << 10) | (b4 << 2) | (b5 >>> 6);
+    values[valuesOffset + 2] = ((b5 & 0x3F) << 15) | (b6 << 7) | (b7 >>> 1);
+    values[valuesOffset + 3] = ((b7 & 0x1) << 20) | (b8 << 12) | (b9 << 4) | (b10 >>> 4);
+    values[valuesOffset + 4] = ((b10 & 0xF) << 17) | (b11 << 9) | (b12 << 1) | (b13 >>> 7);
+    values[valuesOffset + 5] = ((b13 & 0x7F) << 14) | (b14 << 6) | (b15 >>> 2);
+    values[valuesOffset + 6] = ((b15 & 0x3) << 19) | (b16 << 11) | (b17 << 3) | (b18 >>> 5);
+    values[valuesOffset + 7] = ((b18 & 0x1F) << 16) | (b19 << 8) | b20;
+  }
+
+  private static void pack8Values22(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 14);
+    buf[bufOffset + 1] = (byte) (v0 >>> 6);
+    buf[bufOffset + 2] = (byte) ((v0 << 2) | (v1 >>> 20));
+    buf[bufOffset + 3] = (byte) (v1 >>> 12);
+    buf[bufOffset + 4] = (byte) (v1 >>> 4);
+    buf[bufOffset + 5] = (byte) ((v1 << 4) | (v2 >>> 18));
+    buf[bufOffset + 6] = (byte) (v2 >>> 10);
+    buf[bufOffset + 7] = (byte) (v2 >>> 2);
+    buf[bufOffset + 8] = (byte) ((v2 << 6) | (v3 >>> 16));
+    buf[bufOffset + 9] = (byte) (v3 >>> 8);
+    buf[bufOffset + 10] = (byte) v3;
+    buf[bufOffset + 11] = (byte) (v4 >>> 14);
+    buf[bufOffset + 12] = (byte) (v4 >>> 6);
+    buf[bufOffset + 13] = (byte) ((v4 << 2) | (v5 >>> 20));
+    buf[bufOffset + 14] = (byte) (v5 >>> 12);
+    buf[bufOffset + 15] = (byte) (v5 >>> 4);
+    buf[bufOffset + 16] = (byte) ((v5 << 4) | (v6 >>> 18));
+    buf[bufOffset + 17] = (byte) (v6 >>> 10);
+    buf[bufOffset + 18] = (byte) (v6 >>> 2);
+    buf[bufOffset + 19] = (byte) ((v6 << 6) | (v7 >>> 16));
+    buf[bufOffset + 20] = (byte) (v7 >>> 8);
+    buf[bufOffset + 21] = (byte) v7;
+  }
+
+  private static void unpack8Values22(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    values[valuesOffset] = (b0 << 14) | (b1 << 6) | (b2 >>> 2);
+    values[valuesOffset + 1] = ((b2 & 0x3) << 20) | (b3 << 12) | (b4 << 4) | (b5 >>> 4);
+    values[valuesOffset + 2] = ((b5 & 0xF) << 18) | (b6 << 10) | (b7 << 2) | (b8 >>> 6);
+    values[valuesOffset + 3] = ((b8 & 0x3F) << 16) | (b9 << 8) | b10;
+    values[valuesOffset + 4] = (b11 << 14) | (b12 << 6) | (b13 >>> 2);
+    values[valuesOffset + 5] = ((b13 & 0x3) << 20) | (b14 << 12) | (b15 << 4) | (b16 >>> 4);
+    values[valuesOffset + 6] = ((b16 & 0xF) << 18) | (b17 << 10) | (b18 << 2) | (b19 >>> 6);
+    values[valuesOffset + 7] = ((b19 & 0x3F) << 16) | (b20 << 8) | b21;
+  }
+
+  private static void pack8Values23(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 15);
+    buf[bufOffset + 1] = (byte) (v0 >>> 7);
+    buf[bufOffset + 2] = (byte) ((v0 << 1) | (v1 >>> 22));
+    buf[bufOffset + 3] = (byte) (v1 >>> 14);
+    buf[bufOffset + 4] = (byte) (v1 >>> 6);
+    buf[bufOffset + 5] = (byte) ((v1 << 2) | (v2 >>> 21));
+    buf[bufOffset + 6] = (byte) (v2 >>> 13);
+    buf[bufOffset + 7] = (byte) (v2 >>> 5);
+    buf[bufOffset + 8] = (byte) ((v2 << 3) | (v3 >>> 20));
+    buf[bufOffset + 9] = (byte) (v3 >>> 12);
+    buf[bufOffset + 10] = (byte) (v3 >>> 4);
+    buf[bufOffset + 11] = (byte) ((v3 << 4) | (v4 >>> 19));
+    buf[bufOffset + 12] = (byte) (v4 >>> 11);
+    buf[bufOffset + 13] = (byte) (v4 >>> 3);
+    buf[bufOffset + 14] = (byte) ((v4 << 5) | (v5 >>> 18));
+    buf[bufOffset + 15] = (byte) (v5 >>> 10);
+    buf[bufOffset + 16] = (byte) (v5 >>> 2);
+    buf[bufOffset + 17] = (byte) ((v5 << 6) | (v6 >>> 17));
+    buf[bufOffset + 18] = (byte) (v6 >>> 9);
+    buf[bufOffset + 19] = (byte) (v6 >>> 1);
+    buf[bufOffset + 20] = (byte) ((v6 << 7) | (v7 >>> 16));
+    buf[bufOffset + 21] = (byte) (v7 >>> 8);
+    buf[bufOffset + 22] = (byte) v7;
+  }
+
+  private static void unpack8Values23(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    values[valuesOffset] = (b0 << 15) | (b1 << 7) | (b2 >>> 1);
+    values[valuesOffset + 1] = ((b2 & 0x1) << 22) | (b3 << 14) | (b4 << 6) | (b5 >>> 2);
+    values[valuesOffset + 2] = ((b5 & 0x3) << 21) | (b6 << 13) | (b7 << 5) | (b8 >>> 3);
+    values[valuesOffset + 3] = ((b8 & 0x7) << 20) | (b9 << 12) | (b10 << 4) | (b11 >>> 4);
+    values[valuesOffset + 4] = ((b11 & 0xF) << 19) | (b12 << 11) | (b13 << 3) | (b14 >>> 5);
+    values[valuesOffset + 5] = ((b14 & 0x1F) << 18) | (b15 << 10) | (b16 << 2) | (b17 >>> 6);
+    values[valuesOffset + 6] = ((b17 & 0x3F) << 17) | (b18 << 9) | (b19 << 1) | (b20 >>> 7);
+    values[valuesOffset + 7] = ((b20 & 0x7F) << 16) | (b21 << 8) | b22;
+  }
+
+  private static void pack8Values24(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 16);
+    buf[bufOffset + 1] = (byte) (v0 >>> 8);
+    buf[bufOffset + 2] = (byte) v0;
+    buf[bufOffset + 3] = (byte) (v1 >>> 16);
+    buf[bufOffset + 4] = (byte) (v1 >>> 8);
+    buf[bufOffset + 5] = (byte) v1;
+    buf[bufOffset + 6] = (byte) (v2 >>> 16);
+    buf[bufOffset + 7] = (byte) (v2 >>> 8);
+    buf[bufOffset + 8] = (byte) v2;
+    buf[bufOffset + 9] = (byte) (v3 >>> 16);
+    buf[bufOffset + 10] = (byte) (v3 >>> 8);
+    buf[bufOffset + 11] = (byte) v3;
+    buf[bufOffset + 12] = (byte) (v4 >>> 16);
+    buf[bufOffset + 13] = (byte) (v4 >>> 8);
+    buf[bufOffset + 14] = (byte) v4;
+    buf[bufOffset + 15] = (byte) (v5 >>> 16);
+    buf[bufOffset + 16] = (byte) (v5 >>> 8);
+    buf[bufOffset + 17] = (byte) v5;
+    buf[bufOffset + 18] = (byte) (v6 >>> 16);
+    buf[bufOffset + 19] = (byte) (v6 >>> 8);
+    buf[bufOffset + 20] = (byte) v6;
+    buf[bufOffset + 21] = (byte) (v7 >>> 16);
+    buf[bufOffset + 22] = (byte) (v7 >>> 8);
+    buf[bufOffset + 23] = (byte) v7;
+  }
+
+  private static void unpack8Values24(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    values[valuesOffset] = (b0 << 16) | (b1 << 8) | b2;
+    values[valuesOffset + 1] = (b3 << 16) | (b4 << 8) | b5;
+    values[valuesOffset + 2] = (b6 << 16) | (b7 << 8) | b8;
+    values[valuesOffset + 3] = (b9 << 16) | (b10 << 8) | b11;
+    values[valuesOffset + 4] = (b12 << 16) | (b13 << 8) | b14;
+    values[valuesOffset + 5] = (b15 << 16) | (b16 << 8) | b17;
+    values[valuesOffset + 6] = (b18 << 16) | (b19 << 8) | b20;
+    values[valuesOffset + 7] = (b21 << 16) | (b22 << 8) | b23;
+  }
+
+  private static void pack8Values25(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 17);
+    buf[bufOffset + 1] = (byte) (v0 >>> 9);
+    buf[bufOffset + 2] = (byte) (v0 >>> 1);
+    buf[bufOffset + 3] = (byte) ((v0 << 7) | (v1 >>> 18));
+    buf[bufOffset + 4] = (byte) (v1 >>> 10);
+    buf[bufOffset + 5] = (byte) (v1 >>> 2);
+    buf[bufOffset + 6] = (byte) ((v1 << 6) | (v2 >>> 19));
+    buf[bufOffset + 7] = (byte) (v2 >>> 11);
+    buf[bufOffset + 8] = (byte) (v2 >>> 3);
+    buf[bufOffset + 9] = (byte) ((v2 << 5) | (v3 >>> 20));
+    buf[bufOffset + 10] = (byte) (v3 >>> 12);
+    buf[bufOffset + 11] = (byte) (v3 >>> 4);
+    buf[bufOffset + 12] = (byte) ((v3 << 4) | (v4 >>> 21));
+    buf[bufOffset + 13] = (byte) (v4 >>> 13);
+    buf[bufOffset + 14] = (byte) (v4 >>> 5);
+    buf[bufOffset + 15] = (byte) ((v4 << 3) | (v5 >>> 22));
+    buf[bufOffset + 16] = (byte) (v5 >>> 14);
+    buf[bufOffset + 17] = (byte) (v5 >>> 6);
+    buf[bufOffset + 18] = (byte) ((v5 << 2) | (v6 >>> 23));
+    buf[bufOffset + 19] = (byte) (v6 >>> 15);
+    buf[bufOffset + 20] = (byte) (v6 >>> 7);
+    buf[bufOffset + 21] = (byte) ((v6 << 1) | (v7 >>> 24));
+    buf[bufOffset + 22] = (byte) (v7 >>> 16);
+    buf[bufOffset + 23] = (byte) (v7 >>> 8);
+    buf[bufOffset + 24] = (byte) v7;
+  }
+
+  private static void unpack8Values25(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    values[valuesOffset] = (b0 << 17) | (b1 << 9) | (b2 << 1) | (b3 >>> 7);
+    values[valuesOffset + 1] = ((b3 & 0x7F) << 18) | (b4 << 10) | (b5 << 2) | (b6 >>> 6);
+    values[valuesOffset + 2] = ((b6 & 0x3F) << 19) | (b7 << 11) | (b8 << 3) | (b9 >>> 5);
+    values[valuesOffset + 3] = ((b9 & 0x1F) << 20) | (b10 << 12) | (b11 << 4) | (b12 >>> 4);
+    values[valuesOffset + 4] = ((b12 & 0xF) << 21) | (b13 << 13) | (b14 << 5) | (b15 >>> 3);
+    values[valuesOffset + 5] = ((b15 & 0x7) << 22) | (b16 << 14) | (b17 << 6) | (b18 >>> 2);
+    values[valuesOffset + 6] = ((b18 & 0x3) << 23) | (b19 << 15) | (b20 << 7) | (b21 >>> 1);
+    values[valuesOffset + 7] = ((b21 & 0x1) << 24) | (b22 << 16) | (b23 << 8) | b24;
+  }
+
+  private static void pack8Values26(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 18);
+    buf[bufOffset + 1] = (byte) (v0 >>> 10);
+    buf[bufOffset + 2] = (byte) (v0 >>> 2);
+    buf[bufOffset + 3] = (byte) ((v0 << 6) | (v1 >>> 20));
+    buf[bufOffset + 4] = (byte) (v1 >>> 12);
+    buf[bufOffset + 5] = (byte) (v1 >>> 4);
+    buf[bufOffset + 6] = (byte) ((v1 << 4) | (v2 >>> 22));
+    buf[bufOffset + 7] = (byte) (v2 >>> 14);
+    buf[bufOffset + 8] = (byte) (v2 >>> 6);
+    buf[bufOffset + 9] = (byte) ((v2 << 2) | (v3 >>> 24));
+    buf[bufOffset + 10] = (byte) (v3 >>> 16);
+    buf[bufOffset + 11] = (byte) (v3 >>> 8);
+    buf[bufOffset + 12] = (byte) v3;
+    buf[bufOffset + 13] = (byte) (v4 >>> 18);
+    buf[bufOffset + 14] = (byte) (v4 >>> 10);
+    buf[bufOffset + 15] = (byte) (v4 >>> 2);
+    buf[bufOffset + 16] = (byte) ((v4 << 6) | (v5 >>> 20));
+    buf[bufOffset + 17] = (byte) (v5 >>> 12);
+    buf[bufOffset + 18] = (byte) (v5 >>> 4);
+    buf[bufOffset + 19] = (byte) ((v5 << 4) | (v6 >>> 22));
+    buf[bufOffset + 20] = (byte) (v6 >>> 14);
+    buf[bufOffset + 21] = (byte) (v6 >>> 6);
+    buf[bufOffset + 22] = (byte) ((v6 << 2) | (v7 >>> 24));
+    buf[bufOffset + 23] = (byte) (v7 >>> 16);
+    buf[bufOffset + 24] = (byte) (v7 >>> 8);
+    buf[bufOffset + 25] = (byte) v7;
+  }
+
+  private static void unpack8Values26(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    values[valuesOffset] = (b0 << 18) | (b1 << 10) | (b2 << 2) | (b3 >>> 6);
+    values[valuesOffset + 1] = ((b3 & 0x3F) << 20) | (b4 << 12) | (b5 << 4) | (b6 >>> 4);
+    values[valuesOffset + 2] = ((b6 & 0xF) << 22) | (b7 << 14) | (b8 << 6) | (b9 >>> 2);
+    values[valuesOffset + 3] = ((b9 & 0x3) << 24) | (b10 << 16) | (b11 << 8) | b12;
+    values[valuesOffset + 4] = (b13 << 18) | (b14 << 10) | (b15 << 2) | (b16 >>> 6);
+    values[valuesOffset + 5] = ((b16 & 0x3F) << 20) | (b17 << 12) | (b18 << 4) | (b19 >>> 4);
+    values[valuesOffset + 6] = ((b19 & 0xF) << 22) | (b20 << 14) | (b21 << 6) | (b22 >>> 2);
+    values[valuesOffset + 7] = ((b22 & 0x3) << 24) | (b23 << 16) | (b24 << 8) | b25;
+  }
+
+  private static void pack8Values27(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 19);
+    buf[bufOffset + 1] = (byte) (v0 >>> 11);
+    buf[bufOffset + 2] = (byte) (v0 >>> 3);
+    buf[bufOffset + 3] = (byte) ((v0 << 5) | (v1 >>> 22));
+    buf[bufOffset + 4] = (byte) (v1 >>> 14);
+    buf[bufOffset + 5] = (byte) (v1 >>> 6);
+    buf[bufOffset + 6] = (byte) ((v1 << 2) | (v2 >>> 25));
+    buf[bufOffset + 7] = (byte) (v2 >>> 17);
+    buf[bufOffset + 8] = (byte) (v2 >>> 9);
+    buf[bufOffset + 9] = (byte) (v2 >>> 1);
+    buf[bufOffset + 10] = (byte) ((v2 << 7) | (v3 >>> 20));
+    buf[bufOffset + 11] = (byte) (v3 >>> 12);
+    buf[bufOffset + 12] = (byte) (v3 >>> 4);
+    buf[bufOffset + 13] = (byte) ((v3 << 4) | (v4 >>> 23));
+    buf[bufOffset + 14] = (byte) (v4 >>> 15);
+    buf[bufOffset + 15] = (byte) (v4 >>> 7);
+    buf[bufOffset + 16] = (byte) ((v4 << 1) | (v5 >>> 26));
+    buf[bufOffset + 17] = (byte) (v5 >>> 18);
+    buf[bufOffset + 18] = (byte) (v5 >>> 10);
+    buf[bufOffset + 19] = (byte) (v5 >>> 2);
+    buf[bufOffset + 20] = (byte) ((v5 << 6) | (v6 >>> 21));
+    buf[bufOffset + 21] = (byte) (v6 >>> 13);
+    buf[bufOffset + 22] = (byte) (v6 >>> 5);
+    buf[bufOffset + 23] = (byte) ((v6 << 3) | (v7 >>> 24));
+    buf[bufOffset + 24] = (byte) (v7 >>> 16);
+    buf[bufOffset + 25] = (byte) (v7 >>> 8);
+    buf[bufOffset + 26] = (byte) v7;
+  }
+
+  private static void unpack8Values27(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    values[valuesOffset] = (b0 << 19) | (b1 << 11) | (b2 << 3) | (b3 >>> 5);
+    values[valuesOffset + 1] = ((b3 & 0x1F) << 22) | (b4 << 14) | (b5 << 6) | (b6 >>> 2);
+    values[valuesOffset + 2] =
+        ((b6 & 0x3) << 25) | (b7 << 17) | (b8 << 9) | (b9 << 1) | (b10 >>> 7);
+    values[valuesOffset + 3] = ((b10 & 0x7F) << 20) | (b11 << 12) | (b12 << 4) | (b13 >>> 4);
+    values[valuesOffset + 4] = ((b13 & 0xF) << 23) | (b14 << 15) | (b15 << 7) | (b16 >>> 1);
+    values[valuesOffset + 5] =
+        ((b16 & 0x1) << 26) | (b17 << 18) | (b18 << 10) | (b19 << 2) | (b20 >>> 6);
+    values[valuesOffset + 6] = ((b20 & 0x3F) << 21) | (b21 << 13) | (b22 << 5) | (b23 >>> 3);
+    values[valuesOffset + 7] = ((b23 & 0x7) << 24) | (b24 << 16) | (b25 << 8) | b26;
+  }
+
+  private static void pack8Values28(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 20);
+    buf[bufOffset + 1] = (byte) (v0 >>> 12);
+    buf[bufOffset + 2] = (byte) (v0 >>> 4);
+    buf[bufOffset + 3] = (byte) ((v0 << 4) | (v1 >>> 24));
+    buf[bufOffset + 4] = (byte) (v1 >>> 16);
+    buf[bufOffset + 5] = (byte) (v1 >>> 8);
+    buf[bufOffset + 6] = (byte) v1;
+    buf[bufOffset + 7] = (byte) (v2 >>> 20);
+    buf[bufOffset + 8] = (byte) (v2 >>> 12);
+    buf[bufOffset + 9] = (byte) (v2 >>> 4);
+    buf[bufOffset + 10] = (byte) ((v2 << 4) | (v3 >>> 24));
+    buf[bufOffset + 11] = (byte) (v3 >>> 16);
+    buf[bufOffset + 12] = (byte) (v3 >>> 8);
+    buf[bufOffset + 13] = (byte) v3;
+    buf[bufOffset + 14] = (byte) (v4 >>> 20);
+    buf[bufOffset + 15] = (byte) (v4 >>> 12);
+    buf[bufOffset + 16] = (byte) (v4 >>> 4);
+    buf[bufOffset + 17] = (byte) ((v4 << 4) | (v5 >>> 24));
+    buf[bufOffset + 18] = (byte) (v5 >>> 16);
+    buf[bufOffset + 19] = (byte) (v5 >>> 8);
+    buf[bufOffset + 20] = (byte) v5;
+    buf[bufOffset + 21] = (byte) (v6 >>> 20);
+    buf[bufOffset + 22] = (byte) (v6 >>> 12);
+    buf[bufOffset + 23] = (byte) (v6 >>> 4);
+    buf[bufOffset + 24] = (byte) ((v6 << 4) | (v7 >>> 24));
+    buf[bufOffset + 25] = (byte) (v7 >>> 16);
+    buf[bufOffset + 26] = (byte) (v7 >>> 8);
+    buf[bufOffset + 27] = (byte) v7;
+  }
+
+  private static void unpack8Values28(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    values[valuesOffset] = (b0 << 20) | (b1 << 12) | (b2 << 4) | (b3 >>> 4);
+    values[valuesOffset + 1] = ((b3 & 0xF) << 24) | (b4 << 16) | (b5 << 8) | b6;
+    values[valuesOffset + 2] = (b7 << 20) | (b8 << 12) | (b9 << 4) | (b10 >>> 4);
+    values[valuesOffset + 3] = ((b10 & 0xF) << 24) | (b11 << 16) | (b12 << 8) | b13;
+    values[valuesOffset + 4] = (b14 << 20) | (b15 << 12) | (b16 << 4) | (b17 >>> 4);
+    values[valuesOffset + 5] = ((b17 & 0xF) << 24) | (b18 << 16) | (b19 << 8) | b20;
+    values[valuesOffset + 6] = (b21 << 20) | (b22 << 12) | (b23 << 4) | (b24 >>> 4);
+    values[valuesOffset + 7] = ((b24 & 0xF) << 24) | (b25 << 16) | (b26 << 8) | b27;
+  }
+
+  private static void pack8Values29(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 21);
+    buf[bufOffset + 1] = (byte) (v0 >>> 13);
+    buf[bufOffset + 2] = (byte) (v0 >>> 5);
+    buf[bufOffset + 3] = (byte) ((v0 << 3) | (v1 >>> 26));
+    buf[bufOffset + 4] = (byte) (v1 >>> 18);
+    buf[bufOffset + 5] = (byte) (v1 >>> 10);
+    buf[bufOffset + 6] = (byte) (v1 >>> 2);
+    buf[bufOffset + 7] = (byte) ((v1 << 6) | (v2 >>> 23));
+    buf[bufOffset + 8] = (byte) (v2 >>> 15);
+    buf[bufOffset + 9] = (byte) (v2 >>> 7);
+    buf[bufOffset + 10] = (byte) ((v2 << 1) | (v3 >>> 28));
+    buf[bufOffset + 11] = (byte) (v3 >>> 20);
+    buf[bufOffset + 12] = (byte) (v3 >>> 12);
+    buf[bufOffset + 13] = (byte) (v3 >>> 4);
+    buf[bufOffset + 14] = (byte) ((v3 << 4) | (v4 >>> 25));
+    buf[bufOffset + 15] = (byte) (v4 >>> 17);
+    buf[bufOffset + 16] = (byte) (v4 >>> 9);
+    buf[bufOffset + 17] = (byte) (v4 >>> 1);
+    buf[bufOffset + 18] = (byte) ((v4 << 7) | (v5 >>> 22));
+    buf[bufOffset + 19] = (byte) (v5 >>> 14);
+    buf[bufOffset + 20] = (byte) (v5 >>> 6);
+    buf[bufOffset + 21] = (byte) ((v5 << 2) | (v6 >>> 27));
+    buf[bufOffset + 22] = (byte) (v6 >>> 19);
+    buf[bufOffset + 23] = (byte) (v6 >>> 11);
+    buf[bufOffset + 24] = (byte) (v6 >>> 3);
+    buf[bufOffset + 25] = (byte) ((v6 << 5) | (v7 >>> 24));
+    buf[bufOffset + 26] = (byte) (v7 >>> 16);
+    buf[bufOffset + 27] = (byte) (v7 >>> 8);
+    buf[bufOffset + 28] = (byte) v7;
+  }
+
+  private static void unpack8Values29(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    values[valuesOffset] = (b0 << 21) | (b1 << 13) | (b2 << 5) | (b3 >>> 3);
+    values[valuesOffset + 1] =
+        ((b3 & 0x7) << 26) | (b4 << 18) | (b5 << 10) | (b6 << 2) | (b7 >>> 6);
+    values[valuesOffset + 2] = ((b7 & 0x3F) << 23) | (b8 << 15) | (b9 << 7) | (b10 >>> 1);
+    values[valuesOffset + 3] =
+        ((b10 & 0x1) << 28) | (b11 << 20) | (b12 << 12) | (b13 << 4) | (b14 >>> 4);
+    values[valuesOffset + 4] =
+        ((b14 & 0xF) << 25) | (b15 << 17) | (b16 << 9) | (b17 << 1) | (b18 >>> 7);
+    values[valuesOffset + 5] = ((b18 & 0x7F) << 22) | (b19 << 14) | (b20 << 6) | (b21 >>> 2);
+    values[valuesOffset + 6] =
+        ((b21 & 0x3) << 27) | (b22 << 19) | (b23 << 11) | (b24 << 3) | (b25 >>> 5);
+    values[valuesOffset + 7] = ((b25 & 0x1F) << 24) | (b26 << 16) | (b27 << 8) | b28;
+  }
+
+  private static void pack8Values30(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 22);
+    buf[bufOffset + 1] = (byte) (v0 >>> 14);
+    buf[bufOffset + 2] = (byte) (v0 >>> 6);
+    buf[bufOffset + 3] = (byte) ((v0 << 2) | (v1 >>> 28));
+    buf[bufOffset + 4] = (byte) (v1 >>> 20);
+    buf[bufOffset + 5] = (byte) (v1 >>> 12);
+    buf[bufOffset + 6] = (byte) (v1 >>> 4);
+    buf[bufOffset + 7] = (byte) ((v1 << 4) | (v2 >>> 26));
+    buf[bufOffset + 8] = (byte) (v2 >>> 18);
+    buf[bufOffset + 9] = (byte) (v2 >>> 10);
+    buf[bufOffset + 10] = (byte) (v2 >>> 2);
+    buf[bufOffset + 11] = (byte) ((v2 << 6) | (v3 >>> 24));
+    buf[bufOffset + 12] = (byte) (v3 >>> 16);
+    buf[bufOffset + 13] = (byte) (v3 >>> 8);
+    buf[bufOffset + 14] = (byte) v3;
+    buf[bufOffset + 15] = (byte) (v4 >>> 22);
+    buf[bufOffset + 16] = (byte) (v4 >>> 14);
+    buf[bufOffset + 17] = (byte) (v4 >>> 6);
+    buf[bufOffset + 18] = (byte) ((v4 << 2) | (v5 >>> 28));
+    buf[bufOffset + 19] = (byte) (v5 >>> 20);
+    buf[bufOffset + 20] = (byte) (v5 >>> 12);
+    buf[bufOffset + 21] = (byte) (v5 >>> 4);
+    buf[bufOffset + 22] = (byte) ((v5 << 4) | (v6 >>> 26));
+    buf[bufOffset + 23] = (byte) (v6 >>> 18);
+    buf[bufOffset + 24] = (byte) (v6 >>> 10);
+    buf[bufOffset + 25] = (byte) (v6 >>> 2);
+    buf[bufOffset + 26] = (byte) ((v6 << 6) | (v7 >>> 24));
+    buf[bufOffset + 27] = (byte) (v7 >>> 16);
+    buf[bufOffset + 28] = (byte) (v7 >>> 8);
+    buf[bufOffset + 29] = (byte) v7;
+  }
+
+  private static void unpack8Values30(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    values[valuesOffset] = (b0 << 22) | (b1 << 14) | (b2 << 6) | (b3 >>> 2);
+    values[valuesOffset + 1] =
+        ((b3 & 0x3) << 28) | (b4 << 20) | (b5 << 12) | (b6 << 4) | (b7 >>> 4);
+    values[valuesOffset + 2] =
+        ((b7 & 0xF) << 26) | (b8 << 18) | (b9 << 10) | (b10 << 2) | (b11 >>> 6);
+    values[valuesOffset + 3] = ((b11 & 0x3F) << 24) | (b12 << 16) | (b13 << 8) | b14;
+    values[valuesOffset + 4] = (b15 << 22) | (b16 << 14) | (b17 << 6) | (b18 >>> 2);
+    values[valuesOffset + 5] =
+        ((b18 & 0x3) << 28) | (b19 << 20) | (b20 << 12) | (b21 << 4) | (b22 >>> 4);
+    values[valuesOffset + 6] =
+        ((b22 & 0xF) << 26) | (b23 << 18) | (b24 << 10) | (b25 << 2) | (b26 >>> 6);
+    values[valuesOffset + 7] = ((b26 & 0x3F) << 24) | (b27 << 16) | (b28 << 8) | b29;
+  }
+
+  private static void pack8Values31(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 23);
+    buf[bufOffset + 1] = (byte) (v0 >>> 15);
+    buf[bufOffset + 2] = (byte) (v0 >>> 7);
+    buf[bufOffset + 3] = (byte) ((v0 << 1) | (v1 >>> 30));
+    buf[bufOffset + 4] = (byte) (v1 >>> 22);
+    buf[bufOffset + 5] = (byte) (v1 >>> 14);
+    buf[bufOffset + 6] = (byte) (v1 >>> 6);
+    buf[bufOffset + 7] = (byte) ((v1 << 2) | (v2 >>> 29));
+    buf[bufOffset + 8] = (byte) (v2 >>> 21);
+    buf[bufOffset + 9] = (byte) (v2 >>> 13);
+    buf[bufOffset + 10] = (byte) (v2 >>> 5);
+    buf[bufOffset + 11] = (byte) ((v2 << 3) | (v3 >>> 28));
+    buf[bufOffset + 12] = (byte) (v3 >>> 20);
+    buf[bufOffset + 13] = (byte) (v3 >>> 12);
+    buf[bufOffset + 14] = (byte) (v3 >>> 4);
+    buf[bufOffset + 15] = (byte) ((v3 << 4) | (v4 >>> 27));
+    buf[bufOffset + 16] = (byte) (v4 >>> 19);
+    buf[bufOffset + 17] = (byte) (v4 >>> 11);
+    buf[bufOffset + 18] = (byte) (v4 >>> 3);
+    buf[bufOffset + 19] = (byte) ((v4 << 5) | (v5 >>> 26));
+    buf[bufOffset + 20] = (byte) (v5 >>> 18);
+    buf[bufOffset + 21] = (byte) (v5 >>> 10);
+    buf[bufOffset + 22] = (byte) (v5 >>> 2);
+    buf[bufOffset + 23] = (byte) ((v5 << 6) | (v6 >>> 25));
+    buf[bufOffset + 24] = (byte) (v6 >>> 17);
+    buf[bufOffset + 25] = (byte) (v6 >>> 9);
+    buf[bufOffset + 26] = (byte) (v6 >>> 1);
+    buf[bufOffset + 27] = (byte) ((v6 << 7) | (v7 >>> 24));
+    buf[bufOffset + 28] = (byte) (v7 >>> 16);
+    buf[bufOffset + 29] = (byte) (v7 >>> 8);
+    buf[bufOffset + 30] = (byte) v7;
+  }
+
+  private static void unpack8Values31(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    values[valuesOffset] = (b0 << 23) | (b1 << 15) | (b2 << 7) | (b3 >>> 1);
+    values[valuesOffset + 1] =
+        ((b3 & 0x1) << 30) | (b4 << 22) | (b5 << 14) | (b6 << 6) | (b7 >>> 2);
+    values[valuesOffset + 2] =
+        ((b7 & 0x3) << 29) | (b8 << 21) | (b9 << 13) | (b10 << 5) | (b11 >>> 3);
+    values[valuesOffset + 3] =
+        ((b11 & 0x7) << 28) | (b12 << 20) | (b13 << 12) | (b14 << 4) | (b15 >>> 4);
+    values[valuesOffset + 4] =
+        ((b15 & 0xF) << 27) | (b16 << 19) | (b17 << 11) | (b18 << 3) | (b19 >>> 5);
+    values[valuesOffset + 5] =
+        ((b19 & 0x1F) << 26) | (b20 << 18) | (b21 << 10) | (b22 << 2) | (b23 >>> 6);
+    values[valuesOffset + 6] =
+        ((b23 & 0x3F) << 25) | (b24 << 17) | (b25 << 9) | (b26 << 1) | (b27 >>> 7);
+    values[valuesOffset + 7] = ((b27 & 0x7F) << 24) | (b28 << 16) | (b29 << 8) | b30;
+  }
+
+  private static void pack8Values32(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 24);
+    buf[bufOffset + 1] = (byte) (v0 >>> 16);
+    buf[bufOffset + 2] = (byte) (v0 >>> 8);
+    buf[bufOffset + 3] = (byte) v0;
+    buf[bufOffset + 4] = (byte) (v1 >>> 24);
+    buf[bufOffset + 5] = (byte) (v1 >>> 16);
+    buf[bufOffset + 6] = (byte) (v1 >>> 8);
+    buf[bufOffset + 7] = (byte) v1;
+    buf[bufOffset + 8] = (byte) (v2 >>> 24);
+    buf[bufOffset + 9] = (byte) (v2 >>> 16);
+    buf[bufOffset + 10] = (byte) (v2 >>> 8);
+    buf[bufOffset + 11] = (byte) v2;
+    buf[bufOffset + 12] = (byte) (v3 >>> 24);
+    buf[bufOffset + 13] = (byte) (v3 >>> 16);
+    buf[bufOffset + 14] = (byte) (v3 >>> 8);
+    buf[bufOffset + 15] = (byte) v3;
+    buf[bufOffset + 16] = (byte) (v4 >>> 24);
+    buf[bufOffset + 17] = (byte) (v4 >>> 16);
+    buf[bufOffset + 18] = (byte) (v4 >>> 8);
+    buf[bufOffset + 19] = (byte) v4;
+    buf[bufOffset + 20] = (byte) (v5 >>> 24);
+    buf[bufOffset + 21] = (byte) (v5 >>> 16);
+    buf[bufOffset + 22] = (byte) (v5 >>> 8);
+    buf[bufOffset + 23] = (byte) v5;
+    buf[bufOffset + 24] = (byte) (v6 >>> 24);
+    buf[bufOffset + 25] = (byte) (v6 >>> 16);
+    buf[bufOffset + 26] = (byte) (v6 >>> 8);
+    buf[bufOffset + 27] = (byte) v6;
+    buf[bufOffset + 28] = (byte) (v7 >>> 24);
+    buf[bufOffset + 29] = (byte) (v7 >>> 16);
+    buf[bufOffset + 30] = (byte) (v7 >>> 8);
+    buf[bufOffset + 31] = (byte) v7;
+  }
+
+  private static void unpack8Values32(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    values[valuesOffset] = (b0 << 24) | (b1 << 16) | (b2 << 8) | b3;
+    values[valuesOffset + 1] = (b4 << 24) | (b5 << 16) | (b6 << 8) | b7;
+    values[valuesOffset + 2] = (b8 << 24) | (b9 << 16) | (b10 << 8) | b11;
+    values[valuesOffset + 3] = (b12 << 24) | (b13 << 16) | (b14 << 8) | b15;
+    values[valuesOffset + 4] = (b16 << 24) | (b17 << 16) | (b18 << 8) | b19;
+    values[valuesOffset + 5] = (b20 << 24) | (b21 << 16) | (b22 << 8) | b23;
+    values[valuesOffset + 6] = (b24 << 24) | (b25 << 16) | (b26 << 8) | b27;
+    values[valuesOffset + 7] = (b28 << 24) | (b29 << 16) | (b30 << 8) | b31;
+  }
+
+  private static void pack8Values33(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 25);
+    buf[bufOffset + 1] = (byte) (v0 >>> 17);
+    buf[bufOffset + 2] = (byte) (v0 >>> 9);
+    buf[bufOffset + 3] = (byte) (v0 >>> 1);
+    buf[bufOffset + 4] = (byte) ((v0 << 7) | (v1 >>> 26));
+    buf[bufOffset + 5] = (byte) (v1 >>> 18);
+    buf[bufOffset + 6] = (byte) (v1 >>> 10);
+    buf[bufOffset + 7] = (byte) (v1 >>> 2);
+    buf[bufOffset + 8] = (byte) ((v1 << 6) | (v2 >>> 27));
+    buf[bufOffset + 9] = (byte) (v2 >>> 19);
+    buf[bufOffset + 10] = (byte) (v2 >>> 11);
+    buf[bufOffset + 11] = (byte) (v2 >>> 3);
+    buf[bufOffset + 12] = (byte) ((v2 << 5) | (v3 >>> 28));
+    buf[bufOffset + 13] = (byte) (v3 >>> 20);
+    buf[bufOffset + 14] = (byte) (v3 >>> 12);
+    buf[bufOffset + 15] = (byte) (v3 >>> 4);
+    buf[bufOffset + 16] = (byte) ((v3 << 4) | (v4 >>> 29));
+    buf[bufOffset + 17] = (byte) (v4 >>> 21);
+    buf[bufOffset + 18] = (byte) (v4 >>> 13);
+    buf[bufOffset + 19] = (byte) (v4 >>> 5);
+    buf[bufOffset + 20] = (byte) ((v4 << 3) | (v5 >>> 30));
+    buf[bufOffset + 21] = (byte) (v5 >>> 22);
+    buf[bufOffset + 22] = (byte) (v5 >>> 14);
+    buf[bufOffset + 23] = (byte) (v5 >>> 6);
+    buf[bufOffset + 24] = (byte) ((v5 << 2) | (v6 >>> 31));
+    buf[bufOffset + 25] = (byte) (v6 >>> 23);
+    buf[bufOffset + 26] = (byte) (v6 >>> 15);
+    buf[bufOffset + 27] = (byte) (v6 >>> 7);
+    buf[bufOffset + 28] = (byte) ((v6 << 1) | (v7 >>> 32));
+    buf[bufOffset + 29] = (byte) (v7 >>> 24);
+    buf[bufOffset + 30] = (byte) (v7 >>> 16);
+    buf[bufOffset + 31] = (byte) (v7 >>> 8);
+    buf[bufOffset + 32] = (byte) v7;
+  }
+
+  private static void unpack8Values33(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    values[valuesOffset] = (b0 << 25) | (b1 << 17) | (b2 << 9) | (b3 << 1) | (b4 >>> 7);
+    values[valuesOffset + 1] =
+        ((b4 & 0x7F) << 26) | (b5 << 18) | (b6 << 10) | (b7 << 2) | (b8 >>> 6);
+    values[valuesOffset + 2] =
+        ((b8 & 0x3F) << 27) | (b9 << 19) | (b10 << 11) | (b11 << 3) | (b12 >>> 5);
+    values[valuesOffset + 3] =
+        ((b12 & 0x1F) << 28) | (b13 << 20) | (b14 << 12) | (b15 << 4) | (b16 >>> 4);
+    values[valuesOffset + 4] =
+        ((b16 & 0xF) << 29) | (b17 << 21) | (b18 << 13) | (b19 << 5) | (b20 >>> 3);
+    values[valuesOffset + 5] =
+        ((b20 & 0x7) << 30) | (b21 << 22) | (b22 << 14) | (b23 << 6) | (b24 >>> 2);
+    values[valuesOffset + 6] =
+        ((b24 & 0x3) << 31) | (b25 << 23) | (b26 << 15) | (b27 << 7) | (b28 >>> 1);
+    values[valuesOffset + 7] = ((b28 & 0x1) << 32) | (b29 << 24) | (b30 << 16) | (b31 << 8) | b32;
+  }
+
+  private static void pack8Values34(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 26);
+    buf[bufOffset + 1] = (byte) (v0 >>> 18);
+    buf[bufOffset + 2] = (byte) (v0 >>> 10);
+    buf[bufOffset + 3] = (byte) (v0 >>> 2);
+    buf[bufOffset + 4] = (byte) ((v0 << 6) | (v1 >>> 28));
+    buf[bufOffset + 5] = (byte) (v1 >>> 20);
+    buf[bufOffset + 6] = (byte) (v1 >>> 12);
+    buf[bufOffset + 7] = (byte) (v1 >>> 4);
+    buf[bufOffset + 8] = (byte) ((v1 << 4) | (v2 >>> 30));
+    buf[bufOffset + 9] = (byte) (v2 >>> 22);
+    buf[bufOffset + 10] = (byte) (v2 >>> 14);
+    buf[bufOffset + 11] = (byte) (v2 >>> 6);
+    buf[bufOffset + 12] = (byte) ((v2 << 2) | (v3 >>> 32));
+    buf[bufOffset + 13] = (byte) (v3 >>> 24);
+    buf[bufOffset + 14] = (byte) (v3 >>> 16);
+    buf[bufOffset + 15] = (byte) (v3 >>> 8);
+    buf[bufOffset + 16] = (byte) v3;
+    buf[bufOffset + 17] = (byte) (v4 >>> 26);
+    buf[bufOffset + 18] = (byte) (v4 >>> 18);
+    buf[bufOffset + 19] = (byte) (v4 >>> 10);
+    buf[bufOffset + 20] = (byte) (v4 >>> 2);
+    buf[bufOffset + 21] = (byte) ((v4 << 6) | (v5 >>> 28));
+    buf[bufOffset + 22] = (byte) (v5 >>> 20);
+    buf[bufOffset + 23] = (byte) (v5 >>> 12);
+    buf[bufOffset + 24] = (byte) (v5 >>> 4);
+    buf[bufOffset + 25] = (byte) ((v5 << 4) | (v6 >>> 30));
+    buf[bufOffset + 26] = (byte) (v6 >>> 22);
+    buf[bufOffset + 27] = (byte) (v6 >>> 14);
+    buf[bufOffset + 28] = (byte) (v6 >>> 6);
+    buf[bufOffset + 29] = (byte) ((v6 << 2) | (v7 >>> 32));
+    buf[bufOffset + 30] = (byte) (v7 >>> 24);
+    buf[bufOffset + 31] = (byte) (v7 >>> 16);
+    buf[bufOffset + 32] = (byte) (v7 >>> 8);
+    buf[bufOffset + 33] = (byte) v7;
+  }
+
+  private static void unpack8Values34(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    values[valuesOffset] = (b0 << 26) | (b1 << 18) | (b2 << 10) | (b3 << 2) | (b4 >>> 6);
+    values[valuesOffset + 1] =
+        ((b4 & 0x3F) << 28) | (b5 << 20) | (b6 << 12) | (b7 << 4) | (b8 >>> 4);
+    values[valuesOffset + 2] =
+        ((b8 & 0xF) << 30) | (b9 << 22) | (b10 << 14) | (b11 << 6) | (b12 >>> 2);
+    values[valuesOffset + 3] = ((b12 & 0x3) << 32) | (b13 << 24) | (b14 << 16) | (b15 << 8) | b16;
+    values[valuesOffset + 4] = (b17 << 26) | (b18 << 18) | (b19 << 10) | (b20 << 2) | (b21 >>> 6);
+    values[valuesOffset + 5] =
+        ((b21 & 0x3F) << 28) | (b22 << 20) | (b23 << 12) | (b24 << 4) | (b25 >>> 4);
+    values[valuesOffset + 6] =
+        ((b25 & 0xF) << 30) | (b26 << 22) | (b27 << 14) | (b28 << 6) | (b29 >>> 2);
+    values[valuesOffset + 7] = ((b29 & 0x3) << 32) | (b30 << 24) | (b31 << 16) | (b32 << 8) | b33;
+  }
+
+  private static void pack8Values35(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 27);
+    buf[bufOffset + 1] = (byte) (v0 >>> 19);
+    buf[bufOffset + 2] = (byte) (v0 >>> 11);
+    buf[bufOffset + 3] = (byte) (v0 >>> 3);
+    buf[bufOffset + 4] = (byte) ((v0 << 5) | (v1 >>> 30));
+    buf[bufOffset + 5] = (byte) (v1 >>> 22);
+    buf[bufOffset + 6] = (byte) (v1 >>> 14);
+    buf[bufOffset + 7] = (byte) (v1 >>> 6);
+    buf[bufOffset + 8] = (byte) ((v1 << 2) | (v2 >>> 33));
+    buf[bufOffset + 9] = (byte) (v2 >>> 25);
+    buf[bufOffset + 10] = (byte) (v2 >>> 17);
+    buf[bufOffset + 11] = (byte) (v2 >>> 9);
+    buf[bufOffset + 12] = (byte) (v2 >>> 1);
+    buf[bufOffset + 13] = (byte) ((v2 << 7) | (v3 >>> 28));
+    buf[bufOffset + 14] = (byte) (v3 >>> 20);
+    buf[bufOffset + 15] = (byte) (v3 >>> 12);
+    buf[bufOffset + 16] = (byte) (v3 >>> 4);
+    buf[bufOffset + 17] = (byte) ((v3 << 4) | (v4 >>> 31));
+    buf[bufOffset + 18] = (byte) (v4 >>> 23);
+    buf[bufOffset + 19] = (byte) (v4 >>> 15);
+    buf[bufOffset + 20] = (byte) (v4 >>> 7);
+    buf[bufOffset + 21] = (byte) ((v4 << 1) | (v5 >>> 34));
+    buf[bufOffset + 22] = (byte) (v5 >>> 26);
+    buf[bufOffset + 23] = (byte) (v5 >>> 18);
+    buf[bufOffset + 24] = (byte) (v5 >>> 10);
+    buf[bufOffset + 25] = (byte) (v5 >>> 2);
+    buf[bufOffset + 26] = (byte) ((v5 << 6) | (v6 >>> 29));
+    buf[bufOffset + 27] = (byte) (v6 >>> 21);
+    buf[bufOffset + 28] = (byte) (v6 >>> 13);
+    buf[bufOffset + 29] = (byte) (v6 >>> 5);
+    buf[bufOffset + 30] = (byte) ((v6 << 3) | (v7 >>> 32));
+    buf[bufOffset + 31] = (byte) (v7 >>> 24);
+    buf[bufOffset + 32] = (byte) (v7 >>> 16);
+    buf[bufOffset + 33] = (byte) (v7 >>> 8);
+    buf[bufOffset + 34] = (byte) v7;
+  }
+
+  private static void unpack8Values35(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    values[valuesOffset] = (b0 << 27) | (b1 << 19) | (b2 << 11) | (b3 << 3) | (b4 >>> 5);
+    values[valuesOffset + 1] =
+        ((b4 & 0x1F) << 30) | (b5 << 22) | (b6 << 14) | (b7 << 6) | (b8 >>> 2);
+    values[valuesOffset + 2] =
+        ((b8 & 0x3) << 33) | (b9 << 25) | (b10 << 17) | (b11 << 9) | (b12 << 1) | (b13 >>> 7);
+    values[valuesOffset + 3] =
+        ((b13 & 0x7F) << 28) | (b14 << 20) | (b15 << 12) | (b16 << 4) | (b17 >>> 4);
+    values[valuesOffset + 4] =
+        ((b17 & 0xF) << 31) | (b18 << 23) | (b19 << 15) | (b20 << 7) | (b21 >>> 1);
+    values[valuesOffset + 5] =
+        ((b21 & 0x1) << 34) | (b22 << 26) | (b23 << 18) | (b24 << 10) | (b25 << 2) | (b26 >>> 6);
+    values[valuesOffset + 6] =
+        ((b26 & 0x3F) << 29) | (b27 << 21) | (b28 << 13) | (b29 << 5) | (b30 >>> 3);
+    values[valuesOffset + 7] = ((b30 & 0x7) << 32) | (b31 << 24) | (b32 << 16) | (b33 << 8) | b34;
+  }
+
+  private static void pack8Values36(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 28);
+    buf[bufOffset + 1] = (byte) (v0 >>> 20);
+    buf[bufOffset + 2] = (byte) (v0 >>> 12);
+    buf[bufOffset + 3] = (byte) (v0 >>> 4);
+    buf[bufOffset + 4] = (byte) ((v0 << 4) | (v1 >>> 32));
+    buf[bufOffset + 5] = (byte) (v1 >>> 24);
+    buf[bufOffset + 6] = (byte) (v1 >>> 16);
+    buf[bufOffset + 7] = (byte) (v1 >>> 8);
+    buf[bufOffset + 8] = (byte) v1;
+    buf[bufOffset + 9] = (byte) (v2 >>> 28);
+    buf[bufOffset + 10] = (byte) (v2 >>> 20);
+    buf[bufOffset + 11] = (byte) (v2 >>> 12);
+    buf[bufOffset + 12] = (byte) (v2 >>> 4);
+    buf[bufOffset + 13] = (byte) ((v2 << 4) | (v3 >>> 32));
+    buf[bufOffset + 14] = (byte) (v3 >>> 24);
+    buf[bufOffset + 15] = (byte) (v3 >>> 16);
+    buf[bufOffset + 16] = (byte) (v3 >>> 8);
+    buf[bufOffset + 17] = (byte) v3;
+    buf[bufOffset + 18] = (byte) (v4 >>> 28);
+    buf[bufOffset + 19] = (byte) (v4 >>> 20);
+    buf[bufOffset + 20] = (byte) (v4 >>> 12);
+    buf[bufOffset + 21] = (byte) (v4 >>> 4);
+    buf[bufOffset + 22] = (byte) ((v4 << 4) | (v5 >>> 32));
+    buf[bufOffset + 23] = (byte) (v5 >>> 24);
+    buf[bufOffset + 24] = (byte) (v5 >>> 16);
+    buf[bufOffset + 25] = (byte) (v5 >>> 8);
+    buf[bufOffset + 26] = (byte) v5;
+    buf[bufOffset + 27] = (byte) (v6 >>> 28);
+    buf[bufOffset + 28] = (byte) (v6 >>> 20);
+    buf[bufOffset + 29] = (byte) (v6 >>> 12);
+    buf[bufOffset + 30] = (byte) (v6 >>> 4);
+    buf[bufOffset + 31] = (byte) ((v6 << 4) | (v7 >>> 32));
+    buf[bufOffset + 32] = (byte) (v7 >>> 24);
+    buf[bufOffset + 33] = (byte) (v7 >>> 16);
+    buf[bufOffset + 34] = (byte) (v7 >>> 8);
+    buf[bufOffset + 35] = (byte) v7;
+  }
+
+  private static void unpack8Values36(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    values[valuesOffset] = (b0 << 28) | (b1 << 20) | (b2 << 12) | (b3 << 4) | (b4 >>> 4);
+    values[valuesOffset + 1] = ((b4 & 0xF) << 32) | (b5 << 24) | (b6 << 16) | (b7 << 8) | b8;
+    values[valuesOffset + 2] = (b9 << 28) | (b10 << 20) | (b11 << 12) | (b12 << 4) | (b13 >>> 4);
+    values[valuesOffset + 3] = ((b13 & 0xF) << 32) | (b14 << 24) | (b15 << 16) | (b16 << 8) | b17;
+    values[valuesOffset + 4] = (b18 << 28) | (b19 << 20) | (b20 << 12) | (b21 << 4) | (b22 >>> 4);
+    values[valuesOffset + 5] = ((b22 & 0xF) << 32) | (b23 << 24) | (b24 << 16) | (b25 << 8) | b26;
+    values[valuesOffset + 6] = (b27 << 28) | (b28 << 20) | (b29 << 12) | (b30 << 4) | (b31 >>> 4);
+    values[valuesOffset + 7] = ((b31 & 0xF) << 32) | (b32 << 24) | (b33 << 16) | (b34 << 8) | b35;
+  }
+
+  private static void pack8Values37(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 29);
+    buf[bufOffset + 1] = (byte) (v0 >>> 21);
+    buf[bufOffset + 2] = (byte) (v0 >>> 13);
+    buf[bufOffset + 3] = (byte) (v0 >>> 5);
+    buf[bufOffset + 4] = (byte) ((v0 << 3) | (v1 >>> 34));
+    buf[bufOffset + 5] = (byte) (v1 >>> 26);
+    buf[bufOffset + 6] = (byte) (v1 >>> 18);
+    buf[bufOffset + 7] = (byte) (v1 >>> 10);
+    buf[bufOffset + 8] = (byte) (v1 >>> 2);
+    buf[bufOffset + 9] = (byte) ((v1 << 6) | (v2 >>> 31));
+    buf[bufOffset + 10] = (byte) (v2 >>> 23);
+    buf[bufOffset + 11] = (byte) (v2 >>> 15);
+    buf[bufOffset + 12] = (byte) (v2 >>> 7);
+    buf[bufOffset + 13] = (byte) ((v2 << 1) | (v3 >>> 36));
+    buf[bufOffset + 14] = (byte) (v3 >>> 28);
+    buf[bufOffset + 15] = (byte) (v3 >>> 20);
+    buf[bufOffset + 16] = (byte) (v3 >>> 12);
+    buf[bufOffset + 17] = (byte) (v3 >>> 4);
+    buf[bufOffset + 18] = (byte) ((v3 << 4) | (v4 >>> 33));
+    buf[bufOffset + 19] = (byte) (v4 >>> 25);
+    buf[bufOffset + 20] = (byte) (v4 >>> 17);
+    buf[bufOffset + 21] = (byte) (v4 >>> 9);
+    buf[bufOffset + 22] = (byte) (v4 >>> 1);
+    buf[bufOffset + 23] = (byte) ((v4 << 7) | (v5 >>> 30));
+    buf[bufOffset + 24] = (byte) (v5 >>> 22);
+    buf[bufOffset + 25] = (byte) (v5 >>> 14);
+    buf[bufOffset + 26] = (byte) (v5 >>> 6);
+    buf[bufOffset + 27] = (byte) ((v5 << 2) | (v6 >>> 35));
+    buf[bufOffset + 28] = (byte) (v6 >>> 27);
+    buf[bufOffset + 29] = (byte) (v6 >>> 19);
+    buf[bufOffset + 30] = (byte) (v6 >>> 11);
+    buf[bufOffset + 31] = (byte) (v6 >>> 3);
+    buf[bufOffset + 32] = (byte) ((v6 << 5) | (v7 >>> 32));
+    buf[bufOffset + 33] = (byte) (v7 >>> 24);
+    buf[bufOffset + 34] = (byte) (v7 >>> 16);
+    buf[bufOffset + 35] = (byte) (v7 >>> 8);
+    buf[bufOffset + 36] = (byte) v7;
+  }
+
+  private static void unpack8Values37(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    values[valuesOffset] = (b0 << 29) | (b1 << 21) | (b2 << 13) | (b3 << 5) | (b4 >>> 3);
+    values[valuesOffset + 1] =
+        ((b4 & 0x7) << 34) | (b5 << 26) | (b6 << 18) | (b7 << 10) | (b8 << 2) | (b9 >>> 6);
+    values[valuesOffset + 2] =
+        ((b9 & 0x3F) << 31) | (b10 << 23) | (b11 << 15) | (b12 << 7) | (b13 >>> 1);
+    values[valuesOffset + 3] =
+        ((b13 & 0x1) << 36) | (b14 << 28) | (b15 << 20) | (b16 << 12) | (b17 << 4) | (b18 >>> 4);
+    values[valuesOffset + 4] =
+        ((b18 & 0xF) << 33) | (b19 << 25) | (b20 << 17) | (b21 << 9) | (b22 << 1) | (b23 >>> 7);
+    values[valuesOffset + 5] =
+        ((b23 & 0x7F) << 30) | (b24 << 22) | (b25 << 14) | (b26 << 6) | (b27 >>> 2);
+    values[valuesOffset + 6] =
+        ((b27 & 0x3) << 35) | (b28 << 27) | (b29 << 19) | (b30 << 11) | (b31 << 3) | (b32 >>> 5);
+    values[valuesOffset + 7] = ((b32 & 0x1F) << 32) | (b33 << 24) | (b34 << 16) | (b35 << 8) | b36;
+  }
+
+  private static void pack8Values38(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 30);
+    buf[bufOffset + 1] = (byte) (v0 >>> 22);
+    buf[bufOffset + 2] = (byte) (v0 >>> 14);
+    buf[bufOffset + 3] = (byte) (v0 >>> 6);
+    buf[bufOffset + 4] = (byte) ((v0 << 2) | (v1 >>> 36));
+    buf[bufOffset + 5] = (byte) (v1 >>> 28);
+    buf[bufOffset + 6] = (byte) (v1 >>> 20);
+    buf[bufOffset + 7] = (byte) (v1 >>> 12);
+    buf[bufOffset + 8] = (byte) (v1 >>> 4);
+    buf[bufOffset + 9] = (byte) ((v1 << 4) | (v2 >>> 34));
+    buf[bufOffset + 10] = (byte) (v2 >>> 26);
+    buf[bufOffset + 11] = (byte) (v2 >>> 18);
+    buf[bufOffset + 12] = (byte) (v2 >>> 10);
+    buf[bufOffset + 13] = (byte) (v2 >>> 2);
+    buf[bufOffset + 14] = (byte) ((v2 << 6) | (v3 >>> 32));
+    buf[bufOffset + 15] = (byte) (v3 >>> 24);
+    buf[bufOffset + 16] = (byte) (v3 >>> 16);
+    buf[bufOffset + 17] = (byte) (v3 >>> 8);
+    buf[bufOffset + 18] = (byte) v3;
+    buf[bufOffset + 19] = (byte) (v4 >>> 30);
+    buf[bufOffset + 20] = (byte) (v4 >>> 22);
+    buf[bufOffset + 21] = (byte) (v4 >>> 14);
+    buf[bufOffset + 22] = (byte) (v4 >>> 6);
+    buf[bufOffset + 23] = (byte) ((v4 << 2) | (v5 >>> 36));
+    buf[bufOffset + 24] = (byte) (v5 >>> 28);
+    buf[bufOffset + 25] = (byte) (v5 >>> 20);
+    buf[bufOffset + 26] = (byte) (v5 >>> 12);
+    buf[bufOffset + 27] = (byte) (v5 >>> 4);
+    buf[bufOffset + 28] = (byte) ((v5 << 4) | (v6 >>> 34));
+    buf[bufOffset + 29] = (byte) (v6 >>> 26);
+    buf[bufOffset + 30] = (byte) (v6 >>> 18);
+    buf[bufOffset + 31] = (byte) (v6 >>> 10);
+    buf[bufOffset + 32] = (byte) (v6 >>> 2);
+    buf[bufOffset + 33] = (byte) ((v6 << 6) | (v7 >>> 32));
+    buf[bufOffset + 34] = (byte) (v7 >>> 24);
+    buf[bufOffset + 35] = (byte) (v7 >>> 16);
+    buf[bufOffset + 36] = (byte) (v7 >>> 8);
+    buf[bufOffset + 37] = (byte) v7;
+  }
+
+  private static void unpack8Values38(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    values[valuesOffset] = (b0 << 30) | (b1 << 22) | (b2 << 14) | (b3 << 6) | (b4 >>> 2);
+    values[valuesOffset + 1] =
+        ((b4 & 0x3) << 36) | (b5 << 28) | (b6 << 20) | (b7 << 12) | (b8 << 4) | (b9 >>> 4);
+    values[valuesOffset + 2] =
+        ((b9 & 0xF) << 34) | (b10 << 26) | (b11 << 18) | (b12 << 10) | (b13 << 2) | (b14 >>> 6);
+    values[valuesOffset + 3] = ((b14 & 0x3F) << 32) | (b15 << 24) | (b16 << 16) | (b17 << 8) | b18;
+    values[valuesOffset + 4] = (b19 << 30) | (b20 << 22) | (b21 << 14) | (b22 << 6) | (b23 >>> 2);
+    values[valuesOffset + 5] =
+        ((b23 & 0x3) << 36) | (b24 << 28) | (b25 << 20) | (b26 << 12) | (b27 << 4) | (b28 >>> 4);
+    values[valuesOffset + 6] =
+        ((b28 & 0xF) << 34) | (b29 << 26) | (b30 << 18) | (b31 << 10) | (b32 << 2) | (b33 >>> 6);
+    values[valuesOffset + 7] = ((b33 & 0x3F) << 32) | (b34 << 24) | (b35 << 16) | (b36 << 8) | b37;
+  }
+
+  private static void pack8Values39(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 31);
+    buf[bufOffset + 1] = (byte) (v0 >>> 23);
+    buf[bufOffset + 2] = (byte) (v0 >>> 15);
+    buf[bufOffset + 3] = (byte) (v0 >>> 7);
+    buf[bufOffset + 4] = (byte) ((v0 << 1) | (v1 >>> 38));
+    buf[bufOffset + 5] = (byte) (v1 >>> 30);
+    buf[bufOffset + 6] = (byte) (v1 >>> 22);
+    buf[bufOffset + 7] = (byte) (v1 >>> 14);
+    buf[bufOffset + 8] = (byte) (v1 >>> 6);
+    buf[bufOffset + 9] = (byte) ((v1 << 2) | (v2 >>> 37));
+    buf[bufOffset + 10] = (byte) (v2 >>> 29);
+    buf[bufOffset + 11] = (byte) (v2 >>> 21);
+    buf[bufOffset + 12] = (byte) (v2 >>> 13);
+    buf[bufOffset + 13] = (byte) (v2 >>> 5);
+    buf[bufOffset + 14] = (byte) ((v2 << 3) | (v3 >>> 36));
+    buf[bufOffset + 15] = (byte) (v3 >>> 28);
+    buf[bufOffset + 16] = (byte) (v3 >>> 20);
+    buf[bufOffset + 17] = (byte) (v3 >>> 12);
+    buf[bufOffset + 18] = (byte) (v3 >>> 4);
+    buf[bufOffset + 19] = (byte) ((v3 << 4) | (v4 >>> 35));
+    buf[bufOffset + 20] = (byte) (v4 >>> 27);
+    buf[bufOffset + 21] = (byte) (v4 >>> 19);
+    buf[bufOffset + 22] = (byte) (v4 >>> 11);
+    buf[bufOffset + 23] = (byte) (v4 >>> 3);
+    buf[bufOffset + 24] = (byte) ((v4 << 5) | (v5 >>> 34));
+    buf[bufOffset + 25] = (byte) (v5 >>> 26);
+    buf[bufOffset + 26] = (byte) (v5 >>> 18);
+    buf[bufOffset + 27] = (byte) (v5 >>> 10);
+    buf[bufOffset + 28] = (byte) (v5 >>> 2);
+    buf[bufOffset + 29] = (byte) ((v5 << 6) | (v6 >>> 33));
+    buf[bufOffset + 30] = (byte) (v6 >>> 25);
+    buf[bufOffset + 31] = (byte) (v6 >>> 17);
+    buf[bufOffset + 32] = (byte) (v6 >>> 9);
+    buf[bufOffset + 33] = (byte) (v6 >>> 1);
+    buf[bufOffset + 34] = (byte) ((v6 << 7) | (v7 >>> 32));
+    buf[bufOffset + 35] = (byte) (v7 >>> 24);
+    buf[bufOffset + 36] = (byte) (v7 >>> 16);
+    buf[bufOffset + 37] = (byte) (v7 >>> 8);
+    buf[bufOffset + 38] = (byte) v7;
+  }
+
+  private static void unpack8Values39(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    values[valuesOffset] = (b0 << 31) | (b1 << 23) | (b2 << 15) | (b3 << 7) | (b4 >>> 1);
+    values[valuesOffset + 1] =
+        ((b4 & 0x1) << 38) | (b5 << 30) | (b6 << 22) | (b7 << 14) | (b8 << 6) | (b9 >>> 2);
+    values[valuesOffset + 2] =
+        ((b9 & 0x3) << 37) | (b10 << 29) | (b11 << 21) | (b12 << 13) | (b13 << 5) | (b14 >>> 3);
+    values[valuesOffset + 3] =
+        ((b14 & 0x7) << 36) | (b15 << 28) | (b16 << 20) | (b17 << 12) | (b18 << 4) | (b19 >>> 4);
+    values[valuesOffset + 4] =
+        ((b19 & 0xF) << 35) | (b20 << 27) | (b21 << 19) | (b22 << 11) | (b23 << 3) | (b24 >>> 5);
+    values[valuesOffset + 5] =
+        ((b24 & 0x1F) << 34) | (b25 << 26) | (b26 << 18) | (b27 << 10) | (b28 << 2) | (b29 >>> 6);
+    values[valuesOffset + 6] =
+        ((b29 & 0x3F) << 33) | (b30 << 25) | (b31 << 17) | (b32 << 9) | (b33 << 1) | (b34 >>> 7);
+    values[valuesOffset + 7] = ((b34 & 0x7F) << 32) | (b35 << 24) | (b36 << 16) | (b37 << 8) | b38;
+  }
+
+  private static void pack8Values40(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 32);
+    buf[bufOffset + 1] = (byte) (v0 >>> 24);
+    buf[bufOffset + 2] = (byte) (v0 >>> 16);
+    buf[bufOffset + 3] = (byte) (v0 >>> 8);
+    buf[bufOffset + 4] = (byte) v0;
+    buf[bufOffset + 5] = (byte) (v1 >>> 32);
+    buf[bufOffset + 6] = (byte) (v1 >>> 24);
+    buf[bufOffset + 7] = (byte) (v1 >>> 16);
+    buf[bufOffset + 8] = (byte) (v1 >>> 8);
+    buf[bufOffset + 9] = (byte) v1;
+    buf[bufOffset + 10] = (byte) (v2 >>> 32);
+    buf[bufOffset + 11] = (byte) (v2 >>> 24);
+    buf[bufOffset + 12] = (byte) (v2 >>> 16);
+    buf[bufOffset + 13] = (byte) (v2 >>> 8);
+    buf[bufOffset + 14] = (byte) v2;
+    buf[bufOffset + 15] = (byte) (v3 >>> 32);
+    buf[bufOffset + 16] = (byte) (v3 >>> 24);
+    buf[bufOffset + 17] = (byte) (v3 >>> 16);
+    buf[bufOffset + 18] = (byte) (v3 >>> 8);
+    buf[bufOffset + 19] = (byte) v3;
+    buf[bufOffset + 20] = (byte) (v4 >>> 32);
+    buf[bufOffset + 21] = (byte) (v4 >>> 24);
+    buf[bufOffset + 22] = (byte) (v4 >>> 16);
+    buf[bufOffset + 23] = (byte) (v4 >>> 8);
+    buf[bufOffset + 24] = (byte) v4;
+    buf[bufOffset + 25] = (byte) (v5 >>> 32);
+    buf[bufOffset + 26] = (byte) (v5 >>> 24);
+    buf[bufOffset + 27] = (byte) (v5 >>> 16);
+    buf[bufOffset + 28] = (byte) (v5 >>> 8);
+    buf[bufOffset + 29] = (byte) v5;
+    buf[bufOffset + 30] = (byte) (v6 >>> 32);
+    buf[bufOffset + 31] = (byte) (v6 >>> 24);
+    buf[bufOffset + 32] = (byte) (v6 >>> 16);
+    buf[bufOffset + 33] = (byte) (v6 >>> 8);
+    buf[bufOffset + 34] = (byte) v6;
+    buf[bufOffset + 35] = (byte) (v7 >>> 32);
+    buf[bufOffset + 36] = (byte) (v7 >>> 24);
+    buf[bufOffset + 37] = (byte) (v7 >>> 16);
+    buf[bufOffset + 38] = (byte) (v7 >>> 8);
+    buf[bufOffset + 39] = (byte) v7;
+  }
+
+  private static void unpack8Values40(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    values[valuesOffset] = (b0 << 32) | (b1 << 24) | (b2 << 16) | (b3 << 8) | b4;
+    values[valuesOffset + 1] = (b5 << 32) | (b6 << 24) | (b7 << 16) | (b8 << 8) | b9;
+    values[valuesOffset + 2] = (b10 << 32) | (b11 << 24) | (b12 << 16) | (b13 << 8) | b14;
+    values[valuesOffset + 3] = (b15 << 32) | (b16 << 24) | (b17 << 16) | (b18 << 8) | b19;
+    values[valuesOffset + 4] = (b20 << 32) | (b21 << 24) | (b22 << 16) | (b23 << 8) | b24;
+    values[valuesOffset + 5] = (b25 << 32) | (b26 << 24) | (b27 << 16) | (b28 << 8) | b29;
+    values[valuesOffset + 6] = (b30 << 32) | (b31 << 24) | (b32 << 16) | (b33 << 8) | b34;
+    values[valuesOffset + 7] = (b35 << 32) | (b36 << 24) | (b37 << 16) | (b38 << 8) | b39;
+  }
+
+  private static void pack8Values41(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 33);
+    buf[bufOffset + 1] = (byte) (v0 >>> 25);
+    buf[bufOffset + 2] = (byte) (v0 >>> 17);
+    buf[bufOffset + 3] = (byte) (v0 >>> 9);
+    buf[bufOffset + 4] = (byte) (v0 >>> 1);
+    buf[bufOffset + 5] = (byte) ((v0 << 7) | (v1 >>> 34));
+    buf[bufOffset + 6] = (byte) (v1 >>> 26);
+    buf[bufOffset + 7] = (byte) (v1 >>> 18);
+    buf[bufOffset + 8] = (byte) (v1 >>> 10);
+    buf[bufOffset + 9] = (byte) (v1 >>> 2);
+    buf[bufOffset + 10] = (byte) ((v1 << 6) | (v2 >>> 35));
+    buf[bufOffset + 11] = (byte) (v2 >>> 27);
+    buf[bufOffset + 12] = (byte) (v2 >>> 19);
+    buf[bufOffset + 13] = (byte) (v2 >>> 11);
+    buf[bufOffset + 14] = (byte) (v2 >>> 3);
+    buf[bufOffset + 15] = (byte) ((v2 << 5) | (v3 >>> 36));
+    buf[bufOffset + 16] = (byte) (v3 >>> 28);
+    buf[bufOffset + 17] = (byte) (v3 >>> 20);
+    buf[bufOffset + 18] = (byte) (v3 >>> 12);
+    buf[bufOffset + 19] = (byte) (v3 >>> 4);
+    buf[bufOffset + 20] = (byte) ((v3 << 4) | (v4 >>> 37));
+    buf[bufOffset + 21] = (byte) (v4 >>> 29);
+    buf[bufOffset + 22] = (byte) (v4 >>> 21);
+    buf[bufOffset + 23] = (byte) (v4 >>> 13);
+    buf[bufOffset + 24] = (byte) (v4 >>> 5);
+    buf[bufOffset + 25] = (byte) ((v4 << 3) | (v5 >>> 38));
+    buf[bufOffset + 26] = (byte) (v5 >>> 30);
+    buf[bufOffset + 27] = (byte) (v5 >>> 22);
+    buf[bufOffset + 28] = (byte) (v5 >>> 14);
+    buf[bufOffset + 29] = (byte) (v5 >>> 6);
+    buf[bufOffset + 30] = (byte) ((v5 << 2) | (v6 >>> 39));
+    buf[bufOffset + 31] = (byte) (v6 >>> 31);
+    buf[bufOffset + 32] = (byte) (v6 >>> 23);
+    buf[bufOffset + 33] = (byte) (v6 >>> 15);
+    buf[bufOffset + 34] = (byte) (v6 >>> 7);
+    buf[bufOffset + 35] = (byte) ((v6 << 1) | (v7 >>> 40));
+    buf[bufOffset + 36] = (byte) (v7 >>> 32);
+    buf[bufOffset + 37] = (byte) (v7 >>> 24);
+    buf[bufOffset + 38] = (byte) (v7 >>> 16);
+    buf[bufOffset + 39] = (byte) (v7 >>> 8);
+    buf[bufOffset + 40] = (byte) v7;
+  }
+
+  private static void unpack8Values41(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 33) | (b1 << 25) | (b2 << 17) | (b3 << 9) | (b4 << 1) | (b5 >>> 7);
+    values[valuesOffset + 1] =
+        ((b5 & 0x7F) << 34) | (b6 << 26) | (b7 << 18) | (b8 << 10) | (b9 << 2) | (b10 >>> 6);
+    values[valuesOffset + 2] =
+        ((b10 & 0x3F) << 35) | (b11 << 27) | (b12 << 19) | (b13 << 11) | (b14 << 3) | (b15 >>> 5);
+    values[valuesOffset + 3] =
+        ((b15 & 0x1F) << 36) | (b16 << 28) | (b17 << 20) | (b18 << 12) | (b19 << 4) | (b20 >>> 4);
+    values[valuesOffset + 4] =
+        ((b20 & 0xF) << 37) | (b21 << 29) | (b22 << 21) | (b23 << 13) | (b24 << 5) | (b25 >>> 3);
+    values[valuesOffset + 5] =
+        ((b25 & 0x7) << 38) | (b26 << 30) | (b27 << 22) | (b28 << 14) | (b29 << 6) | (b30 >>> 2);
+    values[valuesOffset + 6] =
+        ((b30 & 0x3) << 39) | (b31 << 31) | (b32 << 23) | (b33 << 15) | (b34 << 7) | (b35 >>> 1);
+    values[valuesOffset + 7] =
+        ((b35 & 0x1) << 40) | (b36 << 32) | (b37 << 24) | (b38 << 16) | (b39 << 8) | b40;
+  }
+
+  private static void pack8Values42(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 34);
+    buf[bufOffset + 1] = (byte) (v0 >>> 26);
+    buf[bufOffset + 2] = (byte) (v0 >>> 18);
+    buf[bufOffset + 3] = (byte) (v0 >>> 10);
+    buf[bufOffset + 4] = (byte) (v0 >>> 2);
+    buf[bufOffset + 5] = (byte) ((v0 << 6) | (v1 >>> 36));
+    buf[bufOffset + 6] = (byte) (v1 >>> 28);
+    buf[bufOffset + 7] = (byte) (v1 >>> 20);
+    buf[bufOffset + 8] = (byte) (v1 >>> 12);
+    buf[bufOffset + 9] = (byte) (v1 >>> 4);
+    buf[bufOffset + 10] = (byte) ((v1 << 4) | (v2 >>> 38));
+    buf[bufOffset + 11] = (byte) (v2 >>> 30);
+    buf[bufOffset + 12] = (byte) (v2 >>> 22);
+    buf[bufOffset + 13] = (byte) (v2 >>> 14);
+    buf[bufOffset + 14] = (byte) (v2 >>> 6);
+    buf[bufOffset + 15] = (byte) ((v2 << 2) | (v3 >>> 40));
+    buf[bufOffset + 16] = (byte) (v3 >>> 32);
+    buf[bufOffset + 17] = (byte) (v3 >>> 24);
+    buf[bufOffset + 18] = (byte) (v3 >>> 16);
+    buf[bufOffset + 19] = (byte) (v3 >>> 8);
+    buf[bufOffset + 20] = (byte) v3;
+    buf[bufOffset + 21] = (byte) (v4 >>> 34);
+    buf[bufOffset + 22] = (byte) (v4 >>> 26);
+    buf[bufOffset + 23] = (byte) (v4 >>> 18);
+    buf[bufOffset + 24] = (byte) (v4 >>> 10);
+    buf[bufOffset + 25] = (byte) (v4 >>> 2);
+    buf[bufOffset + 26] = (byte) ((v4 << 6) | (v5 >>> 36));
+    buf[bufOffset + 27] = (byte) (v5 >>> 28);
+    buf[bufOffset + 28] = (byte) (v5 >>> 20);
+    buf[bufOffset + 29] = (byte) (v5 >>> 12);
+    buf[bufOffset + 30] = (byte) (v5 >>> 4);
+    buf[bufOffset + 31] = (byte) ((v5 << 4) | (v6 >>> 38));
+    buf[bufOffset + 32] = (byte) (v6 >>> 30);
+    buf[bufOffset + 33] = (byte) (v6 >>> 22);
+    buf[bufOffset + 34] = (byte) (v6 >>> 14);
+    buf[bufOffset + 35] = (byte) (v6 >>> 6);
+    buf[bufOffset + 36] = (byte) ((v6 << 2) | (v7 >>> 40));
+    buf[bufOffset + 37] = (byte) (v7 >>> 32);
+    buf[bufOffset + 38] = (byte) (v7 >>> 24);
+    buf[bufOffset + 39] = (byte) (v7 >>> 16);
+    buf[bufOffset + 40] = (byte) (v7 >>> 8);
+    buf[bufOffset + 41] = (byte) v7;
+  }
+
+  private static void unpack8Values42(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 34) | (b1 << 26) | (b2 << 18) | (b3 << 10) | (b4 << 2) | (b5 >>> 6);
+    values[valuesOffset + 1] =
+        ((b5 & 0x3F) << 36) | (b6 << 28) | (b7 << 20) | (b8 << 12) | (b9 << 4) | (b10 >>> 4);
+    values[valuesOffset + 2] =
+        ((b10 & 0xF) << 38) | (b11 << 30) | (b12 << 22) | (b13 << 14) | (b14 << 6) | (b15 >>> 2);
+    values[valuesOffset + 3] =
+        ((b15 & 0x3) << 40) | (b16 << 32) | (b17 << 24) | (b18 << 16) | (b19 << 8) | b20;
+    values[valuesOffset + 4] =
+        (b21 << 34) | (b22 << 26) | (b23 << 18) | (b24 << 10) | (b25 << 2) | (b26 >>> 6);
+    values[valuesOffset + 5] =
+        ((b26 & 0x3F) << 36) | (b27 << 28) | (b28 << 20) | (b29 << 12) | (b30 << 4) | (b31 >>> 4);
+    values[valuesOffset + 6] =
+        ((b31 & 0xF) << 38) | (b32 << 30) | (b33 << 22) | (b34 << 14) | (b35 << 6) | (b36 >>> 2);
+    values[valuesOffset + 7] =
+        ((b36 & 0x3) << 40) | (b37 << 32) | (b38 << 24) | (b39 << 16) | (b40 << 8) | b41;
+  }
+
+  private static void pack8Values43(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 35);
+    buf[bufOffset + 1] = (byte) (v0 >>> 27);
+    buf[bufOffset + 2] = (byte) (v0 >>> 19);
+    buf[bufOffset + 3] = (byte) (v0 >>> 11);
+    buf[bufOffset + 4] = (byte) (v0 >>> 3);
+    buf[bufOffset + 5] = (byte) ((v0 << 5) | (v1 >>> 38));
+    buf[bufOffset + 6] = (byte) (v1 >>> 30);
+    buf[bufOffset + 7] = (byte) (v1 >>> 22);
+    buf[bufOffset + 8] = (byte) (v1 >>> 14);
+    buf[bufOffset + 9] = (byte) (v1 >>> 6);
+    buf[bufOffset + 10] = (byte) ((v1 << 2) | (v2 >>> 41));
+    buf[bufOffset + 11] = (byte) (v2 >>> 33);
+    buf[bufOffset + 12] = (byte) (v2 >>> 25);
+    buf[bufOffset + 13] = (byte) (v2 >>> 17);
+    buf[bufOffset + 14] = (byte) (v2 >>> 9);
+    buf[bufOffset + 15] = (byte) (v2 >>> 1);
+    buf[bufOffset + 16] = (byte) ((v2 << 7) | (v3 >>> 36));
+    buf[bufOffset + 17] = (byte) (v3 >>> 28);
+    buf[bufOffset + 18] = (byte) (v3 >>> 20);
+    buf[bufOffset + 19] = (byte) (v3 >>> 12);
+    buf[bufOffset + 20] = (byte) (v3 >>> 4);
+    buf[bufOffset + 21] = (byte) ((v3 << 4) | (v4 >>> 39));
+    buf[bufOffset + 22] = (byte) (v4 >>> 31);
+    buf[bufOffset + 23] = (byte) (v4 >>> 23);
+    buf[bufOffset + 24] = (byte) (v4 >>> 15);
+    buf[bufOffset + 25] = (byte) (v4 >>> 7);
+    buf[bufOffset + 26] = (byte) ((v4 << 1) | (v5 >>> 42));
+    buf[bufOffset + 27] = (byte) (v5 >>> 34);
+    buf[bufOffset + 28] = (byte) (v5 >>> 26);
+    buf[bufOffset + 29] = (byte) (v5 >>> 18);
+    buf[bufOffset + 30] = (byte) (v5 >>> 10);
+    buf[bufOffset + 31] = (byte) (v5 >>> 2);
+    buf[bufOffset + 32] = (byte) ((v5 << 6) | (v6 >>> 37));
+    buf[bufOffset + 33] = (byte) (v6 >>> 29);
+    buf[bufOffset + 34] = (byte) (v6 >>> 21);
+    buf[bufOffset + 35] = (byte) (v6 >>> 13);
+    buf[bufOffset + 36] = (byte) (v6 >>> 5);
+    buf[bufOffset + 37] = (byte) ((v6 << 3) | (v7 >>> 40));
+    buf[bufOffset + 38] = (byte) (v7 >>> 32);
+    buf[bufOffset + 39] = (byte) (v7 >>> 24);
+    buf[bufOffset + 40] = (byte) (v7 >>> 16);
+    buf[bufOffset + 41] = (byte) (v7 >>> 8);
+    buf[bufOffset + 42] = (byte) v7;
+  }
+
+  private static void unpack8Values43(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 35) | (b1 << 27) | (b2 << 19) | (b3 << 11) | (b4 << 3) | (b5 >>> 5);
+    values[valuesOffset + 1] =
+        ((b5 & 0x1F) << 38) | (b6 << 30) | (b7 << 22) | (b8 << 14) | (b9 << 6) | (b10 >>> 2);
+    values[valuesOffset + 2] =
+        ((b10 & 0x3) << 41)
+            | (b11 << 33)
+            | (b12 << 25)
+            | (b13 << 17)
+            | (b14 << 9)
+            | (b15 << 1)
+            | (b16 >>> 7);
+    values[valuesOffset + 3] =
+        ((b16 & 0x7F) << 36) | (b17 << 28) | (b18 << 20) | (b19 << 12) | (b20 << 4) | (b21 >>> 4);
+    values[valuesOffset + 4] =
+        ((b21 & 0xF) << 39) | (b22 << 31) | (b23 << 23) | (b24 << 15) | (b25 << 7) | (b26 >>> 1);
+    values[valuesOffset + 5] =
+        ((b26 & 0x1) << 42)
+            | (b27 << 34)
+            | (b28 << 26)
+            | (b29 << 18)
+            | (b30 << 10)
+            | (b31 << 2)
+            | (b32 >>> 6);
+    values[valuesOffset + 6] =
+        ((b32 & 0x3F) << 37) | (b33 << 29) | (b34 << 21) | (b35 << 13) | (b36 << 5) | (b37 >>> 3);
+    values[valuesOffset + 7] =
+        ((b37 & 0x7) << 40) | (b38 << 32) | (b39 << 24) | (b40 << 16) | (b41 << 8) | b42;
+  }
+
+  private static void pack8Values44(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 36);
+    buf[bufOffset + 1] = (byte) (v0 >>> 28);
+    buf[bufOffset + 2] = (byte) (v0 >>> 20);
+    buf[bufOffset + 3] = (byte) (v0 >>> 12);
+    buf[bufOffset + 4] = (byte) (v0 >>> 4);
+    buf[bufOffset + 5] = (byte) ((v0 << 4) | (v1 >>> 40));
+    buf[bufOffset + 6] = (byte) (v1 >>> 32);
+    buf[bufOffset + 7] = (byte) (v1 >>> 24);
+    buf[bufOffset + 8] = (byte) (v1 >>> 16);
+    buf[bufOffset + 9] = (byte) (v1 >>> 8);
+    buf[bufOffset + 10] = (byte) v1;
+    buf[bufOffset + 11] = (byte) (v2 >>> 36);
+    buf[bufOffset + 12] = (byte) (v2 >>> 28);
+    buf[bufOffset + 13] = (byte) (v2 >>> 20);
+    buf[bufOffset + 14] = (byte) (v2 >>> 12);
+    buf[bufOffset + 15] = (byte) (v2 >>> 4);
+    buf[bufOffset + 16] = (byte) ((v2 << 4) | (v3 >>> 40));
+    buf[bufOffset + 17] = (byte) (v3 >>> 32);
+    buf[bufOffset + 18] = (byte) (v3 >>> 24);
+    buf[bufOffset + 19] = (byte) (v3 >>> 16);
+    buf[bufOffset + 20] = (byte) (v3 >>> 8);
+    buf[bufOffset + 21] = (byte) v3;
+    buf[bufOffset + 22] = (byte) (v4 >>> 36);
+    buf[bufOffset + 23] = (byte) (v4 >>> 28);
+    buf[bufOffset + 24] = (byte) (v4 >>> 20);
+    buf[bufOffset + 25] = (byte) (v4 >>> 12);
+    buf[bufOffset + 26] = (byte) (v4 >>> 4);
+    buf[bufOffset + 27] = (byte) ((v4 << 4) | (v5 >>> 40));
+    buf[bufOffset + 28] = (byte) (v5 >>> 32);
+    buf[bufOffset + 29] = (byte) (v5 >>> 24);
+    buf[bufOffset + 30] = (byte) (v5 >>> 16);
+    buf[bufOffset + 31] = (byte) (v5 >>> 8);
+    buf[bufOffset + 32] = (byte) v5;
+    buf[bufOffset + 33] = (byte) (v6 >>> 36);
+    buf[bufOffset + 34] = (byte) (v6 >>> 28);
+    buf[bufOffset + 35] = (byte) (v6 >>> 20);
+    buf[bufOffset + 36] = (byte) (v6 >>> 12);
+    buf[bufOffset + 37] = (byte) (v6 >>> 4);
+    buf[bufOffset + 38] = (byte) ((v6 << 4) | (v7 >>> 40));
+    buf[bufOffset + 39] = (byte) (v7 >>> 32);
+    buf[bufOffset + 40] = (byte) (v7 >>> 24);
+    buf[bufOffset + 41] = (byte) (v7 >>> 16);
+    buf[bufOffset + 42] = (byte) (v7 >>> 8);
+    buf[bufOffset + 43] = (byte) v7;
+  }
+
+  private static void unpack8Values44(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 36) | (b1 << 28) | (b2 << 20) | (b3 << 12) | (b4 << 4) | (b5 >>> 4);
+    values[valuesOffset + 1] =
+        ((b5 & 0xF) << 40) | (b6 << 32) | (b7 << 24) | (b8 << 16) | (b9 << 8) | b10;
+    values[valuesOffset + 2] =
+        (b11 << 36) | (b12 << 28) | (b13 << 20) | (b14 << 12) | (b15 << 4) | (b16 >>> 4);
+    values[valuesOffset + 3] =
+        ((b16 & 0xF) << 40) | (b17 << 32) | (b18 << 24) | (b19 << 16) | (b20 << 8) | b21;
+    values[valuesOffset + 4] =
+        (b22 << 36) | (b23 << 28) | (b24 << 20) | (b25 << 12) | (b26 << 4) | (b27 >>> 4);
+    values[valuesOffset + 5] =
+        ((b27 & 0xF) << 40) | (b28 << 32) | (b29 << 24) | (b30 << 16) | (b31 << 8) | b32;
+    values[valuesOffset + 6] =
+        (b33 << 36) | (b34 << 28) | (b35 << 20) | (b36 << 12) | (b37 << 4) | (b38 >>> 4);
+    values[valuesOffset + 7] =
+        ((b38 & 0xF) << 40) | (b39 << 32) | (b40 << 24) | (b41 << 16) | (b42 << 8) | b43;
+  }
+
+  private static void pack8Values45(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 37);
+    buf[bufOffset + 1] = (byte) (v0 >>> 29);
+    buf[bufOffset + 2] = (byte) (v0 >>> 21);
+    buf[bufOffset + 3] = (byte) (v0 >>> 13);
+    buf[bufOffset + 4] = (byte) (v0 >>> 5);
+    buf[bufOffset + 5] = (byte) ((v0 << 3) | (v1 >>> 42));
+    buf[bufOffset + 6] = (byte) (v1 >>> 34);
+    buf[bufOffset + 7] = (byte) (v1 >>> 26);
+    buf[bufOffset + 8] = (byte) (v1 >>> 18);
+    buf[bufOffset + 9] = (byte) (v1 >>> 10);
+    buf[bufOffset + 10] = (byte) (v1 >>> 2);
+    buf[bufOffset + 11] = (byte) ((v1 << 6) | (v2 >>> 39));
+    buf[bufOffset + 12] = (byte) (v2 >>> 31);
+    buf[bufOffset + 13] = (byte) (v2 >>> 23);
+    buf[bufOffset + 14] = (byte) (v2 >>> 15);
+    buf[bufOffset + 15] = (byte) (v2 >>> 7);
+    buf[bufOffset + 16] = (byte) ((v2 << 1) | (v3 >>> 44));
+    buf[bufOffset + 17] = (byte) (v3 >>> 36);
+    buf[bufOffset + 18] = (byte) (v3 >>> 28);
+    buf[bufOffset + 19] = (byte) (v3 >>> 20);
+    buf[bufOffset + 20] = (byte) (v3 >>> 12);
+    buf[bufOffset + 21] = (byte) (v3 >>> 4);
+    buf[bufOffset + 22] = (byte) ((v3 << 4) | (v4 >>> 41));
+    buf[bufOffset + 23] = (byte) (v4 >>> 33);
+    buf[bufOffset + 24] = (byte) (v4 >>> 25);
+    buf[bufOffset + 25] = (byte) (v4 >>> 17);
+    buf[bufOffset + 26] = (byte) (v4 >>> 9);
+    buf[bufOffset + 27] = (byte) (v4 >>> 1);
+    buf[bufOffset + 28] = (byte) ((v4 << 7) | (v5 >>> 38));
+    buf[bufOffset + 29] = (byte) (v5 >>> 30);
+    buf[bufOffset + 30] = (byte) (v5 >>> 22);
+    buf[bufOffset + 31] = (byte) (v5 >>> 14);
+    buf[bufOffset + 32] = (byte) (v5 >>> 6);
+    buf[bufOffset + 33] = (byte) ((v5 << 2) | (v6 >>> 43));
+    buf[bufOffset + 34] = (byte) (v6 >>> 35);
+    buf[bufOffset + 35] = (byte) (v6 >>> 27);
+    buf[bufOffset + 36] = (byte) (v6 >>> 19);
+    buf[bufOffset + 37] = (byte) (v6 >>> 11);
+    buf[bufOffset + 38] = (byte) (v6 >>> 3);
+    buf[bufOffset + 39] = (byte) ((v6 << 5) | (v7 >>> 40));
+    buf[bufOffset + 40] = (byte) (v7 >>> 32);
+    buf[bufOffset + 41] = (byte) (v7 >>> 24);
+    buf[bufOffset + 42] = (byte) (v7 >>> 16);
+    buf[bufOffset + 43] = (byte) (v7 >>> 8);
+    buf[bufOffset + 44] = (byte) v7;
+  }
+
+  private static void unpack8Values45(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 37) | (b1 << 29) | (b2 << 21) | (b3 << 13) | (b4 << 5) | (b5 >>> 3);
+    values[valuesOffset + 1] =
+        ((b5 & 0x7) << 42)
+            | (b6 << 34)
+            | (b7 << 26)
+            | (b8 << 18)
+            | (b9 << 10)
+            | (b10 << 2)
+            | (b11 >>> 6);
+    values[valuesOffset + 2] =
+        ((b11 & 0x3F) << 39) | (b12 << 31) | (b13 << 23) | (b14 << 15) | (b15 << 7) | (b16 >>> 1);
+    values[valuesOffset + 3] =
+        ((b16 & 0x1) << 44)
+            | (b17 << 36)
+            | (b18 << 28)
+            | (b19 << 20)
+            | (b20 << 12)
+            | (b21 << 4)
+            | (b22 >>> 4);
+    values[valuesOffset + 4] =
+        ((b22 & 0xF) << 41)
+            | (b23 << 33)
+            | (b24 << 25)
+            | (b25 << 17)
+            | (b26 << 9)
+            | (b27 << 1)
+            | (b28 >>> 7);
+    values[valuesOffset + 5] =
+        ((b28 & 0x7F) << 38) | (b29 << 30) | (b30 << 22) | (b31 << 14) | (b32 << 6) | (b33 >>> 2);
+    values[valuesOffset + 6] =
+        ((b33 & 0x3) << 43)
+            | (b34 << 35)
+            | (b35 << 27)
+            | (b36 << 19)
+            | (b37 << 11)
+            | (b38 << 3)
+            | (b39 >>> 5);
+    values[valuesOffset + 7] =
+        ((b39 & 0x1F) << 40) | (b40 << 32) | (b41 << 24) | (b42 << 16) | (b43 << 8) | b44;
+  }
+
+  private static void pack8Values46(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 38);
+    buf[bufOffset + 1] = (byte) (v0 >>> 30);
+    buf[bufOffset + 2] = (byte) (v0 >>> 22);
+    buf[bufOffset + 3] = (byte) (v0 >>> 14);
+    buf[bufOffset + 4] = (byte) (v0 >>> 6);
+    buf[bufOffset + 5] = (byte) ((v0 << 2) | (v1 >>> 44));
+    buf[bufOffset + 6] = (byte) (v1 >>> 36);
+    buf[bufOffset + 7] = (byte) (v1 >>> 28);
+    buf[bufOffset + 8] = (byte) (v1 >>> 20);
+    buf[bufOffset + 9] = (byte) (v1 >>> 12);
+    buf[bufOffset + 10] = (byte) (v1 >>> 4);
+    buf[bufOffset + 11] = (byte) ((v1 << 4) | (v2 >>> 42));
+    buf[bufOffset + 12] = (byte) (v2 >>> 34);
+    buf[bufOffset + 13] = (byte) (v2 >>> 26);
+    buf[bufOffset + 14] = (byte) (v2 >>> 18);
+    buf[bufOffset + 15] = (byte) (v2 >>> 10);
+    buf[bufOffset + 16] = (byte) (v2 >>> 2);
+    buf[bufOffset + 17] = (byte) ((v2 << 6) | (v3 >>> 40));
+    buf[bufOffset + 18] = (byte) (v3 >>> 32);
+    buf[bufOffset + 19] = (byte) (v3 >>> 24);
+    buf[bufOffset + 20] = (byte) (v3 >>> 16);
+    buf[bufOffset + 21] = (byte) (v3 >>> 8);
+    buf[bufOffset + 22] = (byte) v3;
+    buf[bufOffset + 23] = (byte) (v4 >>> 38);
+    buf[bufOffset + 24] = (byte) (v4 >>> 30);
+    buf[bufOffset + 25] = (byte) (v4 >>> 22);
+    buf[bufOffset + 26] = (byte) (v4 >>> 14);
+    buf[bufOffset + 27] = (byte) (v4 >>> 6);
+    buf[bufOffset + 28] = (byte) ((v4 << 2) | (v5 >>> 44));
+    buf[bufOffset + 29] = (byte) (v5 >>> 36);
+    buf[bufOffset + 30] = (byte) (v5 >>> 28);
+    buf[bufOffset + 31] = (byte) (v5 >>> 20);
+    buf[bufOffset + 32] = (byte) (v5 >>> 12);
+    buf[bufOffset + 33] = (byte) (v5 >>> 4);
+    buf[bufOffset + 34] = (byte) ((v5 << 4) | (v6 >>> 42));
+    buf[bufOffset + 35] = (byte) (v6 >>> 34);
+    buf[bufOffset + 36] = (byte) (v6 >>> 26);
+    buf[bufOffset + 37] = (byte) (v6 >>> 18);
+    buf[bufOffset + 38] = (byte) (v6 >>> 10);
+    buf[bufOffset + 39] = (byte) (v6 >>> 2);
+    buf[bufOffset + 40] = (byte) ((v6 << 6) | (v7 >>> 40));
+    buf[bufOffset + 41] = (byte) (v7 >>> 32);
+    buf[bufOffset + 42] = (byte) (v7 >>> 24);
+    buf[bufOffset + 43] = (byte) (v7 >>> 16);
+    buf[bufOffset + 44] = (byte) (v7 >>> 8);
+    buf[bufOffset + 45] = (byte) v7;
+  }
+
+  private static void unpack8Values46(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 38) | (b1 << 30) | (b2 << 22) | (b3 << 14) | (b4 << 6) | (b5 >>> 2);
+    values[valuesOffset + 1] =
+        ((b5 & 0x3) << 44)
+            | (b6 << 36)
+            | (b7 << 28)
+            | (b8 << 20)
+            | (b9 << 12)
+            | (b10 << 4)
+            | (b11 >>> 4);
+    values[valuesOffset + 2] =
+        ((b11 & 0xF) << 42)
+            | (b12 << 34)
+            | (b13 << 26)
+            | (b14 << 18)
+            | (b15 << 10)
+            | (b16 << 2)
+            | (b17 >>> 6);
+    values[valuesOffset + 3] =
+        ((b17 & 0x3F) << 40) | (b18 << 32) | (b19 << 24) | (b20 << 16) | (b21 << 8) | b22;
+    values[valuesOffset + 4] =
+        (b23 << 38) | (b24 << 30) | (b25 << 22) | (b26 << 14) | (b27 << 6) | (b28 >>> 2);
+    values[valuesOffset + 5] =
+        ((b28 & 0x3) << 44)
+            | (b29 << 36)
+            | (b30 << 28)
+            | (b31 << 20)
+            | (b32 << 12)
+            | (b33 << 4)
+            | (b34 >>> 4);
+    values[valuesOffset + 6] =
+        ((b34 & 0xF) << 42)
+            | (b35 << 34)
+            | (b36 << 26)
+            | (b37 << 18)
+            | (b38 << 10)
+            | (b39 << 2)
+            | (b40 >>> 6);
+    values[valuesOffset + 7] =
+        ((b40 & 0x3F) << 40) | (b41 << 32) | (b42 << 24) | (b43 << 16) | (b44 << 8) | b45;
+  }
+
+  private static void pack8Values47(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 39);
+    buf[bufOffset + 1] = (byte) (v0 >>> 31);
+    buf[bufOffset + 2] = (byte) (v0 >>> 23);
+    buf[bufOffset + 3] = (byte) (v0 >>> 15);
+    buf[bufOffset + 4] = (byte) (v0 >>> 7);
+    buf[bufOffset + 5] = (byte) ((v0 << 1) | (v1 >>> 46));
+    buf[bufOffset + 6] = (byte) (v1 >>> 38);
+    buf[bufOffset + 7] = (byte) (v1 >>> 30);
+    buf[bufOffset + 8] = (byte) (v1 >>> 22);
+    buf[bufOffset + 9] = (byte) (v1 >>> 14);
+    buf[bufOffset + 10] = (byte) (v1 >>> 6);
+    buf[bufOffset + 11] = (byte) ((v1 << 2) | (v2 >>> 45));
+    buf[bufOffset + 12] = (byte) (v2 >>> 37);
+    buf[bufOffset + 13] = (byte) (v2 >>> 29);
+    buf[bufOffset + 14] = (byte) (v2 >>> 21);
+    buf[bufOffset + 15] = (byte) (v2 >>> 13);
+    buf[bufOffset + 16] = (byte) (v2 >>> 5);
+    buf[bufOffset + 17] = (byte) ((v2 << 3) | (v3 >>> 44));
+    buf[bufOffset + 18] = (byte) (v3 >>> 36);
+    buf[bufOffset + 19] = (byte) (v3 >>> 28);
+    buf[bufOffset + 20] = (byte) (v3 >>> 20);
+    buf[bufOffset + 21] = (byte) (v3 >>> 12);
+    buf[bufOffset + 22] = (byte) (v3 >>> 4);
+    buf[bufOffset + 23] = (byte) ((v3 << 4) | (v4 >>> 43));
+    buf[bufOffset + 24] = (byte) (v4 >>> 35);
+    buf[bufOffset + 25] = (byte) (v4 >>> 27);
+    buf[bufOffset + 26] = (byte) (v4 >>> 19);
+    buf[bufOffset + 27] = (byte) (v4 >>> 11);
+    buf[bufOffset + 28] = (byte) (v4 >>> 3);
+    buf[bufOffset + 29] = (byte) ((v4 << 5) | (v5 >>> 42));
+    buf[bufOffset + 30] = (byte) (v5 >>> 34);
+    buf[bufOffset + 31] = (byte) (v5 >>> 26);
+    buf[bufOffset + 32] = (byte) (v5 >>> 18);
+    buf[bufOffset + 33] = (byte) (v5 >>> 10);
+    buf[bufOffset + 34] = (byte) (v5 >>> 2);
+    buf[bufOffset + 35] = (byte) ((v5 << 6) | (v6 >>> 41));
+    buf[bufOffset + 36] = (byte) (v6 >>> 33);
+    buf[bufOffset + 37] = (byte) (v6 >>> 25);
+    buf[bufOffset + 38] = (byte) (v6 >>> 17);
+    buf[bufOffset + 39] = (byte) (v6 >>> 9);
+    buf[bufOffset + 40] = (byte) (v6 >>> 1);
+    buf[bufOffset + 41] = (byte) ((v6 << 7) | (v7 >>> 40));
+    buf[bufOffset + 42] = (byte) (v7 >>> 32);
+    buf[bufOffset + 43] = (byte) (v7 >>> 24);
+    buf[bufOffset + 44] = (byte) (v7 >>> 16);
+    buf[bufOffset + 45] = (byte) (v7 >>> 8);
+    buf[bufOffset + 46] = (byte) v7;
+  }
+
+  private static void unpack8Values47(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 39) | (b1 << 31) | (b2 << 23) | (b3 << 15) | (b4 << 7) | (b5 >>> 1);
+    values[valuesOffset + 1] =
+        ((b5 & 0x1) << 46)
+            | (b6 << 38)
+            | (b7 << 30)
+            | (b8 << 22)
+            | (b9 << 14)
+            | (b10 << 6)
+            | (b11 >>> 2);
+    values[valuesOffset + 2] =
+        ((b11 & 0x3) << 45)
+            | (b12 << 37)
+            | (b13 << 29)
+            | (b14 << 21)
+            | (b15 << 13)
+            | (b16 << 5)
+            | (b17 >>> 3);
+    values[valuesOffset + 3] =
+        ((b17 & 0x7) << 44)
+            | (b18 << 36)
+            | (b19 << 28)
+            | (b20 << 20)
+            | (b21 << 12)
+            | (b22 << 4)
+            | (b23 >>> 4);
+    values[valuesOffset + 4] =
+        ((b23 & 0xF) << 43)
+            | (b24 << 35)
+            | (b25 << 27)
+            | (b26 << 19)
+            | (b27 << 11)
+            | (b28 << 3)
+            | (b29 >>> 5);
+    values[valuesOffset + 5] =
+        ((b29 & 0x1F) << 42)
+            | (b30 << 34)
+            | (b31 << 26)
+            | (b32 << 18)
+            | (b33 << 10)
+            | (b34 << 2)
+            | (b35 >>> 6);
+    values[valuesOffset + 6] =
+        ((b35 & 0x3F) << 41)
+            | (b36 << 33)
+            | (b37 << 25)
+            | (b38 << 17)
+            | (b39 << 9)
+            | (b40 << 1)
+            | (b41 >>> 7);
+    values[valuesOffset + 7] =
+        ((b41 & 0x7F) << 40) | (b42 << 32) | (b43 << 24) | (b44 << 16) | (b45 << 8) | b46;
+  }
+
+  private static void pack8Values48(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 40);
+    buf[bufOffset + 1] = (byte) (v0 >>> 32);
+    buf[bufOffset + 2] = (byte) (v0 >>> 24);
+    buf[bufOffset + 3] = (byte) (v0 >>> 16);
+    buf[bufOffset + 4] = (byte) (v0 >>> 8);
+    buf[bufOffset + 5] = (byte) v0;
+    buf[bufOffset + 6] = (byte) (v1 >>> 40);
+    buf[bufOffset + 7] = (byte) (v1 >>> 32);
+    buf[bufOffset + 8] = (byte) (v1 >>> 24);
+    buf[bufOffset + 9] = (byte) (v1 >>> 16);
+    buf[bufOffset + 10] = (byte) (v1 >>> 8);
+    buf[bufOffset + 11] = (byte) v1;
+    buf[bufOffset + 12] = (byte) (v2 >>> 40);
+    buf[bufOffset + 13] = (byte) (v2 >>> 32);
+    buf[bufOffset + 14] = (byte) (v2 >>> 24);
+    buf[bufOffset + 15] = (byte) (v2 >>> 16);
+    buf[bufOffset + 16] = (byte) (v2 >>> 8);
+    buf[bufOffset + 17] = (byte) v2;
+    buf[bufOffset + 18] = (byte) (v3 >>> 40);
+    buf[bufOffset + 19] = (byte) (v3 >>> 32);
+    buf[bufOffset + 20] = (byte) (v3 >>> 24);
+    buf[bufOffset + 21] = (byte) (v3 >>> 16);
+    buf[bufOffset + 22] = (byte) (v3 >>> 8);
+    buf[bufOffset + 23] = (byte) v3;
+    buf[bufOffset + 24] = (byte) (v4 >>> 40);
+    buf[bufOffset + 25] = (byte) (v4 >>> 32);
+    buf[bufOffset + 26] = (byte) (v4 >>> 24);
+    buf[bufOffset + 27] = (byte) (v4 >>> 16);
+    buf[bufOffset + 28] = (byte) (v4 >>> 8);
+    buf[bufOffset + 29] = (byte) v4;
+    buf[bufOffset + 30] = (byte) (v5 >>> 40);
+    buf[bufOffset + 31] = (byte) (v5 >>> 32);
+    buf[bufOffset + 32] = (byte) (v5 >>> 24);
+    buf[bufOffset + 33] = (byte) (v5 >>> 16);
+    buf[bufOffset + 34] = (byte) (v5 >>> 8);
+    buf[bufOffset + 35] = (byte) v5;
+    buf[bufOffset + 36] = (byte) (v6 >>> 40);
+    buf[bufOffset + 37] = (byte) (v6 >>> 32);
+    buf[bufOffset + 38] = (byte) (v6 >>> 24);
+    buf[bufOffset + 39] = (byte) (v6 >>> 16);
+    buf[bufOffset + 40] = (byte) (v6 >>> 8);
+    buf[bufOffset + 41] = (byte) v6;
+    buf[bufOffset + 42] = (byte) (v7 >>> 40);
+    buf[bufOffset + 43] = (byte) (v7 >>> 32);
+    buf[bufOffset + 44] = (byte) (v7 >>> 24);
+    buf[bufOffset + 45] = (byte) (v7 >>> 16);
+    buf[bufOffset + 46] = (byte) (v7 >>> 8);
+    buf[bufOffset + 47] = (byte) v7;
+  }
+
+  private static void unpack8Values48(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    values[valuesOffset] = (b0 << 40) | (b1 << 32) | (b2 << 24) | (b3 << 16) | (b4 << 8) | b5;
+    values[valuesOffset + 1] = (b6 << 40) | (b7 << 32) | (b8 << 24) | (b9 << 16) | (b10 << 8) | b11;
+    values[valuesOffset + 2] =
+        (b12 << 40) | (b13 << 32) | (b14 << 24) | (b15 << 16) | (b16 << 8) | b17;
+    values[valuesOffset + 3] =
+        (b18 << 40) | (b19 << 32) | (b20 << 24) | (b21 << 16) | (b22 << 8) | b23;
+    values[valuesOffset + 4] =
+        (b24 << 40) | (b25 << 32) | (b26 << 24) | (b27 << 16) | (b28 << 8) | b29;
+    values[valuesOffset + 5] =
+        (b30 << 40) | (b31 << 32) | (b32 << 24) | (b33 << 16) | (b34 << 8) | b35;
+    values[valuesOffset + 6] =
+        (b36 << 40) | (b37 << 32) | (b38 << 24) | (b39 << 16) | (b40 << 8) | b41;
+    values[valuesOffset + 7] =
+        (b42 << 40) | (b43 << 32) | (b44 << 24) | (b45 << 16) | (b46 << 8) | b47;
+  }
+
+  private static void pack8Values49(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 41);
+    buf[bufOffset + 1] = (byte) (v0 >>> 33);
+    buf[bufOffset + 2] = (byte) (v0 >>> 25);
+    buf[bufOffset + 3] = (byte) (v0 >>> 17);
+    buf[bufOffset + 4] = (byte) (v0 >>> 9);
+    buf[bufOffset + 5] = (byte) (v0 >>> 1);
+    buf[bufOffset + 6] = (byte) ((v0 << 7) | (v1 >>> 42));
+    buf[bufOffset + 7] = (byte) (v1 >>> 34);
+    buf[bufOffset + 8] = (byte) (v1 >>> 26);
+    buf[bufOffset + 9] = (byte) (v1 >>> 18);
+    buf[bufOffset + 10] = (byte) (v1 >>> 10);
+    buf[bufOffset + 11] = (byte) (v1 >>> 2);
+    buf[bufOffset + 12] = (byte) ((v1 << 6) | (v2 >>> 43));
+    buf[bufOffset + 13] = (byte) (v2 >>> 35);
+    buf[bufOffset + 14] = (byte) (v2 >>> 27);
+    buf[bufOffset + 15] = (byte) (v2 >>> 19);
+    buf[bufOffset + 16] = (byte) (v2 >>> 11);
+    buf[bufOffset + 17] = (byte) (v2 >>> 3);
+    buf[bufOffset + 18] = (byte) ((v2 << 5) | (v3 >>> 44));
+    buf[bufOffset + 19] = (byte) (v3 >>> 36);
+    buf[bufOffset + 20] = (byte) (v3 >>> 28);
+    buf[bufOffset + 21] = (byte) (v3 >>> 20);
+    buf[bufOffset + 22] = (byte) (v3 >>> 12);
+    buf[bufOffset + 23] = (byte) (v3 >>> 4);
+    buf[bufOffset + 24] = (byte) ((v3 << 4) | (v4 >>> 45));
+    buf[bufOffset + 25] = (byte) (v4 >>> 37);
+    buf[bufOffset + 26] = (byte) (v4 >>> 29);
+    buf[bufOffset + 27] = (byte) (v4 >>> 21);
+    buf[bufOffset + 28] = (byte) (v4 >>> 13);
+    buf[bufOffset + 29] = (byte) (v4 >>> 5);
+    buf[bufOffset + 30] = (byte) ((v4 << 3) | (v5 >>> 46));
+    buf[bufOffset + 31] = (byte) (v5 >>> 38);
+    buf[bufOffset + 32] = (byte) (v5 >>> 30);
+    buf[bufOffset + 33] = (byte) (v5 >>> 22);
+    buf[bufOffset + 34] = (byte) (v5 >>> 14);
+    buf[bufOffset + 35] = (byte) (v5 >>> 6);
+    buf[bufOffset + 36] = (byte) ((v5 << 2) | (v6 >>> 47));
+    buf[bufOffset + 37] = (byte) (v6 >>> 39);
+    buf[bufOffset + 38] = (byte) (v6 >>> 31);
+    buf[bufOffset + 39] = (byte) (v6 >>> 23);
+    buf[bufOffset + 40] = (byte) (v6 >>> 15);
+    buf[bufOffset + 41] = (byte) (v6 >>> 7);
+    buf[bufOffset + 42] = (byte) ((v6 << 1) | (v7 >>> 48));
+    buf[bufOffset + 43] = (byte) (v7 >>> 40);
+    buf[bufOffset + 44] = (byte) (v7 >>> 32);
+    buf[bufOffset + 45] = (byte) (v7 >>> 24);
+    buf[bufOffset + 46] = (byte) (v7 >>> 16);
+    buf[bufOffset + 47] = (byte) (v7 >>> 8);
+    buf[bufOffset + 48] = (byte) v7;
+  }
+
+  private static void unpack8Values49(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 41) | (b1 << 33) | (b2 << 25) | (b3 << 17) | (b4 << 9) | (b5 << 1) | (b6 >>> 7);
+    values[valuesOffset + 1] =
+        ((b6 & 0x7F) << 42)
+            | (b7 << 34)
+            | (b8 << 26)
+            | (b9 << 18)
+            | (b10 << 10)
+            | (b11 << 2)
+            | (b12 >>> 6);
+    values[valuesOffset + 2] =
+        ((b12 & 0x3F) << 43)
+            | (b13 << 35)
+            | (b14 << 27)
+            | (b15 << 19)
+            | (b16 << 11)
+            | (b17 << 3)
+            | (b18 >>> 5);
+    values[valuesOffset + 3] =
+        ((b18 & 0x1F) << 44)
+            | (b19 << 36)
+            | (b20 << 28)
+            | (b21 << 20)
+            | (b22 << 12)
+            | (b23 << 4)
+            | (b24 >>> 4);
+    values[valuesOffset + 4] =
+        ((b24 & 0xF) << 45)
+            | (b25 << 37)
+            | (b26 << 29)
+            | (b27 << 21)
+            | (b28 << 13)
+            | (b29 << 5)
+            | (b30 >>> 3);
+    values[valuesOffset + 5] =
+        ((b30 & 0x7) << 46)
+            | (b31 << 38)
+            | (b32 << 30)
+            | (b33 << 22)
+            | (b34 << 14)
+            | (b35 << 6)
+            | (b36 >>> 2);
+    values[valuesOffset + 6] =
+        ((b36 & 0x3) << 47)
+            | (b37 << 39)
+            | (b38 << 31)
+            | (b39 << 23)
+            | (b40 << 15)
+            | (b41 << 7)
+            | (b42 >>> 1);
+    values[valuesOffset + 7] =
+        ((b42 & 0x1) << 48)
+            | (b43 << 40)
+            | (b44 << 32)
+            | (b45 << 24)
+            | (b46 << 16)
+            | (b47 << 8)
+            | b48;
+  }
+
+  private static void pack8Values50(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 42);
+    buf[bufOffset + 1] = (byte) (v0 >>> 34);
+    buf[bufOffset + 2] = (byte) (v0 >>> 26);
+    buf[bufOffset + 3] = (byte) (v0 >>> 18);
+    buf[bufOffset + 4] = (byte) (v0 >>> 10);
+    buf[bufOffset + 5] = (byte) (v0 >>> 2);
+    buf[bufOffset + 6] = (byte) ((v0 << 6) | (v1 >>> 44));
+    buf[bufOffset + 7] = (byte) (v1 >>> 36);
+    buf[bufOffset + 8] = (byte) (v1 >>> 28);
+    buf[bufOffset + 9] = (byte) (v1 >>> 20);
+    buf[bufOffset + 10] = (byte) (v1 >>> 12);
+    buf[bufOffset + 11] = (byte) (v1 >>> 4);
+    buf[bufOffset + 12] = (byte) ((v1 << 4) | (v2 >>> 46));
+    buf[bufOffset + 13] = (byte) (v2 >>> 38);
+    buf[bufOffset + 14] = (byte) (v2 >>> 30);
+    buf[bufOffset + 15] = (byte) (v2 >>> 22);
+    buf[bufOffset + 16] = (byte) (v2 >>> 14);
+    buf[bufOffset + 17] = (byte) (v2 >>> 6);
+    buf[bufOffset + 18] = (byte) ((v2 << 2) | (v3 >>> 48));
+    buf[bufOffset + 19] = (byte) (v3 >>> 40);
+    buf[bufOffset + 20] = (byte) (v3 >>> 32);
+    buf[bufOffset + 21] = (byte) (v3 >>> 24);
+    buf[bufOffset + 22] = (byte) (v3 >>> 16);
+    buf[bufOffset + 23] = (byte) (v3 >>> 8);
+    buf[bufOffset + 24] = (byte) v3;
+    buf[bufOffset + 25] = (byte) (v4 >>> 42);
+    buf[bufOffset + 26] = (byte) (v4 >>> 34);
+    buf[bufOffset + 27] = (byte) (v4 >>> 26);
+    buf[bufOffset + 28] = (byte) (v4 >>> 18);
+    buf[bufOffset + 29] = (byte) (v4 >>> 10);
+    buf[bufOffset + 30] = (byte) (v4 >>> 2);
+    buf[bufOffset + 31] = (byte) ((v4 << 6) | (v5 >>> 44));
+    buf[bufOffset + 32] = (byte) (v5 >>> 36);
+    buf[bufOffset + 33] = (byte) (v5 >>> 28);
+    buf[bufOffset + 34] = (byte) (v5 >>> 20);
+    buf[bufOffset + 35] = (byte) (v5 >>> 12);
+    buf[bufOffset + 36] = (byte) (v5 >>> 4);
+    buf[bufOffset + 37] = (byte) ((v5 << 4) | (v6 >>> 46));
+    buf[bufOffset + 38] = (byte) (v6 >>> 38);
+    buf[bufOffset + 39] = (byte) (v6 >>> 30);
+    buf[bufOffset + 40] = (byte) (v6 >>> 22);
+    buf[bufOffset + 41] = (byte) (v6 >>> 14);
+    buf[bufOffset + 42] = (byte) (v6 >>> 6);
+    buf[bufOffset + 43] = (byte) ((v6 << 2) | (v7 >>> 48));
+    buf[bufOffset + 44] = (byte) (v7 >>> 40);
+    buf[bufOffset + 45] = (byte) (v7 >>> 32);
+    buf[bufOffset + 46] = (byte) (v7 >>> 24);
+    buf[bufOffset + 47] = (byte) (v7 >>> 16);
+    buf[bufOffset + 48] = (byte) (v7 >>> 8);
+    buf[bufOffset + 49] = (byte) v7;
+  }
+
+  private static void unpack8Values50(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 42) | (b1 << 34) | (b2 << 26) | (b3 << 18) | (b4 << 10) | (b5 << 2) | (b6 >>> 6);
+    values[valuesOffset + 1] =
+        ((b6 & 0x3F) << 44)
+            | (b7 << 36)
+            | (b8 << 28)
+            | (b9 << 20)
+            | (b10 << 12)
+            | (b11 << 4)
+            | (b12 >>> 4);
+    values[valuesOffset + 2] =
+        ((b12 & 0xF) << 46)
+            | (b13 << 38)
+            | (b14 << 30)
+            | (b15 << 22)
+            | (b16 << 14)
+            | (b17 << 6)
+            | (b18 >>> 2);
+    values[valuesOffset + 3] =
+        ((b18 & 0x3) << 48)
+            | (b19 << 40)
+            | (b20 << 32)
+            | (b21 << 24)
+            | (b22 << 16)
+            | (b23 << 8)
+            | b24;
+    values[valuesOffset + 4] =
+        (b25 << 42)
+            | (b26 << 34)
+            | (b27 << 26)
+            | (b28 << 18)
+            | (b29 << 10)
+            | (b30 << 2)
+            | (b31 >>> 6);
+    values[valuesOffset + 5] =
+        ((b31 & 0x3F) << 44)
+            | (b32 << 36)
+            | (b33 << 28)
+            | (b34 << 20)
+            | (b35 << 12)
+            | (b36 << 4)
+            | (b37 >>> 4);
+    values[valuesOffset + 6] =
+        ((b37 & 0xF) << 46)
+            | (b38 << 38)
+            | (b39 << 30)
+            | (b40 << 22)
+            | (b41 << 14)
+            | (b42 << 6)
+            | (b43 >>> 2);
+    values[valuesOffset + 7] =
+        ((b43 & 0x3) << 48)
+            | (b44 << 40)
+            | (b45 << 32)
+            | (b46 << 24)
+            | (b47 << 16)
+            | (b48 << 8)
+            | b49;
+  }
+
+  private static void pack8Values51(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 43);
+    buf[bufOffset + 1] = (byte) (v0 >>> 35);
+    buf[bufOffset + 2] = (byte) (v0 >>> 27);
+    buf[bufOffset + 3] = (byte) (v0 >>> 19);
+    buf[bufOffset + 4] = (byte) (v0 >>> 11);
+    buf[bufOffset + 5] = (byte) (v0 >>> 3);
+    buf[bufOffset + 6] = (byte) ((v0 << 5) | (v1 >>> 46));
+    buf[bufOffset + 7] = (byte) (v1 >>> 38);
+    buf[bufOffset + 8] = (byte) (v1 >>> 30);
+    buf[bufOffset + 9] = (byte) (v1 >>> 22);
+    buf[bufOffset + 10] = (byte) (v1 >>> 14);
+    buf[bufOffset + 11] = (byte) (v1 >>> 6);
+    buf[bufOffset + 12] = (byte) ((v1 << 2) | (v2 >>> 49));
+    buf[bufOffset + 13] = (byte) (v2 >>> 41);
+    buf[bufOffset + 14] = (byte) (v2 >>> 33);
+    buf[bufOffset + 15] = (byte) (v2 >>> 25);
+    buf[bufOffset + 16] = (byte) (v2 >>> 17);
+    buf[bufOffset + 17] = (byte) (v2 >>> 9);
+    buf[bufOffset + 18] = (byte) (v2 >>> 1);
+    buf[bufOffset + 19] = (byte) ((v2 << 7) | (v3 >>> 44));
+    buf[bufOffset + 20] = (byte) (v3 >>> 36);
+    buf[bufOffset + 21] = (byte) (v3 >>> 28);
+    buf[bufOffset + 22] = (byte) (v3 >>> 20);
+    buf[bufOffset + 23] = (byte) (v3 >>> 12);
+    buf[bufOffset + 24] = (byte) (v3 >>> 4);
+    buf[bufOffset + 25] = (byte) ((v3 << 4) | (v4 >>> 47));
+    buf[bufOffset + 26] = (byte) (v4 >>> 39);
+    buf[bufOffset + 27] = (byte) (v4 >>> 31);
+    buf[bufOffset + 28] = (byte) (v4 >>> 23);
+    buf[bufOffset + 29] = (byte) (v4 >>> 15);
+    buf[bufOffset + 30] = (byte) (v4 >>> 7);
+    buf[bufOffset + 31] = (byte) ((v4 << 1) | (v5 >>> 50));
+    buf[bufOffset + 32] = (byte) (v5 >>> 42);
+    buf[bufOffset + 33] = (byte) (v5 >>> 34);
+    buf[bufOffset + 34] = (byte) (v5 >>> 26);
+    buf[bufOffset + 35] = (byte) (v5 >>> 18);
+    buf[bufOffset + 36] = (byte) (v5 >>> 10);
+    buf[bufOffset + 37] = (byte) (v5 >>> 2);
+    buf[bufOffset + 38] = (byte) ((v5 << 6) | (v6 >>> 45));
+    buf[bufOffset + 39] = (byte) (v6 >>> 37);
+    buf[bufOffset + 40] = (byte) (v6 >>> 29);
+    buf[bufOffset + 41] = (byte) (v6 >>> 21);
+    buf[bufOffset + 42] = (byte) (v6 >>> 13);
+    buf[bufOffset + 43] = (byte) (v6 >>> 5);
+    buf[bufOffset + 44] = (byte) ((v6 << 3) | (v7 >>> 48));
+    buf[bufOffset + 45] = (byte) (v7 >>> 40);
+    buf[bufOffset + 46] = (byte) (v7 >>> 32);
+    buf[bufOffset + 47] = (byte) (v7 >>> 24);
+    buf[bufOffset + 48] = (byte) (v7 >>> 16);
+    buf[bufOffset + 49] = (byte) (v7 >>> 8);
+    buf[bufOffset + 50] = (byte) v7;
+  }
+
+  private static void unpack8Values51(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 43) | (b1 << 35) | (b2 << 27) | (b3 << 19) | (b4 << 11) | (b5 << 3) | (b6 >>> 5);
+    values[valuesOffset + 1] =
+        ((b6 & 0x1F) << 46)
+            | (b7 << 38)
+            | (b8 << 30)
+            | (b9 << 22)
+            | (b10 << 14)
+            | (b11 << 6)
+            | (b12 >>> 2);
+    values[valuesOffset + 2] =
+        ((b12 & 0x3) << 49)
+            | (b13 << 41)
+            | (b14 << 33)
+            | (b15 << 25)
+            | (b16 << 17)
+            | (b17 << 9)
+            | (b18 << 1)
+            | (b19 >>> 7);
+    values[valuesOffset + 3] =
+        ((b19 & 0x7F) << 44)
+            | (b20 << 36)
+            | (b21 << 28)
+            | (b22 << 20)
+            | (b23 << 12)
+            | (b24 << 4)
+            | (b25 >>> 4);
+    values[valuesOffset + 4] =
+        ((b25 & 0xF) << 47)
+            | (b26 << 39)
+            | (b27 << 31)
+            | (b28 << 23)
+            | (b29 << 15)
+            | (b30 << 7)
+            | (b31 >>> 1);
+    values[valuesOffset + 5] =
+        ((b31 & 0x1) << 50)
+            | (b32 << 42)
+            | (b33 << 34)
+            | (b34 << 26)
+            | (b35 << 18)
+            | (b36 << 10)
+            | (b37 << 2)
+            | (b38 >>> 6);
+    values[valuesOffset + 6] =
+        ((b38 & 0x3F) << 45)
+            | (b39 << 37)
+            | (b40 << 29)
+            | (b41 << 21)
+            | (b42 << 13)
+            | (b43 << 5)
+            | (b44 >>> 3);
+    values[valuesOffset + 7] =
+        ((b44 & 0x7) << 48)
+            | (b45 << 40)
+            | (b46 << 32)
+            | (b47 << 24)
+            | (b48 << 16)
+            | (b49 << 8)
+            | b50;
+  }
+
+  private static void pack8Values52(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 44);
+    buf[bufOffset + 1] = (byte) (v0 >>> 36);
+    buf[bufOffset + 2] = (byte) (v0 >>> 28);
+    buf[bufOffset + 3] = (byte) (v0 >>> 20);
+    buf[bufOffset + 4] = (byte) (v0 >>> 12);
+    buf[bufOffset + 5] = (byte) (v0 >>> 4);
+    buf[bufOffset + 6] = (byte) ((v0 << 4) | (v1 >>> 48));
+    buf[bufOffset + 7] = (byte) (v1 >>> 40);
+    buf[bufOffset + 8] = (byte) (v1 >>> 32);
+    buf[bufOffset + 9] = (byte) (v1 >>> 24);
+    buf[bufOffset + 10] = (byte) (v1 >>> 16);
+    buf[bufOffset + 11] = (byte) (v1 >>> 8);
+    buf[bufOffset + 12] = (byte) v1;
+    buf[bufOffset + 13] = (byte) (v2 >>> 44);
+    buf[bufOffset + 14] = (byte) (v2 >>> 36);
+    buf[bufOffset + 15] = (byte) (v2 >>> 28);
+    buf[bufOffset + 16] = (byte) (v2 >>> 20);
+    buf[bufOffset + 17] = (byte) (v2 >>> 12);
+    buf[bufOffset + 18] = (byte) (v2 >>> 4);
+    buf[bufOffset + 19] = (byte) ((v2 << 4) | (v3 >>> 48));
+    buf[bufOffset + 20] = (byte) (v3 >>> 40);
+    buf[bufOffset + 21] = (byte) (v3 >>> 32);
+    buf[bufOffset + 22] = (byte) (v3 >>> 24);
+    buf[bufOffset + 23] = (byte) (v3 >>> 16);
+    buf[bufOffset + 24] = (byte) (v3 >>> 8);
+    buf[bufOffset + 25] = (byte) v3;
+    buf[bufOffset + 26] = (byte) (v4 >>> 44);
+    buf[bufOffset + 27] = (byte) (v4 >>> 36);
+    buf[bufOffset + 28] = (byte) (v4 >>> 28);
+    buf[bufOffset + 29] = (byte) (v4 >>> 20);
+    buf[bufOffset + 30] = (byte) (v4 >>> 12);
+    buf[bufOffset + 31] = (byte) (v4 >>> 4);
+    buf[bufOffset + 32] = (byte) ((v4 << 4) | (v5 >>> 48));
+    buf[bufOffset + 33] = (byte) (v5 >>> 40);
+    buf[bufOffset + 34] = (byte) (v5 >>> 32);
+    buf[bufOffset + 35] = (byte) (v5 >>> 24);
+    buf[bufOffset + 36] = (byte) (v5 >>> 16);
+    buf[bufOffset + 37] = (byte) (v5 >>> 8);
+    buf[bufOffset + 38] = (byte) v5;
+    buf[bufOffset + 39] = (byte) (v6 >>> 44);
+    buf[bufOffset + 40] = (byte) (v6 >>> 36);
+    buf[bufOffset + 41] = (byte) (v6 >>> 28);
+    buf[bufOffset + 42] = (byte) (v6 >>> 20);
+    buf[bufOffset + 43] = (byte) (v6 >>> 12);
+    buf[bufOffset + 44] = (byte) (v6 >>> 4);
+    buf[bufOffset + 45] = (byte) ((v6 << 4) | (v7 >>> 48));
+    buf[bufOffset + 46] = (byte) (v7 >>> 40);
+    buf[bufOffset + 47] = (byte) (v7 >>> 32);
+    buf[bufOffset + 48] = (byte) (v7 >>> 24);
+    buf[bufOffset + 49] = (byte) (v7 >>> 16);
+    buf[bufOffset + 50] = (byte) (v7 >>> 8);
+    buf[bufOffset + 51] = (byte) v7;
+  }
+
+  private static void unpack8Values52(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    long b51 = buf[offset + 51] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 44) | (b1 << 36) | (b2 << 28) | (b3 << 20) | (b4 << 12) | (b5 << 4) | (b6 >>> 4);
+    values[valuesOffset + 1] =
+        ((b6 & 0xF) << 48) | (b7 << 40) | (b8 << 32) | (b9 << 24) | (b10 << 16) | (b11 << 8) | b12;
+    values[valuesOffset + 2] =
+        (b13 << 44)
+            | (b14 << 36)
+            | (b15 << 28)
+            | (b16 << 20)
+            | (b17 << 12)
+            | (b18 << 4)
+            | (b19 >>> 4);
+    values[valuesOffset + 3] =
+        ((b19 & 0xF) << 48)
+            | (b20 << 40)
+            | (b21 << 32)
+            | (b22 << 24)
+            | (b23 << 16)
+            | (b24 << 8)
+            | b25;
+    values[valuesOffset + 4] =
+        (b26 << 44)
+            | (b27 << 36)
+            | (b28 << 28)
+            | (b29 << 20)
+            | (b30 << 12)
+            | (b31 << 4)
+            | (b32 >>> 4);
+    values[valuesOffset + 5] =
+        ((b32 & 0xF) << 48)
+            | (b33 << 40)
+            | (b34 << 32)
+            | (b35 << 24)
+            | (b36 << 16)
+            | (b37 << 8)
+            | b38;
+    values[valuesOffset + 6] =
+        (b39 << 44)
+            | (b40 << 36)
+            | (b41 << 28)
+            | (b42 << 20)
+            | (b43 << 12)
+            | (b44 << 4)
+            | (b45 >>> 4);
+    values[valuesOffset + 7] =
+        ((b45 & 0xF) << 48)
+            | (b46 << 40)
+            | (b47 << 32)
+            | (b48 << 24)
+            | (b49 << 16)
+            | (b50 << 8)
+            | b51;
+  }
+
+  private static void pack8Values53(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 45);
+    buf[bufOffset + 1] = (byte) (v0 >>> 37);
+    buf[bufOffset + 2] = (byte) (v0 >>> 29);
+    buf[bufOffset + 3] = (byte) (v0 >>> 21);
+    buf[bufOffset + 4] = (byte) (v0 >>> 13);
+    buf[bufOffset + 5] = (byte) (v0 >>> 5);
+    buf[bufOffset + 6] = (byte) ((v0 << 3) | (v1 >>> 50));
+    buf[bufOffset + 7] = (byte) (v1 >>> 42);
+    buf[bufOffset + 8] = (byte) (v1 >>> 34);
+    buf[bufOffset + 9] = (byte) (v1 >>> 26);
+    buf[bufOffset + 10] = (byte) (v1 >>> 18);
+    buf[bufOffset + 11] = (byte) (v1 >>> 10);
+    buf[bufOffset + 12] = (byte) (v1 >>> 2);
+    buf[bufOffset + 13] = (byte) ((v1 << 6) | (v2 >>> 47));
+    buf[bufOffset + 14] = (byte) (v2 >>> 39);
+    buf[bufOffset + 15] = (byte) (v2 >>> 31);
+    buf[bufOffset + 16] = (byte) (v2 >>> 23);
+    buf[bufOffset + 17] = (byte) (v2 >>> 15);
+    buf[bufOffset + 18] = (byte) (v2 >>> 7);
+    buf[bufOffset + 19] = (byte) ((v2 << 1) | (v3 >>> 52));
+    buf[bufOffset + 20] = (byte) (v3 >>> 44);
+    buf[bufOffset + 21] = (byte) (v3 >>> 36);
+    buf[bufOffset + 22] = (byte) (v3 >>> 28);
+    buf[bufOffset + 23] = (byte) (v3 >>> 20);
+    buf[bufOffset + 24] = (byte) (v3 >>> 12);
+    buf[bufOffset + 25] = (byte) (v3 >>> 4);
+    buf[bufOffset + 26] = (byte) ((v3 << 4) | (v4 >>> 49));
+    buf[bufOffset + 27] = (byte) (v4 >>> 41);
+    buf[bufOffset + 28] = (byte) (v4 >>> 33);
+    buf[bufOffset + 29] = (byte) (v4 >>> 25);
+    buf[bufOffset + 30] = (byte) (v4 >>> 17);
+    buf[bufOffset + 31] = (byte) (v4 >>> 9);
+    buf[bufOffset + 32] = (byte) (v4 >>> 1);
+    buf[bufOffset + 33] = (byte) ((v4 << 7) | (v5 >>> 46));
+    buf[bufOffset + 34] = (byte) (v5 >>> 38);
+    buf[bufOffset + 35] = (byte) (v5 >>> 30);
+    buf[bufOffset + 36] = (byte) (v5 >>> 22);
+    buf[bufOffset + 37] = (byte) (v5 >>> 14);
+    buf[bufOffset + 38] = (byte) (v5 >>> 6);
+    buf[bufOffset + 39] = (byte) ((v5 << 2) | (v6 >>> 51));
+    buf[bufOffset + 40] = (byte) (v6 >>> 43);
+    buf[bufOffset + 41] = (byte) (v6 >>> 35);
+    buf[bufOffset + 42] = (byte) (v6 >>> 27);
+    buf[bufOffset + 43] = (byte) (v6 >>> 19);
+    buf[bufOffset + 44] = (byte) (v6 >>> 11);
+    buf[bufOffset + 45] = (byte) (v6 >>> 3);
+    buf[bufOffset + 46] = (byte) ((v6 << 5) | (v7 >>> 48));
+    buf[bufOffset + 47] = (byte) (v7 >>> 40);
+    buf[bufOffset + 48] = (byte) (v7 >>> 32);
+    buf[bufOffset + 49] = (byte) (v7 >>> 24);
+    buf[bufOffset + 50] = (byte) (v7 >>> 16);
+    buf[bufOffset + 51] = (byte) (v7 >>> 8);
+    buf[bufOffset + 52] = (byte) v7;
+  }
+
+  private static void unpack8Values53(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    long b51 = buf[offset + 51] & 0xFF;
+    long b52 = buf[offset + 52] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 45) | (b1 << 37) | (b2 << 29) | (b3 << 21) | (b4 << 13) | (b5 << 5) | (b6 >>> 3);
+    values[valuesOffset + 1] =
+        ((b6 & 0x7) << 50)
+            | (b7 << 42)
+            | (b8 << 34)
+            | (b9 << 26)
+            | (b10 << 18)
+            | (b11 << 10)
+            | (b12 << 2)
+            | (b13 >>> 6);
+    values[valuesOffset + 2] =
+        ((b13 & 0x3F) << 47)
+            | (b14 << 39)
+            | (b15 << 31)
+            | (b16 << 23)
+            | (b17 << 15)
+            | (b18 << 7)
+            | (b19 >>> 1);
+    values[valuesOffset + 3] =
+        ((b19 & 0x1) << 52)
+            | (b20 << 44)
+            | (b21 << 36)
+            | (b22 << 28)
+            | (b23 << 20)
+            | (b24 << 12)
+            | (b25 << 4)
+            | (b26 >>> 4);
+    values[valuesOffset + 4] =
+        ((b26 & 0xF) << 49)
+            | (b27 << 41)
+            | (b28 << 33)
+            | (b29 << 25)
+            | (b30 << 17)
+            | (b31 << 9)
+            | (b32 << 1)
+            | (b33 >>> 7);
+    values[valuesOffset + 5] =
+        ((b33 & 0x7F) << 46)
+            | (b34 << 38)
+            | (b35 << 30)
+            | (b36 << 22)
+            | (b37 << 14)
+            | (b38 << 6)
+            | (b39 >>> 2);
+    values[valuesOffset + 6] =
+        ((b39 & 0x3) << 51)
+            | (b40 << 43)
+            | (b41 << 35)
+            | (b42 << 27)
+            | (b43 << 19)
+            | (b44 << 11)
+            | (b45 << 3)
+            | (b46 >>> 5);
+    values[valuesOffset + 7] =
+        ((b46 & 0x1F) << 48)
+            | (b47 << 40)
+            | (b48 << 32)
+            | (b49 << 24)
+            | (b50 << 16)
+            | (b51 << 8)
+            | b52;
+  }
+
+  private static void pack8Values54(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 46);
+    buf[bufOffset + 1] = (byte) (v0 >>> 38);
+    buf[bufOffset + 2] = (byte) (v0 >>> 30);
+    buf[bufOffset + 3] = (byte) (v0 >>> 22);
+    buf[bufOffset + 4] = (byte) (v0 >>> 14);
+    buf[bufOffset + 5] = (byte) (v0 >>> 6);
+    buf[bufOffset + 6] = (byte) ((v0 << 2) | (v1 >>> 52));
+    buf[bufOffset + 7] = (byte) (v1 >>> 44);
+    buf[bufOffset + 8] = (byte) (v1 >>> 36);
+    buf[bufOffset + 9] = (byte) (v1 >>> 28);
+    buf[bufOffset + 10] = (byte) (v1 >>> 20);
+    buf[bufOffset + 11] = (byte) (v1 >>> 12);
+    buf[bufOffset + 12] = (byte) (v1 >>> 4);
+    buf[bufOffset + 13] = (byte) ((v1 << 4) | (v2 >>> 50));
+    buf[bufOffset + 14] = (byte) (v2 >>> 42);
+    buf[bufOffset + 15] = (byte) (v2 >>> 34);
+    buf[bufOffset + 16] = (byte) (v2 >>> 26);
+    buf[bufOffset + 17] = (byte) (v2 >>> 18);
+    buf[bufOffset + 18] = (byte) (v2 >>> 10);
+    buf[bufOffset + 19] = (byte) (v2 >>> 2);
+    buf[bufOffset + 20] = (byte) ((v2 << 6) | (v3 >>> 48));
+    buf[bufOffset + 21] = (byte) (v3 >>> 40);
+    buf[bufOffset + 22] = (byte) (v3 >>> 32);
+    buf[bufOffset + 23] = (byte) (v3 >>> 24);
+    buf[bufOffset + 24] = (byte) (v3 >>> 16);
+    buf[bufOffset + 25] = (byte) (v3 >>> 8);
+    buf[bufOffset + 26] = (byte) v3;
+    buf[bufOffset + 27] = (byte) (v4 >>> 46);
+    buf[bufOffset + 28] = (byte) (v4 >>> 38);
+    buf[bufOffset + 29] = (byte) (v4 >>> 30);
+    buf[bufOffset + 30] = (byte) (v4 >>> 22);
+    buf[bufOffset + 31] = (byte) (v4 >>> 14);
+    buf[bufOffset + 32] = (byte) (v4 >>> 6);
+    buf[bufOffset + 33] = (byte) ((v4 << 2) | (v5 >>> 52));
+    buf[bufOffset + 34] = (byte) (v5 >>> 44);
+    buf[bufOffset + 35] = (byte) (v5 >>> 36);
+    buf[bufOffset + 36] = (byte) (v5 >>> 28);
+    buf[bufOffset + 37] = (byte) (v5 >>> 20);
+    buf[bufOffset + 38] = (byte) (v5 >>> 12);
+    buf[bufOffset + 39] = (byte) (v5 >>> 4);
+    buf[bufOffset + 40] = (byte) ((v5 << 4) | (v6 >>> 50));
+    buf[bufOffset + 41] = (byte) (v6 >>> 42);
+    buf[bufOffset + 42] = (byte) (v6 >>> 34);
+    buf[bufOffset + 43] = (byte) (v6 >>> 26);
+    buf[bufOffset + 44] = (byte) (v6 >>> 18);
+    buf[bufOffset + 45] = (byte) (v6 >>> 10);
+    buf[bufOffset + 46] = (byte) (v6 >>> 2);
+    buf[bufOffset + 47] = (byte) ((v6 << 6) | (v7 >>> 48));
+    buf[bufOffset + 48] = (byte) (v7 >>> 40);
+    buf[bufOffset + 49] = (byte) (v7 >>> 32);
+    buf[bufOffset + 50] = (byte) (v7 >>> 24);
+    buf[bufOffset + 51] = (byte) (v7 >>> 16);
+    buf[bufOffset + 52] = (byte) (v7 >>> 8);
+    buf[bufOffset + 53] = (byte) v7;
+  }
+
+  private static void unpack8Values54(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    long b51 = buf[offset + 51] & 0xFF;
+    long b52 = buf[offset + 52] & 0xFF;
+    long b53 = buf[offset + 53] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 46) | (b1 << 38) | (b2 << 30) | (b3 << 22) | (b4 << 14) | (b5 << 6) | (b6 >>> 2);
+    values[valuesOffset + 1] =
+        ((b6 & 0x3) << 52)
+            | (b7 << 44)
+            | (b8 << 36)
+            | (b9 << 28)
+            | (b10 << 20)
+            | (b11 << 12)
+            | (b12 << 4)
+            | (b13 >>> 4);
+    values[valuesOffset + 2] =
+        ((b13 & 0xF) << 50)
+            | (b14 << 42)
+            | (b15 << 34)
+            | (b16 << 26)
+            | (b17 << 18)
+            | (b18 << 10)
+            | (b19 << 2)
+            | (b20 >>> 6);
+    values[valuesOffset + 3] =
+        ((b20 & 0x3F) << 48)
+            | (b21 << 40)
+            | (b22 << 32)
+            | (b23 << 24)
+            | (b24 << 16)
+            | (b25 << 8)
+            | b26;
+    values[valuesOffset + 4] =
+        (b27 << 46)
+            | (b28 << 38)
+            | (b29 << 30)
+            | (b30 << 22)
+            | (b31 << 14)
+            | (b32 << 6)
+            | (b33 >>> 2);
+    values[valuesOffset + 5] =
+        ((b33 & 0x3) << 52)
+            | (b34 << 44)
+            | (b35 << 36)
+            | (b36 << 28)
+            | (b37 << 20)
+            | (b38 << 12)
+            | (b39 << 4)
+            | (b40 >>> 4);
+    values[valuesOffset + 6] =
+        ((b40 & 0xF) << 50)
+            | (b41 << 42)
+            | (b42 << 34)
+            | (b43 << 26)
+            | (b44 << 18)
+            | (b45 << 10)
+            | (b46 << 2)
+            | (b47 >>> 6);
+    values[valuesOffset + 7] =
+        ((b47 & 0x3F) << 48)
+            | (b48 << 40)
+            | (b49 << 32)
+            | (b50 << 24)
+            | (b51 << 16)
+            | (b52 << 8)
+            | b53;
+  }
+
+  private static void pack8Values55(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 47);
+    buf[bufOffset + 1] = (byte) (v0 >>> 39);
+    buf[bufOffset + 2] = (byte) (v0 >>> 31);
+    buf[bufOffset + 3] = (byte) (v0 >>> 23);
+    buf[bufOffset + 4] = (byte) (v0 >>> 15);
+    buf[bufOffset + 5] = (byte) (v0 >>> 7);
+    buf[bufOffset + 6] = (byte) ((v0 << 1) | (v1 >>> 54));
+    buf[bufOffset + 7] = (byte) (v1 >>> 46);
+    buf[bufOffset + 8] = (byte) (v1 >>> 38);
+    buf[bufOffset + 9] = (byte) (v1 >>> 30);
+    buf[bufOffset + 10] = (byte) (v1 >>> 22);
+    buf[bufOffset + 11] = (byte) (v1 >>> 14);
+    buf[bufOffset + 12] = (byte) (v1 >>> 6);
+    buf[bufOffset + 13] = (byte) ((v1 << 2) | (v2 >>> 53));
+    buf[bufOffset + 14] = (byte) (v2 >>> 45);
+    buf[bufOffset + 15] = (byte) (v2 >>> 37);
+    buf[bufOffset + 16] = (byte) (v2 >>> 29);
+    buf[bufOffset + 17] = (byte) (v2 >>> 21);
+    buf[bufOffset + 18] = (byte) (v2 >>> 13);
+    buf[bufOffset + 19] = (byte) (v2 >>> 5);
+    buf[bufOffset + 20] = (byte) ((v2 << 3) | (v3 >>> 52));
+    buf[bufOffset + 21] = (byte) (v3 >>> 44);
+    buf[bufOffset + 22] = (byte) (v3 >>> 36);
+    buf[bufOffset + 23] = (byte) (v3 >>> 28);
+    buf[bufOffset + 24] = (byte) (v3 >>> 20);
+    buf[bufOffset + 25] = (byte) (v3 >>> 12);
+    buf[bufOffset + 26] = (byte) (v3 >>> 4);
+    buf[bufOffset + 27] = (byte) ((v3 << 4) | (v4 >>> 51));
+    buf[bufOffset + 28] = (byte) (v4 >>> 43);
+    buf[bufOffset + 29] = (byte) (v4 >>> 35);
+    buf[bufOffset + 30] = (byte) (v4 >>> 27);
+    buf[bufOffset + 31] = (byte) (v4 >>> 19);
+    buf[bufOffset + 32] = (byte) (v4 >>> 11);
+    buf[bufOffset + 33] = (byte) (v4 >>> 3);
+    buf[bufOffset + 34] = (byte) ((v4 << 5) | (v5 >>> 50));
+    buf[bufOffset + 35] = (byte) (v5 >>> 42);
+    buf[bufOffset + 36] = (byte) (v5 >>> 34);
+    buf[bufOffset + 37] = (byte) (v5 >>> 26);
+    buf[bufOffset + 38] = (byte) (v5 >>> 18);
+    buf[bufOffset + 39] = (byte) (v5 >>> 10);
+    buf[bufOffset + 40] = (byte) (v5 >>> 2);
+    buf[bufOffset + 41] = (byte) ((v5 << 6) | (v6 >>> 49));
+    buf[bufOffset + 42] = (byte) (v6 >>> 41);
+    buf[bufOffset + 43] = (byte) (v6 >>> 33);
+    buf[bufOffset + 44] = (byte) (v6 >>> 25);
+    buf[bufOffset + 45] = (byte) (v6 >>> 17);
+    buf[bufOffset + 46] = (byte) (v6 >>> 9);
+    buf[bufOffset + 47] = (byte) (v6 >>> 1);
+    buf[bufOffset + 48] = (byte) ((v6 << 7) | (v7 >>> 48));
+    buf[bufOffset + 49] = (byte) (v7 >>> 40);
+    buf[bufOffset + 50] = (byte) (v7 >>> 32);
+    buf[bufOffset + 51] = (byte) (v7 >>> 24);
+    buf[bufOffset + 52] = (byte) (v7 >>> 16);
+    buf[bufOffset + 53] = (byte) (v7 >>> 8);
+    buf[bufOffset + 54] = (byte) v7;
+  }
+
+  private static void unpack8Values55(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    long b51 = buf[offset + 51] & 0xFF;
+    long b52 = buf[offset + 52] & 0xFF;
+    long b53 = buf[offset + 53] & 0xFF;
+    long b54 = buf[offset + 54] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 47) | (b1 << 39) | (b2 << 31) | (b3 << 23) | (b4 << 15) | (b5 << 7) | (b6 >>> 1);
+    values[valuesOffset + 1] =
+        ((b6 & 0x1) << 54)
+            | (b7 << 46)
+            | (b8 << 38)
+            | (b9 << 30)
+            | (b10 << 22)
+            | (b11 << 14)
+            | (b12 << 6)
+            | (b13 >>> 2);
+    values[valuesOffset + 2] =
+        ((b13 & 0x3) << 53)
+            | (b14 << 45)
+            | (b15 << 37)
+            | (b16 << 29)
+            | (b17 << 21)
+            | (b18 << 13)
+            | (b19 << 5)
+            | (b20 >>> 3);
+    values[valuesOffset + 3] =
+        ((b20 & 0x7) << 52)
+            | (b21 << 44)
+            | (b22 << 36)
+            | (b23 << 28)
+            | (b24 << 20)
+            | (b25 << 12)
+            | (b26 << 4)
+            | (b27 >>> 4);
+    values[valuesOffset + 4] =
+        ((b27 & 0xF) << 51)
+            | (b28 << 43)
+            | (b29 << 35)
+            | (b30 << 27)
+            | (b31 << 19)
+            | (b32 << 11)
+            | (b33 << 3)
+            | (b34 >>> 5);
+    values[valuesOffset + 5] =
+        ((b34 & 0x1F) << 50)
+            | (b35 << 42)
+            | (b36 << 34)
+            | (b37 << 26)
+            | (b38 << 18)
+            | (b39 << 10)
+            | (b40 << 2)
+            | (b41 >>> 6);
+    values[valuesOffset + 6] =
+        ((b41 & 0x3F) << 49)
+            | (b42 << 41)
+            | (b43 << 33)
+            | (b44 << 25)
+            | (b45 << 17)
+            | (b46 << 9)
+            | (b47 << 1)
+            | (b48 >>> 7);
+    values[valuesOffset + 7] =
+        ((b48 & 0x7F) << 48)
+            | (b49 << 40)
+            | (b50 << 32)
+            | (b51 << 24)
+            | (b52 << 16)
+            | (b53 << 8)
+            | b54;
+  }
+
+  private static void pack8Values56(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 48);
+    buf[bufOffset + 1] = (byte) (v0 >>> 40);
+    buf[bufOffset + 2] = (byte) (v0 >>> 32);
+    buf[bufOffset + 3] = (byte) (v0 >>> 24);
+    buf[bufOffset + 4] = (byte) (v0 >>> 16);
+    buf[bufOffset + 5] = (byte) (v0 >>> 8);
+    buf[bufOffset + 6] = (byte) v0;
+    buf[bufOffset + 7] = (byte) (v1 >>> 48);
+    buf[bufOffset + 8] = (byte) (v1 >>> 40);
+    buf[bufOffset + 9] = (byte) (v1 >>> 32);
+    buf[bufOffset + 10] = (byte) (v1 >>> 24);
+    buf[bufOffset + 11] = (byte) (v1 >>> 16);
+    buf[bufOffset + 12] = (byte) (v1 >>> 8);
+    buf[bufOffset + 13] = (byte) v1;
+    buf[bufOffset + 14] = (byte) (v2 >>> 48);
+    buf[bufOffset + 15] = (byte) (v2 >>> 40);
+    buf[bufOffset + 16] = (byte) (v2 >>> 32);
+    buf[bufOffset + 17] = (byte) (v2 >>> 24);
+    buf[bufOffset + 18] = (byte) (v2 >>> 16);
+    buf[bufOffset + 19] = (byte) (v2 >>> 8);
+    buf[bufOffset + 20] = (byte) v2;
+    buf[bufOffset + 21] = (byte) (v3 >>> 48);
+    buf[bufOffset + 22] = (byte) (v3 >>> 40);
+    buf[bufOffset + 23] = (byte) (v3 >>> 32);
+    buf[bufOffset + 24] = (byte) (v3 >>> 24);
+    buf[bufOffset + 25] = (byte) (v3 >>> 16);
+    buf[bufOffset + 26] = (byte) (v3 >>> 8);
+    buf[bufOffset + 27] = (byte) v3;
+    buf[bufOffset + 28] = (byte) (v4 >>> 48);
+    buf[bufOffset + 29] = (byte) (v4 >>> 40);
+    buf[bufOffset + 30] = (byte) (v4 >>> 32);
+    buf[bufOffset + 31] = (byte) (v4 >>> 24);
+    buf[bufOffset + 32] = (byte) (v4 >>> 16);
+    buf[bufOffset + 33] = (byte) (v4 >>> 8);
+    buf[bufOffset + 34] = (byte) v4;
+    buf[bufOffset + 35] = (byte) (v5 >>> 48);
+    buf[bufOffset + 36] = (byte) (v5 >>> 40);
+    buf[bufOffset + 37] = (byte) (v5 >>> 32);
+    buf[bufOffset + 38] = (byte) (v5 >>> 24);
+    buf[bufOffset + 39] = (byte) (v5 >>> 16);
+    buf[bufOffset + 40] = (byte) (v5 >>> 8);
+    buf[bufOffset + 41] = (byte) v5;
+    buf[bufOffset + 42] = (byte) (v6 >>> 48);
+    buf[bufOffset + 43] = (byte) (v6 >>> 40);
+    buf[bufOffset + 44] = (byte) (v6 >>> 32);
+    buf[bufOffset + 45] = (byte) (v6 >>> 24);
+    buf[bufOffset + 46] = (byte) (v6 >>> 16);
+    buf[bufOffset + 47] = (byte) (v6 >>> 8);
+    buf[bufOffset + 48] = (byte) v6;
+    buf[bufOffset + 49] = (byte) (v7 >>> 48);
+    buf[bufOffset + 50] = (byte) (v7 >>> 40);
+    buf[bufOffset + 51] = (byte) (v7 >>> 32);
+    buf[bufOffset + 52] = (byte) (v7 >>> 24);
+    buf[bufOffset + 53] = (byte) (v7 >>> 16);
+    buf[bufOffset + 54] = (byte) (v7 >>> 8);
+    buf[bufOffset + 55] = (byte) v7;
+  }
+
+  private static void unpack8Values56(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    long b51 = buf[offset + 51] & 0xFF;
+    long b52 = buf[offset + 52] & 0xFF;
+    long b53 = buf[offset + 53] & 0xFF;
+    long b54 = buf[offset + 54] & 0xFF;
+    long b55 = buf[offset + 55] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 48) | (b1 << 40) | (b2 << 32) | (b3 << 24) | (b4 << 16) | (b5 << 8) | b6;
+    values[valuesOffset + 1] =
+        (b7 << 48) | (b8 << 40) | (b9 << 32) | (b10 << 24) | (b11 << 16) | (b12 << 8) | b13;
+    values[valuesOffset + 2] =
+        (b14 << 48) | (b15 << 40) | (b16 << 32) | (b17 << 24) | (b18 << 16) | (b19 << 8) | b20;
+    values[valuesOffset + 3] =
+        (b21 << 48) | (b22 << 40) | (b23 << 32) | (b24 << 24) | (b25 << 16) | (b26 << 8) | b27;
+    values[valuesOffset + 4] =
+        (b28 << 48) | (b29 << 40) | (b30 << 32) | (b31 << 24) | (b32 << 16) | (b33 << 8) | b34;
+    values[valuesOffset + 5] =
+        (b35 << 48) | (b36 << 40) | (b37 << 32) | (b38 << 24) | (b39 << 16) | (b40 << 8) | b41;
+    values[valuesOffset + 6] =
+        (b42 << 48) | (b43 << 40) | (b44 << 32) | (b45 << 24) | (b46 << 16) | (b47 << 8) | b48;
+    values[valuesOffset + 7] =
+        (b49 << 48) | (b50 << 40) | (b51 << 32) | (b52 << 24) | (b53 << 16) | (b54 << 8) | b55;
+  }
+
+  private static void pack8Values57(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 49);
+    buf[bufOffset + 1] = (byte) (v0 >>> 41);
+    buf[bufOffset + 2] = (byte) (v0 >>> 33);
+    buf[bufOffset + 3] = (byte) (v0 >>> 25);
+    buf[bufOffset + 4] = (byte) (v0 >>> 17);
+    buf[bufOffset + 5] = (byte) (v0 >>> 9);
+    buf[bufOffset + 6] = (byte) (v0 >>> 1);
+    buf[bufOffset + 7] = (byte) ((v0 << 7) | (v1 >>> 50));
+    buf[bufOffset + 8] = (byte) (v1 >>> 42);
+    buf[bufOffset + 9] = (byte) (v1 >>> 34);
+    buf[bufOffset + 10] = (byte) (v1 >>> 26);
+    buf[bufOffset + 11] = (byte) (v1 >>> 18);
+    buf[bufOffset + 12] = (byte) (v1 >>> 10);
+    buf[bufOffset + 13] = (byte) (v1 >>> 2);
+    buf[bufOffset + 14] = (byte) ((v1 << 6) | (v2 >>> 51));
+    buf[bufOffset + 15] = (byte) (v2 >>> 43);
+    buf[bufOffset + 16] = (byte) (v2 >>> 35);
+    buf[bufOffset + 17] = (byte) (v2 >>> 27);
+    buf[bufOffset + 18] = (byte) (v2 >>> 19);
+    buf[bufOffset + 19] = (byte) (v2 >>> 11);
+    buf[bufOffset + 20] = (byte) (v2 >>> 3);
+    buf[bufOffset + 21] = (byte) ((v2 << 5) | (v3 >>> 52));
+    buf[bufOffset + 22] = (byte) (v3 >>> 44);
+    buf[bufOffset + 23] = (byte) (v3 >>> 36);
+    buf[bufOffset + 24] = (byte) (v3 >>> 28);
+    buf[bufOffset + 25] = (byte) (v3 >>> 20);
+    buf[bufOffset + 26] = (byte) (v3 >>> 12);
+    buf[bufOffset + 27] = (byte) (v3 >>> 4);
+    buf[bufOffset + 28] = (byte) ((v3 << 4) | (v4 >>> 53));
+    buf[bufOffset + 29] = (byte) (v4 >>> 45);
+    buf[bufOffset + 30] = (byte) (v4 >>> 37);
+    buf[bufOffset + 31] = (byte) (v4 >>> 29);
+    buf[bufOffset + 32] = (byte) (v4 >>> 21);
+    buf[bufOffset + 33] = (byte) (v4 >>> 13);
+    buf[bufOffset + 34] = (byte) (v4 >>> 5);
+    buf[bufOffset + 35] = (byte) ((v4 << 3) | (v5 >>> 54));
+    buf[bufOffset + 36] = (byte) (v5 >>> 46);
+    buf[bufOffset + 37] = (byte) (v5 >>> 38);
+    buf[bufOffset + 38] = (byte) (v5 >>> 30);
+    buf[bufOffset + 39] = (byte) (v5 >>> 22);
+    buf[bufOffset + 40] = (byte) (v5 >>> 14);
+    buf[bufOffset + 41] = (byte) (v5 >>> 6);
+    buf[bufOffset + 42] = (byte) ((v5 << 2) | (v6 >>> 55));
+    buf[bufOffset + 43] = (byte) (v6 >>> 47);
+    buf[bufOffset + 44] = (byte) (v6 >>> 39);
+    buf[bufOffset + 45] = (byte) (v6 >>> 31);
+    buf[bufOffset + 46] = (byte) (v6 >>> 23);
+    buf[bufOffset + 47] = (byte) (v6 >>> 15);
+    buf[bufOffset + 48] = (byte) (v6 >>> 7);
+    buf[bufOffset + 49] = (byte) ((v6 << 1) | (v7 >>> 56));
+    buf[bufOffset + 50] = (byte) (v7 >>> 48);
+    buf[bufOffset + 51] = (byte) (v7 >>> 40);
+    buf[bufOffset + 52] = (byte) (v7 >>> 32);
+    buf[bufOffset + 53] = (byte) (v7 >>> 24);
+    buf[bufOffset + 54] = (byte) (v7 >>> 16);
+    buf[bufOffset + 55] = (byte) (v7 >>> 8);
+    buf[bufOffset + 56] = (byte) v7;
+  }
+
+  private static void unpack8Values57(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    long b51 = buf[offset + 51] & 0xFF;
+    long b52 = buf[offset + 52] & 0xFF;
+    long b53 = buf[offset + 53] & 0xFF;
+    long b54 = buf[offset + 54] & 0xFF;
+    long b55 = buf[offset + 55] & 0xFF;
+    long b56 = buf[offset + 56] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 49)
+            | (b1 << 41)
+            | (b2 << 33)
+            | (b3 << 25)
+            | (b4 << 17)
+            | (b5 << 9)
+            | (b6 << 1)
+            | (b7 >>> 7);
+    values[valuesOffset + 1] =
+        ((b7 & 0x7F) << 50)
+            | (b8 << 42)
+            | (b9 << 34)
+            | (b10 << 26)
+            | (b11 << 18)
+            | (b12 << 10)
+            | (b13 << 2)
+            | (b14 >>> 6);
+    values[valuesOffset + 2] =
+        ((b14 & 0x3F) << 51)
+            | (b15 << 43)
+            | (b16 << 35)
+            | (b17 << 27)
+            | (b18 << 19)
+            | (b19 << 11)
+            | (b20 << 3)
+            | (b21 >>> 5);
+    values[valuesOffset + 3] =
+        ((b21 & 0x1F) << 52)
+            | (b22 << 44)
+            | (b23 << 36)
+            | (b24 << 28)
+            | (b25 << 20)
+            | (b26 << 12)
+            | (b27 << 4)
+            | (b28 >>> 4);
+    values[valuesOffset + 4] =
+        ((b28 & 0xF) << 53)
+            | (b29 << 45)
+            | (b30 << 37)
+            | (b31 << 29)
+            | (b32 << 21)
+            | (b33 << 13)
+            | (b34 << 5)
+            | (b35 >>> 3);
+    values[valuesOffset + 5] =
+        ((b35 & 0x7) << 54)
+            | (b36 << 46)
+            | (b37 << 38)
+            | (b38 << 30)
+            | (b39 << 22)
+            | (b40 << 14)
+            | (b41 << 6)
+            | (b42 >>> 2);
+    values[valuesOffset + 6] =
+        ((b42 & 0x3) << 55)
+            | (b43 << 47)
+            | (b44 << 39)
+            | (b45 << 31)
+            | (b46 << 23)
+            | (b47 << 15)
+            | (b48 << 7)
+            | (b49 >>> 1);
+    values[valuesOffset + 7] =
+        ((b49 & 0x1) << 56)
+            | (b50 << 48)
+            | (b51 << 40)
+            | (b52 << 32)
+            | (b53 << 24)
+            | (b54 << 16)
+            | (b55 << 8)
+            | b56;
+  }
+
+  private static void pack8Values58(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 50);
+    buf[bufOffset + 1] = (byte) (v0 >>> 42);
+    buf[bufOffset + 2] = (byte) (v0 >>> 34);
+    buf[bufOffset + 3] = (byte) (v0 >>> 26);
+    buf[bufOffset + 4] = (byte) (v0 >>> 18);
+    buf[bufOffset + 5] = (byte) (v0 >>> 10);
+    buf[bufOffset + 6] = (byte) (v0 >>> 2);
+    buf[bufOffset + 7] = (byte) ((v0 << 6) | (v1 >>> 52));
+    buf[bufOffset + 8] = (byte) (v1 >>> 44);
+    buf[bufOffset + 9] = (byte) (v1 >>> 36);
+    buf[bufOffset + 10] = (byte) (v1 >>> 28);
+    buf[bufOffset + 11] = (byte) (v1 >>> 20);
+    buf[bufOffset + 12] = (byte) (v1 >>> 12);
+    buf[bufOffset + 13] = (byte) (v1 >>> 4);
+    buf[bufOffset + 14] = (byte) ((v1 << 4) | (v2 >>> 54));
+    buf[bufOffset + 15] = (byte) (v2 >>> 46);
+    buf[bufOffset + 16] = (byte) (v2 >>> 38);
+    buf[bufOffset + 17] = (byte) (v2 >>> 30);
+    buf[bufOffset + 18] = (byte) (v2 >>> 22);
+    buf[bufOffset + 19] = (byte) (v2 >>> 14);
+    buf[bufOffset + 20] = (byte) (v2 >>> 6);
+    buf[bufOffset + 21] = (byte) ((v2 << 2) | (v3 >>> 56));
+    buf[bufOffset + 22] = (byte) (v3 >>> 48);
+    buf[bufOffset + 23] = (byte) (v3 >>> 40);
+    buf[bufOffset + 24] = (byte) (v3 >>> 32);
+    buf[bufOffset + 25] = (byte) (v3 >>> 24);
+    buf[bufOffset + 26] = (byte) (v3 >>> 16);
+    buf[bufOffset + 27] = (byte) (v3 >>> 8);
+    buf[bufOffset + 28] = (byte) v3;
+    buf[bufOffset + 29] = (byte) (v4 >>> 50);
+    buf[bufOffset + 30] = (byte) (v4 >>> 42);
+    buf[bufOffset + 31] = (byte) (v4 >>> 34);
+    buf[bufOffset + 32] = (byte) (v4 >>> 26);
+    buf[bufOffset + 33] = (byte) (v4 >>> 18);
+    buf[bufOffset + 34] = (byte) (v4 >>> 10);
+    buf[bufOffset + 35] = (byte) (v4 >>> 2);
+    buf[bufOffset + 36] = (byte) ((v4 << 6) | (v5 >>> 52));
+    buf[bufOffset + 37] = (byte) (v5 >>> 44);
+    buf[bufOffset + 38] = (byte) (v5 >>> 36);
+    buf[bufOffset + 39] = (byte) (v5 >>> 28);
+    buf[bufOffset + 40] = (byte) (v5 >>> 20);
+    buf[bufOffset + 41] = (byte) (v5 >>> 12);
+    buf[bufOffset + 42] = (byte) (v5 >>> 4);
+    buf[bufOffset + 43] = (byte) ((v5 << 4) | (v6 >>> 54));
+    buf[bufOffset + 44] = (byte) (v6 >>> 46);
+    buf[bufOffset + 45] = (byte) (v6 >>> 38);
+    buf[bufOffset + 46] = (byte) (v6 >>> 30);
+    buf[bufOffset + 47] = (byte) (v6 >>> 22);
+    buf[bufOffset + 48] = (byte) (v6 >>> 14);
+    buf[bufOffset + 49] = (byte) (v6 >>> 6);
+    buf[bufOffset + 50] = (byte) ((v6 << 2) | (v7 >>> 56));
+    buf[bufOffset + 51] = (byte) (v7 >>> 48);
+    buf[bufOffset + 52] = (byte) (v7 >>> 40);
+    buf[bufOffset + 53] = (byte) (v7 >>> 32);
+    buf[bufOffset + 54] = (byte) (v7 >>> 24);
+    buf[bufOffset + 55] = (byte) (v7 >>> 16);
+    buf[bufOffset + 56] = (byte) (v7 >>> 8);
+    buf[bufOffset + 57] = (byte) v7;
+  }
+
+  private static void unpack8Values58(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    long b51 = buf[offset + 51] & 0xFF;
+    long b52 = buf[offset + 52] & 0xFF;
+    long b53 = buf[offset + 53] & 0xFF;
+    long b54 = buf[offset + 54] & 0xFF;
+    long b55 = buf[offset + 55] & 0xFF;
+    long b56 = buf[offset + 56] & 0xFF;
+    long b57 = buf[offset + 57] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 50)
+            | (b1 << 42)
+            | (b2 << 34)
+            | (b3 << 26)
+            | (b4 << 18)
+            | (b5 << 10)
+            | (b6 << 2)
+            | (b7 >>> 6);
+    values[valuesOffset + 1] =
+        ((b7 & 0x3F) << 52)
+            | (b8 << 44)
+            | (b9 << 36)
+            | (b10 << 28)
+            | (b11 << 20)
+            | (b12 << 12)
+            | (b13 << 4)
+            | (b14 >>> 4);
+    values[valuesOffset + 2] =
+        ((b14 & 0xF) << 54)
+            | (b15 << 46)
+            | (b16 << 38)
+            | (b17 << 30)
+            | (b18 << 22)
+            | (b19 << 14)
+            | (b20 << 6)
+            | (b21 >>> 2);
+    values[valuesOffset + 3] =
+        ((b21 & 0x3) << 56)
+            | (b22 << 48)
+            | (b23 << 40)
+            | (b24 << 32)
+            | (b25 << 24)
+            | (b26 << 16)
+            | (b27 << 8)
+            | b28;
+    values[valuesOffset + 4] =
+        (b29 << 50)
+            | (b30 << 42)
+            | (b31 << 34)
+            | (b32 << 26)
+            | (b33 << 18)
+            | (b34 << 10)
+            | (b35 << 2)
+            | (b36 >>> 6);
+    values[valuesOffset + 5] =
+        ((b36 & 0x3F) << 52)
+            | (b37 << 44)
+            | (b38 << 36)
+            | (b39 << 28)
+            | (b40 << 20)
+            | (b41 << 12)
+            | (b42 << 4)
+            | (b43 >>> 4);
+    values[valuesOffset + 6] =
+        ((b43 & 0xF) << 54)
+            | (b44 << 46)
+            | (b45 << 38)
+            | (b46 << 30)
+            | (b47 << 22)
+            | (b48 << 14)
+            | (b49 << 6)
+            | (b50 >>> 2);
+    values[valuesOffset + 7] =
+        ((b50 & 0x3) << 56)
+            | (b51 << 48)
+            | (b52 << 40)
+            | (b53 << 32)
+            | (b54 << 24)
+            | (b55 << 16)
+            | (b56 << 8)
+            | b57;
+  }
+
+  private static void pack8Values59(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 51);
+    buf[bufOffset + 1] = (byte) (v0 >>> 43);
+    buf[bufOffset + 2] = (byte) (v0 >>> 35);
+    buf[bufOffset + 3] = (byte) (v0 >>> 27);
+    buf[bufOffset + 4] = (byte) (v0 >>> 19);
+    buf[bufOffset + 5] = (byte) (v0 >>> 11);
+    buf[bufOffset + 6] = (byte) (v0 >>> 3);
+    buf[bufOffset + 7] = (byte) ((v0 << 5) | (v1 >>> 54));
+    buf[bufOffset + 8] = (byte) (v1 >>> 46);
+    buf[bufOffset + 9] = (byte) (v1 >>> 38);
+    buf[bufOffset + 10] = (byte) (v1 >>> 30);
+    buf[bufOffset + 11] = (byte) (v1 >>> 22);
+    buf[bufOffset + 12] = (byte) (v1 >>> 14);
+    buf[bufOffset + 13] = (byte) (v1 >>> 6);
+    buf[bufOffset + 14] = (byte) ((v1 << 2) | (v2 >>> 57));
+    buf[bufOffset + 15] = (byte) (v2 >>> 49);
+    buf[bufOffset + 16] = (byte) (v2 >>> 41);
+    buf[bufOffset + 17] = (byte) (v2 >>> 33);
+    buf[bufOffset + 18] = (byte) (v2 >>> 25);
+    buf[bufOffset + 19] = (byte) (v2 >>> 17);
+    buf[bufOffset + 20] = (byte) (v2 >>> 9);
+    buf[bufOffset + 21] = (byte) (v2 >>> 1);
+    buf[bufOffset + 22] = (byte) ((v2 << 7) | (v3 >>> 52));
+    buf[bufOffset + 23] = (byte) (v3 >>> 44);
+    buf[bufOffset + 24] = (byte) (v3 >>> 36);
+    buf[bufOffset + 25] = (byte) (v3 >>> 28);
+    buf[bufOffset + 26] = (byte) (v3 >>> 20);
+    buf[bufOffset + 27] = (byte) (v3 >>> 12);
+    buf[bufOffset + 28] = (byte) (v3 >>> 4);
+    buf[bufOffset + 29] = (byte) ((v3 << 4) | (v4 >>> 55));
+    buf[bufOffset + 30] = (byte) (v4 >>> 47);
+    buf[bufOffset + 31] = (byte) (v4 >>> 39);
+    buf[bufOffset + 32] = (byte) (v4 >>> 31);
+    buf[bufOffset + 33] = (byte) (v4 >>> 23);
+    buf[bufOffset + 34] = (byte) (v4 >>> 15);
+    buf[bufOffset + 35] = (byte) (v4 >>> 7);
+    buf[bufOffset + 36] = (byte) ((v4 << 1) | (v5 >>> 58));
+    buf[bufOffset + 37] = (byte) (v5 >>> 50);
+    buf[bufOffset + 38] = (byte) (v5 >>> 42);
+    buf[bufOffset + 39] = (byte) (v5 >>> 34);
+    buf[bufOffset + 40] = (byte) (v5 >>> 26);
+    buf[bufOffset + 41] = (byte) (v5 >>> 18);
+    buf[bufOffset + 42] = (byte) (v5 >>> 10);
+    buf[bufOffset + 43] = (byte) (v5 >>> 2);
+    buf[bufOffset + 44] = (byte) ((v5 << 6) | (v6 >>> 53));
+    buf[bufOffset + 45] = (byte) (v6 >>> 45);
+    buf[bufOffset + 46] = (byte) (v6 >>> 37);
+    buf[bufOffset + 47] = (byte) (v6 >>> 29);
+    buf[bufOffset + 48] = (byte) (v6 >>> 21);
+    buf[bufOffset + 49] = (byte) (v6 >>> 13);
+    buf[bufOffset + 50] = (byte) (v6 >>> 5);
+    buf[bufOffset + 51] = (byte) ((v6 << 3) | (v7 >>> 56));
+    buf[bufOffset + 52] = (byte) (v7 >>> 48);
+    buf[bufOffset + 53] = (byte) (v7 >>> 40);
+    buf[bufOffset + 54] = (byte) (v7 >>> 32);
+    buf[bufOffset + 55] = (byte) (v7 >>> 24);
+    buf[bufOffset + 56] = (byte) (v7 >>> 16);
+    buf[bufOffset + 57] = (byte) (v7 >>> 8);
+    buf[bufOffset + 58] = (byte) v7;
+  }
+
+  private static void unpack8Values59(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    long b51 = buf[offset + 51] & 0xFF;
+    long b52 = buf[offset + 52] & 0xFF;
+    long b53 = buf[offset + 53] & 0xFF;
+    long b54 = buf[offset + 54] & 0xFF;
+    long b55 = buf[offset + 55] & 0xFF;
+    long b56 = buf[offset + 56] & 0xFF;
+    long b57 = buf[offset + 57] & 0xFF;
+    long b58 = buf[offset + 58] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 51)
+            | (b1 << 43)
+            | (b2 << 35)
+            | (b3 << 27)
+            | (b4 << 19)
+            | (b5 << 11)
+            | (b6 << 3)
+            | (b7 >>> 5);
+    values[valuesOffset + 1] =
+        ((b7 & 0x1F) << 54)
+            | (b8 << 46)
+            | (b9 << 38)
+            | (b10 << 30)
+            | (b11 << 22)
+            | (b12 << 14)
+            | (b13 << 6)
+            | (b14 >>> 2);
+    values[valuesOffset + 2] =
+        ((b14 & 0x3) << 57)
+            | (b15 << 49)
+            | (b16 << 41)
+            | (b17 << 33)
+            | (b18 << 25)
+            | (b19 << 17)
+            | (b20 << 9)
+            | (b21 << 1)
+            | (b22 >>> 7);
+    values[valuesOffset + 3] =
+        ((b22 & 0x7F) << 52)
+            | (b23 << 44)
+            | (b24 << 36)
+            | (b25 << 28)
+            | (b26 << 20)
+            | (b27 << 12)
+            | (b28 << 4)
+            | (b29 >>> 4);
+    values[valuesOffset + 4] =
+        ((b29 & 0xF) << 55)
+            | (b30 << 47)
+            | (b31 << 39)
+            | (b32 << 31)
+            | (b33 << 23)
+            | (b34 << 15)
+            | (b35 << 7)
+            | (b36 >>> 1);
+    values[valuesOffset + 5] =
+        ((b36 & 0x1) << 58)
+            | (b37 << 50)
+            | (b38 << 42)
+            | (b39 << 34)
+            | (b40 << 26)
+            | (b41 << 18)
+            | (b42 << 10)
+            | (b43 << 2)
+            | (b44 >>> 6);
+    values[valuesOffset + 6] =
+        ((b44 & 0x3F) << 53)
+            | (b45 << 45)
+            | (b46 << 37)
+            | (b47 << 29)
+            | (b48 << 21)
+            | (b49 << 13)
+            | (b50 << 5)
+            | (b51 >>> 3);
+    values[valuesOffset + 7] =
+        ((b51 & 0x7) << 56)
+            | (b52 << 48)
+            | (b53 << 40)
+            | (b54 << 32)
+            | (b55 << 24)
+            | (b56 << 16)
+            | (b57 << 8)
+            | b58;
+  }
+
+  private static void pack8Values60(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 52);
+    buf[bufOffset + 1] = (byte) (v0 >>> 44);
+    buf[bufOffset + 2] = (byte) (v0 >>> 36);
+    buf[bufOffset + 3] = (byte) (v0 >>> 28);
+    buf[bufOffset + 4] = (byte) (v0 >>> 20);
+    buf[bufOffset + 5] = (byte) (v0 >>> 12);
+    buf[bufOffset + 6] = (byte) (v0 >>> 4);
+    buf[bufOffset + 7] = (byte) ((v0 << 4) | (v1 >>> 56));
+    buf[bufOffset + 8] = (byte) (v1 >>> 48);
+    buf[bufOffset + 9] = (byte) (v1 >>> 40);
+    buf[bufOffset + 10] = (byte) (v1 >>> 32);
+    buf[bufOffset + 11] = (byte) (v1 >>> 24);
+    buf[bufOffset + 12] = (byte) (v1 >>> 16);
+    buf[bufOffset + 13] = (byte) (v1 >>> 8);
+    buf[bufOffset + 14] = (byte) v1;
+    buf[bufOffset + 15] = (byte) (v2 >>> 52);
+    buf[bufOffset + 16] = (byte) (v2 >>> 44);
+    buf[bufOffset + 17] = (byte) (v2 >>> 36);
+    buf[bufOffset + 18] = (byte) (v2 >>> 28);
+    buf[bufOffset + 19] = (byte) (v2 >>> 20);
+    buf[bufOffset + 20] = (byte) (v2 >>> 12);
+    buf[bufOffset + 21] = (byte) (v2 >>> 4);
+    buf[bufOffset + 22] = (byte) ((v2 << 4) | (v3 >>> 56));
+    buf[bufOffset + 23] = (byte) (v3 >>> 48);
+    buf[bufOffset + 24] = (byte) (v3 >>> 40);
+    buf[bufOffset + 25] = (byte) (v3 >>> 32);
+    buf[bufOffset + 26] = (byte) (v3 >>> 24);
+    buf[bufOffset + 27] = (byte) (v3 >>> 16);
+    buf[bufOffset + 28] = (byte) (v3 >>> 8);
+    buf[bufOffset + 29] = (byte) v3;
+    buf[bufOffset + 30] = (byte) (v4 >>> 52);
+    buf[bufOffset + 31] = (byte) (v4 >>> 44);
+    buf[bufOffset + 32] = (byte) (v4 >>> 36);
+    buf[bufOffset + 33] = (byte) (v4 >>> 28);
+    buf[bufOffset + 34] = (byte) (v4 >>> 20);
+    buf[bufOffset + 35] = (byte) (v4 >>> 12);
+    buf[bufOffset + 36] = (byte) (v4 >>> 4);
+    buf[bufOffset + 37] = (byte) ((v4 << 4) | (v5 >>> 56));
+    buf[bufOffset + 38] = (byte) (v5 >>> 48);
+    buf[bufOffset + 39] = (byte) (v5 >>> 40);
+    buf[bufOffset + 40] = (byte) (v5 >>> 32);
+    buf[bufOffset + 41] = (byte) (v5 >>> 24);
+    buf[bufOffset + 42] = (byte) (v5 >>> 16);
+    buf[bufOffset + 43] = (byte) (v5 >>> 8);
+    buf[bufOffset + 44] = (byte) v5;
+    buf[bufOffset + 45] = (byte) (v6 >>> 52);
+    buf[bufOffset + 46] = (byte) (v6 >>> 44);
+    buf[bufOffset + 47] = (byte) (v6 >>> 36);
+    buf[bufOffset + 48] = (byte) (v6 >>> 28);
+    buf[bufOffset + 49] = (byte) (v6 >>> 20);
+    buf[bufOffset + 50] = (byte) (v6 >>> 12);
+    buf[bufOffset + 51] = (byte) (v6 >>> 4);
+    buf[bufOffset + 52] = (byte) ((v6 << 4) | (v7 >>> 56));
+    buf[bufOffset + 53] = (byte) (v7 >>> 48);
+    buf[bufOffset + 54] = (byte) (v7 >>> 40);
+    buf[bufOffset + 55] = (byte) (v7 >>> 32);
+    buf[bufOffset + 56] = (byte) (v7 >>> 24);
+    buf[bufOffset + 57] = (byte) (v7 >>> 16);
+    buf[bufOffset + 58] = (byte) (v7 >>> 8);
+    buf[bufOffset + 59] = (byte) v7;
+  }
+
+  private static void unpack8Values60(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    long b51 = buf[offset + 51] & 0xFF;
+    long b52 = buf[offset + 52] & 0xFF;
+    long b53 = buf[offset + 53] & 0xFF;
+    long b54 = buf[offset + 54] & 0xFF;
+    long b55 = buf[offset + 55] & 0xFF;
+    long b56 = buf[offset + 56] & 0xFF;
+    long b57 = buf[offset + 57] & 0xFF;
+    long b58 = buf[offset + 58] & 0xFF;
+    long b59 = buf[offset + 59] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 52)
+            | (b1 << 44)
+            | (b2 << 36)
+            | (b3 << 28)
+            | (b4 << 20)
+            | (b5 << 12)
+            | (b6 << 4)
+            | (b7 >>> 4);
+    values[valuesOffset + 1] =
+        ((b7 & 0xF) << 56)
+            | (b8 << 48)
+            | (b9 << 40)
+            | (b10 << 32)
+            | (b11 << 24)
+            | (b12 << 16)
+            | (b13 << 8)
+            | b14;
+    values[valuesOffset + 2] =
+        (b15 << 52)
+            | (b16 << 44)
+            | (b17 << 36)
+            | (b18 << 28)
+            | (b19 << 20)
+            | (b20 << 12)
+            | (b21 << 4)
+            | (b22 >>> 4);
+    values[valuesOffset + 3] =
+        ((b22 & 0xF) << 56)
+            | (b23 << 48)
+            | (b24 << 40)
+            | (b25 << 32)
+            | (b26 << 24)
+            | (b27 << 16)
+            | (b28 << 8)
+            | b29;
+    values[valuesOffset + 4] =
+        (b30 << 52)
+            | (b31 << 44)
+            | (b32 << 36)
+            | (b33 << 28)
+            | (b34 << 20)
+            | (b35 << 12)
+            | (b36 << 4)
+            | (b37 >>> 4);
+    values[valuesOffset + 5] =
+        ((b37 & 0xF) << 56)
+            | (b38 << 48)
+            | (b39 << 40)
+            | (b40 << 32)
+            | (b41 << 24)
+            | (b42 << 16)
+            | (b43 << 8)
+            | b44;
+    values[valuesOffset + 6] =
+        (b45 << 52)
+            | (b46 << 44)
+            | (b47 << 36)
+            | (b48 << 28)
+            | (b49 << 20)
+            | (b50 << 12)
+            | (b51 << 4)
+            | (b52 >>> 4);
+    values[valuesOffset + 7] =
+        ((b52 & 0xF) << 56)
+            | (b53 << 48)
+            | (b54 << 40)
+            | (b55 << 32)
+            | (b56 << 24)
+            | (b57 << 16)
+            | (b58 << 8)
+            | b59;
+  }
+
+  private static void pack8Values61(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 53);
+    buf[bufOffset + 1] = (byte) (v0 >>> 45);
+    buf[bufOffset + 2] = (byte) (v0 >>> 37);
+    buf[bufOffset + 3] = (byte) (v0 >>> 29);
+    buf[bufOffset + 4] = (byte) (v0 >>> 21);
+    buf[bufOffset + 5] = (byte) (v0 >>> 13);
+    buf[bufOffset + 6] = (byte) (v0 >>> 5);
+    buf[bufOffset + 7] = (byte) ((v0 << 3) | (v1 >>> 58));
+    buf[bufOffset + 8] = (byte) (v1 >>> 50);
+    buf[bufOffset + 9] = (byte) (v1 >>> 42);
+    buf[bufOffset + 10] = (byte) (v1 >>> 34);
+    buf[bufOffset + 11] = (byte) (v1 >>> 26);
+    buf[bufOffset + 12] = (byte) (v1 >>> 18);
+    buf[bufOffset + 13] = (byte) (v1 >>> 10);
+    buf[bufOffset + 14] = (byte) (v1 >>> 2);
+    buf[bufOffset + 15] = (byte) ((v1 << 6) | (v2 >>> 55));
+    buf[bufOffset + 16] = (byte) (v2 >>> 47);
+    buf[bufOffset + 17] = (byte) (v2 >>> 39);
+    buf[bufOffset + 18] = (byte) (v2 >>> 31);
+    buf[bufOffset + 19] = (byte) (v2 >>> 23);
+    buf[bufOffset + 20] = (byte) (v2 >>> 15);
+    buf[bufOffset + 21] = (byte) (v2 >>> 7);
+    buf[bufOffset + 22] = (byte) ((v2 << 1) | (v3 >>> 60));
+    buf[bufOffset + 23] = (byte) (v3 >>> 52);
+    buf[bufOffset + 24] = (byte) (v3 >>> 44);
+    buf[bufOffset + 25] = (byte) (v3 >>> 36);
+    buf[bufOffset + 26] = (byte) (v3 >>> 28);
+    buf[bufOffset + 27] = (byte) (v3 >>> 20);
+    buf[bufOffset + 28] = (byte) (v3 >>> 12);
+    buf[bufOffset + 29] = (byte) (v3 >>> 4);
+    buf[bufOffset + 30] = (byte) ((v3 << 4) | (v4 >>> 57));
+    buf[bufOffset + 31] = (byte) (v4 >>> 49);
+    buf[bufOffset + 32] = (byte) (v4 >>> 41);
+    buf[bufOffset + 33] = (byte) (v4 >>> 33);
+    buf[bufOffset + 34] = (byte) (v4 >>> 25);
+    buf[bufOffset + 35] = (byte) (v4 >>> 17);
+    buf[bufOffset + 36] = (byte) (v4 >>> 9);
+    buf[bufOffset + 37] = (byte) (v4 >>> 1);
+    buf[bufOffset + 38] = (byte) ((v4 << 7) | (v5 >>> 54));
+    buf[bufOffset + 39] = (byte) (v5 >>> 46);
+    buf[bufOffset + 40] = (byte) (v5 >>> 38);
+    buf[bufOffset + 41] = (byte) (v5 >>> 30);
+    buf[bufOffset + 42] = (byte) (v5 >>> 22);
+    buf[bufOffset + 43] = (byte) (v5 >>> 14);
+    buf[bufOffset + 44] = (byte) (v5 >>> 6);
+    buf[bufOffset + 45] = (byte) ((v5 << 2) | (v6 >>> 59));
+    buf[bufOffset + 46] = (byte) (v6 >>> 51);
+    buf[bufOffset + 47] = (byte) (v6 >>> 43);
+    buf[bufOffset + 48] = (byte) (v6 >>> 35);
+    buf[bufOffset + 49] = (byte) (v6 >>> 27);
+    buf[bufOffset + 50] = (byte) (v6 >>> 19);
+    buf[bufOffset + 51] = (byte) (v6 >>> 11);
+    buf[bufOffset + 52] = (byte) (v6 >>> 3);
+    buf[bufOffset + 53] = (byte) ((v6 << 5) | (v7 >>> 56));
+    buf[bufOffset + 54] = (byte) (v7 >>> 48);
+    buf[bufOffset + 55] = (byte) (v7 >>> 40);
+    buf[bufOffset + 56] = (byte) (v7 >>> 32);
+    buf[bufOffset + 57] = (byte) (v7 >>> 24);
+    buf[bufOffset + 58] = (byte) (v7 >>> 16);
+    buf[bufOffset + 59] = (byte) (v7 >>> 8);
+    buf[bufOffset + 60] = (byte) v7;
+  }
+
+  private static void unpack8Values61(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    long b51 = buf[offset + 51] & 0xFF;
+    long b52 = buf[offset + 52] & 0xFF;
+    long b53 = buf[offset + 53] & 0xFF;
+    long b54 = buf[offset + 54] & 0xFF;
+    long b55 = buf[offset + 55] & 0xFF;
+    long b56 = buf[offset + 56] & 0xFF;
+    long b57 = buf[offset + 57] & 0xFF;
+    long b58 = buf[offset + 58] & 0xFF;
+    long b59 = buf[offset + 59] & 0xFF;
+    long b60 = buf[offset + 60] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 53)
+            | (b1 << 45)
+            | (b2 << 37)
+            | (b3 << 29)
+            | (b4 << 21)
+            | (b5 << 13)
+            | (b6 << 5)
+            | (b7 >>> 3);
+    values[valuesOffset + 1] =
+        ((b7 & 0x7) << 58)
+            | (b8 << 50)
+            | (b9 << 42)
+            | (b10 << 34)
+            | (b11 << 26)
+            | (b12 << 18)
+            | (b13 << 10)
+            | (b14 << 2)
+            | (b15 >>> 6);
+    values[valuesOffset + 2] =
+        ((b15 & 0x3F) << 55)
+            | (b16 << 47)
+            | (b17 << 39)
+            | (b18 << 31)
+            | (b19 << 23)
+            | (b20 << 15)
+            | (b21 << 7)
+            | (b22 >>> 1);
+    values[valuesOffset + 3] =
+        ((b22 & 0x1) << 60)
+            | (b23 << 52)
+            | (b24 << 44)
+            | (b25 << 36)
+            | (b26 << 28)
+            | (b27 << 20)
+            | (b28 << 12)
+            | (b29 << 4)
+            | (b30 >>> 4);
+    values[valuesOffset + 4] =
+        ((b30 & 0xF) << 57)
+            | (b31 << 49)
+            | (b32 << 41)
+            | (b33 << 33)
+            | (b34 << 25)
+            | (b35 << 17)
+            | (b36 << 9)
+            | (b37 << 1)
+            | (b38 >>> 7);
+    values[valuesOffset + 5] =
+        ((b38 & 0x7F) << 54)
+            | (b39 << 46)
+            | (b40 << 38)
+            | (b41 << 30)
+            | (b42 << 22)
+            | (b43 << 14)
+            | (b44 << 6)
+            | (b45 >>> 2);
+    values[valuesOffset + 6] =
+        ((b45 & 0x3) << 59)
+            | (b46 << 51)
+            | (b47 << 43)
+            | (b48 << 35)
+            | (b49 << 27)
+            | (b50 << 19)
+            | (b51 << 11)
+            | (b52 << 3)
+            | (b53 >>> 5);
+    values[valuesOffset + 7] =
+        ((b53 & 0x1F) << 56)
+            | (b54 << 48)
+            | (b55 << 40)
+            | (b56 << 32)
+            | (b57 << 24)
+            | (b58 << 16)
+            | (b59 << 8)
+            | b60;
+  }
+
+  private static void pack8Values62(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 54);
+    buf[bufOffset + 1] = (byte) (v0 >>> 46);
+    buf[bufOffset + 2] = (byte) (v0 >>> 38);
+    buf[bufOffset + 3] = (byte) (v0 >>> 30);
+    buf[bufOffset + 4] = (byte) (v0 >>> 22);
+    buf[bufOffset + 5] = (byte) (v0 >>> 14);
+    buf[bufOffset + 6] = (byte) (v0 >>> 6);
+    buf[bufOffset + 7] = (byte) ((v0 << 2) | (v1 >>> 60));
+    buf[bufOffset + 8] = (byte) (v1 >>> 52);
+    buf[bufOffset + 9] = (byte) (v1 >>> 44);
+    buf[bufOffset + 10] = (byte) (v1 >>> 36);
+    buf[bufOffset + 11] = (byte) (v1 >>> 28);
+    buf[bufOffset + 12] = (byte) (v1 >>> 20);
+    buf[bufOffset + 13] = (byte) (v1 >>> 12);
+    buf[bufOffset + 14] = (byte) (v1 >>> 4);
+    buf[bufOffset + 15] = (byte) ((v1 << 4) | (v2 >>> 58));
+    buf[bufOffset + 16] = (byte) (v2 >>> 50);
+    buf[bufOffset + 17] = (byte) (v2 >>> 42);
+    buf[bufOffset + 18] = (byte) (v2 >>> 34);
+    buf[bufOffset + 19] = (byte) (v2 >>> 26);
+    buf[bufOffset + 20] = (byte) (v2 >>> 18);
+    buf[bufOffset + 21] = (byte) (v2 >>> 10);
+    buf[bufOffset + 22] = (byte) (v2 >>> 2);
+    buf[bufOffset + 23] = (byte) ((v2 << 6) | (v3 >>> 56));
+    buf[bufOffset + 24] = (byte) (v3 >>> 48);
+    buf[bufOffset + 25] = (byte) (v3 >>> 40);
+    buf[bufOffset + 26] = (byte) (v3 >>> 32);
+    buf[bufOffset + 27] = (byte) (v3 >>> 24);
+    buf[bufOffset + 28] = (byte) (v3 >>> 16);
+    buf[bufOffset + 29] = (byte) (v3 >>> 8);
+    buf[bufOffset + 30] = (byte) v3;
+    buf[bufOffset + 31] = (byte) (v4 >>> 54);
+    buf[bufOffset + 32] = (byte) (v4 >>> 46);
+    buf[bufOffset + 33] = (byte) (v4 >>> 38);
+    buf[bufOffset + 34] = (byte) (v4 >>> 30);
+    buf[bufOffset + 35] = (byte) (v4 >>> 22);
+    buf[bufOffset + 36] = (byte) (v4 >>> 14);
+    buf[bufOffset + 37] = (byte) (v4 >>> 6);
+    buf[bufOffset + 38] = (byte) ((v4 << 2) | (v5 >>> 60));
+    buf[bufOffset + 39] = (byte) (v5 >>> 52);
+    buf[bufOffset + 40] = (byte) (v5 >>> 44);
+    buf[bufOffset + 41] = (byte) (v5 >>> 36);
+    buf[bufOffset + 42] = (byte) (v5 >>> 28);
+    buf[bufOffset + 43] = (byte) (v5 >>> 20);
+    buf[bufOffset + 44] = (byte) (v5 >>> 12);
+    buf[bufOffset + 45] = (byte) (v5 >>> 4);
+    buf[bufOffset + 46] = (byte) ((v5 << 4) | (v6 >>> 58));
+    buf[bufOffset + 47] = (byte) (v6 >>> 50);
+    buf[bufOffset + 48] = (byte) (v6 >>> 42);
+    buf[bufOffset + 49] = (byte) (v6 >>> 34);
+    buf[bufOffset + 50] = (byte) (v6 >>> 26);
+    buf[bufOffset + 51] = (byte) (v6 >>> 18);
+    buf[bufOffset + 52] = (byte) (v6 >>> 10);
+    buf[bufOffset + 53] = (byte) (v6 >>> 2);
+    buf[bufOffset + 54] = (byte) ((v6 << 6) | (v7 >>> 56));
+    buf[bufOffset + 55] = (byte) (v7 >>> 48);
+    buf[bufOffset + 56] = (byte) (v7 >>> 40);
+    buf[bufOffset + 57] = (byte) (v7 >>> 32);
+    buf[bufOffset + 58] = (byte) (v7 >>> 24);
+    buf[bufOffset + 59] = (byte) (v7 >>> 16);
+    buf[bufOffset + 60] = (byte) (v7 >>> 8);
+    buf[bufOffset + 61] = (byte) v7;
+  }
+
+  private static void unpack8Values62(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    long b51 = buf[offset + 51] & 0xFF;
+    long b52 = buf[offset + 52] & 0xFF;
+    long b53 = buf[offset + 53] & 0xFF;
+    long b54 = buf[offset + 54] & 0xFF;
+    long b55 = buf[offset + 55] & 0xFF;
+    long b56 = buf[offset + 56] & 0xFF;
+    long b57 = buf[offset + 57] & 0xFF;
+    long b58 = buf[offset + 58] & 0xFF;
+    long b59 = buf[offset + 59] & 0xFF;
+    long b60 = buf[offset + 60] & 0xFF;
+    long b61 = buf[offset + 61] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 54)
+            | (b1 << 46)
+            | (b2 << 38)
+            | (b3 << 30)
+            | (b4 << 22)
+            | (b5 << 14)
+            | (b6 << 6)
+            | (b7 >>> 2);
+    values[valuesOffset + 1] =
+        ((b7 & 0x3) << 60)
+            | (b8 << 52)
+            | (b9 << 44)
+            | (b10 << 36)
+            | (b11 << 28)
+            | (b12 << 20)
+            | (b13 << 12)
+            | (b14 << 4)
+            | (b15 >>> 4);
+    values[valuesOffset + 2] =
+        ((b15 & 0xF) << 58)
+            | (b16 << 50)
+            | (b17 << 42)
+            | (b18 << 34)
+            | (b19 << 26)
+            | (b20 << 18)
+            | (b21 << 10)
+            | (b22 << 2)
+            | (b23 >>> 6);
+    values[valuesOffset + 3] =
+        ((b23 & 0x3F) << 56)
+            | (b24 << 48)
+            | (b25 << 40)
+            | (b26 << 32)
+            | (b27 << 24)
+            | (b28 << 16)
+            | (b29 << 8)
+            | b30;
+    values[valuesOffset + 4] =
+        (b31 << 54)
+            | (b32 << 46)
+            | (b33 << 38)
+            | (b34 << 30)
+            | (b35 << 22)
+            | (b36 << 14)
+            | (b37 << 6)
+            | (b38 >>> 2);
+    values[valuesOffset + 5] =
+        ((b38 & 0x3) << 60)
+            | (b39 << 52)
+            | (b40 << 44)
+            | (b41 << 36)
+            | (b42 << 28)
+            | (b43 << 20)
+            | (b44 << 12)
+            | (b45 << 4)
+            | (b46 >>> 4);
+    values[valuesOffset + 6] =
+        ((b46 & 0xF) << 58)
+            | (b47 << 50)
+            | (b48 << 42)
+            | (b49 << 34)
+            | (b50 << 26)
+            | (b51 << 18)
+            | (b52 << 10)
+            | (b53 << 2)
+            | (b54 >>> 6);
+    values[valuesOffset + 7] =
+        ((b54 & 0x3F) << 56)
+            | (b55 << 48)
+            | (b56 << 40)
+            | (b57 << 32)
+            | (b58 << 24)
+            | (b59 << 16)
+            | (b60 << 8)
+            | b61;
+  }
+
+  private static void pack8Values63(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 55);
+    buf[bufOffset + 1] = (byte) (v0 >>> 47);
+    buf[bufOffset + 2] = (byte) (v0 >>> 39);
+    buf[bufOffset + 3] = (byte) (v0 >>> 31);
+    buf[bufOffset + 4] = (byte) (v0 >>> 23);
+    buf[bufOffset + 5] = (byte) (v0 >>> 15);
+    buf[bufOffset + 6] = (byte) (v0 >>> 7);
+    buf[bufOffset + 7] = (byte) ((v0 << 1) | (v1 >>> 62));
+    buf[bufOffset + 8] = (byte) (v1 >>> 54);
+    buf[bufOffset + 9] = (byte) (v1 >>> 46);
+    buf[bufOffset + 10] = (byte) (v1 >>> 38);
+    buf[bufOffset + 11] = (byte) (v1 >>> 30);
+    buf[bufOffset + 12] = (byte) (v1 >>> 22);
+    buf[bufOffset + 13] = (byte) (v1 >>> 14);
+    buf[bufOffset + 14] = (byte) (v1 >>> 6);
+    buf[bufOffset + 15] = (byte) ((v1 << 2) | (v2 >>> 61));
+    buf[bufOffset + 16] = (byte) (v2 >>> 53);
+    buf[bufOffset + 17] = (byte) (v2 >>> 45);
+    buf[bufOffset + 18] = (byte) (v2 >>> 37);
+    buf[bufOffset + 19] = (byte) (v2 >>> 29);
+    buf[bufOffset + 20] = (byte) (v2 >>> 21);
+    buf[bufOffset + 21] = (byte) (v2 >>> 13);
+    buf[bufOffset + 22] = (byte) (v2 >>> 5);
+    buf[bufOffset + 23] = (byte) ((v2 << 3) | (v3 >>> 60));
+    buf[bufOffset + 24] = (byte) (v3 >>> 52);
+    buf[bufOffset + 25] = (byte) (v3 >>> 44);
+    buf[bufOffset + 26] = (byte) (v3 >>> 36);
+    buf[bufOffset + 27] = (byte) (v3 >>> 28);
+    buf[bufOffset + 28] = (byte) (v3 >>> 20);
+    buf[bufOffset + 29] = (byte) (v3 >>> 12);
+    buf[bufOffset + 30] = (byte) (v3 >>> 4);
+    buf[bufOffset + 31] = (byte) ((v3 << 4) | (v4 >>> 59));
+    buf[bufOffset + 32] = (byte) (v4 >>> 51);
+    buf[bufOffset + 33] = (byte) (v4 >>> 43);
+    buf[bufOffset + 34] = (byte) (v4 >>> 35);
+    buf[bufOffset + 35] = (byte) (v4 >>> 27);
+    buf[bufOffset + 36] = (byte) (v4 >>> 19);
+    buf[bufOffset + 37] = (byte) (v4 >>> 11);
+    buf[bufOffset + 38] = (byte) (v4 >>> 3);
+    buf[bufOffset + 39] = (byte) ((v4 << 5) | (v5 >>> 58));
+    buf[bufOffset + 40] = (byte) (v5 >>> 50);
+    buf[bufOffset + 41] = (byte) (v5 >>> 42);
+    buf[bufOffset + 42] = (byte) (v5 >>> 34);
+    buf[bufOffset + 43] = (byte) (v5 >>> 26);
+    buf[bufOffset + 44] = (byte) (v5 >>> 18);
+    buf[bufOffset + 45] = (byte) (v5 >>> 10);
+    buf[bufOffset + 46] = (byte) (v5 >>> 2);
+    buf[bufOffset + 47] = (byte) ((v5 << 6) | (v6 >>> 57));
+    buf[bufOffset + 48] = (byte) (v6 >>> 49);
+    buf[bufOffset + 49] = (byte) (v6 >>> 41);
+    buf[bufOffset + 50] = (byte) (v6 >>> 33);
+    buf[bufOffset + 51] = (byte) (v6 >>> 25);
+    buf[bufOffset + 52] = (byte) (v6 >>> 17);
+    buf[bufOffset + 53] = (byte) (v6 >>> 9);
+    buf[bufOffset + 54] = (byte) (v6 >>> 1);
+    buf[bufOffset + 55] = (byte) ((v6 << 7) | (v7 >>> 56));
+    buf[bufOffset + 56] = (byte) (v7 >>> 48);
+    buf[bufOffset + 57] = (byte) (v7 >>> 40);
+    buf[bufOffset + 58] = (byte) (v7 >>> 32);
+    buf[bufOffset + 59] = (byte) (v7 >>> 24);
+    buf[bufOffset + 60] = (byte) (v7 >>> 16);
+    buf[bufOffset + 61] = (byte) (v7 >>> 8);
+    buf[bufOffset + 62] = (byte) v7;
+  }
+
+  private static void unpack8Values63(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    long b51 = buf[offset + 51] & 0xFF;
+    long b52 = buf[offset + 52] & 0xFF;
+    long b53 = buf[offset + 53] & 0xFF;
+    long b54 = buf[offset + 54] & 0xFF;
+    long b55 = buf[offset + 55] & 0xFF;
+    long b56 = buf[offset + 56] & 0xFF;
+    long b57 = buf[offset + 57] & 0xFF;
+    long b58 = buf[offset + 58] & 0xFF;
+    long b59 = buf[offset + 59] & 0xFF;
+    long b60 = buf[offset + 60] & 0xFF;
+    long b61 = buf[offset + 61] & 0xFF;
+    long b62 = buf[offset + 62] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 55)
+            | (b1 << 47)
+            | (b2 << 39)
+            | (b3 << 31)
+            | (b4 << 23)
+            | (b5 << 15)
+            | (b6 << 7)
+            | (b7 >>> 1);
+    values[valuesOffset + 1] =
+        ((b7 & 0x1) << 62)
+            | (b8 << 54)
+            | (b9 << 46)
+            | (b10 << 38)
+            | (b11 << 30)
+            | (b12 << 22)
+            | (b13 << 14)
+            | (b14 << 6)
+            | (b15 >>> 2);
+    values[valuesOffset + 2] =
+        ((b15 & 0x3) << 61)
+            | (b16 << 53)
+            | (b17 << 45)
+            | (b18 << 37)
+            | (b19 << 29)
+            | (b20 << 21)
+            | (b21 << 13)
+            | (b22 << 5)
+            | (b23 >>> 3);
+    values[valuesOffset + 3] =
+        ((b23 & 0x7) << 60)
+            | (b24 << 52)
+            | (b25 << 44)
+            | (b26 << 36)
+            | (b27 << 28)
+            | (b28 << 20)
+            | (b29 << 12)
+            | (b30 << 4)
+            | (b31 >>> 4);
+    values[valuesOffset + 4] =
+        ((b31 & 0xF) << 59)
+            | (b32 << 51)
+            | (b33 << 43)
+            | (b34 << 35)
+            | (b35 << 27)
+            | (b36 << 19)
+            | (b37 << 11)
+            | (b38 << 3)
+            | (b39 >>> 5);
+    values[valuesOffset + 5] =
+        ((b39 & 0x1F) << 58)
+            | (b40 << 50)
+            | (b41 << 42)
+            | (b42 << 34)
+            | (b43 << 26)
+            | (b44 << 18)
+            | (b45 << 10)
+            | (b46 << 2)
+            | (b47 >>> 6);
+    values[valuesOffset + 6] =
+        ((b47 & 0x3F) << 57)
+            | (b48 << 49)
+            | (b49 << 41)
+            | (b50 << 33)
+            | (b51 << 25)
+            | (b52 << 17)
+            | (b53 << 9)
+            | (b54 << 1)
+            | (b55 >>> 7);
+    values[valuesOffset + 7] =
+        ((b55 & 0x7F) << 56)
+            | (b56 << 48)
+            | (b57 << 40)
+            | (b58 << 32)
+            | (b59 << 24)
+            | (b60 << 16)
+            | (b61 << 8)
+            | b62;
+  }
+
+  private static void pack8Values64(long[] values, int offset, byte[] buf, int bufOffset) {
+    long v0 = values[offset];
+    long v1 = values[offset + 1];
+    long v2 = values[offset + 2];
+    long v3 = values[offset + 3];
+    long v4 = values[offset + 4];
+    long v5 = values[offset + 5];
+    long v6 = values[offset + 6];
+    long v7 = values[offset + 7];
+    buf[bufOffset] = (byte) (v0 >>> 56);
+    buf[bufOffset + 1] = (byte) (v0 >>> 48);
+    buf[bufOffset + 2] = (byte) (v0 >>> 40);
+    buf[bufOffset + 3] = (byte) (v0 >>> 32);
+    buf[bufOffset + 4] = (byte) (v0 >>> 24);
+    buf[bufOffset + 5] = (byte) (v0 >>> 16);
+    buf[bufOffset + 6] = (byte) (v0 >>> 8);
+    buf[bufOffset + 7] = (byte) v0;
+    buf[bufOffset + 8] = (byte) (v1 >>> 56);
+    buf[bufOffset + 9] = (byte) (v1 >>> 48);
+    buf[bufOffset + 10] = (byte) (v1 >>> 40);
+    buf[bufOffset + 11] = (byte) (v1 >>> 32);
+    buf[bufOffset + 12] = (byte) (v1 >>> 24);
+    buf[bufOffset + 13] = (byte) (v1 >>> 16);
+    buf[bufOffset + 14] = (byte) (v1 >>> 8);
+    buf[bufOffset + 15] = (byte) v1;
+    buf[bufOffset + 16] = (byte) (v2 >>> 56);
+    buf[bufOffset + 17] = (byte) (v2 >>> 48);
+    buf[bufOffset + 18] = (byte) (v2 >>> 40);
+    buf[bufOffset + 19] = (byte) (v2 >>> 32);
+    buf[bufOffset + 20] = (byte) (v2 >>> 24);
+    buf[bufOffset + 21] = (byte) (v2 >>> 16);
+    buf[bufOffset + 22] = (byte) (v2 >>> 8);
+    buf[bufOffset + 23] = (byte) v2;
+    buf[bufOffset + 24] = (byte) (v3 >>> 56);
+    buf[bufOffset + 25] = (byte) (v3 >>> 48);
+    buf[bufOffset + 26] = (byte) (v3 >>> 40);
+    buf[bufOffset + 27] = (byte) (v3 >>> 32);
+    buf[bufOffset + 28] = (byte) (v3 >>> 24);
+    buf[bufOffset + 29] = (byte) (v3 >>> 16);
+    buf[bufOffset + 30] = (byte) (v3 >>> 8);
+    buf[bufOffset + 31] = (byte) v3;
+    buf[bufOffset + 32] = (byte) (v4 >>> 56);
+    buf[bufOffset + 33] = (byte) (v4 >>> 48);
+    buf[bufOffset + 34] = (byte) (v4 >>> 40);
+    buf[bufOffset + 35] = (byte) (v4 >>> 32);
+    buf[bufOffset + 36] = (byte) (v4 >>> 24);
+    buf[bufOffset + 37] = (byte) (v4 >>> 16);
+    buf[bufOffset + 38] = (byte) (v4 >>> 8);
+    buf[bufOffset + 39] = (byte) v4;
+    buf[bufOffset + 40] = (byte) (v5 >>> 56);
+    buf[bufOffset + 41] = (byte) (v5 >>> 48);
+    buf[bufOffset + 42] = (byte) (v5 >>> 40);
+    buf[bufOffset + 43] = (byte) (v5 >>> 32);
+    buf[bufOffset + 44] = (byte) (v5 >>> 24);
+    buf[bufOffset + 45] = (byte) (v5 >>> 16);
+    buf[bufOffset + 46] = (byte) (v5 >>> 8);
+    buf[bufOffset + 47] = (byte) v5;
+    buf[bufOffset + 48] = (byte) (v6 >>> 56);
+    buf[bufOffset + 49] = (byte) (v6 >>> 48);
+    buf[bufOffset + 50] = (byte) (v6 >>> 40);
+    buf[bufOffset + 51] = (byte) (v6 >>> 32);
+    buf[bufOffset + 52] = (byte) (v6 >>> 24);
+    buf[bufOffset + 53] = (byte) (v6 >>> 16);
+    buf[bufOffset + 54] = (byte) (v6 >>> 8);
+    buf[bufOffset + 55] = (byte) v6;
+    buf[bufOffset + 56] = (byte) (v7 >>> 56);
+    buf[bufOffset + 57] = (byte) (v7 >>> 48);
+    buf[bufOffset + 58] = (byte) (v7 >>> 40);
+    buf[bufOffset + 59] = (byte) (v7 >>> 32);
+    buf[bufOffset + 60] = (byte) (v7 >>> 24);
+    buf[bufOffset + 61] = (byte) (v7 >>> 16);
+    buf[bufOffset + 62] = (byte) (v7 >>> 8);
+    buf[bufOffset + 63] = (byte) v7;
+  }
+
+  private static void unpack8Values64(byte[] buf, int offset, long[] values, int valuesOffset) {
+    long b0 = buf[offset] & 0xFF;
+    long b1 = buf[offset + 1] & 0xFF;
+    long b2 = buf[offset + 2] & 0xFF;
+    long b3 = buf[offset + 3] & 0xFF;
+    long b4 = buf[offset + 4] & 0xFF;
+    long b5 = buf[offset + 5] & 0xFF;
+    long b6 = buf[offset + 6] & 0xFF;
+    long b7 = buf[offset + 7] & 0xFF;
+    long b8 = buf[offset + 8] & 0xFF;
+    long b9 = buf[offset + 9] & 0xFF;
+    long b10 = buf[offset + 10] & 0xFF;
+    long b11 = buf[offset + 11] & 0xFF;
+    long b12 = buf[offset + 12] & 0xFF;
+    long b13 = buf[offset + 13] & 0xFF;
+    long b14 = buf[offset + 14] & 0xFF;
+    long b15 = buf[offset + 15] & 0xFF;
+    long b16 = buf[offset + 16] & 0xFF;
+    long b17 = buf[offset + 17] & 0xFF;
+    long b18 = buf[offset + 18] & 0xFF;
+    long b19 = buf[offset + 19] & 0xFF;
+    long b20 = buf[offset + 20] & 0xFF;
+    long b21 = buf[offset + 21] & 0xFF;
+    long b22 = buf[offset + 22] & 0xFF;
+    long b23 = buf[offset + 23] & 0xFF;
+    long b24 = buf[offset + 24] & 0xFF;
+    long b25 = buf[offset + 25] & 0xFF;
+    long b26 = buf[offset + 26] & 0xFF;
+    long b27 = buf[offset + 27] & 0xFF;
+    long b28 = buf[offset + 28] & 0xFF;
+    long b29 = buf[offset + 29] & 0xFF;
+    long b30 = buf[offset + 30] & 0xFF;
+    long b31 = buf[offset + 31] & 0xFF;
+    long b32 = buf[offset + 32] & 0xFF;
+    long b33 = buf[offset + 33] & 0xFF;
+    long b34 = buf[offset + 34] & 0xFF;
+    long b35 = buf[offset + 35] & 0xFF;
+    long b36 = buf[offset + 36] & 0xFF;
+    long b37 = buf[offset + 37] & 0xFF;
+    long b38 = buf[offset + 38] & 0xFF;
+    long b39 = buf[offset + 39] & 0xFF;
+    long b40 = buf[offset + 40] & 0xFF;
+    long b41 = buf[offset + 41] & 0xFF;
+    long b42 = buf[offset + 42] & 0xFF;
+    long b43 = buf[offset + 43] & 0xFF;
+    long b44 = buf[offset + 44] & 0xFF;
+    long b45 = buf[offset + 45] & 0xFF;
+    long b46 = buf[offset + 46] & 0xFF;
+    long b47 = buf[offset + 47] & 0xFF;
+    long b48 = buf[offset + 48] & 0xFF;
+    long b49 = buf[offset + 49] & 0xFF;
+    long b50 = buf[offset + 50] & 0xFF;
+    long b51 = buf[offset + 51] & 0xFF;
+    long b52 = buf[offset + 52] & 0xFF;
+    long b53 = buf[offset + 53] & 0xFF;
+    long b54 = buf[offset + 54] & 0xFF;
+    long b55 = buf[offset + 55] & 0xFF;
+    long b56 = buf[offset + 56] & 0xFF;
+    long b57 = buf[offset + 57] & 0xFF;
+    long b58 = buf[offset + 58] & 0xFF;
+    long b59 = buf[offset + 59] & 0xFF;
+    long b60 = buf[offset + 60] & 0xFF;
+    long b61 = buf[offset + 61] & 0xFF;
+    long b62 = buf[offset + 62] & 0xFF;
+    long b63 = buf[offset + 63] & 0xFF;
+    values[valuesOffset] =
+        (b0 << 56)
+            | (b1 << 48)
+            | (b2 << 40)
+            | (b3 << 32)
+            | (b4 << 24)
+            | (b5 << 16)
+            | (b6 << 8)
+            | b7;
+    values[valuesOffset + 1] =
+        (b8 << 56)
+            | (b9 << 48)
+            | (b10 << 40)
+            | (b11 << 32)
+            | (b12 << 24)
+            | (b13 << 16)
+            | (b14 << 8)
+            | b15;
+    values[valuesOffset + 2] =
+        (b16 << 56)
+            | (b17 << 48)
+            | (b18 << 40)
+            | (b19 << 32)
+            | (b20 << 24)
+            | (b21 << 16)
+            | (b22 << 8)
+            | b23;
+    values[valuesOffset + 3] =
+        (b24 << 56)
+            | (b25 << 48)
+            | (b26 << 40)
+            | (b27 << 32)
+            | (b28 << 24)
+            | (b29 << 16)
+            | (b30 << 8)
+            | b31;
+    values[valuesOffset + 4] =
+        (b32 << 56)
+            | (b33 << 48)
+            | (b34 << 40)
+            | (b35 << 32)
+            | (b36 << 24)
+            | (b37 << 16)
+            | (b38 << 8)
+            | b39;
+    values[valuesOffset + 5] =
+        (b40 << 56)
+            | (b41 << 48)
+            | (b42 << 40)
+            | (b43 << 32)
+            | (b44 << 24)
+            | (b45 << 16)
+            | (b46 << 8)
+            | b47;
+    values[valuesOffset + 6] =
+        (b48 << 56)
+            | (b49 << 48)
+            | (b50 << 40)
+            | (b51 << 32)
+            | (b52 << 24)
+            | (b53 << 16)
+            | (b54 << 8)
+            | b55;
+    values[valuesOffset + 7] =
+        (b56 << 56)
+            | (b57 << 48)
+            | (b58 << 40)
+            | (b59 << 32)
+            | (b60 << 24)
+            | (b61 << 16)
+            | (b62 << 8)
+            | b63;
+  }
+}
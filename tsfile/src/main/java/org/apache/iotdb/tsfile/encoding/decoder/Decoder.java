@@ -149,6 +149,59 @@ public abstract class Decoder {
     throw new TsFileDecodingException("Method readBigDecimal is not supported by Decoder");
   }
 
+  /**
+   * Decode at most len int values into dst, starting from dst[offset]. Decoders that decode values
+   * in packs override it to copy a decoded pack at once.
+   *
+   * @return the number of decoded values, which is less than len only if the buffer is exhausted
+   */
+  public int readInts(ByteBuffer buffer, int[] dst, int offset, int len) throws IOException {
+    int num = 0;
+    while (num < len && hasNext(buffer)) {
+      dst[offset + num++] = readInt(buffer);
+    }
+    return num;
+  }
+
+  /**
+   * Decode at most len long values into dst, starting from dst[offset].
+   *
+   * @return the number of decoded values, which is less than len only if the buffer is exhausted
+   */
+  public int readLongs(ByteBuffer buffer, long[] dst, int offset, int len) throws IOException {
+    int num = 0;
+    while (num < len && hasNext(buffer)) {
+      dst[offset + num++] = readLong(buffer);
+    }
+    return num;
+  }
+
+  /**
+   * Decode at most len float values into dst, starting from dst[offset].
+   *
+   * @return the number of decoded values, which is less than len only if the buffer is exhausted
+   */
+  public int readFloats(ByteBuffer buffer, float[] dst, int offset, int len) throws IOException {
+    int num = 0;
+    while (num < len && hasNext(buffer)) {
+      dst[offset + num++] = readFloat(buffer);
+    }
+    return num;
+  }
+
+  /**
+   * Decode at most len double values into dst, starting from dst[offset].
+   *
+   * @return the number of decoded values, which is less than len only if the buffer is exhausted
+   */
+  public int readDoubles(ByteBuffer buffer, double[] dst, int offset, int len) throws IOException {
+    int num = 0;
+    while (num < len && hasNext(buffer)) {
+      dst[offset + num++] = readDouble(buffer);
+    }
+    return num;
+  }
+
   public abstract boolean hasNext(ByteBuffer buffer) throws IOException;
 
   public abstract void reset();
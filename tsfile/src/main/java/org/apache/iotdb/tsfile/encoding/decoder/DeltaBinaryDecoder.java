@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.tsfile.encoding.decoder;
 
+import org.apache.iotdb.tsfile.encoding.bitpacking.IntPackerKernels;
+import org.apache.iotdb.tsfile.encoding.bitpacking.LongPackerKernels;
 import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
@@ -59,8 +61,6 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
   protected abstract void allocateDataArray();
 
-  protected abstract void readValue(int i);
-
   /**
    * calculate the bytes length containing v bits.
    *
@@ -106,6 +106,26 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readInts(ByteBuffer buffer, int[] dst, int offset, int len) {
+      int num = 0;
+      while (num < len) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          dst[offset + num++] = loadIntBatch(buffer);
+        } else {
+          // copy the rest of the decoded pack at once
+          int copyNum = Math.min(len - num, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, dst, offset + num, copyNum);
+          nextReadIndex += copyNum;
+          num += copyNum;
+        }
+      }
+      return num;
+    }
+
     /**
      * if remaining data has been run out, load next pack from InputStream.
      *
@@ -119,8 +139,10 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       readHeader(buffer);
 
       encodingLength = ceil(packNum * packWidth);
-      deltaBuf = new byte[encodingLength];
-      buffer.get(deltaBuf);
+      if (deltaBuf == null || deltaBuf.length < encodingLength) {
+        deltaBuf = new byte[encodingLength];
+      }
+      buffer.get(deltaBuf, 0, encodingLength);
       allocateDataArray();
 
       previous = firstValue;
@@ -131,9 +153,17 @@ public abstract class DeltaBinaryDecoder extends Decoder {
     }
 
     private void readPack() {
-      for (int i = 0; i < packNum; i++) {
-        readValue(i);
-        previous = data[i];
+      int i = 0;
+      // each 8 values take exactly packWidth bytes
+      for (; i + 8 <= packNum; i += 8) {
+        IntPackerKernels.unpack8Values(packWidth, deltaBuf, i / 8 * packWidth, data, i);
+      }
+      for (; i < packNum; i++) {
+        data[i] = BytesUtils.bytesToInt(deltaBuf, packWidth * i, packWidth);
+      }
+      for (i = 0; i < packNum; i++) {
+        previous = previous + minDeltaBase + data[i];
+        data[i] = previous;
       }
     }
 
@@ -145,13 +175,9 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     @Override
     protected void allocateDataArray() {
-      data = new int[packNum];
-    }
-
-    @Override
-    protected void readValue(int i) {
-      int v = BytesUtils.bytesToInt(deltaBuf, packWidth * i, packWidth);
-      data[i] = previous + minDeltaBase + v;
+      if (data == null || data.length < packNum) {
+        data = new int[packNum];
+      }
     }
 
     @Override
@@ -198,8 +224,10 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       readHeader(buffer);
 
       encodingLength = ceil(packNum * packWidth);
-      deltaBuf = new byte[encodingLength];
-      buffer.get(deltaBuf);
+      if (deltaBuf == null || deltaBuf.length < encodingLength) {
+        deltaBuf = new byte[encodingLength];
+      }
+      buffer.get(deltaBuf, 0, encodingLength);
       allocateDataArray();
 
       previous = firstValue;
@@ -210,9 +238,17 @@ public abstract class DeltaBinaryDecoder extends Decoder {
     }
 
     private void readPack() {
-      for (int i = 0; i < packNum; i++) {
-        readValue(i);
-        previous = data[i];
+      int i = 0;
+      // each 8 values take exactly packWidth bytes
+      for (; i + 8 <= packNum; i += 8) {
+        LongPackerKernels.unpack8Values(packWidth, deltaBuf, i / 8 * packWidth, data, i);
+      }
+      for (; i < packNum; i++) {
+        data[i] = BytesUtils.bytesToLong(deltaBuf, packWidth * i, packWidth);
+      }
+      for (i = 0; i < packNum; i++) {
+        previous = previous + minDeltaBase + data[i];
+        data[i] = previous;
       }
     }
 
@@ -222,6 +258,26 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readLongs(ByteBuffer buffer, long[] dst, int offset, int len) {
+      int num = 0;
+      while (num < len) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          dst[offset + num++] = loadIntBatch(buffer);
+        } else {
+          // copy the rest of the decoded pack at once
+          int copyNum = Math.min(len - num, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, dst, offset + num, copyNum);
+          nextReadIndex += copyNum;
+          num += copyNum;
+        }
+      }
+      return num;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readLong(buffer);
@@ -230,13 +286,9 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     @Override
     protected void allocateDataArray() {
-      data = new long[packNum];
-    }
-
-    @Override
-    protected void readValue(int i) {
-      long v = BytesUtils.bytesToLong(deltaBuf, packWidth * i, packWidth);
-      data[i] = previous + minDeltaBase + v;
+      if (data == null || data.length < packNum) {
+        data = new long[packNum];
+      }
     }
 
     @Override
@@ -37,11 +37,31 @@ public class DoublePrecisionDecoderV2 extends LongGorillaDecoder {
   private static final long GORILLA_ENCODING_ENDING =
       Double.doubleToRawLongBits(GORILLA_ENCODING_ENDING_DOUBLE);
 
+  /** the bits of the values decoded by a batch, reused by the batches */
+  private long[] batchBits = new long[0];
+
   @Override
   public final double readDouble(ByteBuffer in) {
     return Double.longBitsToDouble(readLong(in));
   }
 
+  @Override
+  public int readDoubles(ByteBuffer in, double[] dst, int offset, int len) {
+    if (batchBits.length < len) {
+      batchBits = new long[len];
+    }
+    int num = readBatch(in, batchBits, 0, len);
+    for (int i = 0; i < num; i++) {
+      dst[offset + i] = Double.longBitsToDouble(batchBits[i]);
+    }
+    return num;
+  }
+
+  @Override
+  protected long getEndingValue() {
+    return GORILLA_ENCODING_ENDING;
+  }
+
   @Override
   protected long cacheNext(ByteBuffer in) {
     readNext(in);
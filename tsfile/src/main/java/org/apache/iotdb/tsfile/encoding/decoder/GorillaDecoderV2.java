@@ -39,8 +39,10 @@ public abstract class GorillaDecoderV2 extends Decoder {
   protected int storedTrailingZeros = 0;
   protected boolean hasNext = true;
 
-  private byte buffer = 0;
-  private int bitsLeft = 0;
+  /** the byte being read and the number of its bits not read yet, at least 1 once reading starts */
+  protected byte buffer = 0;
+
+  protected int bitsLeft = 0;
 
   protected GorillaDecoderV2() {
     super(TSEncoding.GORILLA);
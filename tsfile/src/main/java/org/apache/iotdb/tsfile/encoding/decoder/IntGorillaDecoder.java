@@ -58,6 +58,96 @@ public class IntGorillaDecoder extends GorillaDecoderV2 {
     return returnValue;
   }
 
+  @Override
+  public int readInts(ByteBuffer in, int[] dst, int offset, int len) {
+    return readBatch(in, dst, offset, len);
+  }
+
+  /** @return the value ending the stream */
+  protected int getEndingValue() {
+    return GORILLA_ENCODING_ENDING_INTEGER;
+  }
+
+  /**
+   * Decode up to len values into dst as {@link #readInt(ByteBuffer)} would, keeping the stored
+   * value, the zeros and the bit reader in local variables during the batch.
+   *
+   * @return the number of values decoded
+   */
+  @SuppressWarnings("squid:S3776") // the bit reads are inlined on purpose
+  protected final int readBatch(ByteBuffer in, int[] dst, int offset, int len) {
+    int num = 0;
+    if (len > 0 && hasNext && !firstValueWasRead) {
+      dst[offset + num++] = readInt(in);
+    }
+    if (num >= len || !hasNext) {
+      return num;
+    }
+    int endingValue = getEndingValue();
+    int value = storedValue;
+    int leadingZeros = storedLeadingZeros;
+    int trailingZeros = storedTrailingZeros;
+    int currentByte = buffer & 0xFF;
+    int left = bitsLeft;
+    while (num < len) {
+      dst[offset + num++] = value;
+      // read the next value ahead, a byte is loaded as soon as the previous one is used up
+      boolean changed = ((currentByte >>> --left) & 1) == 1;
+      if (left == 0) {
+        currentByte = in.get() & 0xFF;
+        left = Byte.SIZE;
+      }
+      if (changed) {
+        boolean newZeros = ((currentByte >>> --left) & 1) == 1;
+        if (left == 0) {
+          currentByte = in.get() & 0xFF;
+          left = Byte.SIZE;
+        }
+        if (newZeros) {
+          // the leading zeros and the number of meaningful bits, read at once
+          int header = 0;
+          int bits = LEADING_ZERO_BITS_LENGTH_32BIT + MEANINGFUL_XOR_BITS_LENGTH_32BIT;
+          while (bits > 0) {
+            int n = Math.min(bits, left);
+            header = (header << n) | ((currentByte >>> (left - n)) & ((1 << n) - 1));
+            bits -= n;
+            left -= n;
+            if (left == 0) {
+              currentByte = in.get() & 0xFF;
+              left = Byte.SIZE;
+            }
+          }
+          leadingZeros = header >>> MEANINGFUL_XOR_BITS_LENGTH_32BIT;
+          int significantBits = (header & ((1 << MEANINGFUL_XOR_BITS_LENGTH_32BIT) - 1)) + 1;
+          trailingZeros = VALUE_BITS_LENGTH_32BIT - significantBits - leadingZeros;
+        }
+        int xor = 0;
+        int bits = VALUE_BITS_LENGTH_32BIT - leadingZeros - trailingZeros;
+        while (bits > 0) {
+          int n = Math.min(bits, left);
+          xor = (xor << n) | ((currentByte >>> (left - n)) & ((1 << n) - 1));
+          bits -= n;
+          left -= n;
+          if (left == 0) {
+            currentByte = in.get() & 0xFF;
+            left = Byte.SIZE;
+          }
+        }
+        value ^= xor << trailingZeros;
+      }
+      if (value == endingValue) {
+        hasNext = false;
+        break;
+      }
+    }
+    storedValue = value;
+    storedLeadingZeros = leadingZeros;
+    storedTrailingZeros = trailingZeros;
+    buffer = (byte) currentByte;
+    bitsLeft = left;
+    return num;
+  }
+
   protected int cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValue == GORILLA_ENCODING_ENDING_INTEGER) {
@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /** Decoder for int value using rle or bit-packing. */
 public class IntRleDecoder extends RleDecoder {
@@ -99,6 +100,39 @@ public class IntRleDecoder extends RleDecoder {
     return result;
   }
 
+  /** Fill the rle runs and copy the bit-packed groups into dst at once. */
+  @Override
+  public int readInts(ByteBuffer buffer, int[] dst, int offset, int len) throws IOException {
+    int num = 0;
+    while (num < len && hasNext(buffer)) {
+      if (!isLengthAndBitWidthReaded) {
+        // start to read a new rle+bit-packing pattern
+        readLengthAndBitWidth(buffer);
+      }
+      if (currentCount == 0) {
+        readNext();
+      }
+      int copyNum = Math.min(len - num, currentCount);
+      switch (mode) {
+        case RLE:
+          Arrays.fill(dst, offset + num, offset + num + copyNum, currentValue);
+          break;
+        case BIT_PACKED:
+          System.arraycopy(currentBuffer, bitPackingNum - currentCount, dst, offset + num, copyNum);
+          break;
+        default:
+          throw new TsFileDecodingException(
+              String.format("tsfile-encoding IntRleDecoder: not a valid mode %s", mode));
+      }
+      currentCount -= copyNum;
+      num += copyNum;
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return num;
+  }
+
   @Override
   protected void initPacker() {
     packer = new IntPacker(bitWidth);
@@ -58,6 +58,96 @@ public class LongGorillaDecoder extends GorillaDecoderV2 {
     return returnValue;
   }
 
+  @Override
+  public int readLongs(ByteBuffer in, long[] dst, int offset, int len) {
+    return readBatch(in, dst, offset, len);
+  }
+
+  /** @return the value ending the stream */
+  protected long getEndingValue() {
+    return GORILLA_ENCODING_ENDING_LONG;
+  }
+
+  /**
+   * Decode up to len values into dst as {@link #readLong(ByteBuffer)} would, keeping the stored
+   * value, the zeros and the bit reader in local variables during the batch.
+   *
+   * @return the number of values decoded
+   */
+  @SuppressWarnings("squid:S3776") // the bit reads are inlined on purpose
+  protected final int readBatch(ByteBuffer in, long[] dst, int offset, int len) {
+    int num = 0;
+    if (len > 0 && hasNext && !firstValueWasRead) {
+      dst[offset + num++] = readLong(in);
+    }
+    if (num >= len || !hasNext) {
+      return num;
+    }
+    long endingValue = getEndingValue();
+    long value = storedValue;
+    int leadingZeros = storedLeadingZeros;
+    int trailingZeros = storedTrailingZeros;
+    int currentByte = buffer & 0xFF;
+    int left = bitsLeft;
+    while (num < len) {
+      dst[offset + num++] = value;
+      // read the next value ahead, a byte is loaded as soon as the previous one is used up
+      boolean changed = ((currentByte >>> --left) & 1) == 1;
+      if (left == 0) {
+        currentByte = in.get() & 0xFF;
+        left = Byte.SIZE;
+      }
+      if (changed) {
+        boolean newZeros = ((currentByte >>> --left) & 1) == 1;
+        if (left == 0) {
+          currentByte = in.get() & 0xFF;
+          left = Byte.SIZE;
+        }
+        if (newZeros) {
+          // the leading zeros and the number of meaningful bits, read at once
+          long header = 0;
+          int bits = LEADING_ZERO_BITS_LENGTH_64BIT + MEANINGFUL_XOR_BITS_LENGTH_64BIT;
+          while (bits > 0) {
+            int n = Math.min(bits, left);
+            header = (header << n) | ((currentByte >>> (left - n)) & ((1 << n) - 1));
+            bits -= n;
+            left -= n;
+            if (left == 0) {
+              currentByte = in.get() & 0xFF;
+              left = Byte.SIZE;
+            }
+          }
+          leadingZeros = (int) (header >>> MEANINGFUL_XOR_BITS_LENGTH_64BIT);
+          int significantBits = (int) (header & ((1 << MEANINGFUL_XOR_BITS_LENGTH_64BIT) - 1)) + 1;
+          trailingZeros = VALUE_BITS_LENGTH_64BIT - significantBits - leadingZeros;
+        }
+        long xor = 0;
+        int bits = VALUE_BITS_LENGTH_64BIT - leadingZeros - trailingZeros;
+        while (bits > 0) {
+          int n = Math.min(bits, left);
+          xor = (xor << n) | ((currentByte >>> (left - n)) & ((1 << n) - 1));
+          bits -= n;
+          left -= n;
+          if (left == 0) {
+            currentByte = in.get() & 0xFF;
+            left = Byte.SIZE;
+          }
+        }
+        value ^= xor << trailingZeros;
+      }
+      if (value == endingValue) {
+        hasNext = false;
+        break;
+      }
+    }
+    storedValue = value;
+    storedLeadingZeros = leadingZeros;
+    storedTrailingZeros = trailingZeros;
+    buffer = (byte) currentByte;
+    bitsLeft = left;
+    return num;
+  }
+
   protected long cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValue == GORILLA_ENCODING_ENDING_LONG) {
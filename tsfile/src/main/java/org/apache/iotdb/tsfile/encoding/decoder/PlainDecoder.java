@@ -63,6 +63,30 @@ public class PlainDecoder extends Decoder {
     return buffer.getDouble();
   }
 
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] dst, int offset, int len) {
+    int num = Math.min(len, buffer.remaining() / Long.BYTES);
+    buffer.asLongBuffer().get(dst, offset, num);
+    buffer.position(buffer.position() + num * Long.BYTES);
+    return num;
+  }
+
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] dst, int offset, int len) {
+    int num = Math.min(len, buffer.remaining() / Float.BYTES);
+    buffer.asFloatBuffer().get(dst, offset, num);
+    buffer.position(buffer.position() + num * Float.BYTES);
+    return num;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] dst, int offset, int len) {
+    int num = Math.min(len, buffer.remaining() / Double.BYTES);
+    buffer.asDoubleBuffer().get(dst, offset, num);
+    buffer.position(buffer.position() + num * Double.BYTES);
+    return num;
+  }
+
   @Override
   public Binary readBinary(ByteBuffer buffer) {
     int length = readInt(buffer);
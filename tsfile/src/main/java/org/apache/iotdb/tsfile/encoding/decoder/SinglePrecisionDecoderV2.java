@@ -37,11 +37,31 @@ public class SinglePrecisionDecoderV2 extends IntGorillaDecoder {
   private static final int GORILLA_ENCODING_ENDING =
       Float.floatToRawIntBits(GORILLA_ENCODING_ENDING_FLOAT);
 
+  /** the bits of the values decoded by a batch, reused by the batches */
+  private int[] batchBits = new int[0];
+
   @Override
   public final float readFloat(ByteBuffer in) {
     return Float.intBitsToFloat(readInt(in));
   }
 
+  @Override
+  public int readFloats(ByteBuffer in, float[] dst, int offset, int len) {
+    if (batchBits.length < len) {
+      batchBits = new int[len];
+    }
+    int num = readBatch(in, batchBits, 0, len);
+    for (int i = 0; i < num; i++) {
+      dst[offset + i] = Float.intBitsToFloat(batchBits[i]);
+    }
+    return num;
+  }
+
+  @Override
+  protected int getEndingValue() {
+    return GORILLA_ENCODING_ENDING;
+  }
+
   @Override
   protected int cacheNext(ByteBuffer in) {
     readNext(in);
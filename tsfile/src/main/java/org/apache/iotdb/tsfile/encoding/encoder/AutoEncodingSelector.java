@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.exception.encoding.TsFileEncodingException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Selects the encoding of a chunk of a series whose encoding is {@link TSEncoding#AUTO} by encoding
+ * a sample of its points with every candidate encoding of the data type.
+ *
+ * <p>Only the encodings that are lossless for any point are candidates, as the rest of the chunk is
+ * not sampled: RLE and TS_2DIFF keep a limited precision of FLOAT and DOUBLE, GORILLA can not
+ * encode the minimum value of INT32 and INT64, and REGULAR only encodes regular sequences.
+ */
+public class AutoEncodingSelector {
+
+  public static final String PREFER_SIZE = "SIZE";
+  public static final String PREFER_DECODE_SPEED = "DECODE_SPEED";
+
+  /** candidates of each data type, in the ascending order of their decoding costs */
+  private static final Map<TSDataType, TSEncoding[]> CANDIDATES = new EnumMap<>(TSDataType.class);
+
+  /**
+   * relative cost of decoding a point, PLAIN reads the point directly, RLE, TS_2DIFF and DICTIONARY
+   * unpack it from bits and GORILLA decodes it bit by bit
+   */
+  private static final Map<TSEncoding, Integer> DECODING_COSTS = new EnumMap<>(TSEncoding.class);
+
+  static {
+    CANDIDATES.put(TSDataType.BOOLEAN, new TSEncoding[] {TSEncoding.PLAIN, TSEncoding.RLE});
+    TSEncoding[] intCandidates = {TSEncoding.PLAIN, TSEncoding.RLE, TSEncoding.TS_2DIFF};
+    CANDIDATES.put(TSDataType.INT32, intCandidates);
+    CANDIDATES.put(TSDataType.INT64, intCandidates);
+    TSEncoding[] floatCandidates = {TSEncoding.PLAIN, TSEncoding.GORILLA};
+    CANDIDATES.put(TSDataType.FLOAT, floatCandidates);
+    CANDIDATES.put(TSDataType.DOUBLE, floatCandidates);
+    CANDIDATES.put(TSDataType.TEXT, new TSEncoding[] {TSEncoding.PLAIN, TSEncoding.DICTIONARY});
+
+    DECODING_COSTS.put(TSEncoding.PLAIN, 1);
+    DECODING_COSTS.put(TSEncoding.RLE, 2);
+    DECODING_COSTS.put(TSEncoding.TS_2DIFF, 2);
+    DECODING_COSTS.put(TSEncoding.DICTIONARY, 2);
+    DECODING_COSTS.put(TSEncoding.GORILLA, 3);
+  }
+
+  private AutoEncodingSelector() {}
+
+  /**
+   * With the preference SIZE, the encoding that encodes the sample into the fewest bytes is
+   * selected. With the preference DECODE_SPEED, the encoded size is weighted by the decoding cost,
+   * so an encoding that decodes slower is only selected if it is much smaller. Ties are broken
+   * towards the faster decoding encoding.
+   *
+   * @param sample points of the chunk, usually its first page
+   * @param sampleSize the maximum number of points of the sample to encode
+   * @return the selected encoding of the chunk
+   */
+  public static TSEncoding select(BatchData sample, int sampleSize) {
+    TSEncoding[] candidates = CANDIDATES.get(sample.getDataType());
+    if (candidates == null) {
+      throw new TsFileEncodingException(
+          "AUTO encoding does not support data type: " + sample.getDataType());
+    }
+    boolean preferDecodeSpeed =
+        PREFER_DECODE_SPEED.equals(
+            TSFileDescriptor.getInstance().getConfig().getAutoEncodingPreference());
+    int pointNum = Math.min(sample.length(), sampleSize);
+    if (pointNum == 0) {
+      return TSEncoding.PLAIN;
+    }
+
+    TSEncoding selected = null;
+    long minScore = Long.MAX_VALUE;
+    for (TSEncoding candidate : candidates) {
+      long score = getEncodedSize(candidate, sample, pointNum);
+      if (preferDecodeSpeed) {
+        score *= DECODING_COSTS.get(candidate);
+      }
+      // candidates are visited in the ascending order of their decoding costs
+      if (score < minScore) {
+        minScore = score;
+        selected = candidate;
+      }
+    }
+    return selected;
+  }
+
+  private static long getEncodedSize(TSEncoding encoding, BatchData sample, int pointNum) {
+    TSEncodingBuilder builder = TSEncodingBuilder.getEncodingBuilder(encoding);
+    builder.initFromProps(null);
+    Encoder encoder = builder.getEncoder(sample.getDataType());
+    PublicBAOS out = new PublicBAOS();
+    try {
+      for (int i = 0; i < pointNum; i++) {
+        switch (sample.getDataType()) {
+          case BOOLEAN:
+            encoder.encode(sample.getBooleanByIndex(i), out);
+            break;
+          case INT32:
+            encoder.encode(sample.getIntByIndex(i), out);
+            break;
+          case INT64:
+            encoder.encode(sample.getLongByIndex(i), out);
+            break;
+          case FLOAT:
+            encoder.encode(sample.getFloatByIndex(i), out);
+            break;
+          case DOUBLE:
+            encoder.encode(sample.getDoubleByIndex(i), out);
+            break;
+          case TEXT:
+            encoder.encode(sample.getBinaryByIndex(i), out);
+            break;
+          default:
+            throw new TsFileEncodingException(
+                "AUTO encoding does not support data type: " + sample.getDataType());
+        }
+      }
+      encoder.flush(out);
+    } catch (IOException e) {
+      // never happens as the points are encoded in memory
+      throw new TsFileEncodingException(e);
+    }
+    return out.size();
+  }
+}
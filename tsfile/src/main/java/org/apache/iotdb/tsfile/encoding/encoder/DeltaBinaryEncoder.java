@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.tsfile.encoding.encoder;
 
+import org.apache.iotdb.tsfile.encoding.bitpacking.IntPackerKernels;
+import org.apache.iotdb.tsfile.encoding.bitpacking.LongPackerKernels;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
@@ -69,6 +71,9 @@ public abstract class DeltaBinaryEncoder extends Encoder {
 
   protected abstract void writeValueToBytes(int i);
 
+  /** write the values from i to i + 7, which take exactly {@code writeWidth} bytes. */
+  protected abstract void write8ValuesToBytes(int i);
+
   protected abstract void calcTwoDiff(int i);
 
   protected abstract void reset();
@@ -77,7 +82,11 @@ public abstract class DeltaBinaryEncoder extends Encoder {
 
   /** write all data into {@code encodingBlockBuffer}. */
   private void writeDataWithMinWidth() {
-    for (int i = 0; i < writeIndex; i++) {
+    int i = 0;
+    for (; i + 8 <= writeIndex; i += 8) {
+      write8ValuesToBytes(i);
+    }
+    for (; i < writeIndex; i++) {
       writeValueToBytes(i);
     }
     int encodingLength = (int) Math.ceil((double) (writeIndex * writeWidth) / 8.0);
@@ -198,6 +207,12 @@ public abstract class DeltaBinaryEncoder extends Encoder {
       BytesUtils.intToBytes(deltaBlockBuffer[i], encodingBlockBuffer, writeWidth * i, writeWidth);
     }
 
+    @Override
+    protected void write8ValuesToBytes(int i) {
+      IntPackerKernels.pack8Values(
+          writeWidth, deltaBlockBuffer, i, encodingBlockBuffer, i / 8 * writeWidth);
+    }
+
     @Override
     protected void calcTwoDiff(int i) {
       deltaBlockBuffer[i] = deltaBlockBuffer[i] - minDeltaBase;
@@ -277,6 +292,12 @@ public abstract class DeltaBinaryEncoder extends Encoder {
       BytesUtils.longToBytes(deltaBlockBuffer[i], encodingBlockBuffer, writeWidth * i, writeWidth);
     }
 
+    @Override
+    protected void write8ValuesToBytes(int i) {
+      LongPackerKernels.pack8Values(
+          writeWidth, deltaBlockBuffer, i, encodingBlockBuffer, i / 8 * writeWidth);
+    }
+
     @Override
     protected void calcTwoDiff(int i) {
       deltaBlockBuffer[i] = deltaBlockBuffer[i] - minDeltaBase;
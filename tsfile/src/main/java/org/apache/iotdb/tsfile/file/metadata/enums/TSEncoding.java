@@ -27,7 +27,12 @@ public enum TSEncoding {
   BITMAP((byte) 5),
   GORILLA_V1((byte) 6),
   REGULAR((byte) 7),
-  GORILLA((byte) 8);
+  GORILLA((byte) 8),
+  /**
+   * The encoding of each chunk is selected from the lossless encodings of the data type when it is
+   * written, so AUTO is only found in schemas and never in chunk headers.
+   */
+  AUTO((byte) 9);
 
   private final byte type;
 
@@ -65,6 +70,8 @@ public enum TSEncoding {
         return TSEncoding.REGULAR;
       case 8:
         return TSEncoding.GORILLA;
+      case 9:
+        return TSEncoding.AUTO;
       default:
         throw new IllegalArgumentException("Invalid input: " + encoding);
     }
@@ -44,6 +44,7 @@ import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.read.reader.MmapTsFileInput;
 import org.apache.iotdb.tsfile.read.reader.TsFileInput;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.BloomFilter;
@@ -153,6 +154,22 @@ public class TsFileSequenceReader implements AutoCloseable {
     this(input, true);
   }
 
+  /**
+   * Create a file reader of the given file, which reads through the given input instead of the one
+   * produced by the file input factory, e.g., a {@link
+   * org.apache.iotdb.tsfile.read.reader.MmapTsFileInput}.
+   *
+   * @param file the data file
+   * @param input the input of the file
+   */
+  public TsFileSequenceReader(String file, TsFileInput input) throws IOException {
+    this(input, true);
+    if (resourceLogger.isDebugEnabled()) {
+      resourceLogger.debug("{} reader is opened. {}", file, getClass().getName());
+    }
+    this.file = file;
+  }
+
   /**
    * construct function for TsFileSequenceReader.
    *
@@ -849,6 +866,12 @@ public class TsFileSequenceReader implements AutoCloseable {
    * @return the pages of this chunk
    */
   private ByteBuffer readChunk(long position, int dataSize) throws IOException {
+    // share the content of the input if it can, e.g., a view of a memory-mapped file. Only the
+    // chunks are shared, as the metadata may be cached beyond the life of this reader
+    ByteBuffer slice = tsFileInput.slice(position, dataSize);
+    if (slice != null) {
+      return slice;
+    }
     return readData(position, dataSize);
   }
 
@@ -925,6 +948,14 @@ public class TsFileSequenceReader implements AutoCloseable {
     return this.file;
   }
 
+  /**
+   * @return true if the file is memory-mapped, the chunks read by this reader are then views of the
+   *     mapping, which is unmapped once this reader is closed, so they must not be used afterwards
+   */
+  public boolean isMemoryMapped() {
+    return tsFileInput instanceof MmapTsFileInput;
+  }
+
   public long fileSize() throws IOException {
     return tsFileInput.size();
   }
@@ -34,6 +34,7 @@ import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsLong;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsVector;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -562,6 +563,128 @@ public class BatchData {
     }
   }
 
+  /**
+   * put the non-null points of a column batch in its order, the time and value columns are copied
+   * array by array if the batch has no null value.
+   */
+  public void putColumnBatch(ColumnBatch batch) {
+    putColumnBatch(batch, 0);
+  }
+
+  /** put the non-null points of a column batch from the index */
+  public void putColumnBatch(ColumnBatch batch, int from) {
+    if (batch.hasNull()) {
+      putColumnBatchPointByPoint(batch, from);
+      return;
+    }
+    int offset = from;
+    while (offset < batch.size()) {
+      if (writeCurArrayIndex == capacity) {
+        expand();
+      }
+      int length = Math.min(batch.size() - offset, capacity - writeCurArrayIndex);
+      System.arraycopy(
+          batch.getTimes(), offset, timeRet.get(writeCurListIndex), writeCurArrayIndex, length);
+      Object values;
+      switch (dataType) {
+        case BOOLEAN:
+          values = booleanRet.get(writeCurListIndex);
+          System.arraycopy(batch.getBooleanValues(), offset, values, writeCurArrayIndex, length);
+          break;
+        case INT32:
+          values = intRet.get(writeCurListIndex);
+          System.arraycopy(batch.getIntValues(), offset, values, writeCurArrayIndex, length);
+          break;
+        case INT64:
+          values = longRet.get(writeCurListIndex);
+          System.arraycopy(batch.getLongValues(), offset, values, writeCurArrayIndex, length);
+          break;
+        case FLOAT:
+          values = floatRet.get(writeCurListIndex);
+          System.arraycopy(batch.getFloatValues(), offset, values, writeCurArrayIndex, length);
+          break;
+        case DOUBLE:
+          values = doubleRet.get(writeCurListIndex);
+          System.arraycopy(batch.getDoubleValues(), offset, values, writeCurArrayIndex, length);
+          break;
+        case TEXT:
+          values = binaryRet.get(writeCurListIndex);
+          System.arraycopy(batch.getBinaryValues(), offset, values, writeCurArrayIndex, length);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+      offset += length;
+      writeCurArrayIndex += length;
+      count += length;
+    }
+  }
+
+  protected void putColumnBatchPointByPoint(ColumnBatch batch, int from) {
+    for (int i = from; i < batch.size(); i++) {
+      if (!batch.isNull(i)) {
+        putAnObject(batch.getTime(i), batch.getValue(i));
+      }
+    }
+  }
+
+  /** make room for writing when the current array is full, as the put methods do */
+  private void expand() {
+    if (capacity >= CAPACITY_THRESHOLD) {
+      timeRet.add(new long[capacity]);
+      switch (dataType) {
+        case BOOLEAN:
+          booleanRet.add(new boolean[capacity]);
+          break;
+        case INT32:
+          intRet.add(new int[capacity]);
+          break;
+        case INT64:
+          longRet.add(new long[capacity]);
+          break;
+        case FLOAT:
+          floatRet.add(new float[capacity]);
+          break;
+        case DOUBLE:
+          doubleRet.add(new double[capacity]);
+          break;
+        case TEXT:
+          binaryRet.add(new Binary[capacity]);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+      writeCurListIndex++;
+      writeCurArrayIndex = 0;
+      return;
+    }
+    int newCapacity = capacity << 1;
+    timeRet.set(0, Arrays.copyOf(timeRet.get(0), newCapacity));
+    switch (dataType) {
+      case BOOLEAN:
+        booleanRet.set(0, Arrays.copyOf(booleanRet.get(0), newCapacity));
+        break;
+      case INT32:
+        intRet.set(0, Arrays.copyOf(intRet.get(0), newCapacity));
+        break;
+      case INT64:
+        longRet.set(0, Arrays.copyOf(longRet.get(0), newCapacity));
+        break;
+      case FLOAT:
+        floatRet.set(0, Arrays.copyOf(floatRet.get(0), newCapacity));
+        break;
+      case DOUBLE:
+        doubleRet.set(0, Arrays.copyOf(doubleRet.get(0), newCapacity));
+        break;
+      case TEXT:
+        binaryRet.set(0, Arrays.copyOf(binaryRet.get(0), newCapacity));
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    capacity = newCapacity;
+  }
+
   public int length() {
     return this.count;
   }
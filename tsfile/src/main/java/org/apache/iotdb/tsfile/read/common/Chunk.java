@@ -85,11 +85,11 @@ public class Chunk implements Accountable {
       offset1 = chunk.chunkData.position();
       chunk.chunkData.flip();
       // the actual size should add another page statistics size
-      dataSize += (chunk.chunkData.array().length + chunk.chunkStatistic.getSerializedSize());
+      dataSize += (chunk.chunkData.capacity() + chunk.chunkStatistic.getSerializedSize());
     } else {
       // if the merge chunk already has more than one page, we can reuse all the part of its data
       // the dataSize is equal to the before
-      dataSize += chunk.chunkData.array().length;
+      dataSize += chunk.chunkData.capacity();
     }
     // from where the page data of the current chunk starts, if -1, it means the current chunk has
     // more than one page
@@ -107,47 +107,56 @@ public class Chunk implements Accountable {
       offset2 = chunkData.position();
       chunkData.flip();
       // the actual size should add another page statistics size
-      dataSize += (chunkData.array().length + chunkStatistic.getSerializedSize());
+      dataSize += (chunkData.capacity() + chunkStatistic.getSerializedSize());
     } else {
       // if the current chunk already has more than one page, we can reuse all the part of its data
       // the dataSize is equal to the before
-      dataSize += chunkData.array().length;
+      dataSize += chunkData.capacity();
     }
     chunkHeader.setDataSize(dataSize);
     ByteBuffer newChunkData = ByteBuffer.allocate(dataSize);
     // the current chunk has more than one page, we can use its data part directly without any
     // changes
     if (offset2 == -1) {
-      newChunkData.put(chunkData.array());
+      newChunkData.put(range(chunkData, 0, chunkData.capacity()));
     } else { // the current chunk has only one page, we need to add one page statistics for it
-      byte[] b = chunkData.array();
       // put the uncompressedSize and compressedSize of this page
-      newChunkData.put(b, 0, offset2);
+      newChunkData.put(range(chunkData, 0, offset2));
       // add page statistics
       PublicBAOS a = new PublicBAOS();
       chunkStatistic.serialize(a);
       newChunkData.put(a.getBuf(), 0, a.size());
       // put the remaining page data
-      newChunkData.put(b, offset2, b.length - offset2);
+      newChunkData.put(range(chunkData, offset2, chunkData.capacity()));
     }
     // the merged chunk has more than one page, we can use its data part directly without any
     // changes
     if (offset1 == -1) {
-      newChunkData.put(chunk.chunkData.array());
+      newChunkData.put(range(chunk.chunkData, 0, chunk.chunkData.capacity()));
     } else {
       // put the uncompressedSize and compressedSize of this page
-      byte[] b = chunk.chunkData.array();
-      newChunkData.put(b, 0, offset1);
+      newChunkData.put(range(chunk.chunkData, 0, offset1));
       // add page statistics
       PublicBAOS a = new PublicBAOS();
       chunk.chunkStatistic.serialize(a);
       newChunkData.put(a.getBuf(), 0, a.size());
       // put the remaining page data
-      newChunkData.put(b, offset1, b.length - offset1);
+      newChunkData.put(range(chunk.chunkData, offset1, chunk.chunkData.capacity()));
     }
     chunkData = newChunkData;
   }
 
+  /**
+   * The chunk data may be a heap buffer or a view of a memory-mapped file, so it is copied through
+   * a duplicate rather than its backing array.
+   */
+  private static ByteBuffer range(ByteBuffer data, int start, int end) {
+    ByteBuffer range = data.duplicate();
+    range.limit(end);
+    range.position(start);
+    return range;
+  }
+
   @Override
   public void setRamSize(long size) {
     this.ramSize = size;
@@ -0,0 +1,427 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.common;
+
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsBinary;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsBoolean;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsDouble;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsFloat;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsInt;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsLong;
+
+import java.util.Arrays;
+
+/**
+ * <code>ColumnBatch</code> is a columnar counterpart of {@link BatchData}: a time column, one value
+ * column of the primitive type of the series and a bitmap of the null values. Readers of the query
+ * engine may produce it instead of BatchData, so that the aggregations can loop over the primitive
+ * arrays without boxing every point.
+ *
+ * <p>Unlike BatchData, it has no read cursor, the points are accessed by index and are kept in the
+ * order they are put, i.e., a ColumnBatch of a descending query has decreasing times. {@link
+ * #fromBatchData(BatchData)} and {@link #toBatchData()} convert between the two, so that the
+ * callers that only know BatchData keep working.
+ *
+ * <p>VECTOR series are not supported.
+ */
+public class ColumnBatch {
+
+  private static final int INIT_CAPACITY = 16;
+
+  private final TSDataType dataType;
+
+  private int size;
+
+  private long[] times;
+  private boolean[] booleanValues;
+  private int[] intValues;
+  private long[] longValues;
+  private float[] floatValues;
+  private double[] doubleValues;
+  private Binary[] binaryValues;
+
+  /** the positions of the null values, created when the first null value is put */
+  private BitMap nullBitMap;
+
+  public ColumnBatch(TSDataType dataType) {
+    this(dataType, INIT_CAPACITY);
+  }
+
+  public ColumnBatch(TSDataType dataType, int capacity) {
+    this.dataType = dataType;
+    capacity = Math.max(capacity, 1);
+    times = new long[capacity];
+    switch (dataType) {
+      case BOOLEAN:
+        booleanValues = new boolean[capacity];
+        break;
+      case INT32:
+        intValues = new int[capacity];
+        break;
+      case INT64:
+        longValues = new long[capacity];
+        break;
+      case FLOAT:
+        floatValues = new float[capacity];
+        break;
+      case DOUBLE:
+        doubleValues = new double[capacity];
+        break;
+      case TEXT:
+        binaryValues = new Binary[capacity];
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  /**
+   * Drain the points of the batch data from its read cursor in the read order, the cursor of the
+   * batch data is moved to the end.
+   */
+  public static ColumnBatch fromBatchData(BatchData batchData) {
+    ColumnBatch columnBatch = new ColumnBatch(batchData.getDataType(), batchData.length());
+    while (batchData.hasCurrent()) {
+      long time = batchData.currentTime();
+      switch (columnBatch.dataType) {
+        case BOOLEAN:
+          columnBatch.putBoolean(time, batchData.getBoolean());
+          break;
+        case INT32:
+          columnBatch.putInt(time, batchData.getInt());
+          break;
+        case INT64:
+          columnBatch.putLong(time, batchData.getLong());
+          break;
+        case FLOAT:
+          columnBatch.putFloat(time, batchData.getFloat());
+          break;
+        case DOUBLE:
+          columnBatch.putDouble(time, batchData.getDouble());
+          break;
+        case TEXT:
+        default:
+          columnBatch.putBinary(time, batchData.getBinary());
+          break;
+      }
+      batchData.next();
+    }
+    return columnBatch;
+  }
+
+  /**
+   * @return an ordinary BatchData which reads the non-null points of this batch in the order they
+   *     are kept here
+   */
+  public BatchData toBatchData() {
+    return toBatchData(0);
+  }
+
+  /** @return an ordinary BatchData of the non-null points from the index in the order here */
+  public BatchData toBatchData(int from) {
+    BatchData batchData = new BatchData(dataType);
+    batchData.putColumnBatch(this, from);
+    return batchData;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean hasNull() {
+    return nullBitMap != null;
+  }
+
+  public boolean isNull(int index) {
+    return nullBitMap != null && nullBitMap.isMarked(index);
+  }
+
+  public long getTime(int index) {
+    return times[index];
+  }
+
+  public boolean getBoolean(int index) {
+    return booleanValues[index];
+  }
+
+  public int getInt(int index) {
+    return intValues[index];
+  }
+
+  public long getLong(int index) {
+    return longValues[index];
+  }
+
+  public float getFloat(int index) {
+    return floatValues[index];
+  }
+
+  public double getDouble(int index) {
+    return doubleValues[index];
+  }
+
+  public Binary getBinary(int index) {
+    return binaryValues[index];
+  }
+
+  /** @return the time column, only the first {@link #size()} elements are valid */
+  public long[] getTimes() {
+    return times;
+  }
+
+  public boolean[] getBooleanValues() {
+    return booleanValues;
+  }
+
+  public int[] getIntValues() {
+    return intValues;
+  }
+
+  public long[] getLongValues() {
+    return longValues;
+  }
+
+  public float[] getFloatValues() {
+    return floatValues;
+  }
+
+  public double[] getDoubleValues() {
+    return doubleValues;
+  }
+
+  public Binary[] getBinaryValues() {
+    return binaryValues;
+  }
+
+  /** @return the boxed value at the index, or null if it is a null value */
+  public Object getValue(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    switch (dataType) {
+      case BOOLEAN:
+        return booleanValues[index];
+      case INT32:
+        return intValues[index];
+      case INT64:
+        return longValues[index];
+      case FLOAT:
+        return floatValues[index];
+      case DOUBLE:
+        return doubleValues[index];
+      case TEXT:
+      default:
+        return binaryValues[index];
+    }
+  }
+
+  /**
+   * Compare the non-null values at the two indexes without boxing them, in the order of the
+   * compareTo methods of the boxed values.
+   */
+  public int compareValues(int index1, int index2) {
+    switch (dataType) {
+      case BOOLEAN:
+        return Boolean.compare(booleanValues[index1], booleanValues[index2]);
+      case INT32:
+        return Integer.compare(intValues[index1], intValues[index2]);
+      case INT64:
+        return Long.compare(longValues[index1], longValues[index2]);
+      case FLOAT:
+        return Float.compare(floatValues[index1], floatValues[index2]);
+      case DOUBLE:
+        return Double.compare(doubleValues[index1], doubleValues[index2]);
+      case TEXT:
+      default:
+        return binaryValues[index1].compareTo(binaryValues[index2]);
+    }
+  }
+
+  public TsPrimitiveType getTsPrimitiveType(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    switch (dataType) {
+      case BOOLEAN:
+        return new TsBoolean(booleanValues[index]);
+      case INT32:
+        return new TsInt(intValues[index]);
+      case INT64:
+        return new TsLong(longValues[index]);
+      case FLOAT:
+        return new TsFloat(floatValues[index]);
+      case DOUBLE:
+        return new TsDouble(doubleValues[index]);
+      case TEXT:
+      default:
+        return new TsBinary(binaryValues[index]);
+    }
+  }
+
+  public void putBoolean(long t, boolean v) {
+    ensureCapacity();
+    times[size] = t;
+    booleanValues[size++] = v;
+  }
+
+  public void putInt(long t, int v) {
+    ensureCapacity();
+    times[size] = t;
+    intValues[size++] = v;
+  }
+
+  public void putLong(long t, long v) {
+    ensureCapacity();
+    times[size] = t;
+    longValues[size++] = v;
+  }
+
+  public void putFloat(long t, float v) {
+    ensureCapacity();
+    times[size] = t;
+    floatValues[size++] = v;
+  }
+
+  public void putDouble(long t, double v) {
+    ensureCapacity();
+    times[size] = t;
+    doubleValues[size++] = v;
+  }
+
+  public void putBinary(long t, Binary v) {
+    ensureCapacity();
+    times[size] = t;
+    binaryValues[size++] = v;
+  }
+
+  /** put a point whose value is null, the value slot keeps the default value of the type */
+  public void putNull(long t) {
+    ensureCapacity();
+    if (nullBitMap == null) {
+      nullBitMap = new BitMap(times.length);
+    }
+    times[size] = t;
+    if (binaryValues != null) {
+      binaryValues[size] = null;
+    }
+    nullBitMap.mark(size++);
+  }
+
+  /** Reverse the order of the points, e.g., to turn an ascending batch into a descending one. */
+  public ColumnBatch reverse() {
+    for (int i = 0, j = size - 1; i < j; i++, j--) {
+      long time = times[i];
+      times[i] = times[j];
+      times[j] = time;
+      switch (dataType) {
+        case BOOLEAN:
+          boolean aBoolean = booleanValues[i];
+          booleanValues[i] = booleanValues[j];
+          booleanValues[j] = aBoolean;
+          break;
+        case INT32:
+          int anInt = intValues[i];
+          intValues[i] = intValues[j];
+          intValues[j] = anInt;
+          break;
+        case INT64:
+          long aLong = longValues[i];
+          longValues[i] = longValues[j];
+          longValues[j] = aLong;
+          break;
+        case FLOAT:
+          float aFloat = floatValues[i];
+          floatValues[i] = floatValues[j];
+          floatValues[j] = aFloat;
+          break;
+        case DOUBLE:
+          double aDouble = doubleValues[i];
+          doubleValues[i] = doubleValues[j];
+          doubleValues[j] = aDouble;
+          break;
+        case TEXT:
+        default:
+          Binary aBinary = binaryValues[i];
+          binaryValues[i] = binaryValues[j];
+          binaryValues[j] = aBinary;
+          break;
+      }
+      if (nullBitMap != null) {
+        boolean iNull = nullBitMap.isMarked(i);
+        boolean jNull = nullBitMap.isMarked(j);
+        if (iNull != jNull) {
+          if (iNull) {
+            nullBitMap.unmark(i);
+            nullBitMap.mark(j);
+          } else {
+            nullBitMap.mark(i);
+            nullBitMap.unmark(j);
+          }
+        }
+      }
+    }
+    return this;
+  }
+
+  private void ensureCapacity() {
+    if (size < times.length) {
+      return;
+    }
+    int newCapacity = times.length << 1;
+    times = Arrays.copyOf(times, newCapacity);
+    switch (dataType) {
+      case BOOLEAN:
+        booleanValues = Arrays.copyOf(booleanValues, newCapacity);
+        break;
+      case INT32:
+        intValues = Arrays.copyOf(intValues, newCapacity);
+        break;
+      case INT64:
+        longValues = Arrays.copyOf(longValues, newCapacity);
+        break;
+      case FLOAT:
+        floatValues = Arrays.copyOf(floatValues, newCapacity);
+        break;
+      case DOUBLE:
+        doubleValues = Arrays.copyOf(doubleValues, newCapacity);
+        break;
+      case TEXT:
+      default:
+        binaryValues = Arrays.copyOf(binaryValues, newCapacity);
+        break;
+    }
+    if (nullBitMap != null) {
+      byte[] bits = Arrays.copyOf(nullBitMap.getByteArray(), newCapacity / Byte.SIZE + 1);
+      nullBitMap = new BitMap(newCapacity, bits);
+    }
+  }
+}
@@ -361,6 +361,12 @@ public class DescReadWriteBatchData extends DescReadBatchData {
         .get((idx + writeCurArrayIndex + 1) / capacity)[(idx + writeCurArrayIndex + 1) % capacity];
   }
 
+  /** the points are written backwards, so they can not be copied array by array */
+  @Override
+  public void putColumnBatch(ColumnBatch batch, int from) {
+    putColumnBatchPointByPoint(batch, from);
+  }
+
   /**
    * Read: When put data, the writeIndex increases while the readIndex remains 0. For descending
    * read, we need to read from writeIndex to writeCurArrayIndex
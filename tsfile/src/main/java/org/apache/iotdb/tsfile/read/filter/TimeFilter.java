@@ -18,8 +18,12 @@
  */
 package org.apache.iotdb.tsfile.read.filter;
 
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.basic.UnaryFilter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
+import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
 import org.apache.iotdb.tsfile.read.filter.operator.Eq;
 import org.apache.iotdb.tsfile.read.filter.operator.Gt;
 import org.apache.iotdb.tsfile.read.filter.operator.GtEq;
@@ -67,6 +71,57 @@ public class TimeFilter {
     return new TimeIn(values, not);
   }
 
+  /** @return true if the filter only concerns the time of a point */
+  public static boolean isTimeFilter(Filter filter) {
+    if (filter instanceof UnaryFilter) {
+      return ((UnaryFilter<?>) filter).getFilterType() == FilterType.TIME_FILTER;
+    } else if (filter instanceof In) {
+      return ((In<?>) filter).getFilterType() == FilterType.TIME_FILTER;
+    } else if (filter instanceof BinaryFilter) {
+      return isTimeFilter(((BinaryFilter) filter).getLeft())
+          && isTimeFilter(((BinaryFilter) filter).getRight());
+    } else if (filter instanceof NotFilter) {
+      return isTimeFilter(((NotFilter) filter).getFilter());
+    } else {
+      return filter instanceof GroupByFilter;
+    }
+  }
+
+  /**
+   * @return the closed time range satisfying the filter if the filter is a conjunction of time
+   *     comparisons, otherwise (or if the range is empty) null
+   */
+  public static TimeRange getTimeRange(Filter filter) {
+    if (filter instanceof AndFilter) {
+      TimeRange left = getTimeRange(((AndFilter) filter).getLeft());
+      TimeRange right = getTimeRange(((AndFilter) filter).getRight());
+      if (left == null || right == null) {
+        return null;
+      }
+      long min = Math.max(left.getMin(), right.getMin());
+      long max = Math.min(left.getMax(), right.getMax());
+      return min <= max ? new TimeRange(min, max) : null;
+    }
+    if (!(filter instanceof UnaryFilter)
+        || ((UnaryFilter<?>) filter).getFilterType() != FilterType.TIME_FILTER) {
+      return null;
+    }
+    long time = (Long) ((UnaryFilter<?>) filter).getValue();
+    if (filter instanceof Eq) {
+      return new TimeRange(time, time);
+    } else if (filter instanceof Gt) {
+      return time == Long.MAX_VALUE ? null : new TimeRange(time + 1, Long.MAX_VALUE);
+    } else if (filter instanceof GtEq) {
+      return new TimeRange(time, Long.MAX_VALUE);
+    } else if (filter instanceof Lt) {
+      return time == Long.MIN_VALUE ? null : new TimeRange(Long.MIN_VALUE, time - 1);
+    } else if (filter instanceof LtEq) {
+      return new TimeRange(Long.MIN_VALUE, time);
+    } else {
+      return null;
+    }
+  }
+
   public static class TimeIn extends In {
 
     private TimeIn(Set<Long> values, boolean not) {
@@ -19,6 +19,7 @@
 package org.apache.iotdb.tsfile.read.reader;
 
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 
 import java.io.IOException;
 
@@ -28,5 +29,10 @@ public interface IBatchReader {
 
   BatchData nextBatch() throws IOException;
 
+  /** @return the next batch in columns, the default implementation converts the next BatchData */
+  default ColumnBatch nextColumnBatch() throws IOException {
+    return ColumnBatch.fromBatchData(nextBatch());
+  }
+
   void close() throws IOException;
 }
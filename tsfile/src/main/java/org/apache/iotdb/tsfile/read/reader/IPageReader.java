@@ -20,6 +20,7 @@ package org.apache.iotdb.tsfile.read.reader;
 
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
 import java.io.IOException;
@@ -32,6 +33,14 @@ public interface IPageReader {
 
   BatchData getAllSatisfiedPageData(boolean ascending) throws IOException;
 
+  /**
+   * @return the same points as {@link #getAllSatisfiedPageData(boolean)} in columns, readers that
+   *     can decode without boxing the values should override it
+   */
+  default ColumnBatch getAllSatisfiedColumnBatch(boolean ascending) throws IOException {
+    return ColumnBatch.fromBatchData(getAllSatisfiedPageData(ascending));
+  }
+
   Statistics getStatistics();
 
   void setFilter(Filter filter);
@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A TsFileInput of a sealed local TsFile, which maps the whole file into memory and serves the
+ * reads from the mapping. {@link #slice(long, int)} returns views of the mapping, so chunks are
+ * read without being copied into the heap.
+ *
+ * <p>The mapping is unmapped when the input is closed, which releases the memory and the file at
+ * once, so the file may be deleted or rewritten afterwards. Reads are rejected once the input is
+ * closed, and a close waits for the reads in progress. The slices can not be checked, as the views
+ * derived from them refer to the mapping directly, so they must not be used after the close: an
+ * access to an unmapped view crashes the JVM. The owner of the input is therefore responsible for
+ * closing it only when no slice is in use, and the slices must not be kept by anything outliving
+ * the input, e.g. a cache.
+ */
+public class MmapTsFileInput implements TsFileInput {
+
+  private static final Logger logger = LoggerFactory.getLogger(MmapTsFileInput.class);
+
+  /** a file larger than this can not be mapped by one MappedByteBuffer */
+  public static final long MAX_MAPPED_SIZE = Integer.MAX_VALUE;
+
+  /** sun.misc.Unsafe#invokeCleaner(ByteBuffer) since Java 9, null before */
+  private static final Method invokeCleanerMethod;
+
+  private static final Object theUnsafe;
+
+  static {
+    Method tempInvokeCleanerMethod = null;
+    Object tempTheUnsafe = null;
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      tempInvokeCleanerMethod = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+      unsafeField.setAccessible(true);
+      tempTheUnsafe = unsafeField.get(null);
+    } catch (Exception e) {
+      // Java 8, the cleaner of the buffer is used instead
+      tempInvokeCleanerMethod = null;
+    }
+    invokeCleanerMethod = tempInvokeCleanerMethod;
+    theUnsafe = tempTheUnsafe;
+  }
+
+  private final FileChannel channel;
+  private final String filePath;
+  private final MappedByteBuffer mappedBuffer;
+
+  /** the reads of the mapping hold the read lock, and the close holds the write lock to unmap it */
+  private final ReadWriteLock mappingLock = new ReentrantReadWriteLock();
+
+  private boolean closed = false;
+
+  public MmapTsFileInput(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    filePath = file.toString();
+    try {
+      long size = channel.size();
+      if (size > MAX_MAPPED_SIZE) {
+        throw new IOException(
+            String.format("%s is too large to be mapped, size: %d", filePath, size));
+      }
+      mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public long size() {
+    return mappedBuffer.capacity();
+  }
+
+  @Override
+  public long position() throws IOException {
+    try {
+      return channel.position();
+    } catch (IOException e) {
+      logger.error("Error happened while getting {} current position", filePath);
+      throw e;
+    }
+  }
+
+  @Override
+  public TsFileInput position(long newPosition) throws IOException {
+    try {
+      channel.position(newPosition);
+      return this;
+    } catch (IOException e) {
+      logger.error("Error happened while changing {} position to {}", filePath, newPosition);
+      throw e;
+    }
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    long position = position();
+    int readSize = read(dst, position);
+    if (readSize > 0) {
+      position(position + readSize);
+    }
+    return readSize;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    if (position < 0) {
+      throw new IllegalArgumentException("Negative position: " + position);
+    }
+    lockOpen();
+    try {
+      if (position >= size()) {
+        return -1;
+      }
+      int readSize = (int) Math.min(dst.remaining(), size() - position);
+      ByteBuffer src = mappedBuffer.duplicate();
+      src.position((int) position);
+      src.limit((int) position + readSize);
+      dst.put(src);
+      return readSize;
+    } finally {
+      mappingLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return a read-only view of the mapping, its position is 0 and its limit and capacity are size.
+   *     It must not be used after this input is closed.
+   */
+  @Override
+  public ByteBuffer slice(long position, int size) throws IOException {
+    lockOpen();
+    mappingLock.readLock().unlock();
+    if (position < 0 || position + size > size()) {
+      throw new IOException(
+          String.format(
+              "reach the end of the data. Size of data that want to read: %s,"
+                  + "file size: %s, position: %s",
+              size, size(), position));
+    }
+    ByteBuffer src = mappedBuffer.duplicate();
+    src.position((int) position);
+    src.limit((int) position + size);
+    return src.slice().asReadOnlyBuffer();
+  }
+
+  /** read a byte at the current position */
+  @Override
+  public int read() throws IOException {
+    lockOpen();
+    try {
+      long position = position();
+      if (position >= size()) {
+        return -1;
+      }
+      int value = mappedBuffer.get((int) position) & 0xFF;
+      position(position + 1);
+      return value;
+    } finally {
+      mappingLock.readLock().unlock();
+    }
+  }
+
+  /** read up to len bytes at the current position into b from off */
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    return read(ByteBuffer.wrap(b, off, len));
+  }
+
+  @Override
+  public FileChannel wrapAsFileChannel() {
+    return channel;
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() {
+    return Channels.newInputStream(channel);
+  }
+
+  @Override
+  public void close() throws IOException {
+    mappingLock.writeLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        channel.close();
+      } catch (IOException e) {
+        logger.error("Error happened while closing {}", filePath);
+        throw e;
+      } finally {
+        unmap();
+      }
+    } finally {
+      mappingLock.writeLock().unlock();
+    }
+  }
+
+  /** acquire the read lock of the mapping if the input is open, the caller should release it */
+  private void lockOpen() throws ClosedChannelException {
+    mappingLock.readLock().lock();
+    if (closed) {
+      mappingLock.readLock().unlock();
+      throw new ClosedChannelException();
+    }
+  }
+
+  /**
+   * Release the mapping now instead of waiting for the buffer to be garbage collected. If the
+   * cleaner can not be invoked, the mapping is left to the GC.
+   */
+  private void unmap() {
+    try {
+      if (invokeCleanerMethod != null) {
+        invokeCleanerMethod.invoke(theUnsafe, mappedBuffer);
+      } else {
+        Method cleanerMethod = mappedBuffer.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+        Object cleaner = cleanerMethod.invoke(mappedBuffer);
+        if (cleaner != null) {
+          Method cleanMethod = cleaner.getClass().getMethod("clean");
+          cleanMethod.setAccessible(true);
+          cleanMethod.invoke(cleaner);
+        }
+      }
+    } catch (Exception e) {
+      logger.warn("Failed to unmap {}, it will be released by the GC", filePath, e);
+    }
+  }
+
+  /** read a big-endian int at the current position */
+  @Override
+  public int readInt() throws IOException {
+    lockOpen();
+    try {
+      long position = position();
+      if (position + Integer.BYTES > size()) {
+        throw new EOFException(String.format("reach the end of %s at %d", filePath, position));
+      }
+      int value = mappedBuffer.getInt((int) position);
+      position(position + Integer.BYTES);
+      return value;
+    } finally {
+      mappingLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public String readVarIntString(long offset) throws IOException {
+    lockOpen();
+    try {
+      ByteBuffer byteBuffer = mappedBuffer.duplicate();
+      byteBuffer.position((int) offset);
+      int strLength = ReadWriteForEncodingUtils.readVarInt(byteBuffer);
+      if (strLength < 0) {
+        return null;
+      } else if (strLength == 0) {
+        return "";
+      }
+      if (byteBuffer.remaining() < strLength) {
+        throw new IOException(String.format("reach the end of %s at %d", filePath, offset));
+      }
+      byte[] bytes = new byte[strLength];
+      byteBuffer.get(bytes);
+      return new String(bytes, 0, strLength);
+    } finally {
+      mappingLock.readLock().unlock();
+    }
+  }
+}
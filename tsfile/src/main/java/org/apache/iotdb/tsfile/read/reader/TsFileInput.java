@@ -97,6 +97,21 @@ public interface TsFileInput {
    */
   int read(ByteBuffer dst, long position) throws IOException;
 
+  /**
+   * Returns the bytes in [position, position + size) of this TsFileInput as a buffer sharing the
+   * content of the input, so that they are not copied. This method does not modify this
+   * TsFileInput's position. The returned buffer must not be used after this TsFileInput is closed,
+   * as the content may be released on close, e.g. a memory-mapped file is unmapped.
+   *
+   * @return a read-only buffer whose position is 0 and limit is size, or null if this TsFileInput
+   *     can not share its content, in which case the bytes should be read by {@link
+   *     #read(ByteBuffer, long)}
+   * @throws IOException If the bytes exceed the end of the input or some other I/O error occurs
+   */
+  default ByteBuffer slice(long position, int size) throws IOException {
+    return null;
+  }
+
   /** read a byte from the Input. */
   int read() throws IOException;
 
@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
@@ -138,7 +139,6 @@ public class ChunkReader implements IChunkReader {
 
   private PageReader constructPageReaderForNextPage(PageHeader pageHeader) throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
 
     // doesn't has a complete page body
     if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
@@ -149,13 +149,23 @@ public class ChunkReader implements IChunkReader {
               + chunkDataBuffer.remaining());
     }
 
-    chunkDataBuffer.get(compressedPageBody);
     Decoder valueDecoder =
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
+    if (chunkHeader.getCompressionType() == CompressionType.UNCOMPRESSED) {
+      // the page body is the page data, share it with the chunk instead of copying it
+      ByteBuffer pageData = chunkDataBuffer.slice();
+      pageData.limit(compressedPageBodyLength);
+      chunkDataBuffer.position(chunkDataBuffer.position() + compressedPageBodyLength);
+      PageReader reader =
+          new PageReader(
+              pageHeader, pageData, chunkHeader.getDataType(), valueDecoder, timeDecoder, filter);
+      reader.setDeleteIntervalList(deleteIntervalList);
+      return reader;
+    }
+
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
     try {
-      unCompressor.uncompress(
-          compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
+      unCompressor.uncompress(chunkDataBuffer, compressedPageBodyLength, uncompressedPageData);
     } catch (Exception e) {
       throw new IOException(
           "Uncompress error! uncompress size: "
@@ -206,7 +216,6 @@ public class ChunkReader implements IChunkReader {
   // For reading TsFile V2
   private PageReader constructPageReaderForNextPageV2(PageHeader pageHeader) throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
 
     // doesn't has a complete page body
     if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
@@ -217,12 +226,10 @@ public class ChunkReader implements IChunkReader {
               + chunkDataBuffer.remaining());
     }
 
-    chunkDataBuffer.get(compressedPageBody);
     Decoder valueDecoder =
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
-    unCompressor.uncompress(
-        compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
+    unCompressor.uncompress(chunkDataBuffer, compressedPageBodyLength, uncompressedPageData);
     ByteBuffer pageData = ByteBuffer.wrap(uncompressedPageData);
     PageReader reader =
         new PageReaderV2(
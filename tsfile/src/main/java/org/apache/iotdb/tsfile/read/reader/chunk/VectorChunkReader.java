@@ -203,7 +203,6 @@ public class VectorChunkReader implements IChunkReader {
     pageInfo.pageHeader = pageHeader;
     pageInfo.dataType = chunkHeader.getDataType();
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
 
     // doesn't has a complete page body
     if (compressedPageBodyLength > chunkBuffer.remaining()) {
@@ -214,13 +213,11 @@ public class VectorChunkReader implements IChunkReader {
               + chunkBuffer.remaining());
     }
 
-    chunkBuffer.get(compressedPageBody);
     pageInfo.decoder =
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
     try {
-      unCompressor.uncompress(
-          compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
+      unCompressor.uncompress(chunkBuffer, compressedPageBodyLength, uncompressedPageData);
     } catch (Exception e) {
       throw new IOException(
           "Uncompress error! uncompress size: "
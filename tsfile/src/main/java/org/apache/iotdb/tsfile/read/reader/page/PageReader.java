@@ -25,7 +25,9 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
@@ -38,6 +40,9 @@ import java.util.List;
 
 public class PageReader implements IPageReader {
 
+  /** the number of points decoded at once by the decoders of numeric series */
+  private static final int DECODE_BATCH_SIZE = 1024;
+
   private PageHeader pageHeader;
 
   protected TSDataType dataType;
@@ -101,9 +106,19 @@ public class PageReader implements IPageReader {
   }
 
   /** @return the returned BatchData may be empty, but never be null */
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   @Override
   public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
+    switch (dataType) {
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        BatchData columnData = BatchDataFactory.createBatchData(dataType, ascending, false);
+        columnData.putColumnBatch(decodeColumnBatch());
+        return columnData.flip();
+      default:
+        break;
+    }
 
     BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
 
@@ -116,41 +131,183 @@ public class PageReader implements IPageReader {
             pageData.putBoolean(timestamp, aBoolean);
           }
           break;
-        case INT32:
-          int anInt = valueDecoder.readInt(valueBuffer);
-          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, anInt))) {
-            pageData.putInt(timestamp, anInt);
+        case TEXT:
+          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBinary))) {
+            pageData.putBinary(timestamp, aBinary);
           }
           break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+    }
+    return pageData.flip();
+  }
+
+  /**
+   * The points of a numeric series are decoded into the columns without boxing, the points of the
+   * other types are converted from {@link #getAllSatisfiedPageData(boolean)}.
+   *
+   * @return the returned ColumnBatch may be empty, but never be null
+   */
+  @Override
+  public ColumnBatch getAllSatisfiedColumnBatch(boolean ascending) throws IOException {
+    switch (dataType) {
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        ColumnBatch columnBatch = decodeColumnBatch();
+        return ascending ? columnBatch : columnBatch.reverse();
+      default:
+        return IPageReader.super.getAllSatisfiedColumnBatch(ascending);
+    }
+  }
+
+  /**
+   * Decode the page of a numeric series into primitive arrays batch by batch, and select the points
+   * of a batch by the time column before looking at the values. The times in a page are increasing,
+   * so a time range filter is applied by binary searching the time array, and the values are only
+   * checked if the filter concerns them.
+   *
+   * @return the satisfied points in ascending order
+   */
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  private ColumnBatch decodeColumnBatch() throws IOException {
+    ColumnBatch pageData =
+        pageHeader == null || pageHeader.getStatistics() == null
+            ? new ColumnBatch(dataType, DECODE_BATCH_SIZE)
+            : new ColumnBatch(dataType, (int) pageHeader.getNumOfValues());
+
+    boolean timeFilterOnly = filter == null || TimeFilter.isTimeFilter(filter);
+    TimeRange timeRange = filter == null ? null : TimeFilter.getTimeRange(filter);
+    long[] times = new long[DECODE_BATCH_SIZE];
+    int[] selection = new int[DECODE_BATCH_SIZE];
+    int[] intValues = dataType == TSDataType.INT32 ? new int[DECODE_BATCH_SIZE] : null;
+    long[] longValues = dataType == TSDataType.INT64 ? new long[DECODE_BATCH_SIZE] : null;
+    float[] floatValues = dataType == TSDataType.FLOAT ? new float[DECODE_BATCH_SIZE] : null;
+    double[] doubleValues = dataType == TSDataType.DOUBLE ? new double[DECODE_BATCH_SIZE] : null;
+
+    while (timeDecoder.hasNext(timeBuffer)) {
+      int num = timeDecoder.readLongs(timeBuffer, times, 0, DECODE_BATCH_SIZE);
+      if (num == 0) {
+        break;
+      }
+      int valueNum;
+      switch (dataType) {
+        case INT32:
+          valueNum = valueDecoder.readInts(valueBuffer, intValues, 0, num);
+          break;
         case INT64:
-          long aLong = valueDecoder.readLong(valueBuffer);
-          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aLong))) {
-            pageData.putLong(timestamp, aLong);
-          }
+          valueNum = valueDecoder.readLongs(valueBuffer, longValues, 0, num);
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
-          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aFloat))) {
-            pageData.putFloat(timestamp, aFloat);
-          }
+          valueNum = valueDecoder.readFloats(valueBuffer, floatValues, 0, num);
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
-          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aDouble))) {
-            pageData.putDouble(timestamp, aDouble);
+          valueNum = valueDecoder.readDoubles(valueBuffer, doubleValues, 0, num);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+      if (valueNum != num) {
+        throw new IOException(
+            String.format("Page has %d more timestamps than values", num - valueNum));
+      }
+
+      int selectedNum = selectByTime(times, num, selection, timeRange, timeFilterOnly);
+      switch (dataType) {
+        case INT32:
+          for (int i = 0; i < selectedNum; i++) {
+            int index = selection[i];
+            if (timeFilterOnly || filter.satisfy(times[index], intValues[index])) {
+              pageData.putInt(times[index], intValues[index]);
+            }
           }
           break;
-        case TEXT:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
-          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBinary))) {
-            pageData.putBinary(timestamp, aBinary);
+        case INT64:
+          for (int i = 0; i < selectedNum; i++) {
+            int index = selection[i];
+            if (timeFilterOnly || filter.satisfy(times[index], longValues[index])) {
+              pageData.putLong(times[index], longValues[index]);
+            }
           }
           break;
+        case FLOAT:
+          for (int i = 0; i < selectedNum; i++) {
+            int index = selection[i];
+            if (timeFilterOnly || filter.satisfy(times[index], floatValues[index])) {
+              pageData.putFloat(times[index], floatValues[index]);
+            }
+          }
+          break;
+        case DOUBLE:
         default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+          for (int i = 0; i < selectedNum; i++) {
+            int index = selection[i];
+            if (timeFilterOnly || filter.satisfy(times[index], doubleValues[index])) {
+              pageData.putDouble(times[index], doubleValues[index]);
+            }
+          }
+          break;
       }
     }
-    return pageData.flip();
+    return pageData;
+  }
+
+  /**
+   * Select the indexes of the points in times[0, num) that are not deleted and satisfy the filter,
+   * if the filter only concerns time, or the time range of the filter otherwise.
+   *
+   * @return the number of the selected indexes
+   */
+  private int selectByTime(
+      long[] times, int num, int[] selection, TimeRange timeRange, boolean timeFilterOnly) {
+    int from = 0;
+    int to = num;
+    if (timeRange != null) {
+      from = searchFirstNotBefore(times, num, timeRange.getMin());
+      to =
+          timeRange.getMax() == Long.MAX_VALUE
+              ? num
+              : searchFirstNotBefore(times, num, timeRange.getMax() + 1);
+    }
+    boolean checkTime = timeRange == null && filter != null && timeFilterOnly;
+    boolean checkDeletion =
+        from < to
+            && deleteIntervalList != null
+            && deleteCursor < deleteIntervalList.size()
+            && deleteIntervalList.get(deleteCursor).getMin() <= times[to - 1];
+
+    int selectedNum = 0;
+    if (!checkTime && !checkDeletion) {
+      for (int i = from; i < to; i++) {
+        selection[selectedNum++] = i;
+      }
+      return selectedNum;
+    }
+    for (int i = from; i < to; i++) {
+      if ((!checkTime || filter.satisfy(times[i], null))
+          && !(checkDeletion && isDeleted(times[i]))) {
+        selection[selectedNum++] = i;
+      }
+    }
+    return selectedNum;
+  }
+
+  /** @return the index of the first time not before the given one in increasing times[0, num) */
+  private static int searchFirstNotBefore(long[] times, int num, long time) {
+    int low = 0;
+    int high = num;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (times[mid] < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
   }
 
   @Override
@@ -384,7 +384,7 @@ public class ReadWriteIOUtils {
   public static int write(ByteBuffer byteBuffer, OutputStream outputStream) throws IOException {
     int len = 0;
     len += write(byteBuffer.capacity(), outputStream);
-    byte[] bytes = byteBuffer.array();
+    byte[] bytes = getArray(byteBuffer);
     outputStream.write(bytes);
     len += bytes.length;
     return len;
@@ -392,7 +392,7 @@ public class ReadWriteIOUtils {
 
   public static void writeWithoutSize(
       ByteBuffer byteBuffer, int offset, int len, OutputStream outputStream) throws IOException {
-    byte[] bytes = byteBuffer.array();
+    byte[] bytes = getArray(byteBuffer);
     outputStream.write(bytes, offset, len);
   }
 
@@ -400,12 +400,27 @@ public class ReadWriteIOUtils {
   public static int write(ByteBuffer byteBuffer, ByteBuffer buffer) {
     int len = 0;
     len += write(byteBuffer.capacity(), buffer);
-    byte[] bytes = byteBuffer.array();
+    byte[] bytes = getArray(byteBuffer);
     buffer.put(bytes);
     len += bytes.length;
     return len;
   }
 
+  /**
+   * @return the array of byteBuffer, or a copy of its whole content if it has no accessible array,
+   *     e.g., it is read-only or direct, like the views of a memory-mapped TsFile
+   */
+  private static byte[] getArray(ByteBuffer byteBuffer) {
+    if (byteBuffer.hasArray()) {
+      return byteBuffer.array();
+    }
+    ByteBuffer content = byteBuffer.duplicate();
+    content.clear();
+    byte[] bytes = new byte[content.capacity()];
+    content.get(bytes);
+    return bytes;
+  }
+
   /** CompressionType. */
   public static int write(CompressionType compressionType, OutputStream outputStream)
       throws IOException {
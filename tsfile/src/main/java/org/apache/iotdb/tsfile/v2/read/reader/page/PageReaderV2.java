@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -53,6 +54,14 @@ public class PageReaderV2 extends PageReader {
     super(pageHeader, pageData, dataType, valueDecoder, timeDecoder, filter);
   }
 
+  @Override
+  public ColumnBatch getAllSatisfiedColumnBatch(boolean ascending) throws IOException {
+    if (dataType != TSDataType.INT32 && dataType != TSDataType.TEXT) {
+      return super.getAllSatisfiedColumnBatch(ascending);
+    }
+    return ColumnBatch.fromBatchData(getAllSatisfiedPageData(ascending));
+  }
+
   /** @return the returned BatchData may be empty, but never be null */
   @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   @Override
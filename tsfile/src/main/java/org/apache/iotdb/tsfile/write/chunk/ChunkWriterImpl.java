@@ -20,17 +20,24 @@ package org.apache.iotdb.tsfile.write.chunk;
 
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.AutoEncodingSelector;
 import org.apache.iotdb.tsfile.encoding.encoder.SDTEncoder;
+import org.apache.iotdb.tsfile.exception.encoding.TsFileEncodingException;
 import org.apache.iotdb.tsfile.exception.write.PageException;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 import org.apache.iotdb.tsfile.write.page.PageWriter;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
 import org.slf4j.Logger;
@@ -91,9 +98,25 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   private Statistics<?> firstPageStatistics;
 
+  /**
+   * the schema of an AUTO encoded series, null otherwise. The first points of each chunk are
+   * written in PLAIN until the encoding of the chunk is selected from them.
+   */
+  private IMeasurementSchema autoEncodingSchema;
+
+  private boolean isSelectingEncoding;
+
+  /** the number of points the encoding of an AUTO encoded chunk is selected from */
+  private static final int AUTO_ENCODING_SAMPLE_SIZE = 1024;
+
   /** @param schema schema of this measurement */
   public ChunkWriterImpl(IMeasurementSchema schema) {
     this.measurementSchema = schema;
+    if (schema.getEncodingType() == TSEncoding.AUTO) {
+      this.autoEncodingSchema = schema;
+      this.measurementSchema = withEncoding(schema, TSEncoding.PLAIN);
+      this.isSelectingEncoding = true;
+    }
     this.compressor = ICompressor.getCompressor(schema.getCompressor());
     this.pageBuffer = new PublicBAOS();
 
@@ -269,6 +292,9 @@ public class ChunkWriterImpl implements IChunkWriter {
    * to pageBuffer
    */
   private void checkPageSizeAndMayOpenANewPage() {
+    if (isSelectingEncoding && pageWriter.getPointNumber() >= AUTO_ENCODING_SAMPLE_SIZE) {
+      selectEncoding();
+    }
     if (pageWriter.getPointNumber() == maxNumberOfPointsInPage) {
       logger.debug("current line count reaches the upper bound, write page {}", measurementSchema);
       writePageToPageBuffer();
@@ -295,18 +321,16 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   private void writePageToPageBuffer() {
+    if (isSelectingEncoding) {
+      selectEncoding();
+    }
     try {
       if (numOfPages == 0) { // record the firstPageStatistics
         this.firstPageStatistics = pageWriter.getStatistics();
         this.sizeWithoutStatistic = pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, true);
       } else if (numOfPages == 1) { // put the firstPageStatistics into pageBuffer
-        byte[] b = pageBuffer.toByteArray();
-        pageBuffer.reset();
-        pageBuffer.write(b, 0, this.sizeWithoutStatistic);
-        firstPageStatistics.serialize(pageBuffer);
-        pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+        writeFirstPageStatistics();
         pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, false);
-        firstPageStatistics = null;
       } else {
         pageWriter.writePageHeaderAndDataIntoBuff(pageBuffer, false);
       }
@@ -322,6 +346,119 @@ public class ChunkWriterImpl implements IChunkWriter {
     }
   }
 
+  /**
+   * Select the encoding of an AUTO encoded chunk from the points of its PLAIN encoded first page,
+   * and encode these points again with the selected encoding.
+   */
+  private void selectEncoding() {
+    isSelectingEncoding = false;
+    BatchData points;
+    try {
+      TSDataType dataType = measurementSchema.getType();
+      points =
+          new PageReader(
+                  pageWriter.getUncompressedBytes(),
+                  dataType,
+                  Decoder.getDecoderByType(TSEncoding.PLAIN, dataType),
+                  Decoder.getDecoderByType(measurementSchema.getTimeTSEncoding(), TSDataType.INT64),
+                  null)
+              .getAllSatisfiedPageData();
+    } catch (IOException e) {
+      throw new TsFileEncodingException("Cannot decode the page written in PLAIN", e);
+    }
+    TSEncoding encoding = AutoEncodingSelector.select(points, AUTO_ENCODING_SAMPLE_SIZE);
+    measurementSchema = withEncoding(autoEncodingSchema, encoding);
+    logger.debug(
+        "select encoding {} for a chunk of {}",
+        measurementSchema.getEncodingType(),
+        measurementSchema.getMeasurementId());
+
+    pageWriter = new PageWriter(measurementSchema);
+    for (int i = 0; i < points.length(); i++) {
+      long time = points.getTimeByIndex(i);
+      switch (points.getDataType()) {
+        case BOOLEAN:
+          pageWriter.write(time, points.getBooleanByIndex(i));
+          break;
+        case INT32:
+          pageWriter.write(time, points.getIntByIndex(i));
+          break;
+        case INT64:
+          pageWriter.write(time, points.getLongByIndex(i));
+          break;
+        case FLOAT:
+          pageWriter.write(time, points.getFloatByIndex(i));
+          break;
+        case DOUBLE:
+          pageWriter.write(time, points.getDoubleByIndex(i));
+          break;
+        case TEXT:
+          pageWriter.write(time, points.getBinaryByIndex(i));
+          break;
+        default:
+          throw new TsFileEncodingException(
+              "AUTO encoding does not support data type: " + points.getDataType());
+      }
+    }
+  }
+
+  private static IMeasurementSchema withEncoding(IMeasurementSchema schema, TSEncoding encoding) {
+    return new MeasurementSchema(
+        schema.getMeasurementId(),
+        schema.getType(),
+        encoding,
+        schema.getCompressor(),
+        schema.getProps());
+  }
+
+  /**
+   * the statistics of the first page are omitted until the second page comes, as a chunk of only
+   * one page uses the statistics of the chunk as those of the page
+   */
+  private void writeFirstPageStatistics() throws IOException {
+    byte[] b = pageBuffer.toByteArray();
+    pageBuffer.reset();
+    pageBuffer.write(b, 0, this.sizeWithoutStatistic);
+    firstPageStatistics.serialize(pageBuffer);
+    pageBuffer.write(b, this.sizeWithoutStatistic, b.length - this.sizeWithoutStatistic);
+    firstPageStatistics = null;
+  }
+
+  /**
+   * Append a page that is encoded and compressed in the same way as this chunk without decoding it.
+   * The page being written is sealed first, so the pages are kept in the order of writing.
+   *
+   * @param pageHeader the header of the page, whose statistics are those of the page
+   * @param compressedPageData the compressed page data from its position to its limit
+   */
+  public void writeCompressedPage(PageHeader pageHeader, ByteBuffer compressedPageData)
+      throws IOException {
+    if (autoEncodingSchema != null) {
+      throw new IllegalStateException(
+          "Cannot copy pages into a chunk of the AUTO encoded series "
+              + autoEncodingSchema.getMeasurementId());
+    }
+    sealCurrentPage();
+    if (numOfPages == 1) {
+      writeFirstPageStatistics();
+    }
+    int headerSizeWithoutStatistic =
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(pageHeader.getUncompressedSize(), pageBuffer);
+    headerSizeWithoutStatistic +=
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(pageHeader.getCompressedSize(), pageBuffer);
+    if (numOfPages == 0) {
+      this.firstPageStatistics = pageHeader.getStatistics();
+      this.sizeWithoutStatistic = headerSizeWithoutStatistic;
+    } else {
+      pageHeader.getStatistics().serialize(pageBuffer);
+    }
+    try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
+      channel.write(compressedPageData.duplicate());
+    }
+    numOfPages++;
+    this.statistics.mergeStatistics(pageHeader.getStatistics());
+  }
+
   @Override
   public void writeToFileWriter(TsFileIOWriter tsfileWriter) throws IOException {
     sealCurrentPage();
@@ -332,6 +469,14 @@ public class ChunkWriterImpl implements IChunkWriter {
     numOfPages = 0;
     firstPageStatistics = null;
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
+    if (autoEncodingSchema != null) {
+      // the encoding of the next chunk is selected again
+      measurementSchema = withEncoding(autoEncodingSchema, TSEncoding.PLAIN);
+      isSelectingEncoding = true;
+      if (pageWriter != null) {
+        pageWriter.setValueEncoder(measurementSchema.getValueEncoder());
+      }
+    }
   }
 
   @Override
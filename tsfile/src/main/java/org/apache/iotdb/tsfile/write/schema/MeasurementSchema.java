@@ -49,7 +49,7 @@ public class MeasurementSchema
   private String measurementId;
   private byte type;
   private byte encoding;
-  private TSEncodingBuilder encodingConverter;
+  private volatile TSEncodingBuilder encodingConverter;
   private byte compressor;
   private Map<String, String> props = null;
 
@@ -248,13 +248,16 @@ public class MeasurementSchema
    * @return Encoder for value
    */
   public Encoder getValueEncoder() {
-    // it is ok even if encodingConverter is constructed two instances for concurrent scenario
-    if (encodingConverter == null) {
+    // the schema may be shared by many series, so only publish a builder after its initialization.
+    // It is ok even if two builders are constructed for concurrent scenario
+    TSEncodingBuilder builder = encodingConverter;
+    if (builder == null) {
       // initialize TSEncoding. e.g. set max error for PLA and SDT
-      encodingConverter = TSEncodingBuilder.getEncodingBuilder(TSEncoding.deserialize(encoding));
-      encodingConverter.initFromProps(props);
+      builder = TSEncodingBuilder.getEncodingBuilder(TSEncoding.deserialize(encoding));
+      builder.initFromProps(props);
+      encodingConverter = builder;
     }
-    return encodingConverter.getEncoder(TSDataType.deserialize(type));
+    return builder.getEncoder(TSDataType.deserialize(type));
   }
 
   @Override
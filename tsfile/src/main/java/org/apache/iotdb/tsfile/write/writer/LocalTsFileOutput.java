@@ -25,6 +25,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * a TsFileOutput implementation with FileOutputStream. If the file is not existed, it will be
@@ -57,7 +58,18 @@ public class LocalTsFileOutput implements TsFileOutput {
 
   @Override
   public void write(ByteBuffer b) throws IOException {
-    bufferedStream.write(b.array());
+    if (b.hasArray()) {
+      bufferedStream.write(b.array());
+    } else {
+      // e.g., a read-only view of a memory-mapped file read by a merge, which has no array and is
+      // written through the channel after the buffered bytes
+      bufferedStream.flush();
+      ByteBuffer src = b.duplicate();
+      FileChannel channel = outputStream.getChannel();
+      while (src.hasRemaining()) {
+        channel.write(src);
+      }
+    }
   }
 
   @Override
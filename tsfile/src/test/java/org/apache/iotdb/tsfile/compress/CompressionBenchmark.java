@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.page.PageWriter;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compression benchmark. Bench the codecs over encoded pages of time series, which are what a codec
+ * compresses in a TsFile. An operation compresses or uncompresses all the pages, and the bytes
+ * counters give the speed in bytes per second and the ratio of the codec (compressedBytes /
+ * uncompressedBytes of compress).
+ *
+ * <p>The level and the dictionary only apply to ZSTD, so the other codecs may be run with -p
+ * level=1 -p dictionary=false to skip the duplicated runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CompressionBenchmark {
+
+  private static final int NUM_OF_PAGES = 200;
+  private static final int NUM_OF_POINTS_IN_PAGE = 1000;
+  private static final int DICT_SIZE = 64 * 1024;
+
+  @Param({"SNAPPY", "LZ4", "GZIP", "ZSTD"})
+  private String codec;
+
+  @Param({"1", "3", "9"})
+  private int level;
+
+  /** whether ZSTD uses a dictionary trained over pages that are not benched */
+  @Param({"false", "true"})
+  private boolean dictionary;
+
+  private ICompressor compressor;
+  private IUnCompressor unCompressor;
+
+  private List<ByteBuffer> pages;
+  private byte[][] compressedPages;
+  private int[] compressedPageSizes;
+  private byte[][] uncompressedPages;
+
+  @Setup
+  public void setUp() throws IOException {
+    CompressionType type = CompressionType.valueOf(codec);
+    if (type == CompressionType.ZSTD) {
+      ZSTDDictionary zstdDictionary =
+          dictionary
+              ? new ZSTDDictionary(ZSTDDictionary.train(generatePages(new Random(1)), DICT_SIZE))
+              : null;
+      compressor = new ICompressor.ZSTDCompressor(level, zstdDictionary);
+      unCompressor = new IUnCompressor.ZSTDUnCompressor(zstdDictionary);
+    } else {
+      compressor = ICompressor.getCompressor(type);
+      unCompressor = IUnCompressor.getUnCompressor(type);
+    }
+
+    pages = generatePages(new Random(2));
+    compressedPages = new byte[pages.size()][];
+    compressedPageSizes = new int[pages.size()];
+    uncompressedPages = new byte[pages.size()][];
+    for (int i = 0; i < pages.size(); i++) {
+      ByteBuffer page = pages.get(i);
+      compressedPages[i] = new byte[compressor.getMaxBytesForCompression(page.remaining())];
+      compressedPageSizes[i] =
+          compressor.compress(
+              page.array(),
+              page.arrayOffset() + page.position(),
+              page.remaining(),
+              compressedPages[i]);
+      uncompressedPages[i] = new byte[page.remaining()];
+    }
+  }
+
+  /** The bytes processed by the operations, reported per second. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class ByteCounters {
+
+    public long uncompressedBytes;
+    public long compressedBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      uncompressedBytes = 0;
+      compressedBytes = 0;
+    }
+  }
+
+  @Benchmark
+  public byte[][] compress(ByteCounters counters) throws IOException {
+    for (int i = 0; i < pages.size(); i++) {
+      ByteBuffer page = pages.get(i);
+      int compressedSize =
+          compressor.compress(
+              page.array(),
+              page.arrayOffset() + page.position(),
+              page.remaining(),
+              compressedPages[i]);
+      counters.uncompressedBytes += page.remaining();
+      counters.compressedBytes += compressedSize;
+    }
+    return compressedPages;
+  }
+
+  @Benchmark
+  public byte[][] uncompress(ByteCounters counters) throws IOException {
+    for (int i = 0; i < pages.size(); i++) {
+      unCompressor.uncompress(
+          compressedPages[i], 0, compressedPageSizes[i], uncompressedPages[i], 0);
+      counters.uncompressedBytes += uncompressedPages[i].length;
+      counters.compressedBytes += compressedPageSizes[i];
+    }
+    return uncompressedPages;
+  }
+
+  /** pages of a temperature sensor, a counter and a status sensor with their default encodings */
+  private static List<ByteBuffer> generatePages(Random random) throws IOException {
+    List<ByteBuffer> pages = new ArrayList<>();
+    String[] statuses = {"RUNNING", "STOPPED", "MAINTAINING"};
+    for (int i = 0; i < NUM_OF_PAGES; i++) {
+      long time = 1600000000000L + (long) i * NUM_OF_POINTS_IN_PAGE * 1000;
+      PageWriter temperatureWriter = createPageWriter(TSDataType.DOUBLE, TSEncoding.GORILLA);
+      PageWriter counterWriter = createPageWriter(TSDataType.INT64, TSEncoding.TS_2DIFF);
+      PageWriter statusWriter = createPageWriter(TSDataType.TEXT, TSEncoding.PLAIN);
+      double temperature = 20 + random.nextInt(10);
+      long counter = random.nextInt(1000);
+      String status = statuses[random.nextInt(statuses.length)];
+      for (int j = 0; j < NUM_OF_POINTS_IN_PAGE; j++) {
+        // points are collected every second with a few milliseconds of jitter
+        time += 1000 + random.nextInt(5) - 2;
+        temperature = Math.round((temperature + random.nextGaussian() * 0.1) * 100) / 100.0;
+        counter += random.nextInt(3);
+        if (random.nextInt(100) == 0) {
+          status = statuses[random.nextInt(statuses.length)];
+        }
+        temperatureWriter.write(time, temperature);
+        counterWriter.write(time, counter);
+        statusWriter.write(time, new Binary(status));
+      }
+      pages.add(temperatureWriter.getUncompressedBytes());
+      pages.add(counterWriter.getUncompressedBytes());
+      pages.add(statusWriter.getUncompressedBytes());
+    }
+    return pages;
+  }
+
+  private static PageWriter createPageWriter(TSDataType dataType, TSEncoding encoding) {
+    return new PageWriter(
+        new MeasurementSchema("s", dataType, encoding, CompressionType.UNCOMPRESSED));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(CompressionBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
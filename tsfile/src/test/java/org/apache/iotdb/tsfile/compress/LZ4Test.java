@@ -27,7 +27,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.concurrent.ThreadLocalRandom;
 
 public class LZ4Test {
@@ -65,4 +67,38 @@ public class LZ4Test {
 
     Assert.assertArrayEquals(uncom, uncompressed);
   }
+
+  @Test
+  public void testByteBuffer() throws IOException {
+    byte[] uncom = randomString(500000).getBytes(StandardCharsets.UTF_8);
+    ByteBuffer source = ByteBuffer.allocateDirect(uncom.length);
+    source.put(uncom);
+    source.flip();
+
+    ICompressor compressor = new IOTDBLZ4Compressor();
+    ByteBuffer compressed =
+        ByteBuffer.allocateDirect(compressor.getMaxBytesForCompression(uncom.length));
+    int compressedSize = compressor.compress(source, compressed);
+    Assert.assertEquals(compressed.position(), compressedSize);
+
+    compressed.flip();
+    ByteBuffer uncompressed = ByteBuffer.allocateDirect(uncom.length);
+    Assert.assertEquals(uncom.length, new LZ4UnCompressor().uncompress(compressed, uncompressed));
+    uncompressed.flip();
+    byte[] result = new byte[uncompressed.remaining()];
+    uncompressed.get(result);
+    Assert.assertArrayEquals(uncom, result);
+  }
+
+  @Test
+  public void testBytesWithOutOffset() throws IOException {
+    byte[] uncom = randomString(10000).getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = new IOTDBLZ4Compressor().compress(uncom);
+    byte[] input = new byte[compressed.length + 10];
+    System.arraycopy(compressed, 0, input, 10, compressed.length);
+
+    byte[] uncompressed = new byte[uncom.length + 20];
+    new LZ4UnCompressor().uncompress(input, 10, compressed.length, uncompressed, 20);
+    Assert.assertArrayEquals(uncom, Arrays.copyOfRange(uncompressed, 20, uncompressed.length));
+  }
 }
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import org.apache.iotdb.tsfile.compress.ICompressor.ZSTDCompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor.ZSTDUnCompressor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ZSTDTest {
+
+  private String randomString(int length) {
+    StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append((char) (ThreadLocalRandom.current().nextInt(33, 128)));
+    }
+    return builder.toString();
+  }
+
+  @Test
+  public void testBytes() throws IOException {
+    byte[] uncom = randomString(2000000).getBytes(StandardCharsets.UTF_8);
+    for (int level : new int[] {1, 3, 9}) {
+      ICompressor compressor = new ZSTDCompressor(level, null);
+      byte[] compressed = compressor.compress(uncom);
+
+      IUnCompressor unCompressor = new ZSTDUnCompressor(null);
+      Assert.assertEquals(
+          uncom.length, unCompressor.getUncompressedLength(compressed, 0, compressed.length));
+      Assert.assertArrayEquals(uncom, unCompressor.uncompress(compressed));
+    }
+  }
+
+  @Test
+  public void testBytesWithOffset() throws IOException {
+    byte[] uncom = randomString(100000).getBytes(StandardCharsets.UTF_8);
+    ICompressor compressor = new ZSTDCompressor(3, null);
+    byte[] compressed = new byte[compressor.getMaxBytesForCompression(uncom.length - 100) + 10];
+    int compressedSize = compressor.compress(uncom, 100, uncom.length - 100, compressed);
+
+    // the frame does not start at the beginning of the input
+    byte[] input = new byte[compressedSize + 10];
+    System.arraycopy(compressed, 0, input, 10, compressedSize);
+    byte[] uncompressed = new byte[uncom.length];
+    int size = new ZSTDUnCompressor(null).uncompress(input, 10, compressedSize, uncompressed, 100);
+    Assert.assertEquals(uncom.length - 100, size);
+    Assert.assertArrayEquals(
+        Arrays.copyOfRange(uncom, 100, uncom.length),
+        Arrays.copyOfRange(uncompressed, 100, uncom.length));
+  }
+
+  @Test
+  public void testByteBuffer() throws IOException {
+    byte[] uncom = randomString(500000).getBytes(StandardCharsets.UTF_8);
+    ICompressor compressor = new ZSTDCompressor(3, null);
+    IUnCompressor unCompressor = new ZSTDUnCompressor(null);
+    for (boolean direct : new boolean[] {true, false}) {
+      ByteBuffer source = allocate(uncom.length, direct);
+      source.put(uncom);
+      source.flip();
+      ByteBuffer compressed =
+          allocate(compressor.getMaxBytesForCompression(source.remaining()), direct);
+      int compressedSize = compressor.compress(source, compressed);
+      Assert.assertEquals(compressedSize, compressed.position());
+      Assert.assertFalse(source.hasRemaining());
+
+      compressed.flip();
+      Assert.assertEquals(uncom.length, unCompressor.getUncompressedLength(compressed));
+      ByteBuffer uncompressed = allocate(uncom.length, direct);
+      Assert.assertEquals(uncom.length, unCompressor.uncompress(compressed, uncompressed));
+      uncompressed.flip();
+      byte[] result = new byte[uncompressed.remaining()];
+      uncompressed.get(result);
+      Assert.assertArrayEquals(uncom, result);
+    }
+  }
+
+  @Test
+  public void testDictionary() throws IOException {
+    Random random = new Random(0);
+    List<ByteBuffer> samples = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      samples.add(ByteBuffer.wrap(sample(random)));
+    }
+    ZSTDDictionary dictionary = new ZSTDDictionary(ZSTDDictionary.train(samples, 4096));
+
+    byte[] uncom = sample(random);
+    byte[] withDictionary = new ZSTDCompressor(3, dictionary).compress(uncom);
+    byte[] withoutDictionary = new ZSTDCompressor(3, null).compress(uncom);
+    Assert.assertTrue(withDictionary.length < withoutDictionary.length);
+    Assert.assertEquals(dictionary.getId(), ZSTDUtils.getDictId(ByteBuffer.wrap(withDictionary)));
+    Assert.assertEquals(0, ZSTDUtils.getDictId(ByteBuffer.wrap(withoutDictionary)));
+
+    // frames compressed without a dictionary can be read whether or not one is configured
+    Assert.assertArrayEquals(uncom, new ZSTDUnCompressor(dictionary).uncompress(withDictionary));
+    Assert.assertArrayEquals(uncom, new ZSTDUnCompressor(dictionary).uncompress(withoutDictionary));
+    try {
+      new ZSTDUnCompressor(null).uncompress(withDictionary);
+      Assert.fail("a frame compressed with a dictionary should not be read without it");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().contains(String.valueOf(dictionary.getId())));
+    }
+  }
+
+  private byte[] sample(Random random) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 8; i++) {
+      builder
+          .append("root.sg")
+          .append(random.nextInt(4))
+          .append(".d")
+          .append(random.nextInt(100))
+          .append(random.nextBoolean() ? ".status=RUNNING" : ".status=STOPPED")
+          .append(";temperature=")
+          .append(20 + random.nextInt(10))
+          .append(';');
+    }
+    return builder.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private ByteBuffer allocate(int capacity, boolean direct) {
+    return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+}
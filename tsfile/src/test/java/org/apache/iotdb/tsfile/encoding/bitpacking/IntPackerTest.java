@@ -19,11 +19,14 @@
 
 package org.apache.iotdb.tsfile.encoding.bitpacking;
 
+import org.apache.iotdb.tsfile.utils.BytesUtils;
+
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class IntPackerTest {
@@ -76,4 +79,30 @@ public class IntPackerTest {
       }
     }
   }
+
+  @Test
+  public void testAllWidths() {
+    Random rand = new Random();
+    for (int width = 0; width <= 32; width++) {
+      int mask = width == 32 ? -1 : (1 << width) - 1;
+      int[] values = new int[10];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = rand.nextInt() & mask;
+      }
+      // the same layout as writing the values bit by bit
+      byte[] expected = new byte[width + 1];
+      for (int i = 0; i < 8; i++) {
+        BytesUtils.intToBytes(values[i + 2], expected, 8 + width * i, width);
+      }
+      byte[] buf = new byte[width + 1];
+      IntPackerKernels.pack8Values(width, values, 2, buf, 1);
+      assertArrayEquals(expected, buf);
+
+      int[] res = new int[10];
+      IntPackerKernels.unpack8Values(width, buf, 1, res, 2);
+      for (int i = 0; i < 8; i++) {
+        assertEquals(values[i + 2], res[i + 2]);
+      }
+    }
+  }
 }
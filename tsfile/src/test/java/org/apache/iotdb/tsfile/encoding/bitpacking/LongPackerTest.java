@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.tsfile.encoding.bitpacking;
 
+import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
 import org.junit.Test;
@@ -31,6 +32,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class LongPackerTest {
@@ -128,4 +130,30 @@ public class LongPackerTest {
       }
     }
   }
+
+  @Test
+  public void testAllWidths() {
+    Random rand = new Random();
+    for (int width = 0; width <= 64; width++) {
+      long mask = width == 64 ? -1L : (1L << width) - 1;
+      long[] values = new long[10];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = rand.nextLong() & mask;
+      }
+      // the same layout as writing the values bit by bit
+      byte[] expected = new byte[width + 1];
+      for (int i = 0; i < 8; i++) {
+        BytesUtils.longToBytes(values[i + 2], expected, 8 + width * i, width);
+      }
+      byte[] buf = new byte[width + 1];
+      LongPackerKernels.pack8Values(width, values, 2, buf, 1);
+      assertArrayEquals(expected, buf);
+
+      long[] res = new long[10];
+      LongPackerKernels.unpack8Values(width, buf, 1, res, 2);
+      for (int i = 0; i < 8; i++) {
+        assertEquals(values[i + 2], res[i + 2]);
+      }
+    }
+  }
 }
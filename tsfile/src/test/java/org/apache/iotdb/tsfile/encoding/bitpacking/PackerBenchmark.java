@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.bitpacking;
+
+import org.apache.iotdb.tsfile.utils.BytesUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bit-packing benchmark. Bench the unrolled kernels against the loops that IntPacker and LongPacker
+ * used before and against packing bit by bit with BytesUtils, which TS_2DIFF used before, over
+ * blocks of 128 values (the TS_2DIFF block size).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PackerBenchmark {
+
+  private static final int NUM_OF_VALUES = 128;
+
+  @Param({"1", "4", "7", "12", "20", "31"})
+  private int width;
+
+  private int[] ints;
+  private long[] longs;
+  private byte[] packedInts;
+  private byte[] packedLongs;
+
+  private final int[] intOutput = new int[NUM_OF_VALUES];
+  private final long[] longOutput = new long[NUM_OF_VALUES];
+  private byte[] byteOutput;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(0);
+    ints = new int[NUM_OF_VALUES];
+    longs = new long[NUM_OF_VALUES];
+    for (int i = 0; i < NUM_OF_VALUES; i++) {
+      ints[i] = random.nextInt() >>> (32 - width);
+      longs[i] = random.nextLong() >>> (64 - width);
+    }
+    packedInts = new byte[NUM_OF_VALUES / 8 * width];
+    packedLongs = new byte[NUM_OF_VALUES / 8 * width];
+    for (int i = 0; i < NUM_OF_VALUES; i += 8) {
+      IntPackerKernels.pack8Values(width, ints, i, packedInts, i / 8 * width);
+      LongPackerKernels.pack8Values(width, longs, i, packedLongs, i / 8 * width);
+    }
+    byteOutput = new byte[NUM_OF_VALUES / 8 * width];
+  }
+
+  @Benchmark
+  public int[] unpackIntsByKernels() {
+    new IntPacker(width).unpackAllValues(packedInts, packedInts.length, intOutput);
+    return intOutput;
+  }
+
+  @Benchmark
+  public int[] unpackIntsByLoops() {
+    for (int i = 0; i < NUM_OF_VALUES; i += 8) {
+      unpack8IntsByLoops(width, packedInts, i / 8 * width, intOutput, i);
+    }
+    return intOutput;
+  }
+
+  @Benchmark
+  public int[] unpackIntsBitByBit() {
+    for (int i = 0; i < NUM_OF_VALUES; i++) {
+      intOutput[i] = BytesUtils.bytesToInt(packedInts, width * i, width);
+    }
+    return intOutput;
+  }
+
+  @Benchmark
+  public long[] unpackLongsByKernels() {
+    new LongPacker(width).unpackAllValues(packedLongs, packedLongs.length, longOutput);
+    return longOutput;
+  }
+
+  @Benchmark
+  public long[] unpackLongsByLoops() {
+    for (int i = 0; i < NUM_OF_VALUES; i += 8) {
+      unpack8LongsByLoops(width, packedLongs, i / 8 * width, longOutput, i);
+    }
+    return longOutput;
+  }
+
+  @Benchmark
+  public long[] unpackLongsBitByBit() {
+    for (int i = 0; i < NUM_OF_VALUES; i++) {
+      longOutput[i] = BytesUtils.bytesToLong(packedLongs, width * i, width);
+    }
+    return longOutput;
+  }
+
+  @Benchmark
+  public byte[] packIntsByKernels() {
+    for (int i = 0; i < NUM_OF_VALUES; i += 8) {
+      IntPackerKernels.pack8Values(width, ints, i, byteOutput, i / 8 * width);
+    }
+    return byteOutput;
+  }
+
+  @Benchmark
+  public byte[] packIntsBitByBit() {
+    for (int i = 0; i < NUM_OF_VALUES; i++) {
+      BytesUtils.intToBytes(ints[i], byteOutput, width * i, width);
+    }
+    return byteOutput;
+  }
+
+  /** the loop of IntPacker#unpack8Values before the kernels. */
+  private static void unpack8IntsByLoops(
+      int width, byte[] buf, int offset, int[] values, int valuesOffset) {
+    int byteIdx = offset;
+    long buffer = 0;
+    int totalBits = 0;
+    int valueIdx = 0;
+    while (valueIdx < 8) {
+      while (totalBits < width) {
+        buffer = (buffer << 8) | (buf[byteIdx] & 0xFF);
+        byteIdx++;
+        totalBits += 8;
+      }
+      while (totalBits >= width && valueIdx < 8) {
+        values[valuesOffset + valueIdx] = (int) (buffer >>> (totalBits - width));
+        valueIdx++;
+        totalBits -= width;
+        buffer = buffer & ((1 << totalBits) - 1);
+      }
+    }
+  }
+
+  /** the loop of LongPacker#unpack8Values before the kernels. */
+  private static void unpack8LongsByLoops(
+      int width, byte[] buf, int offset, long[] values, int valuesOffset) {
+    int byteIdx = offset;
+    int leftBits = 8;
+    int totalBits = 0;
+    for (int valueIdx = valuesOffset; valueIdx < valuesOffset + 8; valueIdx++) {
+      values[valueIdx] = 0;
+      while (totalBits < width) {
+        if (width - totalBits >= leftBits) {
+          values[valueIdx] = values[valueIdx] << leftBits;
+          values[valueIdx] = values[valueIdx] | (((1L << leftBits) - 1) & buf[byteIdx]);
+          totalBits += leftBits;
+          byteIdx++;
+          leftBits = 8;
+        } else {
+          int t = width - totalBits;
+          values[valueIdx] = values[valueIdx] << t;
+          values[valueIdx] =
+              values[valueIdx] | (((1L << leftBits) - 1) & buf[byteIdx]) >>> (leftBits - t);
+          leftBits -= t;
+          totalBits += t;
+        }
+      }
+      totalBits = 0;
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(PackerBenchmark.class.getSimpleName()).build()).run();
+  }
+}
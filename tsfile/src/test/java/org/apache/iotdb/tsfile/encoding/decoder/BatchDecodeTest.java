@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionEncoderV2;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntGorillaEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntRleEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongGorillaEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongRleEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionEncoderV2;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/** Check that the batch decode methods return the same values as decoding one by one. */
+public class BatchDecodeTest {
+
+  private static final int ROW_NUM = 10000;
+
+  /** batch lengths smaller than, equal to and larger than the packs of the decoders */
+  private static final int[] BATCH_LENGTHS = {1, 7, 128, 1000, ROW_NUM * 2};
+
+  private final Random random = new Random(0);
+
+  private final long[] longs = new long[ROW_NUM];
+  private final int[] ints = new int[ROW_NUM];
+  private final float[] floats = new float[ROW_NUM];
+  private final double[] doubles = new double[ROW_NUM];
+
+  public BatchDecodeTest() {
+    for (int i = 0; i < ROW_NUM; i++) {
+      // repeated runs for rle, and random values for bit-packing
+      long value = (i / 100) % 2 == 0 ? i / 100 : random.nextInt(1 << 20);
+      longs[i] = value;
+      ints[i] = (int) value;
+      floats[i] = value / 10.0f;
+      doubles[i] = value / 10.0;
+    }
+  }
+
+  @Test
+  public void testDeltaBinary() throws IOException {
+    for (int batchLength : BATCH_LENGTHS) {
+      checkLongs(
+          encodeLongs(new DeltaBinaryEncoder.LongDeltaEncoder()),
+          new DeltaBinaryDecoder.LongDeltaDecoder(),
+          batchLength);
+      checkInts(
+          encodeInts(new DeltaBinaryEncoder.IntDeltaEncoder()),
+          new DeltaBinaryDecoder.IntDeltaDecoder(),
+          batchLength);
+    }
+  }
+
+  @Test
+  public void testRle() throws IOException {
+    for (int batchLength : BATCH_LENGTHS) {
+      checkLongs(encodeLongs(new LongRleEncoder()), new LongRleDecoder(), batchLength);
+      checkInts(encodeInts(new IntRleEncoder()), new IntRleDecoder(), batchLength);
+    }
+  }
+
+  @Test
+  public void testGorilla() throws IOException {
+    for (int batchLength : BATCH_LENGTHS) {
+      checkLongs(encodeLongs(new LongGorillaEncoder()), new LongGorillaDecoder(), batchLength);
+      checkInts(encodeInts(new IntGorillaEncoder()), new IntGorillaDecoder(), batchLength);
+      checkFloats(
+          encodeFloats(new SinglePrecisionEncoderV2()),
+          new SinglePrecisionDecoderV2(),
+          batchLength);
+      checkDoubles(
+          encodeDoubles(new DoublePrecisionEncoderV2()),
+          new DoublePrecisionDecoderV2(),
+          batchLength);
+    }
+  }
+
+  @Test
+  public void testGorillaAllWidths() throws IOException {
+    // values of all the bit widths and signs, so that the xors have any number of leading and
+    // trailing zeros
+    for (int i = 0; i < ROW_NUM; i++) {
+      long value =
+          i % 10 == 0 ? longs[Math.max(i - 1, 0)] : random.nextLong() >> random.nextInt(64);
+      longs[i] = value;
+      ints[i] = (int) value;
+      floats[i] = (float) (random.nextGaussian() * 1000);
+      doubles[i] = random.nextGaussian() * 1000;
+    }
+    testGorilla();
+  }
+
+  @Test
+  public void testPlain() throws IOException {
+    for (int batchLength : BATCH_LENGTHS) {
+      checkLongs(
+          encodeLongs(new PlainEncoder(TSDataType.INT64, 0)), new PlainDecoder(), batchLength);
+      checkInts(encodeInts(new PlainEncoder(TSDataType.INT32, 0)), new PlainDecoder(), batchLength);
+      checkFloats(
+          encodeFloats(new PlainEncoder(TSDataType.FLOAT, 0)), new PlainDecoder(), batchLength);
+      checkDoubles(
+          encodeDoubles(new PlainEncoder(TSDataType.DOUBLE, 0)), new PlainDecoder(), batchLength);
+    }
+  }
+
+  private ByteBuffer encodeLongs(Encoder encoder) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (long value : longs) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+
+  private ByteBuffer encodeInts(Encoder encoder) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int value : ints) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+
+  private ByteBuffer encodeFloats(Encoder encoder) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (float value : floats) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+
+  private ByteBuffer encodeDoubles(Encoder encoder) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (double value : doubles) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+
+  private void checkLongs(ByteBuffer buffer, Decoder decoder, int batchLength) throws IOException {
+    long[] result = new long[ROW_NUM + batchLength];
+    int num = 0;
+    // mix the batch decoding with the point decoding
+    while (decoder.hasNext(buffer)) {
+      num += decoder.readLongs(buffer, result, num, batchLength);
+      if (decoder.hasNext(buffer)) {
+        result[num++] = decoder.readLong(buffer);
+      }
+    }
+    Assert.assertEquals(0, decoder.readLongs(buffer, result, num, batchLength));
+    Assert.assertEquals(ROW_NUM, num);
+    for (int i = 0; i < ROW_NUM; i++) {
+      Assert.assertEquals(longs[i], result[i]);
+    }
+  }
+
+  private void checkInts(ByteBuffer buffer, Decoder decoder, int batchLength) throws IOException {
+    int[] result = new int[ROW_NUM + batchLength];
+    int num = 0;
+    while (decoder.hasNext(buffer)) {
+      num += decoder.readInts(buffer, result, num, batchLength);
+      if (decoder.hasNext(buffer)) {
+        result[num++] = decoder.readInt(buffer);
+      }
+    }
+    Assert.assertEquals(0, decoder.readInts(buffer, result, num, batchLength));
+    Assert.assertEquals(ROW_NUM, num);
+    for (int i = 0; i < ROW_NUM; i++) {
+      Assert.assertEquals(ints[i], result[i]);
+    }
+  }
+
+  private void checkFloats(ByteBuffer buffer, Decoder decoder, int batchLength) throws IOException {
+    float[] result = new float[ROW_NUM + batchLength];
+    int num = 0;
+    while (decoder.hasNext(buffer)) {
+      num += decoder.readFloats(buffer, result, num, batchLength);
+      if (decoder.hasNext(buffer)) {
+        result[num++] = decoder.readFloat(buffer);
+      }
+    }
+    Assert.assertEquals(0, decoder.readFloats(buffer, result, num, batchLength));
+    Assert.assertEquals(ROW_NUM, num);
+    for (int i = 0; i < ROW_NUM; i++) {
+      Assert.assertEquals(floats[i], result[i], 0);
+    }
+  }
+
+  private void checkDoubles(ByteBuffer buffer, Decoder decoder, int batchLength)
+      throws IOException {
+    double[] result = new double[ROW_NUM + batchLength];
+    int num = 0;
+    while (decoder.hasNext(buffer)) {
+      num += decoder.readDoubles(buffer, result, num, batchLength);
+      if (decoder.hasNext(buffer)) {
+        result[num++] = decoder.readDouble(buffer);
+      }
+    }
+    Assert.assertEquals(0, decoder.readDoubles(buffer, result, num, batchLength));
+    Assert.assertEquals(ROW_NUM, num);
+    for (int i = 0; i < ROW_NUM; i++) {
+      Assert.assertEquals(doubles[i], result[i], 0);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class AutoEncodingSelectorTest {
+
+  private static final int SAMPLE_SIZE = 1024;
+
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private final String preference = config.getAutoEncodingPreference();
+  private final Random random = new Random(0);
+
+  @After
+  public void tearDown() {
+    config.setAutoEncodingPreference(preference);
+  }
+
+  @Test
+  public void testSelectInt() {
+    BatchData increasing = new BatchData(TSDataType.INT64);
+    BatchData repeated = new BatchData(TSDataType.INT32);
+    for (int i = 0; i < SAMPLE_SIZE; i++) {
+      increasing.putLong(i, 1600000000000L + i * 1000L);
+      repeated.putInt(i, i / 256);
+    }
+    assertEquals(TSEncoding.TS_2DIFF, AutoEncodingSelector.select(increasing, SAMPLE_SIZE));
+    assertEquals(TSEncoding.RLE, AutoEncodingSelector.select(repeated, SAMPLE_SIZE));
+  }
+
+  @Test
+  public void testSelectDouble() {
+    BatchData smooth = new BatchData(TSDataType.DOUBLE);
+    BatchData noisy = new BatchData(TSDataType.DOUBLE);
+    double temperature = 20;
+    for (int i = 0; i < SAMPLE_SIZE; i++) {
+      smooth.putDouble(i, 20.5);
+      temperature = Math.round((temperature + random.nextGaussian() * 0.1) * 100) / 100.0;
+      noisy.putDouble(i, temperature);
+    }
+    assertEquals(TSEncoding.GORILLA, AutoEncodingSelector.select(smooth, SAMPLE_SIZE));
+    assertEquals(TSEncoding.GORILLA, AutoEncodingSelector.select(noisy, SAMPLE_SIZE));
+
+    // GORILLA is not small enough to make up for its decoding cost
+    config.setAutoEncodingPreference(AutoEncodingSelector.PREFER_DECODE_SPEED);
+    assertEquals(TSEncoding.GORILLA, AutoEncodingSelector.select(smooth, SAMPLE_SIZE));
+    assertEquals(TSEncoding.PLAIN, AutoEncodingSelector.select(noisy, SAMPLE_SIZE));
+  }
+
+  @Test
+  public void testSelectText() {
+    BatchData lowCardinality = new BatchData(TSDataType.TEXT);
+    BatchData distinct = new BatchData(TSDataType.TEXT);
+    String[] statuses = {"RUNNING", "STOPPED", "MAINTAINING"};
+    for (int i = 0; i < SAMPLE_SIZE; i++) {
+      lowCardinality.putBinary(i, new Binary(statuses[random.nextInt(statuses.length)]));
+      distinct.putBinary(i, new Binary("event-" + i));
+    }
+    assertEquals(TSEncoding.DICTIONARY, AutoEncodingSelector.select(lowCardinality, SAMPLE_SIZE));
+    assertEquals(TSEncoding.PLAIN, AutoEncodingSelector.select(distinct, SAMPLE_SIZE));
+  }
+
+  @Test
+  public void testSelectEmpty() {
+    assertEquals(
+        TSEncoding.PLAIN,
+        AutoEncodingSelector.select(new BatchData(TSDataType.INT64), SAMPLE_SIZE));
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.common;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ColumnBatchTest {
+
+  /** more points than an array of BatchData, so that BatchData has to add arrays */
+  private static final int SIZE = TSFileConfig.ARRAY_CAPACITY_THRESHOLD * 3 + 7;
+
+  @Test
+  public void testPutAndGet() {
+    ColumnBatch batch = new ColumnBatch(TSDataType.DOUBLE);
+    Assert.assertTrue(batch.isEmpty());
+    for (int i = 0; i < SIZE; i++) {
+      batch.putDouble(i, i * 0.5);
+    }
+    Assert.assertEquals(SIZE, batch.size());
+    Assert.assertFalse(batch.hasNull());
+    for (int i = 0; i < SIZE; i++) {
+      Assert.assertEquals(i, batch.getTime(i));
+      Assert.assertEquals(i * 0.5, batch.getDouble(i), 0);
+      Assert.assertEquals(i * 0.5, batch.getValue(i));
+      Assert.assertEquals(i * 0.5, batch.getTsPrimitiveType(i).getDouble(), 0);
+    }
+    Assert.assertTrue(batch.compareValues(0, 1) < 0);
+    Assert.assertEquals(0, batch.compareValues(1, 1));
+  }
+
+  @Test
+  public void testNullAndReverse() {
+    ColumnBatch batch = new ColumnBatch(TSDataType.TEXT, 1);
+    for (int i = 0; i < SIZE; i++) {
+      if (i % 3 == 0) {
+        batch.putNull(i);
+      } else {
+        batch.putBinary(i, new Binary(String.valueOf(i)));
+      }
+    }
+    Assert.assertTrue(batch.hasNull());
+    batch.reverse();
+    for (int i = 0; i < SIZE; i++) {
+      long time = SIZE - 1 - i;
+      Assert.assertEquals(time, batch.getTime(i));
+      if (time % 3 == 0) {
+        Assert.assertTrue(batch.isNull(i));
+        Assert.assertNull(batch.getValue(i));
+      } else {
+        Assert.assertFalse(batch.isNull(i));
+        Assert.assertEquals(new Binary(String.valueOf(time)), batch.getBinary(i));
+      }
+    }
+
+    // the null values are skipped in BatchData
+    BatchData batchData = batch.toBatchData();
+    for (int i = 0; i < SIZE; i++) {
+      long time = SIZE - 1 - i;
+      if (time % 3 != 0) {
+        Assert.assertEquals(time, batchData.currentTime());
+        Assert.assertEquals(new Binary(String.valueOf(time)), batchData.getBinary());
+        batchData.next();
+      }
+    }
+    Assert.assertFalse(batchData.hasCurrent());
+  }
+
+  @Test
+  public void testConvertBatchData() {
+    ColumnBatch batch = new ColumnBatch(TSDataType.INT32);
+    for (int i = 0; i < SIZE; i++) {
+      batch.putInt(i, i);
+    }
+
+    // copied array by array
+    BatchData batchData = batch.toBatchData(5);
+    Assert.assertEquals(SIZE - 5, batchData.length());
+    for (int i = 5; i < SIZE; i++) {
+      Assert.assertEquals(i, batchData.currentTime());
+      Assert.assertEquals(i, batchData.getInt());
+      batchData.next();
+    }
+    Assert.assertFalse(batchData.hasCurrent());
+
+    // a descending BatchData is read backwards
+    BatchData descBatchData = BatchDataFactory.createBatchData(TSDataType.INT32, false, false);
+    descBatchData.putColumnBatch(batch);
+    descBatchData.flip();
+    ColumnBatch descBatch = ColumnBatch.fromBatchData(descBatchData);
+    Assert.assertFalse(descBatchData.hasCurrent());
+    Assert.assertEquals(SIZE, descBatch.size());
+    for (int i = 0; i < SIZE; i++) {
+      Assert.assertEquals(SIZE - 1 - i, descBatch.getTime(i));
+      Assert.assertEquals(SIZE - 1 - i, descBatch.getInt(i));
+    }
+
+    // points are written backwards into DescReadWriteBatchData
+    BatchData descReadWriteBatchData =
+        BatchDataFactory.createBatchData(TSDataType.INT32, false, true);
+    descReadWriteBatchData.putColumnBatch(descBatch);
+    descReadWriteBatchData.flip();
+    for (int i = 0; i < SIZE; i++) {
+      Assert.assertEquals(SIZE - 1 - i, descReadWriteBatchData.currentTime());
+      descReadWriteBatchData.next();
+    }
+    Assert.assertFalse(descReadWriteBatchData.hasCurrent());
+  }
+}
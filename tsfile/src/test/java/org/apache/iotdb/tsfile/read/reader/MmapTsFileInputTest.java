@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.FileGenerator;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MmapTsFileInputTest {
+
+  private static final String FILE_PATH = FileGenerator.outputDataFile;
+
+  @Before
+  public void before() throws IOException {
+    FileGenerator.generateFile(1000, 100);
+  }
+
+  @After
+  public void after() {
+    FileGenerator.after();
+  }
+
+  @Test
+  public void testReadSameAsLocalInput() throws IOException {
+    try (TsFileSequenceReader localReader = new TsFileSequenceReader(FILE_PATH);
+        TsFileSequenceReader mmapReader =
+            new TsFileSequenceReader(FILE_PATH, new MmapTsFileInput(Paths.get(FILE_PATH)))) {
+      Assert.assertEquals(FILE_PATH, mmapReader.getFileName());
+      Assert.assertEquals(localReader.fileSize(), mmapReader.fileSize());
+      Assert.assertEquals(localReader.readVersionNumber(), mmapReader.readVersionNumber());
+
+      List<String> devices = mmapReader.getAllDevices();
+      Assert.assertEquals(localReader.getAllDevices(), devices);
+      for (String device : devices) {
+        Map<String, List<ChunkMetadata>> localMetadata =
+            localReader.readChunkMetadataInDevice(device);
+        Map<String, List<ChunkMetadata>> mmapMetadata =
+            mmapReader.readChunkMetadataInDevice(device);
+        Assert.assertEquals(localMetadata.keySet(), mmapMetadata.keySet());
+        for (List<ChunkMetadata> chunkMetadataList : mmapMetadata.values()) {
+          for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+            Chunk localChunk = localReader.readMemChunk(chunkMetadata);
+            Chunk mmapChunk = mmapReader.readMemChunk(chunkMetadata);
+            Assert.assertEquals(localChunk.getData(), mmapChunk.getData());
+            assertSamePages(localChunk, mmapChunk);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testWriteMappedChunks() throws IOException {
+    // chunks of a mapped file have no arrays, but can be written to a new file like a merge does
+    File copyFile = new File(FILE_PATH + ".copy");
+    try (TsFileSequenceReader mmapReader =
+        new TsFileSequenceReader(FILE_PATH, new MmapTsFileInput(Paths.get(FILE_PATH)))) {
+      TsFileIOWriter writer = new TsFileIOWriter(copyFile);
+      for (String device : mmapReader.getAllDevices()) {
+        writer.startChunkGroup(device);
+        for (List<ChunkMetadata> chunkMetadataList :
+            mmapReader.readChunkMetadataInDevice(device).values()) {
+          for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+            Chunk chunk = mmapReader.readMemChunk(chunkMetadata);
+            Assert.assertFalse(chunk.getData().hasArray());
+            writer.writeChunk(chunk, chunkMetadata);
+          }
+        }
+        writer.endChunkGroup();
+      }
+      writer.endFile();
+
+      try (TsFileSequenceReader copyReader = new TsFileSequenceReader(copyFile.getPath())) {
+        for (String device : mmapReader.getAllDevices()) {
+          Map<String, List<ChunkMetadata>> copyMetadata =
+              copyReader.readChunkMetadataInDevice(device);
+          for (List<ChunkMetadata> chunkMetadataList :
+              mmapReader.readChunkMetadataInDevice(device).values()) {
+            for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+              Chunk mmapChunk = mmapReader.readMemChunk(chunkMetadata);
+              Chunk copyChunk = null;
+              for (ChunkMetadata copyChunkMetadata :
+                  copyMetadata.get(chunkMetadata.getMeasurementUid())) {
+                if (copyChunkMetadata.getStartTime() == chunkMetadata.getStartTime()) {
+                  copyChunk = copyReader.readMemChunk(copyChunkMetadata);
+                }
+              }
+              Assert.assertNotNull(copyChunk);
+              Assert.assertEquals(mmapChunk.getData(), copyChunk.getData());
+              assertSamePages(copyChunk, mmapChunk);
+            }
+          }
+        }
+      }
+    } finally {
+      Files.deleteIfExists(copyFile.toPath());
+    }
+  }
+
+  private void assertSamePages(Chunk localChunk, Chunk mmapChunk) throws IOException {
+    ChunkReader localChunkReader = new ChunkReader(localChunk, null);
+    ChunkReader mmapChunkReader = new ChunkReader(mmapChunk, null);
+    while (localChunkReader.hasNextSatisfiedPage()) {
+      Assert.assertTrue(mmapChunkReader.hasNextSatisfiedPage());
+      BatchData localData = localChunkReader.nextPageData();
+      BatchData mmapData = mmapChunkReader.nextPageData();
+      while (localData.hasCurrent()) {
+        Assert.assertTrue(mmapData.hasCurrent());
+        Assert.assertEquals(localData.currentTime(), mmapData.currentTime());
+        Assert.assertEquals(localData.currentValue(), mmapData.currentValue());
+        localData.next();
+        mmapData.next();
+      }
+      Assert.assertFalse(mmapData.hasCurrent());
+    }
+    Assert.assertFalse(mmapChunkReader.hasNextSatisfiedPage());
+  }
+
+  @Test
+  public void testSliceAndRead() throws IOException {
+    MmapTsFileInput input = new MmapTsFileInput(Paths.get(FILE_PATH));
+    try {
+      ByteBuffer slice = input.slice(10, 20);
+      Assert.assertEquals(0, slice.position());
+      Assert.assertEquals(20, slice.limit());
+      Assert.assertTrue(slice.isReadOnly());
+
+      ByteBuffer copy = ByteBuffer.allocate(20);
+      Assert.assertEquals(20, input.read(copy, 10));
+      copy.flip();
+      Assert.assertEquals(copy, slice);
+      // a positional read does not move the position
+      Assert.assertEquals(0, input.position());
+
+      try {
+        slice.put((byte) 0);
+        Assert.fail();
+      } catch (ReadOnlyBufferException e) {
+        // expected
+      }
+      try {
+        input.slice(input.size() - 1, 2);
+        Assert.fail();
+      } catch (IOException e) {
+        // expected
+      }
+      Assert.assertEquals(-1, input.read(ByteBuffer.allocate(1), input.size()));
+    } finally {
+      input.close();
+    }
+  }
+
+  @Test
+  public void testReadAfterClose() throws IOException {
+    MmapTsFileInput input = new MmapTsFileInput(Paths.get(FILE_PATH));
+    long size = input.size();
+    input.close();
+    // closing twice is harmless
+    input.close();
+    Assert.assertEquals(size, input.size());
+    try {
+      input.slice(0, 1);
+      Assert.fail();
+    } catch (ClosedChannelException e) {
+      // expected
+    }
+    try {
+      input.read(ByteBuffer.allocate(1), 0);
+      Assert.fail();
+    } catch (ClosedChannelException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testOnlyChunksAreSliced() throws IOException {
+    AtomicInteger sliceCount = new AtomicInteger();
+    MmapTsFileInput input =
+        new MmapTsFileInput(Paths.get(FILE_PATH)) {
+          @Override
+          public ByteBuffer slice(long position, int size) throws IOException {
+            sliceCount.incrementAndGet();
+            return super.slice(position, size);
+          }
+        };
+    try (TsFileSequenceReader mmapReader = new TsFileSequenceReader(FILE_PATH, input)) {
+      // the metadata are copied into the heap, as they may be cached after the file is unmapped
+      for (String device : mmapReader.getAllDevices()) {
+        for (List<ChunkMetadata> chunkMetadataList :
+            mmapReader.readChunkMetadataInDevice(device).values()) {
+          Assert.assertEquals(0, sliceCount.get());
+          Chunk chunk = mmapReader.readMemChunk(chunkMetadataList.get(0));
+          Assert.assertEquals(1, sliceCount.getAndSet(0));
+          Assert.assertFalse(chunk.getData().hasArray());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testStreamReads() throws IOException {
+    byte[] bytes = Files.readAllBytes(Paths.get(FILE_PATH));
+    ByteBuffer expected = ByteBuffer.wrap(bytes);
+    MmapTsFileInput input = new MmapTsFileInput(Paths.get(FILE_PATH));
+    try {
+      Assert.assertEquals(bytes[0] & 0xFF, input.read());
+      Assert.assertEquals(1, input.position());
+
+      byte[] dst = new byte[10];
+      Assert.assertEquals(8, input.read(dst, 2, 8));
+      for (int i = 0; i < 8; i++) {
+        Assert.assertEquals(bytes[1 + i], dst[2 + i]);
+      }
+      Assert.assertEquals(0, input.read(dst, 0, 0));
+      Assert.assertEquals(9, input.position());
+
+      Assert.assertEquals(expected.getInt(9), input.readInt());
+      Assert.assertEquals(13, input.position());
+
+      // the end of the file
+      input.position(bytes.length - 2);
+      try {
+        input.readInt();
+        Assert.fail();
+      } catch (IOException e) {
+        // expected
+      }
+      Assert.assertEquals(bytes.length - 2, input.position());
+      Assert.assertEquals(2, input.read(dst, 0, dst.length));
+      Assert.assertEquals(-1, input.read());
+      Assert.assertEquals(-1, input.read(dst, 0, dst.length));
+    } finally {
+      input.close();
+    }
+  }
+}
@@ -34,7 +34,13 @@ import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionEncoderV1;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.filter.GroupByFilter;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.page.PageWriter;
@@ -45,6 +51,8 @@ import org.junit.Test;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 public class PageReaderTest {
@@ -312,4 +320,94 @@ public class PageReaderTest {
         };
     test.testDelete(TSDataType.INT64);
   }
+
+  @Test
+  public void testFilter() throws IOException {
+    int count = 10000;
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.setValueEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.initStatistics(TSDataType.INT64);
+    for (int i = 0; i < count; i++) {
+      pageWriter.write(i, (long) i * 2);
+    }
+    ByteBuffer page = ByteBuffer.wrap(pageWriter.getUncompressedBytes().array());
+    List<TimeRange> deleteIntervals =
+        Arrays.asList(new TimeRange(2000, 2100), new TimeRange(9000, 9000));
+
+    Filter[] filters = {
+      null,
+      TimeFilter.gtEq(1000L),
+      FilterFactory.and(TimeFilter.gt(1500L), TimeFilter.ltEq(5000L)),
+      FilterFactory.and(TimeFilter.gt(5000L), TimeFilter.lt(1500L)),
+      FilterFactory.or(TimeFilter.lt(100L), TimeFilter.eq(8000L)),
+      TimeFilter.not(TimeFilter.lt(3000L)),
+      TimeFilter.in(new HashSet<>(Arrays.asList(1L, 2050L, 7000L)), false),
+      new GroupByFilter(10, 1000, 500, 9500),
+      ValueFilter.gt(3000L),
+      FilterFactory.and(TimeFilter.lt(6000L), ValueFilter.ltEq(10000L))
+    };
+    for (Filter filter : filters) {
+      PageReader pageReader =
+          new PageReader(
+              page.duplicate(),
+              TSDataType.INT64,
+              new DeltaBinaryDecoder.LongDeltaDecoder(),
+              new DeltaBinaryDecoder.LongDeltaDecoder(),
+              filter);
+      pageReader.setDeleteIntervalList(deleteIntervals);
+      BatchData data = pageReader.getAllSatisfiedPageData();
+      for (long time = 0; time < count; time++) {
+        long value = time * 2;
+        boolean deleted = (time >= 2000 && time <= 2100) || time == 9000;
+        if (!deleted && (filter == null || filter.satisfy(time, value))) {
+          Assert.assertTrue(String.valueOf(filter), data.hasCurrent());
+          Assert.assertEquals(time, data.currentTime());
+          Assert.assertEquals(value, data.getLong());
+          data.next();
+        }
+      }
+      Assert.assertFalse(String.valueOf(filter), data.hasCurrent());
+    }
+  }
+
+  @Test
+  public void testColumnBatch() throws IOException {
+    int count = 3000;
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.setValueEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.initStatistics(TSDataType.INT64);
+    for (int i = 0; i < count; i++) {
+      pageWriter.write(i, (long) i * 2);
+    }
+    ByteBuffer page = ByteBuffer.wrap(pageWriter.getUncompressedBytes().array());
+
+    Filter[] filters = {null, TimeFilter.gtEq(1000L), ValueFilter.lt(3000L)};
+    for (Filter filter : filters) {
+      for (boolean ascending : new boolean[] {true, false}) {
+        BatchData data = createLongPageReader(page, filter).getAllSatisfiedPageData(ascending);
+        ColumnBatch columnBatch =
+            createLongPageReader(page, filter).getAllSatisfiedColumnBatch(ascending);
+        Assert.assertEquals(TSDataType.INT64, columnBatch.getDataType());
+        Assert.assertFalse(columnBatch.hasNull());
+        for (int i = 0; i < columnBatch.size(); i++) {
+          Assert.assertTrue(data.hasCurrent());
+          Assert.assertEquals(data.currentTime(), columnBatch.getTime(i));
+          Assert.assertEquals(data.getLong(), columnBatch.getLong(i));
+          data.next();
+        }
+        Assert.assertFalse(data.hasCurrent());
+      }
+    }
+  }
+
+  private PageReader createLongPageReader(ByteBuffer page, Filter filter) {
+    return new PageReader(
+        page.duplicate(),
+        TSDataType.INT64,
+        new DeltaBinaryDecoder.LongDeltaDecoder(),
+        new DeltaBinaryDecoder.LongDeltaDecoder(),
+        filter);
+  }
 }
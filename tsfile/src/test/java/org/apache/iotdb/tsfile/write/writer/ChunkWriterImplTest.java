@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.write.writer;
+
+import org.apache.iotdb.tsfile.constant.TestConstant;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChunkWriterImplTest {
+
+  private static final String FILE_PATH =
+      TestConstant.BASE_OUTPUT_PATH.concat("ChunkWriterImplTest.tsfile");
+  private static final String DEVICE = "d1";
+
+  private final MeasurementSchema schema =
+      new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE);
+
+  @After
+  public void tearDown() {
+    new File(FILE_PATH).delete();
+  }
+
+  @Test
+  public void testWriteCompressedPage() throws IOException {
+    ChunkWriterImpl multiPageWriter = new ChunkWriterImpl(schema);
+    writePoints(multiPageWriter, 0, 100);
+    multiPageWriter.sealCurrentPage();
+    writePoints(multiPageWriter, 200, 300);
+    ChunkWriterImpl singlePageWriter = new ChunkWriterImpl(schema);
+    writePoints(singlePageWriter, 400, 500);
+    List<Chunk> sourceChunks = writeAndReadChunks(multiPageWriter, singlePageWriter);
+    List<PageHeader> pageHeaders = new ArrayList<>();
+    List<ByteBuffer> pageDataList = new ArrayList<>();
+    for (Chunk chunk : sourceChunks) {
+      splitPages(chunk, pageHeaders, pageDataList);
+    }
+    assertEquals(3, pageHeaders.size());
+
+    // copied pages and written points in any order
+    ChunkWriterImpl chunkWriter = new ChunkWriterImpl(schema);
+    chunkWriter.writeCompressedPage(pageHeaders.get(0), pageDataList.get(0));
+    chunkWriter.writeCompressedPage(pageHeaders.get(1), pageDataList.get(1));
+    writePoints(chunkWriter, 300, 350);
+    chunkWriter.writeCompressedPage(pageHeaders.get(2), pageDataList.get(2));
+    assertEquals(4, chunkWriter.getNumOfPages());
+
+    Chunk chunk = writeAndReadChunks(chunkWriter).get(0);
+    assertEquals(350, chunk.getChunkStatistic().getCount());
+    assertEquals(0, chunk.getChunkStatistic().getStartTime());
+    assertEquals(499, chunk.getChunkStatistic().getEndTime());
+    List<Long> expectedTimes = new ArrayList<>();
+    for (long time = 0; time < 500; time++) {
+      if (time < 100 || time >= 200 && time < 350 || time >= 400) {
+        expectedTimes.add(time);
+      }
+    }
+    assertEquals(expectedTimes, readTimes(chunk));
+  }
+
+  @Test
+  public void testWriteSingleCompressedPage() throws IOException {
+    ChunkWriterImpl multiPageWriter = new ChunkWriterImpl(schema);
+    writePoints(multiPageWriter, 0, 100);
+    multiPageWriter.sealCurrentPage();
+    writePoints(multiPageWriter, 200, 300);
+    List<PageHeader> pageHeaders = new ArrayList<>();
+    List<ByteBuffer> pageDataList = new ArrayList<>();
+    splitPages(writeAndReadChunks(multiPageWriter).get(0), pageHeaders, pageDataList);
+
+    // the statistics of the only page are omitted
+    ChunkWriterImpl chunkWriter = new ChunkWriterImpl(schema);
+    chunkWriter.writeCompressedPage(pageHeaders.get(1), pageDataList.get(1));
+    Chunk chunk = writeAndReadChunks(chunkWriter).get(0);
+    assertEquals(
+        MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER, (byte) (chunk.getHeader().getChunkType() & 0x3F));
+    List<Long> times = readTimes(chunk);
+    assertEquals(100, times.size());
+    for (int i = 0; i < times.size(); i++) {
+      assertEquals(i + 200, (long) times.get(i));
+    }
+  }
+
+  @Test
+  public void testAutoEncoding() throws IOException {
+    MeasurementSchema autoSchema =
+        new MeasurementSchema(schema.getMeasurementId(), TSDataType.INT64, TSEncoding.AUTO);
+    ChunkWriterImpl chunkWriter = new ChunkWriterImpl(autoSchema);
+    writePoints(chunkWriter, 0, 3000);
+    chunkWriter.sealCurrentPage();
+    writePoints(chunkWriter, 3000, 3100);
+
+    // the encoding is selected from the first points and recorded in the chunk header
+    Chunk chunk = writeAndReadChunks(chunkWriter).get(0);
+    assertEquals(TSEncoding.TS_2DIFF, chunk.getHeader().getEncodingType());
+    List<Long> times = readTimes(chunk);
+    assertEquals(3100, times.size());
+    for (int i = 0; i < times.size(); i++) {
+      assertEquals(i, (long) times.get(i));
+    }
+
+    // the encoding of the next chunk is selected again from its own points
+    writePoints(chunkWriter, 0, 10);
+    chunk = writeAndReadChunks(chunkWriter).get(0);
+    assertEquals(TSEncoding.RLE, chunk.getHeader().getEncodingType());
+    assertEquals(10, readTimes(chunk).size());
+  }
+
+  private void writePoints(ChunkWriterImpl chunkWriter, long startTime, long endTime) {
+    for (long time = startTime; time < endTime; time++) {
+      chunkWriter.write(time, time * 2, false);
+    }
+  }
+
+  private List<Chunk> writeAndReadChunks(ChunkWriterImpl... chunkWriters) throws IOException {
+    TsFileIOWriter writer = new TsFileIOWriter(new File(FILE_PATH));
+    writer.startChunkGroup(DEVICE);
+    for (ChunkWriterImpl chunkWriter : chunkWriters) {
+      chunkWriter.writeToFileWriter(writer);
+    }
+    writer.endChunkGroup();
+    writer.endFile();
+
+    List<Chunk> chunks = new ArrayList<>();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      for (ChunkMetadata chunkMetadata :
+          reader.getChunkMetadataList(new Path(DEVICE, schema.getMeasurementId()))) {
+        chunks.add(reader.readMemChunk(chunkMetadata));
+      }
+    }
+    return chunks;
+  }
+
+  private void splitPages(
+      Chunk chunk, List<PageHeader> pageHeaders, List<ByteBuffer> pageDataList) {
+    ChunkHeader chunkHeader = chunk.getHeader();
+    ByteBuffer chunkData = chunk.getData().duplicate();
+    while (chunkData.hasRemaining()) {
+      PageHeader pageHeader =
+          ((byte) (chunkHeader.getChunkType() & 0x3F)) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER
+              ? PageHeader.deserializeFrom(chunkData, chunk.getChunkStatistic())
+              : PageHeader.deserializeFrom(chunkData, chunkHeader.getDataType());
+      ByteBuffer pageData = chunkData.slice();
+      pageData.limit(pageHeader.getCompressedSize());
+      chunkData.position(chunkData.position() + pageHeader.getCompressedSize());
+      pageHeaders.add(pageHeader);
+      pageDataList.add(pageData);
+    }
+  }
+
+  private List<Long> readTimes(Chunk chunk) throws IOException {
+    List<Long> times = new ArrayList<>();
+    ChunkReader chunkReader = new ChunkReader(chunk, null);
+    while (chunkReader.hasNextSatisfiedPage()) {
+      BatchData batchData = chunkReader.nextPageData();
+      for (int i = 0; i < batchData.length(); i++) {
+        assertEquals(batchData.getTimeByIndex(i) * 2, batchData.getLongByIndex(i));
+        times.add(batchData.getTimeByIndex(i));
+      }
+    }
+    return times;
+  }
+}